@@ -10,6 +10,7 @@ import net.sourceforge.squirrel_sql.client.session.action.*;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.action.ImportTableDataAction;
 import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.CompareToClipboardAction;
 import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffCompareAction;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffCompareDataAction;
 import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffSelectAction;
 import net.sourceforge.squirrel_sql.client.session.action.file.*;
 import net.sourceforge.squirrel_sql.client.session.action.multicaret.CaretAddAction;
@@ -249,6 +250,7 @@ public class ActionRegistry
 
       actionCollection.add(new DBDiffSelectAction());
       actionCollection.add(new DBDiffCompareAction());
+      actionCollection.add(new DBDiffCompareDataAction());
       actionCollection.add(new CompareToClipboardAction());
 
       actionCollection.add(new CreateDataScriptAction());
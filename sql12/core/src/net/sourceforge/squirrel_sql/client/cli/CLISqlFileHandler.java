@@ -1,8 +1,8 @@
 package net.sourceforge.squirrel_sql.client.cli;
 
-import net.sourceforge.squirrel_sql.fw.util.Utilities;
-
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -10,6 +10,27 @@ import java.nio.file.Paths;
 public class CLISqlFileHandler
 {
    public static String handleOptionalSqlFile(String sql, boolean throwIoException)
+   {
+      Path path = getSqlFile(sql);
+
+      if(null != path)
+      {
+         try
+         {
+            sql = new String(Files.readAllBytes(path));
+         }
+         catch (IOException e)
+         {
+            handleIOException(path, e, throwIoException);
+         }
+      }
+      return sql;
+   }
+
+   /**
+    * @return The file when sql is the path of a SQL file, null otherwise.
+    */
+   public static Path getSqlFile(String sql)
    {
       Path path = null;
       try
@@ -22,24 +43,40 @@ public class CLISqlFileHandler
 
       if(null != path && Files.isRegularFile(path))
       {
-         try
-         {
-            sql = new String(Files.readAllBytes(path));
-         }
-         catch (IOException e)
-         {
-            final String errMsg = "ERROR: Failed to read file " + path.getFileName() + ": " + e.getMessage();
-            if (throwIoException)
-            {
-               throw new RuntimeException(errMsg, e);
-            }
-            else
-            {
-               System.err.println(errMsg);
-               e.printStackTrace();
-            }
-         }
+         return path;
+      }
+      return null;
+   }
+
+   /**
+    * Opens a SQL file to be streamed to execution instead of being read into memory completely.
+    *
+    * @return null if the file could not be opened and throwIoException is false.
+    */
+   public static Reader openSqlFile(Path path, boolean throwIoException)
+   {
+      try
+      {
+         return Files.newBufferedReader(path, Charset.defaultCharset());
+      }
+      catch (IOException e)
+      {
+         handleIOException(path, e, throwIoException);
+         return null;
+      }
+   }
+
+   private static void handleIOException(Path path, IOException e, boolean throwIoException)
+   {
+      final String errMsg = "ERROR: Failed to read file " + path.getFileName() + ": " + e.getMessage();
+      if (throwIoException)
+      {
+         throw new RuntimeException(errMsg, e);
+      }
+      else
+      {
+         System.err.println(errMsg);
+         e.printStackTrace();
       }
-      return sql;
    }
 }
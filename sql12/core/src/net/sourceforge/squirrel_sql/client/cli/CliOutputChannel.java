@@ -0,0 +1,81 @@
+package net.sourceforge.squirrel_sql.client.cli;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of CLI output: A file that is appended to or STDOUT.
+ * Writes go through a large buffer directly to a NIO channel.
+ */
+public class CliOutputChannel
+{
+   private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+   private final String _outputFile;
+   private final Writer _writer;
+
+   public CliOutputChannel(String outputFile) throws IOException
+   {
+      _outputFile = outputFile;
+
+      if (null == outputFile)
+      {
+         _writer = Channels.newWriter(Channels.newChannel(System.out), StandardCharsets.UTF_8.newEncoder(), WRITE_BUFFER_SIZE);
+      }
+      else
+      {
+         Path file = Path.of(outputFile).toAbsolutePath();
+         Files.createDirectories(file.getParent());
+
+         FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+         _writer = Channels.newWriter(fileChannel, StandardCharsets.UTF_8.newEncoder(), WRITE_BUFFER_SIZE);
+      }
+   }
+
+   public Writer getWriter()
+   {
+      return _writer;
+   }
+
+   /**
+    * @return The file name or "STDOUT".
+    */
+   public String getDescription()
+   {
+      return null == _outputFile ? "STDOUT" : _outputFile;
+   }
+
+   public boolean isStdOut()
+   {
+      return null == _outputFile;
+   }
+
+   /**
+    * Called after each result so that messages written to STDOUT between results appear at the right position.
+    */
+   public void flush() throws IOException
+   {
+      _writer.flush();
+   }
+
+   /**
+    * STDOUT is flushed but not closed.
+    */
+   public void close() throws IOException
+   {
+      if (null == _outputFile)
+      {
+         _writer.flush();
+      }
+      else
+      {
+         _writer.close();
+      }
+   }
+}
@@ -0,0 +1,47 @@
+package net.sourceforge.squirrel_sql.client.cli;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Output formats of SQL results in CLI and batch mode.
+ * All formats except {@link #TEXT} are written row by row while the result is read, see {@link CliStreamingResultWriter}.
+ */
+public enum CliOutputFormat
+{
+   TEXT("text"),
+   CSV("csv"),
+   TSV("tsv"),
+   JSON_LINES("jsonl"),
+   FIXED_WIDTH("fixed");
+
+   private final String _name;
+
+   CliOutputFormat(String name)
+   {
+      _name = name;
+   }
+
+   public String getName()
+   {
+      return _name;
+   }
+
+   public boolean isStreaming()
+   {
+      return this != TEXT;
+   }
+
+   /**
+    * @return null if there is no format of the given name.
+    */
+   public static CliOutputFormat forName(String name)
+   {
+      return Arrays.stream(values()).filter(f -> f._name.equalsIgnoreCase(name)).findFirst().orElse(null);
+   }
+
+   public static String getNamesDescription()
+   {
+      return Arrays.stream(values()).map(f -> f._name).collect(Collectors.joining(", "));
+   }
+}
@@ -11,34 +11,29 @@ import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
 import net.sourceforge.squirrel_sql.fw.sql.querytokenizer.QueryHolder;
 import net.sourceforge.squirrel_sql.fw.util.Utilities;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.sql.SQLException;
 import java.util.ArrayList;
 
 public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
 {
    private CliSession _cliSession;
-
-   private String _outputFile;
-   private PrintWriter _printWriter;
-   private FileWriter _fileWriter;
-   private BufferedWriter _bufferedWriter;
+   private CliOutputFormat _outputFormat;
+   private CliOutputChannel _outputChannel;
    private long _counter;
 
    public CliSQLExecuterHandler(CliSession cliSession, String outputFile)
+   {
+      this(cliSession, outputFile, CliOutputFormat.TEXT);
+   }
+
+   public CliSQLExecuterHandler(CliSession cliSession, String outputFile, CliOutputFormat outputFormat)
    {
       try
       {
          _cliSession = cliSession;
-
-         if(null != outputFile)
-         {
-            tryInitFile(outputFile);
-         }
+         _outputFormat = outputFormat;
+         _outputChannel = new CliOutputChannel(outputFile);
       }
       catch (IOException e)
       {
@@ -46,29 +41,6 @@ public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
       }
    }
 
-   private void tryInitFile(String outputFile) throws IOException
-   {
-      _outputFile = outputFile;
-      File file = new File(_outputFile);
-
-      if(null != file.getParentFile())
-      {
-         file.getParentFile().mkdirs();
-      }
-
-      file.createNewFile();
-
-      if(false == file.exists())
-      {
-         throw new IllegalArgumentException("Failed to create file: " + file.getPath());
-      }
-
-
-      _fileWriter = new FileWriter(outputFile, true);
-      _bufferedWriter = new BufferedWriter(_fileWriter);
-      _printWriter = new PrintWriter(_bufferedWriter);
-   }
-
    @Override
    public String sqlExecutionException(Throwable th, String postErrorString)
    {
@@ -123,6 +95,13 @@ public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
       DialectType dialectType =
             DialectFactory.getDialectType(_cliSession.getMetaData());
 
+      if (_outputFormat.isStreaming())
+      {
+         CliStreamingResultWriter streamingResultWriter = new CliStreamingResultWriter(_outputFormat, _outputChannel);
+         rsds.streamSqlExecutionTabResultSet(rst, dialectType, streamingResultWriter);
+         streamingResultWriter.finish();
+         return;
+      }
 
       rsds.setSqlExecutionTabResultSet(rst, null, dialectType);
 
@@ -134,6 +113,15 @@ public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
          resultAsText.addRow(row);
       }
       resultAsText.close();
+
+      try
+      {
+         _outputChannel.flush();
+      }
+      catch (IOException e)
+      {
+         throw new DataSetException(e);
+      }
    }
 
    @Override
@@ -144,18 +132,18 @@ public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
 
    private void onAddLine(String line)
    {
-      if(null != _printWriter)
+      try
       {
-         _printWriter.print(line);
+         _outputChannel.getWriter().write(line);
 
-         if(++_counter % 10000L == 0)
+         if(false == _outputChannel.isStdOut() && ++_counter % 10000L == 0)
          {
-            System.out.println(_counter + " lines written to " + _outputFile);
+            System.out.println(_counter + " lines written to " + _outputChannel.getDescription());
          }
       }
-      else
+      catch (IOException e)
       {
-         System.out.print(line);
+         throw new RuntimeException(e);
       }
    }
 
@@ -174,52 +162,11 @@ public class CliSQLExecuterHandler extends CliSQLExecuterHandlerAdapter
    {
       try
       {
-         if(null != _printWriter)
-         {
-            _printWriter.flush();
-            _printWriter.close();
-         }
-         if(null != _bufferedWriter)
-         {
-            _bufferedWriter.flush();
-            _bufferedWriter.close();
-         }
+         _outputChannel.close();
       }
       catch (IOException e)
       {
          //
       }
-      finally
-      {
-         if(null != _fileWriter)
-         {
-            try
-            {
-               _fileWriter.flush();
-            }
-            catch (Exception e)
-            {
-               //
-            }
-            finally
-            {
-               try
-               {
-                  _fileWriter.close();
-               }
-               catch (Exception e)
-               {
-                  //
-               }
-            }
-         }
-      }
-
-//      if(null != _outputFile)
-//      {
-//         System.out.println("Finshed writing file " + _outputFile);
-//      }
    }
 }
-
-
@@ -4,6 +4,7 @@ import net.sourceforge.squirrel_sql.client.Main;
 import net.sourceforge.squirrel_sql.client.gui.db.SQLAlias;
 import net.sourceforge.squirrel_sql.client.gui.db.encryption.AliasPasswordHandler;
 import net.sourceforge.squirrel_sql.client.session.properties.SessionProperties;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache;
 import net.sourceforge.squirrel_sql.fw.id.IIdentifier;
 import net.sourceforge.squirrel_sql.fw.sql.*;
 import net.sourceforge.squirrel_sql.fw.sql.querytokenizer.IQueryTokenizer;
@@ -17,6 +18,7 @@ public class CliSession extends CliSessionAdapter
    private final SQLConnection _sqlConnection;
    private final QueryTokenizer _tokenizer;
    private final SessionProperties _sessionProperties;
+   private final ResultCache _resultCache = new ResultCache();
 
    public CliSession(SQLAlias aliasToConnectTo)
    {
@@ -78,6 +80,12 @@ public class CliSession extends CliSessionAdapter
       return _sessionProperties;
    }
 
+   @Override
+   public ResultCache getResultCache()
+   {
+      return _resultCache;
+   }
+
    @Override
    public void close() throws SQLException
    {
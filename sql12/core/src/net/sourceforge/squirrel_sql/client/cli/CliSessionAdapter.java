@@ -15,6 +15,7 @@ import net.sourceforge.squirrel_sql.client.session.event.SimpleSessionListener;
 import net.sourceforge.squirrel_sql.client.session.mainpanel.IMainPanelTab;
 import net.sourceforge.squirrel_sql.client.session.parser.IParserEventsProcessor;
 import net.sourceforge.squirrel_sql.client.session.properties.SessionProperties;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache;
 import net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfo;
 import net.sourceforge.squirrel_sql.fw.id.IIdentifier;
 import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
@@ -160,6 +161,12 @@ public class CliSessionAdapter implements ISession
       throw new UnsupportedOperationException("Must be implemented in derived class");
    }
 
+   @Override
+   public ResultCache getResultCache()
+   {
+      throw new UnsupportedOperationException("Must be implemented in derived class");
+   }
+
    @Override
    public void selectMainTab(int tabIndex) throws IllegalArgumentException
    {
@@ -0,0 +1,280 @@
+package net.sourceforge.squirrel_sql.client.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ColumnDisplayDefinition;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetException;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetRowConsumer;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
+import net.sourceforge.squirrel_sql.fw.gui.action.fileexport.DataExportCSVWriter;
+import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the rows of one result in one of the streaming {@link CliOutputFormat}s as soon as they are read.
+ * Memory use is constant: For {@link CliOutputFormat#FIXED_WIDTH} only the first {@link #FIXED_WIDTH_SAMPLE_SIZE}
+ * rows are held to estimate the column widths. Longer values that come later are written completely
+ * and shift the following columns of their line.
+ *
+ * Progress and throughput are reported on STDERR so that they don't mix with the output data.
+ */
+public class CliStreamingResultWriter implements ResultSetRowConsumer
+{
+   private static final int FIXED_WIDTH_SAMPLE_SIZE = 1000;
+   private static final int MAX_FIXED_WIDTH = 200;
+   private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+
+   private static final String LINE_SEPARATOR = System.lineSeparator();
+
+   private final CliOutputFormat _format;
+   private final CliOutputChannel _outputChannel;
+   private final Writer _writer;
+
+   private ColumnDisplayDefinition[] _colDefs;
+   private String[] _jsonFieldNames;
+   private ObjectMapper _mapper;
+
+   private List<String[]> _fixedWidthSample;
+   private int[] _fixedWidths;
+
+   private long _rowCount;
+   private final long _beginMillis = System.currentTimeMillis();
+   private long _lastProgressMillis = _beginMillis;
+
+   public CliStreamingResultWriter(CliOutputFormat format, CliOutputChannel outputChannel)
+   {
+      _format = format;
+      _outputChannel = outputChannel;
+      _writer = outputChannel.getWriter();
+   }
+
+   @Override
+   public void columnsRead(ColumnDisplayDefinition[] colDefs) throws DataSetException
+   {
+      _colDefs = colDefs;
+
+      String[] headings = new String[colDefs.length];
+      for (int i = 0; i < colDefs.length; i++)
+      {
+         headings[i] = colDefs[i].getColumnHeading();
+      }
+
+      switch (_format)
+      {
+         case CSV:
+         case TSV:
+            writeSeparated(headings);
+            break;
+         case JSON_LINES:
+            _mapper = new ObjectMapper();
+            _jsonFieldNames = headings;
+            break;
+         case FIXED_WIDTH:
+            _fixedWidthSample = new ArrayList<>();
+            _fixedWidthSample.add(headings);
+            break;
+         default:
+            throw new IllegalStateException("Not a streaming format: " + _format);
+      }
+   }
+
+   @Override
+   public void rowRead(Object[] row) throws DataSetException
+   {
+      switch (_format)
+      {
+         case CSV:
+         case TSV:
+            String[] values = new String[row.length];
+            for (int i = 0; i < row.length; i++)
+            {
+               values[i] = null == row[i] ? "" : CellComponentFactory.renderObject(row[i], _colDefs[i]);
+            }
+            writeSeparated(values);
+            break;
+         case JSON_LINES:
+            writeJsonLine(row);
+            break;
+         case FIXED_WIDTH:
+            writeFixedWidth(row);
+            break;
+      }
+
+      ++_rowCount;
+      if (0 == _rowCount % 1000 && System.currentTimeMillis() - _lastProgressMillis > PROGRESS_INTERVAL_MILLIS)
+      {
+         _lastProgressMillis = System.currentTimeMillis();
+         System.err.println(_rowCount + " rows written to " + _outputChannel.getDescription() + getThroughput());
+      }
+   }
+
+   /**
+    * Writes rows that are still held for width estimation, flushes and reports the finished result on STDERR.
+    */
+   public void finish() throws DataSetException
+   {
+      if (null != _fixedWidthSample)
+      {
+         flushFixedWidthSample();
+      }
+
+      try
+      {
+         _outputChannel.flush();
+      }
+      catch (IOException e)
+      {
+         throw new DataSetException(e);
+      }
+
+      System.err.println(_rowCount + " rows written to " + _outputChannel.getDescription() + getThroughput());
+   }
+
+   private String getThroughput()
+   {
+      long millis = Math.max(1, System.currentTimeMillis() - _beginMillis);
+      return " in " + millis + " millis (" + (_rowCount * 1000L / millis) + " rows/s)";
+   }
+
+   private void writeSeparated(String[] values) throws DataSetException
+   {
+      String separator = _format == CliOutputFormat.TSV ? "\t" : ",";
+
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i < values.length; i++)
+      {
+         if (0 < i)
+         {
+            line.append(separator);
+         }
+         line.append(DataExportCSVWriter.getDataCSV(separator, values[i]));
+      }
+      writeLine(line);
+   }
+
+   private void writeJsonLine(Object[] row) throws DataSetException
+   {
+      ObjectNode objectNode = _mapper.createObjectNode();
+
+      for (int i = 0; i < row.length; i++)
+      {
+         Object value = row[i];
+         String fieldName = _jsonFieldNames[i];
+
+         if (null == value)
+         {
+            objectNode.putNull(fieldName);
+         }
+         else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+         {
+            objectNode.put(fieldName, ((Number) value).longValue());
+         }
+         else if (value instanceof Double || value instanceof Float)
+         {
+            objectNode.put(fieldName, ((Number) value).doubleValue());
+         }
+         else if (value instanceof BigDecimal)
+         {
+            objectNode.put(fieldName, (BigDecimal) value);
+         }
+         else if (value instanceof Boolean)
+         {
+            objectNode.put(fieldName, (Boolean) value);
+         }
+         else
+         {
+            objectNode.put(fieldName, CellComponentFactory.renderObject(value, _colDefs[i]));
+         }
+      }
+
+      try
+      {
+         writeLine(new StringBuilder(_mapper.writeValueAsString(objectNode)));
+      }
+      catch (IOException e)
+      {
+         throw new DataSetException(e);
+      }
+   }
+
+   private void writeFixedWidth(Object[] row) throws DataSetException
+   {
+      String[] values = new String[row.length];
+      for (int i = 0; i < row.length; i++)
+      {
+         values[i] = null == row[i] ? StringUtilities.NULL_AS_STRING : CellComponentFactory.renderObject(row[i], _colDefs[i]);
+      }
+
+      if (null != _fixedWidthSample)
+      {
+         _fixedWidthSample.add(values);
+         if (_fixedWidthSample.size() > FIXED_WIDTH_SAMPLE_SIZE)
+         {
+            flushFixedWidthSample();
+         }
+      }
+      else
+      {
+         writeFixedWidthLine(values);
+      }
+   }
+
+   private void flushFixedWidthSample() throws DataSetException
+   {
+      _fixedWidths = new int[_colDefs.length];
+      for (String[] values : _fixedWidthSample)
+      {
+         for (int i = 0; i < values.length; i++)
+         {
+            _fixedWidths[i] = Math.min(MAX_FIXED_WIDTH, Math.max(_fixedWidths[i], values[i].length()));
+         }
+      }
+
+      for (String[] values : _fixedWidthSample)
+      {
+         writeFixedWidthLine(values);
+      }
+
+      _fixedWidthSample = null;
+   }
+
+   private void writeFixedWidthLine(String[] values) throws DataSetException
+   {
+      StringBuilder line = new StringBuilder();
+      for (int i = 0; i < values.length; i++)
+      {
+         if (0 < i)
+         {
+            line.append(' ');
+         }
+
+         line.append(values[i]);
+
+         if (i < values.length - 1)
+         {
+            for (int j = values[i].length(); j < _fixedWidths[i]; j++)
+            {
+               line.append(' ');
+            }
+         }
+      }
+      writeLine(line);
+   }
+
+   private void writeLine(StringBuilder line) throws DataSetException
+   {
+      try
+      {
+         _writer.append(line).append(LINE_SEPARATOR);
+      }
+      catch (IOException e)
+      {
+         throw new DataSetException(e);
+      }
+   }
+}
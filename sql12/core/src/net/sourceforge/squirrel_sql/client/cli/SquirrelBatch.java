@@ -8,6 +8,8 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.ParseException;
 
+import java.nio.file.Path;
+
 public class SquirrelBatch
 {
    public static void main(String[] args) throws ParseException
@@ -109,15 +111,27 @@ public class SquirrelBatch
 
          String sql = SquirrelBatchOptions.SQL.getValue(commandLine);
 
-         sql = CLISqlFileHandler.handleOptionalSqlFile(sql, false);
+         Path sqlFile = CLISqlFileHandler.getSqlFile(sql);
+
+         CliOutputFormat outputFormat = CliOutputFormat.TEXT;
+         if (SquirrelBatchOptions.OUTPUT_FORMAT.hasParam(commandLine))
+         {
+            outputFormat = CliOutputFormat.forName(SquirrelBatchOptions.OUTPUT_FORMAT.getValue(commandLine));
+         }
+         String outputFile = SquirrelBatchOptions.TO_FILE.getValue(commandLine);
 
-         if (SquirrelBatchOptions.TO_FILE_FORMATTED.hasParam(commandLine))
+         if (null != sqlFile && false == SquirrelBatchOptions.TO_FILE_FORMATTED.hasParam(commandLine))
+         {
+            SquirrelCli._execFileIntern(sqlFile, outputFile, outputFormat, false);
+         }
+         else if (SquirrelBatchOptions.TO_FILE_FORMATTED.hasParam(commandLine))
          {
+            sql = CLISqlFileHandler.handleOptionalSqlFile(sql, false);
             SquirrelCli._execIntern(sql, SquirrelBatchOptions.TO_FILE_FORMATTED.getValue(commandLine), true);
          }
          else
          {
-            SquirrelCli._execIntern(sql, null, false);
+            SquirrelCli.outputAsText(sql, outputFile, outputFormat);
          }
 
          SquirrelCli.close();
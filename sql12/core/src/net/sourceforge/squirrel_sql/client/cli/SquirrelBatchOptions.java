@@ -16,6 +16,8 @@ public enum SquirrelBatchOptions
    DRIVERCP(new Option("drivercp", true, "JDBC driver class path (a Java classpath)")),
    SQL(new Option("sql", true, "SQL statement or SQL script file")),
    TO_FILE_FORMATTED(new Option("toFileFormatted", true, "File to create. File format will be according to SQuirreL's 'Store result of SQL to file' dialog.")),
+   OUTPUT_FORMAT(new Option("outputFormat", true, "Output format, one of " + CliOutputFormat.getNamesDescription() + ". Except for text rows are written while they are read.")),
+   TO_FILE(new Option("toFile", true, "File to write the output to instead of STDOUT. The file is appended to.")),
    MAX_ROWS(new Option("maxrows", true, "Max rows of SQL query. 0 means no maximum. For default see SQuirreL GUI -> New Session Properties -> tab SQL")),
    USERDIR(new Option("userdir", true, "The user directory of your SQuirreL installation. Needed only if a non standard user directory is used.")),
    HELP(new Option("help", false, "Print help"));
@@ -88,8 +90,18 @@ public enum SquirrelBatchOptions
          }
       }
 
+      if(commandLine.hasOption(OUTPUT_FORMAT._option.getOpt()) && null == CliOutputFormat.forName(commandLine.getOptionValue(OUTPUT_FORMAT._option.getOpt())))
+      {
+         return OUTPUT_FORMAT._option.getOpt() + " must be one of " + CliOutputFormat.getNamesDescription();
+      }
+
       if(commandLine.hasOption(TO_FILE_FORMATTED._option.getOpt()))
       {
+         if(commandLine.hasOption(OUTPUT_FORMAT._option.getOpt()) || commandLine.hasOption(TO_FILE._option.getOpt()))
+         {
+            return TO_FILE_FORMATTED._option.getOpt() + " can not be combined with " + OUTPUT_FORMAT._option.getOpt() + " or " + TO_FILE._option.getOpt();
+         }
+
          if(commandLine.hasOption(MAX_ROWS._option.getOpt()))
          {
             return MAX_ROWS._option.getOpt() + " can not be combined with " + TO_FILE_FORMATTED._option.getOpt();
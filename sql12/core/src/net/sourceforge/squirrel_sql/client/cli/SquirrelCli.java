@@ -19,6 +19,8 @@ import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
 import net.sourceforge.squirrel_sql.fw.util.NullMessageHandler;
 import net.sourceforge.squirrel_sql.fw.util.Utilities;
 
+import java.io.Reader;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Iterator;
@@ -145,10 +147,67 @@ public class SquirrelCli
 
    public static void exec(String sql, String outputFile, boolean formatted)
    {
+      Path sqlFile = CLISqlFileHandler.getSqlFile(sql);
+      if (null != sqlFile && false == formatted)
+      {
+         _execFileIntern(sqlFile, outputFile, true);
+         return;
+      }
+
       sql = CLISqlFileHandler.handleOptionalSqlFile(sql, true);
       _execIntern(sql, outputFile, formatted);
    }
 
+   /**
+    * @param outputFormat See {@link CliOutputFormat}. Except for "text" rows are written while they are read.
+    */
+   public static void exec(String sql, String outputFile, String outputFormat)
+   {
+      CliOutputFormat format = CliOutputFormat.forName(outputFormat);
+      if (null == format)
+      {
+         throw new IllegalArgumentException("Unknown output format \"" + outputFormat + "\". Known formats are: " + CliOutputFormat.getNamesDescription());
+      }
+
+      Path sqlFile = CLISqlFileHandler.getSqlFile(sql);
+      if (null != sqlFile)
+      {
+         _execFileIntern(sqlFile, outputFile, format, true);
+         return;
+      }
+
+      sql = CLISqlFileHandler.handleOptionalSqlFile(sql, true);
+      outputAsText(sql, outputFile, format);
+   }
+
+   /**
+    * Streams the SQL file to execution, so that execution starts with the file's first statement
+    * and the file is never held in memory completely.
+    */
+   public static void _execFileIntern(Path sqlFile, String outputFile, boolean throwIoException)
+   {
+      _execFileIntern(sqlFile, outputFile, CliOutputFormat.TEXT, throwIoException);
+   }
+
+   public static void _execFileIntern(Path sqlFile, String outputFile, CliOutputFormat outputFormat, boolean throwIoException)
+   {
+      Reader scriptReader = CLISqlFileHandler.openSqlFile(sqlFile, throwIoException);
+
+      if (null == scriptReader)
+      {
+         return;
+      }
+
+      _cliConnectionData.ensureCliSessionCreated();
+
+      ISQLExecuterHandler sqlExecuterHandlerProxy = new CliSQLExecuterHandler(_cliConnectionData.getCliSession(), outputFile, outputFormat);
+
+      SQLExecuterTask sqlExecuterTask = new SQLExecuterTask(_cliConnectionData.getCliSession(), scriptReader, sqlExecuterHandlerProxy);
+      sqlExecuterTask.setExecuteEditableCheck(false);
+
+      sqlExecuterTask.run();
+   }
+
    public static void _execIntern(String sql, String outputFile, boolean formatted)
    {
       //System.out.println("sql = " + sql);
@@ -189,10 +248,15 @@ public class SquirrelCli
    }
 
    private static void outputAsText(String sql, String outputFile)
+   {
+      outputAsText(sql, outputFile, CliOutputFormat.TEXT);
+   }
+
+   public static void outputAsText(String sql, String outputFile, CliOutputFormat outputFormat)
    {
       _cliConnectionData.ensureCliSessionCreated();
 
-      ISQLExecuterHandler sqlExecuterHandlerProxy = new CliSQLExecuterHandler(_cliConnectionData.getCliSession(), outputFile);
+      ISQLExecuterHandler sqlExecuterHandlerProxy = new CliSQLExecuterHandler(_cliConnectionData.getCliSession(), outputFile, outputFormat);
 
       SQLExecuterTask sqlExecuterTask = new SQLExecuterTask(_cliConnectionData.getCliSession(), sql, sqlExecuterHandlerProxy);
       sqlExecuterTask.setExecuteEditableCheck(false);
@@ -27,6 +27,8 @@ public class SquirrelCliHelp
       System.out.println("-- exec(<sqlOrSqlFile>, <outputFile>) --> Allows to write the output to a file instead of STDOUT.");
       System.out.println("-- exec(<sqlOrSqlFile>, <outputFile>, <formatted>) --> Allows to write the output to a file instead of STDOUT");
       System.out.println("     When <formatted> is true File format will be according to SQuirreL's 'Store result of SQL to file' dialog.");
+      System.out.println("-- exec(<sqlOrSqlFile>, <outputFile>, <outputFormat>) --> Writes the output in one of the formats " + CliOutputFormat.getNamesDescription() + ".");
+      System.out.println("     Except for text rows are written while they are read, so results of any size can be written. <outputFile> may be null for STDOUT.");
       System.out.println("-- close() --> Closes the current database connection.");
       System.out.println("-- help() --> Prints this help.");
 
@@ -66,6 +66,7 @@ final class GeneralPreferencesGUI extends JPanel
 
    private JComboBox _localeChooser = new JComboBox(LocaleWrapper.getAvailableLocaleWrappers());
    private MaxColumnAdjustLengthCtrl _maxColumnAdjustLengthCtrl = new MaxColumnAdjustLengthCtrl();
+   private SpillResultsToDiskCtrl _spillResultsToDiskCtrl = new SpillResultsToDiskCtrl();
    private MessagePrefsCtrl _messagePrefsCtrl = new MessagePrefsCtrl();
 
    private PasswordAccessPrefsCtrl _passwordAccessPrefsCtrl = new PasswordAccessPrefsCtrl();
@@ -113,6 +114,7 @@ final class GeneralPreferencesGUI extends JPanel
       _selectOnRightMouseClick.setSelected(prefs.getSelectOnRightMouseClick());
       _showPleaseWaitDialog.setSelected(prefs.getShowPleaseWaitDialog());
       _maxColumnAdjustLengthCtrl.init(prefs.getMaxColumnAdjustLengthDefined(), prefs.getMaxColumnAdjustLength());
+      _spillResultsToDiskCtrl.loadData(prefs);
 
       LocaleWrapper.setSelectedLocalePrefsString(_localeChooser, prefs.getPreferredLocale());
 
@@ -165,6 +167,7 @@ final class GeneralPreferencesGUI extends JPanel
       prefs.setPreferredLocale(LocaleWrapper.getSelectedLocalePrefsString(_localeChooser));
       prefs.setMaxColumnAdjustLengthDefined(_maxColumnAdjustLengthCtrl.isMaxColumnAdjustLengthDefined());
       prefs.setMaxColumnAdjustLength(_maxColumnAdjustLengthCtrl.getMaxColumnAdjustLength());
+      _spillResultsToDiskCtrl.applyChanges(prefs);
 
       _messagePrefsCtrl.applyChanges(prefs);
 
@@ -321,6 +324,10 @@ final class GeneralPreferencesGUI extends JPanel
 
       gbc.gridx = 0;
       gbc.gridy = 10;
+      pnl.add(_spillResultsToDiskCtrl.getPanel(), gbc);
+
+      gbc.gridx = 0;
+      gbc.gridy = 11;
       pnl.add(_passwordAccessPrefsCtrl.getPanel(), gbc);
 
 
@@ -0,0 +1,90 @@
+package net.sourceforge.squirrel_sql.client.preferences;
+
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
+
+import javax.swing.BorderFactory;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+
+public class SpillResultsToDiskCtrl
+{
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(SpillResultsToDiskCtrl.class);
+
+   private static final int MIN_ROWS_IN_MEMORY = 10000;
+
+   private final JPanel _pnl;
+   private final JCheckBox _chkSpillResultsToDisk;
+   private final JTextField _txtRowsInMemory;
+
+   public SpillResultsToDiskCtrl()
+   {
+      _pnl = new JPanel(new GridBagLayout());
+
+      GridBagConstraints gbc;
+      gbc = new GridBagConstraints(0,0,3,1,0,0,GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0,0,0,0),0,0);
+      _chkSpillResultsToDisk = new JCheckBox(s_stringMgr.getString("GeneralPreferencesPanel.spillResultsToDisk.check"));
+      _pnl.add(_chkSpillResultsToDisk, gbc);
+
+      gbc = new GridBagConstraints(0,1,1,1,0,0,GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(0,20,0,0),0,0);
+      _pnl.add(new JLabel(s_stringMgr.getString("GeneralPreferencesPanel.spillResultsToDisk.rowsInMemory")), gbc);
+
+      gbc = new GridBagConstraints(1,1,1,1,0,0,GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(0,5,0,0),0,0);
+      _txtRowsInMemory = new JTextField();
+      _txtRowsInMemory.setColumns(8);
+      _pnl.add(_txtRowsInMemory, gbc);
+
+      gbc = new GridBagConstraints(2,1,1,1,1,1,GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(0,0,0,0),0,0);
+      _pnl.add(new JPanel(), gbc);
+
+      _pnl.setBorder(BorderFactory.createEtchedBorder());
+
+      _chkSpillResultsToDisk.addActionListener(e -> onSpillResultsToDisk());
+   }
+
+   private void onSpillResultsToDisk()
+   {
+      _txtRowsInMemory.setEnabled(_chkSpillResultsToDisk.isSelected());
+   }
+
+   public JPanel getPanel()
+   {
+      return _pnl;
+   }
+
+   public void loadData(SquirrelPreferences prefs)
+   {
+      _chkSpillResultsToDisk.setSelected(prefs.isSpillResultsToDisk());
+      _txtRowsInMemory.setText("" + prefs.getSpillResultsToDiskRowsInMemory());
+      onSpillResultsToDisk();
+   }
+
+   public void applyChanges(SquirrelPreferences prefs)
+   {
+      prefs.setSpillResultsToDisk(_chkSpillResultsToDisk.isSelected());
+      prefs.setSpillResultsToDiskRowsInMemory(getRowsInMemory(prefs.getSpillResultsToDiskRowsInMemory()));
+   }
+
+   private int getRowsInMemory(int defaultRowsInMemory)
+   {
+      if(StringUtilities.isEmpty(_txtRowsInMemory.getText(), true))
+      {
+         return defaultRowsInMemory;
+      }
+
+      try
+      {
+         return Math.max(MIN_ROWS_IN_MEMORY, Integer.parseInt(_txtRowsInMemory.getText().trim()));
+      }
+      catch (NumberFormatException e)
+      {
+         return defaultRowsInMemory;
+      }
+   }
+}
@@ -106,6 +106,8 @@ public class SquirrelPreferences implements Serializable
       String PREFERRED_LOCALE = "preferredLocale";
       String MAX_COLUMN_ADJUST_LENGTH_DEFINED = "maxColumnAdjustLengthDefined";
       String MAX_COLUMN_ADJUST_LENGTH = "maxColumnAdjustLength";
+      String SPILL_RESULTS_TO_DISK = "spillResultsToDisk";
+      String SPILL_RESULTS_TO_DISK_ROWS_IN_MEMORY = "spillResultsToDiskRowsInMemory";
       String REMEMBER_VALUE_OF_POPUP = "rememberValueOfPopup";
       String RELOAD_SQL_CONTENTS = "ReloadSqlContents";
       String MAX_TEXTOUTPUT_COLUMN_WIDTH = "MaxTextOutputColumnWidth";
@@ -286,6 +288,10 @@ public class SquirrelPreferences implements Serializable
 
    private int _maxColumnAdjustLength = -1;
 
+   private boolean _spillResultsToDisk = false;
+
+   private int _spillResultsToDiskRowsInMemory = 100000;
+
 	private boolean _useShortSessionTitle = false;
 
 
@@ -1271,6 +1277,26 @@ public class SquirrelPreferences implements Serializable
       return _maxColumnAdjustLength;
    }
 
+   public boolean isSpillResultsToDisk()
+   {
+      return _spillResultsToDisk;
+   }
+
+   public void setSpillResultsToDisk(boolean spillResultsToDisk)
+   {
+      _spillResultsToDisk = spillResultsToDisk;
+   }
+
+   public int getSpillResultsToDiskRowsInMemory()
+   {
+      return _spillResultsToDiskRowsInMemory;
+   }
+
+   public void setSpillResultsToDiskRowsInMemory(int spillResultsToDiskRowsInMemory)
+   {
+      _spillResultsToDiskRowsInMemory = spillResultsToDiskRowsInMemory;
+   }
+
 	public void setUseShortSessionTitle(boolean useShortSessionTitle)
 	{
 		_useShortSessionTitle = useShortSessionTitle;
@@ -104,6 +104,10 @@ public class SquirrelPreferencesBeanInfo extends SimpleBeanInfo implements Squir
 
             prop(MAX_COLUMN_ADJUST_LENGTH, SquirrelPreferences.class, "getMaxColumnAdjustLength", "setMaxColumnAdjustLength"),
 
+            prop(SPILL_RESULTS_TO_DISK, SquirrelPreferences.class, "isSpillResultsToDisk", "setSpillResultsToDisk"),
+
+            prop(SPILL_RESULTS_TO_DISK_ROWS_IN_MEMORY, SquirrelPreferences.class, "getSpillResultsToDiskRowsInMemory", "setSpillResultsToDiskRowsInMemory"),
+
             prop(REMEMBER_VALUE_OF_POPUP, SquirrelPreferences.class, "isRememberValueOfPopup", "setRememberValueOfPopup"),
 
             prop(RELOAD_SQL_CONTENTS, SquirrelPreferences.class, "isReloadSqlContents", "setReloadSqlContents"),
@@ -492,6 +492,8 @@ public class DataSetUpdateableTableModelImpl implements IDataSetUpdateableTableM
       if (_tableInfo == null)
          return TI_ERROR_MESSAGE;
 
+      invalidateResultCache();
+
       // get WHERE clause using original value
       List<IWhereClausePart> whereClauseParts = getWhereClause(values, colDefs, col, oldValue);
       String whereClause = whereClausePartUtil.createWhereClause(whereClauseParts);
@@ -678,6 +680,8 @@ public class DataSetUpdateableTableModelImpl implements IDataSetUpdateableTableM
       if (_tableInfo == null)
          return TI_ERROR_MESSAGE;
 
+      invalidateResultCache();
+
       // get the SQL session
       final ISession session = _session;
       final ISQLConnection conn = session.getSQLConnection();
@@ -887,6 +891,8 @@ public class DataSetUpdateableTableModelImpl implements IDataSetUpdateableTableM
          return TI_ERROR_MESSAGE;
       }
 
+      invalidateResultCache();
+
       final ISession session = _session;
       final ISQLConnection conn = session.getSQLConnection();
 
@@ -992,6 +998,14 @@ public class DataSetUpdateableTableModelImpl implements IDataSetUpdateableTableM
       return null;
    }
 
+   /**
+    * Called before the table is changed because the Contents tab is reloaded right after inserts.
+    */
+   private void invalidateResultCache()
+   {
+      _session.getResultCache().invalidateTable(_tableInfo.getSimpleName());
+   }
+
    public void addListener(DataSetUpdateableTableModelListener l)
    {
       _dataSetUpdateableTableModelListener.add(l);
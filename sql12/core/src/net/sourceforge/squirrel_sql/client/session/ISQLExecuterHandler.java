@@ -88,6 +88,7 @@ public interface ISQLExecuterHandler
 
    /**
     * To set the number of statements that will be executed
+    * or {@link net.sourceforge.squirrel_sql.fw.sql.querytokenizer.IQueryTokenizer#UNKNOWN_QUERY_COUNT} when the script is streamed.
     */
 	void sqlStatementCount(int statementCount);
 
@@ -35,6 +35,7 @@ import net.sourceforge.squirrel_sql.client.session.event.SimpleSessionListener;
 import net.sourceforge.squirrel_sql.client.session.mainpanel.IMainPanelTab;
 import net.sourceforge.squirrel_sql.client.session.parser.IParserEventsProcessor;
 import net.sourceforge.squirrel_sql.client.session.properties.SessionProperties;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache;
 import net.sourceforge.squirrel_sql.fw.id.IHasIdentifier;
 import net.sourceforge.squirrel_sql.fw.id.IIdentifier;
 import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
@@ -159,6 +160,11 @@ public interface ISession extends IHasIdentifier
     */
    net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfo getSchemaInfo();
 
+   /**
+    * Retrieve the cache of results read by this session.
+    */
+   ResultCache getResultCache();
+
    /**
     * Select a tab in the main tabbed pane.
     *
@@ -0,0 +1,283 @@
+package net.sourceforge.squirrel_sql.client.session;
+
+import net.sourceforge.squirrel_sql.client.session.connectionpool.SessionConnectionPool;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.sql.querytokenizer.QueryHolder;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Executes the statements of a script that consists of SELECT statements only
+ * concurrently on the connections of the session's query connection pool,
+ * see session property "executeSelectsInParallel".
+ *
+ * {@link SQLExecuterTask} processes the results in script order: The result of a statement
+ * is shown as soon as the statement and all statements before it were executed.
+ */
+class ParallelSelectExecution
+{
+   private static final ILogger s_log = LoggerController.createLogger(ParallelSelectExecution.class);
+
+   private static final Pattern PATTERN_NOT_READ_ONLY = Pattern.compile("\\bINTO\\b|\\bFOR\\s+UPDATE\\b");
+
+   private final ISession _session;
+   private final String _tableToBeEdited;
+   private final ExecutorService _executorService;
+   private final List<Future<?>> _futures = new ArrayList<>();
+
+   /**
+    * Statements that are being executed. Guarded by this.
+    */
+   private final List<StatementWrapper> _executingStatements = new ArrayList<>();
+
+   /**
+    * Executed statements whose results were not yet taken by {@link #awaitExecuted(int)}. Guarded by this.
+    */
+   private final ExecutedSelect[] _executedSelects;
+
+   /**
+    * Guarded by this.
+    */
+   private boolean _closed;
+
+   /**
+    * @return true if queries is a read only script of at least two statements and the session's
+    * query connection pool is able to provide more than one connection.
+    */
+   static boolean isApplicable(ISession session, List<QueryHolder> queries)
+   {
+      if (2 > queries.size())
+      {
+         return false;
+      }
+
+      SessionConnectionPool pool = session.getConnectionPool();
+      if (false == pool.isAutoCommit() || 2 > pool.getQueryConnectionPoolSize())
+      {
+         // Pool is inactive, all statements would run on the master connection.
+         return false;
+      }
+
+      return queries.stream().allMatch(q -> isReadOnlySelect(q));
+   }
+
+   private static boolean isReadOnlySelect(QueryHolder query)
+   {
+      String upperSql = query.getCleanQuery().trim().toUpperCase();
+      return upperSql.startsWith("SELECT") && false == PATTERN_NOT_READ_ONLY.matcher(upperSql).find();
+   }
+
+   ParallelSelectExecution(ISession session, List<QueryHolder> queries, String tableToBeEdited)
+   {
+      _session = session;
+      _tableToBeEdited = tableToBeEdited;
+      _executedSelects = new ExecutedSelect[queries.size()];
+
+      int parallelism = Math.min(queries.size(), session.getConnectionPool().getQueryConnectionPoolSize());
+
+      _executorService = Executors.newFixedThreadPool(parallelism, r -> {
+         Thread thread = new Thread(r, "Parallel Select Thread");
+         thread.setDaemon(true);
+         return thread;
+      });
+
+      for (int i = 0; i < queries.size(); i++)
+      {
+         final int queryIx = i;
+         final QueryHolder query = queries.get(i);
+         _futures.add(_executorService.submit(() -> { execute(queryIx, query); return null; }));
+      }
+   }
+
+   private void execute(int queryIx, QueryHolder query) throws SQLException
+   {
+      synchronized (this)
+      {
+         if (_closed)
+         {
+            return;
+         }
+      }
+
+      ISQLConnection conn = _session.checkOutUserQuerySQLConnection();
+      StatementWrapper statementWrapper = null;
+      ExecutedSelect executedSelect = null;
+      try
+      {
+         statementWrapper = SQLExecuterTask.createStatementWrapper(conn, _session);
+         statementWrapper.setMaxRows();
+
+         synchronized (this)
+         {
+            _executingStatements.add(statementWrapper);
+         }
+
+         final SQLExecutionInfo exInfo = new SQLExecutionInfo(queryIx + 1, query, statementWrapper.getMaxRows(), _tableToBeEdited);
+         boolean firstResultIsResultSet = statementWrapper.execute(query.getQuery());
+         exInfo.sqlExecutionComplete();
+
+         executedSelect = new ExecutedSelect(conn, statementWrapper, exInfo, firstResultIsResultSet);
+      }
+      finally
+      {
+         synchronized (this)
+         {
+            _executingStatements.remove(statementWrapper);
+
+            if (null != executedSelect && false == _closed)
+            {
+               _executedSelects[queryIx] = executedSelect;
+            }
+            else
+            {
+               // Failed or nobody is going to process the result anymore.
+               cleanUp(conn, statementWrapper);
+            }
+         }
+      }
+   }
+
+   /**
+    * Waits until the statement at queryIx was executed.
+    * The caller must close the statement and return the connection when done, see {@link #cleanUp(ExecutedSelect)}.
+    *
+    * @throws SQLException if executing the statement failed.
+    */
+   ExecutedSelect awaitExecuted(int queryIx) throws SQLException
+   {
+      try
+      {
+         _futures.get(queryIx).get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+      catch (ExecutionException e)
+      {
+         if (e.getCause() instanceof SQLException)
+         {
+            throw (SQLException) e.getCause();
+         }
+         if (e.getCause() instanceof Error)
+         {
+            throw (Error) e.getCause();
+         }
+         throw new RuntimeException(e.getCause());
+      }
+
+      synchronized (this)
+      {
+         ExecutedSelect ret = _executedSelects[queryIx];
+         _executedSelects[queryIx] = null;
+         return ret;
+      }
+   }
+
+   void cleanUp(ExecutedSelect executedSelect)
+   {
+      cleanUp(executedSelect.getConnection(), executedSelect.getStatementWrapper());
+   }
+
+   private void cleanUp(ISQLConnection conn, StatementWrapper statementWrapper)
+   {
+      try
+      {
+         if (null != statementWrapper)
+         {
+            statementWrapper.closeIfContinueReadIsNotActive();
+         }
+      }
+      catch (Throwable t)
+      {
+         s_log.error("Failed to close statement", t);
+      }
+      finally
+      {
+         _session.returnUserQuerySQLConnection(conn);
+      }
+   }
+
+   void cancel()
+   {
+      ArrayList<StatementWrapper> executingStatements;
+      synchronized (this)
+      {
+         executingStatements = new ArrayList<>(_executingStatements);
+      }
+
+      for (StatementWrapper executingStatement : executingStatements)
+      {
+         new CancelStatementThread(executingStatement, _session.getApplication().getMessageHandler()).tryCancel();
+      }
+   }
+
+   /**
+    * Statements that were not yet started won't be executed anymore.
+    * Results that were not taken by {@link #awaitExecuted(int)} are cleaned up.
+    */
+   void close()
+   {
+      synchronized (this)
+      {
+         _closed = true;
+
+         for (int i = 0; i < _executedSelects.length; i++)
+         {
+            if (null != _executedSelects[i])
+            {
+               cleanUp(_executedSelects[i]);
+               _executedSelects[i] = null;
+            }
+         }
+      }
+
+      _executorService.shutdown();
+   }
+
+   static class ExecutedSelect
+   {
+      private final ISQLConnection _connection;
+      private final StatementWrapper _statementWrapper;
+      private final SQLExecutionInfo _executionInfo;
+      private final boolean _firstResultIsResultSet;
+
+      private ExecutedSelect(ISQLConnection connection, StatementWrapper statementWrapper, SQLExecutionInfo executionInfo, boolean firstResultIsResultSet)
+      {
+         _connection = connection;
+         _statementWrapper = statementWrapper;
+         _executionInfo = executionInfo;
+         _firstResultIsResultSet = firstResultIsResultSet;
+      }
+
+      ISQLConnection getConnection()
+      {
+         return _connection;
+      }
+
+      StatementWrapper getStatementWrapper()
+      {
+         return _statementWrapper;
+      }
+
+      SQLExecutionInfo getExecutionInfo()
+      {
+         return _executionInfo;
+      }
+
+      boolean isFirstResultIsResultSet()
+      {
+         return _firstResultIsResultSet;
+      }
+   }
+}
@@ -27,6 +27,8 @@ package net.sourceforge.squirrel_sql.client.session;
  * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
  */
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -71,6 +73,9 @@ public class SQLExecuterTask implements Runnable
 
    /** SQL passed in to be executed. */
    private String _sql;
+
+   /** Script streamed by the tokenizer, null when _sql is given. */
+   private Reader _scriptReader;
    private boolean _cancelExecution = false;
 
    private int _currentQueryIndex = 0;
@@ -83,6 +88,16 @@ public class SQLExecuterTask implements Runnable
    private String _tableToBeEdited;
    private boolean _executeEditableCheck = true;
 
+   /**
+    * Queries taken from the tokenizer that still need to be executed, e.g. because they didn't fit into a batch.
+    */
+   private ArrayList<QueryHolder> _pendingQueries = new ArrayList<>();
+
+   /**
+    * Non null while a SELECT only script is executed in parallel, see {@link ParallelSelectExecution}.
+    */
+   private volatile ParallelSelectExecution _parallelSelectExecution;
+
    public SQLExecuterTask(ISession session, String sql,ISQLExecuterHandler handler)
    {
       this(session, sql, handler, new ISQLExecutionListener[0]);
@@ -94,13 +109,29 @@ public class SQLExecuterTask implements Runnable
    }
 
    public SQLExecuterTask(ISession session, String sql, ISQLExecuterHandler handler, List<ISQLExecutionListener> executionListeners, String tableToBeEdited)
+   {
+      this(session, handler, executionListeners, tableToBeEdited);
+      _sql = sql;
+      _tokenizer.setScriptToTokenize(_sql);
+   }
+
+   /**
+    * Executes a script that is read while it is executed, see {@link IQueryTokenizer#setScriptToTokenize(Reader)}.
+    * Execution starts as soon as the first statement was read. The reader is closed when execution is finished.
+    */
+   public SQLExecuterTask(ISession session, Reader scriptReader, ISQLExecuterHandler handler)
+   {
+      this(session, handler, new ArrayList<>(), null);
+      _scriptReader = scriptReader;
+      _tokenizer.setScriptToTokenize(_scriptReader);
+   }
+
+   private SQLExecuterTask(ISession session, ISQLExecuterHandler handler, List<ISQLExecutionListener> executionListeners, String tableToBeEdited)
    {
       _tableToBeEdited = tableToBeEdited;
       _session = session;
       _schemaInfoUpdateCheck = new SchemaInfoUpdateCheck(_session);
-      _sql = sql;
       _tokenizer = _session.getQueryTokenizer();
-      _tokenizer.setScriptToTokenize(_sql);
       _handler = handler;
       if (_handler == null)
       {
@@ -121,7 +152,7 @@ public class SQLExecuterTask implements Runnable
 
    /**
     * Returns the number of queries that the tokenizer found in _sql.
-    * @return
+    * @return {@link IQueryTokenizer#UNKNOWN_QUERY_COUNT} when the script is streamed.
     */
    public int getQueryCount() {
        return _tokenizer.getQueryCount();
@@ -139,7 +170,7 @@ public class SQLExecuterTask implements Runnable
 
    public void runDirect(DatabaseUpdateInfosListener databaseUpdateInfosListener)
    {
-      if (_sql == null)
+      if (_sql == null && _scriptReader == null)
       {
          return;
       }
@@ -158,7 +189,9 @@ public class SQLExecuterTask implements Runnable
 
          final boolean correctlySupportsMaxRows = conn.getSQLMetaData().correctlySupportsSetMaxRows();
 
-         if(_tokenizer.getQueryCount() == 0)
+         statementCount = _tokenizer.getQueryCount();
+
+         if(statementCount == 0 || false == _tokenizer.hasQuery())
          {
             throw new IllegalArgumentException("No SQL selected for execution.");
          }
@@ -166,18 +199,105 @@ public class SQLExecuterTask implements Runnable
          _currentQueryIndex = 0;
 
          int processedStatementCount = 0;
-         statementCount = _tokenizer.getQueryCount();
 
          _handler.sqlStatementCount(statementCount);
 
-         while (_tokenizer.hasQuery() && !_cancelExecution)
+         final boolean useBatches = props.getSQLBatchExecution() && supportsBatchUpdates(conn);
+
+         List<QueryHolder> parallelSelects = getParallelSelects(props);
+         if (null != parallelSelects)
+         {
+            _parallelSelectExecution = new ParallelSelectExecution(_session, parallelSelects, _tableToBeEdited);
+
+            // Results are processed in script order on this thread.
+            for (int i = 0; i < parallelSelects.size() && false == _cancelExecution; i++)
+            {
+               QueryHolder querySql = parallelSelects.get(i);
+
+               ++processedStatementCount;
+               if (_handler != null)
+               {
+                  _handler.sqlToBeExecuted(querySql);
+               }
+
+               ParallelSelectExecution.ExecutedSelect executedSelect = null;
+               try
+               {
+                  lastExecutedStatement = querySql.getQuery();
+
+                  executedSelect = _parallelSelectExecution.awaitExecuted(i);
+                  _currentStatementWrapper = executedSelect.getStatementWrapper();
+                  _currentQueryIndex = i + 1;
+
+                  if (!processResults(querySql, executedSelect.getExecutionInfo(), executedSelect.isFirstResultIsResultSet(), processedStatementCount, statementCount, _currentStatementWrapper, executedSelect.getConnection()))
+                  {
+                     break;
+                  }
+               }
+               catch (SQLException ex)
+               {
+                  if (false == onQueryFailed(ex, lastExecutedStatement, statementCount, sqlExecErrorMsgs))
+                  {
+                     break;
+                  }
+               }
+               finally
+               {
+                  if (null != executedSelect)
+                  {
+                     _parallelSelectExecution.cleanUp(executedSelect);
+                  }
+               }
+            }
+
+            // All queries were taken from the tokenizer, so the loop below has nothing left to do.
+         }
+
+         while (hasNextQuery() && !_cancelExecution)
          {
-            QueryHolder querySql = _tokenizer.nextQuery();
+            QueryHolder querySql = nextQuery();
             if (querySql == null)
             {
                continue;
             }
 
+            if (useBatches && StatementBatch.isBatchable(querySql))
+            {
+               StatementBatch statementBatch = collectBatch(querySql, props.getSQLBatchSize());
+
+               if (1 < statementBatch.size())
+               {
+                  _currentStatementWrapper = createStatementWrapper(conn);
+                  try
+                  {
+                     statementBatch.execute(_currentStatementWrapper);
+                     handleAllWarnings(conn, _currentStatementWrapper);
+                  }
+                  finally
+                  {
+                     _currentStatementWrapper.close();
+                  }
+
+                  processedStatementCount = processBatchResults(statementBatch, processedStatementCount, statementCount, sqlExecErrorMsgs);
+
+                  if (null == statementBatch.getFailure())
+                  {
+                     lastExecutedStatement = statementBatch.get(statementBatch.size() - 1).getQuery();
+                  }
+                  else
+                  {
+                     lastExecutedStatement = getFirstFailedQuery(statementBatch).getQuery();
+                     if (props.getAbortOnError() && false == _cancelExecution)
+                     {
+                        throw statementBatch.getFailure();
+                     }
+                     // Requeues only statements the driver reported as not executed.
+                     _pendingQueries.addAll(0, statementBatch.getUnexecutedQueries());
+                  }
+                  continue;
+               }
+            }
+
             ++processedStatementCount;
             if (_handler != null)
             {
@@ -218,34 +338,10 @@ public class SQLExecuterTask implements Runnable
             }
             catch (SQLException ex)
             {
-               // If the user has cancelled the query, don't bother logging
-               // an error message.  It is likely that the cancel request
-               // interfered with the attempt to fetch results from the
-               // ResultSet, which is to be expected when the Statement is
-               // closed.  So, let's not bug the user with obvious error
-               // messages that we can do nothing about.
-               if (_cancelExecution)
+               if (false == onQueryFailed(ex, lastExecutedStatement, statementCount, sqlExecErrorMsgs))
                {
                   break;
                }
-               else
-               {
-                  if (props.getAbortOnError())
-                  {
-                     throw ex;
-                  }
-                  else
-                  {
-                     if (1 < statementCount)
-                     {
-                        sqlExecErrorMsgs.add(handleError(ex, "Error occurred in:\n" + lastExecutedStatement));
-                     }
-                     else
-                     {
-                        sqlExecErrorMsgs.add(handleError(ex, null));
-                     }
-                  }
-               }
             }
             finally
             {
@@ -255,7 +351,7 @@ public class SQLExecuterTask implements Runnable
       }
       catch (final Throwable ex)
       {
-         if(props.getAbortOnError() && 1 < statementCount)
+         if(props.getAbortOnError() && isMultipleStatements(statementCount))
          {
             sqlExecErrorMsgs.add(handleError(ex, "Error occurred in:\n" + lastExecutedStatement));
          }
@@ -273,7 +369,12 @@ public class SQLExecuterTask implements Runnable
       }
       finally
       {
+         if (null != _parallelSelectExecution)
+         {
+            _parallelSelectExecution.close();
+         }
          _session.returnUserQuerySQLConnection(conn);
+         closeScriptReader();
 
          if (_cancelExecution)
          {
@@ -303,9 +404,243 @@ public class SQLExecuterTask implements Runnable
       }
    }
 
+   /**
+    * @return false if execution should stop.
+    * @throws SQLException if execution should be aborted, see {@link SessionProperties#getAbortOnError()}.
+    */
+   private boolean onQueryFailed(SQLException ex, String lastExecutedStatement, int statementCount, List<String> sqlExecErrorMsgs) throws SQLException
+   {
+      // If the user has cancelled the query, don't bother logging
+      // an error message.  It is likely that the cancel request
+      // interfered with the attempt to fetch results from the
+      // ResultSet, which is to be expected when the Statement is
+      // closed.  So, let's not bug the user with obvious error
+      // messages that we can do nothing about.
+      if (_cancelExecution)
+      {
+         return false;
+      }
+
+      if (_session.getProperties().getAbortOnError())
+      {
+         throw ex;
+      }
+
+      if (isMultipleStatements(statementCount))
+      {
+         sqlExecErrorMsgs.add(handleError(ex, "Error occurred in:\n" + lastExecutedStatement));
+      }
+      else
+      {
+         sqlExecErrorMsgs.add(handleError(ex, null));
+      }
+      return true;
+   }
+
+   /**
+    * Takes all queries from the tokenizer when the script may be executed in parallel, see {@link ParallelSelectExecution}.
+    *
+    * @return null if the script is to be executed sequentially.
+    */
+   private List<QueryHolder> getParallelSelects(SessionProperties props)
+   {
+      if (false == props.getExecuteSelectsInParallel() || null == _sql)
+      {
+         // A streamed script may be arbitrarily long and is never read completely in advance.
+         return null;
+      }
+
+      ArrayList<QueryHolder> queries = new ArrayList<>();
+      while (hasNextQuery())
+      {
+         QueryHolder query = nextQuery();
+         if (null != query)
+         {
+            queries.add(query);
+         }
+      }
+
+      if (ParallelSelectExecution.isApplicable(_session, queries))
+      {
+         return queries;
+      }
+
+      _pendingQueries.addAll(queries);
+      return null;
+   }
+
+   private boolean hasNextQuery()
+   {
+      return false == _pendingQueries.isEmpty() || _tokenizer.hasQuery();
+   }
+
+   private QueryHolder nextQuery()
+   {
+      if (false == _pendingQueries.isEmpty())
+      {
+         return _pendingQueries.remove(0);
+      }
+      return _tokenizer.nextQuery();
+   }
+
+   /**
+    * Collects firstQuery and the directly following batchable queries.
+    * The first query that is not batchable is kept for regular execution.
+    */
+   private StatementBatch collectBatch(QueryHolder firstQuery, int batchSize)
+   {
+      StatementBatch ret = new StatementBatch();
+      ret.add(firstQuery);
+
+      while (ret.size() < batchSize && hasNextQuery())
+      {
+         QueryHolder next = nextQuery();
+         if (null == next)
+         {
+            continue;
+         }
+
+         if (false == StatementBatch.isBatchable(next))
+         {
+            _pendingQueries.add(0, next);
+            break;
+         }
+         ret.add(next);
+      }
+
+      return ret;
+   }
+
+   /**
+    * Reports the results of the batch's statements to the handler as if they had been executed one by one.
+    *
+    * @return The new processed statement count.
+    */
+   private int processBatchResults(StatementBatch statementBatch, int processedStatementCount, int statementCount, ArrayList<String> sqlExecErrorMsgs)
+   {
+      if (statementBatch.isOutcomeUnknown())
+      {
+         // One error for the whole batch. It is unknown which of its statements were executed, so none is run again.
+         processedStatementCount += statementBatch.size();
+         _currentQueryIndex += statementBatch.size();
+         _handler.sqlToBeExecuted(statementBatch.get(0));
+
+         if (false == _session.getProperties().getAbortOnError() && false == _cancelExecution)
+         {
+            sqlExecErrorMsgs.add(handleError(statementBatch.getFailure(), "Error occurred in batch of " + statementBatch.size()
+                                                                          + " statements, it is unknown which of them were executed. First statement of batch:\n"
+                                                                          + statementBatch.get(0).getQuery()));
+         }
+
+         if (_schemaCheck)
+         {
+            // Any of the statements may have been executed, so cached results and schema infos of all their tables are outdated.
+            for (int i = 0; i < statementBatch.size(); i++)
+            {
+               _schemaInfoUpdateCheck.addExecutionInfo(new SQLExecutionInfo(_currentQueryIndex, statementBatch.get(i), 0, _tableToBeEdited));
+            }
+         }
+         return processedStatementCount;
+      }
+
+      for (int i = 0; i < statementBatch.getExecutedCount(); i++)
+      {
+         QueryHolder querySql = statementBatch.get(i);
+
+         ++processedStatementCount;
+         ++_currentQueryIndex;
+         _handler.sqlToBeExecuted(querySql);
+
+         if (statementBatch.isFailed(i))
+         {
+            // When abort on error is set the failure is thrown by the caller
+            if (false == _session.getProperties().getAbortOnError() && false == _cancelExecution)
+            {
+               sqlExecErrorMsgs.add(handleError(statementBatch.getFailure(), "Error occurred in:\n" + querySql.getQuery()));
+            }
+            continue;
+         }
+
+         // The time of the whole batch is reported for its first statement.
+         final SQLExecutionInfo exInfo = new SQLExecutionInfo(_currentQueryIndex, querySql, 0, _tableToBeEdited);
+         exInfo.sqlExecutionComplete();
+
+         if (0 <= statementBatch.getUpdateCount(i))
+         {
+            _handler.sqlDataUpdated(statementBatch.getUpdateCount(i));
+         }
+
+         SwingUtilities.invokeLater(() -> fireExecutionListeners(querySql));
+
+         _handler.sqlExecutionComplete(exInfo, processedStatementCount, statementCount);
+
+         if (_schemaCheck)
+         {
+            _schemaInfoUpdateCheck.addExecutionInfo(exInfo);
+         }
+      }
+
+      return processedStatementCount;
+   }
+
+   private static QueryHolder getFirstFailedQuery(StatementBatch statementBatch)
+   {
+      for (int i = 0; i < statementBatch.getExecutedCount(); i++)
+      {
+         if (statementBatch.isFailed(i))
+         {
+            return statementBatch.get(i);
+         }
+      }
+      return statementBatch.get(statementBatch.size() - 1);
+   }
+
+   private boolean supportsBatchUpdates(ISQLConnection conn)
+   {
+      try
+      {
+         return conn.getSQLMetaData().getJDBCMetaData().supportsBatchUpdates();
+      }
+      catch (Throwable th)
+      {
+         s_log.debug("Driver doesn't handle DatabaseMetaData.supportsBatchUpdates()", th);
+         return false;
+      }
+   }
+
+   /**
+    * For a streamed script the statement count is unknown, we assume it contains more than one statement.
+    */
+   private static boolean isMultipleStatements(int statementCount)
+   {
+      return 1 < statementCount || IQueryTokenizer.UNKNOWN_QUERY_COUNT == statementCount;
+   }
+
+   private void closeScriptReader()
+   {
+      if (null == _scriptReader)
+      {
+         return;
+      }
+
+      try
+      {
+         _scriptReader.close();
+      }
+      catch (IOException e)
+      {
+         s_log.error("Failed to close SQL script reader", e);
+      }
+   }
+
    private StatementWrapper createStatementWrapper(ISQLConnection conn) throws SQLException
    {
-      StatementWrapper ret = new StatementWrapper(conn.createStatement(), _session);
+      return createStatementWrapper(conn, _session);
+   }
+
+   static StatementWrapper createStatementWrapper(ISQLConnection conn, ISession session) throws SQLException
+   {
+      StatementWrapper ret = new StatementWrapper(conn.createStatement(), session);
       ret.setFetchSize();
       ret.setQueryTimeOut();
 
@@ -357,6 +692,11 @@ public class SQLExecuterTask implements Runnable
 
       _cancelExecution = true;
 
+      if (null != _parallelSelectExecution)
+      {
+         _parallelSelectExecution.cancel();
+      }
+
       if (null != _currentStatementWrapper)
       {
          CancelStatementThread cst = new CancelStatementThread(_currentStatementWrapper, _session.getApplication().getMessageHandler());
@@ -372,6 +712,11 @@ public class SQLExecuterTask implements Runnable
       boolean firstResultIsResultSet = statementWrapper.execute(sql.getQuery());
       exInfo.sqlExecutionComplete();
 
+      return processResults(sql, exInfo, firstResultIsResultSet, processedStatementCount, statementCount, statementWrapper, conn);
+   }
+
+   private boolean processResults(QueryHolder sql, SQLExecutionInfo exInfo, boolean firstResultIsResultSet, int processedStatementCount, int statementCount, StatementWrapper statementWrapper, ISQLConnection conn) throws SQLException
+   {
       // Display any warnings generated by the SQL execution.
       handleAllWarnings(conn, statementWrapper);
 
@@ -41,6 +41,7 @@ import net.sourceforge.squirrel_sql.client.session.parser.IParserEventsProcessor
 import net.sourceforge.squirrel_sql.client.session.parser.ParserEventsProcessor;
 import net.sourceforge.squirrel_sql.client.session.parser.ParserEventsProcessorDummy;
 import net.sourceforge.squirrel_sql.client.session.properties.SessionProperties;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache;
 import net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfo;
 import net.sourceforge.squirrel_sql.fw.gui.GUIUtils;
 import net.sourceforge.squirrel_sql.fw.id.IIdentifier;
@@ -125,6 +126,8 @@ class Session implements ISession
     */
    private final net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfo _schemaInfo;
 
+   private final ResultCache _resultCache = new ResultCache();
+
    /**
     * Set to <TT>true</TT> once session closed.
     */
@@ -248,7 +251,19 @@ class Session implements ISession
 
    private SessionConnectionPool createConnectionPool(SQLConnection conn)
    {
-      return new SessionConnectionPool(conn, _alias, _user, _password, _props, () -> _msgHandler, () -> _sessionSheet.getSelectedCatalogFromCatalogsComboBox());
+      return new SessionConnectionPool(conn, _alias, _user, _password, _props, () -> _msgHandler, () -> getSelectedCatalogFromCatalogsComboBox());
+   }
+
+   /**
+    * Pool connections may be created while schema info is loaded and the session panel doesn't exist yet.
+    */
+   private String getSelectedCatalogFromCatalogsComboBox()
+   {
+      if (null == _sessionSheet)
+      {
+         return null;
+      }
+      return _sessionSheet.getSelectedCatalogFromCatalogsComboBox();
    }
 
    private void startKeepAliveTaskIfNecessary()
@@ -322,6 +337,7 @@ class Session implements ISession
          }
 
          _schemaInfo.dispose();
+         _resultCache.clear();
 
 
          try
@@ -383,6 +399,7 @@ class Session implements ISession
       try
       {
          getSQLConnection().rollback();
+         _resultCache.clear();
          final String msg = s_stringMgr.getString("Session.rollback");
          _msgHandler.showMessage(msg);
       }
@@ -477,6 +494,12 @@ class Session implements ISession
       return _schemaInfo;
    }
 
+   @Override
+   public ResultCache getResultCache()
+   {
+      return _resultCache;
+   }
+
    public synchronized Object getPluginObject(IPlugin plugin, String key)
    {
       if (plugin == null)
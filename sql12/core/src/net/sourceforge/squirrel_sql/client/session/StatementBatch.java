@@ -0,0 +1,156 @@
+package net.sourceforge.squirrel_sql.client.session;
+
+import net.sourceforge.squirrel_sql.fw.sql.querytokenizer.QueryHolder;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Consecutive DML statements of a script that are sent to the database by one JDBC batch.
+ * See {@link net.sourceforge.squirrel_sql.client.session.properties.SessionProperties#getSQLBatchExecution()}.
+ * <p>
+ * After execution update counts and errors are available per statement.
+ * Depending on the driver a batch stops at the first failing statement or continues with the remaining ones.
+ * In the first case the statements behind the failing one remain unexecuted, see {@link #getUnexecutedQueries()}.
+ * <p>
+ * If the driver reports a failure without per statement update counts it is unknown which statements were executed.
+ * Then the whole batch counts as failed and none of its statements must be executed again, see {@link #isOutcomeUnknown()}.
+ */
+class StatementBatch
+{
+   private static final Pattern DML_PATTERN = Pattern.compile("^(INSERT|UPDATE|DELETE|MERGE)\\s", Pattern.CASE_INSENSITIVE);
+
+   /**
+    * DML that returns results, e.g. PostgreSQL's INSERT ... RETURNING or MS SQL Server's OUTPUT clause, can't be batched.
+    */
+   private static final Pattern RETURNS_RESULT_PATTERN = Pattern.compile("\\b(RETURNING|OUTPUT)\\b", Pattern.CASE_INSENSITIVE);
+
+   private final ArrayList<QueryHolder> _queries = new ArrayList<>();
+
+   private int[] _updateCounts = new int[0];
+   private SQLException _failure;
+   private boolean _outcomeUnknown;
+
+   static boolean isBatchable(QueryHolder queryHolder)
+   {
+      String sql = queryHolder.getQuery().trim();
+      return DML_PATTERN.matcher(sql).find() && false == RETURNS_RESULT_PATTERN.matcher(sql).find();
+   }
+
+   void add(QueryHolder queryHolder)
+   {
+      _queries.add(queryHolder);
+   }
+
+   int size()
+   {
+      return _queries.size();
+   }
+
+   QueryHolder get(int i)
+   {
+      return _queries.get(i);
+   }
+
+   /**
+    * Failures of statements don't throw, they are available by {@link #getFailure()}.
+    */
+   void execute(StatementWrapper statementWrapper)
+   {
+      try
+      {
+         for (QueryHolder query : _queries)
+         {
+            statementWrapper.addBatch(query.getQuery());
+         }
+         _updateCounts = statementWrapper.executeBatch();
+      }
+      catch (BatchUpdateException e)
+      {
+         _failure = e;
+         if(null != e.getUpdateCounts())
+         {
+            _updateCounts = e.getUpdateCounts();
+         }
+         else
+         {
+            _outcomeUnknown = true;
+         }
+      }
+      catch (SQLException e)
+      {
+         // We don't know how far the batch got. Some statements may have been executed on the server.
+         _failure = e;
+         _outcomeUnknown = true;
+      }
+   }
+
+   /**
+    * @return Number of statements that were executed successfully or failed.
+    */
+   int getExecutedCount()
+   {
+      if(null == _failure || _outcomeUnknown || _updateCounts.length >= _queries.size())
+      {
+         return _queries.size();
+      }
+
+      // The statement at _updateCounts.length is the one that failed.
+      return _updateCounts.length + 1;
+   }
+
+   boolean isFailed(int i)
+   {
+      if(null == _failure)
+      {
+         return false;
+      }
+
+      if(_outcomeUnknown)
+      {
+         return true;
+      }
+
+      if(i < _updateCounts.length)
+      {
+         return Statement.EXECUTE_FAILED == _updateCounts[i];
+      }
+
+      return i == _updateCounts.length;
+   }
+
+   /**
+    * @return The update count or a negative value if the driver doesn't provide it.
+    */
+   int getUpdateCount(int i)
+   {
+      if(i < _updateCounts.length)
+      {
+         return _updateCounts[i];
+      }
+      return -1;
+   }
+
+   /**
+    * @return true if the batch failed and the driver didn't report which statements were executed.
+    * All statements count as failed then and {@link #getUnexecutedQueries()} is empty.
+    */
+   boolean isOutcomeUnknown()
+   {
+      return _outcomeUnknown;
+   }
+
+   SQLException getFailure()
+   {
+      return _failure;
+   }
+
+   List<QueryHolder> getUnexecutedQueries()
+   {
+      return _queries.subList(getExecutedCount(), _queries.size());
+   }
+}
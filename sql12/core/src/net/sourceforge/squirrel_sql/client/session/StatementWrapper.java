@@ -194,6 +194,16 @@ public class StatementWrapper implements StatementCallback
       return _statement.execute(sql);
    }
 
+   public void addBatch(String sql) throws SQLException
+   {
+      _statement.addBatch(sql);
+   }
+
+   public int[] executeBatch() throws SQLException
+   {
+      return _statement.executeBatch();
+   }
+
    public int getUpdateCount() throws SQLException
    {
       if(isContinueReadActive() && _hasReturnedResultSet)
@@ -249,6 +259,14 @@ public class StatementWrapper implements StatementCallback
       _closeStatement();
    }
 
+   /**
+    * Closes the statement independent of continue read. Meant for statements that never return result sets.
+    */
+   public void close()
+   {
+      _closeStatement();
+   }
+
    private void _closeStatement()
    {
       try
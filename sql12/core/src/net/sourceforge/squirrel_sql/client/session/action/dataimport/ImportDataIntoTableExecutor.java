@@ -23,6 +23,7 @@ import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.gui.ColumnMappingTableModel;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.gui.SpecialColumnMapping;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IFileImporter;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.UnsupportedFormatException;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.util.DateUtils;
 import net.sourceforge.squirrel_sql.fw.gui.GUIUtils;
@@ -36,10 +37,13 @@ import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
 import javax.swing.*;
 import java.io.IOException;
+import java.sql.BatchUpdateException;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
@@ -57,10 +61,28 @@ public class ImportDataIntoTableExecutor
    private ITableInfo _table;
    private ExtendedColumnInfo[] _columns;
    private ColumnMappingTableModel _columnMappingModel;
+
+   /**
+    * Mappings and fixed values per column, taken from _columnMappingModel once on the EDT before importing.
+    * Looking them up in the model per row is expensive and the model isn't meant to be read by the parser threads.
+    */
+   private final IdentityHashMap<ExtendedColumnInfo, String> _mappings = new IdentityHashMap<>();
+   private final IdentityHashMap<ExtendedColumnInfo, String> _fixedValues = new IdentityHashMap<>();
+   private final IdentityHashMap<ExtendedColumnInfo, Integer> _mappedColumns = new IdentityHashMap<>();
    private IFileImporter _importer;
    private List<String> _importerColumns;
    private boolean skipHeader = false;
 
+   /**
+    * Large enough to keep the parser threads busy when batches are small or unsupported.
+    */
+   private static final int MIN_BLOCK_SIZE = 100;
+
+   /**
+    * Limits the memory used by a batch when commits are rare.
+    */
+   private static final int MAX_BATCH_SIZE = 1000;
+
    private final boolean _singleTransaction;
    private final int _commitAfterEveryInserts;
    private boolean _deleteExistingData;
@@ -118,7 +140,10 @@ public class ImportDataIntoTableExecutor
 	{
       ImportProgressCtrl importProgressCtrl = new ImportProgressCtrl(_table);
 
-      Thread execThread = new Thread(() -> _execute(_singleTransaction, _commitAfterEveryInserts, _deleteExistingData, importProgressCtrl));
+      readColumnMappings();
+      int columnCount = _columnMappingModel.getColumnCountExcludingSkipped(_columns);
+
+      Thread execThread = new Thread(() -> _execute(_singleTransaction, _commitAfterEveryInserts, _deleteExistingData, columnCount, importProgressCtrl));
 		execThread.setName("Dataimport Executor Thread");
 		execThread.setUncaughtExceptionHandler(createUncaughtExceptionHandler());
 		execThread.start();
@@ -129,9 +154,10 @@ public class ImportDataIntoTableExecutor
     *  @param singleTransaction
     * @param commitAfterEveryInserts
     * @param deleteExistingData
+    * @param columnCount The number of columns to insert, i.e. not skipped
     * @param importProgressCtrl
     */
-   private void _execute(boolean singleTransaction, int commitAfterEveryInserts, boolean deleteExistingData, ImportProgressCtrl importProgressCtrl)
+   private void _execute(boolean singleTransaction, int commitAfterEveryInserts, boolean deleteExistingData, int columnCount, ImportProgressCtrl importProgressCtrl)
    {
       ISQLConnection conn = _session.getSQLConnection();
 
@@ -139,9 +165,10 @@ public class ImportDataIntoTableExecutor
       insertSQL.append("insert into ").append(_table.getQualifiedName());
       insertSQL.append(" (").append(createColumnList()).append(") ");
       insertSQL.append("VALUES ");
-      insertSQL.append(" (").append(getQuestionMarks(_columnMappingModel.getColumnCountExcludingSkipped(_columns))).append(")");
+      insertSQL.append(" (").append(getQuestionMarks(columnCount)).append(")");
 
       PreparedStatement stmt = null;
+      ImportRowReader rowReader = null;
       int currentRow = 0;
       boolean success = false;
 
@@ -168,67 +195,83 @@ public class ImportDataIntoTableExecutor
 
          stmt = conn.prepareStatement(insertSQL.toString());
 
-         while (_importer.next())
-         {
+         int batchSize = getBatchSize(conn, commitAfterEveryInserts);
+         int pendingRows = 0;
 
+         rowReader = new ImportRowReader(_importer, (row, rowNumber) -> interpretRow(row, rowNumber, columnCount), Math.max(batchSize, MIN_BLOCK_SIZE), getParserCount());
+
+         for (List<ImportRowValues> block = rowReader.nextBlock(); false == block.isEmpty(); block = rowReader.nextBlock())
+         {
             if(importProgressCtrl.isCanceled())
             {
                break;
             }
 
-            currentRow++;
-
-            importProgressCtrl.setCurrentRow(currentRow);
-
-            stmt.clearParameters();
-            int i = 1;
-            for (ExtendedColumnInfo column : _columns)
+            for (ImportRowValues rowValues : block)
             {
-               String mapping = _columnMappingModel.getMapping(column);
-               if (SpecialColumnMapping.SKIP.getVisibleString().equals(mapping))
-               {
-                  continue;
-               }
-               else if (SpecialColumnMapping.FIXED_VALUE.getVisibleString().equals(mapping))
-               {
-                  bindFixedColumn(stmt, i++, column);
-               }
-               else if (SpecialColumnMapping.AUTO_INCREMENT.getVisibleString().equals(mapping))
-               {
-                  bindAutoincrementColumn(stmt, i++, column, currentRow);
-               }
-               else if (SpecialColumnMapping.NULL.getVisibleString().equals(mapping))
+               stmt.clearParameters();
+               rowValues.bind(stmt);
+               currentRow++;
+
+               if (1 < batchSize)
                {
-                  stmt.setNull(i++, column.getTableColumnInfo().getDataType());
+                  stmt.addBatch();
+                  if (++pendingRows == batchSize)
+                  {
+                     executeBatch(stmt, currentRow - pendingRows, importProgressCtrl);
+                     pendingRows = 0;
+                  }
                }
                else
                {
-                  bindColumn(stmt, i++, column);
+                  stmt.executeUpdate();
                }
-            }
-            stmt.executeUpdate();
 
-            if (false == singleTransaction)
-            {
-               if (0 < currentRow && 0 == currentRow % commitAfterEveryInserts)
+               if (false == singleTransaction)
                {
-                  conn.commit();
+                  if (0 == currentRow % commitAfterEveryInserts)
+                  {
+                     if (0 < pendingRows)
+                     {
+                        executeBatch(stmt, currentRow - pendingRows, importProgressCtrl);
+                        pendingRows = 0;
+                     }
+                     conn.commit();
+                  }
                }
             }
+
+            importProgressCtrl.setCurrentRow(currentRow);
+            importProgressCtrl.setFailedToInterpretCount(_importer.getFailedToInterpretCount());
          }
+
+         if (0 < pendingRows)
+         {
+            executeBatch(stmt, currentRow - pendingRows, importProgressCtrl);
+         }
+         importProgressCtrl.setCurrentRow(currentRow);
+
+         rowReader.close();
          _importer.close();
          success = true;
       }
       catch (SQLException sqle)
       {
+         if (false == sqle instanceof BatchUpdateException)
+         {
+            // Batch failures set the failing row in executeBatch()
+            importProgressCtrl.setCurrentRow(currentRow);
+         }
          importProgressCtrl.failedWithSQLException(sqle, stmt, insertSQL);
       }
       catch (UnsupportedFormatException ufe)
       {
+         setFailedRow(rowReader, importProgressCtrl);
          importProgressCtrl.failedWithUnsupportedFormatException(ufe);
       }
       catch (IOException ioe)
       {
+         setFailedRow(rowReader, importProgressCtrl);
          importProgressCtrl.failedWithIoException(ioe);
       }
       catch (Throwable t)
@@ -241,6 +284,10 @@ public class ImportDataIntoTableExecutor
          {
             try
             {
+               if (null != rowReader)
+               {
+                  rowReader.close();
+               }
                _importer.close();
                finishTransaction(conn, success);
             }
@@ -272,6 +319,112 @@ public class ImportDataIntoTableExecutor
       }
    }
 
+   /**
+    * Rows are sent in JDBC batches of the commit size, but at most {@link #MAX_BATCH_SIZE} rows.
+    *
+    * @return The batch size, 1 if the driver doesn't support batches.
+    */
+   private int getBatchSize(ISQLConnection conn, int commitAfterEveryInserts)
+   {
+      try
+      {
+         if (false == conn.getSQLMetaData().getJDBCMetaData().supportsBatchUpdates())
+         {
+            return 1;
+         }
+      }
+      catch (Throwable th)
+      {
+         s_log.debug("Driver doesn't handle DatabaseMetaData.supportsBatchUpdates()", th);
+         return 1;
+      }
+
+      return Math.max(1, Math.min(commitAfterEveryInserts, MAX_BATCH_SIZE));
+   }
+
+   /**
+    * One core is left to the threads reading the file and inserting the rows.
+    */
+   private static int getParserCount()
+   {
+      return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+   }
+
+   /**
+    * @param rowsBeforeBatch The number of rows inserted before this batch, used to report the failing row.
+    */
+   private void executeBatch(PreparedStatement stmt, int rowsBeforeBatch, ImportProgressCtrl importProgressCtrl) throws SQLException
+   {
+      try
+      {
+         stmt.executeBatch();
+      }
+      catch (BatchUpdateException e)
+      {
+         // Drivers either stop at the failing row or mark it as failed and go on.
+         int[] updateCounts = e.getUpdateCounts();
+         int failedIndex = null == updateCounts ? 0 : updateCounts.length;
+         for (int i = 0; null != updateCounts && i < updateCounts.length; i++)
+         {
+            if (Statement.EXECUTE_FAILED == updateCounts[i])
+            {
+               failedIndex = i;
+               break;
+            }
+         }
+         importProgressCtrl.setCurrentRow(rowsBeforeBatch + failedIndex + 1);
+         throw e;
+      }
+   }
+
+   private void setFailedRow(ImportRowReader rowReader, ImportProgressCtrl importProgressCtrl)
+   {
+      if (null != rowReader && 0 <= rowReader.getFailedRowNumber())
+      {
+         importProgressCtrl.setCurrentRow(rowReader.getFailedRowNumber());
+      }
+   }
+
+   /**
+    * Interprets the values of a row like they are bound to the insert statement.
+    * Called by the threads of {@link ImportRowReader}.
+    *
+    * @param row       The row of the import file
+    * @param rowNumber The number of the row not counting the header. Used for auto increment columns.
+    * @param columnCount The number of columns to insert, computed on the EDT before the import started.
+    */
+   private ImportRowValues interpretRow(IImportRow row, int rowNumber, int columnCount) throws IOException, UnsupportedFormatException
+   {
+      ImportRowValues values = new ImportRowValues(columnCount);
+
+      int i = 1;
+      for (ExtendedColumnInfo column : _columns)
+      {
+         String mapping = _mappings.get(column);
+         if (SpecialColumnMapping.SKIP.getVisibleString().equals(mapping))
+         {
+            continue;
+         }
+         else if (SpecialColumnMapping.FIXED_VALUE.getVisibleString().equals(mapping))
+         {
+            bindFixedColumn(values, i++, column, row);
+         }
+         else if (SpecialColumnMapping.AUTO_INCREMENT.getVisibleString().equals(mapping))
+         {
+            bindAutoincrementColumn(values, i++, column, rowNumber);
+         }
+         else if (SpecialColumnMapping.NULL.getVisibleString().equals(mapping))
+         {
+            values.setNull(i++, column.getTableColumnInfo().getDataType());
+         }
+         else
+         {
+            bindColumn(values, i++, column, row);
+         }
+      }
+      return values;
+   }
+
    private Thread.UncaughtExceptionHandler createUncaughtExceptionHandler()
    {
       return (t, e) -> GUIUtils.processOnSwingEventThread(() -> {throw new RuntimeException(e);});
@@ -335,10 +488,10 @@ public class ImportDataIntoTableExecutor
    }
 
 
-   private void bindAutoincrementColumn(PreparedStatement stmt, int index, ExtendedColumnInfo column, int counter) throws SQLException, UnsupportedFormatException
+   private void bindAutoincrementColumn(ImportRowValues values, int index, ExtendedColumnInfo column, int counter) throws UnsupportedFormatException
    {
       long value = 0;
-      String fixedValue = _columnMappingModel.getFixedValue(column);
+      String fixedValue = _fixedValues.get(column);
       try
       {
          value = Long.parseLong(fixedValue);
@@ -351,27 +504,27 @@ public class ImportDataIntoTableExecutor
       switch (column.getTableColumnInfo().getDataType())
       {
          case Types.BIGINT:
-            stmt.setLong(index, value);
+            values.setLong(index, value);
             break;
          case Types.INTEGER:
          case Types.NUMERIC:
-            stmt.setInt(index, (int) value);
+            values.setInt(index, (int) value);
             break;
          default:
             throw new UnsupportedFormatException("Autoincrement column " + column.getColumnName() + "  is not numeric");
       }
    }
 
-   private void bindFixedColumn(PreparedStatement stmt, int index, ExtendedColumnInfo column) throws SQLException, IOException, UnsupportedFormatException
+   private void bindFixedColumn(ImportRowValues values, int index, ExtendedColumnInfo column, IImportRow row) throws IOException, UnsupportedFormatException
    {
-      String value = _columnMappingModel.getFixedValue(column);
+      String value = _fixedValues.get(column);
       Date d = null;
       switch (column.getTableColumnInfo().getDataType())
       {
          case Types.BIGINT:
             try
             {
-               stmt.setLong(index, Long.parseLong(value));
+               values.setLong(index, Long.parseLong(value));
             }
             catch (NumberFormatException nfe)
             {
@@ -380,158 +533,158 @@ public class ImportDataIntoTableExecutor
             break;
          case Types.INTEGER:
          case Types.NUMERIC:
-            setIntOrUnsignedInt(stmt, index, column);
+            setIntOrUnsignedInt(values, index, column, row);
             break;
          case Types.DATE:
             // Null values should be allowed
-            setDateOrNull(stmt, index, value);
+            setDateOrNull(values, index, value);
             break;
          case Types.TIMESTAMP:
             // Null values should be allowed
-            setTimeStampOrNull(stmt, index, value);
+            setTimeStampOrNull(values, index, value);
             break;
          case Types.TIME:
             // Null values should be allowed
-            setTimeOrNull(stmt, index, value);
+            setTimeOrNull(values, index, value);
             break;
          default:
-            stmt.setString(index, value);
+            values.setString(index, value);
       }
    }
 
-   private void setDateOrNull(PreparedStatement stmt, int index,
-                              String value) throws UnsupportedFormatException, SQLException
+   private void setDateOrNull(ImportRowValues values, int index,
+                              String value) throws UnsupportedFormatException
    {
       if (null != value)
       {
          Date d = DateUtils.parseSQLFormats(value);
          if (d == null)
             throw new UnsupportedFormatException("Could not interpret value as date type. Value is: " + value);
-         stmt.setDate(index, new java.sql.Date(d.getTime()));
+         values.setDate(index, new java.sql.Date(d.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.DATE);
+         values.setNull(index, Types.DATE);
       }
    }
 
-   private void setTimeStampOrNull(PreparedStatement stmt, int index,
-                                   String value) throws UnsupportedFormatException, SQLException
+   private void setTimeStampOrNull(ImportRowValues values, int index,
+                                   String value) throws UnsupportedFormatException
    {
       if (null != value)
       {
          Date d = DateUtils.parseSQLFormats(value);
          if (d == null)
             throw new UnsupportedFormatException("Could not interpret value as date type. Value is: " + value);
-         stmt.setTimestamp(index, new java.sql.Timestamp(d.getTime()));
+         values.setTimestamp(index, new java.sql.Timestamp(d.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.TIMESTAMP);
+         values.setNull(index, Types.TIMESTAMP);
       }
    }
 
-   private void setTimeOrNull(PreparedStatement stmt, int index, String value)
-         throws UnsupportedFormatException, SQLException
+   private void setTimeOrNull(ImportRowValues values, int index, String value)
+         throws UnsupportedFormatException
    {
       if (null != value)
       {
          Date d = DateUtils.parseSQLFormats(value);
          if (d == null)
             throw new UnsupportedFormatException("Could not interpret value as date type. Value is: " + value);
-         stmt.setTime(index, new java.sql.Time(d.getTime()));
+         values.setTime(index, new java.sql.Time(d.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.TIME);
+         values.setNull(index, Types.TIME);
       }
    }
 
-   private void bindColumn(PreparedStatement stmt, int index, ExtendedColumnInfo column) throws SQLException, IOException
+   private void bindColumn(ImportRowValues values, int index, ExtendedColumnInfo column, IImportRow row) throws IOException
    {
       int mappedColumn = getMappedColumn(column);
       switch (column.getTableColumnInfo().getDataType())
       {
          case Types.BIGINT:
-            setLong(stmt, index, mappedColumn);
+            setLong(values, index, mappedColumn, row);
             break;
          case Types.INTEGER:
          case Types.SMALLINT:
-            setIntOrUnsignedInt(stmt, index, column);
+            setIntOrUnsignedInt(values, index, column, row);
             break;
          case Types.NUMERIC:
          case Types.FLOAT:
          case Types.DOUBLE:
          case Types.DECIMAL:
-            setDouble(stmt, index, column);
+            setDouble(values, index, column, row);
             break;
          case Types.DATE:
-            setDate(stmt, index, mappedColumn);
+            setDate(values, index, mappedColumn, row);
             break;
          case Types.TIMESTAMP:
-            setTimestamp(stmt, index, mappedColumn);
+            setTimestamp(values, index, mappedColumn, row);
             break;
          case Types.TIME:
-            setTime(stmt, index, mappedColumn);
+            setTime(values, index, mappedColumn, row);
             break;
          default:
-            setString(stmt, index, mappedColumn);
+            setString(values, index, mappedColumn, row);
       }
    }
 
-   private void setString(PreparedStatement stmt, int index, int mappedColumn)
-         throws SQLException, IOException
+   private void setString(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      String string = _importer.getString(mappedColumn);
+      String string = row.getString(mappedColumn);
       if (null != string)
       {
-         stmt.setString(index, string);
+         values.setString(index, string);
       }
       else
       {
-         stmt.setNull(index, Types.VARCHAR);
+         values.setNull(index, Types.VARCHAR);
       }
    }
 
-   private void setTime(PreparedStatement stmt, int index, int mappedColumn)
-         throws SQLException, IOException
+   private void setTime(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      Date date = _importer.getDate(mappedColumn);
+      Date date = row.getDate(mappedColumn);
       if (null != date)
       {
-         stmt.setTime(index, new java.sql.Time(date.getTime()));
+         values.setTime(index, new java.sql.Time(date.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.TIME);
+         values.setNull(index, Types.TIME);
       }
    }
 
-   private void setTimestamp(PreparedStatement stmt, int index, int mappedColumn)
-         throws SQLException, IOException
+   private void setTimestamp(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      Date date = _importer.getDate(mappedColumn);
+      Date date = row.getDate(mappedColumn);
       if (null != date)
       {
-         stmt.setTimestamp(index, new java.sql.Timestamp(date.getTime()));
+         values.setTimestamp(index, new java.sql.Timestamp(date.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.TIMESTAMP);
+         values.setNull(index, Types.TIMESTAMP);
       }
    }
 
-   private void setDate(PreparedStatement stmt, int index, int mappedColumn)
-         throws SQLException, IOException
+   private void setDate(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      Date date = _importer.getDate(mappedColumn);
+      Date date = row.getDate(mappedColumn);
       if (null != date)
       {
-         stmt.setDate(index, new java.sql.Date(date.getTime()));
+         values.setDate(index, new java.sql.Date(date.getTime()));
       }
       else
       {
-         stmt.setNull(index, Types.DATE);
+         values.setNull(index, Types.DATE);
       }
 
    }
@@ -543,64 +696,77 @@ public class ImportDataIntoTableExecutor
     * a Java integer which is always signed. However, if we are working with an
     * unsigned integer type, Java doesn't have this so use a long instead.
     */
-   private void setIntOrUnsignedInt(PreparedStatement stmt, int index, ExtendedColumnInfo column)
-         throws SQLException, IOException
+   private void setIntOrUnsignedInt(ImportRowValues values, int index, ExtendedColumnInfo column, IImportRow row)
+         throws IOException
    {
       int mappedColumn = getMappedColumn(column);
       String columnTypeName = column.getTableColumnInfo().getTypeName();
       if (columnTypeName != null && (columnTypeName.toUpperCase().endsWith("UNSIGNED")))
       {
-         setLong(stmt, index, mappedColumn);
+         setLong(values, index, mappedColumn, row);
+      }
+      else
+      {
+         setInt(values, index, mappedColumn, row);
       }
-
-      setInt(stmt, index, mappedColumn);
    }
 
-   private void setDouble(PreparedStatement stmt, int index, ExtendedColumnInfo column)
-         throws SQLException, IOException
+   private void setDouble(ImportRowValues values, int index, ExtendedColumnInfo column, IImportRow row)
+         throws IOException
    {
-      Double d = _importer.getDouble(getMappedColumn(column));
+      Double d = row.getDouble(getMappedColumn(column));
       if (null == d)
       {
-         stmt.setNull(index, column.getTableColumnInfo().getDataType());
+         values.setNull(index, column.getTableColumnInfo().getDataType());
       }
       else
       {
-         stmt.setDouble(index, d);
+         values.setDouble(index, d);
       }
    }
 
-   private void setLong(PreparedStatement stmt, int index, int mappedColumn)
-         throws IOException, SQLException
+   private void setLong(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      Long long1 = _importer.getLong(mappedColumn);
+      Long long1 = row.getLong(mappedColumn);
       if (null == long1)
       {
-         stmt.setNull(index, Types.INTEGER);
+         values.setNull(index, Types.INTEGER);
       }
       else
       {
-         stmt.setLong(index, long1);
+         values.setLong(index, long1);
       }
    }
 
-   private void setInt(PreparedStatement stmt, int index, int mappedColumn)
-         throws IOException, SQLException
+   private void setInt(ImportRowValues values, int index, int mappedColumn, IImportRow row)
+         throws IOException
    {
-      Integer int1 = _importer.getInt(mappedColumn);
+      Integer int1 = row.getInt(mappedColumn);
       if (null == int1)
       {
-         stmt.setNull(index, Types.INTEGER);
+         values.setNull(index, Types.INTEGER);
       }
       else
       {
-         stmt.setInt(index, int1);
+         values.setInt(index, int1);
       }
    }
 
    private int getMappedColumn(ExtendedColumnInfo column)
    {
-      return _importerColumns.indexOf(_columnMappingModel.getMapping(column));
+      return _mappedColumns.get(column);
+   }
+
+   private void readColumnMappings()
+   {
+      for (ExtendedColumnInfo column : _columns)
+      {
+         String mapping = _columnMappingModel.getMapping(column);
+         _mappings.put(column, mapping);
+         _fixedValues.put(column, _columnMappingModel.getFixedValue(column));
+         _mappedColumns.put(column, _importerColumns.indexOf(mapping));
+      }
    }
 
    private String createColumnList()
@@ -608,7 +774,7 @@ public class ImportDataIntoTableExecutor
       StringBuffer columnsList = new StringBuffer();
       for (ExtendedColumnInfo column : _columns)
       {
-         String mapping = _columnMappingModel.getMapping(column);
+         String mapping = _mappings.get(column);
 
          if (SpecialColumnMapping.SKIP.getVisibleString().equals(mapping))
          {
@@ -29,5 +29,10 @@ public enum ImportFileType {
 	/**
 	 * The comma seperated file type
 	 */
-	CSV;
+	CSV,
+
+	/**
+	 * The Apache Parquet file type, e.g. written by SQuirreL's export
+	 */
+	COLUMNAR;
 }
@@ -1,5 +1,7 @@
 package net.sourceforge.squirrel_sql.client.session.action.dataimport;
 
+import net.sourceforge.squirrel_sql.fw.gui.action.fileexport.FileEndings;
+
 import java.io.File;
 
 public class ImportFileUtils
@@ -10,6 +12,10 @@ public class ImportFileUtils
       {
          return ImportFileType.XLS;
       }
+      else if (FileEndings.COLUMNAR.fileEndsWith(f.getName()))
+      {
+         return ImportFileType.COLUMNAR;
+      }
 
       return ImportFileType.CSV;
    }
@@ -29,6 +35,10 @@ public class ImportFileUtils
       {
          return importFileName.substring(0, importFileName.length() - 4);
       }
+      else if(FileEndings.COLUMNAR.fileEndsWith(importFileName))
+      {
+         return importFileName.substring(0, importFileName.length() - FileEndings.COLUMNAR.get().length() - 1);
+      }
       else
       {
          return importFileName;
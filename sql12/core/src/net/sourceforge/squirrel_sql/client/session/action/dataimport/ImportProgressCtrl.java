@@ -1,5 +1,6 @@
 package net.sourceforge.squirrel_sql.client.session.action.dataimport;
 
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IFileImporter;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.UnsupportedFormatException;
 import net.sourceforge.squirrel_sql.fw.gui.GUIUtils;
 import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
@@ -23,6 +24,8 @@ public class ImportProgressCtrl
    private ITableInfo _table;
 
    private volatile int _currentRow;
+   private volatile int _failedToInterpretCount;
+   private final long _beginMillis = System.currentTimeMillis();
    private volatile boolean _canceled;
 
    private final Timer _timer;
@@ -32,7 +35,7 @@ public class ImportProgressCtrl
       _dlg = new ImportProgressDialog(table.getSimpleName());
       _table = table;
 
-      _timer = new Timer(300, e -> _dlg.txtNumberOfRowsImported.setText("" + _currentRow));
+      _timer = new Timer(300, e -> updateDialog());
       _timer.setRepeats(true);
       _timer.start();
 
@@ -43,6 +46,19 @@ public class ImportProgressCtrl
       _dlg.setVisible(true);
    }
 
+   private void updateDialog()
+   {
+      _dlg.txtNumberOfRowsImported.setText("" + _currentRow);
+
+      long elapsedMillis = System.currentTimeMillis() - _beginMillis;
+      if (0 < elapsedMillis)
+      {
+         _dlg.txtRowsPerSecond.setText("" + Math.round(_currentRow * 1000d / elapsedMillis));
+      }
+
+      _dlg.txtFailedToInterpretCount.setText("" + _failedToInterpretCount);
+   }
+
    private void onCanceled()
    {
       _canceled = true;
@@ -53,6 +69,14 @@ public class ImportProgressCtrl
       _currentRow = currentRow;
    }
 
+   /**
+    * @param failedToInterpretCount The number of values that were replaced by dummy values, see {@link IFileImporter#getFailedToInterpretCount()}
+    */
+   public void setFailedToInterpretCount(int failedToInterpretCount)
+   {
+      _failedToInterpretCount = failedToInterpretCount;
+   }
+
    public void finishedSuccessFully()
    {
       GUIUtils.processOnSwingEventThread(() -> close());
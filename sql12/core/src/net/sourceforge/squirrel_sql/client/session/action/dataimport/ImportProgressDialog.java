@@ -13,6 +13,8 @@ public class ImportProgressDialog extends JDialog
    private static final StringManager stringMgr = StringManagerFactory.getStringManager(ImportProgressCtrl.class);
 
    JTextField txtNumberOfRowsImported = new JTextField();
+   JTextField txtRowsPerSecond = new JTextField();
+   JTextField txtFailedToInterpretCount = new JTextField();
    JButton btnCancel = new JButton(stringMgr.getString("ImportProgressDialog.cancel"));
 
    public ImportProgressDialog(String tableName)
@@ -32,11 +34,29 @@ public class ImportProgressDialog extends JDialog
       GUIUtils.forceWidth(txtNumberOfRowsImported, 120);
 
 
-      gbc = new GridBagConstraints(0,1,2,1,0,0,GridBagConstraints.CENTER,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
+      gbc = new GridBagConstraints(0,1,1,1,0,0,GridBagConstraints.NORTHWEST,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
+      getContentPane().add(new JLabel(stringMgr.getString("ImportProgressDialog.rowsPerSecond.label")), gbc);
+
+      gbc = new GridBagConstraints(1,1,1,1,0,0,GridBagConstraints.NORTHWEST,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
+      getContentPane().add(txtRowsPerSecond, gbc);
+      txtRowsPerSecond.setEditable(false);
+      GUIUtils.forceWidth(txtRowsPerSecond, 120);
+
+      gbc = new GridBagConstraints(0,2,1,1,0,0,GridBagConstraints.NORTHWEST,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
+      getContentPane().add(new JLabel(stringMgr.getString("ImportProgressDialog.failedToInterpret.label")), gbc);
+
+      gbc = new GridBagConstraints(1,2,1,1,0,0,GridBagConstraints.NORTHWEST,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
+      getContentPane().add(txtFailedToInterpretCount, gbc);
+      txtFailedToInterpretCount.setEditable(false);
+      txtFailedToInterpretCount.setToolTipText(stringMgr.getString("ImportProgressDialog.failedToInterpret.tooltip"));
+      GUIUtils.forceWidth(txtFailedToInterpretCount, 120);
+
+
+      gbc = new GridBagConstraints(0,3,2,1,0,0,GridBagConstraints.CENTER,GridBagConstraints.NONE, new Insets(5,5,5,5),0,0 );
       getContentPane().add(btnCancel, gbc);
 
 
-      setSize(new Dimension(320, 125));
+      setSize(new Dimension(360, 190));
 
 
       setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
@@ -0,0 +1,269 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport;
+
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IFileImporter;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.UnsupportedFormatException;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the rows of an import file and interprets them into {@link ImportRowValues} ahead of the inserting thread.
+ * <p>
+ * A reader thread moves the importer through the file and copies the rows, see {@link IFileImporter#copyCurrentRow()}.
+ * Blocks of copied rows are interpreted by a pool of parser threads. The blocks are handed out by {@link #nextBlock()}
+ * in file order. When the importer doesn't support copying rows they are interpreted by the reader thread.
+ * <p>
+ * At most {@link #QUEUE_CAPACITY_PER_PARSER} blocks per parser thread are kept ahead of the inserting thread,
+ * so a slow database slows down reading instead of filling the heap.
+ */
+class ImportRowReader
+{
+   private final static ILogger s_log = LoggerController.createLogger(ImportRowReader.class);
+
+   private static final int QUEUE_CAPACITY_PER_PARSER = 2;
+
+   private static final List<ImportRowValues> END_OF_ROWS = new ArrayList<>();
+
+   interface RowInterpreter
+   {
+      ImportRowValues interpret(IImportRow row, int rowNumber) throws IOException, UnsupportedFormatException;
+   }
+
+   private final IFileImporter _importer;
+   private final RowInterpreter _rowInterpreter;
+   private final int _blockSize;
+
+   private final ExecutorService _parserPool;
+   private final ArrayBlockingQueue<Future<List<ImportRowValues>>> _queue;
+   private final Thread _readerThread;
+
+   private volatile boolean _stopped;
+   private boolean _endReached;
+   private int _failedRowNumber = -1;
+
+   /**
+    * @param parserCount The number of threads interpreting rows.
+    */
+   ImportRowReader(IFileImporter importer, RowInterpreter rowInterpreter, int blockSize, int parserCount)
+   {
+      _importer = importer;
+      _rowInterpreter = rowInterpreter;
+      _blockSize = blockSize;
+
+      AtomicInteger parserNumber = new AtomicInteger();
+      _parserPool = Executors.newFixedThreadPool(parserCount, r -> {
+         Thread parserThread = new Thread(r, "Dataimport Parser Thread " + parserNumber.incrementAndGet());
+         parserThread.setDaemon(true);
+         return parserThread;
+      });
+
+      _queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY_PER_PARSER * parserCount);
+
+      _readerThread = new Thread(() -> runReader());
+      _readerThread.setName("Dataimport Reader Thread");
+      _readerThread.setDaemon(true);
+      _readerThread.start();
+   }
+
+   /**
+    * @return The next block of rows in file order, an empty list when all rows have been read.
+    */
+   List<ImportRowValues> nextBlock() throws IOException, UnsupportedFormatException
+   {
+      if (_endReached)
+      {
+         return END_OF_ROWS;
+      }
+
+      try
+      {
+         List<ImportRowValues> ret = _queue.take().get();
+         _endReached = END_OF_ROWS == ret;
+         return ret;
+      }
+      catch (InterruptedException e)
+      {
+         _endReached = true;
+         return END_OF_ROWS;
+      }
+      catch (ExecutionException e)
+      {
+         _endReached = true;
+
+         RowFailure rowFailure = (RowFailure) e.getCause();
+         _failedRowNumber = rowFailure.getRowNumber();
+
+         Throwable cause = rowFailure.getCause();
+         if (cause instanceof IOException)
+         {
+            throw (IOException) cause;
+         }
+         else if (cause instanceof UnsupportedFormatException)
+         {
+            throw (UnsupportedFormatException) cause;
+         }
+         else if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+         throw new RuntimeException(cause);
+      }
+   }
+
+   /**
+    * @return The number of the row that caused the last exception thrown by {@link #nextBlock()}, -1 if there was none.
+    */
+   int getFailedRowNumber()
+   {
+      return _failedRowNumber;
+   }
+
+   private void runReader()
+   {
+      int rowNumber = 0;
+      try
+      {
+         ArrayList<IImportRow> copies = new ArrayList<>(_blockSize);
+         ArrayList<ImportRowValues> interpreted = new ArrayList<>(_blockSize);
+
+         while (false == _stopped)
+         {
+            if (false == _importer.next())
+            {
+               break;
+            }
+            ++rowNumber;
+
+            IImportRow copy = _importer.copyCurrentRow();
+            if (null == copy)
+            {
+               interpreted.add(_rowInterpreter.interpret(_importer, rowNumber));
+               if (interpreted.size() == _blockSize)
+               {
+                  put(CompletableFuture.completedFuture(interpreted));
+                  interpreted = new ArrayList<>(_blockSize);
+               }
+            }
+            else
+            {
+               copies.add(copy);
+               if (copies.size() == _blockSize)
+               {
+                  submit(copies, rowNumber - copies.size() + 1);
+                  copies = new ArrayList<>(_blockSize);
+               }
+            }
+         }
+
+         if (false == interpreted.isEmpty())
+         {
+            put(CompletableFuture.completedFuture(interpreted));
+         }
+         if (false == copies.isEmpty())
+         {
+            submit(copies, rowNumber - copies.size() + 1);
+         }
+      }
+      catch (Throwable t)
+      {
+         CompletableFuture<List<ImportRowValues>> failed = new CompletableFuture<>();
+         failed.completeExceptionally(new RowFailure(rowNumber, t));
+         put(failed);
+      }
+      finally
+      {
+         put(CompletableFuture.completedFuture(END_OF_ROWS));
+      }
+   }
+
+   private void submit(List<IImportRow> copies, int firstRowNumber)
+   {
+      put(_parserPool.submit(() -> interpret(copies, firstRowNumber)));
+   }
+
+   private List<ImportRowValues> interpret(List<IImportRow> copies, int firstRowNumber) throws RowFailure
+   {
+      ArrayList<ImportRowValues> ret = new ArrayList<>(copies.size());
+      for (int i = 0; i < copies.size(); i++)
+      {
+         try
+         {
+            ret.add(_rowInterpreter.interpret(copies.get(i), firstRowNumber + i));
+         }
+         catch (Throwable t)
+         {
+            throw new RowFailure(firstRowNumber + i, t);
+         }
+      }
+      return ret;
+   }
+
+   private void put(Future<List<ImportRowValues>> block)
+   {
+      try
+      {
+         while (false == _stopped)
+         {
+            if (_queue.offer(block, 100, TimeUnit.MILLISECONDS))
+            {
+               return;
+            }
+         }
+      }
+      catch (InterruptedException e)
+      {
+         _stopped = true;
+      }
+   }
+
+   /**
+    * Stops reading and waits for the reader thread to end. Must be called before the importer is closed.
+    */
+   void close()
+   {
+      _stopped = true;
+      _parserPool.shutdownNow();
+
+      while (_readerThread.isAlive())
+      {
+         try
+         {
+            _readerThread.join();
+         }
+         catch (InterruptedException e)
+         {
+            s_log.debug("Interrupted while waiting for the Dataimport Reader Thread to end");
+         }
+      }
+   }
+
+   private static class RowFailure extends Exception
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final int _rowNumber;
+
+      RowFailure(int rowNumber, Throwable cause)
+      {
+         super(cause);
+         _rowNumber = rowNumber;
+      }
+
+      int getRowNumber()
+      {
+         return _rowNumber;
+      }
+   }
+}
@@ -0,0 +1,107 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+
+/**
+ * The interpreted values of one row to insert.
+ * <p>
+ * The setters mirror those of {@link PreparedStatement}, so interpreting a row, which is
+ * expensive for dates, may happen on another thread than binding it to the insert statement.
+ */
+class ImportRowValues
+{
+   private final Object[] _values;
+   private final int[] _nullTypes;
+
+   ImportRowValues(int columnCount)
+   {
+      _values = new Object[columnCount];
+      _nullTypes = new int[columnCount];
+   }
+
+   void setLong(int index, long value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setInt(int index, int value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setDouble(int index, double value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setDate(int index, java.sql.Date value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setTimestamp(int index, Timestamp value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setTime(int index, Time value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setString(int index, String value)
+   {
+      _values[index - 1] = value;
+   }
+
+   void setNull(int index, int sqlType)
+   {
+      _values[index - 1] = null;
+      _nullTypes[index - 1] = sqlType;
+   }
+
+   void bind(PreparedStatement stmt) throws SQLException
+   {
+      for (int i = 0; i < _values.length; i++)
+      {
+         Object value = _values[i];
+         int index = i + 1;
+
+         if (null == value)
+         {
+            stmt.setNull(index, _nullTypes[i]);
+         }
+         else if (value instanceof Long)
+         {
+            stmt.setLong(index, (Long) value);
+         }
+         else if (value instanceof Integer)
+         {
+            stmt.setInt(index, (Integer) value);
+         }
+         else if (value instanceof Double)
+         {
+            stmt.setDouble(index, (Double) value);
+         }
+         else if (value instanceof java.sql.Date)
+         {
+            stmt.setDate(index, (java.sql.Date) value);
+         }
+         else if (value instanceof Timestamp)
+         {
+            stmt.setTimestamp(index, (Timestamp) value);
+         }
+         else if (value instanceof Time)
+         {
+            stmt.setTime(index, (Time) value);
+         }
+         else
+         {
+            stmt.setString(index, (String) value);
+         }
+      }
+   }
+}
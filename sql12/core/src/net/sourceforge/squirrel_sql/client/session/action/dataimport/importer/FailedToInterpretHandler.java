@@ -17,8 +17,14 @@ public class FailedToInterpretHandler
 
 
    private int numberOfLogs = 0;
-   public Double failedToInterpretNumeric(int column, String toInterpret, Exception e)
+   private int numberOfFailures = 0;
+
+   /**
+    * Synchronized because rows may be interpreted by several threads, see {@link IFileImporter#copyCurrentRow()}.
+    */
+   public synchronized Double failedToInterpretNumeric(int column, String toInterpret, Exception e)
    {
+      ++numberOfFailures;
 
       if(10 == numberOfLogs)
       {
@@ -50,8 +56,9 @@ public class FailedToInterpretHandler
    }
 
 
-   public Date failedToInterpretDate(int column, String toInterpret, Exception e)
+   public synchronized Date failedToInterpretDate(int column, String toInterpret, Exception e)
    {
+      ++numberOfFailures;
       if(10 == numberOfLogs)
       {
          String msg = stringMgr.getString("ExcelFileImporter.failed.to.interpret.date.no.more.messages", numberOfLogs);
@@ -74,6 +81,14 @@ public class FailedToInterpretHandler
       return getDummyDate();
    }
 
+   /**
+    * @return The number of values replaced by dummy values.
+    */
+   public synchronized int getNumberOfFailures()
+   {
+      return numberOfFailures;
+   }
+
    private Date getDummyDate()
    {
       Calendar cal = Calendar.getInstance();
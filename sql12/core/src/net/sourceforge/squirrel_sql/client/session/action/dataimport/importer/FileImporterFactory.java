@@ -18,6 +18,7 @@ package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer;
  */
 
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.ImportFileType;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.columnar.ColumnarFileImporter;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.CSVFileImporter;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.excel.ExcelFileImporter;
 
@@ -50,6 +51,9 @@ public class FileImporterFactory
          case XLS:
             importer = new ExcelFileImporter(importFile);
             break;
+         case COLUMNAR:
+            importer = new ColumnarFileImporter(importFile);
+            break;
          default:
             throw new IllegalArgumentException("No such type: " + type.toString());
       }
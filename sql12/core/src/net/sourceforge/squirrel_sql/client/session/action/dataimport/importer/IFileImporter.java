@@ -18,14 +18,13 @@ package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer;
  */
 
 import java.io.IOException;
-import java.util.Date;
 
 /**
  * This interface describes an importer for a file type.
  *
  * @author Thorsten Mürell
  */
-public interface IFileImporter
+public interface IFileImporter extends IImportRow
 {
    /**
     * Opens the file.
@@ -73,49 +72,27 @@ public interface IFileImporter
    boolean next() throws IOException;
 
    /**
-    * Returns the given column as a string
+    * Returns a copy of the current row that stays valid when {@link #next()} is called
+    * and that may be read by other threads than the one reading the file.
+    * Importing uses the copies to interpret the values of several rows in parallel.
     *
-    * @param column The column number to retrieve
-    * @return The string value of the column
+    * @return The copy or <code>null</code> if this importer doesn't support copying rows.
+    * Then the values are read from the importer itself.
     * @throws IOException If an I/O error occurs, this exception is thrown
     */
-   String getString(int column) throws IOException;
+   default IImportRow copyCurrentRow() throws IOException
+   {
+      return null;
+   }
 
    /**
-    * Returns the given column as a long
-    *
-    * @param column The column number to retrieve
-    * @return The long value of the column
-    * @throws IOException                If an I/O error occurs, this exception is thrown
-    * @throws UnsupportedFormatException If the column cannot be converted to a
-    *                                    long
-    */
-   Long getLong(int column) throws IOException;
-
-   /**
-    * Returns the given column as an integer
-    *
-    * @param column The column number to retrieve
-    * @return The integer value of the column
-    * @throws IOException                If an I/O error occurs, this exception is thrown
-    * @throws UnsupportedFormatException If the column cannot be converted to an
-    *                                    integer
-    */
-   Integer getInt(int column) throws IOException;
-
-
-   Double getDouble(int column) throws IOException;
-
-   /**
-    * Returns the given column as a date
-    *
-    * @param column The column number to retrieve
-    * @return The date value of the column
-    * @throws IOException                If an I/O error occurs, this exception is thrown
-    * @throws UnsupportedFormatException If the column cannot be converted to a
-    *                                    date
+    * @return The number of values that could not be interpreted and were replaced by dummy values,
+    * see {@link FailedToInterpretHandler}.
     */
-   Date getDate(int column) throws IOException;
+   default int getFailedToInterpretCount()
+   {
+      return 0;
+   }
 
    /**
     * This method returns the panel that is used to configure the importer.
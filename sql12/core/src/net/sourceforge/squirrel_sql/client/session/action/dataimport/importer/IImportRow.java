@@ -0,0 +1,75 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer;
+/*
+ * Copyright (C) 2007 Thorsten Mürell
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * The values of a row of an import file.
+ * <p>
+ * Implemented by {@link IFileImporter} for the row the importer is positioned on
+ * and by the row copies returned by {@link IFileImporter#copyCurrentRow()}.
+ */
+public interface IImportRow
+{
+   /**
+    * Returns the given column as a string
+    *
+    * @param column The column number to retrieve
+    * @return The string value of the column
+    * @throws IOException If an I/O error occurs, this exception is thrown
+    */
+   String getString(int column) throws IOException;
+
+   /**
+    * Returns the given column as a long
+    *
+    * @param column The column number to retrieve
+    * @return The long value of the column
+    * @throws IOException                If an I/O error occurs, this exception is thrown
+    * @throws UnsupportedFormatException If the column cannot be converted to a
+    *                                    long
+    */
+   Long getLong(int column) throws IOException;
+
+   /**
+    * Returns the given column as an integer
+    *
+    * @param column The column number to retrieve
+    * @return The integer value of the column
+    * @throws IOException                If an I/O error occurs, this exception is thrown
+    * @throws UnsupportedFormatException If the column cannot be converted to an
+    *                                    integer
+    */
+   Integer getInt(int column) throws IOException;
+
+
+   Double getDouble(int column) throws IOException;
+
+   /**
+    * Returns the given column as a date
+    *
+    * @param column The column number to retrieve
+    * @return The date value of the column
+    * @throws IOException                If an I/O error occurs, this exception is thrown
+    * @throws UnsupportedFormatException If the column cannot be converted to a
+    *                                    date
+    */
+   Date getDate(int column) throws IOException;
+}
@@ -0,0 +1,198 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.columnar;
+
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.ConfigurationPanel;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.FailedToInterpretHandler;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IFileImporter;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
+import net.sourceforge.squirrel_sql.fw.gui.action.fileexport.ColumnarFileReader;
+import net.sourceforge.squirrel_sql.fw.gui.action.fileexport.DataExportColumnarWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Imports the Parquet files written by {@link DataExportColumnarWriter}, see {@link ColumnarFileReader} for the files of other tools that can be read.
+ * <p>
+ * If the file was exported with column headers, the column names are returned as first row.
+ * This way the "Headers included" option of the import dialog works like for CSV files.
+ */
+public class ColumnarFileImporter implements IFileImporter
+{
+   private final File _importFile;
+   private boolean _trimValues;
+
+   private ColumnarFileReader _reader;
+   private boolean _columnNamesPending;
+   private Object[][] _rowGroup;
+   private int _nextRowInGroup;
+   private ColumnarImportRow _currentRow;
+
+   private FailedToInterpretHandler _failedToInterpretHandler = new FailedToInterpretHandler();
+
+   public ColumnarFileImporter(File importFile)
+   {
+      _importFile = importFile;
+   }
+
+   @Override
+   public boolean open() throws IOException
+   {
+      return reset();
+   }
+
+   @Override
+   public boolean close() throws IOException
+   {
+      if (null != _reader)
+      {
+         _reader.close();
+         _reader = null;
+      }
+      return true;
+   }
+
+   @Override
+   public String[][] getPreview(int noOfLines) throws IOException
+   {
+      List<String[]> ret = new ArrayList<>();
+
+      try (ColumnarFileReader reader = new ColumnarFileReader(_importFile))
+      {
+         if (reader.hasColumnNames())
+         {
+            ret.add(reader.getColumnNames());
+         }
+
+         Object[][] rows;
+         while (ret.size() < noOfLines && null != (rows = reader.readRows()))
+         {
+            for (int i = 0; i < rows.length && ret.size() < noOfLines; i++)
+            {
+               String[] line = new String[rows[i].length];
+               for (int j = 0; j < line.length; j++)
+               {
+                  line[j] = null == rows[i][j] ? null : rows[i][j] instanceof BigDecimal ? ((BigDecimal) rows[i][j]).toPlainString() : rows[i][j].toString();
+               }
+               ret.add(line);
+            }
+         }
+      }
+
+      return ret.toArray(new String[0][]);
+   }
+
+   @Override
+   public boolean reset() throws IOException
+   {
+      close();
+
+      _reader = new ColumnarFileReader(_importFile);
+      _columnNamesPending = _reader.hasColumnNames();
+      _rowGroup = null;
+      _nextRowInGroup = 0;
+      _currentRow = null;
+      return true;
+   }
+
+   @Override
+   public boolean next() throws IOException
+   {
+      if (_columnNamesPending)
+      {
+         _columnNamesPending = false;
+         _currentRow = new ColumnarImportRow(_reader.getColumnNames(), _trimValues, _failedToInterpretHandler);
+         return true;
+      }
+
+      while (null == _rowGroup || _nextRowInGroup >= _rowGroup.length)
+      {
+         _rowGroup = _reader.readRows();
+         _nextRowInGroup = 0;
+
+         if (null == _rowGroup)
+         {
+            return false;
+         }
+      }
+
+      _currentRow = new ColumnarImportRow(_rowGroup[_nextRowInGroup], _trimValues, _failedToInterpretHandler);
+      _rowGroup[_nextRowInGroup++] = null;
+      return true;
+   }
+
+   private ColumnarImportRow checkPointer() throws IOException
+   {
+      if (null == _currentRow)
+      {
+         throw new IOException("Use next() to get to the first record.");
+      }
+      return _currentRow;
+   }
+
+   @Override
+   public IImportRow copyCurrentRow() throws IOException
+   {
+      return checkPointer();
+   }
+
+   @Override
+   public String getString(int column) throws IOException
+   {
+      return checkPointer().getString(column);
+   }
+
+   @Override
+   public Long getLong(int column) throws IOException
+   {
+      return checkPointer().getLong(column);
+   }
+
+   @Override
+   public Integer getInt(int column) throws IOException
+   {
+      return checkPointer().getInt(column);
+   }
+
+   @Override
+   public Double getDouble(int column) throws IOException
+   {
+      return checkPointer().getDouble(column);
+   }
+
+   @Override
+   public Date getDate(int column) throws IOException
+   {
+      return checkPointer().getDate(column);
+   }
+
+   @Override
+   public int getFailedToInterpretCount()
+   {
+      return _failedToInterpretHandler.getNumberOfFailures();
+   }
+
+   /**
+    * @return null, the file describes itself.
+    */
+   @Override
+   public ConfigurationPanel createConfigurationPanel()
+   {
+      return null;
+   }
+
+   @Override
+   public void setTrimValues(boolean trimValues)
+   {
+      _trimValues = trimValues;
+   }
+
+   @Override
+   public String getImportFileTypeDescription()
+   {
+      return "Parquet";
+   }
+}
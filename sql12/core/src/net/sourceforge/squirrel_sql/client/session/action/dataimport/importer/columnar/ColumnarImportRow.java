@@ -0,0 +1,145 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.columnar;
+
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.FailedToInterpretHandler;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * A row of a columnar export file. The values are typed already, so numbers and dates
+ * are only parsed when the column was exported as strings.
+ * <p>
+ * The values are never changed. So an instance serves as its own copy, see {@link ColumnarFileImporter#copyCurrentRow()}.
+ */
+class ColumnarImportRow implements IImportRow
+{
+   private final Object[] _values;
+   private final boolean _trimValues;
+   private final FailedToInterpretHandler _failedToInterpretHandler;
+
+   ColumnarImportRow(Object[] values, boolean trimValues, FailedToInterpretHandler failedToInterpretHandler)
+   {
+      _values = values;
+      _trimValues = trimValues;
+      _failedToInterpretHandler = failedToInterpretHandler;
+   }
+
+   private Object getValue(int column)
+   {
+      if (column > -1 && column < _values.length)
+      {
+         return _values[column];
+      }
+      return null;
+   }
+
+   @Override
+   public String getString(int column)
+   {
+      Object value = getValue(column);
+
+      if (null == value)
+      {
+         return null;
+      }
+
+      String ret = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+      return _trimValues ? ret.trim() : ret;
+   }
+
+   @Override
+   public Long getLong(int column)
+   {
+      Object value = getValue(column);
+
+      if (value instanceof Number)
+      {
+         // Without the detour through Double, which loses precision beyond 2^53.
+         return ((Number) value).longValue();
+      }
+
+      Double ret = getDouble(column);
+      return null == ret ? null : ret.longValue();
+   }
+
+   @Override
+   public Integer getInt(int column)
+   {
+      Object value = getValue(column);
+
+      if (value instanceof Number)
+      {
+         return ((Number) value).intValue();
+      }
+
+      Double ret = getDouble(column);
+      return null == ret ? null : ret.intValue();
+   }
+
+   @Override
+   public Double getDouble(int column)
+   {
+      Object value = getValue(column);
+
+      if (null == value)
+      {
+         return null;
+      }
+      else if (value instanceof Number)
+      {
+         return ((Number) value).doubleValue();
+      }
+      else if (value instanceof Boolean)
+      {
+         return (Boolean) value ? 1d : 0d;
+      }
+
+      String doubleS = getString(column);
+      if (0 == doubleS.trim().length())
+      {
+         return null;
+      }
+
+      try
+      {
+         return Double.parseDouble(doubleS);
+      }
+      catch (Exception e)
+      {
+         return _failedToInterpretHandler.failedToInterpretNumeric(column, doubleS, e);
+      }
+   }
+
+   @Override
+   public Date getDate(int column)
+   {
+      Object value = getValue(column);
+
+      if (null == value)
+      {
+         return null;
+      }
+      else if (value instanceof Date)
+      {
+         return (Date) value;
+      }
+
+      String dateString = getString(column);
+      if (0 == dateString.trim().length())
+      {
+         return null;
+      }
+
+      try
+      {
+         // The format of Timestamp.toString(), used when a column mixed dates with other values.
+         return Timestamp.valueOf(dateString.trim());
+      }
+      catch (Exception e)
+      {
+         return _failedToInterpretHandler.failedToInterpretDate(column, dateString, e);
+      }
+   }
+}
@@ -21,7 +21,10 @@ import net.sourceforge.squirrel_sql.client.session.action.dataimport.gui.ImportP
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.ConfigurationPanel;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.FailedToInterpretHandler;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IFileImporter;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.csvreader.ChunkedCsvReader;
 import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.csvreader.CsvReader;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.csvreader.ICsvReader;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
@@ -29,7 +32,6 @@ import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 /**
@@ -46,7 +48,7 @@ public class CSVFileImporter implements IFileImporter
 
    private CSVSettingsBean settings;
    private File importFile;
-   private CsvReader reader = null;
+   private ICsvReader reader = null;
    private boolean safetySwitch = true;
    private boolean _trimValues = true;
 
@@ -142,11 +144,26 @@ public class CSVFileImporter implements IFileImporter
       {
          reader.close();
       }
-      reader = new CsvReader(importFile, settings.getImportCharset(), settings.getSeperator(), _trimValues, settings.isUseDoubleQuotesAsTextQualifier());
+      reader = createReader();
       reader.setSafetySwitch(safetySwitch);
       return true;
    }
 
+   /**
+    * Large files are read by {@link ChunkedCsvReader} when their charset allows it.
+    * On a single processor it would just add the cost of finding the chunk boundaries.
+    */
+   private ICsvReader createReader() throws IOException
+   {
+      if (1 < Runtime.getRuntime().availableProcessors()
+            && importFile.length() > ChunkedCsvReader.CHUNK_SIZE
+            && ChunkedCsvReader.isSupported(settings.getImportCharset(), settings.getSeperator()))
+      {
+         return new ChunkedCsvReader(importFile, settings.getImportCharset(), settings.getSeperator(), _trimValues, settings.isUseDoubleQuotesAsTextQualifier());
+      }
+      return new CsvReader(importFile, settings.getImportCharset(), settings.getSeperator(), _trimValues, settings.isUseDoubleQuotesAsTextQualifier());
+   }
+
    /*
     * (non-Javadoc)
     * @see net.sourceforge.squirrel_sql.plugins.dataimport.importer.IFileImporter#getString(int)
@@ -193,20 +210,7 @@ public class CSVFileImporter implements IFileImporter
    @Override
    public Double getDouble(int column) throws IOException
    {
-      String doubleS = reader.get(column);
-      if (null == doubleS || 0 == doubleS.trim().length())
-      {
-         return null;
-      }
-
-      try
-      {
-         return Double.parseDouble(doubleS);
-      }
-      catch (Exception nfe)
-      {
-         return _failedToInterpretHandler.failedToInterpretNumeric(column, doubleS, nfe);
-      }
+      return CSVImportRow.toDouble(column, reader.get(column), _failedToInterpretHandler);
    }
 
 
@@ -216,21 +220,19 @@ public class CSVFileImporter implements IFileImporter
     */
    public Date getDate(int column) throws IOException
    {
-      String dateString = reader.get(column);
+      return CSVImportRow.toDate(column, reader.get(column), settings.getDateFormat(), _failedToInterpretHandler);
+   }
 
-      if (null == dateString || 0 == dateString.trim().length())
-      {
-         return null;
-      }
+   @Override
+   public IImportRow copyCurrentRow() throws IOException
+   {
+      return new CSVImportRow(reader.getValues(), settings.getDateFormat(), _failedToInterpretHandler);
+   }
 
-      try
-      {
-         return new SimpleDateFormat(settings.getDateFormat()).parse(dateString);
-      }
-      catch (Exception pe) // Type of this exception was changed from Java 11 to Java 17
-      {
-         return _failedToInterpretHandler.failedToInterpretDate(column, dateString, pe);
-      }
+   @Override
+   public int getFailedToInterpretCount()
+   {
+      return _failedToInterpretHandler.getNumberOfFailures();
    }
 
    /*
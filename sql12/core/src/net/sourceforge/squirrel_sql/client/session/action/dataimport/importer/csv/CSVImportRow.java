@@ -0,0 +1,116 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv;
+
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.FailedToInterpretHandler;
+import net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.IImportRow;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * A copy of a CSV record, see {@link CSVFileImporter#copyCurrentRow()}.
+ * <p>
+ * The static methods interpret the values for both the copies and the {@link CSVFileImporter} itself.
+ */
+class CSVImportRow implements IImportRow
+{
+   /**
+    * SimpleDateFormat isn't thread safe and expensive to create, so each thread interpreting values keeps its own.
+    */
+   private static final ThreadLocal<SimpleDateFormat> _dateFormats = new ThreadLocal<>();
+
+   private final String[] _values;
+   private final String _dateFormat;
+   private final FailedToInterpretHandler _failedToInterpretHandler;
+
+   CSVImportRow(String[] values, String dateFormat, FailedToInterpretHandler failedToInterpretHandler)
+   {
+      _values = values;
+      _dateFormat = dateFormat;
+      _failedToInterpretHandler = failedToInterpretHandler;
+   }
+
+   @Override
+   public String getString(int column)
+   {
+      // Like CsvReader.get(int)
+      if (column > -1 && column < _values.length)
+      {
+         return _values[column];
+      }
+      else
+      {
+         return "";
+      }
+   }
+
+   @Override
+   public Long getLong(int column)
+   {
+      Double ret = getDouble(column);
+      return null == ret ? null : ret.longValue();
+   }
+
+   @Override
+   public Integer getInt(int column)
+   {
+      Double ret = getDouble(column);
+      return null == ret ? null : ret.intValue();
+   }
+
+   @Override
+   public Double getDouble(int column)
+   {
+      return toDouble(column, getString(column), _failedToInterpretHandler);
+   }
+
+   @Override
+   public Date getDate(int column)
+   {
+      return toDate(column, getString(column), _dateFormat, _failedToInterpretHandler);
+   }
+
+   static Double toDouble(int column, String doubleS, FailedToInterpretHandler failedToInterpretHandler)
+   {
+      if (null == doubleS || 0 == doubleS.trim().length())
+      {
+         return null;
+      }
+
+      try
+      {
+         return Double.parseDouble(doubleS);
+      }
+      catch (Exception nfe)
+      {
+         return failedToInterpretHandler.failedToInterpretNumeric(column, doubleS, nfe);
+      }
+   }
+
+   static Date toDate(int column, String dateString, String dateFormat, FailedToInterpretHandler failedToInterpretHandler)
+   {
+      if (null == dateString || 0 == dateString.trim().length())
+      {
+         return null;
+      }
+
+      try
+      {
+         return getDateFormat(dateFormat).parse(dateString);
+      }
+      catch (Exception pe) // Type of this exception was changed from Java 11 to Java 17
+      {
+         return failedToInterpretHandler.failedToInterpretDate(column, dateString, pe);
+      }
+   }
+
+   private static SimpleDateFormat getDateFormat(String dateFormat)
+   {
+      SimpleDateFormat ret = _dateFormats.get();
+      if (null == ret || false == ret.toPattern().equals(dateFormat))
+      {
+         ret = new SimpleDateFormat(dateFormat);
+         _dateFormats.set(ret);
+      }
+      return ret;
+   }
+}
@@ -0,0 +1,768 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.csvreader;
+
+import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.NumberFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads CSV files in chunks that are parsed in parallel.
+ * <p>
+ * The file is read chunk by chunk through a {@link FileChannel}. A chunk ends after the line break that ends the first
+ * record beyond {@link #CHUNK_SIZE} bytes. To find that line break the chunk's bytes are scanned
+ * with the quoting rules of {@link CsvReader}, so line breaks inside quoted values don't end a chunk.
+ * Decoding and parsing the chunks into records is done on the common {@link ForkJoinPool}, while
+ * the records are handed out in file order.
+ * <p>
+ * The records are those {@link CsvReader} reads with its default settings: Doubled text qualifiers,
+ * no comments, CR, LF or CRLF as record delimiter and empty records skipped.
+ * <p>
+ * Scanning bytes for delimiters, text qualifiers and line breaks requires these characters to be encoded
+ * as the same single bytes that never occur inside the encoding of other characters.
+ * See {@link #isSupported(String, Character)} for the charsets where this holds.
+ */
+public class ChunkedCsvReader implements ICsvReader
+{
+   private final static ILogger s_log = LoggerController.createLogger(ChunkedCsvReader.class);
+
+   public static final int CHUNK_SIZE = 1024 * 1024;
+
+   private static final int MAX_COLUMN_LENGTH = 100000;
+   private static final int MAX_COLUMN_COUNT = 100000;
+
+   // Bytes read beyond the chunk size to find the end of the chunk's last record
+   private static final int SCAN_RESERVE = 64 * 1024;
+   private static final int MAX_CHUNK_LENGTH = 1024 * 1024 * 1024;
+
+   private static final String[] NO_VALUES = new String[0];
+
+   // States of the chunk boundary scan, see scanChunk()
+   private static final int COLUMN_START = 0;
+   private static final int UNQUALIFIED = 1;
+   private static final int QUALIFIED = 2;
+   private static final int QUALIFIER_IN_QUALIFIED = 3;
+   private static final int TRAILING_JUNK = 4;
+
+   private final Charset _charset;
+   private final char _delimiter;
+   private final boolean _hasDelimiter;
+   private final boolean _trimWhitespace;
+   private final boolean _useTextQualifier;
+   private final char _textQualifier = Letters.QUOTE;
+   private boolean _safetySwitch = true;
+
+   private final int _chunkSize;
+   private FileChannel _channel;
+   private final long _fileSize;
+   private long _scanPosition;
+
+   private final ArrayDeque<ForkJoinTask<Chunk>> _parsingChunks = new ArrayDeque<>();
+   private final int _maxParsingChunks;
+
+   private Chunk _currentChunk;
+   private int _currentChunkRecord;
+   private String[] _values = NO_VALUES;
+   private long _currentRecord = 0;
+   private boolean _closed = false;
+
+   /**
+    * @return true if the file can be read by this reader, otherwise {@link CsvReader} must be used.
+    */
+   public static boolean isSupported(String charsetName, Character delimiter)
+   {
+      if (null != delimiter && 0x80 <= delimiter)
+      {
+         return false;
+      }
+
+      if (StringUtilities.isEmpty(charsetName) || false == Charset.isSupported(charsetName))
+      {
+         return false;
+      }
+
+      Charset charset = Charset.forName(charsetName);
+      String name = charset.name().toUpperCase();
+
+      return StandardCharsets.UTF_8.equals(charset)
+             || StandardCharsets.US_ASCII.equals(charset)
+             || name.startsWith("ISO-8859-")
+             || name.startsWith("WINDOWS-125");
+   }
+
+   public ChunkedCsvReader(File importFile, String charsetName, Character delimiter, boolean trimValues, boolean useTextQualifier) throws IOException
+   {
+      this(importFile, charsetName, delimiter, trimValues, useTextQualifier, CHUNK_SIZE);
+   }
+
+   ChunkedCsvReader(File importFile, String charsetName, Character delimiter, boolean trimValues, boolean useTextQualifier, int chunkSize) throws IOException
+   {
+      _chunkSize = chunkSize;
+      _charset = Charset.forName(charsetName);
+      _hasDelimiter = null != delimiter;
+      _delimiter = _hasDelimiter ? delimiter : Letters.NULL;
+      _trimWhitespace = trimValues;
+      _useTextQualifier = useTextQualifier;
+
+      _channel = FileChannel.open(importFile.toPath(), StandardOpenOption.READ);
+      _fileSize = _channel.size();
+      _scanPosition = ByteObjectMarkerUtil.getBomLength(importFile, _charset);
+
+      _maxParsingChunks = ForkJoinPool.getCommonPoolParallelism() + 1;
+   }
+
+   @Override
+   public void setSafetySwitch(boolean safetySwitch)
+   {
+      _safetySwitch = safetySwitch;
+   }
+
+   @Override
+   public boolean readRecord() throws IOException
+   {
+      checkClosed();
+
+      while (null == _currentChunk || _currentChunkRecord == _currentChunk.records.size())
+      {
+         if (null != _currentChunk && null != _currentChunk.failure)
+         {
+            throw createSafetySwitchException(_currentChunk.failure);
+         }
+
+         _currentChunk = nextChunk();
+         _currentChunkRecord = 0;
+
+         if (null == _currentChunk)
+         {
+            _values = NO_VALUES;
+            return false;
+         }
+      }
+
+      _values = _currentChunk.records.get(_currentChunkRecord++);
+      _currentRecord++;
+      return true;
+   }
+
+   private Chunk nextChunk() throws IOException
+   {
+      while (_parsingChunks.size() < _maxParsingChunks && _scanPosition < _fileSize)
+      {
+         ChunkBytes chunkBytes = scanChunk();
+         boolean lastChunk = _scanPosition >= _fileSize;
+         _parsingChunks.add(ForkJoinPool.commonPool().submit(() -> parseChunk(chunkBytes, lastChunk)));
+      }
+
+      ForkJoinTask<Chunk> parsingChunk = _parsingChunks.poll();
+      if (null == parsingChunk)
+      {
+         return null;
+      }
+
+      try
+      {
+         return parsingChunk.get();
+      }
+      catch (InterruptedException e)
+      {
+         throw new InterruptedIOException("Interrupted while waiting for CSV records to be parsed");
+      }
+      catch (ExecutionException e)
+      {
+         if (e.getCause() instanceof IOException)
+         {
+            throw (IOException) e.getCause();
+         }
+         throw new RuntimeException(e.getCause());
+      }
+   }
+
+   /**
+    * Reads the bytes from _scanPosition to the end of the first record that ends beyond the chunk size.
+    */
+   private ChunkBytes scanChunk() throws IOException
+   {
+      // -1 never equals an unsigned byte
+      int delimiter = _hasDelimiter ? _delimiter : -1;
+      int qualifier = _useTextQualifier ? _textQualifier : -1;
+      boolean trimWhitespace = _trimWhitespace;
+      int chunkSize = _chunkSize;
+
+      int length = (int) Math.min(chunkSize + SCAN_RESERVE, _fileSize - _scanPosition);
+      byte[] bytes = new byte[length];
+      readFully(bytes, 0, length, _scanPosition);
+
+      int state = COLUMN_START;
+      int pos = 0;
+
+      while (true)
+      {
+         for (; pos < length; pos++)
+         {
+            int b = bytes[pos] & 0xFF;
+
+            boolean lineBreak = b == Letters.CR || b == Letters.LF;
+
+            switch (state)
+            {
+               case COLUMN_START:
+                  if (b == qualifier)
+                  {
+                     state = QUALIFIED;
+                  }
+                  else if (b != delimiter && false == lineBreak && false == (trimWhitespace && (b == Letters.SPACE || b == Letters.TAB)))
+                  {
+                     state = UNQUALIFIED;
+                  }
+                  break;
+               case UNQUALIFIED:
+               case TRAILING_JUNK:
+                  if (b == delimiter || lineBreak)
+                  {
+                     state = COLUMN_START;
+                  }
+                  break;
+               case QUALIFIED:
+                  if (b == qualifier)
+                  {
+                     state = QUALIFIER_IN_QUALIFIED;
+                  }
+                  break;
+               case QUALIFIER_IN_QUALIFIED:
+                  if (b == qualifier)
+                  {
+                     // Doubled qualifier
+                     state = QUALIFIED;
+                  }
+                  else if (b == delimiter || lineBreak)
+                  {
+                     state = COLUMN_START;
+                  }
+                  else
+                  {
+                     state = TRAILING_JUNK;
+                  }
+                  break;
+            }
+
+            if (lineBreak && COLUMN_START == state && pos >= chunkSize)
+            {
+               return cutChunk(bytes, pos + 1);
+            }
+         }
+
+         if (_scanPosition + length >= _fileSize)
+         {
+            return cutChunk(bytes, length);
+         }
+
+         if (MAX_CHUNK_LENGTH == length)
+         {
+            throw new IOException("Failed to find the end of the record starting near byte " + _scanPosition + ". Records must not exceed 1 GB.");
+         }
+
+         // A record reaches beyond what has been read.
+         int newLength = (int) Math.min(Math.min(2L * length, MAX_CHUNK_LENGTH), _fileSize - _scanPosition);
+         bytes = Arrays.copyOf(bytes, newLength);
+         readFully(bytes, length, newLength - length, _scanPosition + length);
+         length = newLength;
+      }
+   }
+
+   private void readFully(byte[] bytes, int offset, int length, long filePosition) throws IOException
+   {
+      ByteBuffer buf = ByteBuffer.wrap(bytes, offset, length);
+      while (buf.hasRemaining())
+      {
+         if (0 > _channel.read(buf, filePosition + buf.position() - offset))
+         {
+            throw new EOFException("Unexpected end of CSV file at byte " + (filePosition + buf.position() - offset));
+         }
+      }
+   }
+
+   private ChunkBytes cutChunk(byte[] bytes, int length)
+   {
+      _scanPosition += length;
+      return new ChunkBytes(bytes, length);
+   }
+
+   private Chunk parseChunk(ChunkBytes chunkBytes, boolean lastChunk) throws IOException
+   {
+      CharBuffer chars;
+      try
+      {
+         chars = _charset.newDecoder()
+                         .onMalformedInput(CodingErrorAction.REPLACE)
+                         .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                         .decode(ByteBuffer.wrap(chunkBytes.bytes, 0, chunkBytes.length));
+      }
+      catch (CharacterCodingException e)
+      {
+         throw new IOException(e);
+      }
+
+      return new ChunkParser(this, chars.array(), chars.arrayOffset(), chars.arrayOffset() + chars.limit(), lastChunk).parse();
+   }
+
+   private IOException createSafetySwitchException(ChunkFailure failure)
+   {
+      close();
+
+      // Same messages as CsvReader
+      if (failure.columnCountExceeded)
+      {
+         return new IOException(
+               "Maximum column count of 100,000 exceeded in record "
+               + NumberFormat.getIntegerInstance().format(_currentRecord)
+               + ". Set the SafetySwitch property to false"
+               + " if you're expecting more than 100,000 columns per record to"
+               + " avoid this error.");
+      }
+
+      return new IOException(
+            "Maximum column length of 100,000 exceeded in column "
+            + NumberFormat.getIntegerInstance().format(failure.column)
+            + " in record "
+            + NumberFormat.getIntegerInstance().format(_currentRecord)
+            + ". Set the SafetySwitch property to false"
+            + " if you're expecting column lengths greater than 100,000 characters to"
+            + " avoid this error.");
+   }
+
+   @Override
+   public int getColumnCount()
+   {
+      return _values.length;
+   }
+
+   @Override
+   public String get(int columnIndex) throws IOException
+   {
+      checkClosed();
+
+      if (columnIndex > -1 && columnIndex < _values.length)
+      {
+         return _values[columnIndex];
+      }
+      else
+      {
+         return "";
+      }
+   }
+
+   @Override
+   public String[] getValues() throws IOException
+   {
+      checkClosed();
+      return _values.clone();
+   }
+
+   @Override
+   public void close()
+   {
+      if (_closed)
+      {
+         return;
+      }
+      _closed = true;
+
+      for (ForkJoinTask<Chunk> parsingChunk : _parsingChunks)
+      {
+         parsingChunk.cancel(false);
+      }
+      _parsingChunks.clear();
+      _currentChunk = null;
+
+      try
+      {
+         _channel.close();
+      }
+      catch (IOException e)
+      {
+         s_log.error("Failed to close CSV file", e);
+      }
+   }
+
+   private void checkClosed() throws IOException
+   {
+      if (_closed)
+      {
+         throw new IOException("This instance of the ChunkedCsvReader class has already been closed.");
+      }
+   }
+
+   private static class ChunkBytes
+   {
+      final byte[] bytes;
+      final int length;
+
+      ChunkBytes(byte[] bytes, int length)
+      {
+         this.bytes = bytes;
+         this.length = length;
+      }
+   }
+
+   private static class Chunk
+   {
+      final List<String[]> records;
+
+      /**
+       * Set when the safety switch stopped parsing. Thrown after the records parsed before have been read.
+       */
+      final ChunkFailure failure;
+
+      Chunk(List<String[]> records, ChunkFailure failure)
+      {
+         this.records = records;
+         this.failure = failure;
+      }
+   }
+
+   private static class ChunkFailure
+   {
+      final boolean columnCountExceeded;
+      final int column;
+
+      ChunkFailure(boolean columnCountExceeded, int column)
+      {
+         this.columnCountExceeded = columnCountExceeded;
+         this.column = column;
+      }
+   }
+
+   private static class SafetySwitchException extends Exception
+   {
+      private static final long serialVersionUID = 1L;
+
+      final transient ChunkFailure failure;
+
+      SafetySwitchException(ChunkFailure failure)
+      {
+         super(null, null, false, false);
+         this.failure = failure;
+      }
+   }
+
+   /**
+    * Parses the records of one chunk like {@link CsvReader#readRecord()} does.
+    */
+   private static class ChunkParser
+   {
+      private final char[] _buf;
+      private final int _end;
+      private final boolean _lastChunk;
+
+      // -1 if there is no delimiter
+      private final int _delimiter;
+      private final boolean _trimWhitespace;
+      private final boolean _useTextQualifier;
+      private final char _textQualifier;
+      private final boolean _safetySwitch;
+
+      private int _pos;
+      private final ArrayList<String[]> _records = new ArrayList<>();
+
+      private final ArrayList<String> _columns = new ArrayList<>();
+      private final StringBuilder _columnBuffer = new StringBuilder();
+      private int _columnStart;
+      private boolean _startedColumn;
+      private boolean _startedWithQualifier;
+      private boolean _recordEnded;
+      private char _lastLetter = Letters.NULL;
+
+      ChunkParser(ChunkedCsvReader reader, char[] buf, int begin, int end, boolean lastChunk)
+      {
+         _buf = buf;
+         _pos = begin;
+         _end = end;
+         _lastChunk = lastChunk;
+
+         _delimiter = reader._hasDelimiter ? reader._delimiter : -1;
+         _trimWhitespace = reader._trimWhitespace;
+         _useTextQualifier = reader._useTextQualifier;
+         _textQualifier = reader._textQualifier;
+         _safetySwitch = reader._safetySwitch;
+      }
+
+      Chunk parse()
+      {
+         try
+         {
+            while (_pos < _end)
+            {
+               readRecord();
+            }
+            return new Chunk(_records, null);
+         }
+         catch (SafetySwitchException e)
+         {
+            return new Chunk(_records, e.failure);
+         }
+      }
+
+      private void readRecord() throws SafetySwitchException
+      {
+         _columns.clear();
+         _recordEnded = false;
+
+         while (_pos < _end && false == _recordEnded)
+         {
+            _startedWithQualifier = false;
+            char currentLetter = _buf[_pos];
+
+            if (_useTextQualifier && currentLetter == _textQualifier)
+            {
+               readQualifiedColumn();
+            }
+            else if (currentLetter == _delimiter)
+            {
+               _lastLetter = currentLetter;
+               endColumn();
+            }
+            else if (currentLetter == Letters.CR || currentLetter == Letters.LF)
+            {
+               // this will skip blank lines
+               if (_startedColumn || 0 < _columns.size())
+               {
+                  endColumn();
+                  endRecord();
+               }
+               _lastLetter = currentLetter;
+            }
+            else if (_trimWhitespace && (currentLetter == Letters.SPACE || currentLetter == Letters.TAB))
+            {
+               // trims leading whitespace of qualified and unqualified columns
+               _startedColumn = true;
+               _columnStart = _pos + 1;
+            }
+            else
+            {
+               readUnqualifiedColumn();
+            }
+
+            if (_pos < _end)
+            {
+               _pos++;
+            }
+         }
+
+         if (false == _recordEnded && _lastChunk && (_startedColumn || _lastLetter == _delimiter))
+         {
+            // end of file without line break:
+            // CsvReader then takes the value from its column buffer and trims only trailing spaces, not tabs.
+            endColumn(false);
+            endRecord();
+         }
+      }
+
+      private void readQualifiedColumn() throws SafetySwitchException
+      {
+         _lastLetter = _buf[_pos];
+         _startedColumn = true;
+         _startedWithQualifier = true;
+         _columnStart = _pos + 1;
+
+         boolean lastLetterWasQualifier = false;
+         boolean lastLetterWasEscape = false;
+         boolean eatingTrailingJunk = false;
+
+         _pos++;
+
+         while (_pos < _end && _startedColumn)
+         {
+            char currentLetter = _buf[_pos];
+
+            if (eatingTrailingJunk)
+            {
+               _columnStart = _pos + 1;
+
+               if (currentLetter == _delimiter)
+               {
+                  endColumn();
+               }
+               else if (currentLetter == Letters.CR || currentLetter == Letters.LF)
+               {
+                  endColumn();
+                  endRecord();
+               }
+            }
+            else if (currentLetter == _textQualifier)
+            {
+               if (lastLetterWasEscape)
+               {
+                  // The second of two doubled qualifiers is kept as value
+                  lastLetterWasEscape = false;
+                  lastLetterWasQualifier = false;
+               }
+               else
+               {
+                  updateCurrentValue();
+                  lastLetterWasEscape = true;
+                  lastLetterWasQualifier = true;
+               }
+            }
+            else if (lastLetterWasQualifier)
+            {
+               if (currentLetter == _delimiter)
+               {
+                  endColumn();
+               }
+               else if (currentLetter == Letters.CR || currentLetter == Letters.LF)
+               {
+                  endColumn();
+                  endRecord();
+               }
+               else
+               {
+                  _columnStart = _pos + 1;
+                  eatingTrailingJunk = true;
+               }
+               lastLetterWasQualifier = false;
+            }
+
+            _lastLetter = currentLetter;
+
+            if (_startedColumn)
+            {
+               _pos++;
+               checkColumnLength();
+            }
+         }
+      }
+
+      private void readUnqualifiedColumn() throws SafetySwitchException
+      {
+         _startedColumn = true;
+         _columnStart = _pos;
+
+         // An unqualified column ends at the next delimiter or line break.
+         char[] buf = _buf;
+         int delimiter = _delimiter;
+         int pos = _pos;
+         while (pos < _end)
+         {
+            char currentLetter = buf[pos];
+            if (currentLetter == delimiter || currentLetter == Letters.CR || currentLetter == Letters.LF)
+            {
+               break;
+            }
+            ++pos;
+         }
+         _pos = pos;
+
+         checkColumnLength();
+
+         if (pos < _end)
+         {
+            char currentLetter = buf[pos];
+
+            endColumn();
+            if (currentLetter != delimiter)
+            {
+               endRecord();
+            }
+            _lastLetter = currentLetter;
+         }
+         else
+         {
+            _lastLetter = buf[pos - 1];
+         }
+      }
+
+      private void updateCurrentValue()
+      {
+         if (_startedColumn && _columnStart < _pos)
+         {
+            _columnBuffer.append(_buf, _columnStart, _pos - _columnStart);
+         }
+         _columnStart = _pos + 1;
+      }
+
+      private void checkColumnLength() throws SafetySwitchException
+      {
+         if (_safetySwitch && _pos - _columnStart + _columnBuffer.length() > MAX_COLUMN_LENGTH)
+         {
+            throw new SafetySwitchException(new ChunkFailure(false, _columns.size()));
+         }
+      }
+
+      private void endColumn() throws SafetySwitchException
+      {
+         endColumn(true);
+      }
+
+      private void endColumn(boolean trimTabs) throws SafetySwitchException
+      {
+         String currentValue = "";
+
+         if (_startedColumn)
+         {
+            if (0 == _columnBuffer.length())
+            {
+               if (_columnStart < _pos)
+               {
+                  int lastLetter = _pos - 1;
+                  if (_trimWhitespace && false == _startedWithQualifier)
+                  {
+                     while (lastLetter >= _columnStart && (_buf[lastLetter] == Letters.SPACE || (trimTabs && _buf[lastLetter] == Letters.TAB)))
+                     {
+                        lastLetter--;
+                     }
+                  }
+                  currentValue = new String(_buf, _columnStart, lastLetter - _columnStart + 1);
+               }
+            }
+            else
+            {
+               updateCurrentValue();
+               int lastLetter = _columnBuffer.length() - 1;
+               if (_trimWhitespace && false == _startedWithQualifier)
+               {
+                  while (lastLetter >= 0 && (_columnBuffer.charAt(lastLetter) == Letters.SPACE || (trimTabs && _columnBuffer.charAt(lastLetter) == Letters.TAB)))
+                  {
+                     lastLetter--;
+                  }
+               }
+               currentValue = _columnBuffer.substring(0, lastLetter + 1);
+            }
+         }
+
+         _columnBuffer.setLength(0);
+         _startedColumn = false;
+
+         if (_columns.size() >= MAX_COLUMN_COUNT && _safetySwitch)
+         {
+            throw new SafetySwitchException(new ChunkFailure(true, _columns.size()));
+         }
+
+         _columns.add(currentValue);
+      }
+
+      private void endRecord()
+      {
+         _recordEnded = true;
+         _records.add(_columns.toArray(new String[_columns.size()]));
+      }
+   }
+}
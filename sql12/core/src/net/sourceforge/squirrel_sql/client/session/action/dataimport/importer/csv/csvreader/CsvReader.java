@@ -36,7 +36,7 @@ import java.text.NumberFormat;
  * A stream based parser for parsing delimited text data from a file or a
  * stream.
  */
-public class CsvReader
+public class CsvReader implements ICsvReader
 {
    private final static ILogger s_log = LoggerController.createLogger(CsvReader.class);
 
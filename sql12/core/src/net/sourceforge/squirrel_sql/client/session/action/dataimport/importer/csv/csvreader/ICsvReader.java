@@ -0,0 +1,40 @@
+package net.sourceforge.squirrel_sql.client.session.action.dataimport.importer.csv.csvreader;
+
+import java.io.IOException;
+
+/**
+ * The record by record reading of a CSV file as used by the CSV importer.
+ * Implemented by the stream based {@link CsvReader} and by {@link ChunkedCsvReader}.
+ */
+public interface ICsvReader
+{
+   /**
+    * Reads another record.
+    *
+    * @return Whether another record was successfully read or not.
+    */
+   boolean readRecord() throws IOException;
+
+   /**
+    * @return The number of columns of the current record.
+    */
+   int getColumnCount();
+
+   /**
+    * @return The value of the given column of the current record, an empty String if the record has no such column.
+    */
+   String get(int columnIndex) throws IOException;
+
+   /**
+    * @return A copy of the values of the current record.
+    */
+   String[] getValues() throws IOException;
+
+   /**
+    * Sets whether columns longer than 100,000 characters and records with more than 100,000 columns are refused.
+    * Must be set before the first record is read.
+    */
+   void setSafetySwitch(boolean safetySwitch);
+
+   void close();
+}
@@ -299,6 +299,12 @@ public class ExcelFileImporter implements IFileImporter
       }
    }
 
+   @Override
+   public int getFailedToInterpretCount()
+   {
+      return _failedToInterpretHandler.getNumberOfFailures();
+   }
+
    /*
     * (non-Javadoc)
     * @see net.sourceforge.squirrel_sql.plugins.dataimport.importer.IFileImporter#getConfigurationPanel()
@@ -20,8 +20,9 @@ package net.sourceforge.squirrel_sql.client.session.action.dataimport.util;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Vector;
+import java.util.List;
 
 /**
  * Contains a date utility function.
@@ -30,16 +31,20 @@ import java.util.Vector;
  */
 public class DateUtils
 {
-   private static Vector<DateFormat> formats = new Vector<DateFormat>();
+   /**
+    * SimpleDateFormat isn't thread safe and rows are imported by several threads, so each thread gets its own formats.
+    */
+   private static ThreadLocal<List<DateFormat>> formats = ThreadLocal.withInitial(() -> createFormats());
 
-   static
+   private static List<DateFormat> createFormats()
    {
-      formats.add(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"));
-      formats.add(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
-      formats.add(new SimpleDateFormat("yyyy-MM-dd"));
-      formats.add(new SimpleDateFormat("HH:mm:ss"));
-      formats.add(new SimpleDateFormat("dd.MM.yyyy"));
-
+      ArrayList<DateFormat> ret = new ArrayList<>();
+      ret.add(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"));
+      ret.add(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+      ret.add(new SimpleDateFormat("yyyy-MM-dd"));
+      ret.add(new SimpleDateFormat("HH:mm:ss"));
+      ret.add(new SimpleDateFormat("dd.MM.yyyy"));
+      return ret;
    }
 
    /**
@@ -52,7 +57,7 @@ public class DateUtils
    {
 
       Date parsedDate = null;
-      for (DateFormat f : formats)
+      for (DateFormat f : formats.get())
       {
          parsedDate = parse(f, value);
          if (parsedDate != null)
@@ -3,6 +3,7 @@ package net.sourceforge.squirrel_sql.client.session.action.dbdiff;
 import net.sourceforge.squirrel_sql.client.Main;
 import net.sourceforge.squirrel_sql.client.action.ActionCollection;
 import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffCompareAction;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffCompareDataAction;
 import net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions.DBDiffSelectAction;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
@@ -20,8 +21,10 @@ public class DBDiffObjectTreeMenuFactory
 
       final JMenuItem selectItem = new JMenuItem(coll.get(DBDiffSelectAction.class));
       final JMenuItem compareItem = new JMenuItem(coll.get(DBDiffCompareAction.class));
+      final JMenuItem compareDataItem = new JMenuItem(coll.get(DBDiffCompareDataAction.class));
       dbdiffMenu.add(selectItem);
       dbdiffMenu.add(compareItem);
+      dbdiffMenu.add(compareDataItem);
 
       return dbdiffMenu;
    }
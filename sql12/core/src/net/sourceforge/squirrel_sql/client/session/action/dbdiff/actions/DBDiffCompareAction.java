@@ -58,6 +58,17 @@ public class DBDiffCompareAction extends SquirrelAction implements ISessionActio
 	 * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
 	 */
 	public void actionPerformed(ActionEvent evt)
+	{
+		compare(new DiffPresentationFactoryImpl());
+	}
+
+	/**
+	 * Compares the objects selected in the source session to the ones selected in the destination session
+	 * or two objects selected in the destination session.
+	 *
+	 * @param diffPresentationFactory Creates the presentation that does the actual compare.
+	 */
+	static void compare(IDiffPresentationFactory diffPresentationFactory)
 	{
 		final ISession sourceSession = Main.getApplication().getDBDiffState().getSourceSession();
 		final ISession destSession = Main.getApplication().getDBDiffState().getDestSession();
@@ -111,7 +122,6 @@ public class DBDiffCompareAction extends SquirrelAction implements ISessionActio
 		}
 		final DBDiffCompareCommand command = new DBDiffCompareCommand();
 
-		final IDiffPresentationFactory diffPresentationFactory = new DiffPresentationFactoryImpl();
 		command.setDiffPresentationFactory(diffPresentationFactory);
 		command.execute();
 
@@ -122,7 +132,7 @@ public class DBDiffCompareAction extends SquirrelAction implements ISessionActio
 
 	}
 
-   private boolean sourceExists()
+   private static boolean sourceExists()
    {
       return Main.getApplication().getDBDiffState().getSourceSession() != null &&
             null != Main.getApplication().getDBDiffState().getSourceSelectedDatabaseObjects()
@@ -0,0 +1,32 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.actions;
+
+import net.sourceforge.squirrel_sql.client.Main;
+import net.sourceforge.squirrel_sql.client.action.SquirrelAction;
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.client.session.action.ISessionAction;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.gui.TableDataDiffPresentation;
+
+import java.awt.event.ActionEvent;
+
+/**
+ * Like {@link DBDiffCompareAction} but compares the rows of the selected tables instead of their columns.
+ */
+public class DBDiffCompareDataAction extends SquirrelAction implements ISessionAction
+{
+   private static final long serialVersionUID = 1L;
+
+   public DBDiffCompareDataAction()
+   {
+      super(Main.getApplication());
+   }
+
+   public void actionPerformed(ActionEvent evt)
+   {
+      DBDiffCompareAction.compare(TableDataDiffPresentation::new);
+   }
+
+   public void setSession(ISession session)
+   {
+      Main.getApplication().getDBDiffState().setDestSession(session);
+   }
+}
@@ -0,0 +1,203 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.gui;
+
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff.RowDifference;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff.TableDataDiffResult;
+import net.sourceforge.squirrel_sql.fw.gui.GUIUtils;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Shows the progress and the results of {@link TableDataDiffPresentation}.
+ * A running comparison can be canceled, a finished one can be repeated, e.g. in hash bucket mode.
+ */
+public class TableDataDiffDialog extends JDialog
+{
+   private static final long serialVersionUID = 1L;
+
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(TableDataDiffDialog.class);
+
+   final JCheckBox chkUseHashBuckets = new JCheckBox(s_stringMgr.getString("TableDataDiffDialog.use.hash.buckets"));
+   final JButton btnCompare = new JButton(s_stringMgr.getString("TableDataDiffDialog.compare"));
+   final JButton btnCancel = new JButton(s_stringMgr.getString("TableDataDiffDialog.cancel"));
+   final JButton btnClose = new JButton(s_stringMgr.getString("TableDataDiffDialog.close"));
+
+   private final JTextArea _txtSummary = new JTextArea();
+   private final JTable _tblDifferences = new JTable();
+
+   public TableDataDiffDialog(Frame owner, String sourceAliasName, String destAliasName)
+   {
+      super(owner, s_stringMgr.getString("TableDataDiffDialog.title", sourceAliasName, destAliasName), false);
+
+      getContentPane().setLayout(new GridBagLayout());
+
+      GridBagConstraints gbc;
+
+      gbc = new GridBagConstraints(0, 0, 1, 1, 1, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.HORIZONTAL, new Insets(5, 5, 0, 5), 0, 0);
+      _txtSummary.setEditable(false);
+      _txtSummary.setBackground(getContentPane().getBackground());
+      getContentPane().add(_txtSummary, gbc);
+
+      gbc = new GridBagConstraints(0, 1, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(5, 5, 0, 5), 0, 0);
+      _tblDifferences.setAutoCreateRowSorter(true);
+      getContentPane().add(new JScrollPane(_tblDifferences), gbc);
+
+      gbc = new GridBagConstraints(0, 2, 1, 1, 1, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.HORIZONTAL, new Insets(5, 5, 5, 5), 0, 0);
+      getContentPane().add(createButtonPanel(), gbc);
+
+      GUIUtils.enableCloseByEscape(this);
+
+      setSize(900, 600);
+      GUIUtils.centerWithinParent(this);
+   }
+
+   private JPanel createButtonPanel()
+   {
+      JPanel ret = new JPanel(new GridBagLayout());
+
+      GridBagConstraints gbc;
+
+      gbc = new GridBagConstraints(0, 0, 1, 1, 0, 0, GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
+      chkUseHashBuckets.setToolTipText(s_stringMgr.getString("TableDataDiffDialog.use.hash.buckets.tooltip"));
+      ret.add(chkUseHashBuckets, gbc);
+
+      gbc = new GridBagConstraints(1, 0, 1, 1, 1, 0, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 0, 0);
+      ret.add(new JPanel(), gbc);
+
+      gbc = new GridBagConstraints(2, 0, 1, 1, 0, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(0, 5, 0, 0), 0, 0);
+      ret.add(btnCompare, gbc);
+
+      gbc = new GridBagConstraints(3, 0, 1, 1, 0, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(0, 5, 0, 0), 0, 0);
+      ret.add(btnCancel, gbc);
+
+      gbc = new GridBagConstraints(4, 0, 1, 1, 0, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(0, 5, 0, 0), 0, 0);
+      ret.add(btnClose, gbc);
+
+      return ret;
+   }
+
+   /**
+    * While comparing only the Cancel and Close buttons are enabled.
+    */
+   void showRunning(String message)
+   {
+      _txtSummary.setText(message);
+      _tblDifferences.setModel(createTableModel(List.of()));
+
+      chkUseHashBuckets.setEnabled(false);
+      btnCompare.setEnabled(false);
+      btnCancel.setEnabled(true);
+   }
+
+   /**
+    * @param message Appended to the summary, may be null.
+    */
+   void showResults(List<TableDataDiffResult> results, String message)
+   {
+      String summary = createSummary(results);
+      if(null != message)
+      {
+         summary = summary.isEmpty() ? message : summary + "\n" + message;
+      }
+
+      _txtSummary.setText(summary);
+      _tblDifferences.setModel(createTableModel(results));
+
+      chkUseHashBuckets.setEnabled(true);
+      btnCompare.setEnabled(true);
+      btnCancel.setEnabled(false);
+   }
+
+   private static String createSummary(List<TableDataDiffResult> results)
+   {
+      StringBuilder ret = new StringBuilder();
+
+      for (TableDataDiffResult result : results)
+      {
+         if(0 < ret.length())
+         {
+            ret.append('\n');
+         }
+
+         String mode = result.isHashBucketMode() ? s_stringMgr.getString("TableDataDiffDialog.mode.hash.buckets") : s_stringMgr.getString("TableDataDiffDialog.mode.merge.join");
+
+         ret.append(s_stringMgr.getString("TableDataDiffDialog.summary",
+                                          result.getSourceTableName(),
+                                          result.getDestTableName(),
+                                          result.getEqualCount(),
+                                          result.getInsertedCount(),
+                                          result.getDeletedCount(),
+                                          result.getChangedCount(),
+                                          mode));
+
+         if(false == result.getIgnoredColumnNames().isEmpty())
+         {
+            ret.append(' ').append(s_stringMgr.getString("TableDataDiffDialog.ignored.columns", String.join(", ", result.getIgnoredColumnNames())));
+         }
+
+         if(result.isDifferencesTruncated())
+         {
+            ret.append(' ').append(s_stringMgr.getString("TableDataDiffDialog.truncated", result.getDifferences().size()));
+         }
+      }
+
+      return ret.toString();
+   }
+
+   private static DefaultTableModel createTableModel(List<TableDataDiffResult> results)
+   {
+      DefaultTableModel ret = new DefaultTableModel(new Object[]{
+            s_stringMgr.getString("TableDataDiffDialog.col.table"),
+            s_stringMgr.getString("TableDataDiffDialog.col.kind"),
+            s_stringMgr.getString("TableDataDiffDialog.col.key"),
+            s_stringMgr.getString("TableDataDiffDialog.col.column"),
+            s_stringMgr.getString("TableDataDiffDialog.col.source.value"),
+            s_stringMgr.getString("TableDataDiffDialog.col.dest.value")}, 0)
+      {
+         @Override
+         public boolean isCellEditable(int row, int column)
+         {
+            return false;
+         }
+      };
+
+      for (TableDataDiffResult result : results)
+      {
+         for (RowDifference difference : result.getDifferences())
+         {
+            String key = String.join(", ", difference.getKeyValues());
+
+            if(RowDifference.Kind.CHANGED == difference.getKind())
+            {
+               // One line per changed column
+               for (int i = 0; i < difference.getColumnNames().size(); i++)
+               {
+                  ret.addRow(new Object[]{result.getSourceTableName(), difference.getKind(), key, difference.getColumnNames().get(i), difference.getSourceValues().get(i), difference.getDestValues().get(i)});
+               }
+            }
+            else
+            {
+               String sourceRow = null == difference.getSourceValues() ? null : toRowString(difference.getColumnNames(), difference.getSourceValues());
+               String destRow = null == difference.getDestValues() ? null : toRowString(difference.getColumnNames(), difference.getDestValues());
+               ret.addRow(new Object[]{result.getSourceTableName(), difference.getKind(), key, null, sourceRow, destRow});
+            }
+         }
+      }
+
+      return ret;
+   }
+
+   private static String toRowString(List<String> columnNames, List<String> values)
+   {
+      StringBuilder ret = new StringBuilder();
+      for (int i = 0; i < columnNames.size(); i++)
+      {
+         ret.append(0 == i ? "" : ", ").append(columnNames.get(i)).append('=').append(values.get(i));
+      }
+      return ret.toString();
+   }
+}
@@ -0,0 +1,211 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.gui;
+
+import net.sourceforge.squirrel_sql.client.Main;
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.DBDiffState;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff.TableDataDiffExecutor;
+import net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff.TableDataDiffResult;
+import net.sourceforge.squirrel_sql.fw.props.Props;
+import net.sourceforge.squirrel_sql.fw.sql.IDatabaseObjectInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the data of the selected source and destination tables, see {@link TableDataDiffExecutor}.
+ * Tables are paired by their selection order like in {@link TabularDiffPresentation}.
+ * The comparison runs on a background thread because it reads the complete tables.
+ * Its progress and results are shown by {@link TableDataDiffDialog}, which allows to cancel it.
+ */
+public class TableDataDiffPresentation implements IDiffPresentation
+{
+   private final static ILogger s_log = LoggerController.createLogger(TableDataDiffPresentation.class);
+
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(TableDataDiffPresentation.class);
+
+   private static final String PREF_USE_HASH_BUCKETS = "TableDataDiffPresentation.useHashBuckets";
+
+   private TableDataDiffDialog _dlg;
+
+   /**
+    * The running or last comparison. Accessed on the EDT only.
+    */
+   private Comparison _comparison;
+
+   @Override
+   public void execute()
+   {
+      DBDiffState dbDiffState = Main.getApplication().getDBDiffState();
+
+      IDatabaseObjectInfo[] sourceObjs = dbDiffState.getSourceSelectedDatabaseObjects();
+      IDatabaseObjectInfo[] destObjs = dbDiffState.getDestSelectedDatabaseObjects();
+
+      if(sourceObjs.length != destObjs.length)
+      {
+         JOptionPane.showMessageDialog(Main.getApplication().getMainFrame(), s_stringMgr.getString("TableDataDiffPresentation.number.of.dest.and.source.tables.mismatch"));
+         return;
+      }
+
+      List<ITableInfo> sourceTables = new ArrayList<>();
+      List<ITableInfo> destTables = new ArrayList<>();
+      for (int i = 0; i < sourceObjs.length; i++)
+      {
+         if(false == sourceObjs[i] instanceof ITableInfo || false == destObjs[i] instanceof ITableInfo)
+         {
+            JOptionPane.showMessageDialog(Main.getApplication().getMainFrame(), s_stringMgr.getString("TableDataDiffPresentation.tables.only"));
+            return;
+         }
+         sourceTables.add((ITableInfo) sourceObjs[i]);
+         destTables.add((ITableInfo) destObjs[i]);
+      }
+
+      ISession sourceSession = dbDiffState.getSourceSession();
+      ISession destSession = dbDiffState.getDestSession();
+
+      _dlg = new TableDataDiffDialog(Main.getApplication().getMainFrame(), sourceSession.getAlias().getName(), destSession.getAlias().getName());
+
+      _dlg.chkUseHashBuckets.setSelected(Props.getBoolean(PREF_USE_HASH_BUCKETS, false));
+      _dlg.chkUseHashBuckets.addActionListener(e -> Props.putBoolean(PREF_USE_HASH_BUCKETS, _dlg.chkUseHashBuckets.isSelected()));
+
+      _dlg.btnCompare.addActionListener(e -> startComparison(sourceSession, sourceTables, destSession, destTables));
+      _dlg.btnCancel.addActionListener(e -> cancelComparison());
+      _dlg.btnClose.addActionListener(e -> _dlg.dispose());
+
+      _dlg.addWindowListener(new WindowAdapter()
+      {
+         @Override
+         public void windowClosed(WindowEvent e)
+         {
+            cancelComparison();
+         }
+      });
+
+      startComparison(sourceSession, sourceTables, destSession, destTables);
+      _dlg.setVisible(true);
+   }
+
+   private void startComparison(ISession sourceSession, List<ITableInfo> sourceTables, ISession destSession, List<ITableInfo> destTables)
+   {
+      Comparison comparison = new Comparison(_dlg.chkUseHashBuckets.isSelected());
+      _comparison = comparison;
+
+      _dlg.showRunning(s_stringMgr.getString("TableDataDiffPresentation.started", sourceTables.size()));
+
+      Thread thread = new Thread(() -> compareTables(comparison, sourceSession, sourceTables, destSession, destTables));
+      thread.setName("Table Data Diff Thread");
+      thread.setDaemon(true);
+      thread.start();
+   }
+
+   private void cancelComparison()
+   {
+      if(null != _comparison)
+      {
+         _comparison.cancel();
+      }
+   }
+
+   private void compareTables(Comparison comparison, ISession sourceSession, List<ITableInfo> sourceTables, ISession destSession, List<ITableInfo> destTables)
+   {
+      List<TableDataDiffResult> results = new ArrayList<>();
+      String message = null;
+
+      try
+      {
+         for (int i = 0; i < sourceTables.size(); i++)
+         {
+            TableDataDiffExecutor executor = new TableDataDiffExecutor(sourceSession, sourceTables.get(i), destSession, destTables.get(i));
+            executor.setUseHashBuckets(comparison._useHashBuckets);
+
+            if(false == comparison.setCurrentExecutor(executor))
+            {
+               break;
+            }
+
+            TableDataDiffResult result = executor.execute();
+            s_log.debug("Compared data of " + result.getSourceTableName() + " and " + result.getDestTableName() + ": " + result.getDifferenceCount() + " differences");
+            results.add(result);
+         }
+
+         if(comparison._canceled)
+         {
+            message = s_stringMgr.getString("TableDataDiffPresentation.canceled");
+         }
+         else if(results.stream().allMatch(r -> 0 == r.getDifferenceCount()))
+         {
+            message = s_stringMgr.getString("TableDataDiffPresentation.noDiffsMessage");
+         }
+      }
+      catch (Throwable t)
+      {
+         if(comparison._canceled)
+         {
+            // The SQLException of a canceled query or the CancellationException of the executor.
+            s_log.debug("Table data compare canceled", t);
+            message = s_stringMgr.getString("TableDataDiffPresentation.canceled");
+         }
+         else
+         {
+            s_log.error("Failed to compare table data", t);
+            message = s_stringMgr.getString("TableDataDiffPresentation.failed", t);
+            String errMsg = message;
+            SwingUtilities.invokeLater(() -> Main.getApplication().getMessageHandler().showErrorMessage(errMsg));
+         }
+      }
+
+      String finalMessage = message;
+      SwingUtilities.invokeLater(() -> showResults(comparison, results, finalMessage));
+   }
+
+   private void showResults(Comparison comparison, List<TableDataDiffResult> results, String message)
+   {
+      if(comparison != _comparison || false == _dlg.isDisplayable())
+      {
+         return;
+      }
+
+      _dlg.showResults(results, message);
+   }
+
+   /**
+    * One run of the comparison. Cancel may be called from the EDT while the comparison thread switches executors.
+    */
+   private static class Comparison
+   {
+      private final boolean _useHashBuckets;
+      private volatile boolean _canceled;
+      private TableDataDiffExecutor _currentExecutor;
+
+      private Comparison(boolean useHashBuckets)
+      {
+         _useHashBuckets = useHashBuckets;
+      }
+
+      /**
+       * @return false if the comparison was canceled.
+       */
+      private synchronized boolean setCurrentExecutor(TableDataDiffExecutor executor)
+      {
+         _currentExecutor = executor;
+         return false == _canceled;
+      }
+
+      private synchronized void cancel()
+      {
+         _canceled = true;
+
+         if(null != _currentExecutor)
+         {
+            _currentExecutor.cancel();
+         }
+      }
+   }
+}
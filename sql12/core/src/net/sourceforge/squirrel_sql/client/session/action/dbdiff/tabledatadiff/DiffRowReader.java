@@ -0,0 +1,268 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.fw.dialects.DialectFactory;
+import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streams the rows of one side of a {@link TableDataDiffExecutor}.
+ * Only the current row is held in memory.
+ * <p>
+ * Each reader uses a connection of its session's query connection pool. The merge join reads two results at the same time,
+ * which most drivers can't stream on one connection. So when the pool hands out the connection of the other reader
+ * an unmanaged connection is opened, see {@link ISession#createUnmanagedConnection()}.
+ */
+class DiffRowReader implements AutoCloseable
+{
+   private static final ILogger s_log = LoggerController.createLogger(DiffRowReader.class);
+
+   static class KeyOrderException extends Exception
+   {
+      private static final long serialVersionUID = 1L;
+
+      KeyOrderException(String msg)
+      {
+         super(msg);
+      }
+   }
+
+   static class DiffRow
+   {
+      /**
+       * Raw JDBC values of the key columns. Used by the merge join only.
+       */
+      final Object[] keyValues;
+
+      final String[] values;
+
+      DiffRow(Object[] keyValues, String[] values)
+      {
+         this.keyValues = keyValues;
+         this.values = values;
+      }
+   }
+
+   /**
+    * Rows fetched per round trip by drivers that otherwise read the whole result at once.
+    */
+   private static final int FETCH_SIZE = 1000;
+
+   private final ISession _session;
+   private ISQLConnection _conn;
+   private boolean _unmanagedConn;
+   private boolean _restoreAutoCommit;
+
+   private Statement _stat;
+   private ResultSet _rs;
+   private final int _columnCount;
+   private final int[] _keyIndexes;
+   private final boolean _checkKeyOrder;
+
+   private Object[] _previousKeyValues;
+
+   private boolean _closed;
+
+   /**
+    * @param otherReader The reader that is open while this reader is read or null.
+    * @param keyIndexes Zero based indexes of the key columns in the select list.
+    * @param checkKeyOrder When true {@link #next()} throws {@link KeyOrderException} if the database
+    *                      did not sort the keys the way {@link DiffValues#compareKeyValues(Object, Object)} does.
+    */
+   DiffRowReader(ISession session, DiffRowReader otherReader, int columnCount, int[] keyIndexes, boolean checkKeyOrder) throws SQLException
+   {
+      _session = session;
+      _columnCount = columnCount;
+      _keyIndexes = keyIndexes;
+      _checkKeyOrder = checkKeyOrder;
+
+      _conn = session.checkOutUserQuerySQLConnection();
+
+      try
+      {
+         if(null != otherReader && otherReader._conn.getConnection() == _conn.getConnection())
+         {
+            session.returnUserQuerySQLConnection(_conn);
+            _conn = session.createUnmanagedConnection();
+            if(null == _conn)
+            {
+               throw new SQLException("Failed to open a second connection to read both tables at the same time");
+            }
+            _unmanagedConn = true;
+         }
+
+         DialectType dialectType = DialectFactory.getDialectType(session.getMetaData());
+
+         if(DialectType.POSTGRES == dialectType && _conn.getConnection().getAutoCommit())
+         {
+            // PostgreSQL reads the whole result into memory unless auto commit is off.
+            // Set on the JDBC connection, so no auto commit change is reported to the session.
+            _conn.getConnection().setAutoCommit(false);
+            _restoreAutoCommit = true;
+         }
+
+         _stat = SQLUtilities.createStatementForStreamingResults(_conn.getConnection(), dialectType);
+         if(DialectType.MYSQL5 != dialectType)
+         {
+            _stat.setFetchSize(FETCH_SIZE);
+         }
+      }
+      catch (SQLException e)
+      {
+         close();
+         throw e;
+      }
+   }
+
+   /**
+    * Separate from the constructor so that the query can be canceled by {@link #cancel()} while it executes.
+    */
+   void executeQuery(String sql) throws SQLException
+   {
+      try
+      {
+         _rs = _stat.executeQuery(sql);
+      }
+      catch (SQLException e)
+      {
+         close();
+         throw e;
+      }
+   }
+
+   /**
+    * @return null when all rows were read.
+    */
+   DiffRow next() throws SQLException, KeyOrderException
+   {
+      if(false == _rs.next())
+      {
+         return null;
+      }
+
+      String[] values = new String[_columnCount];
+      for (int i = 0; i < _columnCount; i++)
+      {
+         values[i] = DiffValues.normalize(_rs.getObject(i + 1));
+      }
+
+      Object[] keyValues = new Object[_keyIndexes.length];
+      for (int i = 0; i < _keyIndexes.length; i++)
+      {
+         keyValues[i] = _rs.getObject(_keyIndexes[i] + 1);
+      }
+
+      if(_checkKeyOrder)
+      {
+         if(null != _previousKeyValues && 0 <= compareKeys(_previousKeyValues, keyValues))
+         {
+            throw new KeyOrderException("Key " + Arrays.toString(keyValues) + " was sorted after " + Arrays.toString(_previousKeyValues));
+         }
+         _previousKeyValues = keyValues;
+      }
+
+      return new DiffRow(keyValues, values);
+   }
+
+   static int compareKeys(Object[] keyValues1, Object[] keyValues2)
+   {
+      for (int i = 0; i < keyValues1.length; i++)
+      {
+         int res = DiffValues.compareKeyValues(keyValues1[i], keyValues2[i]);
+         if(0 != res)
+         {
+            return res;
+         }
+      }
+      return 0;
+   }
+
+   static List<String> getKeyStrings(DiffRow row, int[] keyIndexes)
+   {
+      String[] ret = new String[keyIndexes.length];
+      for (int i = 0; i < keyIndexes.length; i++)
+      {
+         ret[i] = row.values[keyIndexes[i]];
+      }
+      return Arrays.asList(ret);
+   }
+
+   /**
+    * May be called from any thread. Aborts a running query or fetch so that the reading thread gets an SQLException.
+    */
+   synchronized void cancel()
+   {
+      if(_closed || null == _stat)
+      {
+         return;
+      }
+
+      try
+      {
+         _stat.cancel();
+      }
+      catch (SQLException e)
+      {
+         s_log.warn("Failed to cancel statement", e);
+      }
+   }
+
+   @Override
+   public synchronized void close()
+   {
+      if(_closed)
+      {
+         return;
+      }
+      _closed = true;
+
+      if(null != _stat)
+      {
+         try
+         {
+            // Closes the result set too.
+            _stat.close();
+         }
+         catch (SQLException e)
+         {
+            s_log.error("Failed to close statement", e);
+         }
+      }
+
+      if(null == _conn)
+      {
+         return;
+      }
+
+      if(_restoreAutoCommit)
+      {
+         try
+         {
+            // Ends the read only transaction.
+            _conn.getConnection().setAutoCommit(true);
+         }
+         catch (SQLException e)
+         {
+            s_log.error("Failed to restore auto commit", e);
+         }
+      }
+
+      if(_unmanagedConn)
+      {
+         _conn.close();
+      }
+      else
+      {
+         _session.returnUserQuerySQLConnection(_conn);
+      }
+   }
+}
@@ -0,0 +1,127 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Date;
+
+/**
+ * Converts JDBC values so that values of both tables can be compared even when they come
+ * from different databases or drivers, e.g. an INTEGER 1 and a NUMBER 1.0.
+ */
+class DiffValues
+{
+   private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+   private DiffValues()
+   {
+   }
+
+   /**
+    * @return Null for SQL NULL, else a string that equals the string of an equal value of another type.
+    */
+   static String normalize(Object value) throws SQLException
+   {
+      if(null == value)
+      {
+         return null;
+      }
+
+      if(value instanceof Number)
+      {
+         BigDecimal decimal = toBigDecimal((Number) value);
+         if(null != decimal)
+         {
+            return 0 == decimal.signum() ? "0" : decimal.stripTrailingZeros().toPlainString();
+         }
+         return value.toString();
+      }
+
+      if(value instanceof byte[])
+      {
+         return toHex((byte[]) value);
+      }
+
+      if(value instanceof Blob)
+      {
+         Blob blob = (Blob) value;
+         return toHex(blob.getBytes(1, (int) blob.length()));
+      }
+
+      if(value instanceof Clob)
+      {
+         Clob clob = (Clob) value;
+         return clob.getSubString(1, (int) clob.length());
+      }
+
+      return value.toString();
+   }
+
+   /**
+    * Compares primary key values the way an ORDER BY of the database is expected to sort them.
+    * Whether the database actually does so is checked while reading, see {@link DiffRowReader}.
+    */
+   @SuppressWarnings("unchecked")
+   static int compareKeyValues(Object v1, Object v2)
+   {
+      if(null == v1 || null == v2)
+      {
+         return null == v1 ? (null == v2 ? 0 : -1) : 1;
+      }
+
+      if(v1 instanceof Number && v2 instanceof Number)
+      {
+         BigDecimal d1 = toBigDecimal((Number) v1);
+         BigDecimal d2 = toBigDecimal((Number) v2);
+
+         if(null != d1 && null != d2)
+         {
+            return d1.compareTo(d2);
+         }
+      }
+
+      if(v1 instanceof Date && v2 instanceof Date)
+      {
+         return ((Date) v1).compareTo((Date) v2);
+      }
+
+      if(v1 instanceof Comparable && v1.getClass() == v2.getClass())
+      {
+         return ((Comparable<Object>) v1).compareTo(v2);
+      }
+
+      return v1.toString().compareTo(v2.toString());
+   }
+
+   /**
+    * @return Null for NaN or infinite values.
+    */
+   private static BigDecimal toBigDecimal(Number n)
+   {
+      if(n instanceof BigDecimal)
+      {
+         return (BigDecimal) n;
+      }
+
+      try
+      {
+         return new BigDecimal(n.toString());
+      }
+      catch (NumberFormatException e)
+      {
+         return null;
+      }
+   }
+
+   private static String toHex(byte[] bytes)
+   {
+      char[] ret = new char[bytes.length * 2];
+      for (int i = 0; i < bytes.length; i++)
+      {
+         ret[2 * i] = HEX_CHARS[(bytes[i] >> 4) & 0xF];
+         ret[2 * i + 1] = HEX_CHARS[bytes[i] & 0xF];
+      }
+      return new String(ret);
+   }
+}
@@ -0,0 +1,154 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spreads the rows of one table over temporary files by the hash of their keys.
+ * Rows with equal keys of both tables end up in buckets of the same index.
+ * So {@link TableDataDiffExecutor} compares one pair of buckets at a time
+ * and needs memory for one bucket only.
+ */
+class HashBuckets implements AutoCloseable
+{
+   private static final ILogger s_log = LoggerController.createLogger(HashBuckets.class);
+
+   private final File[] _files;
+   private final DataOutputStream[] _outs;
+
+   HashBuckets(int bucketCount) throws IOException
+   {
+      _files = new File[bucketCount];
+      _outs = new DataOutputStream[bucketCount];
+
+      try
+      {
+         for (int i = 0; i < bucketCount; i++)
+         {
+            _files[i] = File.createTempFile("squirrel_datadiff", ".bucket");
+            _outs[i] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_files[i]), 16 * 1024));
+         }
+      }
+      catch (IOException e)
+      {
+         close();
+         throw e;
+      }
+   }
+
+   static int getBucketIndex(List<String> key, int bucketCount)
+   {
+      return Math.floorMod(key.hashCode(), bucketCount);
+   }
+
+   void write(List<String> key, String[] values) throws IOException
+   {
+      DataOutputStream out = _outs[getBucketIndex(key, _outs.length)];
+
+      out.writeInt(values.length);
+      for (String value : values)
+      {
+         writeString(out, value);
+      }
+   }
+
+   void finishWriting() throws IOException
+   {
+      for (DataOutputStream out : _outs)
+      {
+         out.close();
+      }
+   }
+
+   interface RowConsumer
+   {
+      void accept(String[] values) throws IOException;
+   }
+
+   void readBucket(int bucketIndex, RowConsumer consumer) throws IOException
+   {
+      try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(_files[bucketIndex]), 16 * 1024)))
+      {
+         while (true)
+         {
+            int length;
+            try
+            {
+               length = in.readInt();
+            }
+            catch (EOFException e)
+            {
+               return;
+            }
+
+            String[] values = new String[length];
+            for (int i = 0; i < length; i++)
+            {
+               values[i] = readString(in);
+            }
+            consumer.accept(values);
+         }
+      }
+   }
+
+   private static void writeString(DataOutputStream out, String s) throws IOException
+   {
+      if(null == s)
+      {
+         out.writeInt(-1);
+         return;
+      }
+
+      // writeUTF() is limited to 64K.
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+   }
+
+   private static String readString(DataInputStream in) throws IOException
+   {
+      int length = in.readInt();
+      if(-1 == length)
+      {
+         return null;
+      }
+
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   @Override
+   public void close()
+   {
+      for (DataOutputStream out : _outs)
+      {
+         if(null != out)
+         {
+            try
+            {
+               out.close();
+            }
+            catch (IOException e)
+            {
+               s_log.error("Failed to close bucket file", e);
+            }
+         }
+      }
+
+      Arrays.stream(_files).filter(f -> null != f).forEach(File::delete);
+   }
+}
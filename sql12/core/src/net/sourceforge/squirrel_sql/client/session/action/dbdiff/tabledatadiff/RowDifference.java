@@ -0,0 +1,82 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import java.util.List;
+
+/**
+ * A row that differs between the source and the destination table, see {@link TableDataDiffExecutor}.
+ * Values are given as normalized strings, see {@link DiffValues#normalize(Object)}.
+ */
+public class RowDifference
+{
+   public enum Kind
+   {
+      /**
+       * The row exists in the destination table only.
+       */
+      INSERTED,
+
+      /**
+       * The row exists in the source table only.
+       */
+      DELETED,
+
+      /**
+       * The row exists in both tables with different values.
+       */
+      CHANGED
+   }
+
+   private final Kind _kind;
+   private final List<String> _keyValues;
+   private final List<String> _columnNames;
+   private final List<String> _sourceValues;
+   private final List<String> _destValues;
+
+   /**
+    * @param columnNames For {@link Kind#CHANGED} the differing columns only, else all compared columns.
+    * @param sourceValues Null for {@link Kind#INSERTED}
+    * @param destValues Null for {@link Kind#DELETED}
+    */
+   RowDifference(Kind kind, List<String> keyValues, List<String> columnNames, List<String> sourceValues, List<String> destValues)
+   {
+      _kind = kind;
+      _keyValues = keyValues;
+      _columnNames = columnNames;
+      _sourceValues = sourceValues;
+      _destValues = destValues;
+   }
+
+   public Kind getKind()
+   {
+      return _kind;
+   }
+
+   /**
+    * @return The primary key values. When the table has no primary key all values of the row.
+    */
+   public List<String> getKeyValues()
+   {
+      return _keyValues;
+   }
+
+   public List<String> getColumnNames()
+   {
+      return _columnNames;
+   }
+
+   public List<String> getSourceValues()
+   {
+      return _sourceValues;
+   }
+
+   public List<String> getDestValues()
+   {
+      return _destValues;
+   }
+
+   @Override
+   public String toString()
+   {
+      return _kind + " " + _keyValues + " " + _columnNames + ": " + _sourceValues + " -> " + _destValues;
+   }
+}
@@ -0,0 +1,434 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLDatabaseMetaData;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.PrimaryKeyInfo;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Compares the rows of two tables that may belong to different sessions, i.e. different databases.
+ * Unlike {@link net.sourceforge.squirrel_sql.client.session.action.dbdiff.TableDiffExecutor}
+ * which compares the tables' columns.
+ * <p>
+ * Rows are matched by the source table's primary key. Both tables are read ordered by the key
+ * and compared in one pass by a merge join. Only the current row of each table is held in memory.
+ * <p>
+ * When the source table has no primary key or when a database sorts the keys differently than
+ * expected (e.g. because of its collation) the tables are compared in hash bucket mode:
+ * The rows of both tables are spread over {@link #BUCKET_COUNT} temporary files by the hash of their keys.
+ * Then each bucket of the source table is loaded into a hash map and the rows of the destination bucket
+ * are looked up in it. Tables without primary key are compared as multisets of their rows.
+ * <p>
+ * Only columns of equal names (ignoring case) are compared.
+ */
+public class TableDataDiffExecutor
+{
+   private static final ILogger s_log = LoggerController.createLogger(TableDataDiffExecutor.class);
+
+   private static final int BUCKET_COUNT = 64;
+
+   private final ISession _sourceSession;
+   private final ITableInfo _sourceTable;
+   private final ISession _destSession;
+   private final ITableInfo _destTable;
+
+   private boolean _useHashBuckets;
+   private volatile boolean _canceled;
+
+   /**
+    * The readers opened so far, to be canceled by {@link #cancel()}. Closed readers ignore the cancel.
+    */
+   private final List<DiffRowReader> _readers = new CopyOnWriteArrayList<>();
+
+   private List<String> _sourceColumnNames;
+   private List<String> _destColumnNames;
+   private int[] _keyIndexes;
+
+   public TableDataDiffExecutor(ISession sourceSession, ITableInfo sourceTable, ISession destSession, ITableInfo destTable)
+   {
+      _sourceSession = sourceSession;
+      _sourceTable = sourceTable;
+      _destSession = destSession;
+      _destTable = destTable;
+   }
+
+   /**
+    * @param useHashBuckets When true hash bucket mode is used even if the source table has a primary key.
+    */
+   public void setUseHashBuckets(boolean useHashBuckets)
+   {
+      _useHashBuckets = useHashBuckets;
+   }
+
+   /**
+    * May be called from any thread. Running queries of both sessions are canceled, so {@link #execute()}
+    * then throws a {@link CancellationException} or the {@link SQLException} of the canceled query.
+    * The connections are released by {@link #execute()} when it ends.
+    */
+   public void cancel()
+   {
+      _canceled = true;
+
+      for (DiffRowReader reader : _readers)
+      {
+         reader.cancel();
+      }
+   }
+
+   public TableDataDiffResult execute() throws SQLException, IOException
+   {
+      List<String> ignoredColumnNames = initColumns();
+
+      if(0 < _keyIndexes.length && false == _useHashBuckets)
+      {
+         TableDataDiffResult result = createResult(ignoredColumnNames, false);
+         try
+         {
+            executeMergeJoin(result);
+            return result;
+         }
+         catch (DiffRowReader.KeyOrderException e)
+         {
+            s_log.info("Comparing data of " + _sourceTable.getQualifiedName() + " and " + _destTable.getQualifiedName() + " in hash bucket mode because the keys' sort orders differ: " + e.getMessage());
+         }
+      }
+
+      TableDataDiffResult result = createResult(ignoredColumnNames, true);
+      executeHashBuckets(result);
+      return result;
+   }
+
+   private TableDataDiffResult createResult(List<String> ignoredColumnNames, boolean hashBucketMode)
+   {
+      return new TableDataDiffResult(_sourceTable.getQualifiedName(), _destTable.getQualifiedName(), _sourceColumnNames, ignoredColumnNames, hashBucketMode);
+   }
+
+   /**
+    * @return The names of columns that exist in one table only.
+    */
+   private List<String> initColumns() throws SQLException
+   {
+      TableColumnInfo[] sourceColumns = _sourceSession.getMetaData().getColumnInfo(_sourceTable);
+      TableColumnInfo[] destColumns = _destSession.getMetaData().getColumnInfo(_destTable);
+
+      HashMap<String, String> destColumnNameByUpperCaseName = new HashMap<>();
+      for (TableColumnInfo destColumn : destColumns)
+      {
+         destColumnNameByUpperCaseName.put(destColumn.getColumnName().toUpperCase(), destColumn.getColumnName());
+      }
+
+      _sourceColumnNames = new ArrayList<>();
+      _destColumnNames = new ArrayList<>();
+      List<String> ignoredColumnNames = new ArrayList<>();
+
+      for (TableColumnInfo sourceColumn : sourceColumns)
+      {
+         String destColumnName = destColumnNameByUpperCaseName.remove(sourceColumn.getColumnName().toUpperCase());
+
+         if(null == destColumnName)
+         {
+            ignoredColumnNames.add(sourceColumn.getColumnName());
+         }
+         else
+         {
+            _sourceColumnNames.add(sourceColumn.getColumnName());
+            _destColumnNames.add(destColumnName);
+         }
+      }
+      ignoredColumnNames.addAll(destColumnNameByUpperCaseName.values());
+
+      if(_sourceColumnNames.isEmpty())
+      {
+         throw new IllegalStateException("Tables " + _sourceTable.getQualifiedName() + " and " + _destTable.getQualifiedName() + " have no columns of equal names");
+      }
+
+      PrimaryKeyInfo[] primaryKey = _sourceSession.getMetaData().getPrimaryKey(_sourceTable);
+      Arrays.sort(primaryKey, Comparator.comparingInt(PrimaryKeyInfo::getKeySequence));
+
+      _keyIndexes = new int[primaryKey.length];
+      for (int i = 0; i < primaryKey.length; i++)
+      {
+         _keyIndexes[i] = _sourceColumnNames.indexOf(primaryKey[i].getColumnName());
+
+         if(0 > _keyIndexes[i])
+         {
+            // A key column is missing in the destination table.
+            _keyIndexes = new int[0];
+            break;
+         }
+      }
+
+      return ignoredColumnNames;
+   }
+
+   private void executeMergeJoin(TableDataDiffResult result) throws SQLException, DiffRowReader.KeyOrderException
+   {
+      try(DiffRowReader sourceReader = createReader(_sourceSession, null, _sourceTable, _sourceColumnNames, true);
+          DiffRowReader destReader = createReader(_destSession, sourceReader, _destTable, _destColumnNames, true))
+      {
+         DiffRowReader.DiffRow sourceRow = sourceReader.next();
+         DiffRowReader.DiffRow destRow = destReader.next();
+
+         while (null != sourceRow || null != destRow)
+         {
+            checkCanceled();
+
+            int res;
+            if(null == sourceRow)
+            {
+               res = 1;
+            }
+            else if(null == destRow)
+            {
+               res = -1;
+            }
+            else
+            {
+               res = DiffRowReader.compareKeys(sourceRow.keyValues, destRow.keyValues);
+            }
+
+            if(0 > res)
+            {
+               addDeleted(result, DiffRowReader.getKeyStrings(sourceRow, _keyIndexes), sourceRow.values);
+               sourceRow = sourceReader.next();
+            }
+            else if(0 < res)
+            {
+               addInserted(result, DiffRowReader.getKeyStrings(destRow, _keyIndexes), destRow.values);
+               destRow = destReader.next();
+            }
+            else
+            {
+               compareRows(result, DiffRowReader.getKeyStrings(sourceRow, _keyIndexes), sourceRow.values, destRow.values);
+               sourceRow = sourceReader.next();
+               destRow = destReader.next();
+            }
+         }
+      }
+   }
+
+   private void executeHashBuckets(TableDataDiffResult result) throws SQLException, IOException
+   {
+      int[] keyIndexes = _keyIndexes;
+      if(0 == keyIndexes.length)
+      {
+         // Rows are their own keys
+         keyIndexes = new int[_sourceColumnNames.size()];
+         for (int i = 0; i < keyIndexes.length; i++)
+         {
+            keyIndexes[i] = i;
+         }
+      }
+
+      try(HashBuckets sourceBuckets = writeBuckets(_sourceSession, _sourceTable, _sourceColumnNames, keyIndexes);
+          HashBuckets destBuckets = writeBuckets(_destSession, _destTable, _destColumnNames, keyIndexes))
+      {
+         for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++)
+         {
+            compareBuckets(result, sourceBuckets, destBuckets, bucketIndex, keyIndexes);
+         }
+      }
+   }
+
+   private HashBuckets writeBuckets(ISession session, ITableInfo table, List<String> columnNames, int[] keyIndexes) throws SQLException, IOException
+   {
+      HashBuckets ret = new HashBuckets(BUCKET_COUNT);
+
+      try(DiffRowReader reader = createReader(session, null, table, columnNames, false))
+      {
+         for (DiffRowReader.DiffRow row = reader.next(); null != row; row = reader.next())
+         {
+            checkCanceled();
+            ret.write(DiffRowReader.getKeyStrings(row, keyIndexes), row.values);
+         }
+         ret.finishWriting();
+
+         return ret;
+      }
+      catch (DiffRowReader.KeyOrderException e)
+      {
+         ret.close();
+         throw new IllegalStateException("Key order is not checked in hash bucket mode", e);
+      }
+      catch (SQLException | IOException | RuntimeException e)
+      {
+         ret.close();
+         throw e;
+      }
+   }
+
+   private void compareBuckets(TableDataDiffResult result, HashBuckets sourceBuckets, HashBuckets destBuckets, int bucketIndex, int[] keyIndexes) throws IOException
+   {
+      // Lists because in hash bucket mode the keys of tables without primary key may repeat.
+      HashMap<List<String>, List<String[]>> sourceRowsByKey = new HashMap<>();
+
+      sourceBuckets.readBucket(bucketIndex, values -> sourceRowsByKey.computeIfAbsent(getKeyStrings(values, keyIndexes), k -> new ArrayList<>(1)).add(values));
+
+      destBuckets.readBucket(bucketIndex, destValues ->
+      {
+         checkCanceled();
+
+         List<String> key = getKeyStrings(destValues, keyIndexes);
+         List<String[]> sourceRows = sourceRowsByKey.get(key);
+
+         if(null == sourceRows)
+         {
+            addInserted(result, key, destValues);
+            return;
+         }
+
+         String[] sourceValues = sourceRows.remove(sourceRows.size() - 1);
+         if(sourceRows.isEmpty())
+         {
+            sourceRowsByKey.remove(key);
+         }
+
+         compareRows(result, key, sourceValues, destValues);
+      });
+
+      for (Map.Entry<List<String>, List<String[]>> entry : sourceRowsByKey.entrySet())
+      {
+         for (String[] sourceValues : entry.getValue())
+         {
+            addDeleted(result, entry.getKey(), sourceValues);
+         }
+      }
+   }
+
+   private static List<String> getKeyStrings(String[] values, int[] keyIndexes)
+   {
+      String[] ret = new String[keyIndexes.length];
+      for (int i = 0; i < keyIndexes.length; i++)
+      {
+         ret[i] = values[keyIndexes[i]];
+      }
+      return Arrays.asList(ret);
+   }
+
+   private void compareRows(TableDataDiffResult result, List<String> key, String[] sourceValues, String[] destValues)
+   {
+      List<String> columnNames = null;
+      List<String> differingSourceValues = null;
+      List<String> differingDestValues = null;
+
+      for (int i = 0; i < sourceValues.length; i++)
+      {
+         if(false == Objects.equals(sourceValues[i], destValues[i]))
+         {
+            if(null == columnNames)
+            {
+               columnNames = new ArrayList<>();
+               differingSourceValues = new ArrayList<>();
+               differingDestValues = new ArrayList<>();
+            }
+
+            columnNames.add(_sourceColumnNames.get(i));
+            differingSourceValues.add(sourceValues[i]);
+            differingDestValues.add(destValues[i]);
+         }
+      }
+
+      if(null == columnNames)
+      {
+         result.addEqual();
+      }
+      else
+      {
+         result.addDifference(new RowDifference(RowDifference.Kind.CHANGED, key, columnNames, differingSourceValues, differingDestValues));
+      }
+   }
+
+   private void addInserted(TableDataDiffResult result, List<String> key, String[] destValues)
+   {
+      result.addDifference(new RowDifference(RowDifference.Kind.INSERTED, key, _sourceColumnNames, null, Arrays.asList(destValues)));
+   }
+
+   private void addDeleted(TableDataDiffResult result, List<String> key, String[] sourceValues)
+   {
+      result.addDifference(new RowDifference(RowDifference.Kind.DELETED, key, _sourceColumnNames, Arrays.asList(sourceValues), null));
+   }
+
+   private DiffRowReader createReader(ISession session, DiffRowReader otherReader, ITableInfo table, List<String> columnNames, boolean orderByKey) throws SQLException
+   {
+      String quote = getIdentifierQuoteString(session.getMetaData());
+
+      StringBuilder sql = new StringBuilder("SELECT ");
+      for (int i = 0; i < columnNames.size(); i++)
+      {
+         sql.append(0 == i ? "" : ", ").append(quote(columnNames.get(i), quote));
+      }
+      sql.append(" FROM ").append(table.getQualifiedName());
+
+      if(orderByKey)
+      {
+         sql.append(" ORDER BY ");
+         for (int i = 0; i < _keyIndexes.length; i++)
+         {
+            sql.append(0 == i ? "" : ", ").append(quote(columnNames.get(_keyIndexes[i]), quote));
+         }
+      }
+
+      s_log.debug("Reading data to compare: " + sql);
+
+      checkCanceled();
+
+      DiffRowReader ret = new DiffRowReader(session, otherReader, columnNames.size(), orderByKey ? _keyIndexes : new int[0], orderByKey);
+      _readers.add(ret);
+
+      if(_canceled)
+      {
+         // cancel() may have missed the new reader.
+         ret.close();
+         checkCanceled();
+      }
+
+      ret.executeQuery(sql.toString());
+      return ret;
+   }
+
+   private static String getIdentifierQuoteString(ISQLDatabaseMetaData md)
+   {
+      try
+      {
+         String ret = md.getIdentifierQuoteString();
+         return null == ret ? "" : ret.trim();
+      }
+      catch (SQLException e)
+      {
+         s_log.debug("DBMS doesn't support DatabaseMetaData.getIdentifierQuoteString()", e);
+         return "";
+      }
+   }
+
+   private static String quote(String identifier, String quote)
+   {
+      if(quote.isEmpty())
+      {
+         return identifier;
+      }
+      return quote + identifier.replace(quote, quote + quote) + quote;
+   }
+
+   private void checkCanceled()
+   {
+      if(_canceled)
+      {
+         throw new CancellationException("Comparing data of " + _sourceTable.getQualifiedName() + " and " + _destTable.getQualifiedName() + " was canceled");
+      }
+   }
+}
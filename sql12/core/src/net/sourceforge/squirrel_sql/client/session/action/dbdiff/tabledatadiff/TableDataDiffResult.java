@@ -0,0 +1,128 @@
+package net.sourceforge.squirrel_sql.client.session.action.dbdiff.tabledatadiff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a {@link TableDataDiffExecutor}.
+ * Counts all differences but keeps only the first {@link #MAX_KEPT_DIFFERENCES} of them,
+ * so memory stays constant however large the tables are.
+ */
+public class TableDataDiffResult
+{
+   public static final int MAX_KEPT_DIFFERENCES = 10000;
+
+   private final String _sourceTableName;
+   private final String _destTableName;
+   private final List<String> _comparedColumnNames;
+   private final List<String> _ignoredColumnNames;
+   private final boolean _hashBucketMode;
+
+   private final ArrayList<RowDifference> _differences = new ArrayList<>();
+
+   private long _equalCount;
+   private long _insertedCount;
+   private long _deletedCount;
+   private long _changedCount;
+
+   TableDataDiffResult(String sourceTableName, String destTableName, List<String> comparedColumnNames, List<String> ignoredColumnNames, boolean hashBucketMode)
+   {
+      _sourceTableName = sourceTableName;
+      _destTableName = destTableName;
+      _comparedColumnNames = comparedColumnNames;
+      _ignoredColumnNames = ignoredColumnNames;
+      _hashBucketMode = hashBucketMode;
+   }
+
+   void addEqual()
+   {
+      ++_equalCount;
+   }
+
+   void addDifference(RowDifference difference)
+   {
+      switch (difference.getKind())
+      {
+         case INSERTED:
+            ++_insertedCount;
+            break;
+         case DELETED:
+            ++_deletedCount;
+            break;
+         case CHANGED:
+            ++_changedCount;
+            break;
+      }
+
+      if(_differences.size() < MAX_KEPT_DIFFERENCES)
+      {
+         _differences.add(difference);
+      }
+   }
+
+   public String getSourceTableName()
+   {
+      return _sourceTableName;
+   }
+
+   public String getDestTableName()
+   {
+      return _destTableName;
+   }
+
+   public List<String> getComparedColumnNames()
+   {
+      return _comparedColumnNames;
+   }
+
+   /**
+    * @return Columns that exist in one of the tables only. Their values were not compared.
+    */
+   public List<String> getIgnoredColumnNames()
+   {
+      return _ignoredColumnNames;
+   }
+
+   /**
+    * @return false if the rows were compared by a merge join over the primary key.
+    */
+   public boolean isHashBucketMode()
+   {
+      return _hashBucketMode;
+   }
+
+   public List<RowDifference> getDifferences()
+   {
+      return _differences;
+   }
+
+   public boolean isDifferencesTruncated()
+   {
+      return _differences.size() < getDifferenceCount();
+   }
+
+   public long getDifferenceCount()
+   {
+      return _insertedCount + _deletedCount + _changedCount;
+   }
+
+   public long getEqualCount()
+   {
+      return _equalCount;
+   }
+
+   public long getInsertedCount()
+   {
+      return _insertedCount;
+   }
+
+   public long getDeletedCount()
+   {
+      return _deletedCount;
+   }
+
+   public long getChangedCount()
+   {
+      return _changedCount;
+   }
+}
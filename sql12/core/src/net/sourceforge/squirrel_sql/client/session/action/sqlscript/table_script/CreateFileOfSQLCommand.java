@@ -116,7 +116,15 @@ public class CreateFileOfSQLCommand
             DialectType dialectType = DialectFactory.getDialectType(getSession().getMetaData());
 
             // Opens the modal export dialog ...
-            _resultSetExport = new ResultSetExport(con, selectSQLInfos, dialectType, _fileExportProgressManager, owner);
+            // Additional connections for exporting multiple SQL results in parallel are created only
+            // when unmanaged connections work for this database, see createUnmanagedConnection().
+            ExportConnectionFactory parallelExportConnectionFactory = null;
+            if (unmangedConnection != null)
+            {
+               parallelExportConnectionFactory = () -> createParallelExportConnection();
+            }
+
+            _resultSetExport = new ResultSetExport(con, selectSQLInfos, dialectType, _fileExportProgressManager, owner, parallelExportConnectionFactory);
 
             StopWatch stopWatch = new StopWatch();
             stopWatch.start();
@@ -193,6 +201,19 @@ public class CreateFileOfSQLCommand
       return unmanagedConnection;
    }
 
+   private Connection createParallelExportConnection() throws SQLException
+   {
+      ISQLConnection unmanagedConnection = getSession().createUnmanagedConnection();
+
+      if (unmanagedConnection == null)
+      {
+         return null;
+      }
+
+      unmanagedConnection.setAutoCommit(false);
+      return unmanagedConnection.getConnection();
+   }
+
    /**
     * @return the _session
     */
@@ -9,6 +9,7 @@ import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
 import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
 import javax.swing.*;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -21,7 +22,7 @@ public class ReadMoreResultsHandler
    private final JLabel _lblLoading;
    private final ImageIcon _loadingGif;
    private ExecutorService _executorService;
-   private Future<SwingWorker<SwingWorker, Object>> _future;
+   private Future<?> _future;
 
 
    public ReadMoreResultsHandler(ISession session)
@@ -45,14 +46,13 @@ public class ReadMoreResultsHandler
 
       _lblLoading.setVisible(true);
 
-      SwingWorker<SwingWorker, Object> sw =
-            new SwingWorker<SwingWorker, Object>()
+      SwingWorker<List<Object[]>, Object> sw =
+            new SwingWorker<List<Object[]>, Object>()
             {
                @Override
-               protected SwingWorker doInBackground()
+               protected List<Object[]> doInBackground()
                {
-                     rsds.readMoreResults();
-                     return this;
+                     return rsds.readMoreResults();
                }
 
                @Override
@@ -60,7 +60,7 @@ public class ReadMoreResultsHandler
                {
                   try
                   {
-                     get();
+                     rsds.appendMoreResults(get());
                      onReadMoreResultsDone(readChannelCallBack);
                   }
                   catch (Throwable e)
@@ -75,7 +75,7 @@ public class ReadMoreResultsHandler
                }
             };
 
-      _future = (Future<SwingWorker<SwingWorker, Object>>) _executorService.submit(sw);
+      _future = _executorService.submit(sw);
    }
 
    private void onReadMoreResultsDone(net.sourceforge.squirrel_sql.fw.datasetviewer.ReadMoreResultsHandlerListener readChannelCallBack)
@@ -313,7 +313,7 @@ public class ResultTab extends JPanel implements IHasIdentifier, IResultTab
       {
 
          TableState resultSortableTableState = getTableState(_resultDataSetViewerFindHandler.getDataSetViewer());
-         _resultDataSetViewerFindHandler.getDataSetViewer().show(_rsds, null);
+         _resultDataSetViewerFindHandler.getDataSetViewer().showMoreResults(_rsds);
          restoreTableState(resultSortableTableState, _resultDataSetViewerFindHandler.getDataSetViewer());
          _resultDataSetViewerFindHandler.resetFind();
 
@@ -283,7 +283,14 @@ public class ObjectTree extends JTree
          {
             if (reloadSchemaInfo)
             {
-               _session.getSchemaInfo().reloadAll();
+               if (_session.getProperties().getRefreshSchemaInfoIncrementally())
+               {
+                  _session.getSchemaInfo().refreshIncrementally();
+               }
+               else
+               {
+                  _session.getSchemaInfo().reloadAll();
+               }
             }
 
 
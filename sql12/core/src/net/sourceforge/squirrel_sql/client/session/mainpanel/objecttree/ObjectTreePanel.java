@@ -644,6 +644,8 @@ public class ObjectTreePanel extends JPanel implements IObjectTreeAPI
 
    public void refreshTree(boolean reloadSchemaInfo)
    {
+      // Refreshing is the way to see changes made by others, including table data.
+      getSession().getResultCache().clear();
       _tree.refresh(reloadSchemaInfo);
    }
 
@@ -126,13 +126,13 @@ class ObjectTreeTabbedPane
             IObjectTab firstTab = _tabs.get(0);
             _tabPnl.addTab(firstTab.getTitle(), 
                            null, 
-                           firstTab.getComponent(), 
+                           firstTab.getTabbedPaneComponent(), 
                            firstTab.getHint());
         }
         
         tab.setSession(_app.getSessionManager().getSession(_sessionId));
         final String title = tab.getTitle();
-        _tabPnl.addTab(title, null, tab.getComponent(), tab.getHint());
+        _tabPnl.addTab(title, null, tab.getTabbedPaneComponent(), tab.getHint());
         _tabs.add(tab);
 	}
 
@@ -50,6 +50,17 @@ public interface IObjectTab
 	 */
 	Component getComponent();
 
+	/**
+	 * Return the component to be added to the tabbed pane. Tabs that show
+	 * controls around their component override this.
+	 *
+	 * @return	The component to be added to the tabbed pane.
+	 */
+	default Component getTabbedPaneComponent()
+	{
+		return getComponent();
+	}
+
 	/**
 	 * Set the current session.
 	 *
@@ -0,0 +1,46 @@
+package net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.table;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetDataSet;
+
+/**
+ * A page of a table's contents as read by {@link ContentsPageQuery}.
+ */
+class ContentsPage
+{
+   private final ResultSetDataSet _dataSet;
+   private final boolean _hasNextPage;
+   private final Object[] _nextStartKey;
+
+   ContentsPage(ResultSetDataSet dataSet, boolean hasNextPage, Object[] nextStartKey)
+   {
+      _dataSet = dataSet;
+      _hasNextPage = hasNextPage;
+      _nextStartKey = nextStartKey;
+   }
+
+   /**
+    * The rows must not be changed. Use {@link ResultSetDataSet#createSharedRowsCopy()} to show them.
+    */
+   ResultSetDataSet getDataSet()
+   {
+      return _dataSet;
+   }
+
+   int getRowCount()
+   {
+      return _dataSet.currentRowCount();
+   }
+
+   boolean hasNextPage()
+   {
+      return _hasNextPage;
+   }
+
+   /**
+    * @return The key the next page starts behind or null if pages are not read by keyset.
+    */
+   Object[] getNextStartKey()
+   {
+      return _nextStartKey;
+   }
+}
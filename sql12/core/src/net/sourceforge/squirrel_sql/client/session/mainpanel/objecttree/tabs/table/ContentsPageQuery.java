@@ -0,0 +1,319 @@
+package net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.table;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetException;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetDataSet;
+import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+import net.sourceforge.squirrel_sql.fw.dialects.DialectUtils2;
+import net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.sql.PrimaryKeyInfo;
+import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The SQL to read one page of a table's contents, see {@link ContentsPager}.
+ *
+ * When the user didn't define an order by clause and the primary key consists of number or character columns
+ * pages are read by keyset: The rows are ordered by the primary key and a page starts behind the last key of its preceding page.
+ * Then the database finds a page's first row by the primary key index, regardless of how far the page is from the table's start.
+ * Otherwise pages are read by the offset and row limiting clause of the session's {@link HibernateDialect}.
+ *
+ * Instances are immutable and are used by the prefetch thread, too.
+ */
+class ContentsPageQuery
+{
+   private static final ILogger s_log = LoggerController.createLogger(ContentsPageQuery.class);
+
+   private final String _select;
+   private final String _whereClause;
+   private final String _orderByClause;
+
+   /**
+    * null if pages are not read by keyset.
+    */
+   private final String[] _keyColumns;
+   private final int[] _keyColumnIndexes;
+
+   private final HibernateDialect _dialect;
+   private final int _pageSize;
+
+   private final TableColumnInfo[] _columnInfos;
+   private final String _fullTableName;
+   private final DialectType _dialectType;
+   private final boolean _rowIdColumnSelected;
+
+   private ContentsPageQuery(String select, String whereClause, String orderByClause, String[] keyColumns, int[] keyColumnIndexes,
+                             HibernateDialect dialect, int pageSize, TableColumnInfo[] columnInfos, String fullTableName, DialectType dialectType,
+                             boolean rowIdColumnSelected)
+   {
+      _select = select;
+      _whereClause = whereClause;
+      _orderByClause = orderByClause;
+      _keyColumns = keyColumns;
+      _keyColumnIndexes = keyColumnIndexes;
+      _dialect = dialect;
+      _pageSize = pageSize;
+      _columnInfos = columnInfos;
+      _fullTableName = fullTableName;
+      _dialectType = dialectType;
+      _rowIdColumnSelected = rowIdColumnSelected;
+   }
+
+   /**
+    * @param select  The select without where and order by clause. The table must have the alias tbl.
+    *                The selected columns must start with the columns of columnInfos in that order.
+    * @param whereClause The user's where clause or null
+    * @param orderByClause The user's order by clause or null
+    * @return null if the table's contents can neither be paged by keyset nor by the dialect's offset clause.
+    */
+   static ContentsPageQuery create(String select, String whereClause, String orderByClause, PrimaryKeyInfo[] primaryKey,
+                                   HibernateDialect dialect, int pageSize, TableColumnInfo[] columnInfos, String fullTableName,
+                                   DialectType dialectType, boolean rowIdColumnSelected)
+   {
+      String[] keyColumns = null;
+      int[] keyColumnIndexes = null;
+
+      if (isEmpty(orderByClause) && null != primaryKey && 0 < primaryKey.length)
+      {
+         PrimaryKeyInfo[] sortedPrimaryKey = primaryKey.clone();
+         Arrays.sort(sortedPrimaryKey, (pk1, pk2) -> Short.compare(pk1.getKeySequence(), pk2.getKeySequence()));
+
+         keyColumns = new String[sortedPrimaryKey.length];
+         keyColumnIndexes = new int[sortedPrimaryKey.length];
+
+         for (int i = 0; i < sortedPrimaryKey.length; i++)
+         {
+            keyColumnIndexes[i] = findKeysetColumn(columnInfos, sortedPrimaryKey[i].getColumnName());
+
+            if (0 > keyColumnIndexes[i])
+            {
+               keyColumns = null;
+               keyColumnIndexes = null;
+               break;
+            }
+
+            keyColumns[i] = "tbl." + DialectUtils2.checkColumnDoubleQuotes(dialectType, columnInfos[keyColumnIndexes[i]].getColumnName());
+         }
+      }
+
+      ContentsPageQuery ret = new ContentsPageQuery(select, isEmpty(whereClause) ? null : whereClause, isEmpty(orderByClause) ? null : orderByClause,
+                                                    keyColumns, keyColumnIndexes, dialect, pageSize, columnInfos, fullTableName, dialectType, rowIdColumnSelected);
+
+      if (false == ret.isKeyset() && null == dialect.getPagedSelectSQL(select, false, 0, pageSize))
+      {
+         return null;
+      }
+
+      return ret;
+   }
+
+   /**
+    * @return -1 if the column is not found or its values can't be reliably compared by the database and by the values read.
+    */
+   private static int findKeysetColumn(TableColumnInfo[] columnInfos, String columnName)
+   {
+      for (int i = 0; i < columnInfos.length; i++)
+      {
+         if (columnInfos[i].getColumnName().equals(columnName))
+         {
+            switch (columnInfos[i].getDataType())
+            {
+               case Types.TINYINT:
+               case Types.SMALLINT:
+               case Types.INTEGER:
+               case Types.BIGINT:
+               case Types.DECIMAL:
+               case Types.NUMERIC:
+               case Types.CHAR:
+               case Types.VARCHAR:
+               case Types.NCHAR:
+               case Types.NVARCHAR:
+                  return i;
+               default:
+                  return -1;
+            }
+         }
+      }
+      return -1;
+   }
+
+   private static boolean isEmpty(String clause)
+   {
+      return null == clause || 0 == clause.trim().length();
+   }
+
+   boolean isKeyset()
+   {
+      return null != _keyColumns;
+   }
+
+   int getPageSize()
+   {
+      return _pageSize;
+   }
+
+   boolean isRowIdColumnSelected()
+   {
+      return _rowIdColumnSelected;
+   }
+
+   /**
+    * One row more than the page size is read to know if there is a following page.
+    *
+    * @param offset   Used when pages are not read by keyset.
+    * @param startKey Used when pages are read by keyset. The key of the last row of the preceding page, null for the first page.
+    */
+   String createSql(long offset, Object[] startKey)
+   {
+      StringBuilder buf = new StringBuilder(_select);
+
+      String keyPredicate = isKeyset() && null != startKey ? createKeyPredicate() : null;
+
+      if (null != _whereClause && null != keyPredicate)
+      {
+         buf.append(" where (").append(_whereClause).append(") and (").append(keyPredicate).append(")");
+      }
+      else if (null != _whereClause)
+      {
+         buf.append(" where ").append(_whereClause);
+      }
+      else if (null != keyPredicate)
+      {
+         buf.append(" where ").append(keyPredicate);
+      }
+
+      if (isKeyset())
+      {
+         buf.append(" order by ").append(String.join(", ", _keyColumns));
+      }
+      else if (null != _orderByClause)
+      {
+         buf.append(" order by ").append(_orderByClause);
+      }
+
+      String pagedSql = _dialect.getPagedSelectSQL(buf.toString(), isKeyset() || null != _orderByClause, isKeyset() ? 0 : offset, _pageSize + 1);
+
+      // Keyset paging works without the dialect's row limiting clause, Statement.setMaxRows() limits the result then.
+      return null == pagedSql ? buf.toString() : pagedSql;
+   }
+
+   /**
+    * Row value comparisons like (a, b) > (?, ?) are not supported by all databases.
+    * So for a key of the columns a, b this creates: (a > ?) or (a = ? and b > ?)
+    */
+   private String createKeyPredicate()
+   {
+      StringBuilder ret = new StringBuilder();
+      for (int i = 0; i < _keyColumns.length; i++)
+      {
+         if (0 < i)
+         {
+            ret.append(" or ");
+         }
+
+         ret.append("(");
+         for (int j = 0; j < i; j++)
+         {
+            ret.append(_keyColumns[j]).append(" = ? and ");
+         }
+         ret.append(_keyColumns[i]).append(" > ?)");
+      }
+      return ret.toString();
+   }
+
+   /**
+    * @param beforeExecute Called with the statement before it is executed, may be null.
+    */
+   ContentsPage readPage(ISQLConnection conn, long offset, Object[] startKey, Consumer<Statement> beforeExecute) throws DataSetException
+   {
+      final String sql = createSql(offset, startKey);
+
+      if (s_log.isDebugEnabled())
+      {
+         s_log.debug("ContentsPageQuery running SQL: " + sql);
+      }
+
+      PreparedStatement stmt = null;
+      try
+      {
+         stmt = conn.prepareStatement(sql);
+         stmt.setMaxRows(_pageSize + 1);
+
+         if (isKeyset() && null != startKey)
+         {
+            int paramIx = 0;
+            for (int i = 0; i < _keyColumns.length; i++)
+            {
+               for (int j = 0; j <= i; j++)
+               {
+                  stmt.setObject(++paramIx, startKey[j]);
+               }
+            }
+         }
+
+         if (null != beforeExecute)
+         {
+            beforeExecute.accept(stmt);
+         }
+
+         ResultSet rs = stmt.executeQuery();
+
+         final ResultSetDataSet rsds = new ResultSetDataSet(_columnInfos);
+         rsds.setLimitDataRead(true);
+         rsds.setContentsTabResultSet(rs, _fullTableName, _dialectType);
+         SQLUtilities.closeResultSet(rs);
+
+         boolean hasNextPage = rsds.currentRowCount() > _pageSize;
+         if (hasNextPage)
+         {
+            rsds.removeRow(_pageSize);
+         }
+
+         Object[] nextStartKey = null;
+         if (hasNextPage && isKeyset())
+         {
+            nextStartKey = getKey(rsds.getAllDataForReadOnly().get(_pageSize - 1));
+
+            if (null == nextStartKey)
+            {
+               s_log.warn("Can't read beyond a primary key containing null values. Reading contents of " + _fullTableName + " stopped.");
+               hasNextPage = false;
+            }
+         }
+
+         return new ContentsPage(rsds, hasNextPage, nextStartKey);
+      }
+      catch (SQLException e)
+      {
+         throw new DataSetException(e);
+      }
+      finally
+      {
+         SQLUtilities.closeStatement(stmt);
+      }
+   }
+
+   private Object[] getKey(Object[] row)
+   {
+      Object[] ret = new Object[_keyColumnIndexes.length];
+      for (int i = 0; i < _keyColumnIndexes.length; i++)
+      {
+         ret[i] = row[_keyColumnIndexes[i]];
+         if (null == ret[i])
+         {
+            return null;
+         }
+      }
+      return ret;
+   }
+}
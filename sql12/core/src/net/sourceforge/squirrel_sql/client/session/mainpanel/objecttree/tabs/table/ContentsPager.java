@@ -0,0 +1,255 @@
+package net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.table;
+
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetException;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetDataSet;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reads the Contents tab's table page by page when the session property "contentsPaging" is switched on.
+ *
+ * Only the last {@link #PAGE_WINDOW_SIZE} pages shown are kept in memory. When a page was shown
+ * the following page is read in the background on a connection of the session's query connection pool.
+ * The pages kept are dropped when the {@link net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache}
+ * sees a change of any table, see {@link net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache#getInvalidationCount()}.
+ */
+class ContentsPager
+{
+   private static final ILogger s_log = LoggerController.createLogger(ContentsPager.class);
+
+   private static final int PAGE_WINDOW_SIZE = 3;
+
+   private final ISession _session;
+   private final ThreadPoolExecutor _prefetchExecutor;
+
+   private ContentsPageQuery _query;
+
+   /**
+    * Index i holds the key page i starts behind when pages are read by keyset, null otherwise.
+    * Contains an entry for each page that is known to exist.
+    */
+   private final List<Object[]> _pageStartKeys = new ArrayList<>();
+
+   private final LinkedHashMap<Integer, ContentsPage> _pageWindow = new LinkedHashMap<>(16, 0.75f, true)
+   {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, ContentsPage> eldest)
+      {
+         return PAGE_WINDOW_SIZE < size();
+      }
+   };
+   private long _invalidationCount;
+
+   private Future<ContentsPage> _prefetchedPage;
+   private int _prefetchedPageIndex = -1;
+
+   private int _currentPageIndex = -1;
+   private ContentsPage _currentPage;
+
+   ContentsPager(ISession session)
+   {
+      _session = session;
+
+      // Idle threads end, so a Contents tab that isn't used anymore doesn't keep a thread alive.
+      _prefetchExecutor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "Contents Prefetch Thread");
+         thread.setDaemon(true);
+         return thread;
+      });
+      _prefetchExecutor.allowCoreThreadTimeOut(true);
+   }
+
+   /**
+    * Starts paging the table of query.
+    *
+    * @param beforeExecute See {@link ContentsPageQuery#readPage(ISQLConnection, long, Object[], Consumer)}
+    */
+   synchronized ResultSetDataSet readFirstPage(ContentsPageQuery query, Consumer<Statement> beforeExecute) throws DataSetException
+   {
+      clear();
+
+      _query = query;
+      _pageStartKeys.add(null);
+      _invalidationCount = _session.getResultCache().getInvalidationCount();
+
+      return readPage(0, beforeExecute);
+   }
+
+   /**
+    * @param pageIndex Must be a page that is known to exist, i.e. the first page, a page already read or the page following the current page.
+    */
+   synchronized ResultSetDataSet readPage(int pageIndex, Consumer<Statement> beforeExecute) throws DataSetException
+   {
+      if (null == _query || 0 > pageIndex || _pageStartKeys.size() <= pageIndex)
+      {
+         throw new IllegalStateException("Page " + pageIndex + " is unknown");
+      }
+
+      long invalidationCount = _session.getResultCache().getInvalidationCount();
+      if (_invalidationCount != invalidationCount)
+      {
+         _pageWindow.clear();
+         cancelPrefetch();
+         _invalidationCount = invalidationCount;
+      }
+
+      ContentsPage page = _pageWindow.get(pageIndex);
+
+      if (null == page)
+      {
+         page = takePrefetchedPage(pageIndex);
+      }
+
+      if (null == page)
+      {
+         page = _query.readPage(_session.getSQLConnection(), getOffset(pageIndex), _pageStartKeys.get(pageIndex), beforeExecute);
+      }
+
+      _pageWindow.put(pageIndex, page);
+
+      if (page.hasNextPage() && _pageStartKeys.size() == pageIndex + 1)
+      {
+         _pageStartKeys.add(page.getNextStartKey());
+      }
+
+      _currentPageIndex = pageIndex;
+      _currentPage = page;
+
+      if (page.hasNextPage() && false == _pageWindow.containsKey(pageIndex + 1))
+      {
+         prefetch(pageIndex + 1);
+      }
+
+      return page.getDataSet().createSharedRowsCopy();
+   }
+
+   private long getOffset(int pageIndex)
+   {
+      return (long) pageIndex * _query.getPageSize();
+   }
+
+   private void prefetch(int pageIndex)
+   {
+      if (_prefetchedPageIndex == pageIndex && null != _prefetchedPage)
+      {
+         return;
+      }
+
+      cancelPrefetch();
+
+      // The prefetch thread must not touch this pager's state.
+      final ContentsPageQuery query = _query;
+      final long offset = getOffset(pageIndex);
+      final Object[] startKey = _pageStartKeys.get(pageIndex);
+
+      _prefetchedPageIndex = pageIndex;
+      _prefetchedPage = _prefetchExecutor.submit(() -> {
+         ISQLConnection conn = _session.checkOutUserQuerySQLConnection();
+         try
+         {
+            return query.readPage(conn, offset, startKey, null);
+         }
+         finally
+         {
+            _session.returnUserQuerySQLConnection(conn);
+         }
+      });
+   }
+
+   /**
+    * @return null if pageIndex wasn't prefetched or if prefetching failed.
+    */
+   private ContentsPage takePrefetchedPage(int pageIndex)
+   {
+      if (null == _prefetchedPage || _prefetchedPageIndex != pageIndex)
+      {
+         return null;
+      }
+
+      Future<ContentsPage> prefetchedPage = _prefetchedPage;
+      _prefetchedPage = null;
+      _prefetchedPageIndex = -1;
+
+      try
+      {
+         return prefetchedPage.get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         return null;
+      }
+      catch (ExecutionException | CancellationException e)
+      {
+         s_log.warn("Failed to prefetch page " + pageIndex + ". Reading it again.", e);
+         return null;
+      }
+   }
+
+   private void cancelPrefetch()
+   {
+      if (null != _prefetchedPage)
+      {
+         // Not interrupting, JDBC drivers may not stand it. A running query is finished and its page dropped.
+         _prefetchedPage.cancel(false);
+         _prefetchedPage = null;
+         _prefetchedPageIndex = -1;
+      }
+   }
+
+   /**
+    * Drops all pages. {@link #isPaging()} returns false afterwards.
+    */
+   synchronized void clear()
+   {
+      cancelPrefetch();
+      _query = null;
+      _pageStartKeys.clear();
+      _pageWindow.clear();
+      _currentPageIndex = -1;
+      _currentPage = null;
+   }
+
+   synchronized boolean isPaging()
+   {
+      return null != _currentPage;
+   }
+
+   synchronized int getCurrentPageIndex()
+   {
+      return _currentPageIndex;
+   }
+
+   /**
+    * @return The number of the current page's first row, starting at 1.
+    */
+   synchronized long getCurrentPageFirstRowNumber()
+   {
+      return getOffset(_currentPageIndex) + 1;
+   }
+
+   synchronized int getCurrentPageRowCount()
+   {
+      return null == _currentPage ? 0 : _currentPage.getRowCount();
+   }
+
+   synchronized boolean hasNextPage()
+   {
+      return null != _currentPage && _currentPage.hasNextPage();
+   }
+}
@@ -0,0 +1,109 @@
+package net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.table;
+
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Shows the Contents tab's data set and, when the contents are read page by page, the buttons to navigate the pages.
+ * See {@link ContentsPager}.
+ */
+class ContentsPagingPanel extends JPanel
+{
+   private static final long serialVersionUID = 1L;
+
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(ContentsPagingPanel.class);
+
+   private final JPanel _pagingBar = new JPanel(new GridBagLayout());
+   private final JButton _btnFirstPage = new JButton(s_stringMgr.getString("ContentsPagingPanel.firstPage"));
+   private final JButton _btnPreviousPage = new JButton(s_stringMgr.getString("ContentsPagingPanel.previousPage"));
+   private final JButton _btnNextPage = new JButton(s_stringMgr.getString("ContentsPagingPanel.nextPage"));
+   private final JLabel _lblRows = new JLabel();
+
+   private Component _contentComponent;
+   private int _currentPageIndex;
+
+   /**
+    * @param pageRequestListener Receives the index of the page the user wants to see. Called on the event dispatch thread.
+    */
+   ContentsPagingPanel(IntConsumer pageRequestListener)
+   {
+      super(new BorderLayout());
+
+      GridBagConstraints gbc;
+
+      gbc = new GridBagConstraints(0, 0, 1, 1, 0, 0, GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(3, 5, 3, 0), 0, 0);
+      _pagingBar.add(_btnFirstPage, gbc);
+
+      gbc = new GridBagConstraints(1, 0, 1, 1, 0, 0, GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(3, 5, 3, 0), 0, 0);
+      _pagingBar.add(_btnPreviousPage, gbc);
+
+      gbc = new GridBagConstraints(2, 0, 1, 1, 0, 0, GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(3, 5, 3, 0), 0, 0);
+      _pagingBar.add(_btnNextPage, gbc);
+
+      gbc = new GridBagConstraints(3, 0, 1, 1, 1, 0, GridBagConstraints.WEST, GridBagConstraints.NONE, new Insets(3, 10, 3, 5), 0, 0);
+      _pagingBar.add(_lblRows, gbc);
+
+      _btnFirstPage.addActionListener(e -> requestPage(pageRequestListener, 0));
+      _btnPreviousPage.addActionListener(e -> requestPage(pageRequestListener, _currentPageIndex - 1));
+      _btnNextPage.addActionListener(e -> requestPage(pageRequestListener, _currentPageIndex + 1));
+
+      _pagingBar.setVisible(false);
+      add(_pagingBar, BorderLayout.SOUTH);
+   }
+
+   private void requestPage(IntConsumer pageRequestListener, int pageIndex)
+   {
+      // Until the page is shown, see update().
+      _btnFirstPage.setEnabled(false);
+      _btnPreviousPage.setEnabled(false);
+      _btnNextPage.setEnabled(false);
+
+      pageRequestListener.accept(pageIndex);
+   }
+
+   /**
+    * The tab's component is recreated when the tab is rebuilt.
+    */
+   void setContentComponent(Component contentComponent)
+   {
+      if (null != _contentComponent)
+      {
+         remove(_contentComponent);
+      }
+      _contentComponent = contentComponent;
+      add(_contentComponent, BorderLayout.CENTER);
+      revalidate();
+   }
+
+   /**
+    * Hides the paging buttons.
+    */
+   void noPaging()
+   {
+      _pagingBar.setVisible(false);
+   }
+
+   void update(int currentPageIndex, long firstRowNumber, int rowCount, boolean hasNextPage)
+   {
+      _currentPageIndex = currentPageIndex;
+
+      _btnFirstPage.setEnabled(0 < currentPageIndex);
+      _btnPreviousPage.setEnabled(0 < currentPageIndex);
+      _btnNextPage.setEnabled(hasNextPage);
+
+      if (0 == rowCount)
+      {
+         _lblRows.setText(s_stringMgr.getString("ContentsPagingPanel.noRows"));
+      }
+      else
+      {
+         _lblRows.setText(s_stringMgr.getString("ContentsPagingPanel.rows", "" + firstRowNumber, "" + (firstRowNumber + rowCount - 1)));
+      }
+
+      _pagingBar.setVisible(true);
+   }
+}
@@ -20,11 +20,15 @@ package net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.ta
 
 import net.sourceforge.squirrel_sql.client.gui.session.SessionPanel;
 import net.sourceforge.squirrel_sql.client.preferences.SquirrelPreferences;
+import net.sourceforge.squirrel_sql.client.session.DataModelImplementationDetails;
 import net.sourceforge.squirrel_sql.client.session.DataSetUpdateableTableModelImpl;
 import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.mainpanel.PleaseWaitDialog;
 import net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.ObjectTreePanel;
 import net.sourceforge.squirrel_sql.client.session.properties.SessionProperties;
+import net.sourceforge.squirrel_sql.client.session.resultcache.CachedResult;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache;
+import net.sourceforge.squirrel_sql.client.session.resultcache.ResultCacheKey;
 import net.sourceforge.squirrel_sql.client.session.sqlfilter.OrderByClausePanel;
 import net.sourceforge.squirrel_sql.client.session.sqlfilter.SQLFilterClauses;
 import net.sourceforge.squirrel_sql.client.session.sqlfilter.WhereClausePanel;
@@ -32,6 +36,7 @@ import net.sourceforge.squirrel_sql.fw.datasetviewer.*;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
 import net.sourceforge.squirrel_sql.fw.dialects.DialectFactory;
 import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+import net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect;
 import net.sourceforge.squirrel_sql.fw.gui.GUIUtils;
 import net.sourceforge.squirrel_sql.fw.sql.*;
 import net.sourceforge.squirrel_sql.fw.sql.dbobj.BestRowIdentifier;
@@ -82,11 +87,14 @@ public class ContentsTab extends BaseTableTab
    private PleaseWaitDialog _waitDialog = null;
 
 	private SquirrelPreferences _prefs = null;
+
+   private final ContentsPager _contentsPager;
+   private final ContentsPagingPanel _contentsPagingPanel = new ContentsPagingPanel(this::showPage);
    
    public ContentsTab(ObjectTreePanel treePanel) {
       _treePanel = treePanel;
    	_prefs = _treePanel.getSession().getApplication().getSquirrelPreferences();
-
+      _contentsPager = new ContentsPager(_treePanel.getSession());
    }
 
 	/**
@@ -141,13 +149,53 @@ public class ContentsTab extends BaseTableTab
       final ISQLConnection conn = session.getSQLConnection();
       ISQLDatabaseMetaData md = session.getMetaData();
 
-      
+      final SessionProperties props = session.getProperties();
+      final ResultCache resultCache = session.getResultCache();
+      ResultCacheKey resultCacheKey = null;
+      long invalidationCountBeforeRead = resultCache.getInvalidationCount();
+
+      checkTableChanged(getTableInfo());
+
+      if (props.getContentsPaging())
+      {
+         IDataSet firstPage = readFirstPage(md, props);
+         updatePagingPanel();
+
+         if (null != firstPage)
+         {
+            return firstPage;
+         }
+      }
+      else
+      {
+         _contentsPager.clear();
+         updatePagingPanel();
+      }
+
+      if (props.getCacheContentsResults())
+      {
+         resultCacheKey = createResultCacheKey(getTableInfo(), props);
+         CachedResult cachedResult = resultCache.get(resultCacheKey);
+         if (null != cachedResult)
+         {
+            if (0 <= cachedResult.getRowIdCol())
+            {
+               _dataSetUpdateableTableModel.setRowIDCol(cachedResult.getRowIdCol());
+            }
+            return cachedResult.createDataSet();
+         }
+      }
+      else
+      {
+         // Entries kept from when caching was on could be outdated by now.
+         resultCache.clear();
+      }
+
       try
       {
          final Statement stmt = conn.createStatement();
          try
          {
-            final SessionProperties props = session.getProperties();
             if (props.getContentsLimitRows())
             {
                try
@@ -161,78 +209,7 @@ public class ContentsTab extends BaseTableTab
             }
             final ITableInfo ti = getTableInfo();
 
-            /**
-             * When the SessionProperties are set to read-only (either table or text)
-             * but the user has selected "Make Editable" on the Popup menu, we want
-             * to limit the edit capability to only that table, and only for as long
-             * as the user is looking at that one table.  When the user switches away
-             * to another table, that new table should not be editable.
-             */
-            final String currentTableName = ti.getQualifiedName();
-            if (!currentTableName.equals(previousTableName))
-            {
-               previousTableName = currentTableName;	// needed to prevent an infinite loop
-               _dataSetUpdateableTableModel.setEditModeForced(false);
-
-               /**
-                * Tell the GUI to rebuild itself.
-                * Unfortunately, this has the side effect of calling this same function
-                * another time.  The second call does not seem to be a problem,
-                * but we need to have reset the previousTableName before makeing
-                * this call or we will be in an infinite loop.
-                */
-               //props.forceTableContentsOutputClassNameChange();
-            }
-
-            /**
-             * If the table has a pseudo-column that is the best unique
-             * identifier for the rows (like Oracle's rowid), then we
-             * want to include that field in the query so that it will
-             * be available if the user wants to edit the data later.
-             */
-            String pseudoColumn = "";
-
-            try
-            {
-               BestRowIdentifier[] rowIDs = md.getBestRowIdentifier(ti);
-               for (int i = 0; i < rowIDs.length; ++i)
-               {
-                  short pseudo = rowIDs[i].getPseudoColumn();
-                  if (pseudo == DatabaseMetaData.bestRowPseudo)
-                  {
-                     pseudoColumn = " ," + rowIDs[i].getColumnName();
-                     break;
-                  }
-               }
-            }
-
-            // Some DBMS's (EG Think SQL) throw an exception on a call to
-            // getBestRowIdentifier.
-            catch (Throwable th)
-            {
-            	if (s_log.isDebugEnabled()) {
-	               s_log.debug("getBestRowIdentifier not supported for table "+ currentTableName, th);
-            	}
-            }
-
-            // of objects for getBestRowIdentifier. For PostgreSQL put this kludge in
-            // the new function. THis way all the kludges are kept in one place.
-            //
-            // KLUDGE!!!!!!
-            //
-            // For some DBs (e.g. PostgreSQL) there is actually a pseudo-column
-            // providing the rowId, but the getBestRowIdentifier function is not
-            // implemented.  This kludge hardcodes the knowledge that specific
-            // DBs use a specific pseudo-column.  Additionally, as of pg 8.1,
-            // you must create the table using "WITH OID" appended to the create
-            // statement.  Otherwise, OID column is not available by default.
-            //
-            if (pseudoColumn.length() == 0) {
-              String pc = md.getOptionalPseudoColumnForDataSelection(ti);
-              if (pc != null) {
-                  pseudoColumn = ", " + pc;
-              }
-            }
+            String pseudoColumn = getPseudoColumn(md, ti);
 
             ResultSet rs = null;
             String coded = gatherColumnsForContentSelect(md, ti).toString();
@@ -294,9 +271,16 @@ public class ContentsTab extends BaseTableTab
 
             //?? remember which column is the rowID (if any) so we can
             //?? prevent editing on it
+            int rowIdCol = -1;
             if (pseudoColumn.length() > 0)
             {
-               _dataSetUpdateableTableModel.setRowIDCol(rsds.getColumnCount() - 1);
+               rowIdCol = rsds.getColumnCount() - 1;
+               _dataSetUpdateableTableModel.setRowIDCol(rowIdCol);
+            }
+
+            if (null != resultCacheKey)
+            {
+               resultCache.put(resultCacheKey, rsds.createSharedRowsCopy(), rowIdCol, invalidationCountBeforeRead);
             }
 
             return rsds;
@@ -317,31 +301,193 @@ public class ContentsTab extends BaseTableTab
       }
    }
 
-   private ResultSet createResultSet(ITableInfo ti, Statement stmt, String columnsExpression, boolean showWaitDialog)
+   /**
+    * Reads the first page of the table's contents, see {@link ContentsPager}.
+    *
+    * @return null if the contents can't be read page by page. Then they are read at once as usual.
+    */
+   private IDataSet readFirstPage(ISQLDatabaseMetaData md, SessionProperties props)
    {
-      final StringBuffer buf = new StringBuffer();
+      final ITableInfo ti = getTableInfo();
+
       try
       {
+         String pseudoColumn = getPseudoColumn(md, ti);
+         String coded = gatherColumnsForContentSelect(md, ti).toString();
+         TableColumnInfo[] columnInfos = md.getColumnInfo(ti);
+         HibernateDialect dialect = DialectFactory.getDialect(md);
+         String whereClause = _sqlFilterClauses.get(WhereClausePanel.getClauseIdentifier(), ti.getQualifiedName());
+         String orderByClause = _sqlFilterClauses.get(OrderByClausePanel.getClauseIdentifier(), ti.getQualifiedName());
+
+         PrimaryKeyInfo[] primaryKey = null;
+         try
+         {
+            primaryKey = md.getPrimaryKey(ti);
+         }
+         catch (SQLException e)
+         {
+            s_log.debug("Failed to read primary key of " + ti.getQualifiedName() + ". Contents can't be paged by keyset.", e);
+         }
+
+         // Like in createDataSet() the pseudo column is left out when selecting it fails.
+         for (String pseudo : 0 < pseudoColumn.length() ? new String[]{pseudoColumn, ""} : new String[]{""})
+         {
+            ContentsPageQuery query = ContentsPageQuery.create(createSelectFromSql(ti, coded + pseudo), whereClause, orderByClause, primaryKey,
+                                                               dialect, Math.max(1, props.getContentsNbrRowsToShow()), columnInfos,
+                                                               _dataSetUpdateableTableModel.getFullTableName(), DialectFactory.getDialectType(md),
+                                                               0 < pseudo.length());
+            if (null == query)
+            {
+               break;
+            }
+
+            try
+            {
+               ResultSetDataSet ret = _contentsPager.readFirstPage(query, this::showWaitDialog);
+
+               if (query.isRowIdColumnSelected())
+               {
+                  _dataSetUpdateableTableModel.setRowIDCol(ret.getColumnCount() - 1);
+               }
+
+               return ret;
+            }
+            catch (DataSetException e)
+            {
+               s_log.warn("Failed to read first page of " + ti.getQualifiedName(), e);
+            }
+         }
+      }
+      catch (SQLException e)
+      {
+         s_log.warn("Failed to prepare reading " + ti.getQualifiedName() + " page by page", e);
+      }
+      finally
+      {
+         disposeWaitDialog();
+      }
+
+      _contentsPager.clear();
+      return null;
+   }
 
-         buf.append("select ")
-               .append(columnsExpression)
-               .append(" from ")
-               .append(ti.getQualifiedName())
-               .append(" tbl");
+   private void showPage(final int pageIndex)
+   {
+      final ISession session = getSession();
+
+      _app.getThreadPool().addTask(() -> {
+         try
+         {
+            getComponent().load(_contentsPager.readPage(pageIndex, this::showWaitDialog), new DataModelImplementationDetails(session));
+         }
+         catch (Exception e)
+         {
+            s_log.error("Failed to show page " + (pageIndex + 1) + " of " + getTableInfo().getQualifiedName(), e);
+         }
+         finally
+         {
+            disposeWaitDialog();
+            updatePagingPanel();
+         }
+      });
+   }
+
+   private void updatePagingPanel()
+   {
+      final boolean paging;
+      final int currentPageIndex;
+      final long firstRowNumber;
+      final int rowCount;
+      final boolean hasNextPage;
+
+      synchronized (_contentsPager)
+      {
+         paging = _contentsPager.isPaging();
+         currentPageIndex = _contentsPager.getCurrentPageIndex();
+         firstRowNumber = _contentsPager.getCurrentPageFirstRowNumber();
+         rowCount = _contentsPager.getCurrentPageRowCount();
+         hasNextPage = _contentsPager.hasNextPage();
+      }
 
-         String clause = _sqlFilterClauses.get(WhereClausePanel.getClauseIdentifier(), ti.getQualifiedName());
-         if ((clause != null) && (clause.length() > 0))
+      GUIUtils.processOnSwingEventThread(() -> {
+         if (paging)
          {
-            buf.append(" where ").append(clause);
+            _contentsPagingPanel.update(currentPageIndex, firstRowNumber, rowCount, hasNextPage);
          }
-         clause = _sqlFilterClauses.get(OrderByClausePanel.getClauseIdentifier(), ti.getQualifiedName());
-         if ((clause != null) && (clause.length() > 0))
+         else
          {
-            buf.append(" order by ").append(clause);
+            _contentsPagingPanel.noPaging();
          }
+      });
+   }
+
+   /**
+    * @return The pseudo column to select in addition to the table's columns, like ", rowid", or "" if there is none.
+    */
+   private String getPseudoColumn(ISQLDatabaseMetaData md, ITableInfo ti)
+   {
+      final String currentTableName = ti.getQualifiedName();
+
+      /**
+       * If the table has a pseudo-column that is the best unique
+       * identifier for the rows (like Oracle's rowid), then we
+       * want to include that field in the query so that it will
+       * be available if the user wants to edit the data later.
+       */
+      String pseudoColumn = "";
 
+      try
+      {
+         BestRowIdentifier[] rowIDs = md.getBestRowIdentifier(ti);
+         for (int i = 0; i < rowIDs.length; ++i)
+         {
+            short pseudo = rowIDs[i].getPseudoColumn();
+            if (pseudo == DatabaseMetaData.bestRowPseudo)
+            {
+               pseudoColumn = " ," + rowIDs[i].getColumnName();
+               break;
+            }
+         }
+      }
+
+      // Some DBMS's (EG Think SQL) throw an exception on a call to
+      // getBestRowIdentifier.
+      catch (Throwable th)
+      {
          if (s_log.isDebugEnabled()) {
-            s_log.debug("createDataSet running SQL: " + buf.toString());
+            s_log.debug("getBestRowIdentifier not supported for table "+ currentTableName, th);
+         }
+      }
+
+      // of objects for getBestRowIdentifier. For PostgreSQL put this kludge in
+      // the new function. THis way all the kludges are kept in one place.
+      //
+      // KLUDGE!!!!!!
+      //
+      // For some DBs (e.g. PostgreSQL) there is actually a pseudo-column
+      // providing the rowId, but the getBestRowIdentifier function is not
+      // implemented.  This kludge hardcodes the knowledge that specific
+      // DBs use a specific pseudo-column.  Additionally, as of pg 8.1,
+      // you must create the table using "WITH OID" appended to the create
+      // statement.  Otherwise, OID column is not available by default.
+      //
+      if (pseudoColumn.length() == 0) {
+        String pc = md.getOptionalPseudoColumnForDataSelection(ti);
+        if (pc != null) {
+            pseudoColumn = ", " + pc;
+        }
+      }
+
+      return pseudoColumn;
+   }
+
+   private ResultSet createResultSet(ITableInfo ti, Statement stmt, String columnsExpression, boolean showWaitDialog)
+   {
+      final String sql = createSelectSql(ti, columnsExpression);
+      try
+      {
+         if (s_log.isDebugEnabled()) {
+            s_log.debug("createDataSet running SQL: " + sql);
          }
 
          if (showWaitDialog)
@@ -349,13 +495,13 @@ public class ContentsTab extends BaseTableTab
             showWaitDialog(stmt);
          }
 
-         ResultSet rs = stmt.executeQuery(buf.toString());
+         ResultSet rs = stmt.executeQuery(sql);
 
          return rs;
       }
       catch (Throwable e)
       {
-         s_log.warn("Failed to execute content SQL: " + buf.toString(), e);
+         s_log.warn("Failed to execute content SQL: " + sql, e);
 
          //throw (e instanceof RuntimeException ? (RuntimeException)e : new RuntimeException(e));
          return null;
@@ -363,6 +509,66 @@ public class ContentsTab extends BaseTableTab
    }
 
 
+   private String createSelectSql(ITableInfo ti, String columnsExpression)
+   {
+      final StringBuilder buf = new StringBuilder(createSelectFromSql(ti, columnsExpression));
+
+      String clause = _sqlFilterClauses.get(WhereClausePanel.getClauseIdentifier(), ti.getQualifiedName());
+      if ((clause != null) && (clause.length() > 0))
+      {
+         buf.append(" where ").append(clause);
+      }
+      clause = _sqlFilterClauses.get(OrderByClausePanel.getClauseIdentifier(), ti.getQualifiedName());
+      if ((clause != null) && (clause.length() > 0))
+      {
+         buf.append(" order by ").append(clause);
+      }
+
+      return buf.toString();
+   }
+
+   private String createSelectFromSql(ITableInfo ti, String columnsExpression)
+   {
+      return "select " + columnsExpression + " from " + ti.getQualifiedName() + " tbl";
+   }
+
+   /**
+    * The key does not contain the real column list of the content select.
+    * It is derived from the table's columns and computing it would need meta data calls,
+    * which is what the cache is meant to save.
+    */
+   private ResultCacheKey createResultCacheKey(ITableInfo ti, SessionProperties props)
+   {
+      int maxRows = props.getContentsLimitRows() ? props.getContentsNbrRowsToShow() : -1;
+      return new ResultCacheKey(createSelectSql(ti, "*"), ti.getCatalogName(), ti.getSchemaName(), ti.getSimpleName(), maxRows);
+   }
+
+   /**
+    * When the SessionProperties are set to read-only (either table or text)
+    * but the user has selected "Make Editable" on the Popup menu, we want
+    * to limit the edit capability to only that table, and only for as long
+    * as the user is looking at that one table.  When the user switches away
+    * to another table, that new table should not be editable.
+    */
+   private void checkTableChanged(ITableInfo ti)
+   {
+      final String currentTableName = ti.getQualifiedName();
+      if (!currentTableName.equals(previousTableName))
+      {
+         previousTableName = currentTableName;	// needed to prevent an infinite loop
+         _dataSetUpdateableTableModel.setEditModeForced(false);
+
+         /**
+          * Tell the GUI to rebuild itself.
+          * Unfortunately, this has the side effect of calling this same function
+          * another time.  The second call does not seem to be a problem,
+          * but we need to have reset the previousTableName before makeing
+          * this call or we will be in an infinite loop.
+          */
+         //props.forceTableContentsOutputClassNameChange();
+      }
+   }
+
    private StringBuilder gatherColumnsForContentSelect(ISQLDatabaseMetaData md,
                                                        final ITableInfo ti) throws SQLException
    {
@@ -470,6 +676,13 @@ public class ContentsTab extends BaseTableTab
       });
    }
    
+   @Override
+   public Component getTabbedPaneComponent()
+   {
+      _contentsPagingPanel.setContentComponent(getComponent());
+      return _contentsPagingPanel;
+   }
+
    @Override
    public void setDatabaseObjectInfo(IDatabaseObjectInfo value)
    {
@@ -11,8 +11,9 @@ import org.jfree.data.category.DefaultCategoryDataset;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
 
 class BarChartCreator
 {
@@ -31,15 +32,10 @@ class BarChartCreator
       _callDepth = callDepth;
       _mode = mode;
 
-      DataScale newScale;ArrayList<Object[]> rows = new ArrayList<Object[]>();
-
-      for (Interval xAxisInterval : _xAxisDataScale.getIntervals())
-      {
-         rows.addAll(xAxisInterval.getResultRows());
-      }
+      DataScale newScale;
 
-
-      ScaleFactory scaleFactory = new ScaleFactory(rows, _xAxisDataScale.getColumnIx(), _xAxisDataScale.getColumnDisplayDefinition(), _callDepth);
+      // The x axis column is reused, so its rows are not sorted again.
+      ScaleFactory scaleFactory = new ScaleFactory(_xAxisDataScale.getIndexedColumn(), _callDepth);
 
       DataScaleListener dumDataScaleListener = new DataScaleListener()
       {
@@ -72,9 +68,15 @@ class BarChartCreator
 
       String category = _xAxisDataScale.getColumnDisplayDefinition().getColumnName();
 
-      for (Interval interval : newScale.getIntervals())
+      List<Interval> intervals = newScale.getIntervals();
+
+      // The values of the intervals are independent of each other.
+      double[] values = new double[intervals.size()];
+      IntStream.range(0, values.length).parallel().forEach(i -> values[i] = calculateValue(intervals.get(i), _mode, _yAxisDataScale));
+
+      for (int i = 0; i < intervals.size(); i++)
       {
-         categoryDataset.addValue(calculateValue(interval, _mode, _yAxisDataScale), interval.getLabel(), category);
+         categoryDataset.addValue(values[i], intervals.get(i).getLabel(), category);
       }
 
 
@@ -91,7 +93,7 @@ class BarChartCreator
             false                     // URLs?
       );
 
-      _label = createLabel(newScale, rows);
+      _label = createLabel(newScale);
    }
 
 
@@ -163,9 +165,9 @@ class BarChartCreator
       }
    }
 
-   private String createLabel(DataScale dataScale, ArrayList<Object[]> rows)
+   private String createLabel(DataScale dataScale)
    {
-      String ret = "Contains " + rows.size() + " query result values in " + dataScale.getIntervals().size() + " intervals";
+      String ret = "Contains " + dataScale.getIndexedColumn().size() + " query result values in " + dataScale.getIntervals().size() + " intervals";
 
       String intervalWidth = dataScale.getIntervalWidth();
       if(null != intervalWidth)
@@ -151,7 +151,8 @@ public class OverviewCtrl implements LazyTabControllerCtrl
          return;
       }
 
-      initScales(_overviewHolder.getDataScaleTable().getAllRows(), _overviewHolder.getDataScaleTable().getColumnDisplayDefinitions(), true);
+      // Same rows, so the columns of the current scales can be reused.
+      initScales(_overviewHolder.getDataScaleTable().getAllRows(), _overviewHolder.getDataScaleTable().getColumnDisplayDefinitions(), getIndexedColumnsOfCurrentScaleTable(), true);
    }
 
    private void onCreateBarChart()
@@ -347,7 +348,7 @@ public class OverviewCtrl implements LazyTabControllerCtrl
       DataSetDefinition dataSetDefinition = rsds.getDataSetDefinition();
       ColumnDisplayDefinition[] columnDefinitions = dataSetDefinition.getColumnDefinitions();
 
-      initScales(rows, columnDefinitions, false);
+      initScales(rows, columnDefinitions, IndexedColumnFactory.createAll(rows, columnDefinitions), false);
    }
 
    private void onIntervalSelected(Interval interval, ColumnDisplayDefinition[] columnDefinitions, JButton intervalButtonClicked)
@@ -357,12 +358,28 @@ public class OverviewCtrl implements LazyTabControllerCtrl
          _overviewHolder.doClickTracing(intervalButtonClicked);
 
          List<Object[]> rows = interval.getResultRows();
-         initScales(rows, columnDefinitions, false);
+         IndexedColumn[] indexedColumns = IndexedColumnFactory.createAllForInterval(getIndexedColumnsOfCurrentScaleTable(), interval, rows);
+         initScales(rows, columnDefinitions, indexedColumns, false);
       }
    }
 
+   private IndexedColumn[] getIndexedColumnsOfCurrentScaleTable()
+   {
+      DataScaleTableModel dataScaleTableModel = _overviewHolder.getDataScaleTable().getDataScaleTableModel();
+
+      IndexedColumn[] ret = new IndexedColumn[dataScaleTableModel.getDataScaleCount()];
+
+      for (int i = 0; i < dataScaleTableModel.getDataScaleCount(); i++)
+      {
+         DataScale dataScale = dataScaleTableModel.getDataScaleAt(i);
+         ret[dataScale.getColumnIx()] = dataScale.getIndexedColumn();
+      }
+
+      return ret;
+   }
+
 
-   private void initScales(List<Object[]> rows, final ColumnDisplayDefinition[] columnDefinitions, boolean keepFormerParent)
+   private void initScales(List<Object[]> rows, final ColumnDisplayDefinition[] columnDefinitions, IndexedColumn[] indexedColumns, boolean keepFormerParent)
    {
       CallDepthComboModel selectedCallDepth = (CallDepthComboModel) _overviewPanel.cboCallDepth.getSelectedItem();
 
@@ -405,7 +422,7 @@ public class OverviewCtrl implements LazyTabControllerCtrl
 
       for (int i = 0; i < columnDefinitions.length; i++)
       {
-         scales[i] = new ScaleFactory(rows, i, columnDefinitions[i], selectedCallDepth.getCallDepth()).createScale(dataScaleListener);
+         scales[i] = new ScaleFactory(indexedColumns[i], selectedCallDepth.getCallDepth()).createScale(dataScaleListener);
       }
 
       initScaleTable(scales, rows, columnDefinitions, keepFormerParent, selectedCallDepth);
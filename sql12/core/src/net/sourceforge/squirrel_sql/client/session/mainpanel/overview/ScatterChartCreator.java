@@ -24,8 +24,8 @@ public class ScatterChartCreator
       _title = "Scatter chart for x = " + xAxisDataScale.getColumnDisplayDefinition().getColumnName()
                + ", y = " + yAxisDataScale.getColumnDisplayDefinition().getColumnName();
 
-      ArrayList<Double> xValues = dataScaleTable.getDoubleValuesForColumn(xAxisDataScale.getColumnDisplayDefinition());
-      ArrayList<Double> yValues = dataScaleTable.getDoubleValuesForColumn(yAxisDataScale.getColumnDisplayDefinition());
+      double[] xValues = dataScaleTable.getDoubleValuesForColumn(xAxisDataScale.getColumnDisplayDefinition());
+      double[] yValues = dataScaleTable.getDoubleValuesForColumn(yAxisDataScale.getColumnDisplayDefinition());
 
       ArrayList<XYPair> pairs = XYPair.createSortedPairs(xValues, yValues);
 
@@ -41,8 +41,8 @@ class XYChartCreator
 
       DefaultXYDataset defaultXYDataset = new DefaultXYDataset();
 
-      ArrayList<Double> xValues = dataScaleTable.getDoubleValuesForColumn(xAxisDataScale.getColumnDisplayDefinition());
-      ArrayList<Double> yValues = dataScaleTable.getDoubleValuesForColumn(yAxisDataScale.getColumnDisplayDefinition());
+      double[] xValues = dataScaleTable.getDoubleValuesForColumn(xAxisDataScale.getColumnDisplayDefinition());
+      double[] yValues = dataScaleTable.getDoubleValuesForColumn(yAxisDataScale.getColumnDisplayDefinition());
 
       ArrayList<XYPair> pairs = XYPair.createSortedPairs(xValues, yValues);
 
@@ -1,25 +1,25 @@
 package net.sourceforge.squirrel_sql.client.session.mainpanel.overview;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 public class XYPair implements Comparable<XYPair>
 {
-   private final Double _x;
-   private Double _y;
+   private final double _x;
+   private double _y;
 
-   public XYPair(Double x, Double y)
+   public XYPair(double x, double y)
    {
       _x = x;
       _y = y;
    }
 
-   public Double getX()
+   public double getX()
    {
       return _x;
    }
 
-   public Double getY()
+   public double getY()
    {
       return _y;
    }
@@ -27,21 +27,21 @@ public class XYPair implements Comparable<XYPair>
    @Override
    public int compareTo(XYPair other)
    {
-      return _x.compareTo(other._x);
+      return Double.compare(_x, other._x);
    }
 
-   public static ArrayList<XYPair> createSortedPairs(ArrayList<Double> xValues, ArrayList<Double> yValues)
+   public static ArrayList<XYPair> createSortedPairs(double[] xValues, double[] yValues)
    {
-      ArrayList<XYPair> ret = new ArrayList<XYPair>();
+      XYPair[] buf = new XYPair[xValues.length];
 
-      for (int i = 0; i < xValues.size(); i++)
+      for (int i = 0; i < xValues.length; i++)
       {
-         ret.add(new XYPair(xValues.get(i), yValues.get(i)));
+         buf[i] = new XYPair(xValues[i], yValues[i]);
       }
 
-      Collections.sort(ret);
+      Arrays.parallelSort(buf);
 
-      return ret;
+      return new ArrayList<XYPair>(Arrays.asList(buf));
 
    }
 
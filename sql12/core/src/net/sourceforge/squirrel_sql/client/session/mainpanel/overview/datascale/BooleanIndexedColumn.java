@@ -8,35 +8,36 @@ import java.util.List;
 public class BooleanIndexedColumn extends IndexedColumn
 {
 
-   public BooleanIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   public BooleanIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       super(rows, colIx, colDef);
 
       Comparator comparator = new Comparator<Object>()
       {
          @Override
-         public int compare(Object ix1, Object ix2)
+         public int compare(Object noIx1, Object noIx2)
          {
-            if( ix1 instanceof NoIx && ix2 instanceof NoIx)
-            {
-               return compareBoolean(((NoIx) ix1).get(), ((NoIx) ix2).get());
-            }
-            else if(ix1 instanceof NoIx)
-            {
-               return compareBoolean(((NoIx) ix1).get(), getRow((Integer) ix2));
-            }
-            else if(ix2 instanceof NoIx)
-            {
-               return compareBoolean(getRow((Integer) ix1), ((NoIx) ix2).get());
-            }
-            else
-            {
-               return compareBoolean(getRow((Integer) ix1), getRow((Integer) ix2));
-            }
+            return compareBoolean(((NoIx) noIx1).get(), ((NoIx) noIx2).get());
          }
       };
 
-      sortIx(comparator);
+      long[] keys = new long[rows.size()];
+      boolean[] isNull = new boolean[rows.size()];
+
+      for (int i = 0; i < rows.size(); i++)
+      {
+         Boolean b = asBoolean(rows.get(i)[colIx]);
+         if(null == b)
+         {
+            isNull[i] = true;
+         }
+         else
+         {
+            keys[i] = b ? 1 : 0;
+         }
+      }
+
+      sortIx(comparator, (rowIx1, rowIx2) -> compareLongKeys(keys, isNull, rowIx1, rowIx2), presortedIx);
 
    }
 
@@ -15,9 +15,9 @@ import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableModel;
 import java.awt.Component;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class DataScaleTable extends SortableTable
 {
@@ -157,32 +157,16 @@ public class DataScaleTable extends SortableTable
       return _kidSimpleTable;
    }
 
-   public ArrayList<Double> getDoubleValuesForColumn(ColumnDisplayDefinition columnDisplayDefinition)
+   public double[] getDoubleValuesForColumn(ColumnDisplayDefinition columnDisplayDefinition)
    {
       for (int i = 0; i < _columnDefinitions.length; i++)
       {
          if(_columnDefinitions[i] == columnDisplayDefinition)
          {
-            ArrayList<Double> ret = new ArrayList<Double>();
-
-            for (Object[] row : _allRows)
-            {
-               double value = 0;
-
-               if (null != row[i])
-               {
-                  if (row[i] instanceof Date)
-                  {
-                     value = ((Date) row[i]).getTime();
-                  }
-                  else
-                  {
-                     value = ((Number) row[i]).doubleValue();
-                  }
-               }
-
-               ret.add(value);
-            }
+            final int colIx = i;
+            double[] ret = new double[_allRows.size()];
+
+            IntStream.range(0, ret.length).parallel().forEach(rowIx -> ret[rowIx] = toDouble(_allRows.get(rowIx)[colIx]));
 
             return ret;
          }
@@ -191,4 +175,20 @@ public class DataScaleTable extends SortableTable
 
       throw new IllegalArgumentException("Column not found " + columnDisplayDefinition.getColumnName());
    }
+
+   private static double toDouble(Object value)
+   {
+      if (null == value)
+      {
+         return 0;
+      }
+      else if (value instanceof Date)
+      {
+         return ((Date) value).getTime();
+      }
+      else
+      {
+         return ((Number) value).doubleValue();
+      }
+   }
 }
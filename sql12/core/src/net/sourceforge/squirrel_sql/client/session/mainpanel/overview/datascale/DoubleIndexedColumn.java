@@ -9,38 +9,41 @@ public class DoubleIndexedColumn extends IndexedColumn
 {
    private DoubleRange _doubleRange = new DoubleRange();
 
-   public DoubleIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   public DoubleIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       super(rows, colIx, colDef);
 
       Comparator comparator = new Comparator<Object>()
       {
          @Override
-         public int compare(Object ix1, Object ix2)
+         public int compare(Object noIx1, Object noIx2)
          {
-            if( ix1 instanceof NoIx && ix2 instanceof NoIx)
-            {
-               return compareDouble(((NoIx) ix1).get(), ((NoIx) ix2).get());
-            }
-            else if(ix1 instanceof NoIx)
-            {
-               return compareDouble(((NoIx) ix1).get(), getRow((Integer) ix2));
-            }
-            else if(ix2 instanceof NoIx)
-            {
-               return compareDouble(getRow((Integer) ix1), ((NoIx) ix2).get());
-            }
-            else
-            {
-               return compareDouble(getRow((Integer) ix1), getRow((Integer) ix2));
-            }
+            return compareDouble(((NoIx) noIx1).get(), ((NoIx) noIx2).get());
          }
       };
 
+      double[] keys = new double[rows.size()];
+      boolean[] isNull = new boolean[rows.size()];
+
       _doubleRange.beginInit();
-      sortIx(comparator);
+      for (int i = 0; i < rows.size(); i++)
+      {
+         Object o = rows.get(i)[colIx];
+         if(null == o)
+         {
+            isNull[i] = true;
+         }
+         else
+         {
+            double val = ((Number) o).doubleValue();
+            keys[i] = val;
+            _doubleRange.init(val);
+         }
+      }
       _doubleRange.endInit();
 
+      sortIx(comparator, (rowIx1, rowIx2) -> compareDoubleKeys(keys, isNull, rowIx1, rowIx2), presortedIx);
+
    }
 
 
@@ -59,9 +62,6 @@ public class DoubleIndexedColumn extends IndexedColumn
 
       }
 
-      _doubleRange.init(d1);
-      _doubleRange.init(d2);
-
       if(d1 == null && d2 != null)
       {
          return -1;
@@ -2,37 +2,146 @@ package net.sourceforge.squirrel_sql.client.session.mainpanel.overview.datascale
 
 import net.sourceforge.squirrel_sql.fw.datasetviewer.ColumnDisplayDefinition;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
+import net.sourceforge.squirrel_sql.fw.util.IndexMergeSort;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
 public abstract class IndexedColumn
 {
-   private ArrayList<Integer> _ix;
+   /**
+    * Compares two rows by the typed sort keys a subclass extracted from its column.
+    * Large columns are sorted in parallel, thus it must be safe to be called from several threads, see {@link IndexMergeSort}.
+    */
+   protected interface RowKeyComparator
+   {
+      int compare(int rowIx1, int rowIx2);
+   }
+
+   private int[] _ix;
    private List<Object[]> _rows;
    private int _colIx;
    private ColumnDisplayDefinition _colDef;
    private Comparator _comparator;
 
+   /**
+    * Ascending indexes into _ix where a new distinct value begins.
+    * Its length is the number of distinct values of the column.
+    */
+   private int[] _valueStarts;
+
    public IndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
    {
       _rows = rows;
       _colIx = colIx;
       _colDef = colDef;
-      _ix = new ArrayList<Integer>(rows.size());
+   }
+
+   /**
+    * @param comparator Compares {@link NoIx} wrapped values. Used to search and sort values that are not rows of this column.
+    * @param rowKeyComparator Must sort the rows in the same order as comparator sorts their values.
+    * @param presortedIx When not null the rows are already sorted by rowKeyComparator in this order, see {@link #createSortedIxForInterval(Interval)}.
+    */
+   protected void sortIx(Comparator comparator, RowKeyComparator rowKeyComparator, int[] presortedIx)
+   {
+      _comparator = comparator;
 
-      for (int i = 0; i < rows.size(); i++)
+      if (null != presortedIx)
       {
-         _ix.add(i);
+         _ix = presortedIx;
       }
+      else
+      {
+         _ix = new int[_rows.size()];
+         for (int i = 0; i < _ix.length; i++)
+         {
+            _ix[i] = i;
+         }
+
+         IndexMergeSort.sort(_ix, rowKeyComparator::compare);
+      }
+
+      _valueStarts = findValueStarts(rowKeyComparator);
    }
 
-   protected void sortIx(Comparator comparator)
+   private int[] findValueStarts(RowKeyComparator rowKeyComparator)
    {
-      _comparator = comparator;
-      Collections.sort(_ix, _comparator);
+      if(0 == _ix.length)
+      {
+         return new int[0];
+      }
+
+      int[] buf = new int[_ix.length];
+      int count = 1;
+
+      // buf[0] == 0: The first value begins at the first index.
+      for (int i = 1; i < _ix.length; i++)
+      {
+         if(0 != rowKeyComparator.compare(_ix[i - 1], _ix[i]))
+         {
+            buf[count++] = i;
+         }
+      }
+
+      return Arrays.copyOf(buf, count);
+   }
+
+   protected static int compareLongKeys(long[] keys, boolean[] isNull, int rowIx1, int rowIx2)
+   {
+      int res = compareNulls(isNull[rowIx1], isNull[rowIx2]);
+
+      if(0 != res || isNull[rowIx1])
+      {
+         return res;
+      }
+
+      return Long.compare(keys[rowIx1], keys[rowIx2]);
+   }
+
+   protected static int compareDoubleKeys(double[] keys, boolean[] isNull, int rowIx1, int rowIx2)
+   {
+      int res = compareNulls(isNull[rowIx1], isNull[rowIx2]);
+
+      if(0 != res || isNull[rowIx1])
+      {
+         return res;
+      }
+
+      return Double.compare(keys[rowIx1], keys[rowIx2]);
+   }
+
+   protected static int compareStringKeys(String[] keys, int rowIx1, int rowIx2)
+   {
+      String s1 = keys[rowIx1];
+      String s2 = keys[rowIx2];
+
+      int res = compareNulls(null == s1, null == s2);
+
+      if(0 != res || null == s1)
+      {
+         return res;
+      }
+
+      return s1.compareTo(s2);
+   }
+
+   /**
+    * Nulls come first.
+    */
+   private static int compareNulls(boolean isNull1, boolean isNull2)
+   {
+      if(isNull1 && false == isNull2)
+      {
+         return -1;
+      }
+      else if(false == isNull1 && isNull2)
+      {
+         return 1;
+      }
+
+      return 0;
    }
 
    public int getColumnIndex()
@@ -42,24 +151,51 @@ public abstract class IndexedColumn
 
    public Object get(int ix)
    {
-      return _rows.get(_ix.get(ix))[_colIx];
+      return _rows.get(_ix[ix])[_colIx];
    }
 
-   public Object getRow(Integer rowIx)
+   public Object getRow(int rowIx)
    {
       return _rows.get(rowIx)[_colIx];
    }
 
    public int getRowIx(int ix)
    {
-      return _ix.get(ix);
+      return _ix[ix];
    }
 
 
 
+   /**
+    * Works like {@link java.util.Collections#binarySearch(List, Object, Comparator)}
+    */
    public int binarySearch(Object border)
    {
-      return Collections.binarySearch(_ix, new NoIx(border), _comparator);
+      NoIx key = new NoIx(border);
+
+      int low = 0;
+      int high = _ix.length - 1;
+
+      while (low <= high)
+      {
+         int mid = (low + high) >>> 1;
+         int res = _comparator.compare(new NoIx(get(mid)), key);
+
+         if (res < 0)
+         {
+            low = mid + 1;
+         }
+         else if (res > 0)
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            return mid;
+         }
+      }
+
+      return -(low + 1);
    }
 
    public String getColumnName()
@@ -69,47 +205,66 @@ public abstract class IndexedColumn
 
    public Object getMin()
    {
-      return _rows.get(_ix.get(0))[_colIx];
+      return get(0);
    }
 
    public Object getMax()
    {
-      return _rows.get(_ix.get(_ix.size() - 1))[_colIx];
+      return get(_ix.length - 1);
    }
 
    public int size()
    {
-      return _ix.size();
+      return _ix.length;
    }
 
    public int getLastIndexOfVal(int startIx)
    {
-      int ret = startIx;
+      int nextValueStartsIx = upperBoundOfValueStarts(startIx);
 
-      for (int i = startIx + 1; i < _ix.size(); i++)
+      if(nextValueStartsIx < _valueStarts.length)
       {
-         if(0 != _comparator.compare(new NoIx(get(startIx)), new NoIx(get(i))) )
-         {
-            break;
-         }
-
-         ++ret;
+         return _valueStarts[nextValueStartsIx] - 1;
       }
 
-      return ret;
+      return _ix.length - 1;
    }
 
    public int getFirstIndexOfVal(int startIx)
    {
-      for (int i = startIx - 1; 0 <= i ; i--)
+      int valueStart = _valueStarts[upperBoundOfValueStarts(startIx) - 1];
+
+      if(0 < valueStart)
       {
-         if(0 != _comparator.compare(new NoIx(get(startIx)), new NoIx(get(i))) )
+         return valueStart - 1;
+      }
+
+      return 0;
+   }
+
+   /**
+    * @return The index of the first entry in _valueStarts that is greater than ix.
+    */
+   private int upperBoundOfValueStarts(int ix)
+   {
+      int low = 0;
+      int high = _valueStarts.length;
+
+      while (low < high)
+      {
+         int mid = (low + high) >>> 1;
+
+         if(_valueStarts[mid] <= ix)
+         {
+            low = mid + 1;
+         }
+         else
          {
-            return i;
+            high = mid;
          }
       }
 
-      return 0;
+      return low;
    }
 
 
@@ -138,39 +293,56 @@ public abstract class IndexedColumn
 
       for(int i= firstIx; i <= lastIx; ++i)
       {
-         ret.add(_rows.get(_ix.get(i)));
+         ret.add(_rows.get(_ix[i]));
       }
 
       return ret;
    }
 
-   public ColumnDisplayDefinition getColumnDisplayDefinition()
+   /**
+    * The rows of an interval of any column of this column's rows are a subset of this column's rows.
+    * Filtering this column's index keeps them sorted. So there is no need to sort them again.
+    *
+    * @return The sorted index into {@link Interval#getResultRows()} or null if interval doesn't belong to this column's rows.
+    */
+   int[] createSortedIxForInterval(Interval interval)
    {
-      return _colDef;
-   }
+      if(interval.getIndexedColumn()._rows != _rows)
+      {
+         return null;
+      }
 
-   public abstract String calculateDist(Object beginData, Object endData);
+      int[] intervalIxByRowIx = interval.getIntervalIxByDataSetRowIx();
 
-   public int countDistinctValsForInterval(int firstIx, int lastIx)
-   {
-      int count = 1;
-      int firstIxOfCurrentValue = getRowIx(firstIx);
+      int[] ret = new int[interval.getLen()];
+      int count = 0;
 
-      // We assume that values returned by get(i) are sorted.
-      for(int i=firstIx; i <= lastIx; ++i)
+      for (int rowIx : _ix)
       {
-         if(0 != _comparator.compare(firstIxOfCurrentValue, getRowIx(i)))
+         int intervalIx = intervalIxByRowIx[rowIx];
+         if(0 <= intervalIx)
          {
-            ++count;
-            firstIxOfCurrentValue = getRowIx(i);
+            ret[count++] = intervalIx;
          }
       }
 
-      return count;
+      return ret;
+   }
+
+   public ColumnDisplayDefinition getColumnDisplayDefinition()
+   {
+      return _colDef;
+   }
+
+   public abstract String calculateDist(Object beginData, Object endData);
+
+   public int countDistinctValsForInterval(int firstIx, int lastIx)
+   {
+      return upperBoundOfValueStarts(lastIx) - upperBoundOfValueStarts(firstIx) + 1;
    }
 
    public int countDistinctValsForColumn()
    {
-      return countDistinctValsForInterval(0, _ix.size() - 1);
+      return _valueStarts.length;
    }
 }
@@ -4,35 +4,66 @@ import net.sourceforge.squirrel_sql.fw.datasetviewer.ColumnDisplayDefinition;
 
 import java.sql.Types;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class IndexedColumnFactory
 {
    static IndexedColumn create(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   {
+      return create(rows, colIx, colDef, null);
+   }
+
+   /**
+    * Sorting is the expensive part of building an overview. So the columns are created in parallel.
+    */
+   public static IndexedColumn[] createAll(List<Object[]> rows, ColumnDisplayDefinition[] columnDefinitions)
+   {
+      IndexedColumn[] ret = new IndexedColumn[columnDefinitions.length];
+      IntStream.range(0, ret.length).parallel().forEach(i -> ret[i] = create(rows, i, columnDefinitions[i]));
+      return ret;
+   }
+
+   /**
+    * Creates the columns for the rows of an interval that was selected to drill down.
+    * The rows of the interval are a subset of the rows of the parent columns.
+    * So the columns reuse the sort order of their parent columns instead of sorting again.
+    *
+    * @param parentColumns The columns of the data scale table the interval belongs to, by column index.
+    * @param intervalRows The result of {@link Interval#getResultRows()}.
+    */
+   public static IndexedColumn[] createAllForInterval(IndexedColumn[] parentColumns, Interval interval, List<Object[]> intervalRows)
+   {
+      IndexedColumn[] ret = new IndexedColumn[parentColumns.length];
+      IntStream.range(0, ret.length).parallel().forEach(i -> ret[i] = create(intervalRows, i, parentColumns[i].getColumnDisplayDefinition(), parentColumns[i].createSortedIxForInterval(interval)));
+      return ret;
+   }
+
+   private static IndexedColumn create(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       switch(colDef.getSqlType())
       {
          case Types.INTEGER:
          case Types.BIGINT:
          case Types.SMALLINT:
-            return new IntegerIndexedColumn(rows, colIx,colDef);
+            return new IntegerIndexedColumn(rows, colIx, colDef, presortedIx);
 
          case Types.DOUBLE:
          case Types.DECIMAL:
          case Types.FLOAT:
          case Types.NUMERIC:
-            return new DoubleIndexedColumn(rows, colIx,colDef);
+            return new DoubleIndexedColumn(rows, colIx, colDef, presortedIx);
 
          case Types.TIME:
          case Types.TIMESTAMP:
          case Types.DATE:
-            return new TimestampIndexedColumn(rows, colIx,colDef);
+            return new TimestampIndexedColumn(rows, colIx, colDef, presortedIx);
 
          case Types.BIT:
          case Types.BOOLEAN:
-            return new BooleanIndexedColumn(rows, colIx,colDef);
+            return new BooleanIndexedColumn(rows, colIx, colDef, presortedIx);
 
          default:
-            return new StringIndexedColumn(rows, colIx,colDef);
+            return new StringIndexedColumn(rows, colIx, colDef, presortedIx);
       }
    }
 
@@ -9,38 +9,41 @@ public class IntegerIndexedColumn extends IndexedColumn
 {
    private IntegerRange _intRange = new IntegerRange();
 
-   public IntegerIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   public IntegerIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       super(rows, colIx, colDef);
 
       Comparator comparator = new Comparator<Object>()
       {
          @Override
-         public int compare(Object ix1, Object ix2)
+         public int compare(Object noIx1, Object noIx2)
          {
-            if( ix1 instanceof NoIx && ix2 instanceof NoIx)
-            {
-               return compareInteger(((NoIx) ix1).get(), ((NoIx) ix2).get());
-            }
-            else if(ix1 instanceof NoIx)
-            {
-               return compareInteger(((NoIx) ix1).get(), getRow((Integer) ix2));
-            }
-            else if(ix2 instanceof NoIx)
-            {
-               return compareInteger(getRow((Integer) ix1), ((NoIx) ix2).get());
-            }
-            else
-            {
-               return compareInteger(getRow((Integer) ix1), getRow((Integer) ix2));
-            }
+            return compareInteger(((NoIx) noIx1).get(), ((NoIx) noIx2).get());
          }
       };
 
+      long[] keys = new long[rows.size()];
+      boolean[] isNull = new boolean[rows.size()];
+
       _intRange.beginInit();
-      sortIx(comparator);
+      for (int i = 0; i < rows.size(); i++)
+      {
+         Object o = rows.get(i)[colIx];
+         if(null == o)
+         {
+            isNull[i] = true;
+         }
+         else
+         {
+            int val = ((Number) o).intValue();
+            keys[i] = val;
+            _intRange.init(val);
+         }
+      }
       _intRange.endInit();
 
+      sortIx(comparator, (rowIx1, rowIx2) -> compareLongKeys(keys, isNull, rowIx1, rowIx2), presortedIx);
+
 
    }
 
@@ -59,9 +62,6 @@ public class IntegerIndexedColumn extends IndexedColumn
          i2 = ((Number)o2).intValue();
       }
 
-      _intRange.init(i1);
-      _intRange.init(i2);
-
       if(i1 == null && i2 != null)
       {
          return -1;
@@ -2,6 +2,7 @@ package net.sourceforge.squirrel_sql.client.session.mainpanel.overview.datascale
 
 import net.sourceforge.squirrel_sql.fw.util.Utilities;
 
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -19,6 +20,8 @@ public class Interval
    private final String _tooltipBig;
    private String _report;
 
+   private int[] _intervalIxByDataSetRowIx;
+
    public Interval(IndexedColumn indexedColumn, int firstIx, int lastIx, Object beginData, Object endData)
    {
       _indexedColumn = indexedColumn;
@@ -195,6 +198,27 @@ public class Interval
       return _indexedColumn.getResultRows(_firstIx, _lastIx);
    }
 
+   /**
+    * @return For each data set row index the index of the row in {@link #getResultRows()} or -1 if the row is not in this interval.
+    */
+   synchronized int[] getIntervalIxByDataSetRowIx()
+   {
+      if(null == _intervalIxByDataSetRowIx)
+      {
+         int[] buf = new int[_indexedColumn.size()];
+         Arrays.fill(buf, -1);
+
+         for (int i = 0; i < getLen(); i++)
+         {
+            buf[getDataSetRowIndex(i)] = i;
+         }
+
+         _intervalIxByDataSetRowIx = buf;
+      }
+
+      return _intervalIxByDataSetRowIx;
+   }
+
    public boolean containsAllRows()
    {
       return getLen() == _indexedColumn.size();
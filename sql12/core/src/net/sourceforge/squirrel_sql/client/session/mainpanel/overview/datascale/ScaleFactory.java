@@ -17,7 +17,15 @@ public class ScaleFactory
 
    public ScaleFactory(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int callDepth)
    {
-      _indexedColumn = IndexedColumnFactory.create(rows, colIx, colDef);
+      this(IndexedColumnFactory.create(rows, colIx, colDef), callDepth);
+   }
+
+   /**
+    * Reuses an existing column. Its rows are not sorted again.
+    */
+   public ScaleFactory(IndexedColumn indexedColumn, int callDepth)
+   {
+      _indexedColumn = indexedColumn;
       _callDepth = callDepth;
    }
 
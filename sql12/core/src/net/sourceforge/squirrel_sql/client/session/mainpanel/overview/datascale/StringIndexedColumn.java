@@ -13,38 +13,35 @@ public class StringIndexedColumn extends IndexedColumn
 {
    private CharRange _charRange = new CharRange();
 
-   public StringIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   public StringIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       super(rows, colIx, colDef);
 
       Comparator comparator = new Comparator<Object>()
       {
          @Override
-         public int compare(Object ix1, Object ix2)
+         public int compare(Object noIx1, Object noIx2)
          {
-            if( ix1 instanceof NoIx && ix2 instanceof NoIx)
-            {
-               return compareString(((NoIx) ix1).get(), ((NoIx) ix2).get());
-            }
-            else if(ix1 instanceof NoIx)
-            {
-               return compareString(((NoIx) ix1).get(), getRow((Integer) ix2));
-            }
-            else if(ix2 instanceof NoIx)
-            {
-               return compareString(getRow((Integer) ix1), ((NoIx) ix2).get());
-            }
-            else
-            {
-               return compareString(getRow((Integer) ix1), getRow((Integer) ix2));
-            }
+            return compareString(((NoIx) noIx1).get(), ((NoIx) noIx2).get());
          }
       };
 
+      String[] keys = new String[rows.size()];
+
       _charRange.beginInit();
-      sortIx(comparator);
+      for (int i = 0; i < rows.size(); i++)
+      {
+         Object o = rows.get(i)[colIx];
+         if(null != o)
+         {
+            keys[i] = o.toString();
+         }
+         _charRange.init(keys[i]);
+      }
       _charRange.endInit();
 
+      sortIx(comparator, (rowIx1, rowIx2) -> compareStringKeys(keys, rowIx1, rowIx2), presortedIx);
+
    }
 
    private int compareString(Object o1, Object o2)
@@ -61,9 +58,6 @@ public class StringIndexedColumn extends IndexedColumn
          s2 = o2.toString();
       }
 
-      _charRange.init(s1);
-      _charRange.init(s2);
-
       if(s1 == null && s2 != null)
       {
          return -1;
@@ -11,38 +11,41 @@ public class TimestampIndexedColumn extends IndexedColumn
 {
    private LongRange _longRange = new LongRange();
 
-   public TimestampIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef)
+   public TimestampIndexedColumn(List<Object[]> rows, int colIx, ColumnDisplayDefinition colDef, int[] presortedIx)
    {
       super(rows, colIx, colDef);
 
       Comparator comparator = new Comparator<Object>()
       {
          @Override
-         public int compare(Object ix1, Object ix2)
+         public int compare(Object noIx1, Object noIx2)
          {
-            if( ix1 instanceof NoIx && ix2 instanceof NoIx)
-            {
-               return compareUtilDate(((NoIx) ix1).get(), ((NoIx) ix2).get());
-            }
-            else if(ix1 instanceof NoIx)
-            {
-               return compareUtilDate(((NoIx) ix1).get(), getRow((Integer) ix2));
-            }
-            else if(ix2 instanceof NoIx)
-            {
-               return compareUtilDate(getRow((Integer) ix1), ((NoIx) ix2).get());
-            }
-            else
-            {
-               return compareUtilDate(getRow((Integer) ix1), getRow((Integer) ix2));
-            }
+            return compareUtilDate(((NoIx) noIx1).get(), ((NoIx) noIx2).get());
          }
       };
 
+      long[] keys = new long[rows.size()];
+      boolean[] isNull = new boolean[rows.size()];
+
       _longRange.beginInit();
-      sortIx(comparator);
+      for (int i = 0; i < rows.size(); i++)
+      {
+         Object o = rows.get(i)[colIx];
+         if(null == o)
+         {
+            isNull[i] = true;
+         }
+         else
+         {
+            long val = ((Date) o).getTime();
+            keys[i] = val;
+            _longRange.init(val);
+         }
+      }
       _longRange.endInit();
 
+      sortIx(comparator, (rowIx1, rowIx2) -> compareLongKeys(keys, isNull, rowIx1, rowIx2), presortedIx);
+
    }
 
 
@@ -60,8 +63,6 @@ public class TimestampIndexedColumn extends IndexedColumn
          t2 = ((Date)o2).getTime();
       }
 
-      _longRange.init(t1);
-      _longRange.init(t2);
 
 
       if(t1 == null && t2 != null)
@@ -4,6 +4,7 @@ import net.sourceforge.squirrel_sql.client.session.DataModelImplementationDetail
 import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.mainpanel.lazyresulttab.LazyTabControllerCtrl;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.*;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowList;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.tablefind.DataSetViewerFindHandler;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
@@ -48,7 +49,8 @@ public class RotatedTableCtrl implements LazyTabControllerCtrl
       try
       {
 
-         int rowCount = rsds.getAllDataForReadOnly().size();
+         RowList rows = rsds.getAllDataForReadOnly();
+         int rowCount = rows.size();
 
          ColumnDisplayDefinition rotatedColDefs[] = new ColumnDisplayDefinition[rowCount + 1];
 
@@ -70,18 +72,18 @@ public class RotatedTableCtrl implements LazyTabControllerCtrl
 
             for (int j = 0; j < rowCount; j++)
             {
-               Object[] row = rsds.getAllDataForReadOnly().get(j);
+               Object cell = rows.getValueAt(j, i);
 
-               if (row[i] instanceof Byte[] || row[i] instanceof byte[])
+               if (cell instanceof Byte[] || cell instanceof byte[])
                {
                   Byte[] cellObjBytes;
-                  if (row[i] instanceof Byte[])
+                  if (cell instanceof Byte[])
                   {
-                     cellObjBytes = (Byte[]) row[i];
+                     cellObjBytes = (Byte[]) cell;
                   }
                   else
                   {
-                     byte[] cellObjBytesPrimitives = (byte[]) row[i];
+                     byte[] cellObjBytesPrimitives = (byte[]) cell;
                      cellObjBytes = new Byte[cellObjBytesPrimitives.length];
                      int k = 0;
                      for (byte b : cellObjBytesPrimitives)
@@ -104,7 +106,7 @@ public class RotatedTableCtrl implements LazyTabControllerCtrl
                }
                else
                {
-                  rotatedRow[j + 1] = row[i];
+                  rotatedRow[j + 1] = cell;
                }
             }
 
@@ -24,10 +24,15 @@ class SQLPropertiesPanel extends JPanel
    private JCheckBox _abortOnErrorChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.abortonerror"));
    private JCheckBox _showSQLErrorsInTabChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.showSQLErrorsInTab"));
    private JCheckBox _writeSQLErrorsToLogChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.writesqlerrorstolog"));
+   private JCheckBox _sqlBatchExecutionChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.sqlBatchExecution"));
+   private IntegerField _sqlBatchSizeField = new IntegerField(5, 1);
    private JCheckBox _loadColumsInBackgroundChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.loadColumsInBackground"));
+   private JCheckBox _refreshSchemaInfoIncrementallyChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.refreshSchemaInfoIncrementally"));
 
    private IntegerField _metaDataLoadingTimeOutTxt = new IntegerField(8, 0);
    private IntegerField _queryConnectionPoolSizeTxt = new IntegerField(3, 0);
+   private JCheckBox _loadSchemaInfoInParallelChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.loadSchemaInfoInParallel"));
+   private JCheckBox _executeSelectsInParallelChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.executeSelectsInParallel"));
 
    private JCheckBox _autoCommitChk = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.autocommit"));
    private JCheckBox _commitOnClose = new JCheckBox(s_stringMgr.getString("SessionSQLPropertiesPanel.commitonclose"));
@@ -78,9 +83,14 @@ class SQLPropertiesPanel extends JPanel
       _abortOnErrorChk.setSelected(props.getAbortOnError());
       _showSQLErrorsInTabChk.setSelected(props.getShowSQLErrorsInTab());
       _writeSQLErrorsToLogChk.setSelected(props.getWriteSQLErrorsToLog());
+      _sqlBatchExecutionChk.setSelected(props.getSQLBatchExecution());
+      _sqlBatchSizeField.setInt(props.getSQLBatchSize());
       _loadColumsInBackgroundChk.setSelected(props.getLoadColumnsInBackground());
+      _refreshSchemaInfoIncrementallyChk.setSelected(props.getRefreshSchemaInfoIncrementally());
       _metaDataLoadingTimeOutTxt.setInt((int)props.getMetaDataLoadingTimeOut());
       _queryConnectionPoolSizeTxt.setInt(props.getQueryConnectionPoolSize());
+      _loadSchemaInfoInParallelChk.setSelected(props.getLoadSchemaInfoInParallel());
+      _executeSelectsInParallelChk.setSelected(props.getExecuteSelectsInParallel());
 
       _autoCommitChk.setSelected(props.getAutoCommit());
       _commitOnClose.setSelected(props.getCommitOnClosingConnection());
@@ -168,9 +178,17 @@ class SQLPropertiesPanel extends JPanel
       props.setAbortOnError(_abortOnErrorChk.isSelected());
       props.setShowSQLErrorsInTab(_showSQLErrorsInTabChk.isSelected());
       props.setWriteSQLErrorsToLog(_writeSQLErrorsToLogChk.isSelected());
+      props.setSQLBatchExecution(_sqlBatchExecutionChk.isSelected());
+      if (0 < _sqlBatchSizeField.getInt())
+      {
+         props.setSQLBatchSize(_sqlBatchSizeField.getInt());
+      }
       props.setLoadColumnsInBackground(_loadColumsInBackgroundChk.isSelected());
+      props.setRefreshSchemaInfoIncrementally(_refreshSchemaInfoIncrementallyChk.isSelected());
       props.setMetaDataLoadingTimeOut(_metaDataLoadingTimeOutTxt.getInt());
       props.setQueryConnectionPoolSize(_queryConnectionPoolSizeTxt.getInt());
+      props.setLoadSchemaInfoInParallel(_loadSchemaInfoInParallelChk.isSelected());
+      props.setExecuteSelectsInParallel(_executeSelectsInParallelChk.isSelected());
       props.setAutoCommit(_autoCommitChk.isSelected());
       props.setCommitOnClosingConnection(_commitOnClose.isSelected());
 
@@ -218,6 +236,8 @@ class SQLPropertiesPanel extends JPanel
 
       _limitSQLResultTabsField.setEnabled(_limitSQLResultTabsChk.isSelected());
 
+      _sqlBatchSizeField.setEnabled(_sqlBatchExecutionChk.isSelected());
+
       // If this session doesn't share SQL history with other sessions
       // then disable the controls that relate to SQL History.
       final boolean shareSQLHistory = _shareSQLHistoryChk.isSelected();
@@ -319,6 +339,19 @@ class SQLPropertiesPanel extends JPanel
       gbc.gridwidth = GridBagConstraints.REMAINDER;
       pnl.add(_writeSQLErrorsToLogChk, gbc);
 
+      _sqlBatchExecutionChk.addChangeListener(_controlMediator);
+      _sqlBatchSizeField.setColumns(5);
+
+      ++gbc.gridy; // new line
+      gbc.gridx = 0;
+      gbc.gridwidth = 2;
+      pnl.add(_sqlBatchExecutionChk, gbc);
+      gbc.gridwidth = 1;
+      gbc.gridx += 2;
+      pnl.add(_sqlBatchSizeField, gbc);
+      ++gbc.gridx;
+      gbc.gridwidth = GridBagConstraints.REMAINDER;
+      pnl.add(new JLabel(s_stringMgr.getString("SessionSQLPropertiesPanel.sqlBatchSize")), gbc);
 
       ++gbc.gridy; // new line
       gbc.gridx = 0;
@@ -388,6 +421,12 @@ class SQLPropertiesPanel extends JPanel
       gbc = new GridBagConstraints(1, 1, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 5, 0, 0), 0, 0);
       queryConnectionPool.add(_queryConnectionPoolSizeTxt, gbc);
 
+      gbc = new GridBagConstraints(0, 2, 2, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(5, 0, 0, 0), 0, 0);
+      queryConnectionPool.add(_loadSchemaInfoInParallelChk, gbc);
+
+      gbc = new GridBagConstraints(0, 3, 2, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(5, 0, 0, 0), 0, 0);
+      queryConnectionPool.add(_executeSelectsInParallelChk, gbc);
+
       queryConnectionPool.setBorder(BorderFactory.createTitledBorder(s_stringMgr.getString("SessionSQLPropertiesPanel.queryConnectionPool")));
 
       gbc = new GridBagConstraints(0, 0, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(5, 0, 5, 0), 0, 0);
@@ -405,6 +444,9 @@ class SQLPropertiesPanel extends JPanel
       gbc = new GridBagConstraints(0, 1, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
       columnLoading.add(_loadColumsInBackgroundChk, gbc);
 
+      gbc = new GridBagConstraints(0, 2, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(5, 0, 0, 0), 0, 0);
+      columnLoading.add(_refreshSchemaInfoIncrementallyChk, gbc);
+
       columnLoading.setBorder(BorderFactory.createTitledBorder(s_stringMgr.getString("SessionSQLPropertiesPanel.columnLoading")));
 
       gbc = new GridBagConstraints(0, 1, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.BOTH, new Insets(0, 0, 5, 0), 0, 0);
@@ -173,6 +173,8 @@ public class SessionObjectTreePropertiesPanel
 		private IntegerField _contentsNbrRowsToShowField = new IntegerField(5);
 		private JCheckBox _contentsLimitRowsChk = new JCheckBox(i18n.LIMIT_ROWS_CONTENTS);
 		private JCheckBox _showRowCountChk = new JCheckBox(i18n.SHOW_ROW_COUNT);
+		private JCheckBox _cacheContentsResultsChk = new JCheckBox(s_stringMgr.getString("sessionPropertiesPanel.cacheContentsResults"));
+		private JCheckBox _contentsPagingChk = new JCheckBox(s_stringMgr.getString("sessionPropertiesPanel.contentsPaging"));
       private JTextField _catalogFilterInclude = new JTextField();
       private JTextField _catalogFilterExclude = new JTextField();
 		private JTextField _schemaFilterInclude = new JTextField();
@@ -201,6 +203,8 @@ public class SessionObjectTreePropertiesPanel
 		{
 			_contentsNbrRowsToShowField.setInt(props.getContentsNbrRowsToShow());
 			_contentsLimitRowsChk.setSelected(props.getContentsLimitRows());
+			_cacheContentsResultsChk.setSelected(props.getCacheContentsResults());
+			_contentsPagingChk.setSelected(props.getContentsPaging());
 			_showRowCountChk.setSelected(props.getShowRowCount());
 			_loadSchemasCatalogsChk.setSelected(props.getLoadSchemasCatalogs());
 			_loadConnectionsCurrentCatalogOnlyChk.setSelected(props.getLoadConnectionsCurrentCatalogOnly());
@@ -220,6 +224,8 @@ public class SessionObjectTreePropertiesPanel
 		{
 			props.setContentsNbrRowsToShow(_contentsNbrRowsToShowField.getInt());
 			props.setContentsLimitRows(_contentsLimitRowsChk.isSelected());
+			props.setCacheContentsResults(_cacheContentsResultsChk.isSelected());
+			props.setContentsPaging(_contentsPagingChk.isSelected());
 
          final boolean oldShowRowCount = props.getShowRowCount();
          final boolean newShowRowCount = _showRowCountChk.isSelected();
@@ -339,6 +345,14 @@ public class SessionObjectTreePropertiesPanel
 			// i18n[generalPropertiesPanel.rows=rows]
 			pnl.add(new JLabel(s_stringMgr.getString("generalPropertiesPanel.rows")), gbc);
 
+			++gbc.gridy; // new line
+			gbc.gridx = 0;
+			gbc.gridwidth = GridBagConstraints.REMAINDER;
+			pnl.add(_cacheContentsResultsChk, gbc);
+
+			++gbc.gridy; // new line
+			pnl.add(_contentsPagingChk, gbc);
+
 			return pnl;
 		}
 		private JPanel createFilterPanel()
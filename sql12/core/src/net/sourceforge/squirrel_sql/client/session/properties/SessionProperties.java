@@ -56,6 +56,9 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       String LOAD_COLUMNS_IN_BACKGROUND = "loadColumnsInBackground";
       String META_DATA_LOADING_TIME_OUT = "timeOutMetaDataLoading";
       String QUERY_CONNECTION_POOL_SIZE = "queryConnectionPoolSize";
+      String LOAD_SCHEMA_INFO_IN_PARALLEL = "loadSchemaInfoInParallel";
+      String EXECUTE_SELECTS_IN_PARALLEL = "executeSelectsInParallel";
+      String REFRESH_SCHEMA_INFO_INCREMENTALLY = "refreshSchemaInfoIncrementally";
       String AUTO_COMMIT = "autoCommit";
 
       String CATALOG_FILTER_INCLUDE = "catalogFilterInclude";
@@ -82,6 +85,8 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       String SQL_ENTRY_HISTORY_SIZE = "sqlEntryHistorySize";
       String SHOW_RESULTS_META_DATA = "showResultsMetaData";
       String SHOW_ROW_COUNT = "showRowCount";
+      String CACHE_CONTENTS_RESULTS = "cacheContentsResults";
+      String CONTENTS_PAGING = "contentsPaging";
       String SHOW_TOOL_BAR = "showToolBar";
       String SQL_SHARE_HISTORY = "sqlShareHistory";
       String SQL_EXECUTION_TAB_PLACEMENT = "sqlExecutionTabPlacement";
@@ -106,6 +111,8 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       String NULL_VALUE_COLOR_RGB = "nullValueColorRGB";
       String COLOR_NULL_VALUES = "colorNullValues";
       String SORT_NULLS_AS_HIGHEST_VALUE = "sortNullsAsHighestValue";
+      String SQL_BATCH_EXECUTION = "sqlBatchExecution";
+      String SQL_BATCH_SIZE = "sqlBatchSize";
    }
 
    private static final FontInfo DEFAULT_FONT_INFO = new FontInfo(new Font("Monospaced", 0, 12));
@@ -185,6 +192,16 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
     */
    private boolean _showRowCount = false;
 
+   /**
+    * @see net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache
+    */
+   private boolean _cacheContentsResults = false;
+
+   /**
+    * @see net.sourceforge.squirrel_sql.client.session.mainpanel.objecttree.tabs.table.ContentsPager
+    */
+   private boolean _contentsPaging = false;
+
    /** <TT>true</TT> if toolbar should be shown. */
    private boolean _showToolbar = true;
 
@@ -266,6 +283,21 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
    private long _useMetaDataLoadingTimeOut;
    private int _queryConnectionPoolSize;
 
+   /**
+    * @see net.sourceforge.squirrel_sql.client.session.schemainfo.ParallelSchemaInfoLoader
+    */
+   private boolean _loadSchemaInfoInParallel;
+
+   /**
+    * @see net.sourceforge.squirrel_sql.client.session.ParallelSelectExecution
+    */
+   private boolean _executeSelectsInParallel;
+
+   /**
+    * @see net.sourceforge.squirrel_sql.client.session.schemainfo.IncrementalSchemaInfoRefresher
+    */
+   private boolean _refreshSchemaInfoIncrementally;
+
    private boolean _keepTableLayoutOnRerun = true;
    private boolean _showRowNumberInTextLayout;
 
@@ -297,6 +329,16 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
 
    private boolean _sortNullsAsHighestValue = true;
 
+   /**
+    * If <TT>true</TT> consecutive DML statements of a script are executed as JDBC batches.
+    */
+   private boolean _sqlBatchExecution = false;
+
+   /**
+    * Maximum number of statements per JDBC batch.
+    */
+   private int _sqlBatchSize = 1000;
+
    public SessionProperties()
    {
    }
@@ -546,6 +588,48 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       }
    }
 
+   public boolean getExecuteSelectsInParallel()
+   {
+      return _executeSelectsInParallel;
+   }
+
+   public void setExecuteSelectsInParallel(boolean value)
+   {
+      if (_executeSelectsInParallel != value)
+      {
+         _executeSelectsInParallel = value;
+         getPropertyChangeReporter().firePropertyChange(IPropertyNames.EXECUTE_SELECTS_IN_PARALLEL, !_executeSelectsInParallel, _executeSelectsInParallel);
+      }
+   }
+
+   public boolean getLoadSchemaInfoInParallel()
+   {
+      return _loadSchemaInfoInParallel;
+   }
+
+   public void setLoadSchemaInfoInParallel(boolean value)
+   {
+      if (_loadSchemaInfoInParallel != value)
+      {
+         _loadSchemaInfoInParallel = value;
+         getPropertyChangeReporter().firePropertyChange(IPropertyNames.LOAD_SCHEMA_INFO_IN_PARALLEL, !_loadSchemaInfoInParallel, _loadSchemaInfoInParallel);
+      }
+   }
+
+   public boolean getRefreshSchemaInfoIncrementally()
+   {
+      return _refreshSchemaInfoIncrementally;
+   }
+
+   public void setRefreshSchemaInfoIncrementally(boolean value)
+   {
+      if (_refreshSchemaInfoIncrementally != value)
+      {
+         _refreshSchemaInfoIncrementally = value;
+         getPropertyChangeReporter().firePropertyChange(IPropertyNames.REFRESH_SCHEMA_INFO_INCREMENTALLY, !_refreshSchemaInfoIncrementally, _refreshSchemaInfoIncrementally);
+      }
+   }
+
 
 
    public boolean getLimitSQLResultTabs()
@@ -648,6 +732,34 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       }
    }
 
+   public boolean getCacheContentsResults()
+   {
+      return _cacheContentsResults;
+   }
+
+   public void setCacheContentsResults(boolean value)
+   {
+      if (_cacheContentsResults != value)
+      {
+         _cacheContentsResults = value;
+         getPropertyChangeReporter().firePropertyChange(IPropertyNames.CACHE_CONTENTS_RESULTS, !_cacheContentsResults, _cacheContentsResults);
+      }
+   }
+
+   public boolean getContentsPaging()
+   {
+      return _contentsPaging;
+   }
+
+   public void setContentsPaging(boolean value)
+   {
+      if (_contentsPaging != value)
+      {
+         _contentsPaging = value;
+         getPropertyChangeReporter().firePropertyChange(IPropertyNames.CONTENTS_PAGING, !_contentsPaging, _contentsPaging);
+      }
+   }
+
    public boolean getContentsLimitRows()
    {
       return _contentsLimitRows;
@@ -1313,4 +1425,31 @@ public class SessionProperties implements Cloneable, Serializable, ISessionPrope
       getPropertyChangeReporter().firePropertyChange( IPropertyNames.SORT_NULLS_AS_HIGHEST_VALUE, oldValue, _sortNullsAsHighestValue);
    }
 
+   public boolean getSQLBatchExecution()
+   {
+      return _sqlBatchExecution;
+   }
+
+   public void setSQLBatchExecution(boolean data)
+   {
+      final boolean oldValue = _sqlBatchExecution;
+      _sqlBatchExecution = data;
+      getPropertyChangeReporter().firePropertyChange( IPropertyNames.SQL_BATCH_EXECUTION, oldValue, _sqlBatchExecution);
+   }
+
+   public int getSQLBatchSize()
+   {
+      return _sqlBatchSize;
+   }
+
+   public void setSQLBatchSize(int data)
+   {
+      if(data < 1)
+      {
+         throw new IllegalArgumentException("Batch size must be > 0. batchSize=" + data);
+      }
+      final int oldValue = _sqlBatchSize;
+      _sqlBatchSize = data;
+      getPropertyChangeReporter().firePropertyChange( IPropertyNames.SQL_BATCH_SIZE, oldValue, _sqlBatchSize);
+   }
 }
@@ -61,6 +61,10 @@ public class SessionPropertiesBeanInfo extends SimpleBeanInfo
 							"setFontInfo"),
 						new PropertyDescriptor(IPropNames.META_DATA_OUTPUT_CLASS_NAME, SessionProperties.class,
 							"getMetaDataOutputClassName", "setMetaDataOutputClassName"),
+						new PropertyDescriptor(IPropNames.CACHE_CONTENTS_RESULTS, SessionProperties.class,
+							"getCacheContentsResults", "setCacheContentsResults"),
+						new PropertyDescriptor(IPropNames.CONTENTS_PAGING, SessionProperties.class,
+							"getContentsPaging", "setContentsPaging"),
 						new PropertyDescriptor(IPropNames.SHOW_ROW_COUNT, SessionProperties.class,
 							"getShowRowCount", "setShowRowCount"),
 						new PropertyDescriptor(IPropNames.SHOW_TOOL_BAR, SessionProperties.class, "getShowToolBar",
@@ -140,6 +144,15 @@ public class SessionPropertiesBeanInfo extends SimpleBeanInfo
 						new PropertyDescriptor(IPropNames.QUERY_CONNECTION_POOL_SIZE, SessionProperties.class,
 													  "getQueryConnectionPoolSize", "setQueryConnectionPoolSize"),
 
+						new PropertyDescriptor(IPropNames.LOAD_SCHEMA_INFO_IN_PARALLEL, SessionProperties.class,
+													  "getLoadSchemaInfoInParallel", "setLoadSchemaInfoInParallel"),
+
+						new PropertyDescriptor(IPropNames.EXECUTE_SELECTS_IN_PARALLEL, SessionProperties.class,
+													  "getExecuteSelectsInParallel", "setExecuteSelectsInParallel"),
+
+						new PropertyDescriptor(IPropNames.REFRESH_SCHEMA_INFO_INCREMENTALLY, SessionProperties.class,
+													  "getRefreshSchemaInfoIncrementally", "setRefreshSchemaInfoIncrementally"),
+
 						new PropertyDescriptor(IPropNames.SQL_READ_ON, SessionProperties.class,
                         "getSQLReadOn", "setSQLReadOn"),
 
@@ -159,7 +172,13 @@ public class SessionPropertiesBeanInfo extends SimpleBeanInfo
                         "isColorNullValues", "setColorNullValues"),
 
                   new PropertyDescriptor(IPropNames.SORT_NULLS_AS_HIGHEST_VALUE, SessionProperties.class,
-                        "isSortNullsAsHighestValue", "setSortNullsAsHighestValue")
+                        "isSortNullsAsHighestValue", "setSortNullsAsHighestValue"),
+
+                  new PropertyDescriptor(IPropNames.SQL_BATCH_EXECUTION, SessionProperties.class,
+                        "getSQLBatchExecution", "setSQLBatchExecution"),
+
+                  new PropertyDescriptor(IPropNames.SQL_BATCH_SIZE, SessionProperties.class,
+                        "getSQLBatchSize", "setSQLBatchSize")
             };
 
 			return result;
@@ -0,0 +1,36 @@
+package net.sourceforge.squirrel_sql.client.session.resultcache;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetDataSet;
+
+public class CachedResult
+{
+   private final ResultSetDataSet _dataSet;
+   private final int _rowIdCol;
+
+   CachedResult(ResultSetDataSet dataSet, int rowIdCol)
+   {
+      _dataSet = dataSet;
+      _rowIdCol = rowIdCol;
+   }
+
+   /**
+    * @return A new data set on the cached rows. Its cursor is independent from any other data set returned here.
+    */
+   public ResultSetDataSet createDataSet()
+   {
+      return _dataSet.createSharedRowsCopy();
+   }
+
+   /**
+    * @return The index of the row id pseudo column or -1 if the result has none.
+    */
+   public int getRowIdCol()
+   {
+      return _rowIdCol;
+   }
+
+   long getCellCount()
+   {
+      return (long) _dataSet.currentRowCount() * _dataSet.getColumnCount();
+   }
+}
@@ -0,0 +1,126 @@
+package net.sourceforge.squirrel_sql.client.session.resultcache;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ResultSetDataSet;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps results read by a session so that they can be shown again without querying the database.
+ * Used by the Contents tab when the session property "cacheContentsResults" is switched on.
+ *
+ * The least recently used results are dropped when the cache holds more than {@link #MAX_CACHED_CELLS} cells.
+ * Results are invalidated when SQL executed in this session changes their table,
+ * see {@link net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfoUpdateCheck},
+ * or when table data is edited in a result or Contents tab.
+ * Changes made by other connections are not noticed. Refreshing the object tree clears the cache.
+ */
+public class ResultCache
+{
+   private static final ILogger s_log = LoggerController.createLogger(ResultCache.class);
+
+   private static final long MAX_CACHED_CELLS = 5_000_000;
+
+   private final LinkedHashMap<ResultCacheKey, CachedResult> _cachedResults = new LinkedHashMap<>(16, 0.75f, true);
+   private long _cachedCells;
+
+   /**
+    * Counts invalidations to detect results that were read while their table changed.
+    */
+   private long _invalidationCount;
+
+   /**
+    * @return null if there is no valid cached result for key.
+    */
+   public synchronized CachedResult get(ResultCacheKey key)
+   {
+      CachedResult ret = _cachedResults.get(key);
+
+      if (null != ret && s_log.isDebugEnabled())
+      {
+         s_log.debug("Using cached result for " + key);
+      }
+
+      return ret;
+   }
+
+   /**
+    * To be called before a result is read that is going to be put into this cache.
+    */
+   public synchronized long getInvalidationCount()
+   {
+      return _invalidationCount;
+   }
+
+   /**
+    * @param dataSet Must have been read completely. Its rows must not be changed anymore.
+    * @param rowIdCol see {@link CachedResult#getRowIdCol()}
+    * @param invalidationCountBeforeRead {@link #getInvalidationCount()} before dataSet was read.
+    *                                    If anything was invalidated since, dataSet may be outdated and is not cached.
+    */
+   public synchronized void put(ResultCacheKey key, ResultSetDataSet dataSet, int rowIdCol, long invalidationCountBeforeRead)
+   {
+      if(invalidationCountBeforeRead != _invalidationCount)
+      {
+         return;
+      }
+
+      CachedResult cachedResult = new CachedResult(dataSet, rowIdCol);
+
+      remove(key);
+
+      if(MAX_CACHED_CELLS < cachedResult.getCellCount())
+      {
+         return;
+      }
+
+      _cachedResults.put(key, cachedResult);
+      _cachedCells += cachedResult.getCellCount();
+
+      Iterator<CachedResult> leastRecentlyUsedFirst = _cachedResults.values().iterator();
+      while (MAX_CACHED_CELLS < _cachedCells)
+      {
+         _cachedCells -= leastRecentlyUsedFirst.next().getCellCount();
+         leastRecentlyUsedFirst.remove();
+      }
+   }
+
+   private void remove(ResultCacheKey key)
+   {
+      CachedResult removed = _cachedResults.remove(key);
+      if(null != removed)
+      {
+         _cachedCells -= removed.getCellCount();
+      }
+   }
+
+   /**
+    * Table names in SQL may be quoted or written in different case.
+    * So all results of tables of the same simple name regardless of case are invalidated.
+    */
+   public synchronized void invalidateTable(String simpleTableName)
+   {
+      ++_invalidationCount;
+
+      for (Iterator<Map.Entry<ResultCacheKey, CachedResult>> it = _cachedResults.entrySet().iterator(); it.hasNext(); )
+      {
+         Map.Entry<ResultCacheKey, CachedResult> entry = it.next();
+
+         if(simpleTableName.equalsIgnoreCase(entry.getKey().getSimpleTableName()))
+         {
+            _cachedCells -= entry.getValue().getCellCount();
+            it.remove();
+         }
+      }
+   }
+
+   public synchronized void clear()
+   {
+      ++_invalidationCount;
+      _cachedResults.clear();
+      _cachedCells = 0;
+   }
+}
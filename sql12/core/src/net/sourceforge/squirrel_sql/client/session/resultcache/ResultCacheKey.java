@@ -0,0 +1,73 @@
+package net.sourceforge.squirrel_sql.client.session.resultcache;
+
+import java.util.Objects;
+
+/**
+ * Identifies a cached result by its SQL and by everything else that influences the rows read.
+ */
+public class ResultCacheKey
+{
+   private final String _normalizedSql;
+   private final String _catalog;
+   private final String _schema;
+   private final String _simpleTableName;
+   private final int _maxRows;
+
+   /**
+    * @param simpleTableName The table the result was read from. Used to invalidate the entry when the table changes.
+    * @param maxRows -1 if the number of rows read was not limited.
+    */
+   public ResultCacheKey(String sql, String catalog, String schema, String simpleTableName, int maxRows)
+   {
+      _normalizedSql = normalizeSql(sql);
+      _catalog = catalog;
+      _schema = schema;
+      _simpleTableName = simpleTableName;
+      _maxRows = maxRows;
+   }
+
+   /**
+    * Whitespace differences don't make a different SQL.
+    */
+   private static String normalizeSql(String sql)
+   {
+      return sql.trim().replaceAll("\\s+", " ");
+   }
+
+   String getSimpleTableName()
+   {
+      return _simpleTableName;
+   }
+
+   @Override
+   public boolean equals(Object o)
+   {
+      if (this == o)
+      {
+         return true;
+      }
+      if (null == o || getClass() != o.getClass())
+      {
+         return false;
+      }
+
+      ResultCacheKey that = (ResultCacheKey) o;
+      return _maxRows == that._maxRows
+            && _normalizedSql.equals(that._normalizedSql)
+            && Objects.equals(_catalog, that._catalog)
+            && Objects.equals(_schema, that._schema)
+            && Objects.equals(_simpleTableName, that._simpleTableName);
+   }
+
+   @Override
+   public int hashCode()
+   {
+      return Objects.hash(_normalizedSql, _catalog, _schema, _simpleTableName, _maxRows);
+   }
+
+   @Override
+   public String toString()
+   {
+      return _normalizedSql + " (catalog=" + _catalog + ", schema=" + _schema + ", maxRows=" + _maxRows + ")";
+   }
+}
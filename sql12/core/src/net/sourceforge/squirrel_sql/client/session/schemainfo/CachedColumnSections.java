@@ -0,0 +1,115 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The column sections of a Schema cache file that have not been read yet, see {@link SchemaCacheFileReader}.
+ * <p>
+ * The columns of a table are read from the file when they are accessed for the first time,
+ * see {@link SchemaInfoColumnCache#getExtendedColumnInfosForReadOnly(CaseInsensitiveString)}.
+ * The column names of all sections are known from the file's index, so syntax coloring
+ * can recognize columns without reading any section.
+ */
+class CachedColumnSections
+{
+   private static final ILogger s_log = LoggerController.createLogger(CachedColumnSections.class);
+
+   static class Section
+   {
+      final String simpleTableName;
+      final long offset;
+      final int length;
+      final String[] columnNames;
+
+      Section(String simpleTableName, long offset, int length, String[] columnNames)
+      {
+         this.simpleTableName = simpleTableName;
+         this.offset = offset;
+         this.length = length;
+         this.columnNames = columnNames;
+      }
+   }
+
+   private final FileChannel _channel;
+
+   private final HashMap<CaseInsensitiveString, Section> _sectionsByTableName = new HashMap<>();
+   private final HashMap<CaseInsensitiveString, Integer> _sectionCountByColumnName = new HashMap<>();
+
+   CachedColumnSections(FileChannel channel)
+   {
+      _channel = channel;
+   }
+
+   synchronized void add(Section section)
+   {
+      _sectionsByTableName.put(new CaseInsensitiveString(section.simpleTableName), section);
+
+      for (String columnName : section.columnNames)
+      {
+         _sectionCountByColumnName.merge(new CaseInsensitiveString(columnName), 1, Integer::sum);
+      }
+   }
+
+   synchronized boolean containsTable(CaseInsensitiveString simpleTableName)
+   {
+      return _sectionsByTableName.containsKey(simpleTableName);
+   }
+
+   synchronized boolean containsColumnName(CaseInsensitiveString columnName)
+   {
+      return _sectionCountByColumnName.containsKey(columnName);
+   }
+
+   /**
+    * @return The section of the table or null if there is none or it was removed before.
+    */
+   synchronized Section remove(CaseInsensitiveString simpleTableName)
+   {
+      Section ret = _sectionsByTableName.remove(simpleTableName);
+
+      if (null != ret)
+      {
+         for (String columnName : ret.columnNames)
+         {
+            _sectionCountByColumnName.computeIfPresent(new CaseInsensitiveString(columnName), (k, count) -> 1 == count ? null : count - 1);
+         }
+      }
+
+      return ret;
+   }
+
+   synchronized List<Section> getSections()
+   {
+      return new ArrayList<>(_sectionsByTableName.values());
+   }
+
+   synchronized void clear()
+   {
+      _sectionsByTableName.clear();
+      _sectionCountByColumnName.clear();
+   }
+
+   byte[] read(Section section) throws IOException
+   {
+      return SchemaCacheFileReader.read(_channel, section.offset, section.length);
+   }
+
+   void close()
+   {
+      try
+      {
+         _channel.close();
+      }
+      catch (IOException e)
+      {
+         s_log.error("Failed to close Schema cache file", e);
+      }
+   }
+}
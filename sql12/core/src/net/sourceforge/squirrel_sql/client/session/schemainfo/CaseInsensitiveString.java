@@ -1,7 +1,6 @@
 package net.sourceforge.squirrel_sql.client.session.schemainfo;
 
 import java.io.Serializable;
-import java.util.HashMap;
 
 
 /**
@@ -20,9 +19,6 @@ public class CaseInsensitiveString implements Comparable<CaseInsensitiveString>,
    private int _hash = 0;
    private boolean _isMutable;
 
-   private static HashMap<Character,Character> upChars = new HashMap<>();
-   private static HashMap<Character,Character> lcChars = new HashMap<>();
-
    public CaseInsensitiveString(String s)
    {
       _value = new char[s.length()];
@@ -219,30 +215,17 @@ public class CaseInsensitiveString implements Comparable<CaseInsensitiveString>,
       return len1 - len2;
    }
    
-   private char toLowerCase(char c) {
-       char result = c;
-       Character key = Character.valueOf(c);
-       if (lcChars.containsKey(key)) {
-           return lcChars.get(key).charValue();
-       }
-       if (Character.isUpperCase(c)) {
-           result = Character.toLowerCase(c);
-       }
-       lcChars.put(key, Character.valueOf(result));
-       return result;
+   /**
+    * Called for each char of each lookup. Thus no caching or boxing here.
+    */
+   private static char toLowerCase(char c)
+   {
+      return Character.isUpperCase(c) ? Character.toLowerCase(c) : c;
    }
-   
-   private char toUpperCase(char c) {
-       char result = c;
-       Character key = Character.valueOf(c);
-       if (upChars.containsKey(key)) {
-           return upChars.get(key).charValue();
-       }
-       if (Character.isLowerCase(c)) {
-           result = Character.toUpperCase(c);
-       }
-       upChars.put(key, Character.valueOf(result));
-       return result;
+
+   private static char toUpperCase(char c)
+   {
+      return Character.isLowerCase(c) ? Character.toUpperCase(c) : c;
    }
-   
+
 }
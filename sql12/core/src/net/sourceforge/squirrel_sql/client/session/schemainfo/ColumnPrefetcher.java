@@ -0,0 +1,298 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+import net.sourceforge.squirrel_sql.fw.sql.databasemetadata.SQLDatabaseMetaData;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Loads the columns of tables recognized by syntax coloring on a background thread,
+ * see {@link SchemaInfo#isTableExt(CaseInsensitiveString, Runnable)}.
+ * This way the Swing thread doesn't wait for meta data calls while the user types.
+ * <p>
+ * Each table is queued only once. The queue is bounded: Requests for further tables are ignored
+ * while it is full. Those tables will be requested again when the editor repaints.
+ * <p>
+ * The prefetch thread takes all queued tables at once. Tables of the same catalog/schema are loaded
+ * by one getColumns() call using their common name prefix as pattern, see {@link #loadColumns(List)}.
+ * When the tables are loaded their callbacks are called on the Swing thread.
+ */
+class ColumnPrefetcher
+{
+   private static final ILogger s_log = LoggerController.createLogger(ColumnPrefetcher.class);
+
+   private static final int MAX_QUEUED_TABLES = 100;
+
+   /**
+    * A batch whose pattern matches more than this factor times the tables it needs
+    * is loaded table by table instead.
+    */
+   private static final int MAX_OVER_FETCH_FACTOR = 20;
+
+   private final SchemaInfo _schemaInfo;
+
+   private final LinkedHashMap<CaseInsensitiveString, LinkedHashSet<Runnable>> _queued = new LinkedHashMap<>();
+   private final HashMap<CaseInsensitiveString, LinkedHashSet<Runnable>> _loading = new HashMap<>();
+
+   private Thread _prefetchThread;
+   private boolean _disposed;
+
+   ColumnPrefetcher(SchemaInfo schemaInfo)
+   {
+      _schemaInfo = schemaInfo;
+   }
+
+   /**
+    * @param tableName May be a mutable string.
+    */
+   synchronized void prefetch(CaseInsensitiveString tableName, Runnable columnsLoadedCallback)
+   {
+      if(_disposed)
+      {
+         return;
+      }
+
+      LinkedHashSet<Runnable> callbacks = _loading.get(tableName);
+
+      if(null == callbacks)
+      {
+         callbacks = _queued.get(tableName);
+      }
+
+      if(null == callbacks)
+      {
+         if(MAX_QUEUED_TABLES <= _queued.size())
+         {
+            return;
+         }
+
+         callbacks = new LinkedHashSet<>();
+         _queued.put(new CaseInsensitiveString(tableName.toString()), callbacks);
+
+         if(null == _prefetchThread)
+         {
+            _prefetchThread = new Thread(() -> workOffQueue());
+            _prefetchThread.setName("Column Prefetch Thread");
+            _prefetchThread.setDaemon(true);
+            _prefetchThread.start();
+         }
+
+         notifyAll();
+      }
+
+      callbacks.add(columnsLoadedCallback);
+   }
+
+   synchronized void dispose()
+   {
+      _disposed = true;
+      _queued.clear();
+      notifyAll();
+   }
+
+   private void workOffQueue()
+   {
+      while (true)
+      {
+         List<CaseInsensitiveString> tableNames;
+
+         synchronized (this)
+         {
+            while (_queued.isEmpty() && false == _disposed)
+            {
+               try
+               {
+                  wait();
+               }
+               catch (InterruptedException e)
+               {
+                  s_log.debug("Interrupted while waiting for tables to prefetch columns of");
+               }
+            }
+
+            if(_disposed)
+            {
+               return;
+            }
+
+            _loading.putAll(_queued);
+            _queued.clear();
+            tableNames = new ArrayList<>(_loading.keySet());
+         }
+
+         try
+         {
+            loadColumns(tableNames);
+         }
+         catch (Throwable th)
+         {
+            s_log.error("Failed to prefetch columns", th);
+         }
+
+         LinkedHashSet<Runnable> callbacks = new LinkedHashSet<>();
+         synchronized (this)
+         {
+            for (CaseInsensitiveString tableName : tableNames)
+            {
+               callbacks.addAll(_loading.remove(tableName));
+            }
+         }
+
+         SwingUtilities.invokeLater(() -> callbacks.forEach(Runnable::run));
+      }
+   }
+
+   private void loadColumns(List<CaseInsensitiveString> tableNames)
+   {
+      SchemaInfoCache schemaInfoCache = _schemaInfo.getSchemaInfoCache();
+
+      // Key is Arrays.asList(catalog, schema)
+      LinkedHashMap<List<String>, List<CaseInsensitiveString>> tableNamesBySchema = new LinkedHashMap<>();
+      LinkedHashSet<CaseInsensitiveString> singleTableNames = new LinkedHashSet<>();
+
+      for (CaseInsensitiveString tableName : tableNames)
+      {
+         if(schemaInfoCache.didTryLoadingColumns(tableName))
+         {
+            continue;
+         }
+
+         List<ITableInfo> buf = schemaInfoCache.getTableInfosBySimpleNameForReadOnly().get(tableName);
+         List<ITableInfo> tableInfos = null == buf ? new ArrayList<>() : new ArrayList<>(buf);
+
+         if(tableInfos.isEmpty() || tableInfos.stream().anyMatch(ti -> "SYNONYM".equalsIgnoreCase(ti.getType())))
+         {
+            // Synonyms are resolved by getColumnInfo() only when called for the synonym's name.
+            singleTableNames.add(tableName);
+            continue;
+         }
+
+         // A table name may exist in several schemas. Then the columns of all of them are loaded, see SchemaInfo.accessDbToLoadColumns()
+         for (ITableInfo ti : tableInfos)
+         {
+            tableNamesBySchema.computeIfAbsent(Arrays.asList(ti.getCatalogName(), ti.getSchemaName()), k -> new ArrayList<>()).add(tableName);
+         }
+      }
+
+      HashMap<CaseInsensitiveString, List<TableColumnInfo>> columnsByTableName = new HashMap<>();
+
+      for (Map.Entry<List<String>, List<CaseInsensitiveString>> entry : tableNamesBySchema.entrySet())
+      {
+         String catalog = entry.getKey().get(0);
+         String schema = entry.getKey().get(1);
+         List<CaseInsensitiveString> tableNamesOfSchema = entry.getValue();
+
+         String pattern = getCommonPrefix(tableNamesOfSchema) + "%";
+
+         if(   1 == tableNamesOfSchema.size()
+            || (1 == pattern.length() && MAX_OVER_FETCH_FACTOR * tableNamesOfSchema.size() < countTables(schemaInfoCache, catalog, schema)))
+         {
+            singleTableNames.addAll(tableNamesOfSchema);
+            continue;
+         }
+
+         try
+         {
+            SQLDatabaseMetaData dmd = _schemaInfo.getSQLDatabaseMetaData();
+            for (TableColumnInfo tci : dmd.getColumnInfo(catalog, schema, pattern))
+            {
+               CaseInsensitiveString tableName = new CaseInsensitiveString(tci.getTableName());
+               if(tableNamesOfSchema.contains(tableName))
+               {
+                  columnsByTableName.computeIfAbsent(tableName, k -> new ArrayList<>()).add(tci);
+               }
+            }
+         }
+         catch (Throwable th)
+         {
+            s_log.warn("Failed to load columns of several tables by pattern " + pattern + ". Loading table by table.", th);
+            singleTableNames.addAll(tableNamesOfSchema);
+         }
+      }
+
+      for (List<CaseInsensitiveString> tableNamesOfSchema : tableNamesBySchema.values())
+      {
+         for (CaseInsensitiveString tableName : tableNamesOfSchema)
+         {
+            if(singleTableNames.contains(tableName))
+            {
+               continue;
+            }
+
+            List<TableColumnInfo> columns = columnsByTableName.get(tableName);
+            if(null == columns)
+            {
+               // The pattern didn't find the table, e.g. because of case or escaping issues.
+               singleTableNames.add(tableName);
+            }
+            else if(false == schemaInfoCache.didTryLoadingColumns(tableName))
+            {
+               schemaInfoCache.writeColumsToCache(columns.toArray(new TableColumnInfo[0]), tableName);
+            }
+         }
+      }
+
+      for (CaseInsensitiveString tableName : singleTableNames)
+      {
+         if(false == schemaInfoCache.didTryLoadingColumns(tableName))
+         {
+            _schemaInfo.accessDbToLoadColumns(tableName);
+         }
+      }
+   }
+
+   /**
+    * Uses the names as stored in the cache because the pattern is case sensitive.
+    */
+   private String getCommonPrefix(List<CaseInsensitiveString> tableNames)
+   {
+      String ret = null;
+      for (CaseInsensitiveString tableName : tableNames)
+      {
+         String name = _schemaInfo.getCaseSensitiveTableName(tableName.toString());
+         if(null == name)
+         {
+            return "";
+         }
+
+         if(null == ret)
+         {
+            ret = name;
+            continue;
+         }
+
+         int i = 0;
+         while (i < ret.length() && i < name.length() && ret.charAt(i) == name.charAt(i))
+         {
+            ++i;
+         }
+         ret = ret.substring(0, i);
+      }
+
+      return null == ret ? "" : ret;
+   }
+
+   private static int countTables(SchemaInfoCache schemaInfoCache, String catalog, String schema)
+   {
+      int ret = 0;
+      for (ITableInfo ti : schemaInfoCache.getITableInfosForReadOnly())
+      {
+         if(Objects.equals(catalog, ti.getCatalogName()) && Objects.equals(schema, ti.getSchemaName()))
+         {
+            ++ret;
+         }
+      }
+      return ret;
+   }
+}
@@ -0,0 +1,434 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.client.gui.db.SchemaLoadInfo;
+import net.sourceforge.squirrel_sql.client.gui.session.catalogspanel.AliasCatalogLoadModel;
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.fw.dialects.DialectFactory;
+import net.sourceforge.squirrel_sql.fw.sql.IProcedureInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.IUDTInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressCallBack;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressCallBackAdaptor;
+import net.sourceforge.squirrel_sql.fw.sql.databasemetadata.SQLDatabaseMetaData;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Refreshes the tables, stored procedures and UDTs of {@link SchemaInfo} by re-reading only what changed
+ * since the last refresh, see {@link SchemaInfo#refreshIncrementally()}.
+ * <p>
+ * Where the database exposes the time of the last DDL statement per object (Oracle, MS SQL Server, DB2)
+ * each catalog/schema is fingerprinted by the count of its objects and their latest DDL time.
+ * Catalogs/schemas whose fingerprint did not change since the last refresh are skipped without reading meta data.
+ * <p>
+ * For all other catalogs/schemas the object lists are read from meta data and compared to the cache:
+ * New objects are written to the cache, objects that no longer exist are removed.
+ * The columns of tables that changed are removed from the cache and will be reloaded when accessed.
+ * Without DDL times or a previous fingerprint any table of the catalog/schema may have changed.
+ * <p>
+ * Keywords, data types, functions, catalogs and schema names are not refreshed.
+ */
+class IncrementalSchemaInfoRefresher
+{
+   private static final ILogger s_log = LoggerController.createLogger(IncrementalSchemaInfoRefresher.class);
+
+   private final SchemaInfo _schemaInfo;
+   private final ISession _session;
+
+   /**
+    * Key is Arrays.asList(catalog, schema)
+    */
+   private final HashMap<List<String>, Fingerprint> _fingerprints = new HashMap<>();
+
+   private static class Fingerprint
+   {
+      final int objectCount;
+      final Timestamp lastDdlTime;
+
+      Fingerprint(int objectCount, Timestamp lastDdlTime)
+      {
+         this.objectCount = objectCount;
+         this.lastDdlTime = lastDdlTime;
+      }
+
+      boolean matches(Fingerprint other)
+      {
+         return objectCount == other.objectCount && Objects.equals(lastDdlTime, other.lastDdlTime);
+      }
+   }
+
+   IncrementalSchemaInfoRefresher(SchemaInfo schemaInfo, ISession session)
+   {
+      _schemaInfo = schemaInfo;
+      _session = session;
+   }
+
+   /**
+    * Called before all schema info is reloaded. Then the next incremental refresh
+    * only needs to look at changes made after the reload began.
+    */
+   synchronized void takeBaseline(SchemaInfoCache schemaInfoCache, AliasCatalogLoadModel aliasCatalogLoadModel)
+   {
+      _fingerprints.clear();
+
+      DdlTimes ddlTimes = DdlTimes.of(_schemaInfo.getSQLDatabaseMetaData());
+      if(null == ddlTimes)
+      {
+         return;
+      }
+
+      for (SchemaLoadInfo schemaLoadInfo : schemaInfoCache.getMatchingSchemaLoadInfos(null))
+      {
+         if(null == schemaLoadInfo.getSchemaName())
+         {
+            continue;
+         }
+
+         for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
+         {
+            try
+            {
+               _fingerprints.put(Arrays.asList(catalog, schemaLoadInfo.getSchemaName()), ddlTimes.readFingerprint(getConnection(), catalog, schemaLoadInfo.getSchemaName()));
+            }
+            catch (Throwable th)
+            {
+               s_log.warn("Failed to read DDL times of catalog " + catalog + " schema " + schemaLoadInfo.getSchemaName(), th);
+            }
+         }
+      }
+   }
+
+   synchronized SchemaInfoDelta refresh(SchemaInfoCache schemaInfoCache, AliasCatalogLoadModel aliasCatalogLoadModel)
+   {
+      SchemaInfoDelta ret = new SchemaInfoDelta();
+
+      SQLDatabaseMetaData dmd = _schemaInfo.getSQLDatabaseMetaData();
+      DdlTimes ddlTimes = DdlTimes.of(dmd);
+
+      SchemaLoadInfo[] schemaLoadInfos = schemaInfoCache.getMatchingSchemaLoadInfos(null);
+      List<String> catalogs = aliasCatalogLoadModel.getCatalogStringsToLoad();
+
+      int count = schemaLoadInfos.length * catalogs.size();
+      int finished = 0;
+
+      for (SchemaLoadInfo schemaLoadInfo : schemaLoadInfos)
+      {
+         for (String catalog : catalogs)
+         {
+            String msg = SchemaInfo.i18n.REFRESHING_MSG + " (" + (null == schemaLoadInfo.getSchemaName() ? catalog : schemaLoadInfo.getSchemaName()) + ")";
+            _schemaInfo.showProgress(msg, SchemaInfo.MAX_PROGRESS * finished++ / count);
+
+            try
+            {
+               refreshSchema(dmd, ddlTimes, schemaInfoCache, catalog, schemaLoadInfo, ret);
+            }
+            catch (Throwable th)
+            {
+               s_log.error("Failed to refresh schema info: " + msg, th);
+            }
+         }
+      }
+
+      return ret;
+   }
+
+   private void refreshSchema(SQLDatabaseMetaData dmd, DdlTimes ddlTimes, SchemaInfoCache schemaInfoCache, String catalog, SchemaLoadInfo schemaLoadInfo, SchemaInfoDelta delta) throws SQLException
+   {
+      String schemaName = schemaLoadInfo.getSchemaName();
+      List<String> key = Arrays.asList(catalog, schemaName);
+
+      Fingerprint newFingerprint = null;
+
+      // null means any object may have changed.
+      HashSet<CaseInsensitiveString> changedNames = null;
+
+      if(null != ddlTimes && null != schemaName)
+      {
+         newFingerprint = ddlTimes.readFingerprint(getConnection(), catalog, schemaName);
+
+         Fingerprint fingerprint = _fingerprints.get(key);
+         if(null != fingerprint)
+         {
+            if(fingerprint.matches(newFingerprint))
+            {
+               return;
+            }
+
+            changedNames = ddlTimes.readNamesChangedSince(getConnection(), catalog, schemaName, fingerprint.lastDdlTime);
+         }
+      }
+
+      ProgressCallBack pcb = new ProgressCallBackAdaptor();
+
+      SchemaInfoDelta.SchemaDelta schemaDelta = new SchemaInfoDelta.SchemaDelta(catalog, schemaName);
+
+      refreshTables(dmd, schemaInfoCache, catalog, schemaLoadInfo, changedNames, pcb, schemaDelta);
+
+      if (schemaLoadInfo.isLoadProcedures())
+      {
+         refreshStoredProcedures(dmd, schemaInfoCache, catalog, schemaName, pcb, schemaDelta);
+      }
+
+      if (schemaLoadInfo.isLoadUDTs())
+      {
+         refreshUDTs(dmd, schemaInfoCache, catalog, schemaName, pcb, schemaDelta);
+      }
+
+      delta.add(schemaDelta);
+
+      if(null != newFingerprint)
+      {
+         // Stored not before the schema was refreshed successfully.
+         _fingerprints.put(key, newFingerprint);
+      }
+   }
+
+   private void refreshTables(SQLDatabaseMetaData dmd, SchemaInfoCache schemaInfoCache, String catalog, SchemaLoadInfo schemaLoadInfo, HashSet<CaseInsensitiveString> changedNames, ProgressCallBack pcb, SchemaInfoDelta.SchemaDelta schemaDelta) throws SQLException
+   {
+      String[] tableTypes = schemaLoadInfo.getTableTypes();
+
+      HashMap<List<String>, ITableInfo> dbTables = new HashMap<>();
+      if (null == tableTypes || 0 < tableTypes.length)
+      {
+         // See SchemaInfo.loadTablesOfSchema()
+         for (ITableInfo ti : dmd.getTables(catalog, schemaLoadInfo.getSchemaName(), null, tableTypes, pcb))
+         {
+            dbTables.put(tableKey(ti), ti);
+         }
+      }
+
+      ArrayList<ITableInfo> cachedTables = new ArrayList<>();
+      for (ITableInfo ti : schemaInfoCache.getITableInfosForReadOnly())
+      {
+         if(   matches(ti.getCatalogName(), catalog)
+            && matches(ti.getSchemaName(), schemaLoadInfo.getSchemaName())
+            && (null == ti.getType() || SchemaInfoCache.containsType(tableTypes, ti.getType())))
+         {
+            cachedTables.add(ti);
+         }
+      }
+
+      for (ITableInfo ti : cachedTables)
+      {
+         if(null == dbTables.remove(tableKey(ti)))
+         {
+            schemaInfoCache.clearTables(ti.getCatalogName(), ti.getSchemaName(), ti.getSimpleName(), null == ti.getType() ? null : new String[]{ti.getType()});
+            schemaDelta.addRemoved(ti);
+            continue;
+         }
+
+         CaseInsensitiveString ciSimpleName = new CaseInsensitiveString(ti.getSimpleName());
+         if((null == changedNames || changedNames.contains(ciSimpleName)) && schemaInfoCache.didTryLoadingColumns(ciSimpleName))
+         {
+            schemaInfoCache.clearColumns(ciSimpleName);
+            schemaDelta.addChanged(ti.getSimpleName());
+         }
+      }
+
+      // What remains is new
+      if(0 < dbTables.size())
+      {
+         schemaInfoCache.writeToTableCache(dbTables.values().toArray(new ITableInfo[0]));
+         dbTables.values().forEach(ti -> schemaDelta.addAdded(ti));
+      }
+   }
+
+   private void refreshStoredProcedures(SQLDatabaseMetaData dmd, SchemaInfoCache schemaInfoCache, String catalog, String schemaName, ProgressCallBack pcb, SchemaInfoDelta.SchemaDelta schemaDelta) throws SQLException
+   {
+      IProcedureInfo[] dbProcedures = dmd.getProcedures(catalog, schemaName, null, pcb);
+      TreeSet<IProcedureInfo> newProcedures = new TreeSet<>(Arrays.asList(dbProcedures));
+
+      HashSet<String> removedSimpleNames = new HashSet<>();
+      for (IProcedureInfo pi : new ArrayList<>(schemaInfoCache.getIProcedureInfosForReadOnly().keySet()))
+      {
+         if(   matches(pi.getCatalogName(), catalog)
+            && matches(pi.getSchemaName(), schemaName)
+            && false == newProcedures.remove(pi))
+         {
+            removedSimpleNames.add(pi.getSimpleName());
+            schemaDelta.addRemoved(pi);
+         }
+      }
+
+      // Overloaded procedures share their simple name. Those that still exist are written again below.
+      for (String simpleName : removedSimpleNames)
+      {
+         schemaInfoCache.clearStoredProcedures(catalog, schemaName, simpleName);
+      }
+
+      for (IProcedureInfo pi : dbProcedures)
+      {
+         if(newProcedures.remove(pi))
+         {
+            schemaInfoCache.writeToProcedureCache(pi);
+            schemaDelta.addAdded(pi);
+         }
+         else if(removedSimpleNames.contains(pi.getSimpleName()))
+         {
+            schemaInfoCache.writeToProcedureCache(pi);
+         }
+      }
+   }
+
+   private void refreshUDTs(SQLDatabaseMetaData dmd, SchemaInfoCache schemaInfoCache, String catalog, String schemaName, ProgressCallBack pcb, SchemaInfoDelta.SchemaDelta schemaDelta) throws SQLException
+   {
+      TreeSet<IUDTInfo> dbUDTs = new TreeSet<>(Arrays.asList(dmd.getUDTs(catalog, schemaName, null, null, pcb)));
+
+      for (IUDTInfo udtInfo : new ArrayList<>(schemaInfoCache.getIUDTInfosForReadOnly().keySet()))
+      {
+         if(   matches(udtInfo.getCatalogName(), catalog)
+            && matches(udtInfo.getSchemaName(), schemaName)
+            && false == dbUDTs.remove(udtInfo))
+         {
+            schemaInfoCache.clearUDTs(udtInfo.getCatalogName(), udtInfo.getSchemaName(), udtInfo.getSimpleName());
+            schemaDelta.addRemoved(udtInfo);
+         }
+      }
+
+      for (IUDTInfo udtInfo : dbUDTs)
+      {
+         schemaInfoCache.writeToUDTCache(udtInfo);
+         schemaDelta.addAdded(udtInfo);
+      }
+   }
+
+   private static List<String> tableKey(ITableInfo ti)
+   {
+      return Arrays.asList(ti.getQualifiedName(), ti.getType());
+   }
+
+   /**
+    * Same semantics as the clear methods of {@link SchemaInfoCache}
+    */
+   private static boolean matches(String s, String toCheck)
+   {
+      return null == s || null == toCheck || s.equals(toCheck);
+   }
+
+   private Connection getConnection()
+   {
+      return _session.getSQLConnection().getConnection();
+   }
+
+   /**
+    * Dialect specific queries for the time of the last DDL statement of the objects of a schema.
+    */
+   private static class DdlTimes
+   {
+      /**
+       * Selects OBJ_NAME and DDL_TIME of the objects of one schema.
+       * The schema name is bound to all parameters.
+       */
+      private final String _objectsSql;
+      private final int _schemaParamCount;
+
+      private DdlTimes(String objectsSql, int schemaParamCount)
+      {
+         _objectsSql = objectsSql;
+         _schemaParamCount = schemaParamCount;
+      }
+
+      /**
+       * @return null if the database does not expose DDL times.
+       */
+      static DdlTimes of(SQLDatabaseMetaData dmd)
+      {
+         if(DialectFactory.isOracle(dmd))
+         {
+            return new DdlTimes("SELECT OBJECT_NAME OBJ_NAME, LAST_DDL_TIME DDL_TIME FROM ALL_OBJECTS WHERE OWNER = ?", 1);
+         }
+         else if(DialectFactory.isMSSQLServer(dmd))
+         {
+            // The catalog prefix is added in getObjectsSql()
+            return new DdlTimes("SELECT o.name OBJ_NAME, o.modify_date DDL_TIME FROM %1$ssys.objects o INNER JOIN %1$ssys.schemas s ON o.schema_id = s.schema_id " +
+                                "WHERE o.is_ms_shipped = 0 AND s.name = ?", 1);
+         }
+         else if(DialectFactory.isDB2(dmd))
+         {
+            return new DdlTimes("SELECT TABNAME OBJ_NAME, ALTER_TIME DDL_TIME FROM SYSCAT.TABLES WHERE TABSCHEMA = ? " +
+                                "UNION ALL SELECT ROUTINENAME, ALTER_TIME FROM SYSCAT.ROUTINES WHERE ROUTINESCHEMA = ?", 2);
+         }
+
+         return null;
+      }
+
+      Fingerprint readFingerprint(Connection con, String catalog, String schemaName) throws SQLException
+      {
+         String sql = "SELECT COUNT(*), MAX(DDL_TIME) FROM (" + getObjectsSql(catalog) + ") O";
+
+         try (PreparedStatement stat = con.prepareStatement(sql))
+         {
+            bindSchema(stat, schemaName);
+
+            try (ResultSet res = stat.executeQuery())
+            {
+               res.next();
+               return new Fingerprint(res.getInt(1), res.getTimestamp(2));
+            }
+         }
+      }
+
+      /**
+       * Uses >= because some databases store DDL times in seconds.
+       */
+      HashSet<CaseInsensitiveString> readNamesChangedSince(Connection con, String catalog, String schemaName, Timestamp lastDdlTime) throws SQLException
+      {
+         HashSet<CaseInsensitiveString> ret = new HashSet<>();
+
+         if(null == lastDdlTime)
+         {
+            // The schema was empty. All its objects are new.
+            return ret;
+         }
+
+         String sql = "SELECT OBJ_NAME FROM (" + getObjectsSql(catalog) + ") O WHERE DDL_TIME >= ?";
+
+         try (PreparedStatement stat = con.prepareStatement(sql))
+         {
+            bindSchema(stat, schemaName);
+            stat.setTimestamp(_schemaParamCount + 1, lastDdlTime);
+
+            try (ResultSet res = stat.executeQuery())
+            {
+               while (res.next())
+               {
+                  ret.add(new CaseInsensitiveString(res.getString(1)));
+               }
+            }
+         }
+
+         return ret;
+      }
+
+      private String getObjectsSql(String catalog)
+      {
+         if(false == _objectsSql.contains("%1$s"))
+         {
+            return _objectsSql;
+         }
+
+         return String.format(_objectsSql, null == catalog ? "" : "[" + catalog.replace("]", "]]") + "].");
+      }
+
+      private void bindSchema(PreparedStatement stat, String schemaName) throws SQLException
+      {
+         for (int i = 1; i <= _schemaParamCount; i++)
+         {
+            stat.setString(i, schemaName);
+         }
+      }
+   }
+}
@@ -0,0 +1,334 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable snapshot of a case insensitive name map of {@link SchemaInfoCache}, e.g. its table names.
+ * Because it never changes it is read by any thread without locking.
+ * See {@link Publisher} for how snapshots are kept up to date.
+ * <p>
+ * Exact lookups use a hash map keyed by {@link CaseInsensitiveString}, so mutable strings
+ * as used by syntax coloring can be looked up without creating objects.
+ * Prefix and camel case lookups binary search the names sorted by their upper case form.
+ * The sorted names are created when first needed.
+ */
+public class NameIndex
+{
+   private static final NameIndex EMPTY = new NameIndex(new HashMap<>(), -1);
+
+   private final HashMap<CaseInsensitiveString, String> _namesByCiName;
+   private final int _version;
+
+   private volatile SortedNames _sortedNames;
+
+   private static class SortedNames
+   {
+      final String[] upperCaseNames;
+      final String[] names;
+
+      SortedNames(String[] upperCaseNames, String[] names)
+      {
+         this.upperCaseNames = upperCaseNames;
+         this.names = names;
+      }
+   }
+
+   /**
+    * Keeps the {@link NameIndex} of a mutable name map up to date.
+    * <p>
+    * Writers change the map while holding the map's monitor and call {@link #invalidate()} afterwards.
+    * Readers call {@link #get()} which returns the current snapshot without locking.
+    * The first reader after a change copies the map into a new snapshot and publishes it.
+    * Thus a series of writes, e.g. while a schema is loaded, costs one copy only.
+    */
+   static class Publisher
+   {
+      private final Map<CaseInsensitiveString, String> _source;
+      private final AtomicInteger _version = new AtomicInteger();
+      private volatile NameIndex _snapshot = EMPTY;
+
+      /**
+       * @param source Copying the source synchronizes on it.
+       *               So source is either a Collections.synchronizedMap() or its writers must synchronize on it.
+       */
+      Publisher(Map<CaseInsensitiveString, String> source)
+      {
+         _source = source;
+      }
+
+      NameIndex get()
+      {
+         int version = _version.get();
+         NameIndex ret = _snapshot;
+
+         if(ret._version != version)
+         {
+            HashMap<CaseInsensitiveString, String> copy;
+            synchronized (_source)
+            {
+               copy = new HashMap<>(_source);
+            }
+
+            // When a writer changes the map meanwhile, it increments the version afterwards.
+            // So the next reader will copy again.
+            ret = new NameIndex(copy, version);
+            _snapshot = ret;
+         }
+
+         return ret;
+      }
+
+      void invalidate()
+      {
+         _version.incrementAndGet();
+      }
+   }
+
+   private NameIndex(HashMap<CaseInsensitiveString, String> namesByCiName, int version)
+   {
+      _namesByCiName = namesByCiName;
+      _version = version;
+   }
+
+   /**
+    * @param name May be a mutable string.
+    */
+   public boolean contains(CaseInsensitiveString name)
+   {
+      return _namesByCiName.containsKey(name);
+   }
+
+   /**
+    * @param name May be a mutable string.
+    * @return The name as stored in the database or null.
+    */
+   public String get(CaseInsensitiveString name)
+   {
+      return _namesByCiName.get(name);
+   }
+
+   public int size()
+   {
+      return _namesByCiName.size();
+   }
+
+   /**
+    * @return All names sorted case insensitively.
+    */
+   public String[] getNames()
+   {
+      return getSortedNames().names.clone();
+   }
+
+   /**
+    * @return The names starting case insensitively with prefix, sorted case insensitively.
+    */
+   public List<String> getNamesStartingWith(String prefix)
+   {
+      SortedNames sortedNames = getSortedNames();
+
+      ArrayList<String> ret = new ArrayList<>();
+
+      String upperCasePrefix = toUpperCase(prefix);
+      for (int i = findFirst(sortedNames.upperCaseNames, upperCasePrefix); i < sortedNames.upperCaseNames.length && sortedNames.upperCaseNames[i].startsWith(upperCasePrefix); i++)
+      {
+         ret.add(sortedNames.names[i]);
+      }
+
+      return ret;
+   }
+
+   /**
+    * Matches names by the beginnings of their words. Words of names are separated by underscores
+    * or begin with an upper case letter following a lower case letter. E.g. CustOr, CO and cu_o match CUSTOMER_ORDER and CustomerOrder.
+    * <p>
+    * Words of the pattern begin with an upper case letter or follow an underscore.
+    * The first word of the pattern must begin the name. Further words must begin later words
+    * of the name in the same order, words of the name may be skipped.
+    *
+    * @return The matching names sorted case insensitively.
+    */
+   public List<String> getNamesMatchingCamelCase(String pattern)
+   {
+      ArrayList<String> ret = new ArrayList<>();
+
+      List<String> patternWords = splitPattern(pattern);
+      if(patternWords.isEmpty())
+      {
+         return ret;
+      }
+
+      SortedNames sortedNames = getSortedNames();
+
+      // The first word of the pattern must begin the name. So a prefix search narrows the candidates.
+      String firstPatternWord = patternWords.get(0);
+      for (int i = findFirst(sortedNames.upperCaseNames, firstPatternWord); i < sortedNames.upperCaseNames.length && sortedNames.upperCaseNames[i].startsWith(firstPatternWord); i++)
+      {
+         if(matchesWords(splitName(sortedNames.names[i]), 0, patternWords, 0))
+         {
+            ret.add(sortedNames.names[i]);
+         }
+      }
+
+      return ret;
+   }
+
+   private SortedNames getSortedNames()
+   {
+      SortedNames ret = _sortedNames;
+
+      if(null == ret)
+      {
+         // Concurrent readers may create equal instances. That's harmless.
+         String[] names = _namesByCiName.values().toArray(new String[0]);
+         String[] upperCaseNames = new String[names.length];
+
+         Integer[] order = new Integer[names.length];
+         for (int i = 0; i < names.length; i++)
+         {
+            upperCaseNames[i] = toUpperCase(names[i]);
+            order[i] = i;
+         }
+         Arrays.sort(order, (i1, i2) -> upperCaseNames[i1].compareTo(upperCaseNames[i2]));
+
+         String[] sortedUpperCaseNames = new String[names.length];
+         String[] sortedNames = new String[names.length];
+         for (int i = 0; i < order.length; i++)
+         {
+            sortedUpperCaseNames[i] = upperCaseNames[order[i]];
+            sortedNames[i] = names[order[i]];
+         }
+
+         ret = new SortedNames(sortedUpperCaseNames, sortedNames);
+         _sortedNames = ret;
+      }
+
+      return ret;
+   }
+
+   /**
+    * @return The index of the first element greater or equal to key.
+    */
+   private static int findFirst(String[] sorted, String key)
+   {
+      int ix = Arrays.binarySearch(sorted, key);
+      return 0 <= ix ? ix : -(ix + 1);
+   }
+
+   private static boolean matchesWords(List<String> nameWords, int nameIx, List<String> patternWords, int patternIx)
+   {
+      if(patternIx == patternWords.size())
+      {
+         return true;
+      }
+
+      for (int i = nameIx; i < nameWords.size(); i++)
+      {
+         if(nameWords.get(i).startsWith(patternWords.get(patternIx)) && matchesWords(nameWords, i + 1, patternWords, patternIx + 1))
+         {
+            return true;
+         }
+
+         if(0 == patternIx)
+         {
+            // The first word of the pattern must match the first word of the name.
+            return false;
+         }
+      }
+
+      return false;
+   }
+
+   /**
+    * @return The upper cased words of name.
+    */
+   private static List<String> splitName(String name)
+   {
+      ArrayList<String> ret = new ArrayList<>();
+
+      StringBuilder word = new StringBuilder();
+      for (int i = 0; i < name.length(); i++)
+      {
+         char c = name.charAt(i);
+
+         if('_' == c)
+         {
+            addWord(ret, word);
+            continue;
+         }
+
+         if(Character.isUpperCase(c) && 0 < i && Character.isLowerCase(name.charAt(i - 1)))
+         {
+            addWord(ret, word);
+         }
+
+         word.append(toUpperCase(c));
+      }
+      addWord(ret, word);
+
+      return ret;
+   }
+
+   /**
+    * @return The upper cased words of pattern.
+    */
+   private static List<String> splitPattern(String pattern)
+   {
+      ArrayList<String> ret = new ArrayList<>();
+
+      StringBuilder word = new StringBuilder();
+      for (int i = 0; i < pattern.length(); i++)
+      {
+         char c = pattern.charAt(i);
+
+         if('_' == c)
+         {
+            addWord(ret, word);
+            continue;
+         }
+
+         if(Character.isUpperCase(c))
+         {
+            addWord(ret, word);
+         }
+
+         word.append(toUpperCase(c));
+      }
+      addWord(ret, word);
+
+      return ret;
+   }
+
+   private static void addWord(List<String> words, StringBuilder word)
+   {
+      if(0 < word.length())
+      {
+         words.add(word.toString());
+         word.setLength(0);
+      }
+   }
+
+   /**
+    * Upper cases char by char like {@link CaseInsensitiveString} does.
+    * Unlike String.toUpperCase() this never changes the length.
+    */
+   private static String toUpperCase(String s)
+   {
+      char[] buf = s.toCharArray();
+      for (int i = 0; i < buf.length; i++)
+      {
+         buf[i] = toUpperCase(buf[i]);
+      }
+      return new String(buf);
+   }
+
+   private static char toUpperCase(char c)
+   {
+      return Character.isLowerCase(c) ? Character.toUpperCase(c) : c;
+   }
+}
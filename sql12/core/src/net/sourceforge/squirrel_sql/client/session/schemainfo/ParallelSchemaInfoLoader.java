@@ -0,0 +1,270 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.client.gui.db.SchemaLoadInfo;
+import net.sourceforge.squirrel_sql.client.gui.session.catalogspanel.AliasCatalogLoadModel;
+import net.sourceforge.squirrel_sql.client.session.ISession;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressCallBack;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressCallBackAdaptor;
+import net.sourceforge.squirrel_sql.fw.sql.databasemetadata.SQLDatabaseMetaData;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads keywords, data types, functions and the tables, stored procedures and UDTs of all schemas
+ * using several connections in parallel. See {@link net.sourceforge.squirrel_sql.client.session.properties.SessionProperties#getLoadSchemaInfoInParallel()}.
+ * <p>
+ * Tables, stored procedures and UDTs are loaded by one task per schema and object type.
+ * The tasks are worked off by one thread per connection: The thread calling {@link #load(int)}
+ * uses the Session's connection, additional threads use connections of the Session's query connection pool.
+ * The first uses its connection to load keywords, data types and functions before it starts to work off tasks.
+ * <p>
+ * All table tasks are queued before the stored procedure and UDT tasks. The {@link SchemaInfo} is notified
+ * that an object type is loaded when the last task of the type is finished.
+ */
+class ParallelSchemaInfoLoader
+{
+   private static final ILogger s_log = LoggerController.createLogger(ParallelSchemaInfoLoader.class);
+
+   private final SchemaInfo _schemaInfo;
+   private final ISession _session;
+   private final SchemaInfoCache _schemaInfoCache;
+   private final AliasCatalogLoadModel _aliasCatalogLoadModel;
+
+   private final ConcurrentLinkedQueue<LoadTask> _tasks = new ConcurrentLinkedQueue<>();
+   private int _taskCount;
+   private final AtomicInteger _finishedTaskCount = new AtomicInteger();
+
+   private final AtomicInteger _pendingTableTasks = new AtomicInteger();
+   private final AtomicInteger _pendingProcedureTasks = new AtomicInteger();
+   private final AtomicInteger _pendingUDTTasks = new AtomicInteger();
+
+   private int _beginProgress;
+
+   private interface Loader
+   {
+      void load(SQLDatabaseMetaData dmd, ProgressCallBack pcb) throws SQLException;
+   }
+
+   private static class LoadTask
+   {
+      final String msg;
+      final String schemaName;
+      final AtomicInteger pendingTasksOfType;
+      final Loader loader;
+
+      LoadTask(String msg, String schemaName, AtomicInteger pendingTasksOfType, Loader loader)
+      {
+         this.msg = msg;
+         this.schemaName = schemaName;
+         this.pendingTasksOfType = pendingTasksOfType;
+         this.loader = loader;
+      }
+   }
+
+   ParallelSchemaInfoLoader(SchemaInfo schemaInfo, ISession session, SchemaInfoCache schemaInfoCache, AliasCatalogLoadModel aliasCatalogLoadModel)
+   {
+      _schemaInfo = schemaInfo;
+      _session = session;
+      _schemaInfoCache = schemaInfoCache;
+      _aliasCatalogLoadModel = aliasCatalogLoadModel;
+   }
+
+   /**
+    * @param beginProgress The progress reached by loading catalogs and schemas.
+    *                      The remaining progress up to {@link SchemaInfo#MAX_PROGRESS} is the fraction of finished tasks.
+    */
+   void load(int beginProgress)
+   {
+      _beginProgress = beginProgress;
+
+      createTasks();
+
+      List<ISQLConnection> poolConnections = checkOutPoolConnections();
+      List<Thread> loaderThreads = new ArrayList<>();
+      try
+      {
+         s_log.info("Loading schema info of " + _taskCount + " schema/object type combinations using " + (poolConnections.size() + 1) + " connections");
+
+         for (int i = 0; i < poolConnections.size(); i++)
+         {
+            SQLDatabaseMetaData dmd = poolConnections.get(i).getSQLMetaData();
+            Thread loaderThread = new Thread(() -> workOffTasks(dmd));
+            loaderThread.setName("Schema Info Loader Thread " + (i + 1));
+            loaderThread.setDaemon(true);
+            loaderThread.start();
+            loaderThreads.add(loaderThread);
+         }
+
+         _schemaInfo.loadSchemaIndependentObjects(() -> getProgress());
+         workOffTasks(_session.getSQLConnection().getSQLMetaData());
+
+         for (Thread loaderThread : loaderThreads)
+         {
+            join(loaderThread);
+         }
+      }
+      finally
+      {
+         poolConnections.forEach(con -> _session.returnUserQuerySQLConnection(con));
+
+         // Object types without tasks and types whose loading failed are done as well.
+         _schemaInfo.notifyTablesLoaded();
+         _schemaInfo.notifyStoredProceduresLoaded();
+         _schemaInfo.notifyUDTsLoaded();
+      }
+   }
+
+   private void createTasks()
+   {
+      for (SchemaLoadInfo schemaLoadInfo : _schemaInfoCache.getMatchingSchemaLoadInfos(null, null))
+      {
+         addTask(SchemaInfo.i18n.LOADING_TABLES_MSG, schemaLoadInfo.getSchemaName(), _pendingTableTasks,
+                 (dmd, pcb) -> _schemaInfo.loadTablesOfSchema(dmd, _aliasCatalogLoadModel, schemaLoadInfo, null, pcb));
+      }
+
+      SchemaLoadInfo[] schemaLoadInfos = _schemaInfoCache.getMatchingSchemaLoadInfos(null);
+
+      for (SchemaLoadInfo schemaLoadInfo : schemaLoadInfos)
+      {
+         if (schemaLoadInfo.isLoadProcedures())
+         {
+            addTask(SchemaInfo.i18n.LOADING_PROCS_MSG, schemaLoadInfo.getSchemaName(), _pendingProcedureTasks,
+                    (dmd, pcb) -> _schemaInfo.loadStoredProceduresOfSchema(dmd, _aliasCatalogLoadModel, schemaLoadInfo.getSchemaName(), null, pcb));
+         }
+      }
+
+      for (SchemaLoadInfo schemaLoadInfo : schemaLoadInfos)
+      {
+         if (schemaLoadInfo.isLoadUDTs())
+         {
+            addTask(SchemaInfo.i18n.LOADING_UDTS_MSG, schemaLoadInfo.getSchemaName(), _pendingUDTTasks,
+                    (dmd, pcb) -> _schemaInfo.loadUDTsOfSchema(dmd, _aliasCatalogLoadModel, schemaLoadInfo.getSchemaName(), null, pcb));
+         }
+      }
+
+      _taskCount = _tasks.size();
+   }
+
+   private void addTask(String msg, String schemaName, AtomicInteger pendingTasksOfType, Loader loader)
+   {
+      pendingTasksOfType.incrementAndGet();
+      _tasks.add(new LoadTask(msg, schemaName, pendingTasksOfType, loader));
+   }
+
+   /**
+    * The pool hands out the Session's connection when it is inactive.
+    * When it hands out a connection twice all its connections are in use.
+    */
+   private List<ISQLConnection> checkOutPoolConnections()
+   {
+      ArrayList<ISQLConnection> ret = new ArrayList<>();
+
+      ISQLConnection sessionConnection = _session.getSQLConnection();
+      int poolSize = _session.getProperties().getQueryConnectionPoolSize();
+
+      while (ret.size() < poolSize && ret.size() < _taskCount)
+      {
+         ISQLConnection con = _session.checkOutUserQuerySQLConnection();
+
+         if (con == sessionConnection || ret.contains(con))
+         {
+            _session.returnUserQuerySQLConnection(con);
+            break;
+         }
+
+         ret.add(con);
+      }
+
+      if (ret.isEmpty())
+      {
+         s_log.info("No query pool connections available to load schema info in parallel. Loading on the Session's connection only.");
+      }
+
+      return ret;
+   }
+
+   private void workOffTasks(SQLDatabaseMetaData dmd)
+   {
+      LoadTask task;
+      while (null != (task = _tasks.poll()))
+      {
+         String msg = task.msg + " (" + task.schemaName + ")";
+         _schemaInfo.showProgress(msg, getProgress());
+
+         ProgressCallBack pcb = new ProgressCallBackAdaptor()
+         {
+            @Override
+            public void currentlyLoading(String simpleName)
+            {
+               _schemaInfo.showProgress(msg + " (" + simpleName + ")", getProgress());
+            }
+         };
+
+         try
+         {
+            task.loader.load(dmd, pcb);
+         }
+         catch (Throwable th)
+         {
+            s_log.error("Failed to load schema info: " + msg, th);
+         }
+         finally
+         {
+            _finishedTaskCount.incrementAndGet();
+            taskFinished(task);
+         }
+      }
+   }
+
+   private void taskFinished(LoadTask task)
+   {
+      if (0 < task.pendingTasksOfType.decrementAndGet())
+      {
+         return;
+      }
+
+      if (_pendingTableTasks == task.pendingTasksOfType)
+      {
+         _schemaInfo.notifyTablesLoaded();
+      }
+      else if (_pendingProcedureTasks == task.pendingTasksOfType)
+      {
+         _schemaInfo.notifyStoredProceduresLoaded();
+      }
+      else
+      {
+         _schemaInfo.notifyUDTsLoaded();
+      }
+   }
+
+   private int getProgress()
+   {
+      if (0 == _taskCount)
+      {
+         return _beginProgress;
+      }
+      return _beginProgress + (SchemaInfo.MAX_PROGRESS - _beginProgress) * _finishedTaskCount.get() / _taskCount;
+   }
+
+   private static void join(Thread loaderThread)
+   {
+      while (loaderThread.isAlive())
+      {
+         try
+         {
+            loaderThread.join();
+         }
+         catch (InterruptedException e)
+         {
+            s_log.debug("Interrupted while waiting for " + loaderThread.getName() + " to end");
+         }
+      }
+   }
+}
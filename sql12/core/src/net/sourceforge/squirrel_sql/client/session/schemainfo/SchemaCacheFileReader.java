@@ -0,0 +1,323 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.client.gui.db.SQLAliasSchemaProperties;
+import net.sourceforge.squirrel_sql.client.session.ExtendedColumnInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ProcedureInfo;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+import net.sourceforge.squirrel_sql.fw.sql.TableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.UDTInfo;
+import net.sourceforge.squirrel_sql.fw.sql.databasemetadata.ProcedureInfoOrigin;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+/**
+ * Reads Schema cache files written by {@link SchemaCacheFileWriter}.
+ * <p>
+ * File layout, all numbers big endian:
+ * <pre>
+ * header:         MAGIC, FORMAT_VERSION, long offset of string table, long offset of index
+ * sections:       schema independent section, one section per catalog/schema, one column section per table
+ * string table:   int count, strings
+ * index:          offset and length of the schema independent section,
+ *                 catalog, schema, offset and length of each catalog/schema section,
+ *                 table name, offset, length and column names of each column section,
+ *                 names of tables whose columns were not accessible
+ * </pre>
+ * Strings are written as int length of their UTF-8 bytes followed by the bytes, -1 stands for null.
+ * Sections and index refer to strings by their int position in the string table.
+ * <p>
+ * The index, the string table and all sections but the column sections are read when the cache is loaded.
+ * Column sections are read when a table's columns are accessed for the first time, see {@link CachedColumnSections}.
+ * Column sections have their own string table. Thus they can be decoded
+ * and copied to a new cache file without the rest of the file.
+ */
+class SchemaCacheFileReader
+{
+   /**
+    * "SQSC"
+    */
+   static final int MAGIC = 0x53515343;
+
+   /**
+    * To be incremented with each change of the file layout.
+    */
+   static final int FORMAT_VERSION = 1;
+
+   static final int HEADER_LENGTH = 4 + 4 + 8 + 8;
+
+   private final FileChannel _channel;
+   private String[] _strings;
+
+   private SchemaCacheFileReader(FileChannel channel)
+   {
+      _channel = channel;
+   }
+
+   static SchemaInfoCache read(File schemaCacheFile) throws IOException, ClassNotFoundException
+   {
+      FileChannel channel = FileChannel.open(schemaCacheFile.toPath(), StandardOpenOption.READ);
+      boolean keepOpen = false;
+      try
+      {
+         SchemaInfoCache ret = new SchemaInfoCache();
+         keepOpen = new SchemaCacheFileReader(channel).read(ret);
+         return ret;
+      }
+      finally
+      {
+         if(false == keepOpen)
+         {
+            channel.close();
+         }
+      }
+   }
+
+   /**
+    * @return true if the cache refers to column sections of the file.
+    */
+   private boolean read(SchemaInfoCache cache) throws IOException, ClassNotFoundException
+   {
+      DataInputStream header = readRegion(_channel, 0, HEADER_LENGTH);
+      if(MAGIC != header.readInt())
+      {
+         throw new IOException("Not a Schema cache file");
+      }
+
+      int formatVersion = header.readInt();
+      if(FORMAT_VERSION != formatVersion)
+      {
+         throw new IOException("Schema cache file format version " + formatVersion + " is not supported. Supported version is " + FORMAT_VERSION);
+      }
+
+      long stringTableOffset = header.readLong();
+      long indexOffset = header.readLong();
+
+      _strings = readStringTable(readRegion(_channel, stringTableOffset, toLength(indexOffset - stringTableOffset)));
+
+      DataInputStream index = readRegion(_channel, indexOffset, toLength(_channel.size() - indexOffset));
+
+      readSchemaIndependentSection(readRegion(_channel, index.readLong(), index.readInt()), cache);
+
+      ArrayList<ITableInfo> tableInfos = new ArrayList<>();
+      int schemaSectionCount = index.readInt();
+      for (int i = 0; i < schemaSectionCount; i++)
+      {
+         String catalog = readStringId(index);
+         String schema = readStringId(index);
+         readSchemaSection(readRegion(_channel, index.readLong(), index.readInt()), catalog, schema, cache, tableInfos);
+      }
+      cache.writeToTableCache(tableInfos.toArray(new ITableInfo[0]));
+
+      CachedColumnSections cachedColumnSections = new CachedColumnSections(_channel);
+      int columnSectionCount = index.readInt();
+      for (int i = 0; i < columnSectionCount; i++)
+      {
+         String simpleTableName = readStringId(index);
+         long offset = index.readLong();
+         int length = index.readInt();
+
+         String[] columnNames = new String[index.readInt()];
+         for (int j = 0; j < columnNames.length; j++)
+         {
+            columnNames[j] = readStringId(index);
+         }
+
+         cachedColumnSections.add(new CachedColumnSections.Section(simpleTableName, offset, length, columnNames));
+      }
+
+      cache.getSchemaInfoColumnCache().writeTablesWithInaccessibleColumns(readStringIdList(index));
+
+      if(0 == columnSectionCount)
+      {
+         return false;
+      }
+
+      cache.getSchemaInfoColumnCache().setCachedColumnSections(cachedColumnSections);
+      return true;
+   }
+
+   private void readSchemaIndependentSection(DataInputStream section, SchemaInfoCache cache) throws IOException, ClassNotFoundException
+   {
+      int schemaPropsLength = section.readInt();
+      if(0 <= schemaPropsLength)
+      {
+         byte[] schemaProps = new byte[schemaPropsLength];
+         section.readFully(schemaProps);
+         try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(schemaProps)))
+         {
+            cache.setSchemaPropsCacheIsBasedOn((SQLAliasSchemaProperties) ois.readObject());
+         }
+      }
+
+      cache.writeCatalogs(readStringIdList(section).toArray(new String[0]));
+      cache.writeSchemas(readStringIdList(section).toArray(new String[0]));
+      cache.writeKeywords(readStringIdMap(section));
+      cache.writeDataTypes(readStringIdMap(section));
+      cache.writeFunctions(readStringIdMap(section));
+   }
+
+   private void readSchemaSection(DataInputStream section, String catalog, String schema, SchemaInfoCache cache, List<ITableInfo> tableInfos) throws IOException
+   {
+      int tableCount = section.readInt();
+      for (int i = 0; i < tableCount; i++)
+      {
+         String simpleName = readStringId(section);
+         String tableType = readStringId(section);
+         String remarks = readStringId(section);
+         String qualifiedName = readStringId(section);
+         tableInfos.add(new TableInfo(catalog, schema, simpleName, tableType, remarks, qualifiedName));
+      }
+
+      int procedureCount = section.readInt();
+      for (int i = 0; i < procedureCount; i++)
+      {
+         String simpleName = readStringId(section);
+         String remarks = readStringId(section);
+         int procType = section.readInt();
+         String origin = readStringId(section);
+         String qualifiedName = readStringId(section);
+         ProcedureInfoOrigin procedureInfoOrigin = null == origin ? null : ProcedureInfoOrigin.valueOf(origin);
+         cache.writeToProcedureCache(new ProcedureInfo(catalog, schema, simpleName, remarks, procType, procedureInfoOrigin, qualifiedName));
+      }
+
+      int udtCount = section.readInt();
+      for (int i = 0; i < udtCount; i++)
+      {
+         String simpleName = readStringId(section);
+         String javaClassName = readStringId(section);
+         String dataType = readStringId(section);
+         String remarks = readStringId(section);
+         String qualifiedName = readStringId(section);
+         cache.writeToUDTCache(new UDTInfo(catalog, schema, simpleName, javaClassName, dataType, remarks, qualifiedName));
+      }
+   }
+
+   static List<ExtendedColumnInfo> readColumnSection(byte[] sectionBytes, String simpleTableName) throws IOException
+   {
+      DataInputStream section = new DataInputStream(new ByteArrayInputStream(sectionBytes));
+      String[] strings = readStringTable(section);
+
+      int columnCount = section.readInt();
+      ArrayList<ExtendedColumnInfo> ret = new ArrayList<>(columnCount);
+      for (int i = 0; i < columnCount; i++)
+      {
+         String catalog = readStringId(section, strings);
+         String schema = readStringId(section, strings);
+         String tableName = readStringId(section, strings);
+         String columnName = readStringId(section, strings);
+         int dataType = section.readInt();
+         String typeName = readStringId(section, strings);
+         int columnSize = section.readInt();
+         int decimalDigits = section.readInt();
+         int radix = section.readInt();
+         int isNullAllowed = section.readInt();
+         String remarks = readStringId(section, strings);
+         String defaultValue = readStringId(section, strings);
+         int octetLength = section.readInt();
+         int ordinalPosition = section.readInt();
+         String isNullable = readStringId(section, strings);
+         String qualifiedName = readStringId(section, strings);
+
+         TableColumnInfo info = new TableColumnInfo(catalog, schema, tableName, columnName, dataType, typeName, columnSize, decimalDigits,
+                                                    radix, isNullAllowed, remarks, defaultValue, octetLength, ordinalPosition, isNullable, qualifiedName);
+         ret.add(new ExtendedColumnInfo(info, simpleTableName));
+      }
+
+      return ret;
+   }
+
+   private String readStringId(DataInputStream in) throws IOException
+   {
+      return readStringId(in, _strings);
+   }
+
+   private static String readStringId(DataInputStream in, String[] strings) throws IOException
+   {
+      int id = in.readInt();
+      return -1 == id ? null : strings[id];
+   }
+
+   private List<String> readStringIdList(DataInputStream in) throws IOException
+   {
+      int count = in.readInt();
+      ArrayList<String> ret = new ArrayList<>(count);
+      for (int i = 0; i < count; i++)
+      {
+         ret.add(readStringId(in));
+      }
+      return ret;
+   }
+
+   private Hashtable<CaseInsensitiveString, String> readStringIdMap(DataInputStream in) throws IOException
+   {
+      int count = in.readInt();
+      Hashtable<CaseInsensitiveString, String> ret = new Hashtable<>();
+      for (int i = 0; i < count; i++)
+      {
+         ret.put(new CaseInsensitiveString(readStringId(in)), readStringId(in));
+      }
+      return ret;
+   }
+
+   private static String[] readStringTable(DataInputStream in) throws IOException
+   {
+      String[] ret = new String[in.readInt()];
+      for (int i = 0; i < ret.length; i++)
+      {
+         int length = in.readInt();
+         if(0 <= length)
+         {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            ret[i] = new String(bytes, StandardCharsets.UTF_8);
+         }
+      }
+      return ret;
+   }
+
+   private static DataInputStream readRegion(FileChannel channel, long offset, int length) throws IOException
+   {
+      return new DataInputStream(new ByteArrayInputStream(read(channel, offset, length)));
+   }
+
+   /**
+    * Uses positional reads which may be called concurrently on the same channel.
+    */
+   static byte[] read(FileChannel channel, long offset, int length) throws IOException
+   {
+      byte[] ret = new byte[length];
+      ByteBuffer buf = ByteBuffer.wrap(ret);
+
+      while (buf.hasRemaining())
+      {
+         if (0 > channel.read(buf, offset + buf.position()))
+         {
+            throw new EOFException("Unexpected end of Schema cache file");
+         }
+      }
+
+      return ret;
+   }
+
+   private static int toLength(long length) throws IOException
+   {
+      if(0 > length || Integer.MAX_VALUE < length)
+      {
+         throw new IOException("Corrupt Schema cache file");
+      }
+      return (int) length;
+   }
+}
@@ -0,0 +1,424 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.client.session.ExtendedColumnInfo;
+import net.sourceforge.squirrel_sql.fw.sql.IProcedureInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.IUDTInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ProcedureInfo;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link SchemaInfoCache} to a Schema cache file. See {@link SchemaCacheFileReader} for the file layout.
+ * <p>
+ * Column sections that were not read from the file the cache was loaded from are copied unchanged.
+ * Thus the file to write must not be the file the cache was loaded from.
+ */
+class SchemaCacheFileWriter
+{
+   private final SchemaInfoCache _cache;
+
+   private final StringTable _strings = new StringTable();
+
+   private long _schemaIndependentOffset;
+   private int _schemaIndependentLength;
+   private final ArrayList<IndexEntry> _schemaSectionEntries = new ArrayList<>();
+   private final ArrayList<IndexEntry> _columnSectionEntries = new ArrayList<>();
+   private int[] _inaccessibleTableIds;
+
+   private static class IndexEntry
+   {
+      final int[] stringIds;
+      final long offset;
+      final int length;
+
+      IndexEntry(int[] stringIds, long offset, int length)
+      {
+         this.stringIds = stringIds;
+         this.offset = offset;
+         this.length = length;
+      }
+   }
+
+   private static class SchemaSection
+   {
+      final ArrayList<ITableInfo> tables = new ArrayList<>();
+      final ArrayList<IProcedureInfo> procedures = new ArrayList<>();
+      final ArrayList<IUDTInfo> udts = new ArrayList<>();
+   }
+
+   SchemaCacheFileWriter(SchemaInfoCache cache)
+   {
+      _cache = cache;
+   }
+
+   void write(File schemaCacheFile) throws IOException
+   {
+      long stringTableOffset;
+      long indexOffset;
+
+      try (PositionOutputStream pos = new PositionOutputStream(new BufferedOutputStream(new FileOutputStream(schemaCacheFile)));
+           DataOutputStream dos = new DataOutputStream(pos))
+      {
+         dos.writeInt(SchemaCacheFileReader.MAGIC);
+         dos.writeInt(SchemaCacheFileReader.FORMAT_VERSION);
+         // Offsets of string table and index, written when known.
+         dos.writeLong(0);
+         dos.writeLong(0);
+
+         _schemaIndependentOffset = pos.getPosition();
+         writeSchemaIndependentSection(dos);
+         _schemaIndependentLength = (int) (pos.getPosition() - _schemaIndependentOffset);
+
+         writeSchemaSections(dos, pos);
+         writeColumnSections(dos, pos);
+         _inaccessibleTableIds = getTablesWithInaccessibleColumnsIds();
+
+         stringTableOffset = pos.getPosition();
+         _strings.write(dos);
+
+         indexOffset = pos.getPosition();
+         writeIndex(dos);
+      }
+
+      try (RandomAccessFile raf = new RandomAccessFile(schemaCacheFile, "rw"))
+      {
+         raf.seek(8);
+         raf.writeLong(stringTableOffset);
+         raf.writeLong(indexOffset);
+      }
+   }
+
+   private void writeSchemaIndependentSection(DataOutputStream dos) throws IOException
+   {
+      if(null == _cache.getSchemaPropsCacheIsBasedOn())
+      {
+         dos.writeInt(-1);
+      }
+      else
+      {
+         ByteArrayOutputStream schemaProps = new ByteArrayOutputStream();
+         try (ObjectOutputStream oos = new ObjectOutputStream(schemaProps))
+         {
+            oos.writeObject(_cache.getSchemaPropsCacheIsBasedOn());
+         }
+         dos.writeInt(schemaProps.size());
+         schemaProps.writeTo(dos);
+      }
+
+      writeStringIds(dos, _cache.getCatalogsForReadOnly());
+      writeStringIds(dos, _cache.getSchemasForReadOnly());
+      writeStringIds(dos, _cache.getKeywordsForReadOnly());
+      writeStringIds(dos, _cache.getDataTypesForReadOnly());
+      writeStringIds(dos, _cache.getFunctionsForReadOnly());
+   }
+
+   private void writeSchemaSections(DataOutputStream dos, PositionOutputStream pos) throws IOException
+   {
+      LinkedHashMap<List<String>, SchemaSection> sections = new LinkedHashMap<>();
+
+      for (ITableInfo table : _cache.getITableInfosForReadOnly())
+      {
+         getSchemaSection(sections, table.getCatalogName(), table.getSchemaName()).tables.add(table);
+      }
+
+      for (IProcedureInfo procedure : copyKeys(_cache.getIProcedureInfosForReadOnly()))
+      {
+         getSchemaSection(sections, procedure.getCatalogName(), procedure.getSchemaName()).procedures.add(procedure);
+      }
+
+      for (IUDTInfo udt : copyKeys(_cache.getIUDTInfosForReadOnly()))
+      {
+         getSchemaSection(sections, udt.getCatalogName(), udt.getSchemaName()).udts.add(udt);
+      }
+
+      for (Map.Entry<List<String>, SchemaSection> entry : sections.entrySet())
+      {
+         long offset = pos.getPosition();
+         writeSchemaSection(dos, entry.getValue());
+
+         int[] stringIds = {_strings.getId(entry.getKey().get(0)), _strings.getId(entry.getKey().get(1))};
+         _schemaSectionEntries.add(new IndexEntry(stringIds, offset, (int) (pos.getPosition() - offset)));
+      }
+   }
+
+   private static SchemaSection getSchemaSection(Map<List<String>, SchemaSection> sections, String catalog, String schema)
+   {
+      return sections.computeIfAbsent(Arrays.asList(catalog, schema), k -> new SchemaSection());
+   }
+
+   private static <T> List<T> copyKeys(Map<T, T> synchronizedMap)
+   {
+      synchronized (synchronizedMap)
+      {
+         return new ArrayList<>(synchronizedMap.keySet());
+      }
+   }
+
+   private void writeSchemaSection(DataOutputStream dos, SchemaSection section) throws IOException
+   {
+      dos.writeInt(section.tables.size());
+      for (ITableInfo table : section.tables)
+      {
+         dos.writeInt(_strings.getId(table.getSimpleName()));
+         dos.writeInt(_strings.getId(table.getType()));
+         dos.writeInt(_strings.getId(table.getRemarks()));
+         dos.writeInt(_strings.getId(table.getQualifiedName()));
+      }
+
+      dos.writeInt(section.procedures.size());
+      for (IProcedureInfo procedure : section.procedures)
+      {
+         String origin = null;
+         if(procedure instanceof ProcedureInfo && null != ((ProcedureInfo) procedure).getProcedureInfoOrigin())
+         {
+            origin = ((ProcedureInfo) procedure).getProcedureInfoOrigin().name();
+         }
+
+         dos.writeInt(_strings.getId(procedure.getSimpleName()));
+         dos.writeInt(_strings.getId(procedure.getRemarks()));
+         dos.writeInt(procedure.getProcedureType());
+         dos.writeInt(_strings.getId(origin));
+         dos.writeInt(_strings.getId(procedure.getQualifiedName()));
+      }
+
+      dos.writeInt(section.udts.size());
+      for (IUDTInfo udt : section.udts)
+      {
+         dos.writeInt(_strings.getId(udt.getSimpleName()));
+         dos.writeInt(_strings.getId(udt.getJavaClassName()));
+         dos.writeInt(_strings.getId(udt.getDataType()));
+         dos.writeInt(_strings.getId(udt.getRemarks()));
+         dos.writeInt(_strings.getId(udt.getQualifiedName()));
+      }
+   }
+
+   private void writeColumnSections(DataOutputStream dos, PositionOutputStream pos) throws IOException
+   {
+      SchemaInfoColumnCache columnCache = _cache.getSchemaInfoColumnCache();
+
+      Map<CaseInsensitiveString, List<ExtendedColumnInfo>> columnsByTableName = columnCache.getExtendedColumnInfosByTableNameForReadOnly();
+      ArrayList<Map.Entry<CaseInsensitiveString, List<ExtendedColumnInfo>>> loadedTables;
+      synchronized (columnsByTableName)
+      {
+         loadedTables = new ArrayList<>(columnsByTableName.entrySet());
+      }
+
+      for (Map.Entry<CaseInsensitiveString, List<ExtendedColumnInfo>> entry : loadedTables)
+      {
+         List<ExtendedColumnInfo> columns = entry.getValue();
+
+         String[] columnNames = new String[columns.size()];
+         for (int i = 0; i < columnNames.length; i++)
+         {
+            columnNames[i] = columns.get(i).getColumnName();
+         }
+
+         long offset = pos.getPosition();
+         writeColumnSection(dos, columns);
+         addColumnSectionEntry(entry.getKey().toString(), columnNames, offset, (int) (pos.getPosition() - offset));
+      }
+
+      CachedColumnSections cachedColumnSections = columnCache.getCachedColumnSections();
+      if(null != cachedColumnSections)
+      {
+         for (CachedColumnSections.Section section : cachedColumnSections.getSections())
+         {
+            long offset = pos.getPosition();
+            dos.write(cachedColumnSections.read(section));
+            addColumnSectionEntry(section.simpleTableName, section.columnNames, offset, section.length);
+         }
+      }
+   }
+
+   private void addColumnSectionEntry(String simpleTableName, String[] columnNames, long offset, int length)
+   {
+      int[] stringIds = new int[columnNames.length + 1];
+      stringIds[0] = _strings.getId(simpleTableName);
+      for (int i = 0; i < columnNames.length; i++)
+      {
+         stringIds[i + 1] = _strings.getId(columnNames[i]);
+      }
+      _columnSectionEntries.add(new IndexEntry(stringIds, offset, length));
+   }
+
+   private static void writeColumnSection(DataOutputStream dos, List<ExtendedColumnInfo> columns) throws IOException
+   {
+      StringTable strings = new StringTable();
+      ByteArrayOutputStream columnBytes = new ByteArrayOutputStream();
+      DataOutputStream cos = new DataOutputStream(columnBytes);
+
+      cos.writeInt(columns.size());
+      for (ExtendedColumnInfo column : columns)
+      {
+         TableColumnInfo info = column.getTableColumnInfo();
+         cos.writeInt(strings.getId(info.getCatalogName()));
+         cos.writeInt(strings.getId(info.getSchemaName()));
+         cos.writeInt(strings.getId(info.getTableName()));
+         cos.writeInt(strings.getId(info.getColumnName()));
+         cos.writeInt(info.getDataType());
+         cos.writeInt(strings.getId(info.getTypeName()));
+         cos.writeInt(info.getColumnSize());
+         cos.writeInt(info.getDecimalDigits());
+         cos.writeInt(info.getRadix());
+         cos.writeInt(info.isNullAllowed());
+         cos.writeInt(strings.getId(info.getRemarks()));
+         cos.writeInt(strings.getId(info.getDefaultValue()));
+         cos.writeInt(info.getOctetLength());
+         cos.writeInt(info.getOrdinalPosition());
+         cos.writeInt(strings.getId(info.isNullable()));
+         cos.writeInt(strings.getId(info.getQualifiedName()));
+      }
+
+      strings.write(dos);
+      columnBytes.writeTo(dos);
+   }
+
+   private void writeIndex(DataOutputStream dos) throws IOException
+   {
+      dos.writeLong(_schemaIndependentOffset);
+      dos.writeInt(_schemaIndependentLength);
+
+      dos.writeInt(_schemaSectionEntries.size());
+      for (IndexEntry entry : _schemaSectionEntries)
+      {
+         dos.writeInt(entry.stringIds[0]);
+         dos.writeInt(entry.stringIds[1]);
+         dos.writeLong(entry.offset);
+         dos.writeInt(entry.length);
+      }
+
+      dos.writeInt(_columnSectionEntries.size());
+      for (IndexEntry entry : _columnSectionEntries)
+      {
+         dos.writeInt(entry.stringIds[0]);
+         dos.writeLong(entry.offset);
+         dos.writeInt(entry.length);
+         dos.writeInt(entry.stringIds.length - 1);
+         for (int i = 1; i < entry.stringIds.length; i++)
+         {
+            dos.writeInt(entry.stringIds[i]);
+         }
+      }
+
+      dos.writeInt(_inaccessibleTableIds.length);
+      for (int id : _inaccessibleTableIds)
+      {
+         dos.writeInt(id);
+      }
+   }
+
+   private int[] getTablesWithInaccessibleColumnsIds()
+   {
+      Collection<CaseInsensitiveString> tables = _cache.getSchemaInfoColumnCache().getTablesWithInaccessibleColumnsForReadOnly();
+      synchronized (tables)
+      {
+         return tables.stream().mapToInt(table -> _strings.getId(table.toString())).toArray();
+      }
+   }
+
+   private void writeStringIds(DataOutputStream dos, List<String> strings) throws IOException
+   {
+      dos.writeInt(strings.size());
+      for (String string : strings)
+      {
+         dos.writeInt(_strings.getId(string));
+      }
+   }
+
+   private void writeStringIds(DataOutputStream dos, Map<CaseInsensitiveString, String> stringsByKey) throws IOException
+   {
+      ArrayList<Map.Entry<CaseInsensitiveString, String>> entries;
+      synchronized (stringsByKey)
+      {
+         entries = new ArrayList<>(stringsByKey.entrySet());
+      }
+
+      dos.writeInt(entries.size());
+      for (Map.Entry<CaseInsensitiveString, String> entry : entries)
+      {
+         dos.writeInt(_strings.getId(entry.getKey().toString()));
+         dos.writeInt(_strings.getId(entry.getValue()));
+      }
+   }
+
+   /**
+    * Each distinct string is written once, null is represented by id -1.
+    */
+   private static class StringTable
+   {
+      private final HashMap<String, Integer> _idsByString = new HashMap<>();
+      private final ArrayList<String> _strings = new ArrayList<>();
+
+      int getId(String s)
+      {
+         if(null == s)
+         {
+            return -1;
+         }
+
+         return _idsByString.computeIfAbsent(s, k -> {
+            _strings.add(k);
+            return _strings.size() - 1;
+         });
+      }
+
+      void write(DataOutputStream dos) throws IOException
+      {
+         dos.writeInt(_strings.size());
+         for (String s : _strings)
+         {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            dos.writeInt(bytes.length);
+            dos.write(bytes);
+         }
+      }
+   }
+
+   private static class PositionOutputStream extends FilterOutputStream
+   {
+      private long _position;
+
+      PositionOutputStream(OutputStream out)
+      {
+         super(out);
+      }
+
+      @Override
+      public void write(int b) throws IOException
+      {
+         out.write(b);
+         ++_position;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException
+      {
+         out.write(b, off, len);
+         _position += len;
+      }
+
+      long getPosition()
+      {
+         return _position;
+      }
+   }
+}
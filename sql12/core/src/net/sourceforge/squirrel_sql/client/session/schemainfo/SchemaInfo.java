@@ -44,12 +44,14 @@ import javax.swing.*;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.IntSupplier;
 
 public class SchemaInfo
 {
    public static final int TABLE_EXT_NOT_A_TABLE = 0;
    public static final int TABLE_EXT_COLS_LOADED_IN_THIS_CALL = 1;
    public static final int TABLE_EXT_COLS_LOADED_BEFORE = 2;
+   public static final int TABLE_EXT_COLS_LOADING = 3;
 
    private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(SchemaInfo.class);
    private static final ILogger s_log = LoggerController.createLogger(SchemaInfo.class);
@@ -68,7 +70,7 @@ public class SchemaInfo
     */
    private static final int LOAD_METHODS_COUNT = 7;
 
-   private static final int MAX_PROGRESS = 100;
+   static final int MAX_PROGRESS = 100;
 
    static interface i18n {
        // i18n[SchemaInfo.loadingCatalogs=Loading catalogs]
@@ -91,6 +93,8 @@ public class SchemaInfo
        
        String LOADING_UDTS_MSG = s_stringMgr.getString("SchemaInfo.loadingUDTs");
 
+       String REFRESHING_MSG = s_stringMgr.getString("SchemaInfo.refreshing");
+
        // i18n[SchemaInfo.loadingSchemas=Loading schemas]
        String LOADING_SCHEMAS_MSG = s_stringMgr.getString("SchemaInfo.loadingSchemas");
    }
@@ -101,6 +105,9 @@ public class SchemaInfo
 
    private SchemaInfoCache _schemaInfoCache;
 
+   private IncrementalSchemaInfoRefresher _incrementalRefresher;
+   private ColumnPrefetcher _columnPrefetcher;
+
 
    private Vector<SchemaInfoUpdateListener> _listeners = new Vector<>();
    private boolean _inInitialLoad;
@@ -155,6 +162,8 @@ public class SchemaInfo
    public void initialLoad(ISession session)
    {
       _session = session;
+      _incrementalRefresher = new IncrementalSchemaInfoRefresher(this, _session);
+      _columnPrefetcher = new ColumnPrefetcher(this);
 
       breathing();
       _schemaInfoCache = SchemaInfoCacheSerializer.load(_session);
@@ -182,8 +191,13 @@ public class SchemaInfo
     */
    void reloadAll(boolean fireSchemaInfoUpdate)
    {
+      if(null != _schemaInfoCache)
+      {
+         _schemaInfoCache.close();
+      }
       SchemaInfoCacheSerializer.deleteCacheFile(_session.getApplication(), _session.getAlias(), false);
       _schemaInfoCache = SchemaInfoCacheSerializer.load(_session);
+      _incrementalRefresher.takeBaseline(_schemaInfoCache, Main.getApplication().getCatalogLoadModelManager().createAliasCatalogLoadModel(_session));
       privateLoadAll();
 
       if(fireSchemaInfoUpdate)
@@ -192,6 +206,74 @@ public class SchemaInfo
       }
    }
 
+   /**
+    * Re-reads the catalog and schema names and the tables, stored procedures and UDTs of the schemas that changed
+    * since the last refresh, see {@link IncrementalSchemaInfoRefresher}.
+    * Listeners are notified by {@link SchemaInfoUpdateListener#schemaInfoUpdated(SchemaInfoDelta)}.
+    */
+   public void refreshIncrementally()
+   {
+      refreshIncrementally(true);
+   }
+
+   /**
+    * @param fireSchemaInfoUpdate Should only be false when the caller makes sure fireSchemaInfoUpdate(SchemaInfoDelta) is called later.
+    */
+   SchemaInfoDelta refreshIncrementally(boolean fireSchemaInfoUpdate)
+   {
+      SchemaInfoDelta ret = new SchemaInfoDelta();
+
+      synchronized (this)
+      {
+         if(_loading)
+         {
+            return ret;
+         }
+         _loading = true;
+         _tablesLoaded = false;
+         _storedProceduresLoaded = false;
+         _udtsLoaded = false;
+      }
+
+      try
+      {
+         breathing();
+
+         // Like a complete reload the schema names are read again, so that created or dropped schemas are found.
+         String[] catalogsBefore = getCatalogs();
+         String[] schemasBefore = getSchemas();
+         setProgress(i18n.LOADING_SCHEMAS_MSG, 0);
+         privateLoadCatalogs();
+         privateLoadSchemas();
+
+         ret = _incrementalRefresher.refresh(_schemaInfoCache, Main.getApplication().getCatalogLoadModelManager().createAliasCatalogLoadModel(_session));
+         ret.setSchemaNamesChanged(false == Arrays.equals(catalogsBefore, getCatalogs()) || false == Arrays.equals(schemasBefore, getSchemas()));
+      }
+      catch (Throwable th)
+      {
+         s_log.error("Failed to refresh schema info", th);
+      }
+      finally
+      {
+         if (null != _session.getSessionPanel())
+         {
+            _session.getSessionPanel().setStatusBarProgressFinished();
+         }
+         _loading = false;
+
+         notifyTablesLoaded();
+         notifyStoredProceduresLoaded();
+         notifyUDTsLoaded();
+      }
+
+      if(fireSchemaInfoUpdate)
+      {
+         fireSchemaInfoUpdate(ret);
+      }
+
+      return ret;
+   }
+
    /**
     * Will re-read all table data into the cache.
     */
@@ -268,72 +350,90 @@ public class SchemaInfo
 
       notifySchemasAndCatalogsLoad();
 
+      if (_session.getProperties().getLoadSchemaInfoInParallel())
+      {
+         new ParallelSchemaInfoLoader(this, _session, _schemaInfoCache, aliasCatalogLoadModel).load(getLoadMethodProgress(progress));
+         return;
+      }
+
+      int[] progressBuf = {progress};
+      loadSchemaIndependentObjects(() -> getLoadMethodProgress(progressBuf[0]++));
+      progress = progressBuf[0];
+
       try
       {
-         int beginProgress = getLoadMethodProgress(progress++);
-         setProgress(i18n.LOADING_KEYWORDS_MSG, beginProgress);
-         loadKeywords(i18n.LOADING_KEYWORDS_MSG, beginProgress);
+         progress = loadTables(aliasCatalogLoadModel, null, null, null, progress);
+         notifyTablesLoaded();
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading keywords", ex);
+         s_log.error("Error loading tables", ex);
       }
 
+
       try
       {
-         int beginProgress = getLoadMethodProgress(progress++);
-         setProgress(i18n.LOADING_DATATYPES_MSG, beginProgress);
-         loadDataTypes(i18n.LOADING_DATATYPES_MSG, beginProgress);
+         progress = loadStoredProcedures(aliasCatalogLoadModel, null, null, progress);
+         notifyStoredProceduresLoaded();
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading data types", ex);
+         s_log.error("Error loading procedures", ex);
       }
 
       try
       {
-         int beginProgress = getLoadMethodProgress(progress++);
-         setProgress(i18n.LOADING_FUNCTIONS_MSG, beginProgress);
-         loadGlobalFunctions(i18n.LOADING_FUNCTIONS_MSG, beginProgress);
+         progress = loadUDTs(aliasCatalogLoadModel, null, null, progress);
+         notifyUDTsLoaded();
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading functions", ex);
+         s_log.error("Error loading UDTS", ex);
       }
+   }
 
+   /**
+    * Loads keywords, data types and functions.
+    *
+    * @param beginProgress Called once before each of the three steps.
+    */
+   void loadSchemaIndependentObjects(IntSupplier beginProgress)
+   {
       try
       {
-         progress = loadTables(aliasCatalogLoadModel, null, null, null, progress);
-         notifyTablesLoaded();
+         int progress = beginProgress.getAsInt();
+         setProgress(i18n.LOADING_KEYWORDS_MSG, progress);
+         loadKeywords(i18n.LOADING_KEYWORDS_MSG, progress);
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading tables", ex);
+         s_log.error("Error loading keywords", ex);
       }
 
-
       try
       {
-         progress = loadStoredProcedures(aliasCatalogLoadModel, null, null, progress);
-         notifyStoredProceduresLoaded();
+         int progress = beginProgress.getAsInt();
+         setProgress(i18n.LOADING_DATATYPES_MSG, progress);
+         loadDataTypes(i18n.LOADING_DATATYPES_MSG, progress);
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading procedures", ex);
+         s_log.error("Error loading data types", ex);
       }
 
       try
       {
-         progress = loadUDTs(aliasCatalogLoadModel, null, null, progress);
-         notifyUDTsLoaded();
+         int progress = beginProgress.getAsInt();
+         setProgress(i18n.LOADING_FUNCTIONS_MSG, progress);
+         loadGlobalFunctions(i18n.LOADING_FUNCTIONS_MSG, progress);
       }
       catch (Exception ex)
       {
-         s_log.error("Error loading UDTS", ex);
+         s_log.error("Error loading functions", ex);
       }
    }
 
-   private void notifyStoredProceduresLoaded()
+   void notifyStoredProceduresLoaded()
    {
       synchronized(this)
       {
@@ -342,7 +442,7 @@ public class SchemaInfo
       }
    }
 
-   private void notifyUDTsLoaded()
+   void notifyUDTsLoaded()
    {
       synchronized(this)
       {
@@ -351,7 +451,7 @@ public class SchemaInfo
       }
    }
 
-   private void notifyTablesLoaded()
+   void notifyTablesLoaded()
    {
       synchronized(this)
       {
@@ -471,18 +571,28 @@ public class SchemaInfo
    private void setProgress(final String note, final int value)
    {
       breathing();
+      showProgress(note, value);
+   }
 
+   /**
+    * Unlike {@link #setProgress(String, int)} this doesn't pause the loading thread.
+    */
+   void showProgress(final String note, final int value)
+   {
       if (_session == null || _session.getSessionPanel() == null)
       {
          return;
       }
 
      _session.getSessionPanel().setStatusBarProgress(note, 0, MAX_PROGRESS, value);
-     
-      if(shouldShowLongSessionStartupTimeDialog())
+
+      synchronized (this)
       {
-         _sessionStartupTimeHintShown = true;
-         SwingUtilities.invokeLater(() -> new SessionStartupTimeHintController(_session));
+         if(shouldShowLongSessionStartupTimeDialog())
+         {
+            _sessionStartupTimeHintShown = true;
+            SwingUtilities.invokeLater(() -> new SessionStartupTimeHintController(_session));
+         }
       }
    }
 
@@ -533,19 +643,11 @@ public class SchemaInfo
 
          SchemaLoadInfo[] schemaLoadInfos = _schemaInfoCache.getMatchingSchemaLoadInfos(schema);
 
-         for (int i = 0; i < schemaLoadInfos.length; i++)
+         for (SchemaLoadInfo schemaLoadInfo : schemaLoadInfos)
          {
-            if(schemaLoadInfos[i].isLoadProcedures())
+            if(schemaLoadInfo.isLoadProcedures())
             {
-               for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
-               {
-                  IProcedureInfo[] procedures = _dmd.getProcedures(catalog, schemaLoadInfos[i].getSchemaName(), procNamePattern, pcb);
-
-                  for (IProcedureInfo procedure : procedures)
-                  {
-                     _schemaInfoCache.writeToProcedureCache(procedure);
-                  }
-               }
+               loadStoredProceduresOfSchema(_dmd, aliasCatalogLoadModel, schemaLoadInfo.getSchemaName(), procNamePattern, pcb);
             }
          }
       }
@@ -575,14 +677,7 @@ public class SchemaInfo
          {
             if (schemaLoadInfo.isLoadUDTs())
             {
-               for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
-               {
-                  IUDTInfo[] udts = _dmd.getUDTs(catalog, schemaLoadInfo.getSchemaName(), udtNamePattern, null, pcb);
-                  for (IUDTInfo udt : udts)
-                  {
-                     _schemaInfoCache.writeToUDTCache(udt);
-                  }
-               }
+               loadUDTsOfSchema(_dmd, aliasCatalogLoadModel, schemaLoadInfo.getSchemaName(), udtNamePattern, pcb);
             }
          }
       }
@@ -593,6 +688,31 @@ public class SchemaInfo
 
    }
 
+   void loadStoredProceduresOfSchema(SQLDatabaseMetaData dmd, AliasCatalogLoadModel aliasCatalogLoadModel, String schemaName, String procNamePattern, ProgressCallBack pcb) throws SQLException
+   {
+      for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
+      {
+         IProcedureInfo[] procedures = dmd.getProcedures(catalog, schemaName, procNamePattern, pcb);
+
+         for (IProcedureInfo procedure : procedures)
+         {
+            _schemaInfoCache.writeToProcedureCache(procedure);
+         }
+      }
+   }
+
+   void loadUDTsOfSchema(SQLDatabaseMetaData dmd, AliasCatalogLoadModel aliasCatalogLoadModel, String schemaName, String udtNamePattern, ProgressCallBack pcb) throws SQLException
+   {
+      for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
+      {
+         IUDTInfo[] udts = dmd.getUDTs(catalog, schemaName, udtNamePattern, null, pcb);
+         for (IUDTInfo udt : udts)
+         {
+            _schemaInfoCache.writeToUDTCache(udt);
+         }
+      }
+   }
+
    private void privateLoadCatalogs()
    {
       try
@@ -663,7 +783,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getKeywordsForReadOnly().containsKey(data);
+         return _schemaInfoCache.getKeywordIndex().contains(data);
       }
       return false;
    }
@@ -686,7 +806,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getDataTypesForReadOnly().containsKey(data);
+         return _schemaInfoCache.getDataTypeIndex().contains(data);
       }
       return false;
    }
@@ -708,7 +828,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getFunctionsForReadOnly().containsKey(data);
+         return _schemaInfoCache.getFunctionIndex().contains(data);
       }
       return false;
    }
@@ -734,11 +854,33 @@ public class SchemaInfo
     * @return	<TT>true</TT> if a table.
     */
    public int isTableExt(CaseInsensitiveString data)
+   {
+      return isTableExt(data, null);
+   }
+
+   /**
+    * @param columnsLoadedCallback When not null and the table's columns were not loaded before
+    *                              they are loaded by the {@link ColumnPrefetcher} and {@link #TABLE_EXT_COLS_LOADING} is returned.
+    *                              The callback is called on the Swing thread when the columns are loaded.
+    *                              Callers pass the same callback object for each call.
+    */
+   public int isTableExt(CaseInsensitiveString data, Runnable columnsLoadedCallback)
    {
       if (!_loading && data != null)
       {
-         if(_schemaInfoCache.getTableNamesForReadOnly().containsKey(data))
+         if(_schemaInfoCache.getTableNameIndex().contains(data))
          {
+            if(null != columnsLoadedCallback)
+            {
+               if(_schemaInfoCache.didTryLoadingColumns(data))
+               {
+                  return TABLE_EXT_COLS_LOADED_BEFORE;
+               }
+
+               _columnPrefetcher.prefetch(data, columnsLoadedCallback);
+               return TABLE_EXT_COLS_LOADING;
+            }
+
             if (loadColumns(data))
             {
                return TABLE_EXT_COLS_LOADED_IN_THIS_CALL;
@@ -770,7 +912,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getExtColumnInfosByColumnNameForReadOnly().containsKey(data);
+         return _schemaInfoCache.isColumn(data);
       }
       return false;
    }
@@ -792,7 +934,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getTableNamesForReadOnly().get(new CaseInsensitiveString(data));
+         return _schemaInfoCache.getTableNameIndex().get(new CaseInsensitiveString(data));
       }
       return null;
    }
@@ -801,7 +943,7 @@ public class SchemaInfo
    {
       if (!_loading && data != null)
       {
-         return _schemaInfoCache.getProcedureNamesForReadOnly().get(new CaseInsensitiveString(data));
+         return _schemaInfoCache.getProcedureNameIndex().get(new CaseInsensitiveString(data));
       }
       return null;
    }
@@ -958,22 +1100,47 @@ public class SchemaInfo
 
    public String[] getKeywords()
    {
-      return _schemaInfoCache.getKeywordsForReadOnly().values().toArray(new String[_schemaInfoCache.getKeywordsForReadOnly().size()]);
+      return _schemaInfoCache.getKeywordIndex().getNames();
    }
 
    public String[] getDataTypes()
    {
-      return _schemaInfoCache.getDataTypesForReadOnly().values().toArray(new String[_schemaInfoCache.getDataTypesForReadOnly().size()]);
+      return _schemaInfoCache.getDataTypeIndex().getNames();
    }
 
    public String[] getFunctions()
    {
-      return _schemaInfoCache.getFunctionsForReadOnly().values().toArray(new String[_schemaInfoCache.getFunctionsForReadOnly().size()]);
+      return _schemaInfoCache.getFunctionIndex().getNames();
    }
 
    public String[] getTables()
    {
-      return _schemaInfoCache.getTableNamesForReadOnly().values().toArray(new String[_schemaInfoCache.getTableNamesForReadOnly().size()]);
+      return _schemaInfoCache.getTableNameIndex().getNames();
+   }
+
+   /**
+    * @return A snapshot of the simple table names that doesn't change when the cache changes.
+    * Supports lock free exact, prefix and camel case lookups.
+    */
+   public NameIndex getTableNameIndex()
+   {
+      return _schemaInfoCache.getTableNameIndex();
+   }
+
+   /**
+    * @see #getTableNameIndex()
+    */
+   public NameIndex getProcedureNameIndex()
+   {
+      return _schemaInfoCache.getProcedureNameIndex();
+   }
+
+   /**
+    * @see #getTableNameIndex()
+    */
+   public NameIndex getUDTNameIndex()
+   {
+      return _schemaInfoCache.getUDTNameIndex();
    }
 
    public String[] getCatalogs()
@@ -1214,19 +1381,7 @@ public class SchemaInfo
 
          for (SchemaLoadInfo schemaLoadInfo : schemaLoadInfos)
          {
-            List<ITableInfo> infos = new ArrayList<>();
-
-            if (null == schemaLoadInfo.getTableTypes() || 0 < schemaLoadInfo.getTableTypes().length)
-            {
-               // With Oracle this takes quite a lot of time if schemaLoadInfos[i].tableTypes has length 0
-               // that's why this if is here
-               for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
-               {
-                  infos.addAll(List.of(_dmd.getTables(catalog, schemaLoadInfo.getSchemaName(), tableNamePattern, schemaLoadInfo.getTableTypes(), pcb)));
-               }
-            }
-
-            _schemaInfoCache.writeToTableCache(infos.toArray(new ITableInfo[0]));
+            loadTablesOfSchema(_dmd, aliasCatalogLoadModel, schemaLoadInfo, tableNamePattern, pcb);
          }
       }
       catch (Throwable th)
@@ -1235,6 +1390,23 @@ public class SchemaInfo
       }
    }
 
+   void loadTablesOfSchema(SQLDatabaseMetaData dmd, AliasCatalogLoadModel aliasCatalogLoadModel, SchemaLoadInfo schemaLoadInfo, String tableNamePattern, ProgressCallBack pcb) throws SQLException
+   {
+      List<ITableInfo> infos = new ArrayList<>();
+
+      if (null == schemaLoadInfo.getTableTypes() || 0 < schemaLoadInfo.getTableTypes().length)
+      {
+         // With Oracle this takes quite a lot of time if schemaLoadInfos[i].tableTypes has length 0
+         // that's why this if is here
+         for (String catalog : aliasCatalogLoadModel.getCatalogStringsToLoad())
+         {
+            infos.addAll(List.of(dmd.getTables(catalog, schemaLoadInfo.getSchemaName(), tableNamePattern, schemaLoadInfo.getTableTypes(), pcb)));
+         }
+      }
+
+      _schemaInfoCache.writeToTableCache(infos.toArray(new ITableInfo[0]));
+   }
+
    /**
     *
     * @return true only when the table's columns are loaded within this call.
@@ -1295,7 +1467,7 @@ public class SchemaInfo
       return true;
    }
 
-   private void accessDbToLoadColumns(CaseInsensitiveString tableName)
+   void accessDbToLoadColumns(CaseInsensitiveString tableName)
    {
       if (null == _dmd)
       {
@@ -1372,11 +1544,21 @@ public class SchemaInfo
       // If we don't remove the listeners the
       // Session won't get garbage collected.
       _session.getApplication().getSessionManager().removeSessionListener(_sessionListener);
+
+      if(null != _columnPrefetcher)
+      {
+         _columnPrefetcher.dispose();
+      }
+   }
+
+   SchemaInfoCache getSchemaInfoCache()
+   {
+      return _schemaInfoCache;
    }
 
    public boolean isProcedure(CaseInsensitiveString data)
    {
-      return _schemaInfoCache.getProcedureNamesForReadOnly().containsKey(data);
+      return _schemaInfoCache.getProcedureNameIndex().contains(data);
    }
 
    public void reload(IDatabaseObjectInfo doi)
@@ -1542,6 +1724,27 @@ public class SchemaInfo
 
    }
 
+   /**
+    * Does nothing when the delta is empty.
+    */
+   public void fireSchemaInfoUpdate(SchemaInfoDelta delta)
+   {
+      if(delta.isEmpty())
+      {
+         return;
+      }
+
+      SwingUtilities.invokeLater(() ->
+      {
+         SchemaInfoUpdateListener[] listeners = _listeners.toArray(new SchemaInfoUpdateListener[0]);
+
+         for (SchemaInfoUpdateListener listener : listeners)
+         {
+            listener.schemaInfoUpdated(delta);
+         }
+      });
+   }
+
    public void addSchemaInfoUpdateListener(SchemaInfoUpdateListener l)
    {
       _listeners.remove(l);
@@ -1567,7 +1770,7 @@ public class SchemaInfo
       HashMap<String, String> caseSensitiveTableNames = new HashMap<String, String>();
 
       CaseInsensitiveString caseInsensitiveTableName = new CaseInsensitiveString(simpleTableName);
-      String caseSensitiveTableName = _schemaInfoCache.getTableNamesForReadOnly().get(caseInsensitiveTableName);
+      String caseSensitiveTableName = _schemaInfoCache.getTableNameIndex().get(caseInsensitiveTableName);
 
       caseSensitiveTableNames.put(caseSensitiveTableName, caseSensitiveTableName);
 
@@ -1596,7 +1799,7 @@ public class SchemaInfo
       HashMap<String, String> caseSensitiveProcNames = new HashMap<String, String>();
 
       CaseInsensitiveString caseInsensitiveProcName = new CaseInsensitiveString(simpleProcName);
-      String caseSensitiveProcName = _schemaInfoCache.getProcedureNamesForReadOnly().remove(caseInsensitiveProcName);
+      String caseSensitiveProcName = _schemaInfoCache.removeProcedureName(caseInsensitiveProcName);
 
       caseSensitiveProcNames.put(caseSensitiveProcName, caseSensitiveProcName);
 
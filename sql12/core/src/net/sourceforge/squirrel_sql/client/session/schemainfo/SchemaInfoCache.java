@@ -10,19 +10,15 @@ import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.SessionManager;
 import net.sourceforge.squirrel_sql.client.session.schemainfo.basetabletype.BaseTableTypeHandler;
 import net.sourceforge.squirrel_sql.client.session.schemainfo.synonym.SynonymHandler;
-import net.sourceforge.squirrel_sql.fw.sql.DatabaseObjectInfo;
-import net.sourceforge.squirrel_sql.fw.sql.DatabaseObjectType;
 import net.sourceforge.squirrel_sql.fw.sql.IProcedureInfo;
 import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
 import net.sourceforge.squirrel_sql.fw.sql.IUDTInfo;
 import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
-import net.sourceforge.squirrel_sql.fw.sql.TableInfo;
 import net.sourceforge.squirrel_sql.fw.util.Utilities;
 import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
 import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 import org.apache.commons.lang3.StringUtils;
 
-import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,27 +32,29 @@ import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * This class is Serializable and yet doesn't declare serialVersionUID.  This is done intentionally so that 
- * the SchemaInfoCacheSerializer can detect incompatible class changes (by catching Exception when attempting
- * to read the serialized file).  This was deemed to be a less error-prone way of handling changes to this
- * class file's definition, then having to remember to consider whether or not serialVersionUID should be 
- * incremented for any given change.  Therefore, it is very important to not introduce a serialVersionUID
- * class member, as forgetting to update it might lead to undetected incompatible class changes that don't 
- * manifest themselves during de-serialization, but occur later in the application when missing members are
- * invoked (for example).  This more conservative approach can lead to the serialized file being removed upon
- * installing a newer version of SQuirreL more often than necessary, but it seemed to us to be better than the 
- * alternative.
+ * Persisted by {@link SchemaInfoCacheSerializer}. When data is added to this class
+ * it must be added to {@link SchemaCacheFileWriter} and {@link SchemaCacheFileReader} too
+ * and {@link SchemaCacheFileReader#FORMAT_VERSION} must be incremented. Files of other versions
+ * are ignored like a missing cache file.
  */
-public class SchemaInfoCache implements Serializable
+public class SchemaInfoCache
 {
    private static final ILogger s_log = LoggerController.createLogger(SchemaInfoCache.class);
 
    private List<String> _catalogs = new ArrayList<>();
    private List<String> _schemas = new ArrayList<>();
 
-   private TreeMap<CaseInsensitiveString, String> _keywords = new TreeMap<>();
-   private TreeMap<CaseInsensitiveString, String> _dataTypes = new TreeMap<>();
-   private Map<CaseInsensitiveString, String> _functions =  Collections.synchronizedMap(new TreeMap<>());
+   private final TreeMap<CaseInsensitiveString, String> _keywords = new TreeMap<>();
+   private final TreeMap<CaseInsensitiveString, String> _dataTypes = new TreeMap<>();
+   private final Map<CaseInsensitiveString, String> _functions =  Collections.synchronizedMap(new TreeMap<>());
+
+   /////////////////////////////////////////////////////////////////////////////
+   // Lock free name lookups for syntax coloring and code completion.
+   // Each change of a name map must be followed by invalidate() of its publisher.
+   //
+   private final NameIndex.Publisher _keywordIndex = new NameIndex.Publisher(_keywords);
+   private final NameIndex.Publisher _dataTypeIndex = new NameIndex.Publisher(_dataTypes);
+   private final NameIndex.Publisher _functionIndex = new NameIndex.Publisher(_functions);
 
    /////////////////////////////////////////////////////////////////////////////
    // Schema dependent data.
@@ -64,7 +62,8 @@ public class SchemaInfoCache implements Serializable
    //
    private TreeMap<CaseInsensitiveString, String> _internalTableNameTreeMap = new TreeMap<>();
    
-   private Map<CaseInsensitiveString, String> _tableNames = Collections.synchronizedMap(_internalTableNameTreeMap);
+   private final Map<CaseInsensitiveString, String> _tableNames = Collections.synchronizedMap(_internalTableNameTreeMap);
+   private final NameIndex.Publisher _tableNameIndex = new NameIndex.Publisher(_tableNames);
    
 
    /** 
@@ -83,14 +82,16 @@ public class SchemaInfoCache implements Serializable
    private SchemaInfoColumnCache _schemaInfoColumnCache = new SchemaInfoColumnCache();
 
 
-   private Map<CaseInsensitiveString, String> _procedureNames = Collections.synchronizedMap(new TreeMap<>());
+   private final Map<CaseInsensitiveString, String> _procedureNames = Collections.synchronizedMap(new TreeMap<>());
+   private final NameIndex.Publisher _procedureNameIndex = new NameIndex.Publisher(_procedureNames);
    
    private Map<IProcedureInfo, IProcedureInfo> _iProcedureInfos =  Collections.synchronizedMap(new TreeMap<>());
 
    private Hashtable<CaseInsensitiveString, List<IProcedureInfo>> _procedureInfosBySimpleName = new Hashtable<>();
 
 
-   private Map<CaseInsensitiveString, String> _udtNames = Collections.synchronizedMap(new TreeMap<>());
+   private final Map<CaseInsensitiveString, String> _udtNames = Collections.synchronizedMap(new TreeMap<>());
+   private final NameIndex.Publisher _udtNameIndex = new NameIndex.Publisher(_udtNames);
 
    private Map<IUDTInfo, IUDTInfo> _iUdtInfos = Collections.synchronizedMap(new TreeMap<>());
 
@@ -275,10 +276,12 @@ public class SchemaInfoCache implements Serializable
    /**
     * Adds the specified array of ITableInfos to the internal list(s), and sorts
     * the combination.
+    * <p>
+    * Synchronized because tables of several schemas may be loaded in parallel, see {@link ParallelSchemaInfoLoader}.
     *  
     * @param infos the array of ITableInfos to add.
     */
-   public void writeToTableCache(ITableInfo[] infos)
+   public synchronized void writeToTableCache(ITableInfo[] infos)
    {
       ArrayList<ITableInfo> infosToWriteToCache = new ArrayList<>();
       for (ITableInfo info : infos)
@@ -329,6 +332,8 @@ public class SchemaInfoCache implements Serializable
       /* Sort it and store in a new CopyOnWriteArrayList */
       Arrays.sort(tableArr, new TableInfoSimpleNameComparator());
       _iTableInfos = new CopyOnWriteArrayList<>(tableArr);
+
+      _tableNameIndex.invalidate();
    }
 
    /**
@@ -349,7 +354,7 @@ public class SchemaInfoCache implements Serializable
    }
 
 
-   public void writeToProcedureCache(IProcedureInfo procedure)
+   public synchronized void writeToProcedureCache(IProcedureInfo procedure)
    {
       String proc = procedure.getSimpleName();
       if (proc.length() > 0)
@@ -366,9 +371,10 @@ public class SchemaInfoCache implements Serializable
          aIProcInfos.add(procedure);
       }
       _iProcedureInfos.put(procedure, procedure);
+      _procedureNameIndex.invalidate();
    }
 
-   public void writeToUDTCache(IUDTInfo udtInfo)
+   public synchronized void writeToUDTCache(IUDTInfo udtInfo)
    {
       String udt = udtInfo.getSimpleName();
       if (udt.length() > 0)
@@ -385,6 +391,7 @@ public class SchemaInfoCache implements Serializable
          udtInfos.add(udtInfo);
       }
       _iUdtInfos.put(udtInfo, udtInfo);
+      _udtNameIndex.invalidate();
    }
 
 
@@ -412,6 +419,16 @@ public class SchemaInfoCache implements Serializable
       _schemaPropsCacheIsBasedOn = null;
    }
 
+   SQLAliasSchemaProperties getSchemaPropsCacheIsBasedOn()
+   {
+      return _schemaPropsCacheIsBasedOn;
+   }
+
+   void setSchemaPropsCacheIsBasedOn(SQLAliasSchemaProperties schemaPropsCacheIsBasedOn)
+   {
+      _schemaPropsCacheIsBasedOn = schemaPropsCacheIsBasedOn;
+   }
+
    void prepareSerialization()
    {
       _schemaPropsCacheIsBasedOn = _session.getAlias().getSchemaProperties();
@@ -456,8 +473,7 @@ public class SchemaInfoCache implements Serializable
    private void clearAllSchemaDependentData()
    {
       _tableNames.clear();
-
-      _internalTableNameTreeMap.clear();
+      _tableNameIndex.invalidate();
 
       synchronized(_iTableInfos)
       {
@@ -471,6 +487,7 @@ public class SchemaInfoCache implements Serializable
       _procedureNames.clear();
       _iProcedureInfos.clear();
       _procedureInfosBySimpleName.clear();
+      _procedureNameIndex.invalidate();
 
       _schemas.clear();
 
@@ -480,16 +497,28 @@ public class SchemaInfoCache implements Serializable
    {
       _catalogs.clear();
 
-      _keywords.clear();
-      _dataTypes.clear();
+      synchronized (_keywords)
+      {
+         _keywords.clear();
+      }
+      _keywordIndex.invalidate();
+
+      synchronized (_dataTypes)
+      {
+         _dataTypes.clear();
+      }
+      _dataTypeIndex.invalidate();
+
       _functions.clear();
+      _functionIndex.invalidate();
    }
 
    void clearAllTableData()
    {
    	_iTableInfos = new CopyOnWriteArrayList<>();
    	_tableInfosBySimpleName = new Hashtable<>();
-   	_tableNames = Collections.synchronizedMap(_internalTableNameTreeMap);
+   	_tableNames.clear();
+   	_tableNameIndex.invalidate();
    	_schemaInfoColumnCache.clearColumns();
    }
    
@@ -531,6 +560,7 @@ public class SchemaInfoCache implements Serializable
             {
                _tableInfosBySimpleName.remove(ciSimpleTableName);
                _tableNames.remove(ciSimpleTableName);
+               _tableNameIndex.invalidate();
             }
 
             _schemaInfoColumnCache.clearColumns(ciSimpleTableName);
@@ -562,6 +592,7 @@ public class SchemaInfoCache implements Serializable
             {
                _procedureInfosBySimpleName.remove(ciSimpleName);
                _procedureNames.remove(ciSimpleName);
+               _procedureNameIndex.invalidate();
             }
 
          }
@@ -591,6 +622,7 @@ public class SchemaInfoCache implements Serializable
             {
                _udtInfosBySimpleName.remove(ciSimpleName);
                _udtNames.remove(ciSimpleName);
+               _udtNameIndex.invalidate();
             }
 
          }
@@ -628,21 +660,33 @@ public class SchemaInfoCache implements Serializable
 
    void writeKeywords(Hashtable<CaseInsensitiveString, String> keywordsBuf)
    {
-      _keywords.clear();
-      _keywords.putAll(keywordsBuf);
+      synchronized (_keywords)
+      {
+         _keywords.clear();
+         _keywords.putAll(keywordsBuf);
+      }
+      _keywordIndex.invalidate();
    }
 
 
    void writeDataTypes(Hashtable<CaseInsensitiveString, String> dataTypesBuf)
    {
-      _dataTypes.clear();
-      _dataTypes.putAll(dataTypesBuf);
+      synchronized (_dataTypes)
+      {
+         _dataTypes.clear();
+         _dataTypes.putAll(dataTypesBuf);
+      }
+      _dataTypeIndex.invalidate();
    }
 
    void writeFunctions(Hashtable<CaseInsensitiveString, String> functionsBuf)
    {
-      _functions.clear();
-      _functions.putAll(functionsBuf);
+      synchronized (_functions)
+      {
+         _functions.clear();
+         _functions.putAll(functionsBuf);
+      }
+      _functionIndex.invalidate();
    }
 
    List<String> getCatalogsForReadOnly()
@@ -670,9 +714,44 @@ public class SchemaInfoCache implements Serializable
       return _functions;
    }
 
-   Map<CaseInsensitiveString, String> getTableNamesForReadOnly()
+   /**
+    * @return The case sensitive name of the removed procedure or null.
+    */
+   String removeProcedureName(CaseInsensitiveString caseInsensitiveProcName)
    {
-      return _internalTableNameTreeMap;
+      String ret = _procedureNames.remove(caseInsensitiveProcName);
+      _procedureNameIndex.invalidate();
+      return ret;
+   }
+
+   NameIndex getKeywordIndex()
+   {
+      return _keywordIndex.get();
+   }
+
+   NameIndex getDataTypeIndex()
+   {
+      return _dataTypeIndex.get();
+   }
+
+   NameIndex getFunctionIndex()
+   {
+      return _functionIndex.get();
+   }
+
+   NameIndex getTableNameIndex()
+   {
+      return _tableNameIndex.get();
+   }
+
+   NameIndex getProcedureNameIndex()
+   {
+      return _procedureNameIndex.get();
+   }
+
+   NameIndex getUDTNameIndex()
+   {
+      return _udtNameIndex.get();
    }
 
    List<ITableInfo> getITableInfosForReadOnly()
@@ -697,14 +776,28 @@ public class SchemaInfoCache implements Serializable
    }
 
 
-   Map<CaseInsensitiveString, List<ExtendedColumnInfo>> getExtColumnInfosByColumnNameForReadOnly()
+   boolean isColumn(CaseInsensitiveString columnName)
+   {
+      return _schemaInfoColumnCache.isColumn(columnName);
+   }
+
+   void clearColumns(CaseInsensitiveString ciSimpleTableName)
    {
-      return _schemaInfoColumnCache.getExtColumnInfosByColumnNameForReadOnly();
+      _schemaInfoColumnCache.clearColumns(ciSimpleTableName);
    }
 
-   Map<CaseInsensitiveString, String> getProcedureNamesForReadOnly()
+   SchemaInfoColumnCache getSchemaInfoColumnCache()
    {
-      return _procedureNames;
+      return _schemaInfoColumnCache;
+   }
+
+   /**
+    * Releases the Schema cache file this cache was loaded from.
+    * Columns that were not accessed until then will be loaded from the database.
+    */
+   void close()
+   {
+      _schemaInfoColumnCache.closeCachedColumnSections();
    }
 
    Map<IProcedureInfo, IProcedureInfo> getIProcedureInfosForReadOnly()
@@ -718,32 +811,6 @@ public class SchemaInfoCache implements Serializable
    }
 
 
-   /**
-    * When SchemaInfoCache has been deserialized the the constants in DatabaseObjectType
-    * still come from the last serialisation. Thus the == operator won't work
-    * unless we replace the DatabaseObjectTypes
-    *
-    */
-   void replaceDatabaseObjectTypeConstantObjectsByConstantObjectsOfThisVM()
-   {
-      for (ITableInfo iTableInfo : _iTableInfos)
-      {
-         if(iTableInfo instanceof TableInfo)
-         {
-            ((TableInfo)iTableInfo).replaceDatabaseObjectTypeConstantObjectsByConstantObjectsOfThisVM();
-         }
-      }
-
-      for (IProcedureInfo iProcedureInfo : _iProcedureInfos.keySet())
-      {
-         if(iProcedureInfo instanceof DatabaseObjectInfo)
-         {
-            ((DatabaseObjectInfo)iProcedureInfo).replaceDatabaseObjectTypeConstantObjectsByConstantObjectsOfThisVM(DatabaseObjectType.PROCEDURE);
-         }
-      }
-
-   }
-
    /**
     * A comparator for ITableInfos that compares them using their simple name.
     * All other data (such as schema) is ignored, since it isn't likely that we 
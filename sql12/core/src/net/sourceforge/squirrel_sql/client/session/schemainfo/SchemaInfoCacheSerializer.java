@@ -11,9 +11,19 @@ import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
 import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
-import java.io.*;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Hashtable;
 
+/**
+ * Stores the {@link SchemaInfoCache} of an Alias to its Schema cache file when a Session is closed
+ * and loads it when a Session is opened. See {@link SchemaCacheFileReader} for the file format.
+ * <p>
+ * Loading reads all cached objects but the columns of tables. The columns of a table are read
+ * when they are accessed first. That's why the file of a loaded cache is kept open until the cache
+ * is stored again or dropped, see {@link SchemaInfoCache#close()}.
+ */
 public class SchemaInfoCacheSerializer
 {
    private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(SchemaInfoCacheSerializer.class);
@@ -31,6 +41,8 @@ public class SchemaInfoCacheSerializer
 
    private static SchemaInfoCache privateLoad(ISession session)
    {
+      deleteSerializedCacheFile(session.getAlias());
+
       File schemaCacheFile = getSchemaCacheFile(session.getAlias());
 
       if(false == session.getAlias().getSchemaProperties().fetchExpectsSomeCachedData())
@@ -58,30 +70,9 @@ public class SchemaInfoCacheSerializer
          return new SchemaInfoCache();
       }
 
-      try (FileInputStream fis = new FileInputStream(schemaCacheFile);
-           ObjectInputStream ois = new ObjectInputStream(fis))
+      try
       {
-
-         // Formerly introduced for:
-         // 1448738: JDK 6.0 regression.
-         // Used the (correct) method for getting a class from the ClassLoader,
-         // according to the response to the bug report I submitted against Java SE 6.
-         // Details are here: http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=6446627
-         // ObjectInputStream ois = new ObjectInputStream(fis)
-         // {
-         //    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
-         //    {
-         //       ClassLoader loader = SchemaInfoCache.class.getClassLoader();
-         //       return Class.forName(desc.getName(), false, loader);
-         //    }
-         // };
-
-
-         SchemaInfoCache ret = (SchemaInfoCache) ois.readObject();
-
-         ret.replaceDatabaseObjectTypeConstantObjectsByConstantObjectsOfThisVM();
-
-         return ret;
+         return SchemaCacheFileReader.read(schemaCacheFile);
       }
       catch (Exception e)
       {
@@ -117,10 +108,20 @@ public class SchemaInfoCacheSerializer
 
          schemaInfoCache.prepareSerialization();
 
-         try (FileOutputStream fos = new FileOutputStream(schemaCacheFile);
-               ObjectOutputStream oOut = new ObjectOutputStream(fos))
+         // Columns that were not accessed are copied from the file the cache was loaded from.
+         // So the new file is written beside it and replaces it when complete.
+         File tempFile = File.createTempFile(schemaCacheFile.getName(), ".tmp", schemaCacheFile.getParentFile());
+         try
+         {
+            new SchemaCacheFileWriter(schemaInfoCache).write(tempFile);
+            Files.move(tempFile.toPath(), schemaCacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+         }
+         finally
          {
-            oOut.writeObject(schemaInfoCache);
+            if(tempFile.exists() && false == tempFile.delete())
+            {
+               s_log.error("Failed to delete temporary Schema cache file " + tempFile.getPath());
+            }
          }
 
          // i18n[SchemaInfoCacheSerializer.endStore=Finished writing schema cache for Alias{0}. file: {1}]
@@ -133,6 +134,8 @@ public class SchemaInfoCacheSerializer
       }
       finally
       {
+         schemaInfoCache.close();
+
          synchronized (SchemaInfoCacheSerializer.class)
          {
             _storingSessionIDs.remove(session.getIdentifier());
@@ -165,13 +168,18 @@ public class SchemaInfoCacheSerializer
 
 
    public static File getSchemaCacheFile(SQLAlias alias)
+   {
+      return getSchemaCacheFile(alias, "_schemacache.bin");
+   }
+
+   private static File getSchemaCacheFile(SQLAlias alias, String suffix)
    {
       String uniquePrefix = alias.getIdentifier().toString();
 
       uniquePrefix = uniquePrefix.replace(':', '_').replace(File.separatorChar, '-');
 
       String path = new ApplicationFiles().getUserSettingsDirectory().getPath() +
-                    File.separator + "schemacaches" + File.separator + uniquePrefix + "_schemacache.ser";
+                    File.separator + "schemacaches" + File.separator + uniquePrefix + suffix;
 
       File ret = new File(path);
       ret.getParentFile().mkdirs();
@@ -180,8 +188,23 @@ public class SchemaInfoCacheSerializer
 
    }
 
+   /**
+    * Schema cache files of former versions held the serialized SchemaInfoCache.
+    */
+   private static void deleteSerializedCacheFile(SQLAlias alias)
+   {
+      File serializedCacheFile = getSchemaCacheFile(alias, "_schemacache.ser");
+
+      if(serializedCacheFile.exists() && false == serializedCacheFile.delete())
+      {
+         s_log.error("Failed to delete Schema cache file " + serializedCacheFile.getPath());
+      }
+   }
+
    public static void aliasRemoved(SQLAlias alias)
    {
+      deleteSerializedCacheFile(alias);
+
       File schemaCacheFile = getSchemaCacheFile(alias);
       if(schemaCacheFile.exists())
       {
@@ -5,36 +5,55 @@ import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
 import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
 import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
-import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class SchemaInfoColumnCache implements Serializable
+public class SchemaInfoColumnCache
 {
    private static final ILogger s_log = LoggerController.createLogger(SchemaInfoColumnCache.class);
 
-   private Map<CaseInsensitiveString, List<ExtendedColumnInfo>> _extendedColumnInfosByTableName = Collections.synchronizedMap(new TreeMap<>());
+   /////////////////////////////////////////////////////////////////////////////
+   // Hash based concurrent maps because syntax coloring queries these maps
+   // on the Swing thread while columns are loaded in the background.
+   // Lookups don't block and don't compare strings char by char like a TreeMap does.
+   //
+   private final Map<CaseInsensitiveString, List<ExtendedColumnInfo>> _extendedColumnInfosByTableName = new ConcurrentHashMap<>();
 
-   private Map<CaseInsensitiveString, List<ExtendedColumnInfo>> _extColumnInfosByColumnName = Collections.synchronizedMap(new TreeMap<>());
+   private final Map<CaseInsensitiveString, List<ExtendedColumnInfo>> _extColumnInfosByColumnName = new ConcurrentHashMap<>();
 
-   private Set<CaseInsensitiveString> _tablesWithInaccessibleColumns = Collections.synchronizedSet(new HashSet<>());
+   private final Set<CaseInsensitiveString> _tablesWithInaccessibleColumns = ConcurrentHashMap.newKeySet();
+
+   /**
+    * Columns of the Schema cache file that have not been accessed yet. Null when the cache wasn't loaded from file.
+    */
+   private CachedColumnSections _cachedColumnSections;
 
    void writeColumsToCache(TableColumnInfo[] infos, CaseInsensitiveString simpleTableName)
    {
       ArrayList<ExtendedColumnInfo> ecisInTable = new ArrayList<ExtendedColumnInfo>();
       for (int i = 0; i < infos.length; i++)
       {
-         ExtendedColumnInfo eci = new ExtendedColumnInfo(infos[i], simpleTableName.toString());
-         ecisInTable.add(eci);
+         ecisInTable.add(new ExtendedColumnInfo(infos[i], simpleTableName.toString()));
+      }
+
+      putColumns(ecisInTable, simpleTableName);
+   }
 
+   private void putColumns(List<ExtendedColumnInfo> ecisInTable, CaseInsensitiveString simpleTableName)
+   {
+      for (ExtendedColumnInfo eci : ecisInTable)
+      {
          CaseInsensitiveString ciColName = new CaseInsensitiveString(eci.getColumnName());
-         List<ExtendedColumnInfo> ecisInColName = _extColumnInfosByColumnName.get(ciColName);
-         if(null == ecisInColName)
+         _extColumnInfosByColumnName.compute(ciColName, (k, ecisInColName) ->
          {
-            ecisInColName = new ArrayList<>();
-            _extColumnInfosByColumnName.put(ciColName, ecisInColName);
-         }
-         ecisInColName.add(eci);
+            if(null == ecisInColName)
+            {
+               ecisInColName = new ArrayList<>();
+            }
+            ecisInColName.add(eci);
+            return ecisInColName;
+         });
       }
 
       // Note: A CaseInsensitiveString can be a mutable string.
@@ -46,6 +65,10 @@ public class SchemaInfoColumnCache implements Serializable
 
    void clearColumns()
    {
+      if(null != _cachedColumnSections)
+      {
+         _cachedColumnSections.clear();
+      }
       _tablesWithInaccessibleColumns.clear();
       _extColumnInfosByColumnName.clear();
       _extendedColumnInfosByTableName.clear();
@@ -53,17 +76,24 @@ public class SchemaInfoColumnCache implements Serializable
 
    public boolean didTryLoadingColumns(CaseInsensitiveString tableName)
    {
-      return _extendedColumnInfosByTableName.containsKey(tableName) || _tablesWithInaccessibleColumns.contains(tableName);
+      return    _extendedColumnInfosByTableName.containsKey(tableName)
+             || _tablesWithInaccessibleColumns.contains(tableName)
+             || (null != _cachedColumnSections && _cachedColumnSections.containsTable(tableName));
    }
 
 
-   Map<CaseInsensitiveString, List<ExtendedColumnInfo>> getExtColumnInfosByColumnNameForReadOnly()
+   boolean isColumn(CaseInsensitiveString columnName)
    {
-      return _extColumnInfosByColumnName;
+      return    _extColumnInfosByColumnName.containsKey(columnName)
+             || (null != _cachedColumnSections && _cachedColumnSections.containsColumnName(columnName));
    }
 
    void clearColumns(CaseInsensitiveString ciSimpleTableName)
    {
+      if(null != _cachedColumnSections)
+      {
+         _cachedColumnSections.remove(ciSimpleTableName);
+      }
       _tablesWithInaccessibleColumns.remove(ciSimpleTableName);
 
       List<ExtendedColumnInfo> ecisInTable = _extendedColumnInfosByTableName.remove(ciSimpleTableName);
@@ -94,6 +124,82 @@ public class SchemaInfoColumnCache implements Serializable
 
    public List<ExtendedColumnInfo> getExtendedColumnInfosForReadOnly(CaseInsensitiveString cissTableName)
    {
-      return _extendedColumnInfosByTableName.get(cissTableName);
+      List<ExtendedColumnInfo> ret = _extendedColumnInfosByTableName.get(cissTableName);
+
+      if(null == ret && null != _cachedColumnSections)
+      {
+         ret = readCachedColumns(cissTableName);
+      }
+
+      return ret;
+   }
+
+   /**
+    * Synchronized so that a table's section is read only once
+    * and concurrent callers wait for its columns instead of getting null.
+    */
+   private synchronized List<ExtendedColumnInfo> readCachedColumns(CaseInsensitiveString cissTableName)
+   {
+      List<ExtendedColumnInfo> ret = _extendedColumnInfosByTableName.get(cissTableName);
+      if(null != ret)
+      {
+         return ret;
+      }
+
+      CachedColumnSections.Section section = _cachedColumnSections.remove(cissTableName);
+      if(null == section)
+      {
+         return null;
+      }
+
+      try
+      {
+         ret = SchemaCacheFileReader.readColumnSection(_cachedColumnSections.read(section), section.simpleTableName);
+         putColumns(ret, new CaseInsensitiveString(section.simpleTableName));
+         return ret;
+      }
+      catch (Exception e)
+      {
+         // The columns will be loaded from the database.
+         s_log.error("Failed to read columns of table " + section.simpleTableName + " from Schema cache file", e);
+         return null;
+      }
+   }
+
+   void setCachedColumnSections(CachedColumnSections cachedColumnSections)
+   {
+      _cachedColumnSections = cachedColumnSections;
+   }
+
+   CachedColumnSections getCachedColumnSections()
+   {
+      return _cachedColumnSections;
+   }
+
+   Map<CaseInsensitiveString, List<ExtendedColumnInfo>> getExtendedColumnInfosByTableNameForReadOnly()
+   {
+      return _extendedColumnInfosByTableName;
+   }
+
+   Set<CaseInsensitiveString> getTablesWithInaccessibleColumnsForReadOnly()
+   {
+      return _tablesWithInaccessibleColumns;
+   }
+
+   void writeTablesWithInaccessibleColumns(List<String> simpleTableNames)
+   {
+      for (String simpleTableName : simpleTableNames)
+      {
+         _tablesWithInaccessibleColumns.add(new CaseInsensitiveString(simpleTableName));
+      }
+   }
+
+   void closeCachedColumnSections()
+   {
+      if(null != _cachedColumnSections)
+      {
+         _cachedColumnSections.clear();
+         _cachedColumnSections.close();
+      }
    }
 }
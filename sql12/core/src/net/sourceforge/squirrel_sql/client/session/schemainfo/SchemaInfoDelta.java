@@ -0,0 +1,125 @@
+package net.sourceforge.squirrel_sql.client.session.schemainfo;
+
+import net.sourceforge.squirrel_sql.fw.sql.IDatabaseObjectInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes an incremental refresh of SchemaInfo found, see {@link SchemaInfo#refreshIncrementally()}.
+ * Catalogs/schemas that did not change are not contained.
+ */
+public class SchemaInfoDelta
+{
+   public static class SchemaDelta
+   {
+      private final String _catalogName;
+      private final String _schemaName;
+
+      private final List<IDatabaseObjectInfo> _addedObjects = new ArrayList<>();
+      private final List<IDatabaseObjectInfo> _removedObjects = new ArrayList<>();
+      private final List<String> _changedObjectNames = new ArrayList<>();
+
+      SchemaDelta(String catalogName, String schemaName)
+      {
+         _catalogName = catalogName;
+         _schemaName = schemaName;
+      }
+
+      /**
+       * May be null, especially for databases that don't support catalogs.
+       */
+      public String getCatalogName()
+      {
+         return _catalogName;
+      }
+
+      /**
+       * May be null, especially for databases that don't support schemas.
+       */
+      public String getSchemaName()
+      {
+         return _schemaName;
+      }
+
+      /**
+       * Tables, stored procedures and UDTs that were written to the cache.
+       */
+      public List<IDatabaseObjectInfo> getAddedObjects()
+      {
+         return Collections.unmodifiableList(_addedObjects);
+      }
+
+      /**
+       * Tables, stored procedures and UDTs that were removed from the cache.
+       */
+      public List<IDatabaseObjectInfo> getRemovedObjects()
+      {
+         return Collections.unmodifiableList(_removedObjects);
+      }
+
+      /**
+       * Simple names of the objects whose definition changed. Their columns will be reloaded when accessed.
+       */
+      public List<String> getChangedObjectNames()
+      {
+         return Collections.unmodifiableList(_changedObjectNames);
+      }
+
+      void addAdded(IDatabaseObjectInfo doi)
+      {
+         _addedObjects.add(doi);
+      }
+
+      void addRemoved(IDatabaseObjectInfo doi)
+      {
+         _removedObjects.add(doi);
+      }
+
+      void addChanged(String simpleName)
+      {
+         _changedObjectNames.add(simpleName);
+      }
+
+      boolean isEmpty()
+      {
+         return _addedObjects.isEmpty() && _removedObjects.isEmpty() && _changedObjectNames.isEmpty();
+      }
+   }
+
+   private final List<SchemaDelta> _schemaDeltas = new ArrayList<>();
+   private boolean _schemaNamesChanged;
+
+   public List<SchemaDelta> getSchemaDeltas()
+   {
+      return Collections.unmodifiableList(_schemaDeltas);
+   }
+
+   /**
+    * @return true if catalogs or schemas were created or dropped. Then listeners that cache anything
+    * about the schema names should drop it completely.
+    */
+   public boolean isSchemaNamesChanged()
+   {
+      return _schemaNamesChanged;
+   }
+
+   void setSchemaNamesChanged(boolean schemaNamesChanged)
+   {
+      _schemaNamesChanged = schemaNamesChanged;
+   }
+
+   public boolean isEmpty()
+   {
+      return _schemaDeltas.isEmpty() && false == _schemaNamesChanged;
+   }
+
+   void add(SchemaDelta schemaDelta)
+   {
+      if(false == schemaDelta.isEmpty())
+      {
+         _schemaDeltas.add(schemaDelta);
+      }
+   }
+}
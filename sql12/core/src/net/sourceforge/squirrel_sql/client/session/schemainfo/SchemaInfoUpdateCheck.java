@@ -6,8 +6,6 @@ import net.sourceforge.squirrel_sql.client.gui.session.SessionInternalFrame;
 import net.sourceforge.squirrel_sql.client.session.ISQLEntryPanel;
 import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.SQLExecutionInfo;
-import net.sourceforge.squirrel_sql.fw.sql.DatabaseObjectInfo;
-import net.sourceforge.squirrel_sql.fw.sql.DatabaseObjectType;
 import net.sourceforge.squirrel_sql.fw.sql.IDatabaseObjectInfo;
 import net.sourceforge.squirrel_sql.fw.sql.ProcedureInfo;
 import net.sourceforge.squirrel_sql.fw.sql.TableInfo;
@@ -24,6 +22,9 @@ import java.util.regex.Pattern;
  * This class tries to update SchemaInfo after standard CREATE/ALTER statements.
  * This way Syntax highlighting and code completion are available just after
  * CREATE/ALTER statements were send to the DB.
+ *
+ * It also invalidates the session's {@link net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache}
+ * for tables changed by DML or DDL statements.
  */
 public class SchemaInfoUpdateCheck
 {
@@ -53,6 +54,20 @@ public class SchemaInfoUpdateCheck
    private static final Pattern PATTERN_DROP_FUNCTION = Pattern.compile("DROP\\s+FUNCTION\\s+([A-Z0-9_\\.\"]+)");
 
 
+   private static final Pattern PATTERN_DML_INSERT = Pattern.compile("INSERT\\s+INTO\\s+([A-Z0-9_\\.\"]+)");
+   private static final Pattern PATTERN_DML_UPDATE = Pattern.compile("UPDATE\\s+([A-Z0-9_\\.\"]+)");
+   private static final Pattern PATTERN_DML_DELETE = Pattern.compile("DELETE\\s+FROM\\s+([A-Z0-9_\\.\"]+)");
+   private static final Pattern PATTERN_DML_MERGE = Pattern.compile("MERGE\\s+INTO\\s+([A-Z0-9_\\.\"]+)");
+   private static final Pattern PATTERN_TRUNCATE_TABLE = Pattern.compile("TRUNCATE\\s+TABLE\\s+([A-Z0-9_\\.\"]+)");
+
+   private static final Pattern[] PATTERNS_CHANGING_TABLE_DATA =
+      {
+         PATTERN_DML_INSERT, PATTERN_DML_UPDATE, PATTERN_DML_DELETE, PATTERN_DML_MERGE, PATTERN_TRUNCATE_TABLE,
+         PATTERN_ALTER_TABLE, PATTERN_DROP_TABLE, PATTERN_DROP_MATERIALIZED_VIEW, PATTERN_DROP_VIEW,
+         PATTERN_CREATE_OR_REPLACE_VIEW, PATTERN_ALTER_VIEW
+      };
+
+
    private DatabaseUpdateInfos _databaseUpdateInfos = new DatabaseUpdateInfos();
 
    private ISession _session;
@@ -71,6 +86,8 @@ public class SchemaInfoUpdateCheck
          return;
       }
 
+      invalidateResultCache(exInfo.getSQL());
+
       TableInfo[] tis = getTableInfos(exInfo.getSQL());
       for (int i = 0; i < tis.length; i++)
       {
@@ -97,6 +114,52 @@ public class SchemaInfoUpdateCheck
       }
    }
 
+   private void invalidateResultCache(String sql)
+   {
+      String upperSql = sql.trim().toUpperCase();
+
+      if(upperSql.startsWith("COMMIT"))
+      {
+         return;
+      }
+
+      if(upperSql.startsWith("SELECT"))
+      {
+         Matcher matcher = PATTERN_INSERT_INTO.matcher(upperSql);
+         if(matcher.find())
+         {
+            _session.getResultCache().invalidateTable(getSimpleName(matcher));
+         }
+         return;
+      }
+
+      boolean tableFound = false;
+      for (Pattern pattern : PATTERNS_CHANGING_TABLE_DATA)
+      {
+         Matcher matcher = pattern.matcher(upperSql);
+         while(matcher.find())
+         {
+            _session.getResultCache().invalidateTable(getSimpleName(matcher));
+            tableFound = true;
+         }
+      }
+
+      if(false == tableFound)
+      {
+         // Procedure calls, rollbacks, anonymous blocks ... may change any table.
+         _session.getResultCache().clear();
+      }
+   }
+
+   /**
+    * The result cache compares table names ignoring case. So upper case is good enough here.
+    */
+   private String getSimpleName(Matcher matcher)
+   {
+      String[] splits = matcher.group(1).split("\\.");
+      return removeQuotes(splits[splits.length - 1]);
+   }
+
    private String getDropProcedureSimpleName(String sql)
    {
       sql = sql.trim();
@@ -150,12 +213,14 @@ public class SchemaInfoUpdateCheck
 
    public void flush(DatabaseUpdateInfosListener databaseUpdateInfosListener)
    {
-      if(60 < _databaseUpdateInfos.getUpdateDatabaseObjectInfos().size() + _databaseUpdateInfos.getDropTableSimpleNames().size() + _databaseUpdateInfos.getDropProcedureSimpleNames().size())
+      int updateCount = _databaseUpdateInfos.getUpdateDatabaseObjectInfos().size() + _databaseUpdateInfos.getDropTableSimpleNames().size() + _databaseUpdateInfos.getDropProcedureSimpleNames().size();
+
+      if(60 < updateCount)
       {
-         // reload complete SchemaInfo
-         SQLDatabaseMetaData dmd = _session.getSQLConnection().getSQLMetaData();
-         DatabaseObjectInfo sessionOI = new DatabaseObjectInfo(null, null, "SessionDummy", DatabaseObjectType.SESSION, dmd);
-         _session.getSchemaInfo().reload(sessionOI, false);
+         // Too many single reloads. Re-read only the schemas that changed instead of reloading the complete SchemaInfo.
+         SchemaInfoDelta delta = _session.getSchemaInfo().refreshIncrementally(false);
+         _session.getSchemaInfo().fireSchemaInfoUpdate(delta);
+         SwingUtilities.invokeLater(() -> repaintSqlEditor());
       }
       else
       {
@@ -173,12 +238,12 @@ public class SchemaInfoUpdateCheck
          {
             _session.getSchemaInfo().refreshCacheForSimpleProcedureName(simpleProcName, false);
          }
-      }
 
-      if(0 < _databaseUpdateInfos.getUpdateDatabaseObjectInfos().size()  + _databaseUpdateInfos.getDropTableSimpleNames().size() + _databaseUpdateInfos.getDropProcedureSimpleNames().size())
-      {
-         _session.getSchemaInfo().fireSchemaInfoUpdate();
-         SwingUtilities.invokeLater(() -> repaintSqlEditor());
+         if(0 < updateCount)
+         {
+            _session.getSchemaInfo().fireSchemaInfoUpdate();
+            SwingUtilities.invokeLater(() -> repaintSqlEditor());
+         }
       }
 
       if(null != databaseUpdateInfosListener)
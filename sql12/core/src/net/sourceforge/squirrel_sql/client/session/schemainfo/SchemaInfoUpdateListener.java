@@ -3,4 +3,14 @@ package net.sourceforge.squirrel_sql.client.session.schemainfo;
 public interface SchemaInfoUpdateListener
 {
    void schemaInfoUpdated();
+
+   /**
+    * Called instead of {@link #schemaInfoUpdated()} when SchemaInfo was refreshed incrementally,
+    * see {@link SchemaInfo#refreshIncrementally()}.
+    * Listeners that can handle single schemas override this method. By default it is treated as a complete update.
+    */
+   default void schemaInfoUpdated(SchemaInfoDelta delta)
+   {
+      schemaInfoUpdated();
+   }
 }
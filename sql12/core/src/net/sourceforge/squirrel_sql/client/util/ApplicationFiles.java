@@ -516,4 +516,9 @@ public class ApplicationFiles
    {
       return new File(_userSettingsDir + File.separator + "objectTreeSelectionStore.json");
    }
+
+   public File getResultSpillDir()
+   {
+      return new File(_userSettingsDir + File.separator + "resultSpill");
+   }
 }
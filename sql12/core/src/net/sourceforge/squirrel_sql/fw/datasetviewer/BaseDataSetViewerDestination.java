@@ -117,9 +117,12 @@ public abstract class BaseDataSetViewerDestination implements IDataSetViewer
 		{
 			setColumnDefinitions(ds.getDataSetDefinition().getColumnDefinitions());
 			final int colCount = ds.getColumnCount();
-			while (ds.next(msgHandler))
+			if (false == showSharedRows(ds))
 			{
-				addRow(ds, colCount);
+				while (ds.next(msgHandler))
+				{
+					addRow(ds, colCount);
+				}
 			}
 			close();
 			allRowsAdded();
@@ -128,6 +131,24 @@ public abstract class BaseDataSetViewerDestination implements IDataSetViewer
 	}
 
 
+	/**
+	 * Viewers that can append rows override this to show only the rows that were not shown before.
+	 */
+	public synchronized void showMoreResults(IDataSet ds) throws DataSetException
+	{
+		show(ds, null);
+	}
+
+	/**
+	 * Viewers that can show the data set's rows without copying them override this.
+	 *
+	 * @return false if the rows must be added by {@link #addRow(Object[])}.
+	 */
+	protected boolean showSharedRows(IDataSet ds)
+	{
+		return false;
+	}
+
 	protected void addRow(IDataSet ds, int columnCount) throws DataSetException
 	{
 		Object[] row = new Object[columnCount];
@@ -6,6 +6,7 @@ import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellRenderer;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.RestorableJTextField;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.celldatapopup.CellDataPopup;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.coloring.ColoringService;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ValueFrequencyService;
 import net.sourceforge.squirrel_sql.fw.gui.RectangleSelectionHandler;
 import net.sourceforge.squirrel_sql.fw.gui.table.ButtonTableHeader;
 import net.sourceforge.squirrel_sql.fw.gui.table.SortableTableModel;
@@ -48,6 +49,7 @@ public final class DataSetViewerTable extends JTable
 
    private ColoringService _coloringService;
 
+   private ValueFrequencyService _valueFrequencyService;
 
    DataSetViewerTable(DataSetViewerTablePanel dataSetViewerTablePanel, IDataSetViewAccess dataSetViewAccess, IDataSetUpdateableModel dataSetUpdateableModel, int listSelectionMode, ISession session)
    {
@@ -74,6 +76,8 @@ public final class DataSetViewerTable extends JTable
       _dataSetViewerTablePanel.setCellEditors(this);
 
 
+      _valueFrequencyService = new ValueFrequencyService(getDataSetViewerTableModel());
+
       // Do in the end of constructor as we pass this as parameter.
       _coloringService = new ColoringService(this);
    }
@@ -407,6 +411,11 @@ public final class DataSetViewerTable extends JTable
       return _coloringService;
    }
 
+   public ValueFrequencyService getValueFrequencyService()
+   {
+      return _valueFrequencyService;
+   }
+
    public void scrollToVisible(int viewRow, int viewCol)
    {
       Rectangle cellRect = getCellRect(viewRow, viewCol, true);
@@ -21,18 +21,36 @@ package net.sourceforge.squirrel_sql.fw.datasetviewer;
  */
 
 
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowList;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowListFactory;
+
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 
 public final class DataSetViewerTableModel extends AbstractTableModel
 {
-   private List<Object[]> _data = new ArrayList<>();
+   private RowList _data = RowListFactory.createRowList();
+
+   /**
+    * True while _data belongs to the data set shown, see {@link #setSharedRows(RowList)}.
+    */
+   private boolean _dataShared;
+
+   /**
+    * Rows read outside the EDT by table sorts, see {@link #startReadingRows()}.
+    */
+   private RowList _dataReadBySorts;
+   private int _sortsReadingData;
+
    private ColumnDisplayDefinition[] _colDefs = new ColumnDisplayDefinition[0];
    private IDataSetViewAccess _dataSetViewAccess = null;
 
+   /**
+    * Changes whenever existing rows change. Appending rows does not change it.
+    */
+   private volatile int _dataVersion;
+
 
    DataSetViewerTableModel(IDataSetViewAccess dataSetViewAccess)
 	{
@@ -74,7 +92,9 @@ public final class DataSetViewerTableModel extends AbstractTableModel
 				// goes away (because the cell is being re-painted).
 				return false;	// cell is not editable
 			}
-			(_data.get(row))[col] = newValue;
+			ensureOwnRows();
+			_data.setValueAt(row, col, newValue);
+			++_dataVersion;
 		}
 
 		return _dataSetViewAccess.isColumnEditable(col, getValueAt(row, col));
@@ -88,7 +108,7 @@ public final class DataSetViewerTableModel extends AbstractTableModel
 		}
 		else
 		{
-			return _data.get(row)[columnModelIndex];
+			return _data.getValueAt(row, columnModelIndex);
 		}
 	}
 
@@ -140,12 +160,78 @@ public final class DataSetViewerTableModel extends AbstractTableModel
 
 	public void addRow(Object[] row)
 	{
+		ensureOwnRows();
 		_data.add(row);
 	}
 
 	void clear()
 	{
-		_data.clear();
+		if (_dataShared || _dataReadBySorts == _data)
+		{
+			_data = RowListFactory.createRowList();
+			_dataShared = false;
+		}
+		else
+		{
+			_data.clear();
+		}
+		++_dataVersion;
+	}
+
+	/**
+	 * Shows the rows of a data set without copying them, see {@link ResultSetDataSet#getRowsToShare()}.
+	 * Rows appended to the data set become visible with {@link #allRowsAdded()}.
+	 * The rows are copied before they are changed for the first time.
+	 */
+	void setSharedRows(RowList rows)
+	{
+		_data = rows;
+		_dataShared = true;
+		++_dataVersion;
+	}
+
+	boolean isSharedRows(RowList rows)
+	{
+		return _dataShared && _data == rows;
+	}
+
+	/**
+	 * Lets a table sort read the rows outside the EDT. Until {@link #stopReadingRows(RowList)} is called
+	 * the rows are copied before they are changed, so the sort reads rows that don't change.
+	 * Rows shared with a data set may get rows appended, appending leaves the rows the sort reads untouched.
+	 * Must be called on the EDT.
+	 */
+	public RowList startReadingRows()
+	{
+		if (_dataReadBySorts != _data)
+		{
+			_dataReadBySorts = _data;
+			_sortsReadingData = 0;
+		}
+		++_sortsReadingData;
+		return _data;
+	}
+
+	/**
+	 * Must be called on the EDT.
+	 */
+	public void stopReadingRows(RowList rows)
+	{
+		if (_dataReadBySorts == rows && 0 == --_sortsReadingData)
+		{
+			_dataReadBySorts = null;
+		}
+	}
+
+	private void ensureOwnRows()
+	{
+		if (_dataShared || _dataReadBySorts == _data)
+		{
+			RowList ownRows = RowListFactory.createRowList();
+			ownRows.addAll(_data);
+			_data = ownRows;
+			_dataShared = false;
+		}
 	}
 
 	public void allRowsAdded()
@@ -162,10 +248,12 @@ public final class DataSetViewerTableModel extends AbstractTableModel
 	{
 		int[] colsToUpdate = _dataSetViewAccess.changeUnderlyingValueAt(row, col, newValue, getValueAt(row, col));
 
+		ensureOwnRows();
 		for (int i = 0; i < colsToUpdate.length; i++)
 		{
-			_data.get(row)[colsToUpdate[i]] = newValue;
+			_data.setValueAt(row, colsToUpdate[i], newValue);
 		}
+		++_dataVersion;
 	}
 	
 	/**
@@ -178,31 +266,15 @@ public final class DataSetViewerTableModel extends AbstractTableModel
 		
 		
 		
-		// We want to delete rows from the end of the table towards the beginning
-		// of the table.  If we delete from the front to the back, that throws off
-		// the indexes of the rows after each delete and we would have to compensate
-		// for that.
-		// Example: if we want to delete rows 2 and 4 and do it in that
-		// order, then after deleteing row 2 the row that used to be row 4 is now
-		// actually row 3, so we would have to subtract 1 from the index to get the
-		// row to delete.
-		// On the other hand, if we delete row 4 first, then the indexes of all
-		// rows prior to that one have not been affected, so we can then delete
-		// row 2 without any complications.
-		
-		// sort the indexes into ascending order (because that is the
-		// only function easilly available from the Arrays class)
+		// sort the indexes into ascending order as removeRows() expects them.
 		Arrays.sort(rows);
-		
-		// The indexes are in ascending order, but we want to delete in
-		// descending order (see previous comment), so run through the
-		// list backwards.
-		for (int i=rows.length - 1; i>=0; i--) {
-			// delete the row from the table
-            if (rows[i] < _data.size()) {
-                _data.remove(rows[i]);
-            }
-		}
+
+		ensureOwnRows();
+
+		// Removes all rows in one go. Removing them one by one
+		// shifts the column stores once per deleted row.
+		_data.removeRows(rows);
+		++_dataVersion;
 
 		// notify table that rows have changed
 		// The deleted rows may not be contiguous in the actual data model
@@ -216,4 +288,9 @@ public final class DataSetViewerTableModel extends AbstractTableModel
    {
       return _data.get(rowIx);
    }
+
+   public int getDataVersion()
+   {
+      return _dataVersion;
+   }
 }
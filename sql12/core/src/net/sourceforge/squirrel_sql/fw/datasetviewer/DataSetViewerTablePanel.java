@@ -24,6 +24,7 @@ import net.sourceforge.squirrel_sql.client.session.DataModelImplementationDetail
 import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.LimitReadLengthFeatureUnstable;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowList;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.tablefind.DefaultFindService;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.tablefind.FindService;
 
@@ -161,6 +162,27 @@ public class DataSetViewerTablePanel extends BaseDataSetViewerDestination implem
 		return _table;
 	}
 
+	/**
+	 * The table model shows the rows of a {@link ResultSetDataSet} without copying them.
+	 */
+	@Override
+	protected boolean showSharedRows(IDataSet ds)
+	{
+		if (false == ds instanceof ResultSetDataSet)
+		{
+			return false;
+		}
+
+		RowList rows = ((ResultSetDataSet) ds).getRowsToShare();
+		if (null == rows)
+		{
+			return false;
+		}
+
+		_table.getDataSetViewerTableModel().setSharedRows(rows);
+		return true;
+	}
+
 	/*
 	 * @see BaseDataSetViewerDestination#addRow(Object[])
 	 */
@@ -181,6 +203,41 @@ public class DataSetViewerTablePanel extends BaseDataSetViewerDestination implem
 		return values;
 	}
 
+	/**
+	 * Appends only the new rows. So the rows shown before and the analytics on them,
+	 * see {@link DataSetViewerTableModel#getDataVersion()}, stay valid.
+	 */
+	@Override
+	public synchronized void showMoreResults(IDataSet ds) throws DataSetException
+	{
+		if (null != getCurrentCellEditor())
+		{
+			getCurrentCellEditor().cancelCellEditing();
+			setCurrentCellEditor(null);
+		}
+
+		if (ds instanceof ResultSetDataSet && _table.getDataSetViewerTableModel().isSharedRows(((ResultSetDataSet) ds).getRowsToShare()))
+		{
+			// The model shows the data set's rows, the new rows are among them already.
+			allRowsAdded();
+			return;
+		}
+
+		int shownRowCount = _table.getDataSetViewerTableModel().getRowCount();
+		final int colCount = ds.getColumnCount();
+
+		int rowIx = 0;
+		while (ds.next(null))
+		{
+			if (rowIx >= shownRowCount)
+			{
+				addRow(ds, colCount);
+			}
+			++rowIx;
+		}
+		allRowsAdded();
+	}
+
 	/*
 	 * @see BaseDataSetViewerDestination#allRowsAdded()
 	 */
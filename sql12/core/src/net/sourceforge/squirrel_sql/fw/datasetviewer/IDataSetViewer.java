@@ -68,6 +68,12 @@ public interface IDataSetViewer
 
 	void show(IDataSet ds, IMessageHandler msgHandler) throws DataSetException;
 
+	/**
+	 * Shows ds after continue read appended rows to it, see {@link ContinueReadChannel}.
+	 * The rows shown before did not change.
+	 */
+	void showMoreResults(IDataSet ds) throws DataSetException;
+
 	/**
 	 * Indicates that the output display should scroll to the top.
 	 */
@@ -21,6 +21,9 @@ package net.sourceforge.squirrel_sql.fw.datasetviewer;
  * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
  */
 
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.ColumnarRowList;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowList;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowListFactory;
 import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
 import net.sourceforge.squirrel_sql.fw.sql.JDBCTypeMapper;
 import net.sourceforge.squirrel_sql.fw.sql.ResultSetReader;
@@ -41,13 +44,17 @@ public class ResultSetDataSet implements IDataSet
    // TODO: These 2 should be handled with an Iterator.
    private int _iCurrent = -1;
 
-   private Object[] _currentRow;
+   private int _currentRowIx = -1;
 
    private int _columnCount;
 
    private DataSetDefinition _dataSetDefinition;
 
-   private List<Object[]> _alData;
+   /**
+    * Rows are stored column wise to keep memory usage of large results low.
+    * If configured rows beyond a window are spilled to disk, see {@link RowListFactory}.
+    */
+   private RowList _alData;
 
    /**
     * If <TT>true</TT> cancel has been requested.
@@ -129,6 +136,54 @@ public class ResultSetDataSet implements IDataSet
    }
 
 
+   /**
+    * Reads the result like {@link #setSqlExecutionTabResultSet(ResultSetWrapper, String, DialectType)}
+    * but passes each row to rowConsumer instead of storing it. Thus memory use does not depend on the result's size.
+    * This data set contains no rows afterwards.
+    *
+    * @return The number of rows read from the ResultSet
+    */
+   public long streamSqlExecutionTabResultSet(ResultSetWrapper rs, DialectType dialectType, ResultSetRowConsumer rowConsumer) throws DataSetException
+   {
+      reset();
+      _dialectType = dialectType;
+      _iCurrent = -1;
+      _alData = new ColumnarRowList();
+
+      try
+      {
+         ResultSetMetaData md = rs.getResultSet().getMetaData();
+         _columnCount = md.getColumnCount();
+
+         ColumnDisplayDefinition[] colDefs = createColumnDefinitions(md, null, null, false);
+         _dataSetDefinition = new DataSetDefinition(colDefs, null);
+
+         _rdr = new ResultSetReader(rs, dialectType);
+
+         rowConsumer.columnsRead(colDefs);
+
+         long rowCount = 0;
+         while (false == _cancel)
+         {
+            Object[] row = createRow(null, true, colDefs, BlockMode.INDIFFERENT);
+
+            if (null == row)
+            {
+               break;
+            }
+
+            rowConsumer.rowRead(row);
+            ++rowCount;
+         }
+
+         return rowCount;
+      }
+      catch (SQLException ex)
+      {
+         throw new DataSetException(ex);
+      }
+   }
+
    /**
     * External method to read the contents of a ResultSet that is used by all
     * Tab classes except ContentsTab. This tunrs all the data into strings for
@@ -161,7 +216,7 @@ public class ResultSetDataSet implements IDataSet
       }
 
       _iCurrent = -1;
-      _alData = new ArrayList<>();
+      _alData = RowListFactory.createRowList();
 
       if (rs == null)
       {
@@ -284,7 +339,7 @@ public class ResultSetDataSet implements IDataSet
       // TODO: This should be handled with an Iterator
       if (++_iCurrent < _alData.size())
       {
-         _currentRow = _alData.get(_iCurrent);
+         _currentRowIx = _iCurrent;
          return true;
       }
       return false;
@@ -298,9 +353,9 @@ public class ResultSetDataSet implements IDataSet
    @Override
    public Object get(int columnIndex)
    {
-      if (_currentRow != null)
+      if (_currentRowIx != -1)
       {
-         return _currentRow[columnIndex];
+         return _alData.getValueAt(_currentRowIx, columnIndex);
       }
       else
       {
@@ -566,7 +621,7 @@ public class ResultSetDataSet implements IDataSet
    private void reset()
    {
       _iCurrent = -1;
-      _currentRow = null;
+      _currentRowIx = -1;
       _columnCount = 0;
       _dataSetDefinition = null;
       _alData = null;
@@ -575,7 +630,7 @@ public class ResultSetDataSet implements IDataSet
    public void resetCursor()
    {
       _iCurrent = -1;
-      _currentRow = null;
+      _currentRowIx = -1;
    }
 
    /**
@@ -637,15 +692,57 @@ public class ResultSetDataSet implements IDataSet
    }
 
 
-   public List<Object[]> getAllDataForReadOnly()
+   /**
+    * @return A data set that shares the rows of this data set but has its own cursor.
+    * Used to show the rows again without reading them from the database, see
+    * {@link net.sourceforge.squirrel_sql.client.session.resultcache.ResultCache}.
+    * The rows of both data sets must not be changed anymore.
+    */
+   public ResultSetDataSet createSharedRowsCopy()
+   {
+      ResultSetDataSet ret = new ResultSetDataSet(tableColumnInfos);
+      ret._columnCount = _columnCount;
+      ret._dataSetDefinition = _dataSetDefinition;
+      ret._alData = _alData;
+      ret._rdr = _rdr;
+      ret._dialectType = _dialectType;
+      ret._limitDataRead = _limitDataRead;
+      return ret;
+   }
+
+   /**
+    * Where only single cells are needed {@link RowList#getValueAt(int, int)} avoids creating the row arrays.
+    */
+   public RowList getAllDataForReadOnly()
    {
       return _alData;
    }
 
-   public void readMoreResults()
+   /**
+    * Lets a viewer show the rows without copying them.
+    * The viewer must not change the rows, it sees rows appended by {@link #appendMoreResults(List)}.
+    *
+    * @return null if the cursor was moved, then the rows the viewer would show by {@link #next(IMessageHandler)} differ.
+    */
+   public synchronized RowList getRowsToShare()
+   {
+      if (-1 != _iCurrent)
+      {
+         return null;
+      }
+      return _alData;
+   }
+
+   /**
+    * Reads the next block of rows. Called outside the event dispatch thread.
+    * The rows are not added to this data set, pass them to {@link #appendMoreResults(List)}.
+    * So viewers showing the rows, see {@link #getRowsToShare()}, don't see them change while reading.
+    */
+   public List<Object[]> readMoreResults()
    {
       try
       {
+         ArrayList<Object[]> ret = new ArrayList<>();
          for (; ; )
          {
             Object[] row = createRow(_dataSetDefinition.getColumnIndices(), true, _dataSetDefinition.getColumnDefinitions(), BlockMode.FOLLOW_UP_BLOCK);
@@ -655,12 +752,11 @@ public class ResultSetDataSet implements IDataSet
             }
             else
             {
-               _alData.add(row);
+               ret.add(row);
             }
          }
 
-         resetCursor();
-
+         return ret;
       }
       catch (SQLException e)
       {
@@ -668,6 +764,15 @@ public class ResultSetDataSet implements IDataSet
       }
    }
 
+   /**
+    * Called on the event dispatch thread with the rows returned by {@link #readMoreResults()}.
+    */
+   public void appendMoreResults(List<Object[]> moreRows)
+   {
+      _alData.addAll(moreRows);
+      resetCursor();
+   }
+
    public int currentRowCount()
    {
       return _alData.size();
@@ -696,6 +801,7 @@ public class ResultSetDataSet implements IDataSet
    public void replaceDataOnUserEdits(ArrayList<Object[]> updatedRows)
    {
       resetCursor();
-      _alData = updatedRows;
+      _alData = RowListFactory.createRowList();
+      _alData.addAll(updatedRows);
    }
 }
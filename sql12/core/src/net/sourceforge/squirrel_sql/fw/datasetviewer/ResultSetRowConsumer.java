@@ -0,0 +1,20 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer;
+
+import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+
+/**
+ * Receives the rows of a result one by one while they are read,
+ * see {@link ResultSetDataSet#streamSqlExecutionTabResultSet(ResultSetWrapper, DialectType, ResultSetRowConsumer)}.
+ */
+public interface ResultSetRowConsumer
+{
+   /**
+    * Called once before the first row.
+    */
+   void columnsRead(ColumnDisplayDefinition[] colDefs) throws DataSetException;
+
+   /**
+    * Consumers are meant to write the row out instead of keeping it, so that rows don't accumulate in memory.
+    */
+   void rowRead(Object[] row) throws DataSetException;
+}
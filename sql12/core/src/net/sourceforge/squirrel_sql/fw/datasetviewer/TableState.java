@@ -106,7 +106,7 @@ public class TableState
          {
             tableSortingAdmin.updateSortedColumn(tableStateSortingItem.getSortedModelColumn(), tableStateSortingItem.getColumnOrder(), false);
          }
-         sortableTableModel.sortTableBySortingAdmin();
+         sortableTableModel.sortTableBySortingAdminSynchronously();
       }
 
       table.getSelectionModel().clearSelection();
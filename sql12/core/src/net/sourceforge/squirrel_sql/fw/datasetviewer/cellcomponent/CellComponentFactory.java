@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.DefaultCellEditor;
 import javax.swing.JTable;
@@ -146,6 +147,12 @@ public class CellComponentFactory
     */
    private static HashMap<ColumnDisplayDefinition, IDataTypeComponent> _colDataTypeObjects = new HashMap<>(); // TODO Remove static
 
+   /* DataType objects of columns that are looked up without a JTable,
+    * e.g. by renderObject(). Exports render on their own threads,
+    * so this map is accessed concurrently.
+    */
+   private static final ConcurrentHashMap<ColumnDisplayDefinition, IDataTypeComponent> _tablelessColDataTypeObjects = new ConcurrentHashMap<>(); // TODO Remove static
+
    /* list of DBMS-specific registered data handlers.
     * The key is a string of the form:
     *   <SQL type as a string>:<SQL type name>
@@ -200,7 +207,9 @@ public class CellComponentFactory
 
    /**
     * Render value of object as a string for text output.
-    * Used by Text version of table.
+    * Used by Text version of table. May be called from any thread.
+    * To render many values of a column use the IDataTypeComponent returned by
+    * getDataTypeObject(null, colDef) directly.
     */
    public static String renderObject(Object value, ColumnDisplayDefinition colDef)
    {
@@ -782,13 +791,35 @@ public class CellComponentFactory
     * new instances each time the userstarts editing, creates the popup dialog,
     * or does an operation requireing a static method call (e.g. validateAndConvert).
     *
-    * @param table  the JTable that will render the cells
+    * @param table  the JTable that will render the cells. When null this method
+    *               may be called from any thread.
     * @param colDef the ColumnDisplayDefinition that describes the column.  It
     *               contains SQL type, SQL type name and DialectType, and these
     *               three criteria are examined to determine if a type has been
     *               registered
     */
    public static IDataTypeComponent getDataTypeObject(JTable table, ColumnDisplayDefinition colDef)
+   {
+      if (table == null && colDef != null)
+      {
+         // May be called from any thread, e.g. to render values for an export.
+         IDataTypeComponent dataTypeComponent = _tablelessColDataTypeObjects.get(colDef);
+         if (dataTypeComponent == null)
+         {
+            dataTypeComponent = createDataTypeObject(null, colDef);
+            IDataTypeComponent buf = _tablelessColDataTypeObjects.putIfAbsent(colDef, dataTypeComponent);
+            if (buf != null)
+            {
+               dataTypeComponent = buf;
+            }
+         }
+         return dataTypeComponent;
+      }
+
+      return getTableDataTypeObject(table, colDef);
+   }
+
+   private static synchronized IDataTypeComponent getTableDataTypeObject(JTable table, ColumnDisplayDefinition colDef)
    {
       IDataTypeComponent dataTypeComponent = null;
 
@@ -796,8 +827,9 @@ public class CellComponentFactory
       // so we can reuse them.
       if (table != _table)
       {
-         // new table - clear hash map
+         // new table - clear hash maps
          _colDataTypeObjects.clear();
+         _tablelessColDataTypeObjects.clear();
          _table = table;
       }
       if (_colDataTypeObjects.containsKey(colDef))
@@ -806,25 +838,27 @@ public class CellComponentFactory
       }
       else
       {
-         if (dataTypeComponent == null)
-         {
-            /* See if we have a custom data-type registered. */
-            dataTypeComponent = getCustomDataType(table, colDef);
-         }
-
-         if (dataTypeComponent == null)
-         {
-            // we have not already created a DataType object for this column
-            // so do that now and save it
-            dataTypeComponent = getGenericDataType(table, colDef);
-         }
+         dataTypeComponent = createDataTypeObject(table, colDef);
 
          // remember this DataType object so we can reuse it
          _colDataTypeObjects.put(colDef, dataTypeComponent);
       }
 
-      // If we get here, then no data type object was found for this column.
-      // (should not get here because switch default returns null.)
+      return dataTypeComponent;
+   }
+
+   private static IDataTypeComponent createDataTypeObject(JTable table, ColumnDisplayDefinition colDef)
+   {
+      /* See if we have a custom data-type registered. */
+      IDataTypeComponent dataTypeComponent = getCustomDataType(table, colDef);
+
+      if (dataTypeComponent == null)
+      {
+         // we have not already created a DataType object for this column
+         // so do that now
+         dataTypeComponent = getGenericDataType(table, colDef);
+      }
+
       return dataTypeComponent;
    }
 
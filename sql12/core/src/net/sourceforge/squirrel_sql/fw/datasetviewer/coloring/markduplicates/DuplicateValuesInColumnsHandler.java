@@ -1,53 +1,108 @@
 package net.sourceforge.squirrel_sql.fw.datasetviewer.coloring.markduplicates;
 
 import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTable;
-import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTableModel;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTablePanelUtil;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.ExtTableColumn;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.RowNumberTableColumn;
+import net.sourceforge.squirrel_sql.client.Main;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ColumnValueFrequencies;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ValueFrequencies;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
+/**
+ * The duplicate values are taken from the table's {@link net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ValueFrequencyService}.
+ * Thus they are computed on a background thread and, after continue read, just for the newly read rows.
+ * Columns with too many distinct values to count are not marked.
+ */
 public class DuplicateValuesInColumnsHandler implements DuplicateHandler
 {
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(DuplicateValuesInColumnsHandler.class);
+
    private DataSetViewerTable _dataSetViewerTable;
    private HashMap<Integer, HashMap<Object, Color>> _duplicateValuesByColumnModelIndex;
+   private boolean _selected;
+   private boolean _tooManyValuesReported;
 
    public DuplicateValuesInColumnsHandler(DataSetViewerTable dataSetViewerTable)
    {
       _dataSetViewerTable = dataSetViewerTable;
+      _dataSetViewerTable.getDataSetViewerTableModel().addTableModelListener(e -> onTableDataChanged());
    }
 
    public void markDuplicates(boolean selected)
    {
-      try
-      {
+      boolean wasSelected = _selected;
+      _selected = selected;
+      _duplicateValuesByColumnModelIndex = null;
+      _tooManyValuesReported = false;
 
-         if(false == selected)
+      if(false == selected)
+      {
+         if(wasSelected)
          {
-            _duplicateValuesByColumnModelIndex = null;
-            return;
+            _dataSetViewerTable.getValueFrequencyService().dropFrequencies();
          }
+         _dataSetViewerTable.repaint();
+         return;
+      }
+
+      requestDuplicateValues();
+   }
 
-         _duplicateValuesByColumnModelIndex = new HashMap<>();
+   private void onTableDataChanged()
+   {
+      if(_selected)
+      {
+         requestDuplicateValues();
+      }
+   }
 
+   private void requestDuplicateValues()
+   {
+      List<ExtTableColumn> tableColumns = DataSetViewerTablePanelUtil.getTableColumns(_dataSetViewerTable);
+      int[] columnModelIndexes = tableColumns.stream().mapToInt(c -> c.getModelIndex()).toArray();
 
-         DataSetViewerTableModel dataSetViewerTableModel = _dataSetViewerTable.getDataSetViewerTableModel();
+      _dataSetViewerTable.getValueFrequencyService().getFrequencies(columnModelIndexes, vf -> onValueFrequencies(vf, tableColumns));
+   }
 
-         for (ExtTableColumn tableColumn : DataSetViewerTablePanelUtil.getTableColumns(_dataSetViewerTable))
-         {
-            int columnModelIndex = tableColumn.getModelIndex();
+   private void onValueFrequencies(ValueFrequencies valueFrequencies, List<ExtTableColumn> tableColumns)
+   {
+      if(false == _selected)
+      {
+         return;
+      }
 
-            ValueListReader rdr = new ValueListReader(dataSetViewerTableModel.getRowCount(), ix -> dataSetViewerTableModel.getValueAt(ix, columnModelIndex));
-            HashMap<Object, Color> colorByDuplicateValue = DuplicatesColorer.getColorByDuplicateValueMap(rdr);
+      HashMap<Integer, HashMap<Object, Color>> duplicateValuesByColumnModelIndex = new HashMap<>();
+      List<String> tooManyValuesColumnNames = new ArrayList<>();
 
-            _duplicateValuesByColumnModelIndex.put(columnModelIndex, colorByDuplicateValue);
+      for (ExtTableColumn tableColumn : tableColumns)
+      {
+         int columnModelIndex = tableColumn.getModelIndex();
+
+         ColumnValueFrequencies columnFrequencies = valueFrequencies.getColumnFrequencies(columnModelIndex);
+         if(columnFrequencies.isTooManyValues())
+         {
+            tooManyValuesColumnNames.add(tableColumn.getColumnDisplayDefinition().getColumnName());
+            continue;
          }
+
+         HashMap<Object, Color> colorByDuplicateValue = DuplicatesColorer.getColorByDuplicateValueMap(columnFrequencies);
+         duplicateValuesByColumnModelIndex.put(columnModelIndex, colorByDuplicateValue);
       }
-      finally
+
+      _duplicateValuesByColumnModelIndex = duplicateValuesByColumnModelIndex;
+      _dataSetViewerTable.repaint();
+
+      if(false == tooManyValuesColumnNames.isEmpty() && false == _tooManyValuesReported)
       {
-         _dataSetViewerTable.repaint();
+         _tooManyValuesReported = true;
+         Main.getApplication().getMessageHandler().showWarningMessage(s_stringMgr.getString("DuplicateValuesInColumnsHandler.too.many.values", String.join(", ", tooManyValuesColumnNames)));
       }
    }
 
@@ -72,7 +127,13 @@ public class DuplicateValuesInColumnsHandler implements DuplicateHandler
          return null;
       }
 
+      HashMap<Object, Color> colorByDuplicateValue = _duplicateValuesByColumnModelIndex.get(columnModelIndex);
+
+      if(null == colorByDuplicateValue)
+      {
+         return null;
+      }
 
-      return _duplicateValuesByColumnModelIndex.get(columnModelIndex).get(value);
+      return colorByDuplicateValue.get(value);
    }
 }
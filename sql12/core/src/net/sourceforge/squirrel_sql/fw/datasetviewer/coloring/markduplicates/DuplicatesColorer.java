@@ -1,5 +1,6 @@
 package net.sourceforge.squirrel_sql.fw.datasetviewer.coloring.markduplicates;
 
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ColumnValueFrequencies;
 import net.sourceforge.squirrel_sql.fw.util.SquirrelConstants;
 
 import java.awt.Color;
@@ -52,4 +53,31 @@ public class DuplicatesColorer
       }
       return colorByDuplicateValue;
    }
+
+   /**
+    * Colors like {@link #getColorByDuplicateValueMap(ValueListReader)} but uses already counted values.
+    */
+   public static HashMap<Object, Color> getColorByDuplicateValueMap(ColumnValueFrequencies frequencies)
+   {
+      HashMap<Object, Color> colorByDuplicateValue = new HashMap<>();
+
+      int ix = 0;
+      for (int distinctIx = 0; distinctIx < frequencies.getDistinctCount(); distinctIx++)
+      {
+         if(1 == frequencies.getCount(distinctIx))
+         {
+            continue;
+         }
+
+         if(0 == (++ix) % 2)
+         {
+            colorByDuplicateValue.put(frequencies.getDistinctValue(distinctIx), SquirrelConstants.DUPLICATE_COLOR_DARKER);
+         }
+         else
+         {
+            colorByDuplicateValue.put(frequencies.getDistinctValue(distinctIx), SquirrelConstants.DUPLICATE_COLOR);
+         }
+      }
+      return colorByDuplicateValue;
+   }
 }
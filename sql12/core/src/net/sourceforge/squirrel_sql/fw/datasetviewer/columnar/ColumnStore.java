@@ -0,0 +1,126 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Storage of the values of one result column.
+ * Values are kept in fixed size chunks so that growing a column never copies more than the chunk index.
+ */
+abstract class ColumnStore
+{
+   static final int CHUNK_BITS = 12;
+   static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+   static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+   protected int _size;
+
+   /**
+    * @return true if the value can be stored without changing its class.
+    * Null values are always accepted.
+    */
+   abstract boolean accepts(Object value);
+
+   abstract void add(Object value);
+
+   abstract Object get(int ix);
+
+   abstract void set(int ix, Object value);
+
+   abstract void clear();
+
+   int size()
+   {
+      return _size;
+   }
+
+   /**
+    * Moves all following values, so removing a row costs O(size).
+    * To remove several rows use {@link #removeAll(BitSet)}, which moves them once.
+    */
+   void remove(int ix)
+   {
+      for (int i = ix; i < _size - 1; i++)
+      {
+         set(i, get(i + 1));
+      }
+      set(_size - 1, null);
+      --_size;
+   }
+
+   /**
+    * Removes the values at the indexes set in removedRows by moving each remaining value at most once.
+    */
+   void removeAll(BitSet removedRows)
+   {
+      int target = removedRows.nextSetBit(0);
+      if(0 > target || target >= _size)
+      {
+         return;
+      }
+
+      for (int i = target + 1; i < _size; i++)
+      {
+         if(false == removedRows.get(i))
+         {
+            set(target++, get(i));
+         }
+      }
+
+      for (int i = target; i < _size; i++)
+      {
+         set(i, null);
+      }
+      _size = target;
+   }
+
+   /**
+    * Returns a store that is able to hold all values of this store plus the given value.
+    */
+   ColumnStore promote(Object value)
+   {
+      ColumnStore ret = new ObjectColumnStore();
+      for (int i = 0; i < _size; i++)
+      {
+         ret.add(get(i));
+      }
+      return ret;
+   }
+
+   static ColumnStore createFor(Object value)
+   {
+      if(null == value)
+      {
+         return new NullColumnStore();
+      }
+
+      Class<?> clazz = value.getClass();
+      if(clazz == Integer.class)
+      {
+         return new IntColumnStore();
+      }
+      else if(clazz == Long.class)
+      {
+         return new LongColumnStore();
+      }
+      else if(clazz == Double.class)
+      {
+         return new DoubleColumnStore();
+      }
+      else if(clazz == String.class)
+      {
+         return new StringColumnStore();
+      }
+
+      return new ObjectColumnStore();
+   }
+
+   static <T> T[] ensureChunkCapacity(T[] chunks, int chunkIx)
+   {
+      if(chunkIx < chunks.length)
+      {
+         return chunks;
+      }
+      return Arrays.copyOf(chunks, Math.max(chunkIx + 1, chunks.length * 2));
+   }
+}
@@ -0,0 +1,190 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A list of result rows that stores its data column by column.
+ * <p>
+ * Integer, Long and Double values are kept in primitive chunks with null bitmaps,
+ * Strings are deduplicated through a per column dictionary. The store of a column
+ * is chosen by the first non null value. When a value of a different class arrives
+ * the column falls back to plain object storage, so any row content is accepted.
+ * <p>
+ * {@link #get(int)} creates a new array for each call. Thus changes
+ * to a returned row have no effect, use {@link #setValueAt(int, int, Object)} instead.
+ * Where only single cells are needed {@link #getValueAt(int, int)} avoids the row array.
+ */
+public class ColumnarRowList extends AbstractList<Object[]> implements RowList, RandomAccess
+{
+   private ColumnStore[] _columns = new ColumnStore[0];
+   private int _size;
+
+   public ColumnarRowList()
+   {
+   }
+
+   public ColumnarRowList(Collection<Object[]> rows)
+   {
+      addAll(rows);
+   }
+
+   public int getColumnCount()
+   {
+      return _columns.length;
+   }
+
+   @Override
+   public Object getValueAt(int row, int col)
+   {
+      checkRowIndex(row);
+      return _columns[col].get(row);
+   }
+
+   @Override
+   public void setValueAt(int row, int col, Object value)
+   {
+      checkRowIndex(row);
+      ensureAccepted(col, value);
+      _columns[col].set(row, value);
+   }
+
+   @Override
+   public Object[] get(int row)
+   {
+      checkRowIndex(row);
+
+      Object[] ret = new Object[_columns.length];
+      for (int i = 0; i < _columns.length; i++)
+      {
+         ret[i] = _columns[i].get(row);
+      }
+      return ret;
+   }
+
+   @Override
+   public boolean add(Object[] row)
+   {
+      ensureColumnCount(row.length);
+
+      for (int i = 0; i < _columns.length; i++)
+      {
+         Object value = i < row.length ? row[i] : null;
+         ensureAccepted(i, value);
+         _columns[i].add(value);
+      }
+
+      ++_size;
+      ++modCount;
+      return true;
+   }
+
+   @Override
+   public Object[] set(int row, Object[] values)
+   {
+      Object[] ret = get(row);
+
+      ensureColumnCount(values.length);
+      for (int i = 0; i < _columns.length; i++)
+      {
+         setValueAt(row, i, i < values.length ? values[i] : null);
+      }
+      return ret;
+   }
+
+   @Override
+   public Object[] remove(int row)
+   {
+      Object[] ret = get(row);
+
+      for (ColumnStore column : _columns)
+      {
+         column.remove(row);
+      }
+
+      --_size;
+      ++modCount;
+      return ret;
+   }
+
+   /**
+    * Shifts the values of each column once, while removing the rows one by one by {@link #remove(int)} shifts them once per row.
+    */
+   @Override
+   public void removeRows(int[] rows)
+   {
+      BitSet removedRows = new BitSet(_size);
+      for (int row : rows)
+      {
+         if(0 <= row && row < _size)
+         {
+            removedRows.set(row);
+         }
+      }
+
+      if(removedRows.isEmpty())
+      {
+         return;
+      }
+
+      for (ColumnStore column : _columns)
+      {
+         column.removeAll(removedRows);
+      }
+
+      _size -= removedRows.cardinality();
+      ++modCount;
+   }
+
+   @Override
+   public void clear()
+   {
+      _columns = new ColumnStore[0];
+      _size = 0;
+      ++modCount;
+   }
+
+   @Override
+   public int size()
+   {
+      return _size;
+   }
+
+   private void ensureColumnCount(int columnCount)
+   {
+      if(columnCount <= _columns.length)
+      {
+         return;
+      }
+
+      int oldColumnCount = _columns.length;
+      _columns = Arrays.copyOf(_columns, columnCount);
+      for (int i = oldColumnCount; i < columnCount; i++)
+      {
+         _columns[i] = new NullColumnStore();
+         for (int j = 0; j < _size; j++)
+         {
+            _columns[i].add(null);
+         }
+      }
+   }
+
+   private void ensureAccepted(int col, Object value)
+   {
+      if(false == _columns[col].accepts(value))
+      {
+         _columns[col] = _columns[col].promote(value);
+      }
+   }
+
+   private void checkRowIndex(int row)
+   {
+      if(row < 0 || row >= _size)
+      {
+         throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + _size);
+      }
+   }
+}
@@ -0,0 +1,43 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+/**
+ * Keeps Double values unboxed.
+ */
+class DoubleColumnStore extends PrimitiveColumnStore
+{
+   private double[][] _chunks = new double[0][];
+
+   @Override
+   boolean accepts(Object value)
+   {
+      return null == value || value.getClass() == Double.class;
+   }
+
+   @Override
+   protected void setPrimitive(int ix, Object value)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _chunks = ensureChunkCapacity(_chunks, chunkIx);
+      if(null == _chunks[chunkIx])
+      {
+         _chunks[chunkIx] = new double[CHUNK_SIZE];
+      }
+
+      if(null != value)
+      {
+         _chunks[chunkIx][ix & CHUNK_MASK] = ((Double) value).doubleValue();
+      }
+   }
+
+   @Override
+   protected Object getPrimitive(int ix)
+   {
+      return _chunks[ix >> CHUNK_BITS][ix & CHUNK_MASK];
+   }
+
+   @Override
+   protected void clearPrimitives()
+   {
+      _chunks = new double[0][];
+   }
+}
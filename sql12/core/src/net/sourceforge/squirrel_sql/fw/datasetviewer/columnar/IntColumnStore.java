@@ -0,0 +1,43 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+/**
+ * Keeps Integer values unboxed.
+ */
+class IntColumnStore extends PrimitiveColumnStore
+{
+   private int[][] _chunks = new int[0][];
+
+   @Override
+   boolean accepts(Object value)
+   {
+      return null == value || value.getClass() == Integer.class;
+   }
+
+   @Override
+   protected void setPrimitive(int ix, Object value)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _chunks = ensureChunkCapacity(_chunks, chunkIx);
+      if(null == _chunks[chunkIx])
+      {
+         _chunks[chunkIx] = new int[CHUNK_SIZE];
+      }
+
+      if(null != value)
+      {
+         _chunks[chunkIx][ix & CHUNK_MASK] = ((Integer) value).intValue();
+      }
+   }
+
+   @Override
+   protected Object getPrimitive(int ix)
+   {
+      return _chunks[ix >> CHUNK_BITS][ix & CHUNK_MASK];
+   }
+
+   @Override
+   protected void clearPrimitives()
+   {
+      _chunks = new int[0][];
+   }
+}
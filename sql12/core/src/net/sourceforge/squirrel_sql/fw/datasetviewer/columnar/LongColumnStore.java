@@ -0,0 +1,43 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+/**
+ * Keeps Long values unboxed.
+ */
+class LongColumnStore extends PrimitiveColumnStore
+{
+   private long[][] _chunks = new long[0][];
+
+   @Override
+   boolean accepts(Object value)
+   {
+      return null == value || value.getClass() == Long.class;
+   }
+
+   @Override
+   protected void setPrimitive(int ix, Object value)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _chunks = ensureChunkCapacity(_chunks, chunkIx);
+      if(null == _chunks[chunkIx])
+      {
+         _chunks[chunkIx] = new long[CHUNK_SIZE];
+      }
+
+      if(null != value)
+      {
+         _chunks[chunkIx][ix & CHUNK_MASK] = ((Long) value).longValue();
+      }
+   }
+
+   @Override
+   protected Object getPrimitive(int ix)
+   {
+      return _chunks[ix >> CHUNK_BITS][ix & CHUNK_MASK];
+   }
+
+   @Override
+   protected void clearPrimitives()
+   {
+      _chunks = new long[0][];
+   }
+}
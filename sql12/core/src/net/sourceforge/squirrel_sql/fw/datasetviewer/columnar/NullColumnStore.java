@@ -0,0 +1,62 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Used for columns that contained nothing but nulls so far.
+ * Is replaced by a typed store as soon as the first non null value arrives.
+ */
+class NullColumnStore extends ColumnStore
+{
+   @Override
+   boolean accepts(Object value)
+   {
+      return null == value;
+   }
+
+   @Override
+   void add(Object value)
+   {
+      ++_size;
+   }
+
+   @Override
+   Object get(int ix)
+   {
+      return null;
+   }
+
+   @Override
+   void set(int ix, Object value)
+   {
+   }
+
+   @Override
+   void remove(int ix)
+   {
+      --_size;
+   }
+
+   @Override
+   void removeAll(BitSet removedRows)
+   {
+      _size -= removedRows.get(0, _size).cardinality();
+   }
+
+   @Override
+   void clear()
+   {
+      _size = 0;
+   }
+
+   @Override
+   ColumnStore promote(Object value)
+   {
+      ColumnStore ret = createFor(value);
+      for (int i = 0; i < _size; i++)
+      {
+         ret.add(null);
+      }
+      return ret;
+   }
+}
@@ -0,0 +1,46 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+/**
+ * Fallback for all values that have no specialized store and for columns of mixed classes.
+ */
+class ObjectColumnStore extends ColumnStore
+{
+   private Object[][] _chunks = new Object[0][];
+
+   @Override
+   boolean accepts(Object value)
+   {
+      return true;
+   }
+
+   @Override
+   void add(Object value)
+   {
+      set(_size++, value);
+   }
+
+   @Override
+   Object get(int ix)
+   {
+      return _chunks[ix >> CHUNK_BITS][ix & CHUNK_MASK];
+   }
+
+   @Override
+   void set(int ix, Object value)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _chunks = ensureChunkCapacity(_chunks, chunkIx);
+      if(null == _chunks[chunkIx])
+      {
+         _chunks[chunkIx] = new Object[CHUNK_SIZE];
+      }
+      _chunks[chunkIx][ix & CHUNK_MASK] = value;
+   }
+
+   @Override
+   void clear()
+   {
+      _size = 0;
+      _chunks = new Object[0][];
+   }
+}
@@ -0,0 +1,79 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+/**
+ * Base class of the stores that keep their values in primitive arrays.
+ * As primitives can't be null nulls are tracked in a bitmap per chunk.
+ */
+abstract class PrimitiveColumnStore extends ColumnStore
+{
+   private long[][] _nullChunks = new long[0][];
+
+   protected boolean isNull(int ix)
+   {
+      long[] nullChunk = _nullChunks[ix >> CHUNK_BITS];
+      int bit = ix & CHUNK_MASK;
+      return 0 != (nullChunk[bit >> 6] & (1L << bit));
+   }
+
+   protected void setNull(int ix, boolean isNull)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _nullChunks = ensureChunkCapacity(_nullChunks, chunkIx);
+      if(null == _nullChunks[chunkIx])
+      {
+         _nullChunks[chunkIx] = new long[CHUNK_SIZE >> 6];
+      }
+
+      int bit = ix & CHUNK_MASK;
+      if(isNull)
+      {
+         _nullChunks[chunkIx][bit >> 6] |= (1L << bit);
+      }
+      else
+      {
+         _nullChunks[chunkIx][bit >> 6] &= ~(1L << bit);
+      }
+   }
+
+   @Override
+   void add(Object value)
+   {
+      int ix = _size++;
+      setNull(ix, null == value);
+      setPrimitive(ix, value);
+   }
+
+   @Override
+   Object get(int ix)
+   {
+      if(isNull(ix))
+      {
+         return null;
+      }
+      return getPrimitive(ix);
+   }
+
+   @Override
+   void set(int ix, Object value)
+   {
+      setNull(ix, null == value);
+      setPrimitive(ix, value);
+   }
+
+   @Override
+   void clear()
+   {
+      _size = 0;
+      _nullChunks = new long[0][];
+      clearPrimitives();
+   }
+
+   /**
+    * @param value The boxed value or null. On null implementations just make sure the chunk exists.
+    */
+   protected abstract void setPrimitive(int ix, Object value);
+
+   protected abstract Object getPrimitive(int ix);
+
+   protected abstract void clearPrimitives();
+}
@@ -0,0 +1,32 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.util.List;
+
+/**
+ * A list of result rows that does not necessarily keep its rows as arrays.
+ * Rows returned by {@link #get(int)} may be copies, cell changes must go through {@link #setValueAt(int, int, Object)}.
+ */
+public interface RowList extends List<Object[]>
+{
+   Object getValueAt(int row, int col);
+
+   void setValueAt(int row, int col, Object value);
+
+   /**
+    * Removes several rows at once. Implementations whose {@link #remove(int)} shifts all following rows
+    * override this to shift them only once.
+    *
+    * @param rows The indexes of the rows to remove in ascending order. Indexes beyond the list's size are ignored.
+    */
+   default void removeRows(int[] rows)
+   {
+      // From the end so that the indexes of the rows still to remove don't change.
+      for (int i = rows.length - 1; i >= 0; i--)
+      {
+         if(rows[i] < size())
+         {
+            remove(rows[i]);
+         }
+      }
+   }
+}
@@ -0,0 +1,28 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import net.sourceforge.squirrel_sql.client.Main;
+import net.sourceforge.squirrel_sql.client.preferences.SquirrelPreferences;
+import net.sourceforge.squirrel_sql.client.util.ApplicationFiles;
+
+public class RowListFactory
+{
+   /**
+    * @return A list that keeps its rows in a {@link ColumnarRowList}. If the user chose to spill results to disk
+    * the rows are moved to a {@link SpillingRowList} once they exceed the number of rows to keep in memory.
+    */
+   public static RowList createRowList()
+   {
+      if(null == Main.getApplication() || null == Main.getApplication().getSquirrelPreferences())
+      {
+         return new ColumnarRowList();
+      }
+
+      SquirrelPreferences prefs = Main.getApplication().getSquirrelPreferences();
+      if(false == prefs.isSpillResultsToDisk())
+      {
+         return new ColumnarRowList();
+      }
+
+      return new SpillOnThresholdRowList(prefs.getSpillResultsToDiskRowsInMemory(), new ApplicationFiles().getResultSpillDir());
+   }
+}
@@ -0,0 +1,197 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Stores serialized {@link ColumnarRowList} pages in segment files.
+ * <p>
+ * Pages are appended to the current segment. Once a segment reached {@link #SEGMENT_SIZE}
+ * it is closed for writing and mapped into memory, subsequent reads of its pages
+ * come from the mapped buffer and leave paging to the operating system.
+ * <p>
+ * Rewritten pages are appended again, the space of their old version is not reused.
+ */
+class RowPageFile implements Runnable
+{
+   private static final ILogger s_log = LoggerController.createLogger(RowPageFile.class);
+
+   static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+   private final File _dir;
+
+   private final ArrayList<File> _segmentFiles = new ArrayList<>();
+   private final ArrayList<MappedByteBuffer> _sealedSegments = new ArrayList<>();
+
+   private FileChannel _currentChannel;
+   private int _currentSegmentEnd;
+
+   RowPageFile(File dir)
+   {
+      _dir = dir;
+   }
+
+   /**
+    * @param bytes A page serialized by {@link #serialize(ColumnarRowList)}
+    * @return The position of the page that must be passed to {@link #readPage(long, int)}.
+    */
+   synchronized long writePage(byte[] bytes) throws IOException
+   {
+      if(null == _currentChannel || (0 < _currentSegmentEnd && _currentSegmentEnd + bytes.length > SEGMENT_SIZE))
+      {
+         startNewSegment();
+      }
+
+      int segmentIx = _segmentFiles.size() - 1;
+      int offset = _currentSegmentEnd;
+
+      ByteBuffer buf = ByteBuffer.wrap(bytes);
+      while (buf.hasRemaining())
+      {
+         _currentChannel.write(buf, offset + buf.position());
+      }
+      _currentSegmentEnd += bytes.length;
+
+      return ((long) segmentIx << 32) | offset;
+   }
+
+   synchronized ColumnarRowList readPage(long position, int length) throws IOException
+   {
+      int segmentIx = (int) (position >>> 32);
+      int offset = (int) position;
+
+      byte[] bytes = new byte[length];
+      if(segmentIx < _sealedSegments.size())
+      {
+         ByteBuffer buf = _sealedSegments.get(segmentIx).duplicate();
+         buf.position(offset);
+         buf.get(bytes);
+      }
+      else
+      {
+         ByteBuffer buf = ByteBuffer.wrap(bytes);
+         while (buf.hasRemaining())
+         {
+            if(0 > _currentChannel.read(buf, offset + buf.position()))
+            {
+               throw new IOException("Unexpected end of result spill segment " + _segmentFiles.get(segmentIx));
+            }
+         }
+      }
+
+      return deserialize(bytes);
+   }
+
+   private void startNewSegment() throws IOException
+   {
+      if(null != _currentChannel)
+      {
+         _sealedSegments.add(_currentChannel.map(FileChannel.MapMode.READ_ONLY, 0, _currentSegmentEnd));
+         _currentChannel.close();
+      }
+
+      _dir.mkdirs();
+      File segmentFile = File.createTempFile("resultrows", ".seg", _dir);
+      segmentFile.deleteOnExit();
+      _segmentFiles.add(segmentFile);
+
+      _currentChannel = FileChannel.open(segmentFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+      _currentSegmentEnd = 0;
+   }
+
+   /**
+    * @throws java.io.NotSerializableException when the page contains values that can't be serialized.
+    */
+   static byte[] serialize(ColumnarRowList page) throws IOException
+   {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+      try (ObjectOutputStream oos = new ObjectOutputStream(bos))
+      {
+         int rowCount = page.size();
+         int colCount = page.getColumnCount();
+         oos.writeInt(rowCount);
+         oos.writeInt(colCount);
+
+         for (int col = 0; col < colCount; col++)
+         {
+            for (int row = 0; row < rowCount; row++)
+            {
+               oos.writeObject(page.getValueAt(row, col));
+            }
+         }
+      }
+      return bos.toByteArray();
+   }
+
+   private static ColumnarRowList deserialize(byte[] bytes) throws IOException
+   {
+      try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+      {
+         int rowCount = ois.readInt();
+         int colCount = ois.readInt();
+
+         Object[][] rows = new Object[rowCount][colCount];
+         for (int col = 0; col < colCount; col++)
+         {
+            for (int row = 0; row < rowCount; row++)
+            {
+               rows[row][col] = ois.readObject();
+            }
+         }
+
+         ColumnarRowList ret = new ColumnarRowList();
+         for (Object[] row : rows)
+         {
+            ret.add(row);
+         }
+         return ret;
+      }
+      catch (ClassNotFoundException e)
+      {
+         throw new IOException(e);
+      }
+   }
+
+   /**
+    * Closes and deletes all segment files.
+    * Also called by the {@link java.lang.ref.Cleaner} of the owning list.
+    */
+   @Override
+   public synchronized void run()
+   {
+      try
+      {
+         if(null != _currentChannel)
+         {
+            _currentChannel.close();
+            _currentChannel = null;
+         }
+      }
+      catch (IOException e)
+      {
+         s_log.error("Failed to close result spill segment", e);
+      }
+
+      // Mapped segments can only be deleted on all platforms when their buffers have been garbage collected.
+      // If deletion fails here File.deleteOnExit() will do the job.
+      _sealedSegments.clear();
+      for (File segmentFile : _segmentFiles)
+      {
+         segmentFile.delete();
+      }
+      _segmentFiles.clear();
+      _currentSegmentEnd = 0;
+   }
+}
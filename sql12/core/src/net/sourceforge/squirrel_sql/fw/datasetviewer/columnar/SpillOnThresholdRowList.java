@@ -0,0 +1,99 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.io.File;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Keeps its rows in a {@link ColumnarRowList} until they exceed the number of rows allowed in memory.
+ * Then the rows are moved to a {@link SpillingRowList}. So results that fit into memory
+ * don't pay for paging and spill files.
+ */
+class SpillOnThresholdRowList extends AbstractList<Object[]> implements RowList, RandomAccess
+{
+   private final int _maxRowsInMemory;
+   private final File _spillDir;
+
+   private RowList _rows = new ColumnarRowList();
+   private boolean _spilling;
+
+   SpillOnThresholdRowList(int maxRowsInMemory, File spillDir)
+   {
+      _maxRowsInMemory = maxRowsInMemory;
+      _spillDir = spillDir;
+   }
+
+   @Override
+   public Object getValueAt(int row, int col)
+   {
+      return _rows.getValueAt(row, col);
+   }
+
+   @Override
+   public void setValueAt(int row, int col, Object value)
+   {
+      _rows.setValueAt(row, col, value);
+   }
+
+   @Override
+   public Object[] get(int row)
+   {
+      return _rows.get(row);
+   }
+
+   @Override
+   public Object[] set(int row, Object[] values)
+   {
+      return _rows.set(row, values);
+   }
+
+   @Override
+   public boolean add(Object[] row)
+   {
+      if(false == _spilling && _maxRowsInMemory <= _rows.size())
+      {
+         SpillingRowList spillingRows = new SpillingRowList(_maxRowsInMemory, _spillDir);
+         spillingRows.addAll(_rows);
+         _rows = spillingRows;
+         _spilling = true;
+      }
+
+      _rows.add(row);
+      ++modCount;
+      return true;
+   }
+
+   @Override
+   public Object[] remove(int row)
+   {
+      Object[] ret = _rows.remove(row);
+      ++modCount;
+      return ret;
+   }
+
+   @Override
+   public void removeRows(int[] rows)
+   {
+      _rows.removeRows(rows);
+      ++modCount;
+   }
+
+   @Override
+   public void clear()
+   {
+      if(_spilling)
+      {
+         ((SpillingRowList) _rows).close();
+      }
+
+      _rows = new ColumnarRowList();
+      _spilling = false;
+      ++modCount;
+   }
+
+   @Override
+   public int size()
+   {
+      return _rows.size();
+   }
+}
@@ -0,0 +1,306 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.lang.ref.Cleaner;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.RandomAccess;
+
+/**
+ * A {@link RowList} that keeps only a bounded window of rows on the heap.
+ * <p>
+ * Rows are grouped into pages of {@link #PAGE_SIZE} rows, each page is a {@link ColumnarRowList}.
+ * When more than the allowed number of pages are in memory the least recently used page is
+ * written to a {@link RowPageFile} below the spill directory and dropped from the heap.
+ * Accessing a spilled page reads it back and makes it the most recently used one.
+ * <p>
+ * Pages containing values that can't be serialized (e.g. Blob descriptors) stay in memory.
+ */
+public class SpillingRowList extends AbstractList<Object[]> implements RowList, RandomAccess
+{
+   private static final ILogger s_log = LoggerController.createLogger(SpillingRowList.class);
+
+   private static final Cleaner s_cleaner = Cleaner.create();
+
+   static final int PAGE_SIZE = ColumnStore.CHUNK_SIZE;
+
+   private final int _maxResidentPages;
+   private final RowPageFile _pageFile;
+   private final Cleaner.Cleanable _cleanable;
+
+   private final ArrayList<RowPage> _pages = new ArrayList<>();
+
+   /**
+    * First row index of each page. Invalid after removals until {@link #getPageIndex(int)} recomputes it.
+    */
+   private int[] _pageStarts = new int[0];
+   private boolean _pageStartsValid = true;
+
+   private final LinkedHashMap<RowPage, RowPage> _residentPages = new LinkedHashMap<>(16, 0.75f, true);
+
+   private int _size;
+
+   private boolean _notSerializableLogged;
+
+   /**
+    * @param maxRowsInMemory Number of rows to keep on the heap, at least two pages are kept.
+    * @param spillDir Directory to create the segment files in.
+    */
+   public SpillingRowList(int maxRowsInMemory, File spillDir)
+   {
+      _maxResidentPages = Math.max(2, maxRowsInMemory / PAGE_SIZE);
+      _pageFile = new RowPageFile(spillDir);
+      _cleanable = s_cleaner.register(this, _pageFile);
+   }
+
+   @Override
+   public synchronized Object getValueAt(int row, int col)
+   {
+      checkRowIndex(row);
+      int pageIx = getPageIndex(row);
+      return loadPage(pageIx).getValueAt(row - _pageStarts[pageIx], col);
+   }
+
+   @Override
+   public synchronized void setValueAt(int row, int col, Object value)
+   {
+      checkRowIndex(row);
+      int pageIx = getPageIndex(row);
+      loadPage(pageIx).setValueAt(row - _pageStarts[pageIx], col, value);
+      _pages.get(pageIx)._dirty = true;
+   }
+
+   @Override
+   public synchronized Object[] get(int row)
+   {
+      checkRowIndex(row);
+      int pageIx = getPageIndex(row);
+      return loadPage(pageIx).get(row - _pageStarts[pageIx]);
+   }
+
+   @Override
+   public synchronized Object[] set(int row, Object[] values)
+   {
+      checkRowIndex(row);
+      int pageIx = getPageIndex(row);
+      Object[] ret = loadPage(pageIx).set(row - _pageStarts[pageIx], values);
+      _pages.get(pageIx)._dirty = true;
+      return ret;
+   }
+
+   @Override
+   public synchronized boolean add(Object[] row)
+   {
+      if(_pages.isEmpty() || PAGE_SIZE <= _pages.get(_pages.size() - 1)._rowCount)
+      {
+         ensurePageStarts();
+         RowPage page = new RowPage();
+         page._rows = new ColumnarRowList();
+         _pages.add(page);
+
+         if(_pageStarts.length < _pages.size())
+         {
+            _pageStarts = Arrays.copyOf(_pageStarts, Math.max(16, _pageStarts.length * 2));
+         }
+         _pageStarts[_pages.size() - 1] = _size;
+
+         _residentPages.put(page, page);
+         evictPages(page);
+      }
+
+      int lastPageIx = _pages.size() - 1;
+      RowPage lastPage = _pages.get(lastPageIx);
+      loadPage(lastPageIx).add(row);
+      lastPage._rowCount++;
+      lastPage._dirty = true;
+
+      ++_size;
+      ++modCount;
+      return true;
+   }
+
+   @Override
+   public synchronized Object[] remove(int row)
+   {
+      checkRowIndex(row);
+      int pageIx = getPageIndex(row);
+      RowPage page = _pages.get(pageIx);
+
+      Object[] ret = loadPage(pageIx).remove(row - _pageStarts[pageIx]);
+      page._rowCount--;
+      page._dirty = true;
+
+      if(0 == page._rowCount && pageIx < _pages.size() - 1)
+      {
+         _residentPages.remove(page);
+         _pages.remove(pageIx);
+      }
+
+      _pageStartsValid = false;
+
+      --_size;
+      ++modCount;
+      return ret;
+   }
+
+   @Override
+   public synchronized void clear()
+   {
+      _pages.clear();
+      _residentPages.clear();
+      _pageStarts = new int[0];
+      _pageStartsValid = true;
+      _size = 0;
+      ++modCount;
+      _pageFile.run();
+   }
+
+   @Override
+   public synchronized int size()
+   {
+      return _size;
+   }
+
+   /**
+    * Deletes the segment files. The list must not be used afterwards.
+    * If not called the files are deleted when the list is garbage collected or the VM exits.
+    */
+   public void close()
+   {
+      _cleanable.clean();
+   }
+
+   private ColumnarRowList loadPage(int pageIx)
+   {
+      RowPage page = _pages.get(pageIx);
+
+      if(null == page._rows)
+      {
+         try
+         {
+            page._rows = _pageFile.readPage(page._filePosition, page._byteLength);
+         }
+         catch (IOException e)
+         {
+            throw new IllegalStateException("Failed to read result rows from spill file", e);
+         }
+         _residentPages.put(page, page);
+         evictPages(page);
+      }
+      else
+      {
+         // Touch for LRU order
+         _residentPages.get(page);
+      }
+
+      return page._rows;
+   }
+
+   private void evictPages(RowPage pageToKeep)
+   {
+      Iterator<RowPage> it = _residentPages.keySet().iterator();
+      int residentCount = _residentPages.size();
+
+      while (it.hasNext() && residentCount > _maxResidentPages)
+      {
+         RowPage page = it.next();
+
+         if(page == pageToKeep || page._pinned)
+         {
+            continue;
+         }
+
+         if(page._dirty && false == writePage(page))
+         {
+            continue;
+         }
+
+         page._rows = null;
+         it.remove();
+         --residentCount;
+      }
+   }
+
+   private boolean writePage(RowPage page)
+   {
+      try
+      {
+         byte[] bytes = RowPageFile.serialize(page._rows);
+         page._filePosition = _pageFile.writePage(bytes);
+         page._byteLength = bytes.length;
+         page._dirty = false;
+         return true;
+      }
+      catch (NotSerializableException e)
+      {
+         if(false == _notSerializableLogged)
+         {
+            s_log.warn("Result rows containing values of " + e.getMessage() + " can not be spilled to disk and will stay in memory.");
+            _notSerializableLogged = true;
+         }
+         page._pinned = true;
+         return false;
+      }
+      catch (IOException e)
+      {
+         throw new IllegalStateException("Failed to write result rows to spill file", e);
+      }
+   }
+
+   /**
+    * Only the last page may be empty, so page starts are distinct for all pages that contain the row.
+    */
+   private int getPageIndex(int row)
+   {
+      ensurePageStarts();
+
+      int ix = Arrays.binarySearch(_pageStarts, 0, _pages.size(), row);
+      if(0 > ix)
+      {
+         return -ix - 2;
+      }
+      return ix;
+   }
+
+   private void ensurePageStarts()
+   {
+      if(_pageStartsValid)
+      {
+         return;
+      }
+
+      int start = 0;
+      for (int i = 0; i < _pages.size(); i++)
+      {
+         _pageStarts[i] = start;
+         start += _pages.get(i)._rowCount;
+      }
+      _pageStartsValid = true;
+   }
+
+   private void checkRowIndex(int row)
+   {
+      if(row < 0 || row >= _size)
+      {
+         throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + _size);
+      }
+   }
+
+   private static class RowPage
+   {
+      ColumnarRowList _rows;
+      int _rowCount;
+      long _filePosition = -1;
+      int _byteLength;
+      boolean _dirty;
+      boolean _pinned;
+   }
+}
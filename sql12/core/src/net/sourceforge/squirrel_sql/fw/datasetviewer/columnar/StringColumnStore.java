@@ -0,0 +1,78 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.columnar;
+
+import java.util.HashMap;
+
+/**
+ * Stores String values and shares equal instances through a dictionary.
+ * Result columns often hold few distinct values (status codes, types, names),
+ * then each row only costs a reference instead of a String of its own.
+ * <p>
+ * The dictionary stops growing at {@link #MAX_DICTIONARY_SIZE} entries, strings above
+ * {@link #MAX_DICTIONARY_STRING_LENGTH} are never looked up as they rarely repeat.
+ */
+class StringColumnStore extends ColumnStore
+{
+   static final int MAX_DICTIONARY_SIZE = 1 << 16;
+   static final int MAX_DICTIONARY_STRING_LENGTH = 256;
+
+   private String[][] _chunks = new String[0][];
+   private HashMap<String, String> _dictionary = new HashMap<>();
+
+   @Override
+   boolean accepts(Object value)
+   {
+      return null == value || value.getClass() == String.class;
+   }
+
+   @Override
+   void add(Object value)
+   {
+      set(_size++, value);
+   }
+
+   @Override
+   Object get(int ix)
+   {
+      return _chunks[ix >> CHUNK_BITS][ix & CHUNK_MASK];
+   }
+
+   @Override
+   void set(int ix, Object value)
+   {
+      int chunkIx = ix >> CHUNK_BITS;
+      _chunks = ensureChunkCapacity(_chunks, chunkIx);
+      if(null == _chunks[chunkIx])
+      {
+         _chunks[chunkIx] = new String[CHUNK_SIZE];
+      }
+      _chunks[chunkIx][ix & CHUNK_MASK] = toDictionaryInstance((String) value);
+   }
+
+   private String toDictionaryInstance(String value)
+   {
+      if(null == value || value.length() > MAX_DICTIONARY_STRING_LENGTH)
+      {
+         return value;
+      }
+
+      String ret = _dictionary.get(value);
+      if(null != ret)
+      {
+         return ret;
+      }
+
+      if(_dictionary.size() < MAX_DICTIONARY_SIZE)
+      {
+         _dictionary.put(value, value);
+      }
+      return value;
+   }
+
+   @Override
+   void clear()
+   {
+      _size = 0;
+      _chunks = new String[0][];
+      _dictionary = new HashMap<>();
+   }
+}
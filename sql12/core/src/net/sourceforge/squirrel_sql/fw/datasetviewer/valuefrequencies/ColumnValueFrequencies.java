@@ -0,0 +1,122 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Exact number of occurrences of each distinct value of one column.
+ * Distinct values are numbered in the order of their first occurrence.
+ *
+ * Counting gives up when more than a maximum number of distinct values occur, see {@link #isTooManyValues()}.
+ * Approximate counts wouldn't help, marking duplicates needs to know each duplicate value.
+ *
+ * Instances handed out by {@link ValueFrequencyService} are never changed again
+ * and thus may be read by any thread.
+ */
+public class ColumnValueFrequencies
+{
+   private final int _maxDistinctCount;
+   private final HashMap<Object, Integer> _distinctIxByValue;
+   private final ArrayList<Object> _distinctValues;
+   private int[] _counts;
+   private boolean _tooManyValues;
+
+   public ColumnValueFrequencies()
+   {
+      this(Integer.MAX_VALUE);
+   }
+
+   ColumnValueFrequencies(int maxDistinctCount)
+   {
+      _maxDistinctCount = maxDistinctCount;
+      _distinctIxByValue = new HashMap<>();
+      _distinctValues = new ArrayList<>();
+      _counts = new int[16];
+   }
+
+   private ColumnValueFrequencies(ColumnValueFrequencies toCopy)
+   {
+      _maxDistinctCount = toCopy._maxDistinctCount;
+      _distinctIxByValue = new HashMap<>(toCopy._distinctIxByValue);
+      _distinctValues = new ArrayList<>(toCopy._distinctValues);
+      _counts = Arrays.copyOf(toCopy._counts, Math.max(16, toCopy._distinctValues.size()));
+      _tooManyValues = toCopy._tooManyValues;
+   }
+
+   ColumnValueFrequencies copy()
+   {
+      return new ColumnValueFrequencies(this);
+   }
+
+   public void add(Object value)
+   {
+      if(_tooManyValues)
+      {
+         return;
+      }
+
+      Integer distinctIx = _distinctIxByValue.get(value);
+
+      if(null == distinctIx)
+      {
+         if(_maxDistinctCount <= _distinctValues.size())
+         {
+            _tooManyValues = true;
+            _distinctIxByValue.clear();
+            _distinctValues.clear();
+            _counts = new int[0];
+            return;
+         }
+
+         distinctIx = _distinctValues.size();
+         _distinctIxByValue.put(value, distinctIx);
+         _distinctValues.add(value);
+
+         if(_counts.length == distinctIx)
+         {
+            _counts = Arrays.copyOf(_counts, 2 * _counts.length);
+         }
+      }
+
+      ++_counts[distinctIx];
+   }
+
+   /**
+    * @return true if counting was given up because the column has too many distinct values. Then no values are known.
+    */
+   public boolean isTooManyValues()
+   {
+      return _tooManyValues;
+   }
+
+   public int getDistinctCount()
+   {
+      return _distinctValues.size();
+   }
+
+   /**
+    * @param distinctIx Number of the distinct value in the order of first occurrence.
+    */
+   public Object getDistinctValue(int distinctIx)
+   {
+      return _distinctValues.get(distinctIx);
+   }
+
+   public int getCount(int distinctIx)
+   {
+      return _counts[distinctIx];
+   }
+
+   public int getCount(Object value)
+   {
+      Integer distinctIx = _distinctIxByValue.get(value);
+
+      if(null == distinctIx)
+      {
+         return 0;
+      }
+
+      return _counts[distinctIx];
+   }
+}
@@ -0,0 +1,62 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTableModel;
+
+/**
+ * The {@link ColumnValueFrequencies} of the requested columns of a {@link DataSetViewerTableModel}
+ * as they were when the model had a certain data version and row count.
+ */
+public class ValueFrequencies
+{
+   private final int _dataVersion;
+   private final int _rowCount;
+   private final ColumnValueFrequencies[] _columnFrequencies;
+
+   ValueFrequencies(int dataVersion, int rowCount, ColumnValueFrequencies[] columnFrequencies)
+   {
+      _dataVersion = dataVersion;
+      _rowCount = rowCount;
+      _columnFrequencies = columnFrequencies;
+   }
+
+   /**
+    * @param columnModelIndex Must not be {@link net.sourceforge.squirrel_sql.fw.datasetviewer.RowNumberTableColumn#ROW_NUMBER_MODEL_INDEX}
+    * @return null if the column's frequencies were not requested.
+    */
+   public ColumnValueFrequencies getColumnFrequencies(int columnModelIndex)
+   {
+      return _columnFrequencies[columnModelIndex];
+   }
+
+   public int getColumnCount()
+   {
+      return _columnFrequencies.length;
+   }
+
+   boolean containsColumns(int[] columnModelIndexes)
+   {
+      for (int columnModelIndex : columnModelIndexes)
+      {
+         if(columnModelIndex >= _columnFrequencies.length || null == _columnFrequencies[columnModelIndex])
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   int getDataVersion()
+   {
+      return _dataVersion;
+   }
+
+   int getRowCount()
+   {
+      return _rowCount;
+   }
+
+   boolean isUpToDate(DataSetViewerTableModel model)
+   {
+      return _dataVersion == model.getDataVersion() && _rowCount == model.getRowCount() && _columnFrequencies.length == model.getColumnCount();
+   }
+}
@@ -0,0 +1,292 @@
+package net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTableModel;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Computes the {@link ValueFrequencies} of the requested columns of a result table on a background thread
+ * and keeps them until the data of the table changes or {@link #dropFrequencies()} is called.
+ * When rows were only appended, e.g. by continue read, just the new rows are analyzed.
+ *
+ * To bound memory use, counting a column is given up when it has more distinct values
+ * than its share of {@link #MEMORY_BUDGET_FRACTION} of the heap allows, see {@link ColumnValueFrequencies#isTooManyValues()}.
+ *
+ * Used by Mark Duplicates and Show Distinct Values. Must be used on the event dispatch thread only.
+ */
+public class ValueFrequencyService
+{
+   private static final ILogger s_log = LoggerController.createLogger(ValueFrequencyService.class);
+
+   /**
+    * The table model is read while it may change on the event dispatch thread.
+    * So the worker regularly checks whether its result is still going to be valid.
+    */
+   private static final int DATA_VERSION_CHECK_INTERVAL = 4096;
+
+   /**
+    * Fraction of the maximum heap that the counts of one table may use.
+    */
+   private static final double MEMORY_BUDGET_FRACTION = 0.1;
+
+   /**
+    * Rough size of a distinct value's hash map entry, list slot, count and the value itself.
+    */
+   private static final int ESTIMATED_BYTES_PER_DISTINCT_VALUE = 120;
+
+   private static final ExecutorService s_executorService = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "Value Frequency Thread");
+      thread.setDaemon(true);
+      return thread;
+   });
+
+   private final DataSetViewerTableModel _model;
+
+   private ValueFrequencies _current;
+   private boolean _computing;
+   private List<WaitingConsumer> _waitingConsumers = new ArrayList<>();
+
+   public ValueFrequencyService(DataSetViewerTableModel model)
+   {
+      _model = model;
+      _model.addTableModelListener(e -> onModelChanged());
+   }
+
+   /**
+    * @param columnModelIndexes The columns to count values of.
+    * @param consumer Called on the event dispatch thread with frequencies of the current data of the table.
+    *                 Called immediately if they are already known.
+    */
+   public void getFrequencies(int[] columnModelIndexes, Consumer<ValueFrequencies> consumer)
+   {
+      if(null != _current && _current.isUpToDate(_model) && _current.containsColumns(columnModelIndexes))
+      {
+         consumer.accept(_current);
+         return;
+      }
+
+      _waitingConsumers.add(new WaitingConsumer(columnModelIndexes, consumer));
+
+      if(false == _computing)
+      {
+         startComputation();
+      }
+   }
+
+   /**
+    * Frees the counts when they are no longer displayed.
+    * Consumers still waiting for frequencies are called nevertheless.
+    */
+   public void dropFrequencies()
+   {
+      _current = null;
+   }
+
+   private void onModelChanged()
+   {
+      if(null != _current && (_current.getDataVersion() != _model.getDataVersion() || _current.getColumnCount() != _model.getColumnCount()))
+      {
+         _current = null;
+      }
+   }
+
+   private void startComputation()
+   {
+      _computing = true;
+
+      final int dataVersion = _model.getDataVersion();
+      final int rowCount = _model.getRowCount();
+      final int columnCount = _model.getColumnCount();
+
+      ValueFrequencies base = null;
+      if(null != _current && _current.getDataVersion() == dataVersion && _current.getColumnCount() == columnCount && _current.getRowCount() <= rowCount)
+      {
+         base = _current;
+      }
+
+      final boolean[] columnsToCount = new boolean[columnCount];
+      for (WaitingConsumer waitingConsumer : _waitingConsumers)
+      {
+         for (int columnModelIndex : waitingConsumer.getColumnModelIndexes())
+         {
+            if(0 <= columnModelIndex && columnModelIndex < columnCount)
+            {
+               columnsToCount[columnModelIndex] = true;
+            }
+         }
+      }
+
+      final ValueFrequencies finalBase = base;
+      s_executorService.execute(() -> computeInBackground(finalBase, dataVersion, rowCount, columnsToCount));
+   }
+
+   private void computeInBackground(ValueFrequencies base, int dataVersion, int rowCount, boolean[] columnsToCount)
+   {
+      ValueFrequencies result = null;
+      Throwable error = null;
+
+      try
+      {
+         long begin = System.currentTimeMillis();
+         result = compute(base, dataVersion, rowCount, columnsToCount);
+
+         if (null != result && s_log.isDebugEnabled())
+         {
+            s_log.debug("Computing value frequencies of " + rowCount + " rows took " + (System.currentTimeMillis() - begin) + " milliseconds");
+         }
+      }
+      catch (Throwable t)
+      {
+         // Concurrent changes of the table model may cause exceptions. Then we just compute again.
+         if(dataVersion == _model.getDataVersion())
+         {
+            error = t;
+         }
+      }
+
+      final ValueFrequencies finalResult = result;
+      final Throwable finalError = error;
+      SwingUtilities.invokeLater(() -> onComputed(finalResult, finalError));
+   }
+
+   /**
+    * @return null if the data of the model changed meanwhile.
+    */
+   private ValueFrequencies compute(ValueFrequencies base, int dataVersion, int rowCount, boolean[] columnsToCount)
+   {
+      ColumnValueFrequencies[] columnFrequencies = new ColumnValueFrequencies[columnsToCount.length];
+      int[] firstRows = new int[columnsToCount.length];
+
+      int countedColumns = 0;
+      for (int col = 0; col < columnsToCount.length; col++)
+      {
+         if(columnsToCount[col] || (null != base && null != base.getColumnFrequencies(col)))
+         {
+            ++countedColumns;
+         }
+      }
+      int maxDistinctCount = getMaxDistinctCountPerColumn(countedColumns);
+
+      for (int col = 0; col < columnsToCount.length; col++)
+      {
+         if(null != base && null != base.getColumnFrequencies(col))
+         {
+            // Columns counted before stay counted as long as the data doesn't change.
+            columnFrequencies[col] = base.getColumnFrequencies(col).copy();
+            firstRows[col] = base.getRowCount();
+         }
+         else if(columnsToCount[col])
+         {
+            columnFrequencies[col] = new ColumnValueFrequencies(maxDistinctCount);
+         }
+      }
+
+      for (int col = 0; col < columnFrequencies.length; col++)
+      {
+         if(null == columnFrequencies[col])
+         {
+            continue;
+         }
+
+         for (int row = firstRows[col]; row < rowCount && false == columnFrequencies[col].isTooManyValues(); row++)
+         {
+            if(0 == row % DATA_VERSION_CHECK_INTERVAL && dataVersion != _model.getDataVersion())
+            {
+               return null;
+            }
+
+            columnFrequencies[col].add(_model.getValueAt(row, col));
+         }
+      }
+
+      if(dataVersion != _model.getDataVersion())
+      {
+         return null;
+      }
+
+      return new ValueFrequencies(dataVersion, rowCount, columnFrequencies);
+   }
+
+   private static int getMaxDistinctCountPerColumn(int countedColumns)
+   {
+      long budget = (long) (Runtime.getRuntime().maxMemory() * MEMORY_BUDGET_FRACTION);
+      long maxDistinctCount = budget / ESTIMATED_BYTES_PER_DISTINCT_VALUE / Math.max(1, countedColumns);
+      return (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxDistinctCount));
+   }
+
+   private void onComputed(ValueFrequencies result, Throwable error)
+   {
+      _computing = false;
+
+      if(null != error)
+      {
+         s_log.error("Failed to compute value frequencies", error);
+         _waitingConsumers.clear();
+         return;
+      }
+
+      if(null == result || false == result.isUpToDate(_model))
+      {
+         // The data changed while we were computing.
+         if(false == _waitingConsumers.isEmpty())
+         {
+            startComputation();
+         }
+         return;
+      }
+
+      _current = result;
+
+      List<WaitingConsumer> stillWaiting = new ArrayList<>();
+      List<WaitingConsumer> served = new ArrayList<>();
+      for (WaitingConsumer waitingConsumer : _waitingConsumers)
+      {
+         if(result.containsColumns(waitingConsumer.getColumnModelIndexes()))
+         {
+            served.add(waitingConsumer);
+         }
+         else
+         {
+            // Requested while we were computing.
+            stillWaiting.add(waitingConsumer);
+         }
+      }
+      _waitingConsumers = stillWaiting;
+
+      served.forEach(wc -> wc.getConsumer().accept(result));
+
+      if(false == _waitingConsumers.isEmpty() && false == _computing)
+      {
+         startComputation();
+      }
+   }
+
+   private static class WaitingConsumer
+   {
+      private final int[] _columnModelIndexes;
+      private final Consumer<ValueFrequencies> _consumer;
+
+      private WaitingConsumer(int[] columnModelIndexes, Consumer<ValueFrequencies> consumer)
+      {
+         _columnModelIndexes = columnModelIndexes;
+         _consumer = consumer;
+      }
+
+      int[] getColumnModelIndexes()
+      {
+         return _columnModelIndexes;
+      }
+
+      Consumer<ValueFrequencies> getConsumer()
+      {
+         return _consumer;
+      }
+   }
+}
@@ -995,4 +995,13 @@ public abstract class CommonHibernateDialect implements HibernateDialect, String
 	{
 		return getTypeName(javaSqlTypesConst, length, precision, scale, null);
 	}
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return null;
+	}
 }
@@ -1275,4 +1275,13 @@ public class DB2DialectExt extends CommonHibernateDialect implements HibernateDi
 	}
 
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getOffsetFetchPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -3121,4 +3121,32 @@ public class DialectUtils implements StringTemplateConstants
 		}
 		return new String(hexChars);
 	}
+
+	/**
+	 * Pages a select by the LIMIT/OFFSET clause, e.g. for PostgreSQL, MySQL, H2 and SQLite.
+	 * 
+	 * @see HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	public static String getLimitOffsetPagedSelectSQL(String select, long offset, int maxRows)
+	{
+		final StringBuilder sql = new StringBuilder(select);
+		sql.append(" LIMIT ").append(maxRows);
+		if (0 < offset)
+		{
+			sql.append(" OFFSET ").append(offset);
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * Pages a select by the SQL:2008 OFFSET/FETCH clause, e.g. for Oracle 12c, DB2, Derby and SQL Server 2012.
+	 * 
+	 * @see HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	public static String getOffsetFetchPagedSelectSQL(String select, long offset, int maxRows)
+	{
+		final StringBuilder sql = new StringBuilder(select);
+		sql.append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(maxRows).append(" ROWS ONLY");
+		return sql.toString();
+	}
 }
@@ -1060,4 +1060,14 @@ public class FirebirdDialectExt extends CommonHibernateDialect implements Hibern
 		return false;
 	}
 
+	/**
+	 * Pages by the ROWS clause, which counts rows starting at 1.
+	 * 
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return select + " ROWS " + (offset + 1) + " TO " + (offset + maxRows);
+	}
 }
@@ -1072,4 +1072,13 @@ public class H2DialectExt extends CommonHibernateDialect implements HibernateDia
 		return 9;
 	}
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -1054,4 +1054,13 @@ public class HSQLDialectExt extends CommonHibernateDialect implements HibernateD
 		return 9;
 	}
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+	}
 }
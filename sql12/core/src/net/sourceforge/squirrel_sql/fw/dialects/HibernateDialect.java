@@ -1260,4 +1260,21 @@ public interface HibernateDialect extends StringTemplateConstants {
 	 *         update or delete statement.
 	 */
 	String getBinaryLiteralString(byte[] binaryData);
+
+	/**
+	 * Returns the specified select restricted to maxRows rows that follow the first offset rows of its result,
+	 * using the dialect's LIMIT/OFFSET, OFFSET/FETCH or similar clause. Used to read a table's contents page by page.
+	 * 
+	 * @param select
+	 *           a select statement without a row limiting clause
+	 * @param hasOrderBy
+	 *           true if select ends with an order by clause. Some dialects only page ordered results.
+	 * @param offset
+	 *           the number of rows to skip
+	 * @param maxRows
+	 *           the maximum number of rows to return
+	 * @return the paged select or null if this dialect does not know how to page a select. Then the caller
+	 *         needs to limit the result by Statement.setMaxRows().
+	 */
+	String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows);
 }
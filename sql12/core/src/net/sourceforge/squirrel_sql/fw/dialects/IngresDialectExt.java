@@ -1037,4 +1037,13 @@ public class IngresDialectExt extends CommonHibernateDialect implements Hibernat
 		return true;
 	}
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getOffsetFetchPagedSelectSQL(select, offset, maxRows);
+	}
 }
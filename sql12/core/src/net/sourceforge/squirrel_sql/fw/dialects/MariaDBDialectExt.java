@@ -32,4 +32,10 @@ public class MariaDBDialectExt extends CommonHibernateDialect // Could make sens
    {
       return DialectType.MARIADB;
    }
+
+   @Override
+   public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+   {
+      return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+   }
 }
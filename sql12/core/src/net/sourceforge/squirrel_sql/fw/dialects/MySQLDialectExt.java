@@ -1186,4 +1186,13 @@ public class MySQLDialectExt extends CommonHibernateDialect implements Hibernate
 		return "x" + DialectUtils.toHexString(binaryData);
 	}
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -757,4 +757,13 @@ public class NetezzaDialextExt extends CommonHibernateDialect
 			+ " RESTRICT";
 	}
 
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -1208,4 +1208,13 @@ public class OracleDialectExt extends CommonHibernateDialect implements Hibernat
 	}
 	
 	
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getOffsetFetchPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -1288,4 +1288,13 @@ public class PostgreSQLDialectExt extends CommonHibernateDialect implements Hibe
 		return super.getJavaTypeForNativeType(nativeColumnTypeName);
 	}
 	
+
+	/**
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+	}
 }
@@ -558,5 +558,19 @@ public class SQLServerDialectExt extends SybaseDialectExt implements HibernateDi
 	public boolean supportsSubSecondTimestamps() {
 		return false;
 	}
-	
+
+	/**
+	 * SQL Server 2012 and later page by OFFSET/FETCH, which needs an order by clause.
+	 * 
+	 * @see net.sourceforge.squirrel_sql.fw.dialects.HibernateDialect#getPagedSelectSQL(String, boolean, long, int)
+	 */
+	@Override
+	public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+	{
+		if (hasOrderBy)
+		{
+			return DialectUtils.getOffsetFetchPagedSelectSQL(select, offset, maxRows);
+		}
+		return DialectUtils.getOffsetFetchPagedSelectSQL(select + " ORDER BY (SELECT NULL)", offset, maxRows);
+	}
 }
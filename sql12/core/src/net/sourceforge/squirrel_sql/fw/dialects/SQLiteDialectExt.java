@@ -32,4 +32,10 @@ public class SQLiteDialectExt extends CommonHibernateDialect
    {
       return DialectType.SQLLITE;
    }
+
+   @Override
+   public String getPagedSelectSQL(String select, boolean hasOrderBy, long offset, int maxRows)
+   {
+      return DialectUtils.getLimitOffsetPagedSelectSQL(select, offset, maxRows);
+   }
 }
@@ -22,7 +22,11 @@ import net.sourceforge.squirrel_sql.fw.sql.ProgressAbortCallback;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.text.NumberFormat;
 import java.util.Iterator;
@@ -132,9 +136,33 @@ public abstract class AbstractDataExportFileWriter implements IDataExportWriter
       finally
       {
          exportData.close();
+         releaseResources();
       }
    }
 
+   /**
+    * Callback, after the export finished or failed.
+    */
+   protected void releaseResources()
+   {
+      // Can be overridden.
+   }
+
+   /**
+    * @return A stream to the target file that compresses if the user chose so, see {@link TableExportPreferences#isCompressGzip()}.
+    */
+   protected OutputStream createFileOutputStream(File file) throws IOException
+   {
+      OutputStream ret = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+
+      if (ExportFileWriter.isGzipCompressed(getPrefs()))
+      {
+         ret = new ParallelGzipOutputStream(ret);
+      }
+
+      return ret;
+   }
+
 
    /**
     * Callback before processing the first row.
@@ -0,0 +1,941 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The Apache Parquet files written by {@link DataExportColumnarWriter} and read by {@link ColumnarFileReader}.
+ * See https://parquet.apache.org/docs/file-format/ for the format.
+ * <p>
+ * The files use the subset of Parquet that analytics tools read without exception:
+ * <ul>
+ *    <li>A flat schema of optional columns, see {@link ColumnType} for the physical and logical types.</li>
+ *    <li>One row group per {@link #ROW_GROUP_SIZE} rows, one version 1 data page per column chunk.</li>
+ *    <li>Plain encoded values, RLE encoded definition levels, GZIP compressed pages.</li>
+ * </ul>
+ * The {@link java.sql.Types} of the exported columns are kept in the key/value metadata {@link #KEY_SQL_TYPES}.
+ * <p>
+ * The Parquet metadata is Thrift compact encoded, see {@link ThriftCompactWriter} and {@link ThriftCompactReader}.
+ * The field ids used below are those of Parquet's parquet.thrift.
+ */
+public final class ColumnarFileFormat
+{
+   static final byte[] MAGIC = {'P', 'A', 'R', '1'};
+
+   /**
+    * Rows per row group. A row group is held in memory completely by both writer and reader.
+    */
+   static final int ROW_GROUP_SIZE = 65536;
+
+   static final String KEY_SQL_TYPES = "squirrel.sqlTypes";
+   static final String KEY_HAS_COLUMN_NAMES = "squirrel.hasColumnNames";
+   static final String CREATED_BY = "SQuirreL SQL Client";
+
+   // Type
+   static final int PHYSICAL_BOOLEAN = 0;
+   static final int PHYSICAL_INT32 = 1;
+   static final int PHYSICAL_INT64 = 2;
+   static final int PHYSICAL_FLOAT = 4;
+   static final int PHYSICAL_DOUBLE = 5;
+   static final int PHYSICAL_BYTE_ARRAY = 6;
+
+   // ConvertedType
+   private static final int CONVERTED_UTF8 = 0;
+   private static final int CONVERTED_DECIMAL = 5;
+   private static final int CONVERTED_DATE = 6;
+   private static final int CONVERTED_TIME_MILLIS = 7;
+   private static final int CONVERTED_TIMESTAMP_MILLIS = 9;
+   private static final int CONVERTED_TIMESTAMP_MICROS = 10;
+   private static final int CONVERTED_INT_8 = 15;
+   private static final int CONVERTED_INT_16 = 16;
+
+   // FieldRepetitionType
+   private static final int REPETITION_REQUIRED = 0;
+   private static final int REPETITION_OPTIONAL = 1;
+
+   // Encoding
+   static final int ENCODING_PLAIN = 0;
+   static final int ENCODING_RLE = 3;
+
+   // CompressionCodec
+   static final int CODEC_UNCOMPRESSED = 0;
+   static final int CODEC_GZIP = 2;
+
+   // PageType
+   static final int PAGE_TYPE_DATA = 0;
+   static final int PAGE_TYPE_DICTIONARY = 2;
+
+   /**
+    * The column types written, each with its Parquet physical type and logical type annotation.
+    * Dates, times and timestamps are local, that is not adjusted to UTC, like the JDBC values.
+    */
+   enum ColumnType
+   {
+      BOOLEAN(PHYSICAL_BOOLEAN, Types.BOOLEAN),
+      INT8(PHYSICAL_INT32, Types.TINYINT),
+      INT16(PHYSICAL_INT32, Types.SMALLINT),
+      INT32(PHYSICAL_INT32, Types.INTEGER),
+      INT64(PHYSICAL_INT64, Types.BIGINT),
+      FLOAT(PHYSICAL_FLOAT, Types.REAL),
+      DOUBLE(PHYSICAL_DOUBLE, Types.DOUBLE),
+      DECIMAL(PHYSICAL_BYTE_ARRAY, Types.DECIMAL),
+      DATE(PHYSICAL_INT32, Types.DATE),
+      TIME(PHYSICAL_INT32, Types.TIME),
+      TIMESTAMP(PHYSICAL_INT64, Types.TIMESTAMP),
+      STRING(PHYSICAL_BYTE_ARRAY, Types.VARCHAR);
+
+      private final int _physicalType;
+      private final int _sqlType;
+
+      ColumnType(int physicalType, int sqlType)
+      {
+         _physicalType = physicalType;
+         _sqlType = sqlType;
+      }
+
+      /**
+       * @return The {@link java.sql.Types} to assume when a file doesn't tell the exported ones.
+       */
+      int getSqlType()
+      {
+         return _sqlType;
+      }
+   }
+
+   /**
+    * A column of the file's schema.
+    */
+   static class Column
+   {
+      private final String _name;
+      private final ColumnType _type;
+      private final int _physicalType;
+      private final boolean _optional;
+      private final int _scale;
+      private int _precision;
+      private final long _unitsPerSecond;
+      private final boolean _adjustedToUtc;
+
+      /**
+       * A column to write.
+       */
+      Column(String name, ColumnType type, int precision, int scale)
+      {
+         this(name, type, type._physicalType, true, precision, scale, ColumnType.TIME == type ? 1000 : 1000000, false);
+      }
+
+      private Column(String name, ColumnType type, int physicalType, boolean optional, int precision, int scale, long unitsPerSecond, boolean adjustedToUtc)
+      {
+         _name = name;
+         _type = type;
+         _physicalType = physicalType;
+         _optional = optional;
+         _precision = precision;
+         _scale = scale;
+         _unitsPerSecond = unitsPerSecond;
+         _adjustedToUtc = adjustedToUtc;
+      }
+
+      String getName()
+      {
+         return _name;
+      }
+
+      ColumnType getType()
+      {
+         return _type;
+      }
+
+      int getPhysicalType()
+      {
+         return _physicalType;
+      }
+   }
+
+   private ColumnarFileFormat()
+   {
+   }
+
+   /**
+    * @return true if the value is stored with its type. Other values must be converted to String before they are encoded.
+    */
+   static boolean isTyped(Object value)
+   {
+      return ColumnType.STRING != getValueType(value);
+   }
+
+   private static ColumnType getValueType(Object value)
+   {
+      if (value instanceof Byte)
+      {
+         return ColumnType.INT8;
+      }
+      else if (value instanceof Short)
+      {
+         return ColumnType.INT16;
+      }
+      else if (value instanceof Integer)
+      {
+         return ColumnType.INT32;
+      }
+      else if (value instanceof Long)
+      {
+         return ColumnType.INT64;
+      }
+      else if (value instanceof Float)
+      {
+         return ColumnType.FLOAT;
+      }
+      else if (value instanceof Double)
+      {
+         return ColumnType.DOUBLE;
+      }
+      else if (value instanceof BigDecimal || value instanceof BigInteger)
+      {
+         return ColumnType.DECIMAL;
+      }
+      else if (value instanceof Boolean)
+      {
+         return ColumnType.BOOLEAN;
+      }
+      else if (value instanceof java.sql.Date)
+      {
+         return ColumnType.DATE;
+      }
+      else if (value instanceof Time)
+      {
+         return ColumnType.TIME;
+      }
+      else if (value instanceof Date)
+      {
+         return ColumnType.TIMESTAMP;
+      }
+      else
+      {
+         return ColumnType.STRING;
+      }
+   }
+
+   private static ColumnType getColumnType(int sqlType)
+   {
+      switch (sqlType)
+      {
+         case Types.BIT:
+         case Types.BOOLEAN:
+            return ColumnType.BOOLEAN;
+         case Types.TINYINT:
+            return ColumnType.INT8;
+         case Types.SMALLINT:
+            return ColumnType.INT16;
+         case Types.INTEGER:
+            return ColumnType.INT32;
+         case Types.BIGINT:
+            return ColumnType.INT64;
+         case Types.REAL:
+            return ColumnType.FLOAT;
+         case Types.FLOAT:
+         case Types.DOUBLE:
+            return ColumnType.DOUBLE;
+         case Types.DECIMAL:
+         case Types.NUMERIC:
+            return ColumnType.DECIMAL;
+         case Types.DATE:
+            return ColumnType.DATE;
+         case Types.TIME:
+            return ColumnType.TIME;
+         case Types.TIMESTAMP:
+            return ColumnType.TIMESTAMP;
+         default:
+            return ColumnType.STRING;
+      }
+   }
+
+   /**
+    * Chooses the type of a column to write by the Java types of its first values.
+    * JDBC drivers don't always deliver the Java type that matches the JDBC type, e.g. unsigned integers come as the next larger type.
+    * The JDBC type is used when all first values are null.
+    * <p>
+    * Decimals need the precision and scale of the JDBC column. Without them, e.g. for Oracle's NUMBER, decimals are written as strings.
+    */
+   static Column createColumn(String name, int sqlType, int precision, int scale, Object[] firstValues, int count)
+   {
+      ColumnType type = null;
+      for (int i = 0; i < count; i++)
+      {
+         if (null != firstValues[i])
+         {
+            type = null == type ? getValueType(firstValues[i]) : widen(type, getValueType(firstValues[i]));
+         }
+      }
+
+      if (null == type)
+      {
+         type = getColumnType(sqlType);
+      }
+
+      if (ColumnType.DECIMAL == type && (0 >= precision || 0 > scale || scale > precision))
+      {
+         type = ColumnType.STRING;
+      }
+
+      Column ret = new Column(name, type, precision, scale);
+
+      for (int i = 0; i < count; i++)
+      {
+         if (false == accepts(ret, firstValues[i]))
+         {
+            return new Column(name, ColumnType.STRING, 0, 0);
+         }
+      }
+      return ret;
+   }
+
+   private static ColumnType widen(ColumnType type1, ColumnType type2)
+   {
+      if (type1 == type2)
+      {
+         return type1;
+      }
+      else if (isIntegral(type1) && isIntegral(type2))
+      {
+         return type1.ordinal() > type2.ordinal() ? type1 : type2;
+      }
+      else if ((isIntegral(type1) || ColumnType.DECIMAL == type1) && (isIntegral(type2) || ColumnType.DECIMAL == type2))
+      {
+         return ColumnType.DECIMAL;
+      }
+      else if ((ColumnType.FLOAT == type1 || ColumnType.DOUBLE == type1) && (ColumnType.FLOAT == type2 || ColumnType.DOUBLE == type2))
+      {
+         return ColumnType.DOUBLE;
+      }
+      else if ((ColumnType.DATE == type1 || ColumnType.TIMESTAMP == type1) && (ColumnType.DATE == type2 || ColumnType.TIMESTAMP == type2))
+      {
+         return ColumnType.TIMESTAMP;
+      }
+      return ColumnType.STRING;
+   }
+
+   private static boolean isIntegral(ColumnType type)
+   {
+      return ColumnType.INT8 == type || ColumnType.INT16 == type || ColumnType.INT32 == type || ColumnType.INT64 == type;
+   }
+
+   /**
+    * @return true if the value can be written to the column without loss.
+    */
+   static boolean accepts(Column column, Object value)
+   {
+      if (null == value)
+      {
+         return true;
+      }
+
+      switch (column._type)
+      {
+         case BOOLEAN:
+            return value instanceof Boolean;
+         case INT8:
+            return isIntegral(getValueType(value)) && Byte.MIN_VALUE <= ((Number) value).longValue() && ((Number) value).longValue() <= Byte.MAX_VALUE;
+         case INT16:
+            return isIntegral(getValueType(value)) && Short.MIN_VALUE <= ((Number) value).longValue() && ((Number) value).longValue() <= Short.MAX_VALUE;
+         case INT32:
+            return isIntegral(getValueType(value)) && Integer.MIN_VALUE <= ((Number) value).longValue() && ((Number) value).longValue() <= Integer.MAX_VALUE;
+         case INT64:
+            return isIntegral(getValueType(value));
+         case FLOAT:
+            return value instanceof Float;
+         case DOUBLE:
+            return value instanceof Double || value instanceof Float;
+         case DECIMAL:
+            if (false == isIntegral(getValueType(value)) && ColumnType.DECIMAL != getValueType(value))
+            {
+               return false;
+            }
+            BigDecimal decimal = toBigDecimal(value);
+            return decimal.scale() <= column._scale || decimal.stripTrailingZeros().scale() <= column._scale;
+         case DATE:
+         case TIME:
+         case TIMESTAMP:
+            return value instanceof Date;
+         default:
+            return true;
+      }
+   }
+
+   private static BigDecimal toBigDecimal(Object value)
+   {
+      if (value instanceof BigDecimal)
+      {
+         return (BigDecimal) value;
+      }
+      else if (value instanceof BigInteger)
+      {
+         return new BigDecimal((BigInteger) value);
+      }
+      return BigDecimal.valueOf(((Number) value).longValue());
+   }
+
+   static void writeSchemaElement(ThriftCompactWriter writer, Column column)
+   {
+      writer.structBegin();
+      writer.fieldI32(1, column._physicalType);
+      writer.fieldI32(3, REPETITION_OPTIONAL);
+      writer.fieldString(4, column._name);
+
+      switch (column._type)
+      {
+         case INT8:
+            writer.fieldI32(6, CONVERTED_INT_8);
+            writeIntLogicalType(writer, 8);
+            break;
+         case INT16:
+            writer.fieldI32(6, CONVERTED_INT_16);
+            writeIntLogicalType(writer, 16);
+            break;
+         case DECIMAL:
+            writer.fieldI32(6, CONVERTED_DECIMAL);
+            writer.fieldI32(7, column._scale);
+            writer.fieldI32(8, column._precision);
+            writer.fieldStructBegin(10);
+            writer.fieldStructBegin(5);
+            writer.fieldI32(1, column._scale);
+            writer.fieldI32(2, column._precision);
+            writer.structEnd();
+            writer.structEnd();
+            break;
+         case DATE:
+            writer.fieldI32(6, CONVERTED_DATE);
+            writer.fieldStructBegin(10);
+            writer.fieldEmptyStruct(6);
+            writer.structEnd();
+            break;
+         case TIME:
+         case TIMESTAMP:
+            // No converted type, TIME_MILLIS and TIMESTAMP_MICROS would mean adjusted to UTC.
+            writer.fieldStructBegin(10);
+            writer.fieldStructBegin(ColumnType.TIME == column._type ? 7 : 8);
+            writer.fieldBool(1, false);
+            writer.fieldStructBegin(2);
+            writer.fieldEmptyStruct(ColumnType.TIME == column._type ? 1 : 2);
+            writer.structEnd();
+            writer.structEnd();
+            writer.structEnd();
+            break;
+         case STRING:
+            writer.fieldI32(6, CONVERTED_UTF8);
+            writer.fieldStructBegin(10);
+            writer.fieldEmptyStruct(1);
+            writer.structEnd();
+            break;
+         default:
+            // Physical type only.
+      }
+
+      writer.structEnd();
+   }
+
+   private static void writeIntLogicalType(ThriftCompactWriter writer, int bitWidth)
+   {
+      writer.fieldStructBegin(10);
+      writer.fieldStructBegin(10);
+      writer.fieldByte(1, bitWidth);
+      writer.fieldBool(2, true);
+      writer.structEnd();
+      writer.structEnd();
+   }
+
+   /**
+    * @param schemaElement A SchemaElement struct of the file's footer.
+    */
+   static Column readColumn(ThriftCompactReader.Struct schemaElement) throws IOException
+   {
+      String name = schemaElement.getString(4);
+      int physicalType = schemaElement.getInt(1, -1);
+      int repetition = schemaElement.getInt(3, REPETITION_OPTIONAL);
+      int convertedType = schemaElement.getInt(6, -1);
+      int scale = schemaElement.getInt(7, 0);
+      int precision = schemaElement.getInt(8, 0);
+
+      if (schemaElement.has(5) || (REPETITION_REQUIRED != repetition && REPETITION_OPTIONAL != repetition))
+      {
+         throw new IOException("Unsupported Parquet file: Column " + name + " is nested or repeated");
+      }
+
+      ThriftCompactReader.Struct logicalType = schemaElement.getStruct(10);
+      ThriftCompactReader.Struct intType = null == logicalType ? null : logicalType.getStruct(10);
+      ThriftCompactReader.Struct decimalType = null == logicalType ? null : logicalType.getStruct(5);
+      ThriftCompactReader.Struct timeType = null == logicalType ? null : logicalType.getStruct(7);
+      ThriftCompactReader.Struct timestampType = null == logicalType ? null : logicalType.getStruct(8);
+
+      if (null != decimalType)
+      {
+         scale = decimalType.getInt(1, scale);
+         precision = decimalType.getInt(2, precision);
+      }
+
+      ColumnType type;
+      long unitsPerSecond = 1;
+      boolean adjustedToUtc = false;
+
+      if (null != decimalType || CONVERTED_DECIMAL == convertedType)
+      {
+         type = ColumnType.DECIMAL;
+      }
+      else if (null != intType && false == intType.getBoolean(2, true))
+      {
+         throw new IOException("Unsupported Parquet file: Column " + name + " is unsigned");
+      }
+      else if (null != timeType || CONVERTED_TIME_MILLIS == convertedType)
+      {
+         type = ColumnType.TIME;
+         unitsPerSecond = null == timeType ? 1000 : getUnitsPerSecond(timeType.getStruct(2));
+         adjustedToUtc = null == timeType || timeType.getBoolean(1, true);
+      }
+      else if (null != timestampType || CONVERTED_TIMESTAMP_MILLIS == convertedType || CONVERTED_TIMESTAMP_MICROS == convertedType)
+      {
+         type = ColumnType.TIMESTAMP;
+         unitsPerSecond = null != timestampType ? getUnitsPerSecond(timestampType.getStruct(2)) : CONVERTED_TIMESTAMP_MILLIS == convertedType ? 1000 : 1000000;
+         adjustedToUtc = null == timestampType || timestampType.getBoolean(1, true);
+      }
+      else if ((null != logicalType && logicalType.has(6)) || CONVERTED_DATE == convertedType)
+      {
+         type = ColumnType.DATE;
+      }
+      else if ((null != intType && 8 == intType.getInt(1, 0)) || CONVERTED_INT_8 == convertedType)
+      {
+         type = ColumnType.INT8;
+      }
+      else if ((null != intType && 16 == intType.getInt(1, 0)) || CONVERTED_INT_16 == convertedType)
+      {
+         type = ColumnType.INT16;
+      }
+      else
+      {
+         type = getUnannotatedType(physicalType, name);
+      }
+
+      if (false == isReadable(type, physicalType))
+      {
+         throw new IOException("Unsupported Parquet file: Column " + name + " has physical type " + physicalType + " for " + type);
+      }
+
+      return new Column(name, type, physicalType, REPETITION_OPTIONAL == repetition, precision, scale, unitsPerSecond, adjustedToUtc);
+   }
+
+   private static long getUnitsPerSecond(ThriftCompactReader.Struct timeUnit) throws IOException
+   {
+      if (null == timeUnit || timeUnit.has(1))
+      {
+         return 1000;
+      }
+      else if (timeUnit.has(2))
+      {
+         return 1000000;
+      }
+      else if (timeUnit.has(3))
+      {
+         return 1000000000;
+      }
+      throw new IOException("Unsupported Parquet file: Unknown time unit");
+   }
+
+   private static ColumnType getUnannotatedType(int physicalType, String name) throws IOException
+   {
+      switch (physicalType)
+      {
+         case PHYSICAL_BOOLEAN:
+            return ColumnType.BOOLEAN;
+         case PHYSICAL_INT32:
+            return ColumnType.INT32;
+         case PHYSICAL_INT64:
+            return ColumnType.INT64;
+         case PHYSICAL_FLOAT:
+            return ColumnType.FLOAT;
+         case PHYSICAL_DOUBLE:
+            return ColumnType.DOUBLE;
+         case PHYSICAL_BYTE_ARRAY:
+            return ColumnType.STRING;
+         default:
+            throw new IOException("Unsupported Parquet file: Column " + name + " has physical type " + physicalType);
+      }
+   }
+
+   private static boolean isReadable(ColumnType type, int physicalType)
+   {
+      switch (type)
+      {
+         case DECIMAL:
+            return PHYSICAL_INT32 == physicalType || PHYSICAL_INT64 == physicalType || PHYSICAL_BYTE_ARRAY == physicalType;
+         case TIME:
+            return PHYSICAL_INT32 == physicalType || PHYSICAL_INT64 == physicalType;
+         default:
+            return type._physicalType == physicalType;
+      }
+   }
+
+   /**
+    * @return A version 1 data page of the values: RLE encoded definition levels followed by the plain encoded non null values.
+    */
+   static byte[] encodePage(Column column, Object[] values, int count) throws IOException
+   {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+      byte[] definitionLevels = encodeDefinitionLevels(values, count);
+      writeIntLE(bos, definitionLevels.length);
+      bos.write(definitionLevels);
+
+      int booleanBits = 0;
+      int booleanBitCount = 0;
+
+      for (int i = 0; i < count; i++)
+      {
+         Object value = values[i];
+         if (null == value)
+         {
+            continue;
+         }
+
+         if (false == accepts(column, value))
+         {
+            throw new IOException("Column " + column._name + ": The value " + value + " of type " + value.getClass().getName() + " does not fit the column's Parquet type " + column._type + " chosen from the first rows");
+         }
+
+         switch (column._type)
+         {
+            case BOOLEAN:
+               if ((Boolean) value)
+               {
+                  booleanBits |= 1 << booleanBitCount;
+               }
+               if (8 == ++booleanBitCount)
+               {
+                  bos.write(booleanBits);
+                  booleanBits = 0;
+                  booleanBitCount = 0;
+               }
+               break;
+            case INT8:
+            case INT16:
+            case INT32:
+               writeIntLE(bos, ((Number) value).intValue());
+               break;
+            case INT64:
+               writeLongLE(bos, ((Number) value).longValue());
+               break;
+            case FLOAT:
+               writeIntLE(bos, Float.floatToIntBits((Float) value));
+               break;
+            case DOUBLE:
+               writeLongLE(bos, Double.doubleToLongBits(((Number) value).doubleValue()));
+               break;
+            case DECIMAL:
+               BigDecimal decimal = toBigDecimal(value).setScale(column._scale, RoundingMode.UNNECESSARY);
+               column._precision = Math.max(column._precision, decimal.precision());
+               writeBytes(bos, decimal.unscaledValue().toByteArray());
+               break;
+            case DATE:
+               writeIntLE(bos, (int) toLocalDate((Date) value).toEpochDay());
+               break;
+            case TIME:
+               writeIntLE(bos, (int) (toLocalDateTime((Date) value).toLocalTime().toNanoOfDay() / 1000000));
+               break;
+            case TIMESTAMP:
+               LocalDateTime localDateTime = toLocalDateTime((Date) value);
+               writeLongLE(bos, localDateTime.toEpochSecond(ZoneOffset.UTC) * 1000000 + localDateTime.getNano() / 1000);
+               break;
+            default:
+               String string = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+               writeBytes(bos, string.getBytes(StandardCharsets.UTF_8));
+         }
+      }
+
+      if (0 < booleanBitCount)
+      {
+         bos.write(booleanBits);
+      }
+
+      return bos.toByteArray();
+   }
+
+   /**
+    * Writes RLE runs only, the bit packed runs of the hybrid encoding would pay for alternating nulls only.
+    */
+   private static byte[] encodeDefinitionLevels(Object[] values, int count)
+   {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+      int runBegin = 0;
+      for (int i = 1; i <= count; i++)
+      {
+         if (i == count || (null == values[i]) != (null == values[runBegin]))
+         {
+            writeUnsignedVarInt(bos, (i - runBegin) << 1);
+            bos.write(null == values[runBegin] ? 0 : 1);
+            runBegin = i;
+         }
+      }
+
+      return bos.toByteArray();
+   }
+
+   /**
+    * Decodes a version 1 data page of count values into target beginning at offset.
+    */
+   static void decodePage(Column column, byte[] page, int count, Object[] target, int offset) throws IOException
+   {
+      try
+      {
+         ByteBuffer buf = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
+
+         boolean[] isNull = new boolean[count];
+         if (column._optional)
+         {
+            int definitionLevelsLength = buf.getInt();
+            int definitionLevelsEnd = buf.position() + definitionLevelsLength;
+            decodeDefinitionLevels(buf, isNull, count);
+            buf.position(definitionLevelsEnd);
+         }
+
+         int booleanIx = 0;
+         int booleanBits = 0;
+
+         for (int i = 0; i < count; i++)
+         {
+            if (isNull[i])
+            {
+               target[offset + i] = null;
+               continue;
+            }
+
+            Object value;
+            switch (column._type)
+            {
+               case BOOLEAN:
+                  if (0 == booleanIx % 8)
+                  {
+                     booleanBits = buf.get();
+                  }
+                  value = 0 != (booleanBits & (1 << (booleanIx++ % 8)));
+                  break;
+               case INT8:
+                  value = (byte) buf.getInt();
+                  break;
+               case INT16:
+                  value = (short) buf.getInt();
+                  break;
+               case INT32:
+                  value = buf.getInt();
+                  break;
+               case INT64:
+                  value = buf.getLong();
+                  break;
+               case FLOAT:
+                  value = buf.getFloat();
+                  break;
+               case DOUBLE:
+                  value = buf.getDouble();
+                  break;
+               case DECIMAL:
+                  value = readDecimal(column, buf);
+                  break;
+               case DATE:
+                  value = java.sql.Date.valueOf(LocalDate.ofEpochDay(buf.getInt()));
+                  break;
+               case TIME:
+                  long time = PHYSICAL_INT32 == column._physicalType ? buf.getInt() : buf.getLong();
+                  LocalTime localTime = LocalTime.ofNanoOfDay(Math.floorMod(time, 86400 * column._unitsPerSecond) * (1000000000 / column._unitsPerSecond));
+                  value = new Time(Timestamp.valueOf(LocalDate.of(1970, 1, 1).atTime(localTime)).getTime());
+                  break;
+               case TIMESTAMP:
+                  long timestamp = buf.getLong();
+                  long seconds = Math.floorDiv(timestamp, column._unitsPerSecond);
+                  int nanos = (int) (Math.floorMod(timestamp, column._unitsPerSecond) * (1000000000 / column._unitsPerSecond));
+                  value = column._adjustedToUtc ? Timestamp.from(Instant.ofEpochSecond(seconds, nanos)) : Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+                  break;
+               default:
+                  value = new String(readBytes(buf), StandardCharsets.UTF_8);
+            }
+            target[offset + i] = value;
+         }
+      }
+      catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e)
+      {
+         throw new IOException("Corrupt Parquet file: Invalid data page of column " + column._name, e);
+      }
+   }
+
+   private static BigDecimal readDecimal(Column column, ByteBuffer buf)
+   {
+      switch (column._physicalType)
+      {
+         case PHYSICAL_INT32:
+            return BigDecimal.valueOf(buf.getInt(), column._scale);
+         case PHYSICAL_INT64:
+            return BigDecimal.valueOf(buf.getLong(), column._scale);
+         default:
+            byte[] unscaled = readBytes(buf);
+            return 0 == unscaled.length ? BigDecimal.ZERO.setScale(column._scale) : new BigDecimal(new BigInteger(unscaled), column._scale);
+      }
+   }
+
+   /**
+    * Decodes the RLE/bit packed hybrid encoding with bit width 1. Level 0 means null.
+    */
+   private static void decodeDefinitionLevels(ByteBuffer buf, boolean[] isNull, int count) throws IOException
+   {
+      int i = 0;
+      while (i < count)
+      {
+         long header = readUnsignedVarInt(buf);
+         if (0 == header)
+         {
+            throw new IOException("Corrupt Parquet file: Empty definition level run");
+         }
+
+         if (0 == (header & 1))
+         {
+            long runLength = header >>> 1;
+            boolean runIsNull = 0 == buf.get();
+            for (long j = 0; j < runLength && i < count; j++)
+            {
+               isNull[i++] = runIsNull;
+            }
+         }
+         else
+         {
+            long groupCount = header >>> 1;
+            for (long g = 0; g < groupCount; g++)
+            {
+               int bits = buf.get();
+               for (int bit = 0; bit < 8 && i < count; bit++)
+               {
+                  isNull[i++] = 0 == (bits & (1 << bit));
+               }
+            }
+         }
+      }
+   }
+
+   private static LocalDate toLocalDate(Date date)
+   {
+      if (date instanceof java.sql.Date)
+      {
+         return ((java.sql.Date) date).toLocalDate();
+      }
+      return toLocalDateTime(date).toLocalDate();
+   }
+
+   private static LocalDateTime toLocalDateTime(Date date)
+   {
+      if (date instanceof Timestamp)
+      {
+         return ((Timestamp) date).toLocalDateTime();
+      }
+      return new Timestamp(date.getTime()).toLocalDateTime();
+   }
+
+   static byte[] compress(byte[] data) throws IOException
+   {
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+      try (GZIPOutputStream gzip = new GZIPOutputStream(bos))
+      {
+         gzip.write(data);
+      }
+      return bos.toByteArray();
+   }
+
+   static byte[] decompress(byte[] data, int codec, int uncompressedLength) throws IOException
+   {
+      if (CODEC_UNCOMPRESSED == codec)
+      {
+         return data;
+      }
+      else if (CODEC_GZIP != codec)
+      {
+         throw new IOException("Unsupported Parquet file: Only uncompressed and GZIP compressed files can be read, the compression codec is " + codec);
+      }
+
+      try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data)))
+      {
+         byte[] ret = in.readNBytes(uncompressedLength);
+         if (ret.length != uncompressedLength)
+         {
+            throw new IOException("Corrupt Parquet file: Page is truncated");
+         }
+         return ret;
+      }
+   }
+
+   private static void writeBytes(ByteArrayOutputStream bos, byte[] bytes)
+   {
+      writeIntLE(bos, bytes.length);
+      bos.write(bytes, 0, bytes.length);
+   }
+
+   private static byte[] readBytes(ByteBuffer buf)
+   {
+      byte[] ret = new byte[buf.getInt()];
+      buf.get(ret);
+      return ret;
+   }
+
+   static void writeIntLE(ByteArrayOutputStream bos, int value)
+   {
+      bos.write(value);
+      bos.write(value >>> 8);
+      bos.write(value >>> 16);
+      bos.write(value >>> 24);
+   }
+
+   private static void writeLongLE(ByteArrayOutputStream bos, long value)
+   {
+      writeIntLE(bos, (int) value);
+      writeIntLE(bos, (int) (value >>> 32));
+   }
+
+   private static void writeUnsignedVarInt(ByteArrayOutputStream bos, int value)
+   {
+      while (0 != (value & ~0x7F))
+      {
+         bos.write((value & 0x7F) | 0x80);
+         value >>>= 7;
+      }
+      bos.write(value);
+   }
+
+   private static long readUnsignedVarInt(ByteBuffer buf) throws IOException
+   {
+      long ret = 0;
+      for (int shift = 0; shift < 35; shift += 7)
+      {
+         byte b = buf.get();
+         ret |= (long) (b & 0x7F) << shift;
+         if (0 == (b & 0x80))
+         {
+            return ret;
+         }
+      }
+      throw new IOException("Corrupt Parquet file: Variable length number too long");
+   }
+}
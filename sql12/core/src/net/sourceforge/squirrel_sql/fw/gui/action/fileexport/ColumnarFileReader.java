@@ -0,0 +1,276 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the Parquet files written by {@link DataExportColumnarWriter} row group by row group.
+ * Other Parquet files can be read if they are flat, plain encoded and uncompressed or GZIP compressed.
+ * <p>
+ * Values are returned as the Java types that JDBC uses for the column's type, e.g. Short for a 16 bit integer.
+ */
+public class ColumnarFileReader implements Closeable
+{
+   private final RandomAccessFile _file;
+
+   private final List<ColumnarFileFormat.Column> _columns = new ArrayList<>();
+   private final boolean _hasColumnNames;
+   private final String[] _columnNames;
+   private final int[] _sqlTypes;
+
+   private final List<Object> _rowGroups;
+   private int _nextRowGroup;
+
+   public ColumnarFileReader(File file) throws IOException
+   {
+      _file = new RandomAccessFile(file, "r");
+
+      try
+      {
+         long length = _file.length();
+         byte[] magic = new byte[ColumnarFileFormat.MAGIC.length];
+         byte[] tail = new byte[8];
+
+         if (length < magic.length + tail.length)
+         {
+            throw new IOException("Not a Parquet file: " + file);
+         }
+
+         _file.readFully(magic);
+         _file.seek(length - tail.length);
+         _file.readFully(tail);
+
+         if (false == Arrays.equals(magic, ColumnarFileFormat.MAGIC) || false == Arrays.equals(Arrays.copyOfRange(tail, 4, 8), ColumnarFileFormat.MAGIC))
+         {
+            throw new IOException("Not a Parquet file: " + file);
+         }
+
+         int footerLength = ByteBuffer.wrap(tail, 0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+         if (0 > footerLength || footerLength > length - magic.length - tail.length)
+         {
+            throw new IOException("Corrupt Parquet file: Invalid footer length " + footerLength);
+         }
+
+         byte[] footerBytes = new byte[footerLength];
+         _file.seek(length - tail.length - footerLength);
+         _file.readFully(footerBytes);
+
+         ThriftCompactReader.Struct footer = ThriftCompactReader.readStruct(new DataInputStream(new ByteArrayInputStream(footerBytes)));
+
+         List<Object> schema = footer.getList(2);
+         if (schema.isEmpty() || ((ThriftCompactReader.Struct) schema.get(0)).getInt(5, 0) != schema.size() - 1)
+         {
+            throw new IOException("Unsupported Parquet file: Only files with a flat schema can be read: " + file);
+         }
+
+         for (int i = 1; i < schema.size(); i++)
+         {
+            _columns.add(ColumnarFileFormat.readColumn((ThriftCompactReader.Struct) schema.get(i)));
+         }
+
+         _columnNames = new String[_columns.size()];
+         _sqlTypes = new int[_columns.size()];
+         for (int i = 0; i < _columns.size(); i++)
+         {
+            _columnNames[i] = _columns.get(i).getName();
+            _sqlTypes[i] = _columns.get(i).getType().getSqlType();
+         }
+
+         boolean hasColumnNames = true;
+         for (Object keyValueObject : footer.getList(5))
+         {
+            ThriftCompactReader.Struct keyValue = (ThriftCompactReader.Struct) keyValueObject;
+            String value = keyValue.getString(2);
+
+            if (ColumnarFileFormat.KEY_HAS_COLUMN_NAMES.equals(keyValue.getString(1)))
+            {
+               hasColumnNames = Boolean.parseBoolean(value);
+            }
+            else if (ColumnarFileFormat.KEY_SQL_TYPES.equals(keyValue.getString(1)) && null != value)
+            {
+               readSqlTypes(value);
+            }
+         }
+         _hasColumnNames = hasColumnNames;
+
+         _rowGroups = footer.getList(4);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         _file.close();
+         if (e instanceof ClassCastException)
+         {
+            throw new IOException("Corrupt Parquet file: " + file, e);
+         }
+         throw e;
+      }
+   }
+
+   private void readSqlTypes(String sqlTypes)
+   {
+      String[] split = sqlTypes.split(",");
+      if (split.length != _sqlTypes.length)
+      {
+         return;
+      }
+
+      try
+      {
+         for (int i = 0; i < split.length; i++)
+         {
+            _sqlTypes[i] = Integer.parseInt(split[i].trim());
+         }
+      }
+      catch (NumberFormatException e)
+      {
+         for (int i = 0; i < _columns.size(); i++)
+         {
+            _sqlTypes[i] = _columns.get(i).getType().getSqlType();
+         }
+      }
+   }
+
+   /**
+    * @return false if the file was exported without column headers. Then the column names were generated.
+    */
+   public boolean hasColumnNames()
+   {
+      return _hasColumnNames;
+   }
+
+   public String[] getColumnNames()
+   {
+      return _columnNames;
+   }
+
+   /**
+    * @return The {@link java.sql.Types} of the exported columns. {@link java.sql.Types#OTHER} if unknown.
+    */
+   public int[] getSqlTypes()
+   {
+      return _sqlTypes;
+   }
+
+   /**
+    * @return The rows of the next row group or null if all row groups were read.
+    */
+   public Object[][] readRows() throws IOException
+   {
+      if (_nextRowGroup >= _rowGroups.size())
+      {
+         return null;
+      }
+
+      try
+      {
+         ThriftCompactReader.Struct rowGroup = (ThriftCompactReader.Struct) _rowGroups.get(_nextRowGroup++);
+
+         int rowCount = (int) rowGroup.getLong(3);
+         List<Object> columnChunks = rowGroup.getList(1);
+         if (columnChunks.size() != _columns.size())
+         {
+            throw new IOException("Corrupt Parquet file: Row group has " + columnChunks.size() + " columns instead of " + _columns.size());
+         }
+
+         Object[][] ret = new Object[rowCount][_columns.size()];
+         Object[] columnValues = new Object[rowCount];
+
+         for (int col = 0; col < _columns.size(); col++)
+         {
+            readColumnChunk(_columns.get(col), (ThriftCompactReader.Struct) columnChunks.get(col), columnValues);
+
+            for (int row = 0; row < rowCount; row++)
+            {
+               ret[row][col] = columnValues[row];
+            }
+         }
+
+         return ret;
+      }
+      catch (ClassCastException e)
+      {
+         throw new IOException("Corrupt Parquet file", e);
+      }
+   }
+
+   private void readColumnChunk(ColumnarFileFormat.Column column, ThriftCompactReader.Struct columnChunk, Object[] columnValues) throws IOException
+   {
+      ThriftCompactReader.Struct metaData = columnChunk.getStruct(3);
+      if (null == metaData)
+      {
+         throw new IOException("Unsupported Parquet file: Column chunks in other files can not be read");
+      }
+
+      int codec = metaData.getInt(4, ColumnarFileFormat.CODEC_UNCOMPRESSED);
+      long valueCount = metaData.getLong(5);
+      long compressedSize = metaData.getLong(7);
+      long offset = metaData.getLong(9);
+
+      if (valueCount != columnValues.length)
+      {
+         throw new IOException("Corrupt Parquet file: Column " + column.getName() + " has " + valueCount + " values instead of " + columnValues.length);
+      }
+
+      if (metaData.has(11) || 0 > offset || 0 > compressedSize || Integer.MAX_VALUE < compressedSize || offset + compressedSize > _file.length())
+      {
+         throw new IOException(metaData.has(11) ? "Unsupported Parquet file: Dictionary encoded columns can not be read" : "Corrupt Parquet file: Invalid column chunk of column " + column.getName());
+      }
+
+      byte[] chunk = new byte[(int) compressedSize];
+      _file.seek(offset);
+      _file.readFully(chunk);
+
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk));
+
+      int read = 0;
+      while (read < columnValues.length)
+      {
+         ThriftCompactReader.Struct pageHeader = ThriftCompactReader.readStruct(in);
+
+         int pageType = pageHeader.getInt(1, -1);
+         int uncompressedPageSize = pageHeader.getInt(2, -1);
+         int compressedPageSize = pageHeader.getInt(3, -1);
+         ThriftCompactReader.Struct dataPageHeader = pageHeader.getStruct(5);
+
+         if (ColumnarFileFormat.PAGE_TYPE_DICTIONARY == pageType)
+         {
+            throw new IOException("Unsupported Parquet file: Dictionary encoded columns can not be read");
+         }
+         else if (ColumnarFileFormat.PAGE_TYPE_DATA != pageType || null == dataPageHeader)
+         {
+            throw new IOException("Unsupported Parquet file: Page type " + pageType + " of column " + column.getName() + " can not be read");
+         }
+         else if (ColumnarFileFormat.ENCODING_PLAIN != dataPageHeader.getInt(2, -1))
+         {
+            throw new IOException("Unsupported Parquet file: Only plain encoded columns can be read");
+         }
+
+         int pageValueCount = dataPageHeader.getInt(1, -1);
+         if (0 > compressedPageSize || 0 > uncompressedPageSize || 0 > pageValueCount || read + pageValueCount > columnValues.length)
+         {
+            throw new IOException("Corrupt Parquet file: Invalid page header in column " + column.getName());
+         }
+
+         byte[] page = new byte[compressedPageSize];
+         in.readFully(page);
+
+         ColumnarFileFormat.decodePage(column, ColumnarFileFormat.decompress(page, codec, uncompressedPageSize), pageValueCount, columnValues, read);
+         read += pageValueCount;
+      }
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      _file.close();
+   }
+}
@@ -19,30 +19,60 @@
 package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
 
 import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.IDataTypeComponent;
 import net.sourceforge.squirrel_sql.fw.sql.ProgressAbortCallback;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Exports {@link IExportData} to a CSV file.
  * <b>Note:</b> This class is the result of a refactoring task. The code was taken from TableExportCsvCommand.
+ * <p>
+ * On multicore machines the rows are formatted in chunks on several threads, the chunks are written in order.
+ * The IDataTypeComponents that render the values are looked up on the writing thread, see {@link #resolveColumnRenderers(List)}.
  *
  * @author Stefan Willinger
  */
 public class DataExportCSVWriter extends AbstractDataExportFileWriter
 {
 
+   /**
+    * Rows are formatted in chunks of this size on the {@link #_formatExecutor} threads.
+    */
+   private static final int FORMAT_CHUNK_ROWS = 1000;
+
    private List<String> headerCells = new ArrayList<String>();
-   private List<String> aRow = new ArrayList<String>();
+   private List<ExportCellData> aRow = new ArrayList<ExportCellData>();
    private BufferedWriter bw;
 
+   private String _separator;
+   private String _lineSeparator;
+   private boolean _useGlobalFormatting;
+
+   private ExecutorService _formatExecutor;
+   private int _maxPendingChunks;
+   private List<List<ExportCellData>> _currentChunk = new ArrayList<>();
+   private final ArrayDeque<Future<String>> _pendingChunks = new ArrayDeque<>();
+
+   /**
+    * Index is the column index. An entry is null when the column's values are rendered by toString().
+    * Replaced, never changed, when columns are added. So formatting threads can use the array they were passed.
+    */
+   private IDataTypeComponent[] _columnRenderers = new IDataTypeComponent[0];
+
 
    /**
     * @param file
@@ -55,6 +85,19 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    }
 
    protected String getDataCSV(String sepChar, ExportCellData cellObj, boolean useGlobalFormatting)
+   {
+      IDataTypeComponent renderer = null;
+      if (cellObj.getColumnDisplayDefinition() != null && useGlobalFormatting)
+      {
+         renderer = CellComponentFactory.getDataTypeObject(null, cellObj.getColumnDisplayDefinition());
+      }
+      return getDataCSV(sepChar, cellObj, renderer);
+   }
+
+   /**
+    * @param renderer null to render the value by toString().
+    */
+   private static String getDataCSV(String sepChar, ExportCellData cellObj, IDataTypeComponent renderer)
    {
       if (cellObj.getObject() == null)
       {
@@ -62,11 +105,9 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
       }
 
       String value;
-      if (cellObj.getColumnDisplayDefinition() != null && useGlobalFormatting)
+      if (renderer != null)
       {
-
-         value = CellComponentFactory
-               .renderObject(cellObj.getObject(), cellObj.getColumnDisplayDefinition());
+         value = renderer.renderObject(cellObj.getObject());
       }
       else
       {
@@ -106,17 +147,32 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    @Override
    protected void afterWorking() throws Exception
    {
+      submitCurrentChunk();
+      while (false == _pendingChunks.isEmpty())
+      {
+         writeNextPendingChunk();
+      }
+
       bw.flush();
       bw.close();
    }
 
+   @Override
+   protected void releaseResources()
+   {
+      if (null != _formatExecutor)
+      {
+         _formatExecutor.shutdownNow();
+      }
+   }
+
    /**
     * @see AbstractDataExportFileWriter#addHeaderCell(int, int, java.lang.String)
     */
    @Override
    protected void addHeaderCell(int colIdx, String columnName)
    {
-      this.headerCells.add(getDataCSV(getSeperatorCharRespectTab(), columnName));
+      this.headerCells.add(getDataCSV(_separator, columnName));
    }
 
    /**
@@ -125,7 +181,22 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    @Override
    protected void beforeWorking(File file) throws Exception
    {
-      bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), getCharset()));
+      bw = new BufferedWriter(new OutputStreamWriter(createFileOutputStream(file), getCharset()), 1 << 16);
+
+      _separator = getSeperatorCharRespectTab();
+      _lineSeparator = LineSeparator.valueOf(getPrefs().getLineSeperator()).getSeparator();
+      _useGlobalFormatting = getPrefs().isUseGlobalPrefsFormating();
+
+      int threadCount = Runtime.getRuntime().availableProcessors();
+      if (1 < threadCount)
+      {
+         _maxPendingChunks = 2 * threadCount;
+         _formatExecutor = Executors.newFixedThreadPool(threadCount, r -> {
+            Thread thread = new Thread(r, "CSV Format Thread");
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
    }
 
 
@@ -135,8 +206,7 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    @Override
    protected void addCell(ExportCellData cell)
    {
-      String cellObjData = getDataCSV(getSeperatorCharRespectTab(), cell, getPrefs().isUseGlobalPrefsFormating());
-      this.aRow.add(cellObjData);
+      this.aRow.add(cell);
    }
 
    /**
@@ -146,6 +216,7 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    protected void afterHeader() throws Exception
    {
       writeARow(this.headerCells);
+      bw.write(_lineSeparator);
       super.afterHeader();
    }
 
@@ -156,7 +227,7 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    public void beforeRow(int rowIdx) throws Exception
    {
       super.beforeRow(rowIdx);
-      this.aRow.clear();
+      this.aRow = new ArrayList<>();
    }
 
    /**
@@ -165,10 +236,97 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
    @Override
    public void afterRow() throws Exception
    {
-      writeARow(this.aRow);
+      resolveColumnRenderers(this.aRow);
+
+      if (null == _formatExecutor)
+      {
+         bw.write(formatRows(Collections.singletonList(this.aRow), _columnRenderers));
+      }
+      else
+      {
+         _currentChunk.add(this.aRow);
+         if (FORMAT_CHUNK_ROWS == _currentChunk.size())
+         {
+            submitCurrentChunk();
+         }
+      }
       super.afterRow();
    }
 
+   /**
+    * The formatted chunks are written in the order they were submitted. At most {@link #_maxPendingChunks}
+    * chunks are held in memory, when more are pending the writing thread waits for the oldest one.
+    */
+   private void submitCurrentChunk() throws Exception
+   {
+      if (_currentChunk.isEmpty())
+      {
+         return;
+      }
+
+      final List<List<ExportCellData>> chunk = _currentChunk;
+      final IDataTypeComponent[] columnRenderers = _columnRenderers;
+      _currentChunk = new ArrayList<>();
+      _pendingChunks.add(_formatExecutor.submit(() -> formatRows(chunk, columnRenderers)));
+
+      while (_pendingChunks.size() > _maxPendingChunks)
+      {
+         writeNextPendingChunk();
+      }
+   }
+
+   private void writeNextPendingChunk() throws Exception
+   {
+      try
+      {
+         bw.write(_pendingChunks.poll().get());
+      }
+      catch (ExecutionException e)
+      {
+         throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      }
+   }
+
+   /**
+    * Looks up the renderer of each column once, on the writing thread. The formatting threads only call
+    * {@link IDataTypeComponent#renderObject(Object)} and never touch the CellComponentFactory.
+    */
+   private void resolveColumnRenderers(List<ExportCellData> row)
+   {
+      if (_columnRenderers.length >= row.size())
+      {
+         return;
+      }
+
+      IDataTypeComponent[] columnRenderers = Arrays.copyOf(_columnRenderers, row.size());
+      for (int i = _columnRenderers.length; i < row.size(); i++)
+      {
+         if (row.get(i).getColumnDisplayDefinition() != null && _useGlobalFormatting)
+         {
+            columnRenderers[i] = CellComponentFactory.getDataTypeObject(null, row.get(i).getColumnDisplayDefinition());
+         }
+      }
+      _columnRenderers = columnRenderers;
+   }
+
+   private String formatRows(List<List<ExportCellData>> rows, IDataTypeComponent[] columnRenderers)
+   {
+      StringBuilder ret = new StringBuilder();
+      for (List<ExportCellData> row : rows)
+      {
+         for (int i = 0; i < row.size(); i++)
+         {
+            if (0 < i)
+            {
+               ret.append(_separator);
+            }
+            ret.append(getDataCSV(_separator, row.get(i), columnRenderers[i]));
+         }
+         ret.append(_lineSeparator);
+      }
+      return ret.toString();
+   }
+
    private void writeARow(List<String> data) throws IOException
    {
       Iterator<String> it = data.iterator();
@@ -177,10 +335,9 @@ public class DataExportCSVWriter extends AbstractDataExportFileWriter
          bw.write(it.next());
          if (it.hasNext())
          {
-            bw.write(getSeperatorCharRespectTab());
+            bw.write(_separator);
          }
       }
-      bw.write(LineSeparator.valueOf(getPrefs().getLineSeperator()).getSeparator());
    }
 
    private String getSeperatorCharRespectTab()
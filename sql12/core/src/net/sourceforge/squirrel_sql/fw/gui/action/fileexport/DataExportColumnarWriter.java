@@ -0,0 +1,332 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import net.sourceforge.squirrel_sql.fw.datasetviewer.ColumnDisplayDefinition;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.cellcomponent.CellComponentFactory;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressAbortCallback;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Exports {@link IExportData} to an Apache Parquet file as described in {@link ColumnarFileFormat}.
+ * The file can be read by analytics tools and imported again by the file import, see {@link ColumnarFileReader}.
+ *
+ * Numbers, booleans and date/time values are written with their types regardless of {@link TableExportPreferences#isUseGlobalPrefsFormating()}.
+ * All other values are written as strings, formatted like by {@link DataExportCSVWriter}.
+ * The column types are chosen when the first row group is complete, see {@link ColumnarFileFormat#createColumn(String, int, int, int, Object[], int)}.
+ */
+public class DataExportColumnarWriter extends AbstractDataExportFileWriter
+{
+   private OutputStream _out;
+   private long _filePos;
+
+   private final List<String> _columnNames = new ArrayList<>();
+   private final List<ColumnDisplayDefinition> _columnDisplayDefinitions = new ArrayList<>();
+   private final List<Object> _currentRow = new ArrayList<>();
+
+   private List<ColumnarFileFormat.Column> _columns;
+
+   /**
+    * The current row group by column.
+    */
+   private Object[][] _rowGroup;
+   private int _rowGroupRowCount;
+
+   private final List<RowGroupInfo> _writtenRowGroups = new ArrayList<>();
+
+   public DataExportColumnarWriter(File file, TableExportPreferences prefs, ProgressAbortCallback progressController)
+   {
+      super(file, prefs, progressController);
+   }
+
+   @Override
+   protected void beforeWorking(File file) throws IOException
+   {
+      _out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+      write(ColumnarFileFormat.MAGIC);
+   }
+
+   @Override
+   protected void addHeaderCell(int colIdx, String columnName)
+   {
+      _columnNames.add(columnName);
+   }
+
+   @Override
+   public void beforeRow(int rowIdx)
+   {
+      _currentRow.clear();
+   }
+
+   @Override
+   protected void addCell(ExportCellData cell)
+   {
+      if (null == _rowGroup)
+      {
+         // The first row tells the JDBC column types.
+         _columnDisplayDefinitions.add(cell.getColumnDisplayDefinition());
+      }
+
+      Object value = cell.getObject();
+
+      if (null == value || ColumnarFileFormat.isTyped(value))
+      {
+         _currentRow.add(value);
+      }
+      else if (getPrefs().isUseGlobalPrefsFormating() && null != cell.getColumnDisplayDefinition())
+      {
+         _currentRow.add(CellComponentFactory.renderObject(value, cell.getColumnDisplayDefinition()));
+      }
+      else
+      {
+         _currentRow.add(value.toString());
+      }
+   }
+
+   @Override
+   public void afterRow() throws IOException
+   {
+      if (null == _rowGroup)
+      {
+         _rowGroup = new Object[Math.max(_currentRow.size(), _columnNames.size())][ColumnarFileFormat.ROW_GROUP_SIZE];
+      }
+
+      for (int i = 0; i < _rowGroup.length; i++)
+      {
+         _rowGroup[i][_rowGroupRowCount] = i < _currentRow.size() ? _currentRow.get(i) : null;
+      }
+
+      ++_rowGroupRowCount;
+      if (ColumnarFileFormat.ROW_GROUP_SIZE == _rowGroupRowCount)
+      {
+         writeRowGroup();
+      }
+   }
+
+   private void createColumnsIfNeeded()
+   {
+      if (null != _columns)
+      {
+         return;
+      }
+
+      int columnCount = null == _rowGroup ? _columnNames.size() : _rowGroup.length;
+
+      _columns = new ArrayList<>();
+      HashSet<String> usedNames = new HashSet<>();
+
+      for (int i = 0; i < columnCount; i++)
+      {
+         String name = i < _columnNames.size() && false == _columnNames.get(i).isEmpty() ? _columnNames.get(i) : "column" + (i + 1);
+
+         // Parquet tools identify columns by their names.
+         String uniqueName = name;
+         for (int suffix = 2; false == usedNames.add(uniqueName); suffix++)
+         {
+            uniqueName = name + "_" + suffix;
+         }
+
+         ColumnDisplayDefinition colDef = i < _columnDisplayDefinitions.size() ? _columnDisplayDefinitions.get(i) : null;
+         Object[] firstValues = null == _rowGroup ? new Object[0] : _rowGroup[i];
+
+         _columns.add(ColumnarFileFormat.createColumn(uniqueName,
+                                                      getSqlType(colDef),
+                                                      null == colDef ? 0 : colDef.getPrecision(),
+                                                      null == colDef ? 0 : colDef.getScale(),
+                                                      firstValues,
+                                                      _rowGroupRowCount));
+      }
+   }
+
+   private static int getSqlType(ColumnDisplayDefinition colDef)
+   {
+      return null == colDef ? Types.OTHER : colDef.getSqlType();
+   }
+
+   private void writeRowGroup() throws IOException
+   {
+      createColumnsIfNeeded();
+
+      RowGroupInfo rowGroupInfo = new RowGroupInfo(_rowGroupRowCount);
+
+      for (int i = 0; i < _rowGroup.length; i++)
+      {
+         Object[] columnValues = _rowGroup[i];
+
+         byte[] page = ColumnarFileFormat.encodePage(_columns.get(i), columnValues, _rowGroupRowCount);
+         byte[] compressedPage = ColumnarFileFormat.compress(page);
+
+         ThriftCompactWriter pageHeader = new ThriftCompactWriter();
+         pageHeader.structBegin();
+         pageHeader.fieldI32(1, ColumnarFileFormat.PAGE_TYPE_DATA);
+         pageHeader.fieldI32(2, page.length);
+         pageHeader.fieldI32(3, compressedPage.length);
+         pageHeader.fieldStructBegin(5);
+         pageHeader.fieldI32(1, _rowGroupRowCount);
+         pageHeader.fieldI32(2, ColumnarFileFormat.ENCODING_PLAIN);
+         pageHeader.fieldI32(3, ColumnarFileFormat.ENCODING_RLE);
+         pageHeader.fieldI32(4, ColumnarFileFormat.ENCODING_RLE);
+         pageHeader.structEnd();
+         pageHeader.structEnd();
+         byte[] pageHeaderBytes = pageHeader.toByteArray();
+
+         rowGroupInfo.addColumnChunk(_filePos, pageHeaderBytes.length + page.length, pageHeaderBytes.length + compressedPage.length);
+
+         write(pageHeaderBytes);
+         write(compressedPage);
+
+         Arrays.fill(columnValues, 0, _rowGroupRowCount, null);
+      }
+
+      _writtenRowGroups.add(rowGroupInfo);
+      _rowGroupRowCount = 0;
+   }
+
+   private void writeFooter() throws IOException
+   {
+      ThriftCompactWriter footer = new ThriftCompactWriter();
+
+      footer.structBegin();
+      footer.fieldI32(1, 1);
+
+      footer.fieldListBegin(2, ThriftCompactWriter.TYPE_STRUCT, _columns.size() + 1);
+      footer.structBegin();
+      footer.fieldString(4, "schema");
+      footer.fieldI32(5, _columns.size());
+      footer.structEnd();
+      for (ColumnarFileFormat.Column column : _columns)
+      {
+         ColumnarFileFormat.writeSchemaElement(footer, column);
+      }
+
+      footer.fieldI64(3, _writtenRowGroups.stream().mapToLong(rg -> rg._rowCount).sum());
+
+      footer.fieldListBegin(4, ThriftCompactWriter.TYPE_STRUCT, _writtenRowGroups.size());
+      for (RowGroupInfo rowGroup : _writtenRowGroups)
+      {
+         writeRowGroupMetaData(footer, rowGroup);
+      }
+
+      StringBuilder sqlTypes = new StringBuilder();
+      for (int i = 0; i < _columns.size(); i++)
+      {
+         if (0 < i)
+         {
+            sqlTypes.append(',');
+         }
+         sqlTypes.append(getSqlType(i < _columnDisplayDefinitions.size() ? _columnDisplayDefinitions.get(i) : null));
+      }
+
+      footer.fieldListBegin(5, ThriftCompactWriter.TYPE_STRUCT, 2);
+      writeKeyValue(footer, ColumnarFileFormat.KEY_SQL_TYPES, sqlTypes.toString());
+      writeKeyValue(footer, ColumnarFileFormat.KEY_HAS_COLUMN_NAMES, "" + (false == _columnNames.isEmpty()));
+
+      footer.fieldString(6, ColumnarFileFormat.CREATED_BY);
+      footer.structEnd();
+
+      byte[] footerBytes = footer.toByteArray();
+      write(footerBytes);
+
+      ByteArrayOutputStream footerLength = new ByteArrayOutputStream(4);
+      ColumnarFileFormat.writeIntLE(footerLength, footerBytes.length);
+      write(footerLength.toByteArray());
+
+      write(ColumnarFileFormat.MAGIC);
+   }
+
+   private void writeRowGroupMetaData(ThriftCompactWriter footer, RowGroupInfo rowGroup)
+   {
+      footer.structBegin();
+
+      footer.fieldListBegin(1, ThriftCompactWriter.TYPE_STRUCT, _columns.size());
+      for (int i = 0; i < _columns.size(); i++)
+      {
+         ColumnarFileFormat.Column column = _columns.get(i);
+
+         footer.structBegin();
+         footer.fieldI64(2, rowGroup._offsets.get(i));
+
+         footer.fieldStructBegin(3);
+         footer.fieldI32(1, column.getPhysicalType());
+         footer.fieldListBegin(2, ThriftCompactWriter.TYPE_I32, 2);
+         footer.listI32(ColumnarFileFormat.ENCODING_PLAIN);
+         footer.listI32(ColumnarFileFormat.ENCODING_RLE);
+         footer.fieldListBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+         footer.listString(column.getName());
+         footer.fieldI32(4, ColumnarFileFormat.CODEC_GZIP);
+         footer.fieldI64(5, rowGroup._rowCount);
+         footer.fieldI64(6, rowGroup._uncompressedSizes.get(i));
+         footer.fieldI64(7, rowGroup._compressedSizes.get(i));
+         footer.fieldI64(9, rowGroup._offsets.get(i));
+         footer.structEnd();
+
+         footer.structEnd();
+      }
+
+      footer.fieldI64(2, rowGroup._uncompressedSizes.stream().mapToLong(Long::longValue).sum());
+      footer.fieldI64(3, rowGroup._rowCount);
+      footer.structEnd();
+   }
+
+   private static void writeKeyValue(ThriftCompactWriter footer, String key, String value)
+   {
+      footer.structBegin();
+      footer.fieldString(1, key);
+      footer.fieldString(2, value);
+      footer.structEnd();
+   }
+
+   private void write(byte[] bytes) throws IOException
+   {
+      _out.write(bytes);
+      _filePos += bytes.length;
+   }
+
+   @Override
+   protected void afterWorking() throws IOException
+   {
+      try
+      {
+         if (0 < _rowGroupRowCount)
+         {
+            writeRowGroup();
+         }
+
+         createColumnsIfNeeded();
+         writeFooter();
+      }
+      finally
+      {
+         _out.close();
+      }
+   }
+
+   private static class RowGroupInfo
+   {
+      private final long _rowCount;
+      private final List<Long> _offsets = new ArrayList<>();
+      private final List<Long> _uncompressedSizes = new ArrayList<>();
+      private final List<Long> _compressedSizes = new ArrayList<>();
+
+      private RowGroupInfo(long rowCount)
+      {
+         _rowCount = rowCount;
+      }
+
+      private void addColumnChunk(long offset, long uncompressedSize, long compressedSize)
+      {
+         _offsets.add(offset);
+         _uncompressedSizes.add(uncompressedSize);
+         _compressedSizes.add(compressedSize);
+      }
+   }
+}
@@ -8,6 +8,7 @@ import net.sourceforge.squirrel_sql.fw.sql.ProgressAbortCallback;
 import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
 
 import java.io.File;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
 
@@ -132,7 +133,7 @@ public class DataExportJSONWriter extends AbstractDataExportFileWriter
    {
       String jsonString = _mapper.writerWithDefaultPrettyPrinter().writeValueAsString(_root);
 
-      try(PrintWriter pw = new PrintWriter(getFile(), getCharset().name()))
+      try(PrintWriter pw = new PrintWriter(new OutputStreamWriter(createFileOutputStream(getFile()), getCharset())))
       {
          pw.print(jsonString.toCharArray());
       }
@@ -31,6 +31,7 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.File;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 
 
@@ -80,21 +81,23 @@ public class DataExportXMLWriter extends AbstractDataExportFileWriter
 
       // PrintStream will be responsible for writing
       // the text data to the file
-      PrintWriter pw = new PrintWriter(getFile(), getCharset().name());
-      StreamResult result = new StreamResult(pw);
+      try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(createFileOutputStream(getFile()), getCharset())))
+      {
+         StreamResult result = new StreamResult(pw);
 
-      // Once again we are using a factory of some sort,
-      // this time for getting a Transformer instance,
-      // which we use to output the XML
-      TransformerFactory transformerFactory = TransformerFactory.newInstance();
-      Transformer transformer = transformerFactory.newTransformer();
-      transformer.setOutputProperty(OutputKeys.ENCODING, getCharset().name());
+         // Once again we are using a factory of some sort,
+         // this time for getting a Transformer instance,
+         // which we use to output the XML
+         TransformerFactory transformerFactory = TransformerFactory.newInstance();
+         Transformer transformer = transformerFactory.newTransformer();
+         transformer.setOutputProperty(OutputKeys.ENCODING, getCharset().name());
 
-      // Indenting the XML
-      transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+         // Indenting the XML
+         transformer.setOutputProperty(OutputKeys.INDENT, "yes");
 
-      // The actual output to a file goes here
-      transformer.transform(source, result);
+         // The actual output to a file goes here
+         transformer.transform(source, result);
+      }
    }
 
    /**
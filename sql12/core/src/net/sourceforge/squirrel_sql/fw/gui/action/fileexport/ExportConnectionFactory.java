@@ -0,0 +1,16 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Creates the additional connections a {@link ParallelResultSetExport} fetches results on.
+ * Connections are closed by the export when it is finished.
+ */
+public interface ExportConnectionFactory
+{
+   /**
+    * @return null if no connection could be created.
+    */
+   Connection createConnection() throws SQLException;
+}
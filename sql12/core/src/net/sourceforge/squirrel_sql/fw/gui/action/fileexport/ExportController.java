@@ -127,6 +127,8 @@ public class ExportController
 
       _dlg.radFormatJSON.addActionListener(e -> onFormat(true));
 
+      _dlg.radFormatColumnar.addActionListener(e -> onFormat(true));
+
 
       _dlg.chkSeparatorTab.addActionListener(e -> onFormat(false));
 
@@ -153,6 +155,7 @@ public class ExportController
 
          _dlg.chkUseColoring.setEnabled(false);
          _dlg.btnUseColoringInfo.setEnabled(false);
+         _dlg.chkCompressGzip.setEnabled(true);
 
 
          if(_dlg.chkSeparatorTab.isSelected())
@@ -172,7 +175,7 @@ public class ExportController
             replaceFileEnding();
          }
       }
-      else if (_dlg.radFormatXLSX.isSelected() || _dlg.radFormatXLS.isSelected())
+      else if (_dlg.radFormatXLSX.isSelected() || _dlg.radFormatXLS.isSelected() || _dlg.radFormatColumnar.isSelected())
       {
          _dlg.lblSeparator.setEnabled(false);
          _dlg.lblCharset.setEnabled(false);
@@ -183,6 +186,7 @@ public class ExportController
          _dlg.cboLineSeparators.setEnabled(false);
          _dlg.chkUseColoring.setEnabled(_dlg.radFormatXLSX.isSelected());
          _dlg.btnUseColoringInfo.setEnabled(_dlg.radFormatXLSX.isSelected());
+         _dlg.chkCompressGzip.setEnabled(false);
 
 
          if(replaceEnding)
@@ -202,6 +206,7 @@ public class ExportController
 
          _dlg.chkUseColoring.setEnabled(false);
          _dlg.btnUseColoringInfo.setEnabled(false);
+         _dlg.chkCompressGzip.setEnabled(true);
 
 
          if(replaceEnding)
@@ -241,6 +246,10 @@ public class ExportController
       {
          newEnding = FileEndings.JSON.get();
       }
+      else if (_dlg.radFormatColumnar.isSelected())
+      {
+         newEnding = FileEndings.COLUMNAR.get();
+      }
       else
       {
          throw new IllegalStateException("No valid output format");
@@ -459,6 +468,10 @@ public class ExportController
       //Preferences.putBoolean(PREF_KEY_FORMAT_XML, _dlg.radFormatXML.isSelected());
       prefs.setFormatJSON(_dlg.radFormatJSON.isSelected());
 
+      prefs.setFormatColumnar(_dlg.radFormatColumnar.isSelected());
+
+      prefs.setCompressGzip(_dlg.chkCompressGzip.isSelected());
+
       //Preferences.putBoolean(PREF_KEY_SEPERATOR_TAB, _dlg.chkSeparatorTab.isSelected());
       prefs.setSeperatorTab(_dlg.chkSeparatorTab.isSelected());
 
@@ -492,6 +505,7 @@ public class ExportController
          _cboFileHandler.addOrReplaceCurrentItem(prefs.getFile());
       }
       _dlg.chkUseColoring.setSelected(prefs.isUseColoring());
+      _dlg.chkCompressGzip.setSelected(prefs.isCompressGzip());
 
       _dlg.cboCharsets.setSelectedItem(prefs.getEncoding());
       _dlg.chkWithHeaders.setSelected(prefs.isWithHeaders());
@@ -524,6 +538,10 @@ public class ExportController
       {
          _dlg.radFormatJSON.setSelected(true);
       }
+      else if(prefs.isFormatColumnar())
+      {
+         _dlg.radFormatColumnar.setSelected(true);
+      }
       else
       {
          _dlg.radFormatCSV.setSelected(true);
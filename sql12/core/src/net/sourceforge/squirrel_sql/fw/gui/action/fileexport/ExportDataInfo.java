@@ -36,7 +36,7 @@ public class ExportDataInfo
       if(   StringUtilities.isEmpty(_exportNameFileNormalized, true)
          || null == _multipleSqlResultExportDestinationInfo)
       {
-         return new File(prefs.getFile());
+         return appendGzipEnding(new File(prefs.getFile()), prefs);
       }
 
       if(_multipleSqlResultExportDestinationInfo.isDestinationExcel())
@@ -46,10 +46,20 @@ public class ExportDataInfo
       else
       {
          final String fileNameWithExtension = _exportNameFileNormalized + "." + FileEndings.getByTableExportPreferences(prefs);
-         return new File(_multipleSqlResultExportDestinationInfo.getExportDir(), fileNameWithExtension);
+         return appendGzipEnding(new File(_multipleSqlResultExportDestinationInfo.getExportDir(), fileNameWithExtension), prefs);
       }
    }
 
+   private static File appendGzipEnding(File file, TableExportPreferences prefs)
+   {
+      if(false == ExportFileWriter.isGzipCompressed(prefs) || FileEndings.GZIP.fileEndsWith(file.getName()))
+      {
+         return file;
+      }
+
+      return new File(file.getPath() + "." + FileEndings.GZIP.get());
+   }
+
    public String getExcelSheetTabName()
    {
       if(StringUtilities.isEmpty(_exportNameFileNormalized, true))
@@ -10,6 +10,7 @@ public class ExportDataInfoList
 
    private final List<ExportDataInfo> _exportDataInfos;
    private MultipleSqlResultExportDestinationInfo _multipleSqlResultExportDestinationInfo;
+   private ParallelResultSetExport _parallelResultSetExport;
 
    public static ExportDataInfoList single(IExportData data)
    {
@@ -37,6 +38,19 @@ public class ExportDataInfoList
       return _multipleSqlResultExportDestinationInfo;
    }
 
+   /**
+    * @return Not null if the export data was created by the given {@link ParallelResultSetExport} which then writes the files.
+    */
+   public ParallelResultSetExport getParallelResultSetExport()
+   {
+      return _parallelResultSetExport;
+   }
+
+   public void setParallelResultSetExport(ParallelResultSetExport parallelResultSetExport)
+   {
+      _parallelResultSetExport = parallelResultSetExport;
+   }
+
    public List<ExportDataInfo> getExportDataInfos()
    {
       return _exportDataInfos;
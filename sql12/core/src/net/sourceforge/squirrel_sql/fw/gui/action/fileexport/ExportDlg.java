@@ -27,6 +27,8 @@ public class ExportDlg extends JDialog
    JRadioButton radFormatXLS;
    JRadioButton radFormatXML;
    JRadioButton radFormatJSON;
+   JRadioButton radFormatColumnar;
+   JCheckBox chkCompressGzip;
    JLabel lblSeparator;
    JLabel lblLineSeparator;
    JLabel lblCharset;
@@ -146,9 +148,19 @@ public class ExportDlg extends JDialog
       gbc = new GridBagConstraints(0, 4, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
       ret.add(radFormatJSON, gbc);
 
+      radFormatColumnar = new JRadioButton(s_stringMgr.getString("TableExportCsvDlg.formatColumnar"));
+      radFormatColumnar.setToolTipText(s_stringMgr.getString("TableExportCsvDlg.formatColumnar.tooltip"));
+      gbc = new GridBagConstraints(0, 5, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
+      ret.add(radFormatColumnar, gbc);
 
+      chkCompressGzip = new JCheckBox(s_stringMgr.getString("TableExportCsvDlg.compressGzip"));
+      chkCompressGzip.setToolTipText(s_stringMgr.getString("TableExportCsvDlg.compressGzip.tooltip"));
+      gbc = new GridBagConstraints(0, 6, 1, 1, 0, 0, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(10, 0, 0, 0), 0, 0);
+      ret.add(chkCompressGzip, gbc);
 
-      gbc = new GridBagConstraints(1, 5, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
+
+
+      gbc = new GridBagConstraints(1, 7, 1, 1, 1, 1, GridBagConstraints.NORTHWEST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
       ret.add(new JPanel(), gbc);
 
 
@@ -159,6 +171,7 @@ public class ExportDlg extends JDialog
       bg.add(radFormatXLS);
       bg.add(radFormatXML);
       bg.add(radFormatJSON);
+      bg.add(radFormatColumnar);
 
       ret.setBorder(BorderFactory.createTitledBorder(s_stringMgr.getString("TableExportCsvDlg.export.format.title")));
 
@@ -53,25 +53,18 @@ public class ExportFileWriter
          }
          else
          {
-            for (ExportDataInfo exportDataInfo : exportDataInfoList.getExportDataInfos())
+            if (null != exportDataInfoList.getParallelResultSetExport())
             {
-               file = checkAndPrepareExportFile(exportDataInfo.getFile(prefs));
-
-               if (prefs.isFormatCSV())
-               {
-                  ret += new DataExportCSVWriter(file, prefs, progressController).write(exportDataInfo.getExportData());
-               }
-               else if (prefs.isFormatXML())
-               {
-                  ret += new DataExportXMLWriter(file, prefs, progressController).write(exportDataInfo.getExportData());
-               }
-               else if (prefs.isFormatJSON())
-               {
-                  ret += new DataExportJSONWriter(file, prefs, progressController).write(exportDataInfo.getExportData());
-               }
-               else
+               file = exportDataInfoList.getFirstExportFile(prefs);
+               ret = exportDataInfoList.getParallelResultSetExport().writeFiles(exportDataInfoList, prefs, progressController);
+            }
+            else
+            {
+               for (ExportDataInfo exportDataInfo : exportDataInfoList.getExportDataInfos())
                {
-                  throw new IllegalStateException("None of the format flags is true");
+                  file = checkAndPrepareExportFile(exportDataInfo.getFile(prefs));
+
+                  ret += createFileWriter(file, prefs, progressController).write(exportDataInfo.getExportData());
                }
             }
 
@@ -105,7 +98,39 @@ public class ExportFileWriter
       }
    }
 
-   private static File checkAndPrepareExportFile(File file)
+   static AbstractDataExportFileWriter createFileWriter(File file, TableExportPreferences prefs, ProgressAbortCallback progressController)
+   {
+      if (prefs.isFormatCSV())
+      {
+         return new DataExportCSVWriter(file, prefs, progressController);
+      }
+      else if (prefs.isFormatXML())
+      {
+         return new DataExportXMLWriter(file, prefs, progressController);
+      }
+      else if (prefs.isFormatJSON())
+      {
+         return new DataExportJSONWriter(file, prefs, progressController);
+      }
+      else if (prefs.isFormatColumnar())
+      {
+         return new DataExportColumnarWriter(file, prefs, progressController);
+      }
+      else
+      {
+         throw new IllegalStateException("None of the format flags is true");
+      }
+   }
+
+   /**
+    * @return true if the export file is written gzip compressed, see {@link ParallelGzipOutputStream}.
+    */
+   static boolean isGzipCompressed(TableExportPreferences prefs)
+   {
+      return prefs.isCompressGzip() && (prefs.isFormatCSV() || prefs.isFormatXML() || prefs.isFormatJSON());
+   }
+
+   static File checkAndPrepareExportFile(File file)
    {
       // Checks if file name is valid.
       // Raises an InvalidPathException if not.
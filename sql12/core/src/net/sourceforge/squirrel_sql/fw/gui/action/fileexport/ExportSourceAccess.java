@@ -22,6 +22,7 @@ public class ExportSourceAccess
 
    private UITableExportData _uiTableExportData;
    private JDBCResultSetExportData _jdbcResultSetExportData;
+   private ExportConnectionFactory _parallelExportConnectionFactory;
 
    private boolean _exportMultipleResults;
    private MultipleSqlResultExportDestinationInfo _currentExportDestinationInfo;
@@ -34,8 +35,17 @@ public class ExportSourceAccess
    }
 
    public ExportSourceAccess(List<SelectSQLInfo> selectSQLInfo, Connection con, DialectType dialect)
+   {
+      this(selectSQLInfo, con, dialect, null);
+   }
+
+   /**
+    * @param parallelExportConnectionFactory If not null the results of multiple SQLs may be exported concurrently, see {@link ParallelResultSetExport}.
+    */
+   public ExportSourceAccess(List<SelectSQLInfo> selectSQLInfo, Connection con, DialectType dialect, ExportConnectionFactory parallelExportConnectionFactory)
    {
       _jdbcResultSetExportData = new JDBCResultSetExportData(SelectSQLInfo.toSQLs(selectSQLInfo), SelectSQLInfo.toExportSqlsNamed(selectSQLInfo), con, dialect);
+      _parallelExportConnectionFactory = parallelExportConnectionFactory;
    }
 
    public boolean isUITableMissingBlobData(String separatorChar)
@@ -83,6 +93,23 @@ public class ExportSourceAccess
             return ExportDataInfoList.single(createResultSetExportData(_jdbcResultSetExportData.getOriginalSqlsToExport().get(0)));
          }
       }
+      else if (ParallelResultSetExport.isApplicable(_parallelExportConnectionFactory, getPreferences(), _jdbcResultSetExportData.getExportSqlsNamed().size()))
+      {
+         int maxRows = _jdbcResultSetExportData.isLimitRows() ? _jdbcResultSetExportData.getMaxRows() : 0;
+         ParallelResultSetExport parallelResultSetExport =
+               new ParallelResultSetExport(_parallelExportConnectionFactory, _jdbcResultSetExportData.getDialect(), maxRows, getPreferences().getParallelExportConnections());
+
+         List<ExportDataInfo> buf = new ArrayList<>();
+         for (ExportSqlNamed exportSqlNamed : _jdbcResultSetExportData.getExportSqlsNamed())
+         {
+            IExportData exportData = parallelResultSetExport.createExportData(exportSqlNamed.getSql(), exportSqlNamed.getExportNameFileNormalized());
+            buf.add(new ExportDataInfo(exportData, exportSqlNamed.getExportNameFileNormalized()));
+         }
+
+         ExportDataInfoList ret = new ExportDataInfoList(buf, _currentExportDestinationInfo);
+         ret.setParallelResultSetExport(parallelResultSetExport);
+         return ret;
+      }
       else
       {
          List<ExportDataInfo> buf = new ArrayList<>();
@@ -9,7 +9,13 @@ public enum FileEndings
    XLSX("xlsx"),
    XLS("xls"),
    XML("xml"),
-   JSON("json");
+   JSON("json"),
+   COLUMNAR("parquet"),
+
+   /**
+    * Not a format of its own, appended when CSV, XML or JSON files are compressed, see {@link TableExportPreferences#isCompressGzip()}.
+    */
+   GZIP("gz");
 
    private String _ending;
 
@@ -55,6 +61,10 @@ public enum FileEndings
       {
          return XML.get();
       }
+      else if(prefs.isFormatColumnar())
+      {
+         return COLUMNAR.get();
+      }
       else if(prefs.isFormatXLS())
       {
          return XLSX.get();
@@ -0,0 +1,237 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the gzip format and compresses blocks of {@link #BLOCK_SIZE} bytes concurrently, the way pigz does.
+ *
+ * Each block is compressed to raw deflate data that ends on a byte boundary. The last 32K of the preceding block
+ * are used as the block's dictionary. So the blocks concatenate to one ordinary deflate stream that gzip, zcat or
+ * {@link java.util.zip.GZIPInputStream} read, and the compression ratio is close to that of a single threaded compression.
+ * The CRC is computed on the writing thread, the compressed blocks are written in order.
+ *
+ * {@link #flush()} writes the blocks compressed so far, it doesn't cut the current block short.
+ */
+public class ParallelGzipOutputStream extends OutputStream
+{
+   private static final int BLOCK_SIZE = 1 << 20;
+   private static final int DICTIONARY_SIZE = 1 << 15;
+
+   private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+   private final OutputStream _out;
+   private final ThreadPoolExecutor _executor;
+   private final int _maxPendingBlocks;
+   private final ArrayDeque<Future<byte[]>> _pendingBlocks = new ArrayDeque<>();
+
+   private final CRC32 _crc = new CRC32();
+   private long _uncompressedSize;
+
+   private byte[] _block = new byte[BLOCK_SIZE];
+   private int _blockLength;
+   private byte[] _dictionary;
+
+   private boolean _closed;
+
+   public ParallelGzipOutputStream(OutputStream out) throws IOException
+   {
+      _out = out;
+
+      int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors());
+      _maxPendingBlocks = 2 * threadCount;
+
+      // Idle threads end, so a stream that is not closed after a failure doesn't keep threads alive.
+      _executor = new ThreadPoolExecutor(threadCount, threadCount, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "Export Compression Thread");
+         thread.setDaemon(true);
+         return thread;
+      });
+      _executor.allowCoreThreadTimeOut(true);
+
+      _out.write(GZIP_HEADER);
+   }
+
+   @Override
+   public void write(int b) throws IOException
+   {
+      checkClosed();
+
+      _block[_blockLength++] = (byte) b;
+      if (BLOCK_SIZE == _blockLength)
+      {
+         submitBlock(false);
+      }
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException
+   {
+      checkClosed();
+
+      while (0 < len)
+      {
+         int toCopy = Math.min(len, BLOCK_SIZE - _blockLength);
+         System.arraycopy(b, off, _block, _blockLength, toCopy);
+         _blockLength += toCopy;
+         off += toCopy;
+         len -= toCopy;
+
+         if (BLOCK_SIZE == _blockLength)
+         {
+            submitBlock(false);
+         }
+      }
+   }
+
+   private void submitBlock(boolean last) throws IOException
+   {
+      final byte[] block = _block;
+      final int blockLength = _blockLength;
+      final byte[] dictionary = _dictionary;
+
+      _crc.update(block, 0, blockLength);
+      _uncompressedSize += blockLength;
+
+      if (false == last)
+      {
+         // Blocks other than the last are always full.
+         _dictionary = Arrays.copyOfRange(block, blockLength - DICTIONARY_SIZE, blockLength);
+         _block = new byte[BLOCK_SIZE];
+         _blockLength = 0;
+      }
+
+      _pendingBlocks.add(_executor.submit(() -> compress(block, blockLength, dictionary, last)));
+
+      while (_pendingBlocks.size() > _maxPendingBlocks)
+      {
+         writeNextPendingBlock();
+      }
+   }
+
+   private static byte[] compress(byte[] block, int blockLength, byte[] dictionary, boolean last)
+   {
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      try
+      {
+         if (null != dictionary)
+         {
+            deflater.setDictionary(dictionary);
+         }
+         deflater.setInput(block, 0, blockLength);
+
+         ByteArrayOutputStream ret = new ByteArrayOutputStream(blockLength / 3);
+         byte[] buf = new byte[65536];
+
+         if (last)
+         {
+            deflater.finish();
+            while (false == deflater.finished())
+            {
+               int len = deflater.deflate(buf);
+               ret.write(buf, 0, len);
+            }
+         }
+         else
+         {
+            int len;
+            do
+            {
+               len = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+               ret.write(buf, 0, len);
+            }
+            while (len == buf.length);
+         }
+
+         return ret.toByteArray();
+      }
+      finally
+      {
+         deflater.end();
+      }
+   }
+
+   private void writeNextPendingBlock() throws IOException
+   {
+      try
+      {
+         _out.write(_pendingBlocks.poll().get());
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while compressing");
+      }
+      catch (ExecutionException e)
+      {
+         throw new IOException("Failed to compress", e.getCause());
+      }
+   }
+
+   @Override
+   public void flush() throws IOException
+   {
+      checkClosed();
+
+      while (false == _pendingBlocks.isEmpty() && _pendingBlocks.peek().isDone())
+      {
+         writeNextPendingBlock();
+      }
+      _out.flush();
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      if (_closed)
+      {
+         return;
+      }
+      _closed = true;
+
+      try
+      {
+         submitBlock(true);
+
+         while (false == _pendingBlocks.isEmpty())
+         {
+            writeNextPendingBlock();
+         }
+
+         writeIntLittleEndian((int) _crc.getValue());
+         writeIntLittleEndian((int) _uncompressedSize);
+      }
+      finally
+      {
+         _executor.shutdownNow();
+         _out.close();
+      }
+   }
+
+   private void writeIntLittleEndian(int i) throws IOException
+   {
+      _out.write(i & 0xff);
+      _out.write((i >> 8) & 0xff);
+      _out.write((i >> 16) & 0xff);
+      _out.write((i >> 24) & 0xff);
+   }
+
+   private void checkClosed() throws IOException
+   {
+      if (_closed)
+      {
+         throw new IOException("Stream closed");
+      }
+   }
+}
@@ -0,0 +1,340 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+import net.sourceforge.squirrel_sql.fw.sql.ProgressAbortCallback;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+import net.sourceforge.squirrel_sql.fw.util.Utilities;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Exports the results of multiple SQLs to multiple files concurrently.
+ *
+ * Each SQL's result is fetched on one of up to {@link TableExportPreferences#getParallelExportConnections()}
+ * worker connections. The rows are formatted by the usual writers ({@link DataExportCSVWriter}, {@link DataExportXMLWriter},
+ * {@link DataExportJSONWriter}) on separate threads, see {@link PipelinedResultSetExportData}.
+ *
+ * Not used for MS Excel exports because all results go into one workbook file there.
+ */
+public class ParallelResultSetExport
+{
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(ParallelResultSetExport.class);
+   private static final ILogger s_log = LoggerController.createLogger(ParallelResultSetExport.class);
+
+   private static final long STATUS_UPDATE_MILLIS = 5000;
+
+   private final ExportConnectionFactory _connectionFactory;
+   private final DialectType _dialect;
+   private final int _maxRows;
+   private final int _workerCount;
+
+   private final List<Connection> _createdConnections = new ArrayList<>();
+   private final LinkedBlockingQueue<Connection> _idleConnections = new LinkedBlockingQueue<>();
+
+   /**
+    * @param maxRows 0 means no limit.
+    */
+   public ParallelResultSetExport(ExportConnectionFactory connectionFactory, DialectType dialect, int maxRows, int workerCount)
+   {
+      _connectionFactory = connectionFactory;
+      _dialect = dialect;
+      _maxRows = maxRows;
+      _workerCount = workerCount;
+   }
+
+   public static boolean isApplicable(ExportConnectionFactory connectionFactory, TableExportPreferences prefs, int sqlCount)
+   {
+      return null != connectionFactory
+             && 1 < prefs.getParallelExportConnections()
+             && 1 < sqlCount
+             && false == prefs.isFormatXLS()
+             && false == prefs.isFormatXLSOld();
+   }
+
+   /**
+    * The returned data is to be put into the {@link ExportDataInfoList} passed to {@link #writeFiles(ExportDataInfoList, TableExportPreferences, ProgressAbortCallback)}.
+    * The SQL is not executed before the files are written.
+    */
+   public IExportData createExportData(String sql, String exportName)
+   {
+      return new PipelinedResultSetExportData(sql, exportName);
+   }
+
+   /**
+    * @return the number of written data rows or a negative value, if not the whole data are exported.
+    */
+   long writeFiles(ExportDataInfoList exportDataInfoList, TableExportPreferences prefs, ProgressAbortCallback progressController) throws Exception
+   {
+      List<ExportDataInfo> exportDataInfos = exportDataInfoList.getExportDataInfos();
+      int threadCount = Math.min(_workerCount, exportDataInfos.size());
+
+      // Both pools take the SQLs in the same order. So the writer of a result is always started
+      // before or while its rows are fetched and a fetch blocked by a full queue can't stall the writers.
+      ExecutorService fetchExecutor = Executors.newFixedThreadPool(threadCount, r -> createDaemonThread(r, "Export Fetch Thread"));
+      ExecutorService formatExecutor = Executors.newFixedThreadPool(threadCount, r -> createDaemonThread(r, "Export Format Thread"));
+
+      List<PipelinedResultSetExportData> streams = new ArrayList<>();
+      List<Future<Long>> writerFutures = new ArrayList<>();
+      try
+      {
+         ProgressAbortCallback streamProgressCallback = null == progressController ? null : new StreamProgressAbortCallback(progressController);
+
+         for (ExportDataInfo exportDataInfo : exportDataInfos)
+         {
+            PipelinedResultSetExportData stream = (PipelinedResultSetExportData) exportDataInfo.getExportData();
+            streams.add(stream);
+
+            File file = ExportFileWriter.checkAndPrepareExportFile(exportDataInfo.getFile(prefs));
+            writerFutures.add(formatExecutor.submit(() -> ExportFileWriter.createFileWriter(file, prefs, streamProgressCallback).write(stream)));
+            fetchExecutor.submit(() -> fetch(stream));
+         }
+
+         return awaitWriters(writerFutures, streams, progressController);
+      }
+      finally
+      {
+         streams.forEach(s -> s.close());
+         fetchExecutor.shutdown();
+         formatExecutor.shutdown();
+
+         awaitTermination(fetchExecutor, formatExecutor);
+         closeConnections();
+      }
+   }
+
+   /**
+    * The fetch threads must have ended before their connections are closed.
+    * Fetches that don't notice the closed streams within a minute are interrupted.
+    */
+   private static void awaitTermination(ExecutorService fetchExecutor, ExecutorService formatExecutor) throws InterruptedException
+   {
+      if (fetchExecutor.awaitTermination(1, TimeUnit.MINUTES))
+      {
+         return;
+      }
+
+      s_log.warn("Export fetch threads did not end within a minute after the export finished. Interrupting them.");
+      fetchExecutor.shutdownNow();
+      formatExecutor.shutdownNow();
+
+      if (false == fetchExecutor.awaitTermination(1, TimeUnit.MINUTES))
+      {
+         s_log.error("Export fetch threads did not end after being interrupted. Their connections are closed anyway.");
+      }
+   }
+
+   private long awaitWriters(List<Future<Long>> writerFutures, List<PipelinedResultSetExportData> streams, ProgressAbortCallback progressController) throws Exception
+   {
+      long ret = 0;
+      for (int i = 0; i < writerFutures.size(); i++)
+      {
+         long writtenRows;
+         while (true)
+         {
+            try
+            {
+               writtenRows = writerFutures.get(i).get(STATUS_UPDATE_MILLIS, TimeUnit.MILLISECONDS);
+               break;
+            }
+            catch (TimeoutException e)
+            {
+               reportStatus(streams, progressController);
+            }
+            catch (ExecutionException e)
+            {
+               throw e.getCause() instanceof Exception ? (Exception) e.getCause() : Utilities.wrapRuntime(e.getCause());
+            }
+         }
+
+         if (0 > writtenRows)
+         {
+            // Canceled by the user
+            return -1;
+         }
+
+         ret += writtenRows;
+      }
+
+      reportStatus(streams, progressController);
+      return ret;
+   }
+
+   private void reportStatus(List<PipelinedResultSetExportData> streams, ProgressAbortCallback progressController)
+   {
+      if (null == progressController)
+      {
+         return;
+      }
+
+      NumberFormat nf = NumberFormat.getInstance();
+
+      String status =
+            streams.stream()
+                   .filter(s -> s.isFetchStarted())
+                   .map(s -> s_stringMgr.getString("ParallelResultSetExport.stream.status",
+                                                   s.getExportName(),
+                                                   nf.format(s.getFetchedRowCount()),
+                                                   nf.format(s.getRowsPerSecond()),
+                                                   s.isFetchFinished() ? s_stringMgr.getString("ParallelResultSetExport.stream.finished") : ""))
+                   .collect(Collectors.joining("\n"));
+
+      progressController.setTaskStatus(status);
+   }
+
+   private void fetch(PipelinedResultSetExportData stream)
+   {
+      Connection con;
+      try
+      {
+         con = checkOutConnection();
+      }
+      catch (Exception e)
+      {
+         s_log.error("Failed to create connection for export", e);
+         stream.fetchFailed(e);
+         return;
+      }
+
+      try
+      {
+         stream.fetch(con, _dialect, _maxRows);
+      }
+      finally
+      {
+         _idleConnections.add(con);
+      }
+   }
+
+   /**
+    * There are never more concurrent fetches than worker threads. So at most one connection per worker thread is created.
+    */
+   private Connection checkOutConnection() throws SQLException
+   {
+      Connection ret = _idleConnections.poll();
+      if (null != ret)
+      {
+         return ret;
+      }
+
+      ret = _connectionFactory.createConnection();
+      if (null == ret)
+      {
+         throw new SQLException("Failed to create connection");
+      }
+
+      synchronized (_createdConnections)
+      {
+         _createdConnections.add(ret);
+      }
+      return ret;
+   }
+
+   private void closeConnections()
+   {
+      synchronized (_createdConnections)
+      {
+         for (Connection con : _createdConnections)
+         {
+            try
+            {
+               con.close();
+            }
+            catch (Exception e)
+            {
+               s_log.error("Failed to close export connection", e);
+            }
+         }
+         _createdConnections.clear();
+      }
+   }
+
+   private static Thread createDaemonThread(Runnable r, String name)
+   {
+      Thread ret = new Thread(r, name);
+      ret.setDaemon(true);
+      return ret;
+   }
+
+   /**
+    * Given to the writers of the single results. Passes only cancel requests through,
+    * the status of all results is reported by {@link #reportStatus(List, ProgressAbortCallback)}.
+    */
+   private static class StreamProgressAbortCallback implements ProgressAbortCallback
+   {
+      private final ProgressAbortCallback _delegate;
+
+      private StreamProgressAbortCallback(ProgressAbortCallback delegate)
+      {
+         _delegate = delegate;
+      }
+
+      @Override
+      public boolean isUserCanceled()
+      {
+         return _delegate.isUserCanceled();
+      }
+
+      @Override
+      public boolean isVisible()
+      {
+         return _delegate.isVisible();
+      }
+
+      @Override
+      public void setTaskStatus(String status)
+      {
+      }
+
+      @Override
+      public void setFinished()
+      {
+      }
+
+      @Override
+      public void currentlyLoading(String simpleName)
+      {
+      }
+
+      @Override
+      public void setLoadingPrefix(String loadingPrefix)
+      {
+      }
+
+      @Override
+      public void setVisible(boolean b)
+      {
+      }
+
+      @Override
+      public void setTotalItems(int totalItems)
+      {
+      }
+
+      @Override
+      public boolean finishedLoading()
+      {
+         return false;
+      }
+
+      @Override
+      public void dispose()
+      {
+      }
+   }
+}
@@ -0,0 +1,254 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import net.sourceforge.squirrel_sql.fw.dialects.DialectType;
+import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link IExportData} of one SQL of a {@link ParallelResultSetExport}.
+ * The rows are fetched by {@link #fetch(Connection, DialectType, int)} on one thread
+ * and passed through a bounded queue to the writer that formats them on another thread.
+ */
+class PipelinedResultSetExportData implements IExportData
+{
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(PipelinedResultSetExportData.class);
+
+   private static final int QUEUE_CAPACITY = 1000;
+   private static final ExportDataRow END_OF_ROWS = new ExportDataRow(Collections.emptyList(), 0);
+
+   private final String _sql;
+   private final String _exportName;
+
+   private final BlockingQueue<ExportDataRow> _rows = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+   private final CompletableFuture<List<String>> _headers = new CompletableFuture<>();
+
+   private volatile boolean _closed;
+   private volatile RuntimeException _fetchFailure;
+   private volatile long _fetchedRowCount;
+   private volatile long _fetchBeginMillis;
+   private volatile long _fetchEndMillis;
+
+   PipelinedResultSetExportData(String sql, String exportName)
+   {
+      _sql = sql;
+      _exportName = exportName;
+   }
+
+   /**
+    * Executes the SQL and puts its rows into the queue. Blocks while the queue is full.
+    *
+    * @param maxRows 0 means no limit.
+    */
+   void fetch(Connection con, DialectType dialect, int maxRows)
+   {
+      _fetchBeginMillis = System.currentTimeMillis();
+
+      ResultSetExportData resultSetExportData = null;
+      try
+      {
+         Statement stat = SQLUtilities.createStatementForStreamingResults(con, dialect);
+         if (0 < maxRows)
+         {
+            stat.setMaxRows(maxRows);
+         }
+
+         resultSetExportData = new ResultSetExportData(stat, _sql, dialect);
+
+         List<String> headers = new ArrayList<>();
+         resultSetExportData.getHeaders().forEachRemaining(headers::add);
+         _headers.complete(headers);
+
+         Iterator<ExportDataRow> rows = resultSetExportData.getRows();
+         while (false == _closed && rows.hasNext())
+         {
+            if (put(rows.next()))
+            {
+               ++_fetchedRowCount;
+            }
+         }
+      }
+      catch (SQLException e)
+      {
+         _fetchFailure = new RuntimeException(s_stringMgr.getString("ResultSetExportCommand.errorExecuteStatement") + " " + _sql, e);
+      }
+      catch (RuntimeException e)
+      {
+         _fetchFailure = e;
+      }
+      finally
+      {
+         if (null != resultSetExportData)
+         {
+            resultSetExportData.close();
+         }
+
+         if (null != _fetchFailure)
+         {
+            _headers.completeExceptionally(_fetchFailure);
+         }
+
+         _fetchEndMillis = System.currentTimeMillis();
+         put(END_OF_ROWS);
+      }
+   }
+
+   /**
+    * Called instead of {@link #fetch(Connection, DialectType, int)} when no connection could be provided.
+    * Makes the writer fail instead of waiting for rows forever.
+    */
+   void fetchFailed(Exception e)
+   {
+      _fetchFailure = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+      _headers.completeExceptionally(_fetchFailure);
+      _fetchEndMillis = System.currentTimeMillis();
+      put(END_OF_ROWS);
+   }
+
+   /**
+    * @return false if the writer closed this data before the row could be queued.
+    */
+   private boolean put(ExportDataRow row)
+   {
+      try
+      {
+         while (false == _closed)
+         {
+            if (_rows.offer(row, 100, TimeUnit.MILLISECONDS))
+            {
+               return true;
+            }
+         }
+         return false;
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+   }
+
+   @Override
+   public Iterator<String> getHeaders()
+   {
+      try
+      {
+         return _headers.get().iterator();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+      catch (ExecutionException e)
+      {
+         throw (RuntimeException) e.getCause();
+      }
+   }
+
+   @Override
+   public Iterator<ExportDataRow> getRows()
+   {
+      return new Iterator<>()
+      {
+         private ExportDataRow _next;
+
+         @Override
+         public boolean hasNext()
+         {
+            if (null == _next)
+            {
+               _next = take();
+            }
+
+            if (END_OF_ROWS == _next)
+            {
+               if (null != _fetchFailure)
+               {
+                  throw _fetchFailure;
+               }
+               return false;
+            }
+            return true;
+         }
+
+         @Override
+         public ExportDataRow next()
+         {
+            if (false == hasNext())
+            {
+               throw new NoSuchElementException();
+            }
+
+            ExportDataRow ret = _next;
+            _next = null;
+            return ret;
+         }
+      };
+   }
+
+   private ExportDataRow take()
+   {
+      try
+      {
+         return _rows.take();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Called by the writer when it is done, e.g. because the user canceled, and by
+    * {@link ParallelResultSetExport} when the export ends. Stops fetching and lets a waiting writer finish.
+    */
+   @Override
+   public void close()
+   {
+      _closed = true;
+      _rows.clear();
+      _rows.offer(END_OF_ROWS);
+   }
+
+   String getExportName()
+   {
+      return _exportName;
+   }
+
+   long getFetchedRowCount()
+   {
+      return _fetchedRowCount;
+   }
+
+   boolean isFetchStarted()
+   {
+      return 0 < _fetchBeginMillis;
+   }
+
+   boolean isFetchFinished()
+   {
+      return 0 < _fetchEndMillis;
+   }
+
+   long getRowsPerSecond()
+   {
+      long end = isFetchFinished() ? _fetchEndMillis : System.currentTimeMillis();
+      return _fetchedRowCount * 1000L / Math.max(1, end - _fetchBeginMillis);
+   }
+}
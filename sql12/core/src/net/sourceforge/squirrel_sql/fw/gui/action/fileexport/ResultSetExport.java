@@ -37,6 +37,19 @@ public class ResultSetExport
 
 
    public ResultSetExport(Connection con, List<SelectSQLInfo> selectSQLInfos, DialectType dialect, FileExportProgressManager fileExportProgressManager, Window owner)
+   {
+      this(con, selectSQLInfos, dialect, fileExportProgressManager, owner, null);
+   }
+
+   /**
+    * @param parallelExportConnectionFactory See {@link ParallelResultSetExport}. May be null.
+    */
+   public ResultSetExport(Connection con,
+                          List<SelectSQLInfo> selectSQLInfos,
+                          DialectType dialect,
+                          FileExportProgressManager fileExportProgressManager,
+                          Window owner,
+                          ExportConnectionFactory parallelExportConnectionFactory)
    {
       final ExporterCallback exporterCallback = () -> fileExportProgressManager.getOrCreateProgressCallback();
 
@@ -45,7 +58,7 @@ public class ResultSetExport
       GUIUtils.processOnSwingEventThread(() ->
                                          {
                                             exportControllerRef[0] =
-                                                  new ExportController(new ExportSourceAccess(selectSQLInfos, con, dialect), owner, ExportDialogType.RESULT_SET_EXPORT);
+                                                  new ExportController(new ExportSourceAccess(selectSQLInfos, con, dialect, parallelExportConnectionFactory), owner, ExportDialogType.RESULT_SET_EXPORT);
                                             exportControllerRef[0].showDialog();
                                          }, true);
 
@@ -38,6 +38,12 @@ public class TableExportPreferences
    // PREF_KEY_FORMAT_JSON
    private boolean _formatJSON = false;
 
+   // PREF_KEY_FORMAT_COLUMNAR
+   private boolean _formatColumnar = false;
+
+   // PREF_KEY_COMPRESS_GZIP
+   private boolean _compressGzip = false;
+
    // PREF_KEY_EXPORT_COMPLETE
    private boolean _exportComplete = true;
 
@@ -59,6 +65,9 @@ public class TableExportPreferences
    private boolean _exportMultipleSQLResults;
    private boolean _limitRowsChecked;
 
+   // PREF_KEY_PARALLEL_EXPORT_CONNECTIONS
+   private int _parallelExportConnections = 1;
+
    public boolean isFormatXLS()
    {
       return _formatXLS;
@@ -159,6 +168,26 @@ public class TableExportPreferences
       _formatJSON = formatJSON;
    }
 
+   public boolean isFormatColumnar()
+   {
+      return _formatColumnar;
+   }
+
+   public void setFormatColumnar(boolean formatColumnar)
+   {
+      _formatColumnar = formatColumnar;
+   }
+
+   public boolean isCompressGzip()
+   {
+      return _compressGzip;
+   }
+
+   public void setCompressGzip(boolean compressGzip)
+   {
+      _compressGzip = compressGzip;
+   }
+
    public boolean isExportCompleteTableOrSingleFile()
    {
       return _exportComplete;
@@ -239,6 +268,20 @@ public class TableExportPreferences
       _exportMultipleSQLResults = exportMultipleSQLResults;
    }
 
+   /**
+    * @return The number of connections the results of multiple SQLs are fetched on concurrently, see {@link ParallelResultSetExport}.
+    * 1 means the results are exported one after the other.
+    */
+   public int getParallelExportConnections()
+   {
+      return _parallelExportConnections;
+   }
+
+   public void setParallelExportConnections(int parallelExportConnections)
+   {
+      _parallelExportConnections = Math.max(1, parallelExportConnections);
+   }
+
    public boolean isLimitRowsChecked()
    {
       return _limitRowsChecked;
@@ -21,9 +21,12 @@ public class TableExportPreferencesDAO
    private static final String PREF_KEY_FORMAT_XLS_OLD = "SquirrelSQL.csvexport.formatXLS_OLD"; // is xls
    private static final String PREF_KEY_FORMAT_XML = "SquirrelSQL.csvexport.formatXML";
    private static final String PREF_KEY_FORMAT_JSON = "SquirrelSQL.csvexport.formatJSON";
+   private static final String PREF_KEY_FORMAT_COLUMNAR = "SquirrelSQL.csvexport.formatColumnar";
+   private static final String PREF_KEY_COMPRESS_GZIP = "SquirrelSQL.csvexport.compressGzip";
 
    private static final String PREF_KEY_LIMIT_ROWS = "SquirrelSQL.sqlexport.limitRows";
    private static final String PREF_KEY_LIMIT_ROWS_CHECKED = "SquirrelSQL.sqlexport.limitRowsChecked";
+   private static final String PREF_KEY_PARALLEL_EXPORT_CONNECTIONS = "SquirrelSQL.sqlexport.parallelExportConnections";
 
 
    public static TableExportPreferences loadPreferences()
@@ -47,9 +50,12 @@ public class TableExportPreferencesDAO
       ret.setFormatXLSOld(Props.getBoolean(PREF_KEY_FORMAT_XLS_OLD, ret.isFormatXLSOld()));
       ret.setFormatXML(Props.getBoolean(PREF_KEY_FORMAT_XML, ret.isFormatXML()));
       ret.setFormatJSON(Props.getBoolean(PREF_KEY_FORMAT_JSON, ret.isFormatJSON()));
+      ret.setFormatColumnar(Props.getBoolean(PREF_KEY_FORMAT_COLUMNAR, ret.isFormatColumnar()));
+      ret.setCompressGzip(Props.getBoolean(PREF_KEY_COMPRESS_GZIP, ret.isCompressGzip()));
 
       ret.setRowsLimit(Props.getString(PREF_KEY_LIMIT_ROWS, ret.getRowsLimit()));
       ret.setLimitRowsChecked(Props.getBoolean(PREF_KEY_LIMIT_ROWS_CHECKED, ret.isLimitRowsChecked()));
+      ret.setParallelExportConnections(Props.getInt(PREF_KEY_PARALLEL_EXPORT_CONNECTIONS, ret.getParallelExportConnections()));
 
       return ret;
    }
@@ -73,9 +79,12 @@ public class TableExportPreferencesDAO
       Props.putBoolean(PREF_KEY_FORMAT_XLS_OLD, prefs.isFormatXLSOld());
       Props.putBoolean(PREF_KEY_FORMAT_XML, prefs.isFormatXML());
       Props.putBoolean(PREF_KEY_FORMAT_JSON, prefs.isFormatJSON());
+      Props.putBoolean(PREF_KEY_FORMAT_COLUMNAR, prefs.isFormatColumnar());
+      Props.putBoolean(PREF_KEY_COMPRESS_GZIP, prefs.isCompressGzip());
 
       Props.putString(PREF_KEY_LIMIT_ROWS, prefs.getRowsLimit());
       Props.putBoolean(PREF_KEY_LIMIT_ROWS_CHECKED   , prefs.isLimitRowsChecked());
+      Props.putInt(PREF_KEY_PARALLEL_EXPORT_CONNECTIONS, prefs.getParallelExportConnections());
    }
 
    public static TableExportPreferences createExportPreferencesForFile(String fileName)
@@ -84,6 +93,14 @@ public class TableExportPreferencesDAO
 
       prefs.setFile(fileName);
 
+      // The file name decides, not the compression last chosen in the export dialog.
+      prefs.setCompressGzip(FileEndings.GZIP.fileEndsWith(fileName));
+      if(prefs.isCompressGzip())
+      {
+         // E.g. export.csv.gz
+         fileName = fileName.substring(0, fileName.length() - FileEndings.GZIP.get().length() - 1);
+      }
+
       if(FileEndings.CSV.fileEndsWith(fileName))
       {
          prefs.setFormatCSV(true);
@@ -91,6 +108,7 @@ public class TableExportPreferencesDAO
          prefs.setFormatXLS(false);
          prefs.setFormatXML(false);
          prefs.setFormatJSON(false);
+         prefs.setFormatColumnar(false);
       }
       else if(FileEndings.XLS.fileEndsWith(fileName))
       {
@@ -99,6 +117,7 @@ public class TableExportPreferencesDAO
          prefs.setFormatXLS(false);
          prefs.setFormatXML(false);
          prefs.setFormatJSON(false);
+         prefs.setFormatColumnar(false);
       }
       else if(FileEndings.XLSX.fileEndsWith(fileName))
       {
@@ -107,6 +126,7 @@ public class TableExportPreferencesDAO
          prefs.setFormatXLS(true);
          prefs.setFormatXML(false);
          prefs.setFormatJSON(false);
+         prefs.setFormatColumnar(false);
       }
       else if(FileEndings.XML.fileEndsWith(fileName))
       {
@@ -115,6 +135,7 @@ public class TableExportPreferencesDAO
          prefs.setFormatXLS(false);
          prefs.setFormatXML(true);
          prefs.setFormatJSON(false);
+         prefs.setFormatColumnar(false);
       }
       else if(FileEndings.JSON.fileEndsWith(fileName))
       {
@@ -123,6 +144,16 @@ public class TableExportPreferencesDAO
          prefs.setFormatXLS(false);
          prefs.setFormatXML(false);
          prefs.setFormatJSON(true);
+         prefs.setFormatColumnar(false);
+      }
+      else if(FileEndings.COLUMNAR.fileEndsWith(fileName))
+      {
+         prefs.setFormatCSV(false);
+         prefs.setFormatXLSOld(false);
+         prefs.setFormatXLS(false);
+         prefs.setFormatXML(false);
+         prefs.setFormatJSON(false);
+         prefs.setFormatColumnar(true);
       }
       // else use the prefs predefined format
 
@@ -12,6 +12,7 @@ import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
@@ -39,6 +40,7 @@ public class TableExportSelectionPanel extends JPanel
    // Not null for ExportDialogType.RESULT_SET_EXPORT only
    JCheckBox chkLimitRows;
    IntegerField txtLimitRows;
+   IntegerField txtParallelExportConnections;
    //
    //////////////////////////////////////////////////////////////
 
@@ -119,9 +121,18 @@ public class TableExportSelectionPanel extends JPanel
       pnlLimit.add(chkLimitRows);
       txtLimitRows = new IntegerField(5);
       pnlLimit.add(txtLimitRows);
-      gbc = new GridBagConstraints(1, 0, 1, GridBagConstraints.REMAINDER, 1, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
+      gbc = new GridBagConstraints(1, 0, 1, 1, 1, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(0, 0, 0, 0), 0, 0);
       ret.add(pnlLimit, gbc);
 
+      JPanel pnlParallel = new JPanel(new GridLayout(1,2,5,5));
+      JLabel lblParallelExportConnections = new JLabel(s_stringMgr.getString("TableExportSelectionPanel.parallel.export.connections"));
+      lblParallelExportConnections.setToolTipText(s_stringMgr.getString("TableExportSelectionPanel.parallel.export.connections.tooltip"));
+      pnlParallel.add(lblParallelExportConnections);
+      txtParallelExportConnections = new IntegerField(5);
+      pnlParallel.add(txtParallelExportConnections);
+      gbc = new GridBagConstraints(1, 1, 1, 1, 1, 0, GridBagConstraints.EAST, GridBagConstraints.NONE, new Insets(5, 0, 0, 0), 0, 0);
+      ret.add(pnlParallel, gbc);
+
       return ret;
    }
 
@@ -307,6 +307,7 @@ public class TableExportSelectionPanelController
       {
          _pnl.chkLimitRows.setSelected(prefs.isLimitRowsChecked());
          _pnl.txtLimitRows.setText(prefs.getRowsLimit());
+         _pnl.txtParallelExportConnections.setInt(prefs.getParallelExportConnections());
       }
 
       updateUI();
@@ -334,6 +335,7 @@ public class TableExportSelectionPanelController
       {
          prefs.setLimitRowsChecked(_pnl.chkLimitRows.isSelected());
          prefs.setRowsLimit(_pnl.txtLimitRows.getText());
+         prefs.setParallelExportConnections(_pnl.txtParallelExportConnections.getInt());
       }
    }
 
@@ -353,6 +355,7 @@ public class TableExportSelectionPanelController
       if(_exportDialogType == ExportDialogType.RESULT_SET_EXPORT)
       {
          _pnl.txtLimitRows.setEnabled(_pnl.chkLimitRows.isSelected());
+         _pnl.txtParallelExportConnections.setEnabled(_pnl.radMultipleSQLRes.isSelected());
       }
 
       if(_pnl.radMultipleSQLRes.isSelected())
@@ -0,0 +1,195 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Reads structs of the Thrift compact protocol that Parquet uses for its page headers and file footer.
+ * A struct is read completely into a {@link Struct}, fields unknown to the caller are just not asked for.
+ */
+class ThriftCompactReader
+{
+   private ThriftCompactReader()
+   {
+   }
+
+   static Struct readStruct(DataInput in) throws IOException
+   {
+      Struct ret = new Struct();
+
+      int lastFieldId = 0;
+      while (true)
+      {
+         int header = in.readUnsignedByte();
+         if (0 == header)
+         {
+            return ret;
+         }
+
+         byte type = (byte) (header & 0x0F);
+         int delta = header >>> 4;
+         int fieldId = 0 == delta ? (int) unZigZag(readVarLong(in)) : lastFieldId + delta;
+         lastFieldId = fieldId;
+
+         if (ThriftCompactWriter.TYPE_BOOLEAN_TRUE == type || ThriftCompactWriter.TYPE_BOOLEAN_FALSE == type)
+         {
+            ret._valueByFieldId.put(fieldId, ThriftCompactWriter.TYPE_BOOLEAN_TRUE == type);
+         }
+         else
+         {
+            ret._valueByFieldId.put(fieldId, readValue(in, type));
+         }
+      }
+   }
+
+   private static Object readValue(DataInput in, byte type) throws IOException
+   {
+      switch (type)
+      {
+         case ThriftCompactWriter.TYPE_BOOLEAN_TRUE:
+         case ThriftCompactWriter.TYPE_BOOLEAN_FALSE:
+            // Within lists booleans take one byte.
+            return 1 == in.readByte();
+         case ThriftCompactWriter.TYPE_BYTE:
+            return (long) in.readByte();
+         case ThriftCompactWriter.TYPE_I16:
+         case ThriftCompactWriter.TYPE_I32:
+         case ThriftCompactWriter.TYPE_I64:
+            return unZigZag(readVarLong(in));
+         case ThriftCompactWriter.TYPE_DOUBLE:
+            byte[] doubleBytes = new byte[8];
+            in.readFully(doubleBytes);
+            return doubleBytes;
+         case ThriftCompactWriter.TYPE_BINARY:
+            byte[] bytes = new byte[checkSize(readVarLong(in))];
+            in.readFully(bytes);
+            return bytes;
+         case ThriftCompactWriter.TYPE_LIST:
+         case ThriftCompactWriter.TYPE_SET:
+            int listHeader = in.readUnsignedByte();
+            int size = listHeader >>> 4;
+            if (15 == size)
+            {
+               size = checkSize(readVarLong(in));
+            }
+            byte elementType = (byte) (listHeader & 0x0F);
+
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+            {
+               list.add(readValue(in, elementType));
+            }
+            return list;
+         case ThriftCompactWriter.TYPE_MAP:
+            int mapSize = checkSize(readVarLong(in));
+            if (0 < mapSize)
+            {
+               int keyValueTypes = in.readUnsignedByte();
+               for (int i = 0; i < mapSize; i++)
+               {
+                  readValue(in, (byte) (keyValueTypes >>> 4));
+                  readValue(in, (byte) (keyValueTypes & 0x0F));
+               }
+            }
+            // Parquet's metadata has no maps, so we skip them.
+            return null;
+         case ThriftCompactWriter.TYPE_STRUCT:
+            return readStruct(in);
+         default:
+            throw new IOException("Corrupt Parquet file: Unknown Thrift type " + type);
+      }
+   }
+
+   private static int checkSize(long size) throws IOException
+   {
+      if (0 > size || Integer.MAX_VALUE < size)
+      {
+         throw new IOException("Corrupt Parquet file: Invalid Thrift size " + size);
+      }
+      return (int) size;
+   }
+
+   private static long readVarLong(DataInput in) throws IOException
+   {
+      long ret = 0;
+      for (int shift = 0; shift < 64; shift += 7)
+      {
+         byte b = in.readByte();
+         ret |= (long) (b & 0x7F) << shift;
+         if (0 == (b & 0x80))
+         {
+            return ret;
+         }
+      }
+      throw new IOException("Corrupt Parquet file: Variable length number too long");
+   }
+
+   private static long unZigZag(long value)
+   {
+      return (value >>> 1) ^ -(value & 1);
+   }
+
+   static class Struct
+   {
+      private final HashMap<Integer, Object> _valueByFieldId = new HashMap<>();
+
+      boolean has(int fieldId)
+      {
+         return _valueByFieldId.containsKey(fieldId);
+      }
+
+      long getLong(int fieldId) throws IOException
+      {
+         return (Long) getRequired(fieldId);
+      }
+
+      int getInt(int fieldId, int defaultValue)
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         return value instanceof Long ? (int) (long) (Long) value : defaultValue;
+      }
+
+      boolean getBoolean(int fieldId, boolean defaultValue)
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         return value instanceof Boolean ? (Boolean) value : defaultValue;
+      }
+
+      String getString(int fieldId)
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         return value instanceof byte[] ? new String((byte[]) value, StandardCharsets.UTF_8) : null;
+      }
+
+      /**
+       * @return null if the field is missing.
+       */
+      Struct getStruct(int fieldId)
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         return value instanceof Struct ? (Struct) value : null;
+      }
+
+      @SuppressWarnings("unchecked")
+      List<Object> getList(int fieldId)
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         return value instanceof List ? (List<Object>) value : Collections.emptyList();
+      }
+
+      private Object getRequired(int fieldId) throws IOException
+      {
+         Object value = _valueByFieldId.get(fieldId);
+         if (null == value)
+         {
+            throw new IOException("Corrupt Parquet file: Missing required field " + fieldId);
+         }
+         return value;
+      }
+   }
+}
@@ -0,0 +1,158 @@
+package net.sourceforge.squirrel_sql.fw.gui.action.fileexport;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+/**
+ * Writes the Thrift compact protocol that Parquet uses for its page headers and file footer.
+ * Just the parts needed by {@link DataExportColumnarWriter}: Structs, lists, integers, booleans and strings.
+ * <p>
+ * Fields must be written in the order of their ids, lists must be given their size in advance.
+ */
+class ThriftCompactWriter
+{
+   static final byte TYPE_BOOLEAN_TRUE = 1;
+   static final byte TYPE_BOOLEAN_FALSE = 2;
+   static final byte TYPE_BYTE = 3;
+   static final byte TYPE_I16 = 4;
+   static final byte TYPE_I32 = 5;
+   static final byte TYPE_I64 = 6;
+   static final byte TYPE_DOUBLE = 7;
+   static final byte TYPE_BINARY = 8;
+   static final byte TYPE_LIST = 9;
+   static final byte TYPE_SET = 10;
+   static final byte TYPE_MAP = 11;
+   static final byte TYPE_STRUCT = 12;
+
+   private final ByteArrayOutputStream _out = new ByteArrayOutputStream();
+
+   private final ArrayDeque<Integer> _lastFieldIdStack = new ArrayDeque<>();
+   private int _lastFieldId;
+
+   void structBegin()
+   {
+      _lastFieldIdStack.push(_lastFieldId);
+      _lastFieldId = 0;
+   }
+
+   void structEnd()
+   {
+      _out.write(0);
+      _lastFieldId = _lastFieldIdStack.pop();
+   }
+
+   void fieldStructBegin(int fieldId)
+   {
+      fieldHeader(fieldId, TYPE_STRUCT);
+      structBegin();
+   }
+
+   /**
+    * Writes a field holding an empty struct, like the members of Parquet's LogicalType union.
+    */
+   void fieldEmptyStruct(int fieldId)
+   {
+      fieldStructBegin(fieldId);
+      structEnd();
+   }
+
+   void fieldBool(int fieldId, boolean value)
+   {
+      fieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+   }
+
+   void fieldByte(int fieldId, int value)
+   {
+      fieldHeader(fieldId, TYPE_BYTE);
+      _out.write(value);
+   }
+
+   void fieldI32(int fieldId, int value)
+   {
+      fieldHeader(fieldId, TYPE_I32);
+      writeVarLong(zigZag(value));
+   }
+
+   void fieldI64(int fieldId, long value)
+   {
+      fieldHeader(fieldId, TYPE_I64);
+      writeVarLong(zigZag(value));
+   }
+
+   void fieldString(int fieldId, String value)
+   {
+      fieldHeader(fieldId, TYPE_BINARY);
+      writeString(value);
+   }
+
+   /**
+    * Must be followed by size elements written by {@link #listI32(int)}, {@link #listString(String)} or {@link #structBegin()}.
+    */
+   void fieldListBegin(int fieldId, byte elementType, int size)
+   {
+      fieldHeader(fieldId, TYPE_LIST);
+
+      if (size < 15)
+      {
+         _out.write(size << 4 | elementType);
+      }
+      else
+      {
+         _out.write(0xF0 | elementType);
+         writeVarLong(size);
+      }
+   }
+
+   void listI32(int value)
+   {
+      writeVarLong(zigZag(value));
+   }
+
+   void listString(String value)
+   {
+      writeString(value);
+   }
+
+   byte[] toByteArray()
+   {
+      return _out.toByteArray();
+   }
+
+   private void fieldHeader(int fieldId, byte type)
+   {
+      int delta = fieldId - _lastFieldId;
+      if (0 < delta && delta <= 15)
+      {
+         _out.write(delta << 4 | type);
+      }
+      else
+      {
+         _out.write(type);
+         writeVarLong(zigZag(fieldId));
+      }
+      _lastFieldId = fieldId;
+   }
+
+   private void writeString(String value)
+   {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length);
+      _out.write(bytes, 0, bytes.length);
+   }
+
+   private void writeVarLong(long value)
+   {
+      while (0 != (value & ~0x7FL))
+      {
+         _out.write((int) ((value & 0x7F) | 0x80));
+         value >>>= 7;
+      }
+      _out.write((int) value);
+   }
+
+   private static long zigZag(long value)
+   {
+      return (value << 1) ^ (value >> 63);
+   }
+}
@@ -1,38 +1,41 @@
 package net.sourceforge.squirrel_sql.fw.gui.action.showdistinctvalues;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ColumnValueFrequencies;
 
 class DistinctValuesData
 {
-   private ArrayList<Object> distinctValuesInSourceTableOrder = new ArrayList();
-   private HashMap<Object, Integer> distinctValuesCount = new HashMap<>();
+   private ColumnValueFrequencies _frequencies;
+
+   DistinctValuesData()
+   {
+      this(new ColumnValueFrequencies());
+   }
+
+   /**
+    * @param frequencies Values computed by {@link net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ValueFrequencyService}. Must not be changed.
+    */
+   DistinctValuesData(ColumnValueFrequencies frequencies)
+   {
+      _frequencies = frequencies;
+   }
 
    public void addUnique(Object value)
    {
-      if(false == distinctValuesCount.containsKey(value))
-      {
-         distinctValuesInSourceTableOrder.add(value);
-         distinctValuesCount.put(value, 1);
-      }
-      else
-      {
-         distinctValuesCount.put(value, distinctValuesCount.get(value) + 1);
-      }
+      _frequencies.add(value);
    }
 
    public int size()
    {
-      return distinctValuesInSourceTableOrder.size();
+      return _frequencies.getDistinctCount();
    }
 
    public Object getValue(int rowIx)
    {
-      return distinctValuesInSourceTableOrder.get(rowIx);
+      return _frequencies.getDistinctValue(rowIx);
    }
 
    public Integer getValueCount(int rowIx)
    {
-      return distinctValuesCount.get(distinctValuesInSourceTableOrder.get(rowIx));
+      return _frequencies.getCount(rowIx);
    }
 }
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import net.sourceforge.squirrel_sql.fw.datasetviewer.ColumnDisplayDefinition;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ColumnValueFrequencies;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 
@@ -22,6 +23,14 @@ public class DistinctValuesHolder
       distinctValuesData.addUnique(value);
    }
 
+   /**
+    * Uses distinct values that were already computed for a whole column.
+    */
+   public void putDistinct(int colIx, ColumnValueFrequencies frequencies)
+   {
+      _colIx_distinctValuesData.put(colIx, new DistinctValuesData(frequencies));
+   }
+
    public List<Object[]> getDistinctRows()
    {
       ArrayList<Object[]> ret = new ArrayList<>();
@@ -1,6 +1,7 @@
 package net.sourceforge.squirrel_sql.fw.gui.action.showdistinctvalues;
 
 import net.sourceforge.squirrel_sql.fw.datasetviewer.*;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.valuefrequencies.ValueFrequencies;
 import net.sourceforge.squirrel_sql.fw.gui.table.SortableTableModel;
 import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
@@ -36,19 +37,29 @@ public class DistinctValuesTableUpdater
       {
          long begMillis = System.currentTimeMillis();
 
-         DistinctValuesHolder distinctValuesHolder = new DistinctValuesHolder();
-         for (int i=0; i < sourceTable.getDataSetViewerTableModel().getRowCount(); ++i)
+         sourceTable.getValueFrequencyService().getFrequencies(new int[]{selectedColumn.getModelIndex()}, valueFrequencies ->
          {
-            distinctValuesHolder.addDistinct(0, sourceTable.getValueAt(i, getViewColumnIndex(sourceTable, selectedColumn)));
-         }
+            if(false == _dlg.optDistinctInColumn.isSelected())
+            {
+               return;
+            }
 
-         final List<Object[]> distinctRows = distinctValuesHolder.getDistinctRows();
-         fillTablePanel(distinctRows, distinctValuesHolder.maybeAppendCountColumn(Collections.singletonList(selectedColumn.getColumnDisplayDefinition())));
+            if(writeTooManyValuesStatusBar(valueFrequencies, Collections.singletonList(selectedColumn)))
+            {
+               return;
+            }
 
-         long distinctValuesTime = System.currentTimeMillis() - begMillis;
-         s_log.info("Building distinct values took " + distinctValuesTime + " Milli seconds");
+            DistinctValuesHolder distinctValuesHolder = new DistinctValuesHolder();
+            distinctValuesHolder.putDistinct(0, valueFrequencies.getColumnFrequencies(selectedColumn.getModelIndex()));
+
+            final List<Object[]> distinctRows = distinctValuesHolder.getDistinctRows();
+            fillTablePanel(distinctRows, distinctValuesHolder.maybeAppendCountColumn(Collections.singletonList(selectedColumn.getColumnDisplayDefinition())));
 
-         _dlg.lblStatus.setText(s_stringMgr.getString("ShowDistinctValuesCtrl.numberOfDistinctValuesInColumn", selectedColumn.getColumnDisplayDefinition().getColumnName(), distinctRows.size()));
+            long distinctValuesTime = System.currentTimeMillis() - begMillis;
+            s_log.info("Building distinct values took " + distinctValuesTime + " Milli seconds");
+
+            _dlg.lblStatus.setText(s_stringMgr.getString("ShowDistinctValuesCtrl.numberOfDistinctValuesInColumn", selectedColumn.getColumnDisplayDefinition().getColumnName(), distinctRows.size()));
+         });
       }
       else if(_dlg.optDistinctInSelection.isSelected() )
       {
@@ -117,22 +128,35 @@ public class DistinctValuesTableUpdater
          if (_dlg.optDistinctInColumns.isSelected())
          {
             long begMillis = System.currentTimeMillis();
-            DistinctValuesHolder distinctValuesHolder = new DistinctValuesHolder();
-            for (int rowIx = 0; rowIx < sourceTable.getRowCount(); ++rowIx)
+
+            int[] columnModelIndexes = extTableColumns.stream().mapToInt(c -> c.getModelIndex()).toArray();
+
+            sourceTable.getValueFrequencyService().getFrequencies(columnModelIndexes, valueFrequencies ->
             {
+               if(false == _dlg.optDistinctInTable.isSelected() || false == _dlg.optDistinctInColumns.isSelected())
+               {
+                  return;
+               }
+
+               if(writeTooManyValuesStatusBar(valueFrequencies, extTableColumns))
+               {
+                  return;
+               }
+
+               DistinctValuesHolder distinctValuesHolder = new DistinctValuesHolder();
                for (int i = 0; i < extTableColumns.size(); i++)
                {
-                  distinctValuesHolder.addDistinct(i, sourceTable.getValueAt(rowIx, getViewColumnIndex(sourceTable, extTableColumns.get(i))));
+                  distinctValuesHolder.putDistinct(i, valueFrequencies.getColumnFrequencies(extTableColumns.get(i).getModelIndex()));
                }
-            }
 
-            List<ColumnDisplayDefinition> columnDisplayDefinitions = extTableColumns.stream().map(c -> c.getColumnDisplayDefinition()).collect(Collectors.toList());
-            fillTablePanel(distinctValuesHolder.getDistinctRows(), distinctValuesHolder.maybeAppendCountColumn(columnDisplayDefinitions));
+               List<ColumnDisplayDefinition> columnDisplayDefinitions = extTableColumns.stream().map(c -> c.getColumnDisplayDefinition()).collect(Collectors.toList());
+               fillTablePanel(distinctValuesHolder.getDistinctRows(), distinctValuesHolder.maybeAppendCountColumn(columnDisplayDefinitions));
 
-            long distinctValuesTime = System.currentTimeMillis() - begMillis;
-            s_log.info("Building distinct values took " + distinctValuesTime + " Milli seconds");
+               long distinctValuesTime = System.currentTimeMillis() - begMillis;
+               s_log.info("Building distinct values took " + distinctValuesTime + " Milli seconds");
 
-            writeDistinctInColumnsStatusBar(extTableColumns, distinctValuesHolder);
+               writeDistinctInColumnsStatusBar(extTableColumns, distinctValuesHolder);
+            });
          }
          else
          {
@@ -141,6 +165,27 @@ public class DistinctValuesTableUpdater
       }
    }
 
+   /**
+    * @return true if counting was given up for any of the columns.
+    */
+   private boolean writeTooManyValuesStatusBar(ValueFrequencies valueFrequencies, List<ExtTableColumn> extTableColumns)
+   {
+      List<String> tooManyValuesColumnNames = extTableColumns.stream()
+                                                             .filter(c -> valueFrequencies.getColumnFrequencies(c.getModelIndex()).isTooManyValues())
+                                                             .map(c -> c.getColumnDisplayDefinition().getColumnName())
+                                                             .collect(Collectors.toList());
+
+      if(tooManyValuesColumnNames.isEmpty())
+      {
+         return false;
+      }
+
+      _dlg.distinctTableScrollPane.setViewportView(null);
+      _dlg.lblStatus.setText(s_stringMgr.getString("ShowDistinctValuesCtrl.tooManyDistinctValues", String.join(", ", tooManyValuesColumnNames)));
+      _dlg.lblStatus.setCaretPosition(0);
+      return true;
+   }
+
    private void fillTablePanel(List<Object[]> distinctRows, List<ColumnDisplayDefinition> columnDisplayDefinitions)
    {
       DataSetViewerTablePanel dataSetViewerTablePanel = DataSetViewerTablePanelUtil.createDataSetViewerTablePanel(distinctRows, columnDisplayDefinitions);
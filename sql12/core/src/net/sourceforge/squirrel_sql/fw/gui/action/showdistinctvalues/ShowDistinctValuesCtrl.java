@@ -9,8 +9,11 @@ import net.sourceforge.squirrel_sql.fw.util.StringManager;
 import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
 
 import javax.swing.Timer;
+import javax.swing.WindowConstants;
 import javax.swing.table.TableColumn;
 import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 public class ShowDistinctValuesCtrl
 {
@@ -79,6 +82,17 @@ public class ShowDistinctValuesCtrl
       _dlg.optDistinctInRows.addActionListener(e -> triggerTableUpdate());
       _dlg.optDistinctInColumns.addActionListener(e -> triggerTableUpdate());
 
+      _dlg.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+      _dlg.addWindowListener(new WindowAdapter()
+      {
+         @Override
+         public void windowClosed(WindowEvent e)
+         {
+            _distinctTableUpdateTrigger.stop();
+            sourceTable.getValueFrequencyService().dropFrequencies();
+         }
+      });
+
       GUIUtils.initLocation(_dlg, 500, 500);
       GUIUtils.enableCloseByEscape(_dlg);
 
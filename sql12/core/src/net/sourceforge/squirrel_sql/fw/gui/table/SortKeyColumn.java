@@ -0,0 +1,192 @@
+package net.sourceforge.squirrel_sql.fw.gui.table;
+
+import java.text.CollationKey;
+import java.text.Collator;
+
+/**
+ * The sort keys of one sorted column, read from the table's rows once before sorting.
+ * <p>
+ * Depending on the column's values the keys are kept as
+ * <ul>
+ *    <li>{@link CollationKey}s when all values are Strings, so that the collator runs once per row instead of once per comparison.</li>
+ *    <li>long or double primitives when all values are of the same integral respectively floating point class.</li>
+ *    <li>The original values otherwise, compared like {@link SquirrelTableCellValueCollator} does.</li>
+ * </ul>
+ * Nulls are ordered according to the nullIsHighest parameter, independent of the key kind.
+ */
+class SortKeyColumn
+{
+   private enum KeyKind {STRING, LONG, DOUBLE, OBJECT}
+
+   private final int _ascendingInt;
+   private final boolean _nullIsHighest;
+
+   private final int _sortedModelColumn;
+
+   private Object[] _values;
+   private KeyKind _keyKind;
+
+   private CollationKey[] _collationKeys;
+   private long[] _longKeys;
+   private double[] _doubleKeys;
+   private boolean[] _nulls;
+
+   /**
+    * Must be called on the EDT, reads the sorting item's state.
+    */
+   SortKeyColumn(TableSortingItem tableSortingItem, boolean nullIsHighest)
+   {
+      tableSortingItem.initAscendingInt();
+      _ascendingInt = tableSortingItem.getAscendingInt();
+      _sortedModelColumn = tableSortingItem.getSortedModelColumn();
+      _nullIsHighest = nullIsHighest;
+   }
+
+   /**
+    * Reads the column's values. The cell reader decides on which thread this may be called.
+    */
+   void readValues(TableSortEngine.CellReader cellReader, int rowCount)
+   {
+      _values = new Object[rowCount];
+
+      Class<?> commonClass = null;
+      boolean mixedClasses = false;
+      for (int i = 0; i < rowCount; i++)
+      {
+         Object value = cellReader.getValueAt(i, _sortedModelColumn);
+         _values[i] = value;
+
+         if(null != value && false == mixedClasses)
+         {
+            if(null == commonClass)
+            {
+               commonClass = value.getClass();
+            }
+            else if(commonClass != value.getClass())
+            {
+               mixedClasses = true;
+            }
+         }
+      }
+
+      _keyKind = getKeyKind(commonClass, mixedClasses);
+   }
+
+   private static KeyKind getKeyKind(Class<?> commonClass, boolean mixedClasses)
+   {
+      if(mixedClasses || null == commonClass)
+      {
+         return KeyKind.OBJECT;
+      }
+      else if(commonClass == String.class)
+      {
+         return KeyKind.STRING;
+      }
+      else if(commonClass == Integer.class || commonClass == Long.class || commonClass == Short.class || commonClass == Byte.class)
+      {
+         return KeyKind.LONG;
+      }
+      else if(commonClass == Double.class || commonClass == Float.class)
+      {
+         return KeyKind.DOUBLE;
+      }
+
+      return KeyKind.OBJECT;
+   }
+
+   /**
+    * Computes the typed keys. Expensive for Strings, meant to be called outside the EDT.
+    */
+   void prepare(Collator collator)
+   {
+      int rowCount = _values.length;
+      _nulls = new boolean[rowCount];
+
+      switch (_keyKind)
+      {
+         case STRING:
+            _collationKeys = new CollationKey[rowCount];
+            for (int i = 0; i < rowCount; i++)
+            {
+               _nulls[i] = null == _values[i];
+               if(false == _nulls[i])
+               {
+                  _collationKeys[i] = collator.getCollationKey((String) _values[i]);
+               }
+            }
+            break;
+         case LONG:
+            _longKeys = new long[rowCount];
+            for (int i = 0; i < rowCount; i++)
+            {
+               _nulls[i] = null == _values[i];
+               if(false == _nulls[i])
+               {
+                  _longKeys[i] = ((Number) _values[i]).longValue();
+               }
+            }
+            break;
+         case DOUBLE:
+            _doubleKeys = new double[rowCount];
+            for (int i = 0; i < rowCount; i++)
+            {
+               _nulls[i] = null == _values[i];
+               if(false == _nulls[i])
+               {
+                  _doubleKeys[i] = ((Number) _values[i]).doubleValue();
+               }
+            }
+            break;
+         case OBJECT:
+            for (int i = 0; i < rowCount; i++)
+            {
+               _nulls[i] = null == _values[i];
+            }
+            break;
+      }
+   }
+
+   int compare(int row1, int row2)
+   {
+      boolean null1 = _nulls[row1];
+      boolean null2 = _nulls[row2];
+
+      if(null1 && null2)
+      {
+         return 0;
+      }
+      if(null1)
+      {
+         return (_nullIsHighest ? 1 : -1) * _ascendingInt;
+      }
+      if(null2)
+      {
+         return (_nullIsHighest ? -1 : 1) * _ascendingInt;
+      }
+
+      switch (_keyKind)
+      {
+         case STRING:
+            return _collationKeys[row1].compareTo(_collationKeys[row2]) * _ascendingInt;
+         case LONG:
+            return Long.compare(_longKeys[row1], _longKeys[row2]) * _ascendingInt;
+         case DOUBLE:
+            return Double.compare(_doubleKeys[row1], _doubleKeys[row2]) * _ascendingInt;
+         default:
+            return compareObjects(_values[row1], _values[row2]);
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private int compareObjects(Object data1, Object data2)
+   {
+      try
+      {
+         return ((Comparable<Object>) data1).compareTo(data2) * _ascendingInt;
+      }
+      catch (ClassCastException ex)
+      {
+         return data1.toString().compareTo(data2.toString()) * _ascendingInt;
+      }
+   }
+}
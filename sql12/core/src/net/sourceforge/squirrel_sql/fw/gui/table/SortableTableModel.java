@@ -21,18 +21,28 @@ package net.sourceforge.squirrel_sql.fw.gui.table;
  * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
  */
 
+import net.sourceforge.squirrel_sql.client.Main;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTableModel;
 import net.sourceforge.squirrel_sql.fw.datasetviewer.RowNumberTableColumn;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 
+import javax.swing.SwingUtilities;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableModel;
 import java.util.ArrayList;
-import java.util.Arrays;
 
 public class SortableTableModel extends AbstractTableModel
 {
+   private static final ILogger s_log = LoggerController.createLogger(SortableTableModel.class);
+
+   /**
+    * Tables with at least this number of rows are sorted outside the EDT.
+    */
+   private static final int ASYNC_SORT_ROW_COUNT = 100000;
+
    transient private MyTableModelListener _actualModelLis = new MyTableModelListener();
 
 	/** The actual model that this model is wrapped around. */
@@ -52,7 +62,18 @@ public class SortableTableModel extends AbstractTableModel
 	 * <TT>_actualModel[0]</TT> should be the second line then <TT>_indexes</TT>
 	 * will contain <TT>{1,0}</TT>.
 	 */
-	private Integer[] _indexes = new Integer[0];
+	private int[] _indexes = new int[0];
+
+	/**
+	 * The inverse permutation of <TT>_indexes</TT>, maps model rows to view rows.
+	 */
+	private int[] _viewRowsByModelRow = new int[0];
+
+	/**
+	 * Incremented with each sort request and each change of the actual model.
+	 * A sort running outside the EDT only applies its result when no newer request or change occurred meanwhile.
+	 */
+	private int _sortGeneration;
 
 	public SortableTableModel(TableModel model)
 	{
@@ -111,7 +132,7 @@ public class SortableTableModel extends AbstractTableModel
 		{
 			if (row < _indexes.length)
 			{
-				return _actualModel.getValueAt(_indexes[row].intValue(), col);
+				return _actualModel.getValueAt(_indexes[row], col);
 			}
 			else
 			{
@@ -131,7 +152,7 @@ public class SortableTableModel extends AbstractTableModel
 	 */
 	public void setValueAt(Object value, int row, int col)
 	{
-		_actualModel.setValueAt(value, _indexes[row].intValue(), col);
+		_actualModel.setValueAt(value, _indexes[row], col);
 	}
 
 	/*
@@ -161,7 +182,7 @@ public class SortableTableModel extends AbstractTableModel
 		for (int i=0; i< rows.length; ++i)
 		{
             if (rows[i] < _indexes.length) {
-                actualRows[i] = _indexes[rows[i]].intValue();
+                actualRows[i] = _indexes[rows[i]];
             }
 		}
 		((DataSetViewerTableModel)_actualModel).deleteRows(actualRows);
@@ -207,25 +228,103 @@ public class SortableTableModel extends AbstractTableModel
 		return _actualModel.isCellEditable(row,col);
 	}
 
+	/**
+	 * Sorts according to the TableSortingAdmin. Large tables are sorted outside the EDT,
+	 * the new order is applied and the SortingListeners are fired when sorting finished.
+	 */
 	public void sortTableBySortingAdmin()
 	{
-		if (_tableSortingAdmin.hasSortedColumns())
-      {
-         TableModelComparator comparator = new TableModelComparator(_actualModel, _tableSortingAdmin);
-         Arrays.sort(_indexes, comparator);
-      }
-      else
-      {
-         for (int i = 0; i < _indexes.length; i++)
-         {
-            _indexes[i] = i;
-         }
-      }
+		sortTableBySortingAdmin(getRowCount() < ASYNC_SORT_ROW_COUNT);
+	}
 
+	/**
+	 * For callers that depend on the new order right after the call, e.g. to restore selections.
+	 */
+	public void sortTableBySortingAdminSynchronously()
+	{
+		sortTableBySortingAdmin(true);
+	}
+
+	private void sortTableBySortingAdmin(boolean synchronously)
+	{
+		final int sortGeneration = ++_sortGeneration;
+
+		if (false == _tableSortingAdmin.hasSortedColumns())
+		{
+			initIndexes();
+			sortingDone();
+			return;
+		}
+
+		TableSortEngine tableSortEngine = new TableSortEngine(_actualModel, _tableSortingAdmin);
+
+		if (synchronously)
+		{
+			try
+			{
+				setIndexes(tableSortEngine.sort());
+			}
+			finally
+			{
+				tableSortEngine.sortFinished();
+			}
+			sortingDone();
+			return;
+		}
+
+		Main.getApplication().getThreadPool().addTask(() -> sortAsync(tableSortEngine, sortGeneration));
+	}
+
+	private void sortAsync(TableSortEngine tableSortEngine, int sortGeneration)
+	{
+		try
+		{
+			int[] sortedIndexes = tableSortEngine.sort();
+
+			SwingUtilities.invokeLater(() ->
+			{
+				tableSortEngine.sortFinished();
+
+				if (sortGeneration == _sortGeneration)
+				{
+					setIndexes(sortedIndexes);
+					sortingDone();
+				}
+			});
+		}
+		catch (Throwable t)
+		{
+			SwingUtilities.invokeLater(() -> tableSortEngine.sortFinished());
+			s_log.error("Failed to sort table", t);
+		}
+	}
+
+	private void sortingDone()
+	{
 		fireTableDataChanged();
 		fireSortingListeners();
 	}
 
+	private void setIndexes(int[] indexes)
+	{
+		_indexes = indexes;
+		_viewRowsByModelRow = new int[indexes.length];
+		for (int i = 0; i < indexes.length; i++)
+		{
+			_viewRowsByModelRow[indexes[i]] = i;
+		}
+	}
+
+	private void initIndexes()
+	{
+		int[] indexes = new int[getRowCount()];
+		for (int i = 0; i < indexes.length; ++i)
+		{
+			indexes[i] = i;
+		}
+		setIndexes(indexes);
+	}
+
 
 	private void fireSortingListeners()
    {
@@ -253,11 +352,8 @@ public class SortableTableModel extends AbstractTableModel
 
 	private void tableChangedIntern()
 	{
-		_indexes = new Integer[getRowCount()];
-		for (int i = 0; i < _indexes.length; ++i)
-		{
-			_indexes[i] = Integer.valueOf(i);
-		}
+		++_sortGeneration;
+		initIndexes();
    }
 
 	/**
@@ -274,7 +370,7 @@ public class SortableTableModel extends AbstractTableModel
 			return -1;
 		}
 
-		return _indexes[viewRow].intValue();
+		return _indexes[viewRow];
 	}
 
 	/**
@@ -282,24 +378,17 @@ public class SortableTableModel extends AbstractTableModel
 	 * correspond to the view not to the model. This method transforms the model index to
 	 * the view index.
 	 *
-	 * Note: This method is more expensive than {@link #transformToModelRow(int)}
-	 *
 	 * @param modelRow The model row index.
 	 * @return The view row index. -1 if no view index corresponding to row was found.
 	 */
 	public int transformToViewRow(int modelRow)
 	{
-		Integer viewRowInteger = Integer.valueOf(modelRow);
-
-		for (int i = 0; i < _indexes.length; i++)
+		if(0 > modelRow || modelRow >= _viewRowsByModelRow.length)
 		{
-			if(viewRowInteger.equals(_indexes[i]))
-			{
-				return i;
-			}
+			return -1;
 		}
 
-		return -1;
+		return _viewRowsByModelRow[modelRow];
 	}
 
    public void removeSortingListener(SortingListener sortingListener)
@@ -4,12 +4,16 @@ import java.text.Collator;
 
 public class SquirrelTableCellValueCollator
 {
-   private final Collator _collator = Collator.getInstance();
+   private final Collator _collator = createCollator();
 
-   public SquirrelTableCellValueCollator()
+   /**
+    * Collators are not thread safe, each thread that compares or creates collation keys needs its own.
+    */
+   public static Collator createCollator()
    {
-      _collator.setStrength(Collator.PRIMARY);
-      _collator.setStrength(Collator.TERTIARY);
+      Collator ret = Collator.getInstance();
+      ret.setStrength(Collator.TERTIARY);
+      return ret;
    }
 
    /**
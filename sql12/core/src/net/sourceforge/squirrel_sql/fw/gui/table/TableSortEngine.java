@@ -0,0 +1,133 @@
+package net.sourceforge.squirrel_sql.fw.gui.table;
+
+import net.sourceforge.squirrel_sql.client.Main;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.DataSetViewerTableModel;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.RowNumberTableColumn;
+import net.sourceforge.squirrel_sql.fw.datasetviewer.columnar.RowList;
+import net.sourceforge.squirrel_sql.fw.util.IndexMergeSort;
+
+import javax.swing.table.TableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts the rows of a table model into an int[] permutation.
+ * <p>
+ * The constructor must be called on the EDT. For a {@link DataSetViewerTableModel} it only takes the model's
+ * rows, see {@link DataSetViewerTableModel#startReadingRows()}, and the sorted columns' values are read in {@link #sort()}.
+ * Other table models are read by the constructor.
+ * {@link #sort()} does all the expensive work (reading the column store, collation keys, parallel merge sort)
+ * and may be called on any thread. {@link #sortFinished()} must be called on the EDT afterwards.
+ */
+class TableSortEngine
+{
+   interface CellReader
+   {
+      Object getValueAt(int row, int col);
+   }
+
+   private final int _rowCount;
+   private final List<SortKeyColumn> _sortKeyColumns = new ArrayList<>();
+
+   private DataSetViewerTableModel _dataSetViewerTableModel;
+   private RowList _rows;
+
+   TableSortEngine(TableModel actualModel, TableSortingAdmin tableSortingAdmin)
+   {
+      _rowCount = actualModel.getRowCount();
+
+      boolean nullIsHighest = isSortNullsAsHighestValue();
+      for (TableSortingItem tableSortingItem : tableSortingAdmin.getTableSortingItems())
+      {
+         _sortKeyColumns.add(new SortKeyColumn(tableSortingItem, nullIsHighest));
+      }
+
+      if(actualModel instanceof DataSetViewerTableModel)
+      {
+         _dataSetViewerTableModel = (DataSetViewerTableModel) actualModel;
+         _rows = _dataSetViewerTableModel.startReadingRows();
+      }
+      else
+      {
+         for (SortKeyColumn sortKeyColumn : _sortKeyColumns)
+         {
+            sortKeyColumn.readValues(actualModel::getValueAt, _rowCount);
+         }
+      }
+   }
+
+   int[] sort()
+   {
+      if(null != _rows)
+      {
+         for (SortKeyColumn sortKeyColumn : _sortKeyColumns)
+         {
+            sortKeyColumn.readValues(this::getRowsValueAt, _rowCount);
+         }
+      }
+
+      for (SortKeyColumn sortKeyColumn : _sortKeyColumns)
+      {
+         sortKeyColumn.prepare(SquirrelTableCellValueCollator.createCollator());
+      }
+
+      int[] ret = new int[_rowCount];
+      for (int i = 0; i < ret.length; i++)
+      {
+         ret[i] = i;
+      }
+
+      IndexMergeSort.sort(ret, this::compare);
+
+      return ret;
+   }
+
+   /**
+    * Lets the model change its rows in place again.
+    */
+   void sortFinished()
+   {
+      if(null != _rows)
+      {
+         _dataSetViewerTableModel.stopReadingRows(_rows);
+      }
+   }
+
+   private Object getRowsValueAt(int row, int col)
+   {
+      if(RowNumberTableColumn.ROW_NUMBER_MODEL_INDEX == col)
+      {
+         return Integer.valueOf(row + 1);
+      }
+      return _rows.getValueAt(row, col);
+   }
+
+   private int compare(int row1, int row2)
+   {
+      for (SortKeyColumn sortKeyColumn : _sortKeyColumns)
+      {
+         int res = sortKeyColumn.compare(row1, row2);
+
+         if(0 != res)
+         {
+            return res;
+         }
+      }
+
+      return 0;
+   }
+
+   private static boolean isSortNullsAsHighestValue()
+   {
+      boolean nullIsHighest;
+      if(null != Main.getApplication().getSessionManager().getActiveSession())
+      {
+         nullIsHighest = Main.getApplication().getSessionManager().getActiveSession().getProperties().isSortNullsAsHighestValue();
+      }
+      else
+      {
+         nullIsHighest = Main.getApplication().getSquirrelPreferences().getSessionProperties().isSortNullsAsHighestValue();
+      }
+      return nullIsHighest;
+   }
+}
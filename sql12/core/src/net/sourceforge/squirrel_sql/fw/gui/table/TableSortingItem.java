@@ -15,7 +15,6 @@ public class TableSortingItem
 
    //////////////////////////////////////////////////////////////////////////
    // For internal and temporary usage during the sorting process only.
-   private boolean _allDataString;
    private int _ascendingInt;
    //
    //////////////////////////////////////////////////////////////////////////
@@ -48,16 +47,6 @@ public class TableSortingItem
       return _columnOrder;
    }
 
-   public void setAllDataString(boolean allDataString)
-   {
-      _allDataString = allDataString;
-   }
-
-   public boolean isAllDataString()
-   {
-      return _allDataString;
-   }
-
    public void initAscendingInt()
    {
       _ascendingInt = (_columnOrder == ColumnOrder.ASC) ? 1 : -1;
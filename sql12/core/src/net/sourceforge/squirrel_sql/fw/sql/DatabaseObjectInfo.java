@@ -76,6 +76,19 @@ public class DatabaseObjectInfo implements IDatabaseObjectInfo
       _dboType = dboType;
    }
 
+   /**
+    * Restores an object whose qualified name was generated before,
+    * see {@link net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfoCacheSerializer}.
+    */
+   protected DatabaseObjectInfo(String catalog, String schema, String simpleName, String qualifiedName, DatabaseObjectType dboType)
+   {
+      _catalog = catalog;
+      _schema = schema;
+      _simpleName = simpleName;
+      _qualifiedName = qualifiedName;
+      _dboType = dboType;
+   }
+
    /**
     * Default constructor for using instances of this class to contain 
     * information about new objects that will be created soon.
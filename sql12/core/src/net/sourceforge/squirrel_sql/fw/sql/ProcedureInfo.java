@@ -55,6 +55,17 @@ public class ProcedureInfo extends DatabaseObjectInfo implements IProcedureInfo
       _procedureInfoOrigin = procedureInfoOrigin;
    }
 
+   /**
+    * Restores a procedure from the Schema cache file.
+    */
+   public ProcedureInfo(String catalog, String schema, String simpleName, String remarks, int procType, ProcedureInfoOrigin procedureInfoOrigin, String qualifiedName)
+   {
+      super(catalog, schema, simpleName, qualifiedName, DatabaseObjectType.PROCEDURE);
+      _remarks = remarks;
+      _procType = procType;
+      _procedureInfoOrigin = procedureInfoOrigin;
+   }
+
    public int getProcedureType()
    {
       return _procType;
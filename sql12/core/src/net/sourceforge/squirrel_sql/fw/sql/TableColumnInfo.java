@@ -81,6 +81,32 @@ public class TableColumnInfo extends DatabaseObjectInfo
         _isNullable = isNullable;
     }
     
+    /**
+     * Restores a column from the Schema cache file.
+     */
+    public TableColumnInfo(String catalog, String schema, String tableName,
+            String columnName, int dataType, String typeName,
+            int columnSize, int decimalDigits, int radix,
+            int isNullAllowed, String remarks, String defaultValue,
+            int octetLength, int ordinalPosition,
+            String isNullable, String qualifiedName)
+    {
+        super(catalog, schema, tableName + '.' + columnName, qualifiedName, DatabaseObjectType.COLUMN);
+        _tableName = tableName;
+        _columnName = columnName;
+        _dataType = dataType;
+        _typeName = typeName;
+        _columnSize = columnSize;
+        _decimalDigits = decimalDigits;
+        _radix = radix;
+        _isNullAllowed = isNullAllowed;
+        _remarks = remarks;
+        _defaultValue = defaultValue;
+        _octetLength = octetLength;
+        _ordinalPosition = ordinalPosition;
+        _isNullable = isNullable;
+    }
+
     public String getTableName() {
         return _tableName;
     }
@@ -43,6 +43,18 @@ public class TableInfo extends DatabaseObjectInfo implements ITableInfo
 		_tableType = tableType;
 	}
 
+   /**
+    * Restores a table from the Schema cache file.
+    */
+   public TableInfo(String catalog, String schema, String simpleName,
+                    String tableType, String remarks,
+                    String qualifiedName)
+   {
+      super(catalog, schema, simpleName, qualifiedName, getTableType(tableType));
+      _remarks = remarks;
+      _tableType = tableType;
+   }
+
    private static DatabaseObjectType getTableType(String tableType)
    {
       if(null == tableType)
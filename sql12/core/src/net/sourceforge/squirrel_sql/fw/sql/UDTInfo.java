@@ -37,6 +37,18 @@ public class UDTInfo extends DatabaseObjectInfo implements IUDTInfo
 		_remarks = remarks;
 	}
 
+	/**
+	 * Restores a UDT from the Schema cache file.
+	 */
+	public UDTInfo(String catalog, String schema, String simpleName, String javaClassName,
+						String dataType, String remarks, String qualifiedName)
+	{
+		super(catalog, schema, simpleName, qualifiedName, DatabaseObjectType.UDT);
+		_javaClassName = javaClassName;
+		_dataType = dataType;
+		_remarks = remarks;
+	}
+
 	public String getJavaClassName()
 	{
 		return _javaClassName;
@@ -0,0 +1,121 @@
+package net.sourceforge.squirrel_sql.fw.sql.commentandliteral;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads a script from a {@link Reader} while it is being processed.
+ * <p>
+ * Only a window of the script is kept in memory. Characters before the position passed to
+ * {@link #release(long)} are dropped, so memory consumption is independent of the script size.
+ * Like QueryTokenizer does for Strings carriage returns are replaced by blanks.
+ */
+public class ReaderScriptSource implements ScriptSource
+{
+   private static final int READ_CHUNK_SIZE = 8192;
+
+   private final Reader _reader;
+   private final char[] _readBuf = new char[READ_CHUNK_SIZE];
+
+   private final StringBuilder _window = new StringBuilder();
+
+   /**
+    * Script position of the first char in _window.
+    */
+   private long _windowStart;
+
+   private boolean _eof;
+
+   public ReaderScriptSource(Reader reader)
+   {
+      _reader = reader;
+   }
+
+   @Override
+   public boolean hasCharAt(long pos)
+   {
+      return ensureLoaded(pos);
+   }
+
+   @Override
+   public char charAt(long pos)
+   {
+      if(pos < _windowStart || false == ensureLoaded(pos))
+      {
+         throw new IndexOutOfBoundsException("Script position " + pos + " is not available. Window starts at " + _windowStart);
+      }
+      return _window.charAt((int) (pos - _windowStart));
+   }
+
+   @Override
+   public boolean startsWith(String prefix, long pos)
+   {
+      if(0 > pos)
+      {
+         return false;
+      }
+
+      if(pos < _windowStart)
+      {
+         throw new IndexOutOfBoundsException("Script position " + pos + " was already released. Window starts at " + _windowStart);
+      }
+
+      if(false == ensureLoaded(pos + prefix.length() - 1))
+      {
+         return false;
+      }
+
+      int windowPos = (int) (pos - _windowStart);
+      for (int i = 0; i < prefix.length(); i++)
+      {
+         if(prefix.charAt(i) != _window.charAt(windowPos + i))
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Tells that chars before pos will not be accessed anymore.
+    */
+   public void release(long pos)
+   {
+      long releaseCount = pos - _windowStart;
+
+      // Dropping in larger blocks keeps the number of array copies low.
+      if(READ_CHUNK_SIZE <= releaseCount)
+      {
+         _window.delete(0, (int) releaseCount);
+         _windowStart = pos;
+      }
+   }
+
+   private boolean ensureLoaded(long pos)
+   {
+      try
+      {
+         while (false == _eof && _windowStart + _window.length() <= pos)
+         {
+            int len = _reader.read(_readBuf);
+            if(0 > len)
+            {
+               _eof = true;
+               break;
+            }
+
+            for (int i = 0; i < len; i++)
+            {
+               _window.append('\r' == _readBuf[i] ? ' ' : _readBuf[i]);
+            }
+         }
+      }
+      catch (IOException e)
+      {
+         throw new UncheckedIOException("Failed to read SQL script", e);
+      }
+
+      return pos < _windowStart + _window.length();
+   }
+}
@@ -14,7 +14,7 @@ public class SQLCommentAndLiteralHandler
    private static final String MULTI_LINE_COMMENT_END = "*/";
    private static final String MULTI_LINE_COMMENT_BEGIN = "/*";
 
-   private String _script;
+   private ScriptSource _script;
    private String _lineCommentBegin;
    private boolean _removeMultiLineComment;
    private boolean _removeLineComment;
@@ -25,6 +25,15 @@ public class SQLCommentAndLiteralHandler
    private int _literalSepCount = 0;
 
    public SQLCommentAndLiteralHandler(String script, String lineCommentBegin, boolean removeMultiLineComment, boolean removeLineComment)
+   {
+      this(new StringScriptSource(script), lineCommentBegin, removeMultiLineComment, removeLineComment);
+   }
+
+   /**
+    * @param script Positions passed to {@link #nextPosition(long)} must be ascending.
+    *               Besides the current position only few characters backwards and forwards are accessed.
+    */
+   public SQLCommentAndLiteralHandler(ScriptSource script, String lineCommentBegin, boolean removeMultiLineComment, boolean removeLineComment)
    {
       _script = script;
       _lineCommentBegin = lineCommentBegin;
@@ -32,11 +41,11 @@ public class SQLCommentAndLiteralHandler
       _removeLineComment = removeLineComment;
    }
 
-   public NextPositionAction nextPosition(int posInScript)
+   public NextPositionAction nextPosition(long posInScript)
    {
-      if(_script.length() <= posInScript)
+      if(false == _script.hasCharAt(posInScript))
       {
-         throw new IllegalStateException("Script position out of bounds: " + posInScript + " >= " + _script.length());
+         throw new IllegalStateException("Script position out of bounds: " + posInScript);
       }
 
       char c = _script.charAt(posInScript);
@@ -106,7 +115,7 @@ public class SQLCommentAndLiteralHandler
       return NextPositionAction.APPEND;
    }
 
-   private boolean isInBeginningOfMultiLineComment(int posInScript)
+   private boolean isInBeginningOfMultiLineComment(long posInScript)
    {
       final int backwardCount = MULTI_LINE_COMMENT_BEGIN.length() + 1;
       return posInScript >= backwardCount && false == _script.startsWith(MULTI_LINE_COMMENT_BEGIN, posInScript - backwardCount);
@@ -0,0 +1,23 @@
+package net.sourceforge.squirrel_sql.fw.sql.commentandliteral;
+
+/**
+ * The characters of a SQL script as seen by {@link SQLCommentAndLiteralHandler}.
+ * <p>
+ * Positions are always absolute positions in the script. They are longs because a streamed
+ * script may be longer than Integer.MAX_VALUE chars. Implementations may read
+ * the script lazily, see {@link ReaderScriptSource}.
+ */
+public interface ScriptSource
+{
+   /**
+    * @return true if the script is longer than pos.
+    */
+   boolean hasCharAt(long pos);
+
+   char charAt(long pos);
+
+   /**
+    * Same semantics as {@link String#startsWith(String, int)}, e.g. false for negative positions.
+    */
+   boolean startsWith(String prefix, long pos);
+}
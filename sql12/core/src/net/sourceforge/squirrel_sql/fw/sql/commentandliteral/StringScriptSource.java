@@ -0,0 +1,29 @@
+package net.sourceforge.squirrel_sql.fw.sql.commentandliteral;
+
+public class StringScriptSource implements ScriptSource
+{
+   private final String _script;
+
+   public StringScriptSource(String script)
+   {
+      _script = script;
+   }
+
+   @Override
+   public boolean hasCharAt(long pos)
+   {
+      return pos < _script.length();
+   }
+
+   @Override
+   public char charAt(long pos)
+   {
+      return _script.charAt(Math.toIntExact(pos));
+   }
+
+   @Override
+   public boolean startsWith(String prefix, long pos)
+   {
+      return 0 <= pos && pos <= _script.length() && _script.startsWith(prefix, (int) pos);
+   }
+}
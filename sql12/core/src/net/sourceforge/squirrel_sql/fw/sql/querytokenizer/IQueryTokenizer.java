@@ -1,5 +1,8 @@
 package net.sourceforge.squirrel_sql.fw.sql.querytokenizer;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 
 /**
  * This should be implemented to provide script tokenizing behavior that is 
@@ -9,6 +12,10 @@ package net.sourceforge.squirrel_sql.fw.sql.querytokenizer;
  */
 public interface IQueryTokenizer
 {
+    /**
+     * Returned by {@link #getQueryCount()} when the script is streamed, see {@link #setScriptToTokenize(Reader)}.
+     */
+    int UNKNOWN_QUERY_COUNT = -1;
     
     /**
      * Returns a boolean value indicating whether or not there are more 
@@ -35,11 +42,41 @@ public interface IQueryTokenizer
      * @param script a string representing one or more SQL statements.
      */
     void setScriptToTokenize(String script);
+
+    /**
+     * Like {@link #setScriptToTokenize(String)} for scripts too large to be held in memory.
+     * <p>
+     * Implementations may read the script while queries are fetched by {@link #nextQuery()}.
+     * In this case {@link #getQueryCount()} returns {@link #UNKNOWN_QUERY_COUNT} and the reader must not be
+     * closed before all queries have been fetched. Closing the reader is up to the caller.
+     * <p>
+     * This default implementation reads the whole script and calls {@link #setScriptToTokenize(String)}.
+     *
+     * @param script a reader of one or more SQL statements.
+     */
+    default void setScriptToTokenize(Reader script)
+    {
+       try
+       {
+          StringBuilder sb = new StringBuilder();
+          char[] buf = new char[8192];
+          for (int len = script.read(buf); 0 <= len; len = script.read(buf))
+          {
+             sb.append(buf, 0, len);
+          }
+          setScriptToTokenize(sb.toString());
+       }
+       catch (IOException e)
+       {
+          throw new UncheckedIOException("Failed to read SQL script", e);
+       }
+    }
     
     /**
      * Returns the number of queries that the tokenizer found in the script 
      * given in the last call to setScriptToTokenize, or 0 if 
      * setScriptToTokenize has not yet been called.
+     * Returns {@link #UNKNOWN_QUERY_COUNT} if the script is streamed.
      */
     int getQueryCount();
 
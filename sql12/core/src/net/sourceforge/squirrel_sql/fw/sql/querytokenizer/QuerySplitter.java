@@ -0,0 +1,185 @@
+package net.sourceforge.squirrel_sql.fw.sql.querytokenizer;
+
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.NextPositionAction;
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.ReaderScriptSource;
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.SQLCommentAndLiteralHandler;
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.ScriptSource;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a script into queries one by one, each query is searched for not before it is requested.
+ * <p>
+ * This is the splitting logic of {@link QueryTokenizer}. When the script comes from a {@link ReaderScriptSource}
+ * only the current query and a few characters around the current position are held in memory.
+ */
+class QuerySplitter implements Iterator<QueryHolder>
+{
+   private final ScriptSource _script;
+   private final String _querySep;
+   private final SQLCommentAndLiteralHandler _commentAndLiteralHandler;
+
+   /**
+    * Distance that is looked backwards from the current position by this class and by {@link SQLCommentAndLiteralHandler}.
+    */
+   private final int _maxLookBehind;
+
+   private final StringBuilder _curQuery = new StringBuilder();
+   private final StringBuilder _curOriginalQuery = new StringBuilder();
+
+   private long _pos;
+   private QueryHolder _next;
+
+   QuerySplitter(ScriptSource script, String querySep, String lineCommentBegin, boolean removeMultiLineComment, boolean removeLineComment)
+   {
+      _script = script;
+      _querySep = querySep;
+      _commentAndLiteralHandler = new SQLCommentAndLiteralHandler(script, lineCommentBegin, removeMultiLineComment, removeLineComment);
+      _maxLookBehind = querySep.length() + 4;
+   }
+
+   @Override
+   public boolean hasNext()
+   {
+      if(null == _next)
+      {
+         _next = findNextQuery();
+      }
+      return null != _next;
+   }
+
+   @Override
+   public QueryHolder next()
+   {
+      if(false == hasNext())
+      {
+         throw new NoSuchElementException();
+      }
+
+      QueryHolder ret = _next;
+      _next = null;
+      return ret;
+   }
+
+   private QueryHolder findNextQuery()
+   {
+      while (_script.hasCharAt(_pos))
+      {
+         long i = _pos++;
+
+         if(_script instanceof ReaderScriptSource)
+         {
+            ((ReaderScriptSource) _script).release(i - _maxLookBehind);
+         }
+
+         final NextPositionAction nextPositionAction = _commentAndLiteralHandler.nextPosition(i);
+
+         char c = _script.charAt(i);
+         _curOriginalQuery.append(c);
+
+         if(NextPositionAction.APPEND == nextPositionAction)
+         {
+            _curQuery.append(c);
+         }
+         else
+         {
+            continue;
+         }
+
+         int querySepLen = getLenOfQuerySepIfAtLastCharOfQuerySep(i, _commentAndLiteralHandler.isInLiteral());
+
+         if(-1 < querySepLen && !_commentAndLiteralHandler.isInMultiLineComment())
+         {
+            QueryHolder ret = null;
+
+            int newLength = _curQuery.length() - querySepLen;
+            if(-1 < newLength && _curQuery.length() > newLength)
+            {
+               _curQuery.setLength(newLength);
+
+               String newQuery = _curQuery.toString().trim();
+               if(0 < newQuery.length())
+               {
+                  ret = new QueryHolder(newQuery, _curOriginalQuery.toString().trim());
+               }
+            }
+            _curQuery.setLength(0);
+            _curOriginalQuery.setLength(0);
+
+            if(null != ret)
+            {
+               return ret;
+            }
+         }
+      }
+
+      String lastQuery = _curQuery.toString().trim();
+      String lastOriginalQuery = _curOriginalQuery.toString().trim();
+      _curQuery.setLength(0);
+      _curOriginalQuery.setLength(0);
+
+      if(0 < lastQuery.length())
+      {
+         return new QueryHolder(lastQuery, lastOriginalQuery);
+      }
+      return null;
+   }
+
+   private int getLenOfQuerySepIfAtLastCharOfQuerySep(long i, boolean inLiteral)
+   {
+      if(inLiteral)
+      {
+         return -1;
+      }
+
+      char c = _script.charAt(i);
+
+      if(1 == _querySep.length() && c == _querySep.charAt(0))
+      {
+         return 1;
+      }
+      else
+      {
+         long fromIndex = i - _querySep.length();
+         if(0 > fromIndex)
+         {
+            return -1;
+         }
+
+         if(Character.isWhitespace(c))
+         {
+            // The separator ends right before the whitespace
+            if(_script.startsWith(_querySep, fromIndex))
+            {
+               if(0 == fromIndex)
+               {
+                  return _querySep.length() + 1;
+               }
+               else if(Character.isWhitespace(_script.charAt(fromIndex - 1)))
+               {
+                  return _querySep.length() + 2;
+               }
+            }
+         }
+         else if(false == _script.hasCharAt(i + 1))
+         {
+            // The separator ends the script
+            long querySepIndex = fromIndex + 1;
+            if(false == _script.startsWith(_querySep, fromIndex) && _script.startsWith(_querySep, querySepIndex))
+            {
+               if(0 == querySepIndex)
+               {
+                  return _querySep.length();
+               }
+               else if(Character.isWhitespace(_script.charAt(querySepIndex - 1)))
+               {
+                  return _querySep.length() + 1;
+               }
+            }
+         }
+
+         return -1;
+      }
+   }
+}
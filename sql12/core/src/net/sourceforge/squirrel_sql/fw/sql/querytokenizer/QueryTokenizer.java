@@ -20,8 +20,8 @@ package net.sourceforge.squirrel_sql.fw.sql.querytokenizer;
 
 import net.sourceforge.squirrel_sql.client.session.action.sqlscript.SQLScriptServices;
 import net.sourceforge.squirrel_sql.fw.preferences.IQueryTokenizerPreferenceBean;
-import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.NextPositionAction;
-import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.SQLCommentAndLiteralHandler;
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.ReaderScriptSource;
+import net.sourceforge.squirrel_sql.fw.sql.commentandliteral.StringScriptSource;
 import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
 import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
 import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
@@ -29,6 +29,7 @@ import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -39,6 +40,8 @@ public class QueryTokenizer implements IQueryTokenizer
     
 	protected Iterator<QueryHolder> _queryIterator;
 
+   private boolean _streaming;
+
    protected String _querySep = null;
 
    protected String _lineCommentBegin = null;
@@ -78,67 +81,6 @@ public class QueryTokenizer implements IQueryTokenizer
    }
     
 
-	private int getLenOfQuerySepIfAtLastCharOfQuerySep(String sql, int i, String querySep, boolean inLiteral)
-	{
-		if(inLiteral)
-		{
-			return -1;
-		}
-
-		char c = sql.charAt(i);
-
-		if(1 == querySep.length() && c == querySep.charAt(0))
-		{
-			return 1;
-		}
-		else
-		{
-			int fromIndex = i - querySep.length();
-			if(0 > fromIndex)
-			{
-				return -1;
-			}
-
-			int querySepIndex = sql.indexOf(querySep, fromIndex);
-
-			if(0 > querySepIndex)
-			{
-				return -1;
-			}
-
-			if(Character.isWhitespace(c))
-			{
-				if(querySepIndex + querySep.length() == i)
-				{
-					if(0 == querySepIndex)
-					{
-						return querySep.length() + 1;
-					}
-					else if(Character.isWhitespace(sql.charAt(querySepIndex - 1)))
-					{
-						return querySep.length() + 2;
-					}
-				}
-			}
-			else if(sql.length() -1 == i)
-			{
-				if(querySepIndex + querySep.length() - 1 == i)
-				{
-					if(0 == querySepIndex)
-					{
-						return querySep.length();
-					}
-					else if(Character.isWhitespace(sql.charAt(querySepIndex - 1)))
-					{
-						return querySep.length() + 1;
-					}
-				}
-			}
-
-			return -1;
-		}
-	}
-    
 	public boolean hasQuery()
 	{
 		return _queryIterator.hasNext();
@@ -152,67 +94,60 @@ public class QueryTokenizer implements IQueryTokenizer
     public void setScriptToTokenize(String script)
     {
         _queries.clear();
-        
-        script = script.replace('\r', ' ');
-
-        StringBuffer curQuery = new StringBuffer();
-        StringBuffer curOriginalQuery = new StringBuffer();
-
-
-       SQLCommentAndLiteralHandler commentAndLiteralHandler = new SQLCommentAndLiteralHandler(script, _lineCommentBegin, _removeMultiLineComment, _removeLineComment);
-
-        for (int i = 0; i < script.length(); ++i)
-        {
-           final NextPositionAction nextPositionAction = commentAndLiteralHandler.nextPosition(i);
-
-           curOriginalQuery.append(script.charAt(i));
-
-           if(NextPositionAction.APPEND == nextPositionAction)
-           {
-              curQuery.append(script.charAt(i));
-           }
-           else
-           {
-              continue;
-           }
+        _streaming = false;
 
-            int querySepLen = getLenOfQuerySepIfAtLastCharOfQuerySep(script, i, _querySep, commentAndLiteralHandler.isInLiteral());
-
-            if(-1 < querySepLen && !commentAndLiteralHandler.isInMultiLineComment())
-            {
-                int newLength = curQuery.length() - querySepLen;
-                if(-1 < newLength && curQuery.length() > newLength)
-                {
-                    curQuery.setLength(newLength);
-
-                    String newQuery = curQuery.toString().trim();
-                    if(0 < newQuery.length())
-                    {
-                        _queries.add(new QueryHolder(curQuery.toString().trim(), curOriginalQuery.toString().trim()));
-                    }
-                }
-                curQuery.setLength(0);
-                curOriginalQuery.setLength(0);
-            }
-        }
+        script = script.replace('\r', ' ');
 
-        String lastQuery = curQuery.toString().trim();
-        String lastOriginalQuery = curOriginalQuery.toString().trim();
-        if(0 < lastQuery.length())
+        QuerySplitter querySplitter = new QuerySplitter(new StringScriptSource(script), _querySep, _lineCommentBegin, _removeMultiLineComment, _removeLineComment);
+        while (querySplitter.hasNext())
         {
-            _queries.add(new QueryHolder(lastQuery, lastOriginalQuery));
+            _queries.add(querySplitter.next());
         }
 
         _queryIterator = _queries.iterator();
     }
 
+   /**
+    * Streams the script if {@link #isStreamingSupported()}.
+    * Otherwise the whole script is read and passed to {@link #setScriptToTokenize(String)}, see {@link IQueryTokenizer#setScriptToTokenize(Reader)}.
+    */
+   @Override
+   public void setScriptToTokenize(Reader script)
+   {
+      if(isStreamingSupported())
+      {
+         _queries.clear();
+         _streaming = true;
+         _queryIterator = new QuerySplitter(new ReaderScriptSource(script), _querySep, _lineCommentBegin, _removeMultiLineComment, _removeLineComment);
+      }
+      else
+      {
+         IQueryTokenizer.super.setScriptToTokenize(script);
+      }
+   }
+
+   /**
+    * Subclasses that post process the queries found by {@link #setScriptToTokenize(String)} must return false.
+    * Then a script passed as Reader is read completely and passed to {@link #setScriptToTokenize(String)}.
+    */
+   protected boolean isStreamingSupported()
+   {
+      return true;
+   }
+
     /**
      * Returns the number of queries that the tokenizer found in the script 
      * given in the last call to setScriptToTokenize, or 0 if 
      * setScriptToTokenize has not yet been called.
+     * Returns {@link IQueryTokenizer#UNKNOWN_QUERY_COUNT} while a script is streamed.
      */
     public int getQueryCount()
     {
+       if (_streaming)
+       {
+          return UNKNOWN_QUERY_COUNT;
+       }
+
        if (_queries == null)
        {
           return 0;
@@ -374,36 +309,22 @@ public class QueryTokenizer implements IQueryTokenizer
          s_log.debug("Attemping to open file '" + filename + "'");
       }
       File f = new File(filename);
-        /*
-        if (f.canRead()) {
-        */
-      StringBuffer fileLines = new StringBuffer();
-      try
-      {
-         BufferedReader reader = new BufferedReader(new FileReader(f));
-         String next = reader.readLine();
-         while (next != null)
-         {
-            fileLines.append(next);
-            fileLines.append("\n");
-            next = reader.readLine();
-         }
-      }
-      catch (Exception e)
-      {
-         s_log.error("Unexpected exception while reading lines from file (" + filename + ")", e);
-      }
 
-      if (fileLines.toString().length() > 0)
+      // The include file is streamed, the list of its statements is needed anyway to insert them into _queries.
+      try (BufferedReader reader = new BufferedReader(new FileReader(f)))
       {
          IQueryTokenizer qt = createQueryTokenizerClone();
-         qt.setScriptToTokenize(fileLines.toString());
+         qt.setScriptToTokenize(reader);
          while (qt.hasQuery())
          {
             String sql = qt.nextQuery().getQuery();
             result.add(sql);
          }
       }
+      catch (Exception e)
+      {
+         s_log.error("Unexpected exception while reading lines from file (" + filename + ")", e);
+      }
 
       return result;
    }
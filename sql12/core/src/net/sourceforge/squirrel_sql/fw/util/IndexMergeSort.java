@@ -0,0 +1,126 @@
+package net.sourceforge.squirrel_sql.fw.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable merge sort of int index arrays, e.g. row permutations of a table.
+ * <p>
+ * Works on primitive ints so that no Integer objects are created during sorting.
+ * Large arrays are sorted in parallel on the common {@link ForkJoinPool},
+ * thus the comparator must be safe to be called from several threads concurrently.
+ */
+public class IndexMergeSort
+{
+   public interface IndexComparator
+   {
+      int compare(int index1, int index2);
+   }
+
+   private static final int INSERTION_SORT_THRESHOLD = 32;
+   private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+   public static void sort(int[] indexes, IndexComparator comparator)
+   {
+      int[] buf = indexes.clone();
+
+      if(indexes.length < PARALLEL_THRESHOLD)
+      {
+         mergeSort(buf, indexes, 0, indexes.length, comparator);
+      }
+      else
+      {
+         ForkJoinPool.commonPool().invoke(new MergeSortTask(buf, indexes, 0, indexes.length, comparator));
+      }
+   }
+
+   /**
+    * Sorts the range of dest. On entry src and dest must hold the same content in the range.
+    */
+   private static void mergeSort(int[] src, int[] dest, int low, int high, IndexComparator comparator)
+   {
+      if(high - low < INSERTION_SORT_THRESHOLD)
+      {
+         insertionSort(dest, low, high, comparator);
+         return;
+      }
+
+      int mid = (low + high) >>> 1;
+      mergeSort(dest, src, low, mid, comparator);
+      mergeSort(dest, src, mid, high, comparator);
+      merge(src, dest, low, mid, high, comparator);
+   }
+
+   private static void insertionSort(int[] dest, int low, int high, IndexComparator comparator)
+   {
+      for (int i = low + 1; i < high; i++)
+      {
+         int cur = dest[i];
+         int j = i - 1;
+         while (j >= low && comparator.compare(dest[j], cur) > 0)
+         {
+            dest[j + 1] = dest[j];
+            --j;
+         }
+         dest[j + 1] = cur;
+      }
+   }
+
+   /**
+    * Merges the sorted ranges [low, mid) and [mid, high) of src into dest.
+    */
+   private static void merge(int[] src, int[] dest, int low, int mid, int high, IndexComparator comparator)
+   {
+      if(comparator.compare(src[mid - 1], src[mid]) <= 0)
+      {
+         System.arraycopy(src, low, dest, low, high - low);
+         return;
+      }
+
+      for (int i = low, p = low, q = mid; i < high; i++)
+      {
+         if(q >= high || (p < mid && comparator.compare(src[p], src[q]) <= 0))
+         {
+            dest[i] = src[p++];
+         }
+         else
+         {
+            dest[i] = src[q++];
+         }
+      }
+   }
+
+   private static class MergeSortTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final int[] _src;
+      private final int[] _dest;
+      private final int _low;
+      private final int _high;
+      private final IndexComparator _comparator;
+
+      MergeSortTask(int[] src, int[] dest, int low, int high, IndexComparator comparator)
+      {
+         _src = src;
+         _dest = dest;
+         _low = low;
+         _high = high;
+         _comparator = comparator;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if(_high - _low < PARALLEL_THRESHOLD)
+         {
+            mergeSort(_src, _dest, _low, _high, _comparator);
+            return;
+         }
+
+         int mid = (_low + _high) >>> 1;
+         invokeAll(new MergeSortTask(_dest, _src, _low, mid, _comparator), new MergeSortTask(_dest, _src, mid, _high, _comparator));
+         merge(_src, _dest, _low, mid, _high, _comparator);
+      }
+   }
+}
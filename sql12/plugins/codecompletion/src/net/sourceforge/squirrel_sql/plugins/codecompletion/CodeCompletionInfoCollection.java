@@ -19,6 +19,8 @@ package net.sourceforge.squirrel_sql.plugins.codecompletion;
 
 import net.sourceforge.squirrel_sql.client.session.ISession;
 import net.sourceforge.squirrel_sql.client.session.parser.kernel.TableAliasInfo;
+import net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfoDelta;
+import net.sourceforge.squirrel_sql.client.session.schemainfo.SchemaInfoUpdateListener;
 import net.sourceforge.squirrel_sql.fw.sql.IProcedureInfo;
 import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
 import net.sourceforge.squirrel_sql.fw.sql.IUDTInfo;
@@ -33,11 +35,11 @@ public class CodeCompletionInfoCollection
 {
 	private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(CodeCompletionInfoCollection.class);
 
-   private Hashtable<String, Vector<CodeCompletionInfo>> _completionInfosByCataLogAndSchema = new Hashtable<>();
+   private Hashtable<String, CodeCompletionInfoIndex> _completionInfosByCataLogAndSchema = new Hashtable<>();
    private Vector<CodeCompletionTableAliasInfo> _aliasCompletionInfos = new Vector<>();
 
-   private Vector<CodeCompletionSchemaInfo> _schemas = new Vector<>();
-   private Vector<CodeCompletionCatalogInfo> _catalogs = new Vector<>();
+   private Set<String> _upperCaseSchemaNames = Collections.synchronizedSet(new HashSet<>());
+   private Set<String> _upperCaseCatalogNames = Collections.synchronizedSet(new HashSet<>());
 
 	private ISession _session;
 	private CodeCompletionPlugin _plugin;
@@ -57,7 +59,44 @@ public class CodeCompletionInfoCollection
 
       _prefs = (CodeCompletionPreferences) _session.getPluginObject(_plugin, CodeCompletionPlugin.PLUGIN_OBJECT_PREFS_KEY);
 
-      _session.getSchemaInfo().addSchemaInfoUpdateListener(() -> _completionInfosByCataLogAndSchema = new Hashtable<>());
+      _session.getSchemaInfo().addSchemaInfoUpdateListener(new SchemaInfoUpdateListener()
+      {
+         @Override
+         public void schemaInfoUpdated()
+         {
+            _completionInfosByCataLogAndSchema = new Hashtable<>();
+         }
+
+         @Override
+         public void schemaInfoUpdated(SchemaInfoDelta delta)
+         {
+            if(delta.isSchemaNamesChanged())
+            {
+               // The completion infos contain the schema names.
+               schemaInfoUpdated();
+               return;
+            }
+
+            for (SchemaInfoDelta.SchemaDelta schemaDelta : delta.getSchemaDeltas())
+            {
+               removeCompletionInfos(schemaDelta.getCatalogName(), schemaDelta.getSchemaName());
+            }
+         }
+      });
+   }
+
+   /**
+    * Removes the completion infos that may contain objects of the catalog/schema.
+    * Keys look like the ones created in load(). A null catalog or schema means all.
+    */
+   private void removeCompletionInfos(String catalog, String schema)
+   {
+      String catalogPrefix = (catalog + ",").toUpperCase();
+      String schemaSuffix = ("," + schema).toUpperCase();
+
+      _completionInfosByCataLogAndSchema.keySet().removeIf(key ->
+            (null == catalog || key.startsWith(catalogPrefix) || key.startsWith("NULL,"))
+         && (null == schema || key.endsWith(schemaSuffix) || key.endsWith(",NULL")));
    }
 
 	private void load(String catalog, String schema, boolean showLoadingMessage)
@@ -172,14 +211,14 @@ public class CodeCompletionInfoCollection
             for (int i = 0; i < catalogs.length; i++)
             {
                completionInfos.add(new CodeCompletionCatalogInfo(catalogs[i], _prefs));
-               _catalogs.add(new CodeCompletionCatalogInfo(catalogs[i], _prefs));
+               _upperCaseCatalogNames.add(catalogs[i].toUpperCase());
             }
 
             String[] schemas = _session.getSchemaInfo().getSchemas();
             for (int i = 0; i < schemas.length; i++)
             {
                completionInfos.add(new CodeCompletionSchemaInfo(schemas[i], _prefs));
-               _schemas.add(new CodeCompletionSchemaInfo(schemas[i], _prefs));
+               _upperCaseSchemaNames.add(schemas[i].toUpperCase());
             }
 
             SyntaxExternalService syntaxExternalService =
@@ -208,7 +247,7 @@ public class CodeCompletionInfoCollection
 
          Collections.sort(completionInfos);
 
-         _completionInfosByCataLogAndSchema.put(key, completionInfos);
+         _completionInfosByCataLogAndSchema.put(key, new CodeCompletionInfoIndex(completionInfos));
 		}
 	}
 
@@ -217,7 +256,7 @@ public class CodeCompletionInfoCollection
    {
 		load(catalog, schema, true);
 
-      Vector<CodeCompletionInfo> completionInfos = getCompletionInfos(catalog, schema);
+      CodeCompletionInfoIndex completionInfos = getCompletionInfos(catalog, schema);
 
       if(null == completionInfos)
       {
@@ -232,15 +271,12 @@ public class CodeCompletionInfoCollection
 			Vector<CodeCompletionInfo> buf = new Vector<>();
 			buf.addAll(_aliasCompletionInfos);
 
+         buf.addAll(completionInfos.getFirst(MAX_COMPLETION_INFOS));
+
          if(MAX_COMPLETION_INFOS < completionInfos.size())
          {
-            buf.addAll(completionInfos.subList(0,MAX_COMPLETION_INFOS));
             _session.showMessage(TOO_MANY_COMPLETION_INFOS);
          }
-         else
-         {
-            buf.addAll(completionInfos);
-         }
 
 
          return buf.toArray(new CodeCompletionInfo[0]);
@@ -259,28 +295,22 @@ public class CodeCompletionInfoCollection
 		}
 
 
-      for(int i=0; i < completionInfos.size(); ++i)
-      {
-         CodeCompletionInfo buf = completionInfos.get(i);
-         if (buf.matchesCompletionStringStart(trimmedPrefix, CompletionMatchTypeUtil.matchTypeOf(_useCompletionPrefs, _prefs)))
-         {
-            ret.add(buf);
+      // One more than allowed tells if the list was truncated.
+      int maxCount = Math.max(0, MAX_COMPLETION_INFOS + 1 - ret.size());
+      ret.addAll(completionInfos.find(trimmedPrefix, CompletionMatchTypeUtil.matchTypeOf(_useCompletionPrefs, _prefs), maxCount));
 
-            if (MAX_COMPLETION_INFOS < ret.size())
-            {
-               _session.showMessage(TOO_MANY_COMPLETION_INFOS);
-               break;
-            }
-         }
+      if (MAX_COMPLETION_INFOS < ret.size())
+      {
+         _session.showMessage(TOO_MANY_COMPLETION_INFOS);
       }
 
       return ret.toArray(new CodeCompletionInfo[0]);
    }
 
-   private Vector<CodeCompletionInfo> getCompletionInfos(String catalog, String schema)
+   private CodeCompletionInfoIndex getCompletionInfos(String catalog, String schema)
    {
       String key = (catalog + "," + schema).toUpperCase();
-      Vector<CodeCompletionInfo> ret = _completionInfosByCataLogAndSchema.get(key);
+      CodeCompletionInfoIndex ret = _completionInfosByCataLogAndSchema.get(key);
 
       if(null == ret)
       {
@@ -306,33 +336,17 @@ public class CodeCompletionInfoCollection
 
    public boolean isCatalog(String name)
    {
-      for (int i = 0; i < _catalogs.size(); i++)
-      {
-         CodeCompletionCatalogInfo info = _catalogs.get(i);
-         if(info.getCompareString().equalsIgnoreCase(name))
-         {
-            return true;
-         }
-      }
-      return false;
+      return null != name && _upperCaseCatalogNames.contains(name.toUpperCase());
    }
 
    public boolean isSchema(String name)
    {
-      for (int i = 0; i < _schemas.size(); i++)
-      {
-         CodeCompletionSchemaInfo info = _schemas.get(i);
-         if(info.getCompareString().equalsIgnoreCase(name))
-         {
-            return true;
-         }
-      }
-      return false;
+      return null != name && _upperCaseSchemaNames.contains(name.toUpperCase());
    }
 
    public boolean addCompletionsAtListBegin(String catalog, String schema, CodeCompletionInfo[] completions)
    {
-      Vector<CodeCompletionInfo> completionInfos = getCompletionInfos(catalog, schema);
+      CodeCompletionInfoIndex completionInfos = getCompletionInfos(catalog, schema);
 
       if(null == completionInfos)
       {
@@ -342,7 +356,7 @@ public class CodeCompletionInfoCollection
       else
       {
          Arrays.sort(completions);
-         completionInfos.addAll(0,Arrays.asList(completions));
+         completionInfos.addAtBegin(completions);
          return true;
       }
    }
@@ -0,0 +1,309 @@
+package net.sourceforge.squirrel_sql.plugins.codecompletion;
+
+import net.sourceforge.squirrel_sql.fw.completion.CompletionMatchType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index over the completion infos of one catalog/schema, see {@link CodeCompletionInfoCollection}.
+ * Finds matches without visiting each info:
+ * <ul>
+ *    <li>Prefix matches are found by binary search in the infos sorted by their upper case compare strings.</li>
+ *    <li>Camel case matches begin with the first camel case word of the search string.
+ *    So they are searched among the prefix matches of this word only.</li>
+ *    <li>Contains matches are looked up in an n-gram index which is created at the first contains search.</li>
+ * </ul>
+ * Results are ranked: Exact matches first, then prefix matches, then camel case or contains matches.
+ * Within each group infos are sorted.
+ */
+class CodeCompletionInfoIndex
+{
+   /**
+    * Search strings up to this length are looked up in the n-gram index directly.
+    * For longer search strings the candidates are those of the rarest n-gram of this length.
+    */
+   private static final int MAX_NGRAM_LENGTH = 3;
+
+   private static final int[] NO_IDS = new int[0];
+
+   private final CodeCompletionInfo[] _infos;
+   private final String[] _upperCaseCompareStrings;
+
+   /**
+    * Infos put in front of all others, see {@link #addAtBegin(CodeCompletionInfo[])}.
+    * There are few of them, so they are searched one by one.
+    */
+   private final List<CodeCompletionInfo> _leadingInfos = Collections.synchronizedList(new ArrayList<>());
+
+   private volatile Map<String, int[]> _idsByNGram;
+
+   /**
+    * @param sortedInfos Sorted by {@link CodeCompletionInfo#compareTo(net.sourceforge.squirrel_sql.fw.completion.CompletionInfo)}
+    */
+   CodeCompletionInfoIndex(List<CodeCompletionInfo> sortedInfos)
+   {
+      _infos = sortedInfos.toArray(new CodeCompletionInfo[0]);
+      _upperCaseCompareStrings = new String[_infos.length];
+
+      for (int i = 0; i < _infos.length; i++)
+      {
+         _upperCaseCompareStrings[i] = _infos[i].getCompareString().toUpperCase();
+      }
+   }
+
+   void addAtBegin(CodeCompletionInfo[] sortedInfos)
+   {
+      _leadingInfos.addAll(0, Arrays.asList(sortedInfos));
+   }
+
+   int size()
+   {
+      return _leadingInfos.size() + _infos.length;
+   }
+
+   /**
+    * @return The first maxCount infos in list order.
+    */
+   List<CodeCompletionInfo> getFirst(int maxCount)
+   {
+      ArrayList<CodeCompletionInfo> ret = new ArrayList<>();
+
+      synchronized (_leadingInfos)
+      {
+         ret.addAll(_leadingInfos.subList(0, Math.min(maxCount, _leadingInfos.size())));
+      }
+
+      ret.addAll(Arrays.asList(_infos).subList(0, Math.min(maxCount - ret.size(), _infos.length)));
+
+      return ret;
+   }
+
+   /**
+    * @param maxCount The result is cut off after this many infos.
+    * @return The infos matching like {@link CodeCompletionInfo#matchesCompletionStringStart(String, CompletionMatchType)}.
+    */
+   List<CodeCompletionInfo> find(String testString, CompletionMatchType matchType, int maxCount)
+   {
+      ArrayList<CodeCompletionInfo> ret = new ArrayList<>();
+
+      synchronized (_leadingInfos)
+      {
+         for (CodeCompletionInfo info : _leadingInfos)
+         {
+            if(ret.size() < maxCount && info.matchesCompletionStringStart(testString, matchType))
+            {
+               ret.add(info);
+            }
+         }
+      }
+
+      String upperCaseTestString = testString.toUpperCase();
+
+      int prefixBegin = findFirst(upperCaseTestString);
+      int prefixEnd = findEnd(prefixBegin, upperCaseTestString);
+
+      for (int i = prefixBegin; i < prefixEnd && ret.size() < maxCount; i++)
+      {
+         ret.add(_infos[i]);
+      }
+
+      if(ret.size() == maxCount)
+      {
+         return ret;
+      }
+
+      int[] candidateIds = getCandidateIds(testString, upperCaseTestString, matchType);
+
+      for (int i = 0; i < candidateIds.length && ret.size() < maxCount; i++)
+      {
+         int id = candidateIds[i];
+         if(prefixBegin <= id && id < prefixEnd)
+         {
+            // Already added as prefix match.
+            continue;
+         }
+
+         if(matchType.match(testString, _infos[id].getCompareString()))
+         {
+            ret.add(_infos[id]);
+         }
+      }
+
+      return ret;
+   }
+
+   /**
+    * @return Sorted ids of infos that may match by matchType. Each candidate needs to be checked.
+    */
+   private int[] getCandidateIds(String testString, String upperCaseTestString, CompletionMatchType matchType)
+   {
+      switch (matchType)
+      {
+         case CAMEL_CASE:
+            String upperCaseFirstWord = getFirstCamelCaseWord(testString).toUpperCase();
+            int begin = findFirst(upperCaseFirstWord);
+            int end = findEnd(begin, upperCaseFirstWord);
+
+            int[] ret = new int[end - begin];
+            for (int i = 0; i < ret.length; i++)
+            {
+               ret[i] = begin + i;
+            }
+            return ret;
+
+         case CONTAINS:
+            return getContainsCandidateIds(upperCaseTestString);
+
+         default:
+            return NO_IDS;
+      }
+   }
+
+   private int[] getContainsCandidateIds(String upperCaseTestString)
+   {
+      if(0 == upperCaseTestString.length())
+      {
+         return NO_IDS;
+      }
+
+      Map<String, int[]> idsByNGram = getIdsByNGram();
+
+      if(upperCaseTestString.length() <= MAX_NGRAM_LENGTH)
+      {
+         return idsByNGram.getOrDefault(upperCaseTestString, NO_IDS);
+      }
+
+      int[] ret = null;
+      for (int i = 0; i + MAX_NGRAM_LENGTH <= upperCaseTestString.length(); i++)
+      {
+         int[] ids = idsByNGram.getOrDefault(upperCaseTestString.substring(i, i + MAX_NGRAM_LENGTH), NO_IDS);
+
+         if(null == ret || ids.length < ret.length)
+         {
+            ret = ids;
+         }
+      }
+      return ret;
+   }
+
+   /**
+    * Maps each substring of length 1 to {@link #MAX_NGRAM_LENGTH} of the upper case compare strings
+    * to the sorted ids of the infos containing it.
+    */
+   private Map<String, int[]> getIdsByNGram()
+   {
+      Map<String, int[]> ret = _idsByNGram;
+
+      if(null != ret)
+      {
+         return ret;
+      }
+
+      HashMap<String, int[]> counts = new HashMap<>();
+      forEachNGram((nGram, id) -> counts.computeIfAbsent(nGram, k -> new int[1])[0]++);
+
+      HashMap<String, int[]> idsByNGram = new HashMap<>(counts.size() * 2);
+      for (Map.Entry<String, int[]> entry : counts.entrySet())
+      {
+         idsByNGram.put(entry.getKey(), new int[entry.getValue()[0]]);
+         entry.getValue()[0] = 0;
+      }
+
+      // Ids are visited in ascending order, so the id arrays end up sorted.
+      forEachNGram((nGram, id) -> idsByNGram.get(nGram)[counts.get(nGram)[0]++] = id);
+
+      // Concurrent callers may create equal maps. That's harmless.
+      _idsByNGram = idsByNGram;
+      return idsByNGram;
+   }
+
+   private interface NGramConsumer
+   {
+      void accept(String nGram, int id);
+   }
+
+   /**
+    * Calls consumer once for each distinct n-gram of each info.
+    */
+   private void forEachNGram(NGramConsumer consumer)
+   {
+      HashSet<String> nGramsOfInfo = new HashSet<>();
+      for (int id = 0; id < _upperCaseCompareStrings.length; id++)
+      {
+         String s = _upperCaseCompareStrings[id];
+
+         nGramsOfInfo.clear();
+         for (int len = 1; len <= MAX_NGRAM_LENGTH; len++)
+         {
+            for (int i = 0; i + len <= s.length(); i++)
+            {
+               nGramsOfInfo.add(s.substring(i, i + len));
+            }
+         }
+
+         for (String nGram : nGramsOfInfo)
+         {
+            consumer.accept(nGram, id);
+         }
+      }
+   }
+
+   /**
+    * The first camel case word as defined by {@link net.sourceforge.squirrel_sql.fw.completion.CamelCaseMatcher}
+    * reaches up to the second upper case char.
+    */
+   private static String getFirstCamelCaseWord(String testString)
+   {
+      for (int i = 1; i < testString.length(); i++)
+      {
+         if(Character.isUpperCase(testString.charAt(i)))
+         {
+            return testString.substring(0, i);
+         }
+      }
+      return testString;
+   }
+
+   /**
+    * @return The index of the first upper case compare string greater or equal to upperCasePrefix.
+    */
+   private int findFirst(String upperCasePrefix)
+   {
+      int ix = Arrays.binarySearch(_upperCaseCompareStrings, upperCasePrefix);
+      if(0 > ix)
+      {
+         return -(ix + 1);
+      }
+
+      // Several infos may have the same compare string, e.g. a keyword and a function.
+      while (0 < ix && _upperCaseCompareStrings[ix - 1].equals(upperCasePrefix))
+      {
+         --ix;
+      }
+      return ix;
+   }
+
+   /**
+    * @return The index behind the last upper case compare string starting with upperCasePrefix.
+    */
+   private int findEnd(int begin, String upperCasePrefix)
+   {
+      // All strings starting with upperCasePrefix are less than this key.
+      String key = upperCasePrefix + Character.MAX_VALUE;
+
+      int ix = Arrays.binarySearch(_upperCaseCompareStrings, begin, _upperCaseCompareStrings.length, key);
+      int end = 0 <= ix ? ix : -(ix + 1);
+
+      while (end < _upperCaseCompareStrings.length && _upperCaseCompareStrings[end].startsWith(upperCasePrefix))
+      {
+         ++end;
+      }
+      return end;
+   }
+}
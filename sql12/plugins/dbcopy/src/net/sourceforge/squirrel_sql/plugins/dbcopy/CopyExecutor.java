@@ -35,7 +35,6 @@ import net.sourceforge.squirrel_sql.plugins.dbcopy.prefs.DBCopyPreferenceBean;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.prefs.PreferencesManager;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.util.DBUtil;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -68,6 +67,9 @@ public class CopyExecutor extends I18NBaseObject {
     /** what value does autocommit have in dest connection now */
     private boolean currentAutoCommitValue = true;    
     
+    /** the minimum number of records the reader fetches before handing them to the writer */
+    private static final int MIN_READ_BLOCK_SIZE = 100;
+    
     /** the user's preferences */
     private static DBCopyPreferenceBean prefs = PreferencesManager.getPreferences();
     
@@ -86,6 +88,12 @@ public class CopyExecutor extends I18NBaseObject {
     /** impl that gives us feedback from the user */
     private UICallbacks pref = null;
     
+    /** hands out the tables to the workers while copying tables in parallel */
+    private volatile TableCopyScheduler scheduler = null;
+    
+    /** index definitions of created tables, created after the records have been copied */
+    private ArrayList<String> deferredIndexSQLs = new ArrayList<>();
+    
     /** the start time in millis that the copy operation began */
     private long start = 0;
     
@@ -122,6 +130,10 @@ public class CopyExecutor extends I18NBaseObject {
      */
     public void cancel() {
         cancelled = true;
+        TableCopyScheduler scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.cancel();
+        }
         execThread.interrupt();        
     }
     
@@ -140,7 +152,7 @@ public class CopyExecutor extends I18NBaseObject {
        setupAutoCommit(destConn);
        List<IDatabaseObjectInfo> sourceObjs = prov.getSourceDatabaseObjects();
        int[] counts = getTableCounts();
-       sendCopyStarted(counts);
+       deferredIndexSQLs.clear();
 
        //String destSchema = prov.getDestDatabaseObject().getSimpleName();  used to break, when a table was selected
 
@@ -150,105 +162,68 @@ public class CopyExecutor extends I18NBaseObject {
 
        TableInfo pasteToTableInfo = prov.getPasteToTableInfo(destConn, destSchema, destCatalog);
 
-       execDeletes(sourceObjs, destCatalog, destSchema, pasteToTableInfo);
+       List<ISQLConnection[]> workerConnections = openWorkerConnections();
+       sendCopyStarted(counts, workerConnections.size());
 
+       execDeletes(sourceObjs, destCatalog, destSchema, pasteToTableInfo);
 
-       int sourceObjectCount = 0;
-       for (IDatabaseObjectInfo info : sourceObjs)
+       try
        {
-          if (!(info instanceof ITableInfo))
-          {
-             continue;
-          }
-          ITableInfo sourceTI = (ITableInfo) info;
-          sendTableCopyStarted(chooseDestTableInfo(sourceTI, pasteToTableInfo), sourceObjectCount + 1);
-          try
-          {
-             int destTableCount = DBUtil.getTableCount(destSession,
-                   destCatalog,
-                   destSchema,
-                   chooseDestTableInfo(sourceTI, pasteToTableInfo).getSimpleName(),
-                   DialectFactory.DEST_TYPE,
-                   prov.getWhereClause());
-
-             if (destTableCount == -1)
-             {
-                createTable(sourceTI, chooseDestTableInfo(sourceTI, pasteToTableInfo).getSimpleName(), destSchema, destCatalog);
-             }
-
-             // See execDeletes(...)
-             //if (destTableCount > 0)
-             //{
-             //    try
-             //    {
-             //        if (pref.appendRecordsToExisting())
-             //        {
-             //            /* Do nothing */
-             //        }
-             //        else if (pref.deleteTableData(chooseDestTableInfo(sourceTI, pasteToTableInfo).getSimpleName()))
-             //        {
-             //            // Yes || Yes to all
-             //            DBUtil.deleteDataInExistingTable(destSession,
-             //                  destCatalog,
-             //                  destSchema,
-             //                  chooseDestTableInfo(sourceTI, pasteToTableInfo).getSimpleName());
-             //        }
-             //        else
-             //        {
-             //            continue; // skip this table, try the next.
-             //        }
-             //
-             //    }
-             //    catch (UserCancelledOperationException e)
-             //    {
-             //        cancelled = true;
-             //        break;
-             //    }
-             //}
-
-             copyTable(sourceTI, pasteToTableInfo, counts[sourceObjectCount]);
-
-             if (sourceObjectCount == sourceObjs.size() - 1 && !cancelled)
-             {
-                // We just copied the last table.  Now it is safe to copy the
-                // constraints.(Well, that is, if all FK dependencies are met
-                // in the group of tables being copied.
-                // TODO: new feature could be to examine table list for FK's
-                // in tables not in the list then prompt the user to add
-                // those missing tables to the list.
-                copyConstraints(sourceObjs);
-             }
-             if (!cancelled)
-             {
-                sendTableCopyFinished(chooseDestTableInfo(sourceTI, pasteToTableInfo), sourceObjectCount + 1);
-                sleep(prefs.getTableDelayMillis());
-             }
-          }
-          catch (SQLException e)
-          {
-             encounteredException = true;
-             sendErrorEvent(ErrorEvent.SQL_EXCEPTION_TYPE, e);
-             break;
-          }
-          catch (MappingException e)
+          createMissingTables(destCatalog, destSchema, pasteToTableInfo);
+
+          if (workerConnections.isEmpty())
           {
-             encounteredException = true;
-             sendErrorEvent(ErrorEvent.MAPPING_EXCEPTION_TYPE, e);
-             break;
+             copyTablesSequentially(counts, pasteToTableInfo);
           }
-          catch (UserCancelledOperationException e)
+          else
           {
-             cancelled = true;
-             break;
+             copyTablesInParallel(counts, pasteToTableInfo, workerConnections);
           }
-          catch (Exception e)
+
+          createDeferredIndexes();
+
+          if (!cancelled)
           {
-             encounteredException = true;
-             sendErrorEvent(ErrorEvent.GENERIC_EXCEPTION, e);
-             break;
+             // All records have been copied.  Now it is safe to copy the
+             // constraints.(Well, that is, if all FK dependencies are met
+             // in the group of tables being copied.
+             // TODO: new feature could be to examine table list for FK's
+             // in tables not in the list then prompt the user to add
+             // those missing tables to the list.
+             copyConstraints(sourceObjs);
           }
-          sourceObjectCount++;
        }
+       catch (SQLException e)
+       {
+          encounteredException = true;
+          sendErrorEvent(ErrorEvent.SQL_EXCEPTION_TYPE, e);
+       }
+       catch (MappingException e)
+       {
+          encounteredException = true;
+          sendErrorEvent(ErrorEvent.MAPPING_EXCEPTION_TYPE, e);
+       }
+       catch (UserCancelledOperationException e)
+       {
+          cancelled = true;
+       }
+       catch (Exception e)
+       {
+          encounteredException = true;
+          sendErrorEvent(ErrorEvent.GENERIC_EXCEPTION, e);
+       }
+       finally
+       {
+          closeWorkerConnections(workerConnections);
+       }
+
+       if (encounteredException || cancelled)
+       {
+          // Tables created before the failure keep their indexes
+          // like they did when indexes were created along with the tables.
+          createDeferredIndexesAfterFailure();
+       }
+
        restoreAutoCommit(destConn);
        if (cancelled)
        {
@@ -278,6 +253,238 @@ public class CopyExecutor extends I18NBaseObject {
        notifyCopyFinished();
     }
 
+   /**
+    * Creates the destination tables that don't exist yet. Their index definitions
+    * are kept in deferredIndexSQLs to be created after the records have been copied.
+    */
+   private void createMissingTables(String destCatalog, String destSchema, TableInfo pasteToTableInfo)
+      throws SQLException, MappingException, UserCancelledOperationException
+   {
+      for (ITableInfo sourceTI : selectedTableInfos)
+      {
+         if (cancelled)
+         {
+            return;
+         }
+
+         String destTableName = chooseDestTableInfo(sourceTI, pasteToTableInfo).getSimpleName();
+
+         int destTableCount = DBUtil.getTableCount(destSession,
+               destCatalog,
+               destSchema,
+               destTableName,
+               DialectFactory.DEST_TYPE,
+               prov.getWhereClause());
+
+         if (destTableCount == -1)
+         {
+            createTable(sourceTI, destTableName, destSchema, destCatalog);
+         }
+      }
+   }
+
+   private void copyTablesSequentially(int[] counts, TableInfo pasteToTableInfo)
+      throws SQLException, MappingException, UserCancelledOperationException
+   {
+      ISQLConnection sourceConn = sourceSession.getSQLConnection();
+      ISQLConnection destConn = destSession.getSQLConnection();
+
+      for (int i = 0; i < selectedTableInfos.size() && !cancelled; i++)
+      {
+         ITableInfo sourceTI = selectedTableInfos.get(i);
+         ITableInfo destTI = chooseDestTableInfo(sourceTI, pasteToTableInfo);
+
+         sendTableCopyStarted(destTI, i + 1, 0);
+         copyTable(sourceTI, pasteToTableInfo, counts[i], sourceConn, destConn, 0);
+         if (!cancelled)
+         {
+            sendTableCopyFinished(destTI, i + 1, 0);
+            sleep(prefs.getTableDelayMillis());
+         }
+      }
+   }
+
+   /**
+    * Copies the tables by one worker thread per entry of workerConnections.
+    * Which table a worker copies next is decided by a {@link TableCopyScheduler}.
+    */
+   private void copyTablesInParallel(int[] counts, TableInfo pasteToTableInfo, List<ISQLConnection[]> workerConnections)
+      throws Exception
+   {
+      scheduler = new TableCopyScheduler(selectedTableInfos, sourceSession.getSQLConnection().getSQLMetaData());
+      if (cancelled)
+      {
+         scheduler.cancel();
+      }
+
+      ArrayList<Thread> workers = new ArrayList<>();
+      for (int i = 0; i < workerConnections.size(); i++)
+      {
+         final int workerNumber = i + 1;
+         final ISQLConnection[] conns = workerConnections.get(i);
+         Thread worker = new Thread(() -> runCopyWorker(scheduler, counts, pasteToTableInfo, conns[0], conns[1], workerNumber));
+         worker.setName("DBCopy Worker Thread " + workerNumber);
+         workers.add(worker);
+         worker.start();
+      }
+
+      for (Thread worker : workers)
+      {
+         while (worker.isAlive())
+         {
+            try
+            {
+               worker.join();
+            }
+            catch (InterruptedException e)
+            {
+               // The user cancelled, see cancel(). The workers end
+               // after their current record.
+            }
+         }
+      }
+
+      Throwable failure = scheduler.getFailure();
+      scheduler = null;
+
+      if (failure instanceof Exception)
+      {
+         throw (Exception) failure;
+      }
+      else if (null != failure)
+      {
+         throw Utilities.wrapRuntime(failure);
+      }
+   }
+
+   private void runCopyWorker(TableCopyScheduler scheduler,
+                              int[] counts,
+                              TableInfo pasteToTableInfo,
+                              ISQLConnection sourceConn,
+                              ISQLConnection destConn,
+                              int workerNumber)
+   {
+      try
+      {
+         for (ITableInfo sourceTI = scheduler.take(); null != sourceTI; sourceTI = scheduler.take())
+         {
+            int ix = selectedTableInfos.indexOf(sourceTI);
+            ITableInfo destTI = chooseDestTableInfo(sourceTI, pasteToTableInfo);
+
+            sendTableCopyStarted(destTI, ix + 1, workerNumber);
+            copyTable(sourceTI, pasteToTableInfo, counts[ix], sourceConn, destConn, workerNumber);
+            scheduler.finished(sourceTI);
+
+            if (!cancelled)
+            {
+               sendTableCopyFinished(destTI, ix + 1, workerNumber);
+               sleep(prefs.getTableDelayMillis());
+            }
+         }
+      }
+      catch (Throwable t)
+      {
+         scheduler.failed(t);
+      }
+   }
+
+   /**
+    * Opens a source and a destination connection for each table to copy in parallel,
+    * see {@link DBCopyPreferenceBean#getParallelTableCount()}.
+    *
+    * @return Pairs of source and destination connection, an empty list if tables are to be copied sequentially.
+    */
+   private List<ISQLConnection[]> openWorkerConnections()
+   {
+      ArrayList<ISQLConnection[]> ret = new ArrayList<>();
+
+      int workerCount = Math.min(prefs.getParallelTableCount(), selectedTableInfos.size());
+      if (2 > workerCount || !prefs.isCopyData())
+      {
+         return ret;
+      }
+
+      for (int i = 0; i < workerCount; i++)
+      {
+         ISQLConnection sourceConn = sourceSession.createUnmanagedConnection();
+         ISQLConnection destConn = null == sourceConn ? null : destSession.createUnmanagedConnection();
+
+         if (null == destConn)
+         {
+            log.warn("Could only open connections for " + ret.size() + " of " + workerCount + " tables to copy in parallel");
+            if (null != sourceConn)
+            {
+               sourceConn.close();
+            }
+            break;
+         }
+
+         try
+         {
+            destConn.setAutoCommit(currentAutoCommitValue);
+         }
+         catch (SQLException e)
+         {
+            log.error("Failed to set auto-commit of DBCopy worker connection", e);
+         }
+
+         ret.add(new ISQLConnection[]{sourceConn, destConn});
+      }
+
+      if (2 > ret.size())
+      {
+         closeWorkerConnections(ret);
+         ret.clear();
+      }
+
+      return ret;
+   }
+
+   private void closeWorkerConnections(List<ISQLConnection[]> workerConnections)
+   {
+      for (ISQLConnection[] conns : workerConnections)
+      {
+         for (ISQLConnection conn : conns)
+         {
+            try
+            {
+               conn.close();
+            }
+            catch (Exception e)
+            {
+               log.error("Failed to close DBCopy worker connection", e);
+            }
+         }
+      }
+   }
+
+   private void createDeferredIndexes() throws SQLException
+   {
+      ISQLConnection destCon = destSession.getSQLConnection();
+      for (Iterator<String> i = deferredIndexSQLs.iterator(); i.hasNext(); )
+      {
+         String createIndicesSql = i.next();
+         i.remove();
+         DBUtil.executeUpdate(destCon, createIndicesSql, true);
+      }
+      if (!currentAutoCommitValue)
+      {
+         commitConnection(destCon);
+      }
+   }
+
+   private void createDeferredIndexesAfterFailure()
+   {
+      try
+      {
+         createDeferredIndexes();
+      }
+      catch (Exception e)
+      {
+         log.error("Failed to create index definitions of copied tables", e);
+      }
+   }
+
    private void execDeletes(List<IDatabaseObjectInfo> sourceObjs, String destCatalog, String destSchema, TableInfo pasteToTableInfo)
    {
       try
@@ -527,9 +734,10 @@ public class CopyExecutor extends I18NBaseObject {
         }                
     }
     
-    private void sendCopyStarted(int[] tableCounts) {
+    private void sendCopyStarted(int[] tableCounts, int workerCount) {
         CopyEvent event = new CopyEvent(prov);
         event.setTableCounts(tableCounts);
+        event.setWorkerCount(workerCount);
         Iterator<CopyTableListener> i = listeners.iterator();
         while (i.hasNext()) {
             CopyTableListener listener = i.next();
@@ -537,11 +745,12 @@ public class CopyExecutor extends I18NBaseObject {
         }        
     }
     
-    private void sendTableCopyStarted(ITableInfo ti, int number) {
+    private synchronized void sendTableCopyStarted(ITableInfo ti, int number, int workerNumber) {
         TableEvent event = new TableEvent(prov);
         event.setTableNumber(number);
         event.setTableCount(prov.getSourceDatabaseObjects().size());
         event.setTableName(ti.getSimpleName());
+        event.setWorkerNumber(workerNumber);
         Iterator<CopyTableListener> i = listeners.iterator();
         while (i.hasNext()) {
             CopyTableListener listener = i.next();
@@ -549,11 +758,12 @@ public class CopyExecutor extends I18NBaseObject {
         }
     }
 
-    private void sendTableCopyFinished(ITableInfo ti, int number) {
+    private synchronized void sendTableCopyFinished(ITableInfo ti, int number, int workerNumber) {
         TableEvent event = new TableEvent(prov);
         event.setTableNumber(number);
         event.setTableCount(prov.getSourceDatabaseObjects().size());
         event.setTableName(ti.getSimpleName());
+        event.setWorkerNumber(workerNumber);
         Iterator<CopyTableListener> i = listeners.iterator();
         while (i.hasNext()) {
             CopyTableListener listener = i.next();
@@ -577,7 +787,7 @@ public class CopyExecutor extends I18NBaseObject {
     * @param type the type of the ErrorEvent.
     * @param e    the exception that was encountered.
     */
-   private void sendErrorEvent(int type, Exception e)
+   private synchronized void sendErrorEvent(int type, Exception e)
    {
       Main.getApplication().getMessageHandler().showErrorMessage(e);
       s_log.error(e);
@@ -592,9 +802,13 @@ public class CopyExecutor extends I18NBaseObject {
       }
    }
 
-   private void sendRecordEvent(int number, int count)
+   private synchronized void sendRecordEvent(ITableInfo ti, int number, int count, RecordReader reader, RecordWriter writer, int workerNumber)
    {
       RecordEvent event = new RecordEvent(prov, number, count);
+      event.setTableName(ti.getSimpleName());
+      event.setWorkerNumber(workerNumber);
+      event.setReadRecordsPerSecond(reader.getRecordsPerSecond());
+      event.setWrittenRecordsPerSecond(writer.getRecordsPerSecond());
       Iterator<CopyTableListener> i = listeners.iterator();
       while (i.hasNext())
       {
@@ -603,11 +817,14 @@ public class CopyExecutor extends I18NBaseObject {
       }
    }
 
-   private void sendStatementEvent(String sql, String[] vals)
+   /**
+    * Sends one event for the records of a block, not one per record. Parallel copy workers would wait for each other otherwise.
+    */
+   private synchronized void sendStatementEvent(String sql, List<String[]> bindValueRows)
    {
       StatementEvent event =
             new StatementEvent(sql, StatementEvent.INSERT_RECORD_TYPE);
-      event.setBindValues(vals);
+      event.setBindValueRows(bindValueRows);
       Iterator<CopyTableListener> i = listeners.iterator();
       while (i.hasNext())
       {
@@ -649,10 +866,16 @@ public class CopyExecutor extends I18NBaseObject {
      *@param sourceTableCount  @throws MappingException
      * @throws SQLException
      */
-    private void copyTable(ITableInfo sourceTableInfo, TableInfo pasteToTableInfo, int sourceTableCount)
+    private void copyTable(ITableInfo sourceTableInfo, 
+                           TableInfo pasteToTableInfo, 
+                           int sourceTableCount, 
+                           ISQLConnection sourceConn, 
+                           ISQLConnection destConn, 
+                           int workerNumber)
         throws MappingException, SQLException, UserCancelledOperationException
     {
-        PreparedStatement insertStmt = null;
+        RecordReader reader = null;
+        RecordWriter writer = null;
         ResultSet rs = null;
         if (cancelled) {
             return;
@@ -660,10 +883,9 @@ public class CopyExecutor extends I18NBaseObject {
         if (!PreferencesManager.getPreferences().isCopyData()) {
             return;
         }
-        ISQLConnection sourceConn = prov.getSourceSession().getSQLConnection();
-        ISQLConnection destConn = prov.getDestSession().getSQLConnection();
-        SQLDatabaseMetaData sourceMetaData = sourceConn.getSQLMetaData();
-        SQLDatabaseMetaData destMetaData = destConn.getSQLMetaData();
+        // Meta data is read from the sessions' connections, SQLDatabaseMetaData synchronizes the access.
+        SQLDatabaseMetaData sourceMetaData = sourceSession.getSQLConnection().getSQLMetaData();
+        SQLDatabaseMetaData destMetaData = destSession.getSQLConnection().getSQLMetaData();
         try {
             String destSchema = DBUtil.getSchemaNameFromDbObject(prov.getDestDatabaseObject());
 
@@ -681,7 +903,6 @@ public class CopyExecutor extends I18NBaseObject {
                              destTableInfo.getQualifiedName());
             
             String sourceColList = DBUtil.getColumnList(sourceInfos, false);
-            String destColList = DBUtil.getColumnList(destInfos, false);
 
 
             boolean doubleQuoteTableName = false;
@@ -690,7 +911,7 @@ public class CopyExecutor extends I18NBaseObject {
             String selectSQL = DBUtil.getSelectQuery(prov,sourceColList,sourceTableInfo, doubleQuoteTableName, prov.getWhereClause());
             try
             {
-                rs = DBUtil.executeQuery(prov.getSourceSession(), selectSQL);
+                rs = DBUtil.executeQuery(prov.getSourceSession(), sourceConn, selectSQL);
             }
             catch (Exception e)
             {
@@ -699,7 +920,7 @@ public class CopyExecutor extends I18NBaseObject {
                     log.info("Failed to execute SELECT-SQL without double quoting. Now trying with double quoting table name", e);
                     doubleQuoteTableName = true;
                     selectSQL = DBUtil.getSelectQuery(prov, sourceColList,sourceTableInfo, doubleQuoteTableName, prov.getWhereClause());
-                    rs = DBUtil.executeQuery(prov.getSourceSession(), selectSQL);
+                    rs = DBUtil.executeQuery(prov.getSourceSession(), sourceConn, selectSQL);
                 }
                 catch (Exception e1)
                 {
@@ -709,133 +930,102 @@ public class CopyExecutor extends I18NBaseObject {
                     doubleQuoteColumnNames = true;
 
                     sourceColList = DBUtil.getColumnList(sourceInfos, doubleQuoteColumnNames);
-                    destColList = DBUtil.getColumnList(destInfos, doubleQuoteColumnNames);
                     selectSQL = DBUtil.getSelectQuery(prov, sourceColList,sourceTableInfo, doubleQuoteTableName, prov.getWhereClause());
-                    rs = DBUtil.executeQuery(prov.getSourceSession(), selectSQL);
+                    rs = DBUtil.executeQuery(prov.getSourceSession(), sourceConn, selectSQL);
                 }
             }
 
 
-            String insertSQL = DBUtil.getInsertSQL(prov, destColList, destTableInfo, destInfos.length, doubleQuoteTableName);
-
-            insertStmt = destConn.prepareStatement(insertSQL);
-            
-            int count = 1;
-            int commitCount = prefs.getCommitCount(); 
-            int columnCount = destInfos.length;
-            String[] bindVarVals = new String[columnCount];
-                        
-            boolean foundLOBType = false;
-            // Loop through source records...
-            DBUtil.setLastStatement(selectSQL);
-            DBUtil.setLastStatement(insertSQL);
             boolean isMysql = DialectFactory.isMySQL(destSession.getMetaData());
             boolean isSourceOracle = 
                 DialectFactory.isOracle(sourceSession.getMetaData());
             boolean isDestOracle = DialectFactory.isOracle(destSession.getMetaData());
-            while (rs.next() && !cancelled) {
-                // MySQL driver gets unhappy when we use the same 
-                // PreparedStatement to bind null and non-null LOB variables
-                // without clearing the parameters first.
-                if (isMysql && foundLOBType) 
-                {
-                    insertStmt.clearParameters();
-                }
-                StringBuilder lastStmtValuesBuffer = new StringBuilder();
-                lastStmtValuesBuffer.append("\n(Bind variable values: ");
-                foundLOBType = setPreparedStatementParams(insertStmt, rs, sourceInfos, destInfos, columnCount, bindVarVals, foundLOBType, isSourceOracle, isDestOracle, lastStmtValuesBuffer);
-                lastStmtValuesBuffer.append(")");
-
-                try
-                {
-                    DBUtil.setLastStatementValues(lastStmtValuesBuffer.toString());
-                    sendStatementEvent(insertSQL, bindVarVals);
-                    insertStmt.executeUpdate();
-                }
-                catch (Exception e)
-                {
-
-                    try
-                    {
-                        log.info("Failed to execute INSERT-SQL. Now trying with inverted quoting for columns", e);
 
-                        destColList = DBUtil.getColumnList(destInfos, !doubleQuoteColumnNames);
-                        insertSQL = DBUtil.getInsertSQL(prov, destColList, destTableInfo, destInfos.length, doubleQuoteTableName);
-                        insertStmt = destConn.prepareStatement(insertSQL);
+            int columnCount = destInfos.length;
+            int[] sourceColTypes = new int[columnCount];
+            int[] destColTypes = new int[columnCount];
+            boolean foundLOBType = false;
+            for (int i = 0; i < columnCount; i++) {
+                // If source column is type 1111 (OTHER), try to use the
+                // column type name to find a type that isn't 1111.
+                sourceColTypes[i] = DBUtil.replaceOtherDataType(sourceInfos[i], prov.getSourceSession());
+                sourceColTypes[i] = getDateReplacement(sourceColTypes[i], isSourceOracle);
 
-                        foundLOBType = setPreparedStatementParams(insertStmt, rs, sourceInfos, destInfos, columnCount, bindVarVals, foundLOBType, isSourceOracle, isDestOracle, lastStmtValuesBuffer);
+                destColTypes[i] = DBUtil.replaceOtherDataType(destInfos[i], prov.getDestSession());
+                destColTypes[i] = getDateReplacement(destColTypes[i], isDestOracle);
 
+                if (isLOBType(destColTypes[i])) {
+                    foundLOBType = true;
+                }
+            }
 
-                        DBUtil.setLastStatementValues(lastStmtValuesBuffer.toString());
-                        sendStatementEvent(insertSQL, bindVarVals);
-                        insertStmt.executeUpdate();
-                    }
-                    catch (Exception e1)
-                    {
-                        log.info("Failed to execute INSERT-SQL. Now trying with inverted quoting with inverted quoting for columns and table", e);
+            int batchSize = supportsBatchUpdates(destConn) ? Math.max(1, prefs.getBatchSize()) : 1;
 
-                        destColList = DBUtil.getColumnList(destInfos, !doubleQuoteColumnNames);
-                        insertSQL = DBUtil.getInsertSQL(prov, destColList, destTableInfo, destInfos.length, !doubleQuoteTableName);
-                        insertStmt = destConn.prepareStatement(insertSQL);
+            // MySQL driver gets unhappy when we use the same 
+            // PreparedStatement to bind null and non-null LOB variables
+            // without clearing the parameters first.
+            writer = new RecordWriter(prov, destConn, destTableInfo, destInfos, doubleQuoteTableName, doubleQuoteColumnNames, batchSize, isMysql && foundLOBType);
 
-                        foundLOBType = setPreparedStatementParams(insertStmt, rs, sourceInfos, destInfos, columnCount, bindVarVals, foundLOBType, isSourceOracle, isDestOracle, lastStmtValuesBuffer);
+            // Reading ahead needs its own connection. With a shared connection 
+            // fetching and inserting would interleave on the same JDBC Connection.
+            boolean pipelined = prefs.isReadRecordsInSeparateThread()
+                                && sourceConn.getConnection() != destConn.getConnection()
+                                && RecordReader.canPipeline(sourceColTypes);
+            reader = new RecordReader(rs, sourceColTypes, destColTypes, Math.max(batchSize, MIN_READ_BLOCK_SIZE), pipelined);
 
-                        DBUtil.setLastStatementValues(lastStmtValuesBuffer.toString());
-                        sendStatementEvent(insertSQL, bindVarVals);
-                        insertStmt.executeUpdate();
+            int count = 0;
+            int commitCount = prefs.getCommitCount(); 
 
+            // Loop through source records...
+            List<RecordedRow> block = reader.nextBlock();
+            while (!block.isEmpty() && !cancelled) {
+                ArrayList<String[]> blockBindValues = new ArrayList<>(block.size());
+                for (RecordedRow row : block) {
+                    if (cancelled) {
+                        break;
                     }
-
-                }
-
-                sendRecordEvent(count, sourceTableCount);
-                count++;
-                if (!currentAutoCommitValue) {
-                    if ((count % commitCount) == 0) {
-                        commitConnection(destConn);
+                    blockBindValues.add(row.getBindVarVals());
+                    writer.write(row);
+                    count++;
+                    if (!currentAutoCommitValue) {
+                        if ((count % commitCount) == 0) {
+                            writer.flush();
+                            commitConnection(destConn);
+                        }
                     }
+                    sleep(prefs.getRecordDelayMillis());
                 }
-                sleep(prefs.getRecordDelayMillis());
+                sendStatementEvent(writer.getInsertSQL(), blockBindValues);
+                sendRecordEvent(destTableInfo, writer.getWrittenCount(), sourceTableCount, reader, writer, workerNumber);
+                block = reader.nextBlock();
             }
+            writer.flush();
+            sendRecordEvent(destTableInfo, writer.getWrittenCount(), sourceTableCount, reader, writer, workerNumber);
         } finally {
+            if (null != reader) {
+                reader.close();
+            }
             SQLUtilities.closeResultSet(rs);
-            SQLUtilities.closeStatement(insertStmt);
+            if (null != writer) {
+                writer.close();
+            }
             if (!currentAutoCommitValue) {
                 commitConnection(destConn);
             }
         }
     }
 
-    private boolean setPreparedStatementParams(PreparedStatement insertStmt, ResultSet rs, TableColumnInfo[] sourceInfos, TableColumnInfo[] destInfos, int columnCount, String[] bindVarVals, boolean foundLOBType, boolean isSourceOracle, boolean isDestOracle, StringBuilder lastStmtValuesBuffer) throws SQLException
+    private boolean supportsBatchUpdates(ISQLConnection conn)
     {
-        for (int i = 0; i < columnCount; i++)
+        try
         {
-
-            // If source column is type 1111 (OTHER), try to use the
-            // column type name to find a type that isn't 1111.
-            int sourceColType = DBUtil.replaceOtherDataType(sourceInfos[i], prov.getSourceSession());
-            sourceColType = getDateReplacement(sourceColType, isSourceOracle);
-
-            int destColType   = destInfos[i].getDataType();
-            // If source column is type 1111 (OTHER), try to use the
-            // column type name to find a type that isn't 1111.
-            destColType = DBUtil.replaceOtherDataType(destInfos[i], prov.getDestSession());
-            destColType = getDateReplacement(destColType, isDestOracle);
-
-
-            String bindVal = DBUtil.bindVariable(insertStmt, sourceColType, destColType,i+1, rs);
-            bindVarVals[i] = bindVal;
-            lastStmtValuesBuffer.append(bindVal);
-            if (i + 1 < columnCount)
-            {
-                lastStmtValuesBuffer.append(", ");
-            }
-            if (isLOBType(destColType))
-            {
-                foundLOBType = true;
-            }
+            return conn.getSQLMetaData().getJDBCMetaData().supportsBatchUpdates();
+        }
+        catch (Throwable th)
+        {
+            log.debug("Driver doesn't handle DatabaseMetaData.supportsBatchUpdates()", th);
+            return false;
         }
-        return foundLOBType;
     }
 
     /**
@@ -973,7 +1163,6 @@ public class CopyExecutor extends I18NBaseObject {
             Iterator<String> it = fkStmts.iterator();
             while (it.hasNext()) {
                 String fkSQL = it.next();
-                DBUtil.setLastStatementValues("");
                 try {
                     DBUtil.executeUpdate(destConn, fkSQL, true);
                 } catch (SQLException e) {
@@ -1009,7 +1198,7 @@ public class CopyExecutor extends I18NBaseObject {
             CreateScriptPreferences prefs = new CreateScriptPreferences();
             prefs.setQualifyTableNames(null != destSchema);
 
-            if (this.prefs.isCopyPrimaryKeys())
+            if (CopyExecutor.prefs.isCopyPrimaryKeys())
             {
                 PrimaryKeyInfo[] pkList = sqlmd.getPrimaryKey(ti);
                 List<PrimaryKeyInfo> pkList2 = Arrays.asList(pkList);
@@ -1019,12 +1208,9 @@ public class CopyExecutor extends I18NBaseObject {
             {
                 indices = DialectUtils.createIndexes(ti, destTableName, destSchema, sqlmd, null, prefs);
             }
-            Iterator<String> i = indices.iterator();
-            while (i.hasNext())
-            {
-                String createIndicesSql = i.next();
-                DBUtil.executeUpdate(destCon, createIndicesSql, true);
-            }
+            // Indexes are created after the records have been copied,
+            // maintaining them while inserting slows down the copy.
+            deferredIndexSQLs.addAll(indices);
         }
     }
 
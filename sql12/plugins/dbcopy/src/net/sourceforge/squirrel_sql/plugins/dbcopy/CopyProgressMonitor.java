@@ -47,7 +47,7 @@ import net.sourceforge.squirrel_sql.plugins.dbcopy.event.StatementEvent;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.event.TableEvent;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.gui.DualProgressBarDialog;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.prefs.PreferencesManager;
-import net.sourceforge.squirrel_sql.plugins.dbcopy.util.DBUtil;
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.FailedStatementException;
 
 /**
  * A description of this class goes here...
@@ -74,6 +74,21 @@ public class CopyProgressMonitor extends I18NBaseObject
     
     private ProgressMonitor pm = null;
     
+    /** the number of the last record reported for the table currently copied */
+    private int lastRecordNumber = 0;
+    
+    /** 
+     * the number of the last record reported per worker when tables are 
+     * copied in parallel, indexed by worker number. Empty otherwise. 
+     */
+    private int[] lastWorkerRecordNumbers = new int[0];
+    
+    /** the number of records copied by all workers */
+    private int copiedRecordCount = 0;
+    
+    /** the number of records to copy from all tables */
+    private int totalRecordCount = 0;
+    
     private static CommentSpec[] commentSpecs =
         new CommentSpec[]
         {
@@ -97,6 +112,16 @@ public class CopyProgressMonitor extends I18NBaseObject
      */
     public void copyStarted(final CopyEvent e)
     {
+       // Set up before the dialog as worker events may arrive before the
+       // runnable below has been processed on the event thread.
+       lastWorkerRecordNumbers = 
+           new int[e.getWorkerCount() > 1 ? e.getWorkerCount() + 1 : 0];
+       copiedRecordCount = 0;
+       totalRecordCount = 0;
+       for (int count : e.getTableCounts()) {
+           totalRecordCount += count;
+       }
+
        Runnable runnable = new Runnable()
        {
           public void run()
@@ -114,6 +139,12 @@ public class CopyProgressMonitor extends I18NBaseObject
              DualProgressBarDialog.setBottomBarValue(0);
              DualProgressBarDialog.setTopBarValue(0);
              DualProgressBarDialog.setTableCounts(tableCounts);
+             DualProgressBarDialog.setWorkerCount(e.getWorkerCount());
+             if (isParallel()) {
+                 // The top bar shows the records of all tables, as the
+                 // workers copy several tables at once.
+                 DualProgressBarDialog.setTopBarMinMax(0, totalRecordCount);
+             }
           }
        };
 
@@ -125,6 +156,16 @@ public class CopyProgressMonitor extends I18NBaseObject
      * @see net.sourceforge.squirrel_sql.plugins.dbcopy.event.CopyTableListener#tableCopyStarted(net.sourceforge.squirrel_sql.plugins.dbcopy.event.TableEvent)
      */
     public void tableCopyStarted(TableEvent e) {
+        if (isParallel()) {
+            lastWorkerRecordNumbers[e.getWorkerNumber()] = 0;
+            String workerMessage = 
+                getMessage("CopyProgressMonitor.workerCopyingTable",
+                           new String[] {""+e.getWorkerNumber(),
+                                         e.getTableName()});
+            DualProgressBarDialog.setWorkerMessage(e.getWorkerNumber(), 
+                                                   workerMessage);
+        }
+        lastRecordNumber = 0;
         String bottomMessage = getMessage("CopyProgressMonitor.copyingTable", 
                                            new String[] {e.getTableName(),
                                                       ""+e.getTableNumber(),
@@ -136,12 +177,53 @@ public class CopyProgressMonitor extends I18NBaseObject
      * @see net.sourceforge.squirrel_sql.plugins.dbcopy.event.CopyTableListener#recordCopied(net.sourceforge.squirrel_sql.plugins.dbcopy.event.RecordEvent)
      */
     public void recordCopied(RecordEvent e) {
+        if (isParallel()) {
+            workerRecordCopied(e);
+            return;
+        }
         DualProgressBarDialog.setTopBarMinMax(0, e.getRecordCount());
+        String topMessage;
+        if (e.getReadRecordsPerSecond() > 0 && e.getWrittenRecordsPerSecond() > 0) {
+            topMessage = getMessage("CopyProgressMonitor.copyingRecordsWithRates",
+                                    new String[]{""+e.getRecordNumber(), 
+                                                 ""+e.getRecordCount(),
+                                                 ""+Math.round(e.getReadRecordsPerSecond()),
+                                                 ""+Math.round(e.getWrittenRecordsPerSecond())});
+        } else {
+            topMessage = getMessage("CopyProgressMonitor.copyingRecords",
+                                    new String[]{""+e.getRecordNumber(), 
+                                                 ""+e.getRecordCount()});
+        }
+        DualProgressBarDialog.setTopMessage(topMessage);
+        DualProgressBarDialog.incrementTopBar(e.getRecordNumber() - lastRecordNumber);
+        lastRecordNumber = e.getRecordNumber();
+    }
+
+    private void workerRecordCopied(RecordEvent e) {
+        int worker = e.getWorkerNumber();
+        int increment = e.getRecordNumber() - lastWorkerRecordNumbers[worker];
+        lastWorkerRecordNumbers[worker] = e.getRecordNumber();
+        copiedRecordCount += increment;
+        
+        String workerMessage = 
+            getMessage("CopyProgressMonitor.workerCopyingRecords",
+                       new String[]{""+worker,
+                                    e.getTableName(),
+                                    ""+e.getRecordNumber(), 
+                                    ""+e.getRecordCount(),
+                                    ""+Math.round(e.getReadRecordsPerSecond()),
+                                    ""+Math.round(e.getWrittenRecordsPerSecond())});
+        DualProgressBarDialog.setWorkerMessage(worker, workerMessage);
+        
         String topMessage = getMessage("CopyProgressMonitor.copyingRecords",
-                                       new String[]{""+e.getRecordNumber(), 
-                                                    ""+e.getRecordCount()});
+                                       new String[]{""+copiedRecordCount, 
+                                                    ""+totalRecordCount});
         DualProgressBarDialog.setTopMessage(topMessage);
-        DualProgressBarDialog.incrementTopBar(1);
+        DualProgressBarDialog.incrementTopBar(increment);
+    }
+    
+    private boolean isParallel() {
+        return lastWorkerRecordNumbers.length > 0;
     }
 
     /* (non-Javadoc)
@@ -155,7 +237,15 @@ public class CopyProgressMonitor extends I18NBaseObject
      * @see net.sourceforge.squirrel_sql.plugins.dbcopy.event.CopyTableListener#tableCopyFinished(net.sourceforge.squirrel_sql.plugins.dbcopy.event.TableEvent)
      */
     public void tableCopyFinished(TableEvent e) {
-        DualProgressBarDialog.setTopBarValue(0);
+        if (isParallel()) {
+            String workerMessage = 
+                getMessage("CopyProgressMonitor.workerIdle",
+                           new String[] {""+e.getWorkerNumber()});
+            DualProgressBarDialog.setWorkerMessage(e.getWorkerNumber(), 
+                                                   workerMessage);
+        } else {
+            DualProgressBarDialog.setTopBarValue(0);
+        }
         DualProgressBarDialog.incrementBottomBar(1);
     }
     
@@ -234,8 +324,13 @@ public class CopyProgressMonitor extends I18NBaseObject
         }
         if (e.getType() == ErrorEvent.SQL_EXCEPTION_TYPE) {
             String exMessage = wordWrap(e.getException().getMessage(), 80);
-            String sql = formatter.reformat(DBUtil.getLastStatement());
-            String values = DBUtil.getLastStatementValues();
+            String sql = "";
+            String values = null;
+            if (e.getException() instanceof FailedStatementException) {
+                FailedStatementException fse = (FailedStatementException) e.getException();
+                sql = formatter.reformat(fse.getStatement());
+                values = fse.getStatementValues();
+            }
             String sqlAndValues = sql;
             if (values != null) {
                 sqlAndValues += values;
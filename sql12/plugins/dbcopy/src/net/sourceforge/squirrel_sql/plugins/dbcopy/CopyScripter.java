@@ -44,8 +44,14 @@ public class CopyScripter extends CopyTableAdaptor implements CopyTableListener
     public void statementExecuted(StatementEvent e) {
         String sql = e.getStatement();
         if (e.getStatementType() == StatementEvent.INSERT_RECORD_TYPE) {
-            String[] values = e.getBindValues();
-            ScriptWriter.write(sql, values);
+            if (e.getBindValueRows() != null) {
+                for (String[] values : e.getBindValueRows()) {
+                    ScriptWriter.write(sql, values);
+                }
+            } else {
+                String[] values = e.getBindValues();
+                ScriptWriter.write(sql, values);
+            }
         } else {
             ScriptWriter.write(sql);
         }
@@ -0,0 +1,263 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy;
+
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.DBUtil;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the records of the source table's ResultSet in blocks of {@link RecordedRow}s.
+ * <p>
+ * When pipelined a reader thread fetches and converts the source records while the
+ * DBCopy Executor Thread inserts the previous blocks into the destination table.
+ * At most {@link #QUEUE_CAPACITY} blocks are buffered, so a slow destination
+ * slows down reading instead of filling the heap.
+ */
+class RecordReader
+{
+   private final static ILogger s_log = LoggerController.createLogger(RecordReader.class);
+
+   static final int QUEUE_CAPACITY = 4;
+
+   private static final List<RecordedRow> END_OF_RECORDS = new ArrayList<>();
+
+   private final ResultSet _rs;
+   private final int[] _sourceColTypes;
+   private final int[] _destColTypes;
+   private final int _blockSize;
+
+   private final PreparedStatement _recorder;
+   private RecordedRow _currentRow;
+
+   private final ArrayBlockingQueue<List<RecordedRow>> _queue;
+   private Thread _readerThread;
+   private volatile boolean _stopped;
+   private volatile Throwable _readerFailure;
+   private boolean _endReached;
+
+   private volatile int _readCount;
+   private volatile long _readNanos;
+
+   /**
+    * @param pipelined If true the records are read by a separate thread.
+    *                  The caller is responsible to check that this is safe, see {@link #canPipeline(int[])}.
+    */
+   RecordReader(ResultSet rs, int[] sourceColTypes, int[] destColTypes, int blockSize, boolean pipelined)
+   {
+      _rs = rs;
+      _sourceColTypes = sourceColTypes;
+      _destColTypes = destColTypes;
+      _blockSize = blockSize;
+
+      _recorder = (PreparedStatement) Proxy.newProxyInstance(RecordReader.class.getClassLoader(),
+                                                             new Class<?>[]{PreparedStatement.class},
+                                                             (proxy, method, args) -> _currentRow.record(method, args));
+
+      if (pipelined)
+      {
+         _queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+         _readerThread = new Thread(() -> runReader());
+         _readerThread.setName("DBCopy Reader Thread");
+         _readerThread.setDaemon(true);
+         _readerThread.start();
+      }
+      else
+      {
+         _queue = null;
+      }
+   }
+
+   /**
+    * Values of these types may be locators that are only valid while the ResultSet stays on their record.
+    * Thus they must be bound before the next record is fetched and can't be read ahead.
+    *
+    * @return true if records of the given source column types may be read ahead by a separate thread.
+    */
+   static boolean canPipeline(int[] sourceColTypes)
+   {
+      for (int sourceColType : sourceColTypes)
+      {
+         switch (sourceColType)
+         {
+            case Types.ARRAY:
+            case Types.REF:
+            case Types.STRUCT:
+            case Types.DATALINK:
+            case Types.DISTINCT:
+            case Types.JAVA_OBJECT:
+               return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * @return The next block of records, an empty list when all records have been read.
+    */
+   List<RecordedRow> nextBlock() throws SQLException
+   {
+      if (_endReached)
+      {
+         return END_OF_RECORDS;
+      }
+
+      if (null == _queue)
+      {
+         List<RecordedRow> ret = readBlock();
+         _endReached = ret.isEmpty();
+         return ret;
+      }
+
+      List<RecordedRow> ret;
+      try
+      {
+         ret = _queue.take();
+      }
+      catch (InterruptedException e)
+      {
+         // The copy operation was cancelled.
+         _endReached = true;
+         return END_OF_RECORDS;
+      }
+
+      if (END_OF_RECORDS == ret)
+      {
+         _endReached = true;
+         if (null != _readerFailure)
+         {
+            if (_readerFailure instanceof SQLException)
+            {
+               throw (SQLException) _readerFailure;
+            }
+            throw new SQLException("Failed to read source records", _readerFailure);
+         }
+      }
+      return ret;
+   }
+
+   private List<RecordedRow> readBlock() throws SQLException
+   {
+      long begin = System.nanoTime();
+
+      ArrayList<RecordedRow> ret = new ArrayList<>(_blockSize);
+      while (ret.size() < _blockSize && false == _stopped && _rs.next())
+      {
+         ret.add(readRecord());
+      }
+
+      _readCount += ret.size();
+      _readNanos += System.nanoTime() - begin;
+      return ret;
+   }
+
+   private RecordedRow readRecord() throws SQLException
+   {
+      _currentRow = new RecordedRow(_sourceColTypes.length);
+
+      StringBuilder lastStmtValuesBuffer = new StringBuilder();
+      lastStmtValuesBuffer.append("\n(Bind variable values: ");
+      for (int i = 0; i < _sourceColTypes.length; i++)
+      {
+         String bindVal = DBUtil.bindVariable(_recorder, _sourceColTypes[i], _destColTypes[i], i + 1, _rs);
+         _currentRow.setBindVarVal(i, bindVal);
+         lastStmtValuesBuffer.append(bindVal);
+         if (i + 1 < _sourceColTypes.length)
+         {
+            lastStmtValuesBuffer.append(", ");
+         }
+      }
+      lastStmtValuesBuffer.append(")");
+      _currentRow.setLastStatementValues(lastStmtValuesBuffer.toString());
+
+      return _currentRow;
+   }
+
+   private void runReader()
+   {
+      try
+      {
+         while (false == _stopped)
+         {
+            List<RecordedRow> block = readBlock();
+            if (block.isEmpty() || false == put(block))
+            {
+               break;
+            }
+         }
+      }
+      catch (Throwable t)
+      {
+         s_log.error("Failed to read source records", t);
+         _readerFailure = t;
+      }
+      finally
+      {
+         put(END_OF_RECORDS);
+      }
+   }
+
+   private boolean put(List<RecordedRow> block)
+   {
+      try
+      {
+         while (false == _stopped)
+         {
+            if (_queue.offer(block, 100, TimeUnit.MILLISECONDS))
+            {
+               return true;
+            }
+         }
+      }
+      catch (InterruptedException e)
+      {
+         _stopped = true;
+      }
+      return false;
+   }
+
+   /**
+    * @return The number of records read per second of time spent reading, not counting the time waiting for the writer.
+    */
+   double getRecordsPerSecond()
+   {
+      long readNanos = _readNanos;
+      return 0 == readNanos ? 0 : _readCount * 1e9 / readNanos;
+   }
+
+   /**
+    * Stops the reader thread and waits for it to end. Must be called before the ResultSet is closed.
+    */
+   void close()
+   {
+      _stopped = true;
+
+      if (null == _readerThread)
+      {
+         return;
+      }
+
+      // The reader thread ends after its current fetch because _stopped is set.
+      // Interrupts come from cancelling the copy operation which is signaled
+      // by CopyExecutor's cancelled flag as well, so they are not kept here.
+      while (_readerThread.isAlive())
+      {
+         try
+         {
+            _readerThread.join();
+         }
+         catch (InterruptedException e)
+         {
+            s_log.debug("Interrupted while waiting for the DBCopy Reader Thread to end");
+         }
+      }
+   }
+}
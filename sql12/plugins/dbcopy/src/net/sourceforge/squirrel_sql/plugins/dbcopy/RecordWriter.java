@@ -0,0 +1,313 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy;
+
+import net.sourceforge.squirrel_sql.fw.dialects.UserCancelledOperationException;
+import net.sourceforge.squirrel_sql.fw.sql.ISQLConnection;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
+import net.sourceforge.squirrel_sql.fw.sql.TableColumnInfo;
+import net.sourceforge.squirrel_sql.fw.util.StringManager;
+import net.sourceforge.squirrel_sql.fw.util.StringManagerFactory;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.DBUtil;
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.FailedStatementException;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+
+/**
+ * Inserts {@link RecordedRow}s into the destination table.
+ * <p>
+ * With a batch size greater than one the records are sent by {@link PreparedStatement#executeBatch()},
+ * otherwise each record is inserted by its own {@link PreparedStatement#executeUpdate()}.
+ * <p>
+ * When inserting fails before any record was written the insert is retried with inverted
+ * quoting of column names and then with inverted quoting of column and table names.
+ * <p>
+ * Failures are thrown as {@link FailedStatementException} carrying the insert statement and the values of the
+ * failed record.
+ */
+class RecordWriter
+{
+   private final static ILogger s_log = LoggerController.createLogger(RecordWriter.class);
+   private static final StringManager s_stringMgr = StringManagerFactory.getStringManager(RecordWriter.class);
+
+   private final SessionInfoProvider _prov;
+   private final ISQLConnection _destConn;
+   private final ITableInfo _destTableInfo;
+   private final TableColumnInfo[] _destInfos;
+   private final boolean _doubleQuoteTableName;
+   private final boolean _doubleQuoteColumnNames;
+   private final int _batchSize;
+   private final boolean _clearParameters;
+
+   private String _insertSQL;
+   private PreparedStatement _insertStmt;
+
+   private final ArrayList<RecordedRow> _pending = new ArrayList<>();
+
+   private int _writtenCount;
+   private long _writeNanos;
+
+   /**
+    * @param batchSize       Number of records to send to the database at once. Values less than two disable JDBC batches.
+    * @param clearParameters Whether to clear the parameters before binding a record. The MySQL driver gets unhappy
+    *                        when we use the same PreparedStatement to bind null and non-null LOB variables
+    *                        without clearing the parameters first.
+    */
+   RecordWriter(SessionInfoProvider prov,
+                ISQLConnection destConn,
+                ITableInfo destTableInfo,
+                TableColumnInfo[] destInfos,
+                boolean doubleQuoteTableName,
+                boolean doubleQuoteColumnNames,
+                int batchSize,
+                boolean clearParameters) throws SQLException, UserCancelledOperationException
+   {
+      _prov = prov;
+      _destConn = destConn;
+      _destTableInfo = destTableInfo;
+      _destInfos = destInfos;
+      _doubleQuoteTableName = doubleQuoteTableName;
+      _doubleQuoteColumnNames = doubleQuoteColumnNames;
+      _batchSize = Math.max(1, batchSize);
+      _clearParameters = clearParameters;
+
+      prepare(doubleQuoteColumnNames, doubleQuoteTableName);
+   }
+
+   private void prepare(boolean doubleQuoteColumnNames, boolean doubleQuoteTableName) throws SQLException, UserCancelledOperationException
+   {
+      SQLUtilities.closeStatement(_insertStmt);
+      _insertStmt = null;
+
+      String destColList = DBUtil.getColumnList(_destInfos, doubleQuoteColumnNames);
+      _insertSQL = DBUtil.getInsertSQL(_prov, destColList, _destTableInfo, _destInfos.length, doubleQuoteTableName);
+      _insertStmt = _destConn.prepareStatement(_insertSQL);
+   }
+
+   String getInsertSQL()
+   {
+      return _insertSQL;
+   }
+
+   /**
+    * Binds the record. When the batch is full it is sent to the database.
+    */
+   void write(RecordedRow row) throws SQLException, UserCancelledOperationException
+   {
+      long begin = System.nanoTime();
+      try
+      {
+         bind(row);
+         _pending.add(row);
+      }
+      catch (SQLException e)
+      {
+         throw new FailedStatementException(e, _insertSQL, row.getLastStatementValues());
+      }
+      finally
+      {
+         _writeNanos += System.nanoTime() - begin;
+      }
+
+      if (_pending.size() >= _batchSize)
+      {
+         flush();
+      }
+   }
+
+   /**
+    * Sends the pending records to the database.
+    */
+   void flush() throws SQLException, UserCancelledOperationException
+   {
+      if (_pending.isEmpty())
+      {
+         return;
+      }
+
+      long begin = System.nanoTime();
+      try
+      {
+         executeWithRetry();
+      }
+      catch (SQLException e)
+      {
+         throw new FailedStatementException(e, _insertSQL, getFailedRecordValues(e));
+      }
+      finally
+      {
+         _writeNanos += System.nanoTime() - begin;
+      }
+
+      _writtenCount += _pending.size();
+      releasePending();
+   }
+
+   /**
+    * A driver either marks the failed records by {@link Statement#EXECUTE_FAILED} or stops at the first error
+    * and returns only the update counts of the records before it.
+    */
+   private String getFailedRecordValues(SQLException e)
+   {
+      if (1 == _pending.size())
+      {
+         return _pending.get(0).getLastStatementValues();
+      }
+
+      if (e instanceof BatchUpdateException && null != ((BatchUpdateException) e).getUpdateCounts())
+      {
+         int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+
+         int failedIx = updateCounts.length;
+         for (int i = 0; i < updateCounts.length; i++)
+         {
+            if (Statement.EXECUTE_FAILED == updateCounts[i])
+            {
+               failedIx = i;
+               break;
+            }
+         }
+
+         if (failedIx < _pending.size())
+         {
+            return _pending.get(failedIx).getLastStatementValues();
+         }
+      }
+
+      return s_stringMgr.getString("RecordWriter.failedRecordUnknown", _pending.size());
+   }
+
+   private void releasePending()
+   {
+      for (RecordedRow row : _pending)
+      {
+         row.release();
+      }
+      _pending.clear();
+   }
+
+   private void executeWithRetry() throws SQLException, UserCancelledOperationException
+   {
+      try
+      {
+         execute();
+      }
+      catch (SQLException e)
+      {
+         if (false == isRetryable(e))
+         {
+            throw e;
+         }
+
+         try
+         {
+            s_log.info("Failed to execute INSERT-SQL. Now trying with inverted quoting for columns", e);
+            prepare(!_doubleQuoteColumnNames, _doubleQuoteTableName);
+            rebindPending();
+            execute();
+         }
+         catch (SQLException e1)
+         {
+            s_log.info("Failed to execute INSERT-SQL. Now trying with inverted quoting for columns and table", e1);
+            prepare(!_doubleQuoteColumnNames, !_doubleQuoteTableName);
+            rebindPending();
+            execute();
+         }
+      }
+   }
+
+   private void bind(RecordedRow row) throws SQLException
+   {
+      if (_clearParameters)
+      {
+         _insertStmt.clearParameters();
+      }
+      row.bind(_insertStmt);
+
+      if (1 < _batchSize)
+      {
+         _insertStmt.addBatch();
+      }
+   }
+
+   private void rebindPending() throws SQLException
+   {
+      for (RecordedRow row : _pending)
+      {
+         bind(row);
+      }
+   }
+
+   private void execute() throws SQLException
+   {
+      if (1 < _batchSize)
+      {
+         _insertStmt.executeBatch();
+      }
+      else
+      {
+         _insertStmt.executeUpdate();
+      }
+   }
+
+   /**
+    * Retrying a batch is only safe when none of its records made it into the destination table.
+    * A failed batch without update counts has an unknown outcome and is not retried.
+    */
+   private boolean isRetryable(SQLException e)
+   {
+      if (1 == _batchSize)
+      {
+         return true;
+      }
+
+      if (0 < _writtenCount)
+      {
+         return false;
+      }
+
+      if (e instanceof BatchUpdateException)
+      {
+         int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+
+         if (null == updateCounts)
+         {
+            // The driver doesn't tell which records were inserted, the outcome is unknown.
+            return false;
+         }
+
+         for (int updateCount : updateCounts)
+         {
+            if (Statement.EXECUTE_FAILED != updateCount)
+            {
+               return false;
+            }
+         }
+      }
+      return true;
+   }
+
+   int getWrittenCount()
+   {
+      return _writtenCount;
+   }
+
+   /**
+    * @return The number of records written per second of time spent writing, not counting the time waiting for the reader.
+    */
+   double getRecordsPerSecond()
+   {
+      return 0 == _writeNanos ? 0 : _writtenCount * 1e9 / _writeNanos;
+   }
+
+   void close()
+   {
+      releasePending();
+      SQLUtilities.closeStatement(_insertStmt);
+   }
+}
@@ -0,0 +1,152 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy;
+
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.CachedLobInputStream;
+import net.sourceforge.squirrel_sql.plugins.dbcopy.util.DBUtil;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * The bind variable values of one source record.
+ * <p>
+ * The values are read by {@link DBUtil#bindVariable} against a recording PreparedStatement,
+ * see {@link RecordReader}. Thus reading the source record and binding it to the insert statement
+ * may happen at different times and on different threads while the type conversions stay exactly
+ * those of DBUtil.
+ * <p>
+ * LOB values cached in files by DBUtil are bound as {@link CachedLobInputStream}s. Their files are only open
+ * while the driver reads them. Binding the row again reopens these files because the streams bound before
+ * were consumed by the database driver.
+ */
+class RecordedRow
+{
+   private final ArrayList<Method> _setters = new ArrayList<>();
+   private final ArrayList<Object[]> _args = new ArrayList<>();
+
+   private final String[] _bindVarVals;
+   private String _lastStatementValues;
+
+   private boolean _bound;
+
+   RecordedRow(int columnCount)
+   {
+      _bindVarVals = new String[columnCount];
+   }
+
+   /**
+    * Called for each method invoked on the recording PreparedStatement, see {@link RecordReader}.
+    */
+   Object record(Method method, Object[] args)
+   {
+      if (false == method.getName().startsWith("set") || null == args || 2 > args.length)
+      {
+         throw new UnsupportedOperationException("Recording of PreparedStatement." + method.getName() + "() is not supported");
+      }
+
+      _setters.add(method);
+      _args.add(args);
+      return null;
+   }
+
+   /**
+    * Binds the recorded values to ps.
+    */
+   void bind(PreparedStatement ps) throws SQLException
+   {
+      if (_bound)
+      {
+         reopenCachedLobs();
+      }
+      _bound = true;
+
+      for (int i = 0; i < _setters.size(); i++)
+      {
+         try
+         {
+            _setters.get(i).invoke(ps, _args.get(i));
+         }
+         catch (InvocationTargetException e)
+         {
+            if (e.getCause() instanceof SQLException)
+            {
+               throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+         }
+         catch (IllegalAccessException e)
+         {
+            throw new IllegalStateException(e);
+         }
+      }
+   }
+
+   private void reopenCachedLobs()
+   {
+      for (Object[] args : _args)
+      {
+         for (int i = 0; i < args.length; i++)
+         {
+            if (args[i] instanceof CachedLobInputStream)
+            {
+               CachedLobInputStream consumed = (CachedLobInputStream) args[i];
+               closeQuietly(consumed);
+               args[i] = consumed.reopen();
+            }
+         }
+      }
+   }
+
+   /**
+    * Closes and deletes the files of cached LOB values. Called when the row was written or won't be written anymore.
+    */
+   void release()
+   {
+      for (Object[] args : _args)
+      {
+         for (Object arg : args)
+         {
+            if (arg instanceof CachedLobInputStream)
+            {
+               closeQuietly((CachedLobInputStream) arg);
+               ((CachedLobInputStream) arg).getCacheFile().delete();
+            }
+         }
+      }
+   }
+
+   private static void closeQuietly(CachedLobInputStream stream)
+   {
+      try
+      {
+         stream.close();
+      }
+      catch (IOException e)
+      {
+         // Nothing to do, the stream was read from a local file.
+      }
+   }
+
+   void setBindVarVal(int index, String bindVal)
+   {
+      _bindVarVals[index] = bindVal;
+   }
+
+   void setLastStatementValues(String lastStatementValues)
+   {
+      _lastStatementValues = lastStatementValues;
+   }
+
+   String[] getBindVarVals()
+   {
+      return _bindVarVals;
+   }
+
+   String getLastStatementValues()
+   {
+      return _lastStatementValues;
+   }
+}
@@ -0,0 +1,163 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy;
+
+import net.sourceforge.squirrel_sql.fw.sql.ForeignKeyInfo;
+import net.sourceforge.squirrel_sql.fw.sql.ITableInfo;
+import net.sourceforge.squirrel_sql.fw.sql.SQLUtilities;
+import net.sourceforge.squirrel_sql.fw.sql.databasemetadata.SQLDatabaseMetaData;
+import net.sourceforge.squirrel_sql.fw.util.log.ILogger;
+import net.sourceforge.squirrel_sql.fw.util.log.LoggerController;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Hands out the tables of a copy operation to the workers of a parallel copy.
+ * <p>
+ * A table is handed out when all tables it references by foreign keys and that are part
+ * of the copy operation have been copied. Thus parent tables are filled before their children
+ * like in the sequential copy, see {@link SQLUtilities#getInsertionOrder}, while unrelated tables
+ * are copied concurrently.
+ * <p>
+ * Foreign key cycles are broken by handing out the first waiting table in insertion order
+ * when no table is ready and none is being copied.
+ */
+class TableCopyScheduler
+{
+   private final static ILogger s_log = LoggerController.createLogger(TableCopyScheduler.class);
+
+   private final ArrayList<ITableInfo> _waiting;
+   private final HashMap<ITableInfo, HashSet<ITableInfo>> _parentsByTable = new HashMap<>();
+
+   private final HashSet<ITableInfo> _running = new HashSet<>();
+   private final HashSet<ITableInfo> _finished = new HashSet<>();
+
+   private Throwable _failure;
+   private boolean _cancelled;
+
+   /**
+    * @param tables The tables to copy in insertion order.
+    */
+   TableCopyScheduler(List<ITableInfo> tables, SQLDatabaseMetaData sourceMetaData)
+   {
+      _waiting = new ArrayList<>(tables);
+
+      for (ITableInfo table : tables)
+      {
+         HashSet<ITableInfo> parents = new HashSet<>();
+         try
+         {
+            for (ForeignKeyInfo importedKey : SQLUtilities.getImportedKeys(table, sourceMetaData))
+            {
+               ITableInfo parent = findTable(tables, importedKey);
+               if (null != parent && parent != table)
+               {
+                  parents.add(parent);
+               }
+            }
+         }
+         catch (SQLException e)
+         {
+            s_log.error("Failed to read foreign keys of table " + table.getQualifiedName() + ". The table will be copied independently of other tables.", e);
+         }
+         _parentsByTable.put(table, parents);
+      }
+   }
+
+   private static ITableInfo findTable(List<ITableInfo> tables, ForeignKeyInfo importedKey)
+   {
+      for (ITableInfo table : tables)
+      {
+         if (table.getSimpleName().equalsIgnoreCase(importedKey.getPrimaryKeyTableName())
+             && namesMatch(table.getSchemaName(), importedKey.getPrimaryKeySchemaName())
+             && namesMatch(table.getCatalogName(), importedKey.getPrimaryKeyCatalogName()))
+         {
+            return table;
+         }
+      }
+      return null;
+   }
+
+   private static boolean namesMatch(String name1, String name2)
+   {
+      return null == name1 || null == name2 || name1.equalsIgnoreCase(name2);
+   }
+
+   /**
+    * Waits until a table is ready to be copied.
+    *
+    * @return The next table to copy or null when all tables have been handed out or the copy operation failed or was cancelled.
+    */
+   synchronized ITableInfo take() throws InterruptedException
+   {
+      while (true)
+      {
+         if (_cancelled || null != _failure || _waiting.isEmpty())
+         {
+            return null;
+         }
+
+         ITableInfo ready = findReady();
+         if (null != ready)
+         {
+            _waiting.remove(ready);
+            _running.add(ready);
+            return ready;
+         }
+
+         wait();
+      }
+   }
+
+   private ITableInfo findReady()
+   {
+      for (ITableInfo table : _waiting)
+      {
+         if (_finished.containsAll(_parentsByTable.get(table)))
+         {
+            return table;
+         }
+      }
+
+      if (_running.isEmpty())
+      {
+         ITableInfo first = _waiting.get(0);
+         s_log.info("Foreign key cycle between copied tables. Copying " + first.getQualifiedName() + " before the tables it references.");
+         return first;
+      }
+
+      return null;
+   }
+
+   synchronized void finished(ITableInfo table)
+   {
+      _running.remove(table);
+      _finished.add(table);
+      notifyAll();
+   }
+
+   /**
+    * Stops handing out tables. The first failure is kept to be reported by the copy operation.
+    */
+   synchronized void failed(Throwable t)
+   {
+      if (null == _failure)
+      {
+         _failure = t;
+      }
+      notifyAll();
+   }
+
+   synchronized Throwable getFailure()
+   {
+      return _failure;
+   }
+
+   synchronized void cancel()
+   {
+      _cancelled = true;
+      notifyAll();
+   }
+}
@@ -24,6 +24,9 @@ public class CopyEvent extends AbstractCopyEvent {
 
     int[] tableCounts;
     
+    /** the number of workers copying tables in parallel, 0 if tables are copied sequentially */
+    int workerCount;
+    
     public CopyEvent(SessionInfoProvider prov) {
         super(prov);
     }
@@ -35,5 +38,12 @@ public class CopyEvent extends AbstractCopyEvent {
     public int[] getTableCounts() {
         return tableCounts;
     }
-    
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
 }
@@ -35,6 +35,18 @@ public class RecordEvent extends AbstractCopyEvent {
      * belongs to
      */ 
     private int recordCount;
+    
+    /** the name of the table the record belongs to */
+    private String tableName;
+    
+    /** the number of the worker copying the table, 0 if tables are copied sequentially */
+    private int workerNumber;
+    
+    /** records per second read from the source table, 0 if unknown */
+    private double readRecordsPerSecond;
+    
+    /** records per second written to the destination table, 0 if unknown */
+    private double writtenRecordsPerSecond;
        
     /**
      * 
@@ -75,6 +87,62 @@ public class RecordEvent extends AbstractCopyEvent {
         return recordCount;
     }
     
+    /**
+     * @param tableName The tableName to set.
+     */
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * @return Returns the tableName.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @param workerNumber The workerNumber to set.
+     */
+    public void setWorkerNumber(int workerNumber) {
+        this.workerNumber = workerNumber;
+    }
+
+    /**
+     * @return Returns the workerNumber.
+     */
+    public int getWorkerNumber() {
+        return workerNumber;
+    }
+
+    /**
+     * @param readRecordsPerSecond The readRecordsPerSecond to set.
+     */
+    public void setReadRecordsPerSecond(double readRecordsPerSecond) {
+        this.readRecordsPerSecond = readRecordsPerSecond;
+    }
+
+    /**
+     * @return Returns the readRecordsPerSecond.
+     */
+    public double getReadRecordsPerSecond() {
+        return readRecordsPerSecond;
+    }
+
+    /**
+     * @param writtenRecordsPerSecond The writtenRecordsPerSecond to set.
+     */
+    public void setWrittenRecordsPerSecond(double writtenRecordsPerSecond) {
+        this.writtenRecordsPerSecond = writtenRecordsPerSecond;
+    }
+
+    /**
+     * @return Returns the writtenRecordsPerSecond.
+     */
+    public double getWrittenRecordsPerSecond() {
+        return writtenRecordsPerSecond;
+    }
+    
     /**
     * @see java.lang.Object#toString()
     */
@@ -21,6 +21,8 @@ package net.sourceforge.squirrel_sql.plugins.dbcopy.event;
 import net.sourceforge.squirrel_sql.fw.util.StringUtilities;
 import net.sourceforge.squirrel_sql.fw.util.Utilities;
 
+import java.util.List;
+
 /**
  * Contains information about an SQL statement that was executed.
  */
@@ -41,6 +43,9 @@ public class StatementEvent {
     
     /** any bind variable values.  only used when type = INSERT_RECORD_TYPE */
     private String[] bindValues = null;
+
+    /** the bind variable values of each record when the event is sent for several records.  only used when type = INSERT_RECORD_TYPE */
+    private List<String[]> bindValueRows = null;
     
     /** the type of the statement */
     private int statementType = -1;
@@ -96,6 +101,21 @@ public class StatementEvent {
     public String[] getBindValues() {
         return bindValues;
     }
+
+    /**
+     * @param bindValueRows The bind values of the records the statement was executed for.
+     */
+    public void setBindValueRows(List<String[]> bindValueRows) {
+        this.bindValueRows = bindValueRows;
+    }
+
+    /**
+     * @return Returns the bind values of the records the statement was executed for,
+     *         null if the event was sent for a single record, see {@link #getBindValues()}.
+     */
+    public List<String[]> getBindValueRows() {
+        return bindValueRows;
+    }
     
     @Override
     public String toString() {
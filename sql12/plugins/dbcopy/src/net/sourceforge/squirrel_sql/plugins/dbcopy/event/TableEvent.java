@@ -35,6 +35,9 @@ public class TableEvent extends AbstractCopyEvent {
     /** the name of the table to be copied */
     private String tableName;
     
+    /** the number of the worker copying the table, 0 if tables are copied sequentially */
+    private int workerNumber;
+    
     public TableEvent(SessionInfoProvider provider) {
         super(provider);
     }
@@ -80,6 +83,18 @@ public class TableEvent extends AbstractCopyEvent {
     public String getTableName() {
         return tableName;
     }
-    
-    
+
+    /**
+     * @param workerNumber The workerNumber to set.
+     */
+    public void setWorkerNumber(int workerNumber) {
+        this.workerNumber = workerNumber;
+    }
+
+    /**
+     * @return Returns the workerNumber.
+     */
+    public int getWorkerNumber() {
+        return workerNumber;
+    }
 }
@@ -53,6 +53,8 @@ public class DualProgressBarDialog {
     private static JLabel topMessage = null;
     private static JProgressBar bottomBar = null;
     private static JLabel bottomMessage = null;
+    private static JPanel workerPanel = null;
+    private static JLabel[] workerMessages = new JLabel[0];
     private static JButton cancelButton = null;
     
     private static JDialog dialog = null;
@@ -63,6 +65,12 @@ public class DualProgressBarDialog {
     private static TimeTracker timeTracker = null;
     private static RemainingTimeCalculator remainingCalc = null;
     
+    private static final int DIALOG_WIDTH = 350;
+    private static final int DIALOG_HEIGHT = 205;
+    
+    /** Height added to the dialog for each worker message line */
+    private static final int WORKER_MESSAGE_HEIGHT = 20;
+    
     /** Internationalized strings for this class */
     private static final StringManager s_stringMgr =
         StringManagerFactory.getStringManager(DualProgressBarDialog.class);    
@@ -123,7 +131,7 @@ public class DualProgressBarDialog {
         dialog.getContentPane().setLayout(new BorderLayout());
         dialog.getContentPane().add(buildPanel(), BorderLayout.CENTER);
         dialog.getContentPane().add(buildButtonPanel(listener), BorderLayout.SOUTH);
-        dialog.setSize(350,205);
+        dialog.setSize(DIALOG_WIDTH, DIALOG_HEIGHT);
         dialog.setLocationRelativeTo(owner);
         cancelButton.addActionListener(new CancelButtonListener(dialog));
         dialog.setVisible(true);
@@ -185,6 +193,14 @@ public class DualProgressBarDialog {
         c = new GridBagConstraints();
         c.gridx = 0;
         c.gridy = 4;
+        c.anchor = GridBagConstraints.WEST;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        workerPanel = new JPanel(new GridLayout(0, 1));
+        dataPanel.add(workerPanel, c);
+        
+        c = new GridBagConstraints();
+        c.gridx = 0;
+        c.gridy = 5;
         c.ipadx = 5;
         c.anchor = GridBagConstraints.CENTER;
         c.fill = GridBagConstraints.HORIZONTAL;
@@ -250,6 +266,44 @@ public class DualProgressBarDialog {
         }
     }
 
+    /**
+     * Shows one message line per worker when tables are copied in parallel.
+     * 
+     * @param count the number of workers. Less than two hides the worker 
+     *              message lines.
+     */
+    public static void setWorkerCount(final int count) {
+        GUIUtils.processOnSwingEventThread(new Runnable() {
+            public void run() {
+                workerPanel.removeAll();
+                workerMessages = new JLabel[count > 1 ? count : 0];
+                for (int i = 0; i < workerMessages.length; i++) {
+                    workerMessages[i] = new JLabel(" ");
+                    workerPanel.add(workerMessages[i]);
+                }
+                if (dialog != null) {
+                    dialog.setSize(DIALOG_WIDTH, 
+                            DIALOG_HEIGHT + workerMessages.length * WORKER_MESSAGE_HEIGHT);
+                    dialog.validate();
+                }
+            }
+        });
+    }
+    
+    /**
+     * @param worker the number of the worker, starting at 1.
+     * @param message the status of the worker.
+     */
+    public static void setWorkerMessage(final int worker, final String message) {
+        GUIUtils.processOnSwingEventThread(new Runnable() {
+            public void run() {
+                if (worker > 0 && worker <= workerMessages.length) {
+                    workerMessages[worker - 1].setText(message);
+                }
+            }
+        });
+    }
+    
     public static void setTopBarMinMax(final int min, final int max) {
         if (topBar.getMinimum() == min 
                 && topBar.getMaximum() == max) 
@@ -320,7 +374,7 @@ public class DualProgressBarDialog {
     
     public static void incrementTopBar(final int value) {
         final int newValue = topBar.getValue() + value;
-        remainingCalc.incrementCurrentItem();
+        remainingCalc.incrementCurrentItem(value);
         GUIUtils.processOnSwingEventThread(new Runnable() {
                public void run() {
                    topBar.setValue(newValue);
@@ -527,10 +581,8 @@ public class DualProgressBarDialog {
         private long secondsElapsed = 0;
         private long secondsRemaining = 0;
         
-        public void incrementCurrentItem() {
-            if (currentItem < totalItems) {
-                currentItem++;
-            } 
+        public void incrementCurrentItem(int count) {
+            currentItem = Math.min(totalItems, currentItem + count);
         }
         
         public void setCurrentItem(long anInt) {
@@ -39,6 +39,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 public class PreferencesPanel extends JPanel  {
+    private static final long serialVersionUID = 1L;
 
     DBCopyPreferenceBean _prefs = null;
     
@@ -58,6 +59,16 @@ public class PreferencesPanel extends JPanel  {
     
     JTextField commitRecordCountTextField = null;
     
+    JLabel batchSizeLabel = null;
+    
+    JTextField batchSizeTextField = null;
+    
+    JCheckBox readRecordsInSeparateThreadCheckBox = null;
+    
+    JLabel parallelTableCountLabel = null;
+    
+    JTextField parallelTableCountTextField = null;
+    
     JCheckBox saveScriptCheckBox = null;
     
     JCheckBox copyTableRecords = null;
@@ -157,16 +168,24 @@ public class PreferencesPanel extends JPanel  {
         addRecordCountLabel(result, 0, 11);
         addCommitRecordCountTextField(result, 1, 11);
         
-        addDelayCheckBox(result, 0, 12);
+        addBatchSizeLabel(result, 0, 12);
+        addBatchSizeTextField(result, 1, 12);
+        
+        addReadRecordsInSeparateThreadCheckBox(result, 0, 13);
+        
+        addParallelTableCountLabel(result, 0, 14);
+        addParallelTableCountTextField(result, 1, 14);
+        
+        addDelayCheckBox(result, 0, 15);
         
-        addDelayTablesLabel(result, 0, 13);
-        addDelayTablesTextField(result, 1, 13);
+        addDelayTablesLabel(result, 0, 16);
+        addDelayTablesTextField(result, 1, 16);
 
-        addDelayRecordsLabel(result, 0, 14);
-        addDelayRecordsTextField(result, 1, 14);        
+        addDelayRecordsLabel(result, 0, 17);
+        addDelayRecordsTextField(result, 1, 17);        
         
-        addWriteScriptCheckBox(result, 0, 15);
-        addAppendRecordsToExistingCheckBox(result, 0, 16);
+        addWriteScriptCheckBox(result, 0, 18);
+        addAppendRecordsToExistingCheckBox(result, 0, 19);
 
         return result;
     }    
@@ -473,6 +492,82 @@ public class PreferencesPanel extends JPanel  {
         panel.add(commitRecordCountTextField, c);                
     }
     
+    private void addBatchSizeLabel(JPanel panel, int col, int row) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = col;
+        c.gridy = row;  
+        c.insets = new Insets(5,25,0,0);
+        String label = 
+            s_stringMgr.getString("PreferencesPanel.batchSizeLabel");
+        batchSizeLabel = new JLabel(label);
+        batchSizeLabel.setHorizontalAlignment(JLabel.LEFT);
+        String toolTipText = 
+            s_stringMgr.getString("PreferencesPanel.batchSizeToolTip");
+        batchSizeLabel.setToolTipText(toolTipText);
+        panel.add(batchSizeLabel, c);                
+    }
+    
+    private void addBatchSizeTextField(JPanel panel, int col, int row) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = col;
+        c.gridy = row;  
+        c.ipadx = 40;      // Increases component width by 40 pixels
+        c.insets = new Insets(5,5,0,0);
+        c.anchor = GridBagConstraints.WEST;
+        batchSizeTextField = new JTextField(10);
+        batchSizeTextField.setHorizontalAlignment(JTextField.RIGHT);
+        String toolTipText = 
+            s_stringMgr.getString("PreferencesPanel.batchSizeToolTip");
+        batchSizeTextField.setToolTipText(toolTipText);
+        panel.add(batchSizeTextField, c);                
+    }
+    
+    private void addReadRecordsInSeparateThreadCheckBox(JPanel panel, int col, int row) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = col;
+        c.gridy = row;
+        c.gridwidth = 2;  // Span across two columns
+        c.insets = new Insets(10,0,0,0);
+        c.anchor = GridBagConstraints.WEST;
+        String cbLabelStr =         
+            s_stringMgr.getString("PreferencesPanel.readRecordsInSeparateThread");
+        String toolTipText = 
+            s_stringMgr.getString("PreferencesPanel.readRecordsInSeparateThreadToolTip");
+        readRecordsInSeparateThreadCheckBox = new JCheckBox(cbLabelStr);
+        readRecordsInSeparateThreadCheckBox.setToolTipText(toolTipText);
+        panel.add(readRecordsInSeparateThreadCheckBox, c);        
+    }
+    
+    private void addParallelTableCountLabel(JPanel panel, int col, int row) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = col;
+        c.gridy = row;  
+        c.insets = new Insets(5,25,0,0);
+        String label = 
+            s_stringMgr.getString("PreferencesPanel.parallelTableCountLabel");
+        parallelTableCountLabel = new JLabel(label);
+        parallelTableCountLabel.setHorizontalAlignment(JLabel.LEFT);
+        String toolTipText = 
+            s_stringMgr.getString("PreferencesPanel.parallelTableCountToolTip");
+        parallelTableCountLabel.setToolTipText(toolTipText);
+        panel.add(parallelTableCountLabel, c);                
+    }
+    
+    private void addParallelTableCountTextField(JPanel panel, int col, int row) {
+        GridBagConstraints c = new GridBagConstraints();
+        c.gridx = col;
+        c.gridy = row;  
+        c.ipadx = 40;      // Increases component width by 40 pixels
+        c.insets = new Insets(5,5,0,0);
+        c.anchor = GridBagConstraints.WEST;
+        parallelTableCountTextField = new JTextField(10);
+        parallelTableCountTextField.setHorizontalAlignment(JTextField.RIGHT);
+        String toolTipText = 
+            s_stringMgr.getString("PreferencesPanel.parallelTableCountToolTip");
+        parallelTableCountTextField.setToolTipText(toolTipText);
+        panel.add(parallelTableCountTextField, c);                
+    }
+    
     private void addDelayCheckBox(JPanel panel, int col, int row) {
         GridBagConstraints c = new GridBagConstraints();
         c.gridx = col;
@@ -620,6 +715,9 @@ public class PreferencesPanel extends JPanel  {
         fileCachingCheckBox.setSelected(_prefs.isUseFileCaching());
         bufferSizeTextField.setText(""+_prefs.getFileCacheBufferSize());
         commitRecordCountTextField.setText(""+_prefs.getCommitCount());
+        batchSizeTextField.setText(""+_prefs.getBatchSize());
+        readRecordsInSeparateThreadCheckBox.setSelected(_prefs.isReadRecordsInSeparateThread());
+        parallelTableCountTextField.setText(""+_prefs.getParallelTableCount());
         autoCommitCheckBox.setSelected(_prefs.isAutoCommitEnabled());
         if (_prefs.isUseFileCaching()) {
             bufferSizeLabel.setEnabled(true);
@@ -677,6 +775,7 @@ public class PreferencesPanel extends JPanel  {
         _prefs.setCheckKeywords(checkKeywordsCheckBox.isSelected());
         _prefs.setTestColumnNames(testColumnNamesCheckBox.isSelected());
         _prefs.setDelayBetweenObjects(delayBetweenObjects.isSelected());
+        _prefs.setReadRecordsInSeparateThread(readRecordsInSeparateThreadCheckBox.isSelected());
         try {
             String value = bufferSizeTextField.getText();
             _prefs.setFileCacheBufferSize(Integer.parseInt(value));
@@ -689,6 +788,18 @@ public class PreferencesPanel extends JPanel  {
         } catch (Exception e) {
             // Do nothing.
         }        
+        try {
+            String value = batchSizeTextField.getText();
+            _prefs.setBatchSize(Integer.parseInt(value));
+        } catch (Exception e) {
+            // Do nothing.
+        }
+        try {
+            String value = parallelTableCountTextField.getText();
+            _prefs.setParallelTableCount(Integer.parseInt(value));
+        } catch (Exception e) {
+            // Do nothing.
+        }
         try {
             String value = selectFetchSizeTextField.getText();
             _prefs.setSelectFetchSize(Integer.parseInt(value));
@@ -24,6 +24,8 @@ import java.io.Serializable;
  */
 public class DBCopyPreferenceBean implements Cloneable, 
                                              Serializable {
+	private static final long serialVersionUID = 1L;
+
 	static final String UNSUPPORTED = "Unsupported";
 
     /** Client Name. */
@@ -46,6 +48,15 @@ public class DBCopyPreferenceBean implements Cloneable,
     
     /** How many statements to issue before committing when auto-commit is off */
     private int commitCount = 100;
+
+    /** How many insert statements to send to the database in one JDBC batch */
+    private int batchSize = 500;
+
+    /** whether or not to read source records in a separate thread while inserting */
+    private boolean readRecordsInSeparateThread = true;
+
+    /** How many tables to copy concurrently, each using its own connections */
+    private int parallelTableCount = 1;
     
     /** whether or not to write each SQL executed to a script file */
     private boolean writeScript = false;
@@ -218,6 +229,48 @@ public class DBCopyPreferenceBean implements Cloneable,
         return commitCount;
     }
 
+    /**
+     * @param batchSize The batchSize to set.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return Returns the batchSize.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param readRecordsInSeparateThread The readRecordsInSeparateThread to set.
+     */
+    public void setReadRecordsInSeparateThread(boolean readRecordsInSeparateThread) {
+        this.readRecordsInSeparateThread = readRecordsInSeparateThread;
+    }
+
+    /**
+     * @return Returns the readRecordsInSeparateThread.
+     */
+    public boolean isReadRecordsInSeparateThread() {
+        return readRecordsInSeparateThread;
+    }
+
+    /**
+     * @param parallelTableCount The parallelTableCount to set.
+     */
+    public void setParallelTableCount(int parallelTableCount) {
+        this.parallelTableCount = parallelTableCount;
+    }
+
+    /**
+     * @return Returns the parallelTableCount.
+     */
+    public int getParallelTableCount() {
+        return parallelTableCount;
+    }
+
     /**
      * @param writeScript The writeScript to set.
      */
@@ -0,0 +1,143 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a LOB value that {@link DBUtil} cached in a temp file when file caching is switched on.
+ * <p>
+ * The file is opened on the first read and closed as soon as its last byte was read or the stream is closed.
+ * Drivers usually read exactly the length bound and never see the end of the stream.
+ * So records that were read ahead but not bound yet, see RecordReader, don't hold open files.
+ * <p>
+ * A stream bound to a PreparedStatement is consumed when the statement is executed.
+ * To bind the same value again, e.g. when an insert is retried, use {@link #reopen()}.
+ */
+public class CachedLobInputStream extends InputStream
+{
+   private final File _cacheFile;
+
+   private InputStream _in;
+   private long _remaining;
+   private boolean _closed;
+
+   public CachedLobInputStream(File cacheFile)
+   {
+      _cacheFile = cacheFile;
+   }
+
+   /**
+    * @return A new stream reading the cached value from its beginning.
+    */
+   public CachedLobInputStream reopen()
+   {
+      return new CachedLobInputStream(_cacheFile);
+   }
+
+   public File getCacheFile()
+   {
+      return _cacheFile;
+   }
+
+   @Override
+   public int read() throws IOException
+   {
+      if (false == open())
+      {
+         return -1;
+      }
+
+      int ret = _in.read();
+      bytesRead(-1 == ret ? -1 : 1);
+      return ret;
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) throws IOException
+   {
+      if (0 == len)
+      {
+         return 0;
+      }
+
+      if (false == open())
+      {
+         return -1;
+      }
+
+      int ret = _in.read(b, off, len);
+      bytesRead(ret);
+      return ret;
+   }
+
+   @Override
+   public long skip(long n) throws IOException
+   {
+      if (false == open())
+      {
+         return 0;
+      }
+      long ret = _in.skip(n);
+      bytesRead(ret);
+      return ret;
+   }
+
+   @Override
+   public int available() throws IOException
+   {
+      if (false == open())
+      {
+         return 0;
+      }
+      return _in.available();
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      _closed = true;
+
+      if (null != _in)
+      {
+         InputStream in = _in;
+         _in = null;
+         in.close();
+      }
+   }
+
+   private void bytesRead(long count) throws IOException
+   {
+      if (-1 == count)
+      {
+         close();
+         return;
+      }
+
+      _remaining -= count;
+      if (0 >= _remaining)
+      {
+         close();
+      }
+   }
+
+   /**
+    * @return false if the stream was closed.
+    */
+   private boolean open() throws IOException
+   {
+      if (_closed)
+      {
+         return false;
+      }
+
+      if (null == _in)
+      {
+         _in = new BufferedInputStream(new FileInputStream(_cacheFile));
+         _remaining = _cacheFile.length();
+      }
+      return true;
+   }
+}
@@ -48,9 +48,7 @@ import net.sourceforge.squirrel_sql.plugins.dbcopy.SessionInfoProvider;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.prefs.DBCopyPreferenceBean;
 import net.sourceforge.squirrel_sql.plugins.dbcopy.prefs.PreferencesManager;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -91,11 +89,6 @@ public class DBUtil extends I18NBaseObject
 	/** The name of the table to create when testing column names in dest db */
 	private static final String TEST_TABLE_NAME = "dbcopytest";
 
-	/** The last statement executed that we'll show to the user if error */
-	private static String lastStatement = null;
-
-	private static String lastStatementValues = null;
-
 	public static void setPreferences(DBCopyPreferenceBean bean)
 	{
 		_prefs = bean;
@@ -346,7 +339,8 @@ public class DBUtil extends I18NBaseObject
 	 * @return either the row count for INSERT, UPDATE or DELETE statements, or 0 for SQL statements that
 	 *         return nothing
 	 * @throws SQLException
-	 *         if a database access error occurs or the given SQL statement produces a ResultSet object
+	 *         if a database access error occurs or the given SQL statement produces a ResultSet object.
+	 *         A {@link FailedStatementException} if executing the statement fails.
 	 */
 	public static int executeUpdate(ISQLConnection con, String SQL, boolean writeSQL) throws SQLException
 	{
@@ -365,8 +359,10 @@ public class DBUtil extends I18NBaseObject
 				String msg = s_stringMgr.getString("DBUtil.info.executeupdate", SQL);
 				log.debug(msg);
 			}
-			lastStatement = SQL;
 			result = stmt.executeUpdate(SQL);
+		} catch (SQLException e)
+		{
+			throw new FailedStatementException(e, SQL, null);
 		} finally
 		{
 			SQLUtilities.closeStatement(stmt);
@@ -388,7 +384,23 @@ public class DBUtil extends I18NBaseObject
 	 */
 	public static ResultSet executeQuery(ISession session, String sql) throws SQLException
 	{
-		ISQLConnection sqlcon = session.getSQLConnection();
+		return executeQuery(session, session.getSQLConnection(), sql);
+	}
+
+	/**
+	 * Executes the specified sql statement on a connection other than the session's own connection,
+	 * e.g. the connection of a parallel copy worker.
+	 * 
+	 * @param session
+	 *        the session the connection belongs to, used to detect the database.
+	 * @param sqlcon
+	 *        the connection to execute the statement on.
+	 * @param sql
+	 * @return
+	 * @throws SQLException
+	 */
+	public static ResultSet executeQuery(ISession session, ISQLConnection sqlcon, String sql) throws SQLException
+	{
 		if (sqlcon == null || sql == null)
 		{
 			return null;
@@ -438,14 +450,13 @@ public class DBUtil extends I18NBaseObject
 
 		try
 		{
-			lastStatement = sql;
 			rs = stmt.executeQuery(sql);
 		} catch (SQLException e)
 		{
 			// Only close the statement if SQLException - otherwise it has to
 			// remain open until the ResultSet is read through by the caller.
 			SQLUtilities.closeStatement(stmt);
-			throw e;
+			throw new FailedStatementException(e, sql, null);
 		}
 
 		return rs;
@@ -1205,9 +1216,7 @@ public class DBUtil extends I18NBaseObject
 		fos.close();
 
 		// set the ps to read from the file we just created.
-		FileInputStream fis = new FileInputStream(f);
-		BufferedInputStream bis = new BufferedInputStream(fis);
-		ps.setAsciiStream(index, bis, total);
+		ps.setAsciiStream(index, new CachedLobInputStream(f), total);
 	}
 
 	private static void bindBlobVarInFile(PreparedStatement ps, int index, ResultSet rs, int type)
@@ -1250,9 +1259,7 @@ public class DBUtil extends I18NBaseObject
 		fos.close();
 
 		// set the ps to read from the file we just created.
-		FileInputStream fis = new FileInputStream(f);
-		BufferedInputStream bis = new BufferedInputStream(fis);
-		ps.setBinaryStream(index, bis, total);
+		ps.setBinaryStream(index, new CachedLobInputStream(f), total);
 	}
 
 	/**
@@ -2053,33 +2060,6 @@ public class DBUtil extends I18NBaseObject
 		return result.toString();
 	}
 
-	/**
-	 * @param lastStatement
-	 *        the lastStatement to set
-	 */
-	public static void setLastStatement(String lastStatement)
-	{
-		DBUtil.lastStatement = lastStatement;
-	}
-
-	/**
-	 * @return the lastStatement
-	 */
-	public static String getLastStatement()
-	{
-		return lastStatement;
-	}
-
-	public static void setLastStatementValues(String values)
-	{
-		lastStatementValues = values;
-	}
-
-	public static String getLastStatementValues()
-	{
-		return lastStatementValues;
-	}
-	
 	public static List<ITableInfo> convertObjectToTableList(List<IDatabaseObjectInfo> objectInfoList) 
 	{
 		List<ITableInfo> result = new ArrayList<ITableInfo>();
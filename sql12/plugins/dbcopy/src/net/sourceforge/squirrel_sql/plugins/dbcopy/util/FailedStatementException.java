@@ -0,0 +1,41 @@
+package net.sourceforge.squirrel_sql.plugins.dbcopy.util;
+
+import java.sql.SQLException;
+
+/**
+ * A SQLException together with the statement and the bind variable values that caused it.
+ * <p>
+ * Tables may be copied by several threads in parallel. So the statement that failed is passed
+ * along with the exception to be shown to the user, see CopyProgressMonitor.
+ * Message, SQL state and error code are those of the original exception.
+ */
+public class FailedStatementException extends SQLException
+{
+   private static final long serialVersionUID = 1L;
+
+   private final String _statement;
+   private final String _statementValues;
+
+   /**
+    * @param statementValues The bind variable values as appended to the statement in error messages, may be null.
+    */
+   public FailedStatementException(SQLException cause, String statement, String statementValues)
+   {
+      super(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+      _statement = statement;
+      _statementValues = statementValues;
+   }
+
+   public String getStatement()
+   {
+      return _statement;
+   }
+
+   /**
+    * @return null if the statement has no bind variables.
+    */
+   public String getStatementValues()
+   {
+      return _statementValues;
+   }
+}
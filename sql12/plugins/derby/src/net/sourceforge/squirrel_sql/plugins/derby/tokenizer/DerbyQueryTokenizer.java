@@ -44,6 +44,12 @@ public class DerbyQueryTokenizer extends QueryTokenizer implements IQueryTokeniz
         super(sep, linecomment, removeMultiLineComment, removeLineComment);
 	}
 
+    @Override
+    protected boolean isStreamingSupported()
+    {
+       return false;
+    }
+
     public void setScriptToTokenize(String script) {
         super.setScriptToTokenize(script);
         
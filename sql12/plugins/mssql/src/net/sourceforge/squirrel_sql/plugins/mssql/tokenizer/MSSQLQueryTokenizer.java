@@ -39,6 +39,12 @@ public class MSSQLQueryTokenizer extends QueryTokenizer implements IQueryTokeniz
         _prefs = prefs;
 	}
 
+    @Override
+    protected boolean isStreamingSupported()
+    {
+       return false;
+    }
+
     public void setScriptToTokenize(String script)
     {
         super.setScriptToTokenize(script);
@@ -76,6 +76,12 @@ public class MysqlQueryTokenizer extends QueryTokenizer implements IQueryTokeniz
         _prefs = prefs;
 	}
 
+    @Override
+    protected boolean isStreamingSupported()
+    {
+       return false;
+    }
+
     public void setScriptToTokenize(String script) {
         super.setScriptToTokenize(script);
         
@@ -57,6 +57,12 @@ public class NetezzaQueryTokenizer extends QueryTokenizer implements IQueryToken
 		_prefs = prefs;
 	}
 
+	@Override
+	protected boolean isStreamingSupported()
+	{
+		return false;
+	}
+
 	public void setScriptToTokenize(String script)
 	{
 		super.setScriptToTokenize(script);
@@ -98,6 +98,12 @@ public class OracleQueryTokenizer extends QueryTokenizer implements IQueryTokeni
 		_prefs = prefs;
 	}
 
+	@Override
+	protected boolean isStreamingSupported()
+	{
+		return false;
+	}
+
 	public void setScriptToTokenize(String script)
 	{
 		super.setScriptToTokenize(script);
@@ -49,6 +49,12 @@ public class SybaseQueryTokenizer extends QueryTokenizer implements IQueryTokeni
         _prefs = prefs;
 	}
 
+   @Override
+   protected boolean isStreamingSupported()
+   {
+      return false;
+   }
+
    public void setScriptToTokenize(String script)
    {
       super.setScriptToTokenize(script);
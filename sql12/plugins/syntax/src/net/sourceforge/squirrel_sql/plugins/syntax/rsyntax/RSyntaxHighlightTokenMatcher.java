@@ -24,6 +24,11 @@ public class RSyntaxHighlightTokenMatcher implements ISyntaxHighlightTokenMatche
 
    private Hashtable<CaseInsensitiveString, String> _knownTables =  new Hashtable<>();
 
+   /**
+    * Columns of tables are loaded in background, see SchemaInfo.isTableExt(). Repainting highlights them.
+    */
+   private Runnable _repaintOnColumnsLoaded = () -> _squirrelRSyntaxTextArea.repaint();
+
 
    private Vector<SQLTokenListener> _sqlTokenListeners = new Vector<SQLTokenListener>();
 
@@ -126,8 +131,8 @@ public class RSyntaxHighlightTokenMatcher implements ISyntaxHighlightTokenMatche
 
       // No new here, method is called very often
 
-      int tableExtRes = _sess.getSchemaInfo().isTableExt(_caseInsensitiveStringBuffer);
-      if(SchemaInfo.TABLE_EXT_COLS_LOADED_BEFORE == tableExtRes || SchemaInfo.TABLE_EXT_COLS_LOADED_IN_THIS_CALL == tableExtRes)
+      int tableExtRes = _sess.getSchemaInfo().isTableExt(_caseInsensitiveStringBuffer, _repaintOnColumnsLoaded);
+      if(SchemaInfo.TABLE_EXT_NOT_A_TABLE != tableExtRes)
       {
 
          // _knownTables is just a cache to prevent creating a new String each time